@@ -14,6 +14,8 @@ import se.swedsoft.bookkeeping.data.util.SSConfig;
 import se.swedsoft.bookkeeping.gui.SSMainFrame;
 import se.swedsoft.bookkeeping.gui.util.frame.SSFrameManager;
 import se.swedsoft.bookkeeping.gui.util.graphics.SSIcon;
+import se.swedsoft.bookkeeping.importexport.sie.SSSIEBatchExporter;
+import se.swedsoft.bookkeeping.importexport.sie.util.SIEType;
 
 import javax.swing.*;
 import java.awt.Cursor;
@@ -22,6 +24,9 @@ import java.io.File;
 import java.sql.Connection;
 import java.sql.DriverManager;
 import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -39,14 +44,15 @@ public class Bookkeeping {    private static final Logger LOG = LoggerFactory.ge
 
     /**
      *
+     * @return if the database was started
      */
-    private static void startupDatabase() {
+    private static boolean startupDatabase() {
         try {
             Class.forName("org.hsqldb.jdbcDriver");
         } catch (ClassNotFoundException e) {
             LOG.info("ERROR: failed to load HSQLDB JDBC driver.");
             LOG.error("Unexpected error", e);
-            return;
+            return false;
         }
 
         try {
@@ -58,6 +64,40 @@ public class Bookkeeping {    private static final Logger LOG = LoggerFactory.ge
 
         } catch (SQLException e) {
             LOG.error("Failed to start local database", e);
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Exports SIE files without the user interface:
+     * {@code --export-sie <directory> [all | <company id> | <company id>:<year>]...}
+     *
+     * @param args The arguments to the program.
+     * @return the exit status, 0 if every file was written and every selection matched a year
+     */
+    private static int exportSIE(String[] args) {
+        if (args.length < 2) {
+            LOG.error("Usage: --export-sie <directory> [all | <company id> | <company id>:<year>]...");
+            return 2;
+        }
+        System.setProperty("java.awt.headless", "true");
+
+        List<String> iSelection = args.length > 2
+                ? Arrays.asList(args).subList(2, args.length)
+                : Collections.singletonList("all");
+
+        if (!startupDatabase()) {
+            return 1;
+        }
+        try {
+            SSSIEBatchExporter iExporter = new SSSIEBatchExporter(new File(args[1]), SIEType.SIE_4E);
+
+            iExporter.export(iSelection);
+
+            return iExporter.getErrors().isEmpty() && iExporter.getUnmatched().isEmpty() ? 0 : 1;
+        } finally {
+            SSDB.getInstance().shutdown();
         }
     }
 
@@ -71,6 +111,9 @@ public class Bookkeeping {    private static final Logger LOG = LoggerFactory.ge
             LOG.info(Version.APP_TITLE + " " + Version.APP_VERSION);
             return;
         }
+        if (args.length > 0 && args[0].equals("--export-sie")) {
+            System.exit(exportSIE(args));
+        }
 
         try {
 	    String os = System.getProperty("os.name");
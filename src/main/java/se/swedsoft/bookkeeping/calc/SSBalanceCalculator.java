@@ -2,12 +2,11 @@ package se.swedsoft.bookkeeping.calc;
 
 
 import se.swedsoft.bookkeeping.calc.math.SSAccountMath;
-import se.swedsoft.bookkeeping.calc.math.SSVoucherMath;
 import se.swedsoft.bookkeeping.calc.util.SSCalculatorException;
 import se.swedsoft.bookkeeping.data.SSAccount;
 import se.swedsoft.bookkeeping.data.SSNewAccountingYear;
-import se.swedsoft.bookkeeping.data.SSVoucher;
-import se.swedsoft.bookkeeping.data.SSVoucherRow;
+import se.swedsoft.bookkeeping.data.system.SSDB;
+import se.swedsoft.bookkeeping.data.system.SSVoucherRowSum;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
@@ -51,7 +50,9 @@ public class SSBalanceCalculator {
     }
 
     public void calculate(LocalDate pFrom, LocalDate pTo) throws SSCalculatorException {
-        List<SSVoucher> iVouchers = iYearData.getVouchers();
+        Map<Integer, SSAccount> iAccounts = SSAccountMath.getAccountsByNumber(SSDB.getInstance().getAccounts());
+
+        SSLedgerCube iCube = SSLedgerCube.get(iYearData);
 
         iInBalance = iYearData.getInBalance();
 
@@ -61,42 +62,30 @@ public class SSBalanceCalculator {
                     ssAccountBigDecimalEntry2.getValue());
         }
 
-        // Loop through all vouchers
-        for (SSVoucher iVoucher: iVouchers) {
-            LocalDate voucherDate = iVoucher.getLocalDate();
-
-            // If the date of the voucer is before the start date, add to InSaldo
-            boolean inSaldo = voucherDate != null && pFrom != null && voucherDate.isBefore(pFrom);
-
-            // If the date of the oucher is in between the start and end date, add to PeriodChange
-            boolean inPeriod = voucherDate != null && pFrom != null && pTo != null
-                    && !voucherDate.isBefore(pFrom) && !voucherDate.isAfter(pTo);
+        if (pFrom != null) {
+            // Rows dated before the start date are added to the InSaldo
+            for (SSVoucherRowSum iSum : iCube.getSums(null, pFrom.minusDays(1))) {
+                SSAccount iAccount = iAccounts.get(iSum.getAccountNr());
 
-            // Loop through all the voucher rows
-            for (SSVoucherRow iRow: iVoucher.getRows()) {
-                SSAccount iRowAccount = iRow.getAccount();
-
-                // Skip the row is crossed or invalid
-                if (!iRow.isValid() || iRow.isCrossed()) {
-                    continue;
+                if (iAccount != null) {
+                    addValueToMap(iInSaldo, iAccount, iSum.getDebetMinusCredit());
                 }
+            }
+        }
 
-                BigDecimal iRowSum = SSVoucherMath.getDebetMinusCredit(iRow);
+        if (pFrom != null && pTo != null) {
+            // Rows dated between the start and end date are added to the PeriodChange
+            for (SSVoucherRowSum iSum : iCube.getSums(pFrom, pTo)) {
+                SSAccount iAccount = iAccounts.get(iSum.getAccountNr());
 
-                // Add the row sum to the periodChange, if in range
-                if (inPeriod) {
-                    // Add the row sum to the total sum
-                    addValueToMap(iChange, iRowAccount, iRowSum);
+                if (iAccount != null) {
+                    addValueToMap(iChange, iAccount, iSum.getDebetMinusCredit());
 
-                    addValueToMap(iChangePeriod, iRowAccount, iRowSum);
-                }
-                // Add the row sum to the inSaldo, if in range
-                if (inSaldo) {
-                    addValueToMap(iInSaldo, iRowAccount, iRowSum);
+                    addValueToMap(iChangePeriod, iAccount, iSum.getDebetMinusCredit());
                 }
             }
-
         }
+
         // Add the period change to the sum
         for (Map.Entry<SSAccount, BigDecimal> ssAccountBigDecimalEntry1 : iChangePeriod.entrySet()) {
             addValueToMap(iOutSaldo, ssAccountBigDecimalEntry1.getKey(),
@@ -204,8 +193,16 @@ public class SSBalanceCalculator {
      * @return The outbalance for the year
      */
     public static Map<SSAccount, BigDecimal> getOutBalance(SSNewAccountingYear pYearData) {
-        List<SSVoucher> iVouchers = pYearData.getVouchers();
+        return getOutBalance(pYearData, SSAccountMath.getAccountsByNumber(SSDB.getInstance().getAccounts()));
+    }
 
+    /**
+     *
+     * @param pYearData
+     * @param pAccounts the accounts by number
+     * @return The outbalance for the year
+     */
+    public static Map<SSAccount, BigDecimal> getOutBalance(SSNewAccountingYear pYearData, Map<Integer, SSAccount> pAccounts) {
         Map<SSAccount, BigDecimal> iOutBalance = new HashMap<>();
         Map<SSAccount, BigDecimal> iInBalance = pYearData.getInBalance();
 
@@ -218,26 +215,13 @@ public class SSBalanceCalculator {
             }
         }
 
-        // Loop through all vouchers
-        for (SSVoucher iVoucher: iVouchers) {
-
-            // Loop through all the voucher rows
-            for (SSVoucherRow iRow: iVoucher.getRows()) {
-                SSAccount iRowAccount = iRow.getAccount();
+        for (SSVoucherRowSum iSum : SSLedgerCube.get(pYearData).getSums(null, null)) {
+            SSAccount iAccount = pAccounts.get(iSum.getAccountNr());
 
-                // Skip the row is crossed or invalid
-                if (!iRow.isValid() || iRow.isCrossed()) {
-                    continue;
-                }
-
-                // Only calculate balance accoubts
-                if (SSAccountMath.isBalanceAccount(iRowAccount, pYearData)) {
-                    BigDecimal iRowSum = SSVoucherMath.getDebetMinusCredit(iRow);
-
-                    addValueToMap(iOutBalance, iRowAccount, iRowSum);
-                }
+            // Only calculate balance accoubts
+            if (iAccount != null && SSAccountMath.isBalanceAccount(iAccount, pYearData)) {
+                addValueToMap(iOutBalance, iAccount, iSum.getDebetMinusCredit());
             }
-
         }
         return iOutBalance;
     }
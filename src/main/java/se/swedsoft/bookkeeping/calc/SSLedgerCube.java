@@ -0,0 +1,357 @@
+package se.swedsoft.bookkeeping.calc;
+
+
+import se.swedsoft.bookkeeping.calc.util.SSAccountSums;
+import se.swedsoft.bookkeeping.data.SSAccount;
+import se.swedsoft.bookkeeping.data.SSNewAccountingYear;
+import se.swedsoft.bookkeeping.data.system.SSDB;
+import se.swedsoft.bookkeeping.data.system.SSVoucherRowSum;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.*;
+
+
+/**
+ * The debet and credit totals of the voucher rows per account, project, result unit
+ * and voucher date, read from the database in one pass.
+ *
+ * The balance, result, main book, sales tax and own report calculators take their
+ * sums from here instead of summing the vouchers or querying the database each. The
+ * totals of each account, project and result unit are kept as running sums over the
+ * voucher dates, so the sum for any date range is found with two binary searches.
+ * The cells are also indexed by project and by result unit, so a report over one
+ * project or result unit only reads the cells of that project or result unit.
+ * The running sums are kept in öre as longs, as BigDecimal only if that would not
+ * be exact.
+ *
+ * {@link #get(SSNewAccountingYear)} keeps the cubes of the last few years and builds
+ * a cube again when {@link SSDB#getVoucherRowVersion()} tells that the voucher rows
+ * have changed.
+ */
+public class SSLedgerCube {
+
+    private static final int MAX_CUBES = 4;
+
+    private static final Map<String, SSLedgerCube> cCubes = new LinkedHashMap<String, SSLedgerCube>(8, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, SSLedgerCube> pEldest) {
+            return size() > MAX_CUBES;
+        }
+    };
+
+    /**
+     * Returns the cube of a year, or of all years of the current company.
+     *
+     * @param pYear the accounting year, or null for all years of the current company
+     * @return the cube
+     */
+    public static SSLedgerCube get(SSNewAccountingYear pYear) {
+        SSDB iDB = SSDB.getInstance();
+        int iVersion = iDB.getVoucherRowVersion();
+        String iKey = pYear != null
+                ? "year " + pYear.getId()
+                : "company " + (iDB.getCurrentCompany() == null ? null : iDB.getCurrentCompany().getId());
+
+        synchronized (cCubes) {
+            SSLedgerCube iCube = cCubes.get(iKey);
+
+            if (iCube != null && iCube.iVersion == iVersion) {
+                return iCube;
+            }
+        }
+        // Built outside the lock so that the cubes of different years can be read at the same time
+        SSLedgerCube iCube = new SSLedgerCube(iDB.getVoucherRowDaySums(pYear), iVersion);
+
+        synchronized (cCubes) {
+            cCubes.put(iKey, iCube);
+        }
+        return iCube;
+    }
+
+    /**
+     * Drops all cubes.
+     */
+    public static void clear() {
+        synchronized (cCubes) {
+            cCubes.clear();
+        }
+    }
+
+    private final int iVersion;
+
+    // Account, project and result unit -> the running sums
+    private final Map<List<Object>, SSCell> iCells;
+
+    // Project number -> the cells of the project
+    private final Map<String, List<SSCell>> iProjectCells;
+
+    // Result unit number -> the cells of the result unit
+    private final Map<String, List<SSCell>> iResultUnitCells;
+
+    /**
+     *
+     * @param pSums the sums per account, project, result unit and date
+     */
+    SSLedgerCube(List<SSVoucherRowSum> pSums) {
+        this(pSums, -1);
+    }
+
+    /**
+     *
+     * @param pSums
+     * @param pVersion
+     */
+    private SSLedgerCube(List<SSVoucherRowSum> pSums, int pVersion) {
+        iVersion = pVersion;
+        iCells = new LinkedHashMap<>();
+        iProjectCells = new HashMap<>();
+        iResultUnitCells = new HashMap<>();
+
+        Map<List<Object>, List<SSVoucherRowSum>> iGroups = new LinkedHashMap<>();
+
+        for (SSVoucherRowSum iSum : pSums) {
+            iGroups.computeIfAbsent(Arrays.asList(iSum.getAccountNr(), iSum.getProjectNr(), iSum.getResultUnitNr()),
+                    pKey -> new ArrayList<>()).add(iSum);
+        }
+        for (Map.Entry<List<Object>, List<SSVoucherRowSum>> iGroup : iGroups.entrySet()) {
+            SSCell iCell = new SSCell(iGroup.getValue());
+
+            iCells.put(iGroup.getKey(), iCell);
+
+            if (iCell.iProjectNr != null) {
+                iProjectCells.computeIfAbsent(iCell.iProjectNr, pKey -> new ArrayList<>()).add(iCell);
+            }
+            if (iCell.iResultUnitNr != null) {
+                iResultUnitCells.computeIfAbsent(iCell.iResultUnitNr, pKey -> new ArrayList<>()).add(iCell);
+            }
+        }
+    }
+
+    /**
+     * Returns the sums per account, project and result unit for a date range, the
+     * same as {@link SSDB#getVoucherRowSums} for the year of the cube. Rows without
+     * a date are only included when neither date is given.
+     *
+     * @param pFrom first voucher date to include, or null for no lower bound
+     * @param pTo last voucher date to include, or null for no upper bound
+     * @return the sums
+     */
+    public List<SSVoucherRowSum> getSums(LocalDate pFrom, LocalDate pTo) {
+        return getSums(iCells.values(), pFrom, pTo);
+    }
+
+    /**
+     * Returns the sums of the rows of one project for a date range, without
+     * going through the rows of other projects.
+     *
+     * @param pProjectNr the project number
+     * @param pFrom first voucher date to include, or null for no lower bound
+     * @param pTo last voucher date to include, or null for no upper bound
+     * @return the sums per account and result unit
+     */
+    public List<SSVoucherRowSum> getProjectSums(String pProjectNr, LocalDate pFrom, LocalDate pTo) {
+        return getSums(iProjectCells.getOrDefault(pProjectNr, Collections.emptyList()), pFrom, pTo);
+    }
+
+    /**
+     * Returns the sums of the rows of one result unit for a date range, without
+     * going through the rows of other result units.
+     *
+     * @param pResultUnitNr the result unit number
+     * @param pFrom first voucher date to include, or null for no lower bound
+     * @param pTo last voucher date to include, or null for no upper bound
+     * @return the sums per account and project
+     */
+    public List<SSVoucherRowSum> getResultUnitSums(String pResultUnitNr, LocalDate pFrom, LocalDate pTo) {
+        return getSums(iResultUnitCells.getOrDefault(pResultUnitNr, Collections.emptyList()), pFrom, pTo);
+    }
+
+    /**
+     *
+     * @param pCells
+     * @param pFrom
+     * @param pTo
+     * @return the sums of the cells that have rows in the range
+     */
+    private static List<SSVoucherRowSum> getSums(Collection<SSCell> pCells, LocalDate pFrom, LocalDate pTo) {
+        List<SSVoucherRowSum> iSums = new ArrayList<>(pCells.size());
+
+        for (SSCell iCell : pCells) {
+            SSVoucherRowSum iSum = iCell.getSum(pFrom, pTo);
+
+            if (iSum != null) {
+                iSums.add(iSum);
+            }
+        }
+        return iSums;
+    }
+
+    /**
+     * Returns debet - credit per account for a date range.
+     *
+     * @param pAccounts the accounts by number, rows of other accounts are left out
+     * @param pFrom first voucher date to include, or null for no lower bound
+     * @param pTo last voucher date to include, or null for no upper bound
+     * @return the sums
+     */
+    public Map<SSAccount, BigDecimal> getDebetMinusCreditSum(Map<Integer, SSAccount> pAccounts, LocalDate pFrom, LocalDate pTo) {
+        Map<SSAccount, BigDecimal> iResult = new HashMap<>();
+
+        for (SSVoucherRowSum iSum : getSums(pFrom, pTo)) {
+            SSAccount iAccount = pAccounts.get(iSum.getAccountNr());
+
+            if (iAccount != null) {
+                iResult.merge(iAccount, iSum.getDebetMinusCredit(), BigDecimal::add);
+            }
+        }
+        return iResult;
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder();
+
+        sb.append("se.swedsoft.bookkeeping.calc.SSLedgerCube");
+        sb.append("{iCells=").append(iCells.size());
+        sb.append(", iVersion=").append(iVersion);
+        sb.append('}');
+        return sb.toString();
+    }
+
+    /**
+     * The running debet and credit sums of one account, project and result unit,
+     * ordered by date. The rows without a date are kept apart.
+     */
+    private static class SSCell {
+
+        private final Integer iAccountNr;
+
+        private final String iProjectNr;
+
+        private final String iResultUnitNr;
+
+        private final LocalDate[] iDates;
+
+        // iDebet[i] is the sum in öre of the first i dates
+        private long[] iDebet;
+
+        private long[] iCredit;
+
+        // The sums as BigDecimal, only used if the sums in öre would not be exact
+        private BigDecimal[] iExactDebet;
+
+        private BigDecimal[] iExactCredit;
+
+        private BigDecimal iUndatedDebet;
+
+        private BigDecimal iUndatedCredit;
+
+        /**
+         *
+         * @param pSums the sums of the cell, at most one per date
+         */
+        SSCell(List<SSVoucherRowSum> pSums) {
+            SSVoucherRowSum iFirst = pSums.get(0);
+
+            iAccountNr = iFirst.getAccountNr();
+            iProjectNr = iFirst.getProjectNr();
+            iResultUnitNr = iFirst.getResultUnitNr();
+
+            List<SSVoucherRowSum> iDated = new ArrayList<>(pSums.size());
+
+            for (SSVoucherRowSum iSum : pSums) {
+                if (iSum.getDate() == null) {
+                    iUndatedDebet = add(iUndatedDebet, iSum.getDebet());
+                    iUndatedCredit = add(iUndatedCredit, iSum.getCredit());
+                } else {
+                    iDated.add(iSum);
+                }
+            }
+            iDated.sort(Comparator.comparing(SSVoucherRowSum::getDate));
+
+            iDates = new LocalDate[iDated.size()];
+
+            for (int i = 0; i < iDates.length; i++) {
+                iDates[i] = iDated.get(i).getDate();
+            }
+            try {
+                iDebet = new long[iDated.size() + 1];
+                iCredit = new long[iDated.size() + 1];
+
+                for (int i = 0; i < iDates.length; i++) {
+                    SSVoucherRowSum iSum = iDated.get(i);
+
+                    iDebet[i + 1] = Math.addExact(iDebet[i], SSAccountSums.toCents(iSum.getDebet()));
+                    iCredit[i + 1] = Math.addExact(iCredit[i], SSAccountSums.toCents(iSum.getCredit()));
+                }
+            } catch (ArithmeticException e) {
+                iDebet = null;
+                iCredit = null;
+                iExactDebet = new BigDecimal[iDated.size() + 1];
+                iExactCredit = new BigDecimal[iDated.size() + 1];
+                iExactDebet[0] = BigDecimal.ZERO;
+                iExactCredit[0] = BigDecimal.ZERO;
+
+                for (int i = 0; i < iDates.length; i++) {
+                    SSVoucherRowSum iSum = iDated.get(i);
+
+                    iExactDebet[i + 1] = iExactDebet[i].add(iSum.getDebet());
+                    iExactCredit[i + 1] = iExactCredit[i].add(iSum.getCredit());
+                }
+            }
+        }
+
+        /**
+         *
+         * @param pFrom
+         * @param pTo
+         * @return the sum for the range, or null if the cell has no rows in it
+         */
+        SSVoucherRowSum getSum(LocalDate pFrom, LocalDate pTo) {
+            int iLow = pFrom == null ? 0 : indexOf(pFrom);
+            int iHigh = pTo == null ? iDates.length : indexOf(pTo.plusDays(1));
+            boolean iUndated = pFrom == null && pTo == null && iUndatedDebet != null;
+
+            if (iHigh <= iLow && !iUndated) {
+                return null;
+            }
+            BigDecimal iDebetSum = BigDecimal.ZERO;
+            BigDecimal iCreditSum = BigDecimal.ZERO;
+
+            if (iHigh > iLow && iDebet != null) {
+                iDebetSum = BigDecimal.valueOf(iDebet[iHigh] - iDebet[iLow], 2);
+                iCreditSum = BigDecimal.valueOf(iCredit[iHigh] - iCredit[iLow], 2);
+            } else if (iHigh > iLow) {
+                iDebetSum = iExactDebet[iHigh].subtract(iExactDebet[iLow]);
+                iCreditSum = iExactCredit[iHigh].subtract(iExactCredit[iLow]);
+            }
+            if (iUndated) {
+                iDebetSum = iDebetSum.add(iUndatedDebet);
+                iCreditSum = iCreditSum.add(iUndatedCredit);
+            }
+            return new SSVoucherRowSum(iAccountNr, iProjectNr, iResultUnitNr, iDebetSum, iCreditSum);
+        }
+
+        /**
+         *
+         * @param pDate
+         * @return the index of the first date on or after the date
+         */
+        private int indexOf(LocalDate pDate) {
+            int iIndex = Arrays.binarySearch(iDates, pDate);
+
+            return iIndex >= 0 ? iIndex : -iIndex - 1;
+        }
+
+        /**
+         *
+         * @param pSum
+         * @param pValue
+         * @return the sum, or the value if the sum is null
+         */
+        private static BigDecimal add(BigDecimal pSum, BigDecimal pValue) {
+            return pSum == null ? pValue : pSum.add(pValue);
+        }
+    }
+}
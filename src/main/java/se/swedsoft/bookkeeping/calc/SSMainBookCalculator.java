@@ -2,10 +2,11 @@ package se.swedsoft.bookkeeping.calc;
 
 
 import se.swedsoft.bookkeeping.calc.math.SSAccountMath;
-import se.swedsoft.bookkeeping.calc.math.SSVoucherMath;
 import se.swedsoft.bookkeeping.calc.util.SSCalculatorException;
 import se.swedsoft.bookkeeping.data.*;
 import se.swedsoft.bookkeeping.data.system.SSDB;
+import se.swedsoft.bookkeeping.data.system.SSVoucherRowEntry;
+import se.swedsoft.bookkeeping.data.system.SSVoucherRowSum;
 import se.swedsoft.bookkeeping.util.SSDateUtil;
 
 import java.math.BigDecimal;
@@ -170,9 +171,7 @@ public class SSMainBookCalculator {
      */
     public void calculate() throws SSCalculatorException {
 
-        List<SSVoucher> iVouchers = iYearData.getVouchers();
-
-        // List<SSAccount> iAccounts = iYearData.getAccounts();
+        Map<Integer, SSAccount> iAccounts = SSAccountMath.getAccountsByNumber(SSDB.getInstance().getAccounts());
 
         iInBalance = iYearData.getInBalance();
 
@@ -182,62 +181,47 @@ public class SSMainBookCalculator {
                     ssAccountBigDecimalEntry.getValue());
         }
 
-        for (SSVoucher iVoucher: iVouchers) {
-            LocalDate voucherDate = iVoucher.getLocalDate();
-
-            // If the date of the voucer is before the start date, add to InSaldo
-            boolean inSaldo = voucherDate != null
-                    && iDateFrom != null
-                    && voucherDate.isBefore(iDateFrom);
-
-            // If the date of the oucher is in between the start and end date, add to PeriodChange
-            boolean inPeriod = SSVoucherMath.inPeriod(iVoucher, iDateFrom, iDateTo);
-
-            // Loop through all the rows
-            for (SSVoucherRow iVoucherRow: iVoucher.getRows()) {
-                SSAccount    iAccount = iVoucherRow.getAccount();
+        if (iDateFrom != null) {
+            // Rows dated before the start date are added to the InSaldo
+            for (SSVoucherRowSum iSum : SSLedgerCube.get(iYearData).getSums(null, iDateFrom.minusDays(1))) {
+                SSAccount iAccount = iAccounts.get(iSum.getAccountNr());
 
-                SSNewProject    iRowProject = iVoucherRow.getProject();
-                SSNewResultUnit iRowResultUnit = iVoucherRow.getResultUnit();
-
-                // Skip the row if invalid
-                if (!iVoucherRow.isValid()) {
+                if (iAccount == null || !inProjectAndResultUnit(iSum.getProjectNr(), iSum.getResultUnitNr())) {
                     continue;
                 }
+                addValueToMap(iInSaldo, iAccount, iSum.getDebetMinusCredit());
+            }
+        }
 
-                if (iProject != null && !iProject.equals(iRowProject)) {
-                    continue;
-                }
-                if (iResultUnit != null && !iResultUnit.equals(iRowResultUnit)) {
-                    continue;
-                }
-
-                BigDecimal iRowSaldo = SSVoucherMath.getDebetMinusCredit(iVoucherRow);
-
-                // Add the row sum to the inSaldo, if in range
-                if (inSaldo && !iVoucherRow.isCrossed()) {
-                    addValueToMap(iInSaldo, iAccount, iRowSaldo);
-                }
+        // Rows dated between the start and end date
+        for (SSVoucherRowEntry iEntry : SSDB.getInstance().getVoucherRowEntries(iYearData, iDateFrom, iDateTo)) {
+            SSAccount iAccount = iAccounts.get(iEntry.getAccountNr());
 
-                // Add the row if the account and date is in the period
-                if (SSAccountMath.inPeriod(iAccount, iAccountFrom, iAccountTo) && inPeriod) {
-                    SSMainBookRow iMainBookRow = new SSMainBookRow();
+            // Skip the row if invalid
+            if (iAccount == null || (iEntry.getDebet() == null && iEntry.getCredit() == null)) {
+                continue;
+            }
+            if (!inProjectAndResultUnit(iEntry.getProjectNr(), iEntry.getResultUnitNr())) {
+                continue;
+            }
 
-                    iMainBookRow.iHasdata = true;
-                    iMainBookRow.iAccount = iAccount;
+            // Add the row if the account is in the period
+            if (SSAccountMath.inPeriod(iAccount, iAccountFrom, iAccountTo)) {
+                SSMainBookRow iMainBookRow = new SSMainBookRow();
 
-                    iMainBookRow.iNumber = iVoucher.getNumber();
-                    iMainBookRow.iDescription = iVoucher.getDescription();
-                    iMainBookRow.iDate = voucherDate;
+                iMainBookRow.iHasdata = true;
+                iMainBookRow.iAccount = iAccount;
 
-                    iMainBookRow.iAdded = iVoucherRow.isAdded();
-                    iMainBookRow.iCrossed = iVoucherRow.isCrossed();
-                    iMainBookRow.iDebet = iVoucherRow.getDebet();
-                    iMainBookRow.iCredit = iVoucherRow.getCredit();
-                    iMainBookRow.iSum = iRowSaldo;
-                    iRows.add(iMainBookRow);
+                iMainBookRow.iNumber = iEntry.getVoucherNumber();
+                iMainBookRow.iDescription = iEntry.getDescription();
+                iMainBookRow.iDate = iEntry.getLocalDate();
 
-                }
+                iMainBookRow.iAdded = iEntry.isAdded();
+                iMainBookRow.iCrossed = iEntry.isCrossed();
+                iMainBookRow.iDebet = iEntry.getDebet();
+                iMainBookRow.iCredit = iEntry.getCredit();
+                iMainBookRow.iSum = iEntry.getDebetMinusCredit();
+                iRows.add(iMainBookRow);
             }
         }
 
@@ -265,6 +249,19 @@ public class SSMainBookCalculator {
 
     }
 
+    /**
+     *
+     * @param pProjectNr
+     * @param pResultUnitNr
+     * @return if a row with the project and result unit numbers should be included
+     */
+    private boolean inProjectAndResultUnit(String pProjectNr, String pResultUnitNr) {
+        if (iProject != null && !iProject.getNumber().equals(pProjectNr)) {
+            return false;
+        }
+        return iResultUnit == null || iResultUnit.getNumber().equals(pResultUnitNr);
+    }
+
     /**
      *
      * @param iMap
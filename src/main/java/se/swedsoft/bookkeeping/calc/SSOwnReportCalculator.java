@@ -1,15 +1,21 @@
 package se.swedsoft.bookkeeping.calc;
 
 
-import se.swedsoft.bookkeeping.calc.math.SSVoucherMath;
+import se.swedsoft.bookkeeping.calc.math.SSAccountMath;
 import se.swedsoft.bookkeeping.calc.util.SSCalculatorException;
 import se.swedsoft.bookkeeping.data.*;
 import se.swedsoft.bookkeeping.data.system.SSDB;
+import se.swedsoft.bookkeeping.data.system.SSVoucherRowSum;
 import se.swedsoft.bookkeeping.gui.ownreport.util.SSOwnReportAccountRow;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
 
 
 public class SSOwnReportCalculator {
@@ -52,7 +58,25 @@ public class SSOwnReportCalculator {
 
     private Map<SSAccount, BigDecimal> iChangeBudget;
 
+    // The most threads to sum the years on
+    private final int iThreads;
+
     public SSOwnReportCalculator(LocalDate pFrom, LocalDate pTo, SSOwnReport pOwnReport, SSNewProject pProject, SSNewResultUnit pResultUnit) {
+        this(pFrom, pTo, pOwnReport, pProject, pResultUnit, Integer.getInteger("bokfri.report.threads",
+                Math.min(4, Runtime.getRuntime().availableProcessors())));
+    }
+
+    /**
+     *
+     * @param pFrom
+     * @param pTo
+     * @param pOwnReport
+     * @param pProject
+     * @param pResultUnit
+     * @param pThreads the most threads to sum the years on, 1 sums them on the calling thread
+     */
+    SSOwnReportCalculator(LocalDate pFrom, LocalDate pTo, SSOwnReport pOwnReport, SSNewProject pProject, SSNewResultUnit pResultUnit, int pThreads) {
+        iThreads = Math.max(1, pThreads);
         iFrom = pFrom;
         iTo = pTo;
         iOwnReport = pOwnReport;
@@ -72,55 +96,34 @@ public class SSOwnReportCalculator {
      */
     public void calculate() throws SSCalculatorException {
 
-        // Get all years
-        List<SSNewAccountingYear> iAllYearData = SSDB.getInstance().getYears();
-
-        // All vouchers
-        List<SSVoucher> iVouchers = new LinkedList<>();
+        Map<Integer, SSAccount> iAccounts = SSAccountMath.getAccountsByNumber(SSDB.getInstance().getAccounts());
+        Map<String, SSNewProject> iProjects = new HashMap<>();
+        Map<String, SSNewResultUnit> iResultUnits = new HashMap<>();
 
-        // Add the vouchers for all years to the list
-        for (SSNewAccountingYear iCurrent : iAllYearData) {
-            iVouchers.addAll(iCurrent.getVouchers());
+        for (SSNewProject iCurrent : SSDB.getInstance().getProjects()) {
+            iProjects.putIfAbsent(iCurrent.getNumber(), iCurrent);
+        }
+        for (SSNewResultUnit iCurrent : SSDB.getInstance().getResultUnits()) {
+            iResultUnits.putIfAbsent(iCurrent.getNumber(), iCurrent);
         }
 
-        // Loop through all vouchers
-        for (SSVoucher iVoucher: iVouchers) {
-
-            // If the date of the oucher is in between the start and end date, add to PeriodChange
-            boolean inPeriod = SSVoucherMath.inPeriod(iVoucher, iFrom, iTo);
-
-            // Loop through all the voucher rows
-            for (SSVoucherRow iRow: iVoucher.getRows()) {
-                SSAccount    iRowAccount = iRow.getAccount();
-                SSNewProject    iRowProject = iRow.getProject();
-                SSNewResultUnit iRowResultUnit = iRow.getResultUnit();
-
-                // Skip the row is crossed or invalid
-                if (!iRow.isValid() || iRow.isCrossed()) {
-                    continue;
-                }
+        // The rows of all years dated between the start and end date are added to PeriodChange.
+        // Each year that overlaps the period is summed on its own and the partial sums
+        // are merged.
+        List<SSNewAccountingYear> iYears = new ArrayList<>();
 
-                BigDecimal iRowSum = SSVoucherMath.getCreditMinusDebet(iRow);
-
-                if (inPeriod) {
-
-                    if (iProject != null) {
-                        if (inProject(iRowProject, iProject)) {
-                            addValueToMap(iChangePeriod, iRowAccount, iRowSum);
-                        } else {
-                            addValueToMap(iChangePeriod, iRowAccount, new BigDecimal(0));
-                        }
-                    } else if (iResultUnit != null) {
-                        if (inResultUnit(iRowResultUnit, iResultUnit)) {
-                            addValueToMap(iChangePeriod, iRowAccount, iRowSum);
-                        } else {
-                            addValueToMap(iChangePeriod, iRowAccount, new BigDecimal(0));
-                        }
-                    } else {
-                        addValueToMap(iChangePeriod, iRowAccount, iRowSum);
-                    }
+        if (iFrom != null && iTo != null) {
+            for (SSNewAccountingYear iYear : SSDB.getInstance().getYears()) {
+                if (inPeriod(iYear)) {
+                    iYears.add(iYear);
                 }
+            }
+        }
+        List<Map<SSAccount, BigDecimal>> iYearChanges = getChangePeriods(iYears, iAccounts, iProjects, iResultUnits);
 
+        for (Map<SSAccount, BigDecimal> iYearChange : iYearChanges) {
+            for (Map.Entry<SSAccount, BigDecimal> iEntry : iYearChange.entrySet()) {
+                addValueToMap(iChangePeriod, iEntry.getKey(), iEntry.getValue());
             }
         }
 
@@ -136,6 +139,127 @@ public class SSOwnReportCalculator {
         }
     }
 
+    /**
+     * Returns the change per account of each year, in the order of the years. The
+     * years are summed on a pool of at most iThreads threads of the calculator, which
+     * is shut down when done, or on the calling thread if there is only one.
+     *
+     * @param pYears
+     * @param pAccounts the accounts by number
+     * @param pProjects the projects by number
+     * @param pResultUnits the result units by number
+     * @return the change of each year
+     */
+    private List<Map<SSAccount, BigDecimal>> getChangePeriods(List<SSNewAccountingYear> pYears, Map<Integer, SSAccount> pAccounts,
+            Map<String, SSNewProject> pProjects, Map<String, SSNewResultUnit> pResultUnits) {
+        List<Map<SSAccount, BigDecimal>> iChanges = new ArrayList<>();
+
+        if (iThreads == 1 || pYears.size() < 2) {
+            for (SSNewAccountingYear iYear : pYears) {
+                iChanges.add(getChangePeriod(iYear, pAccounts, pProjects, pResultUnits));
+            }
+            return iChanges;
+        }
+        AtomicInteger iCount = new AtomicInteger();
+        ExecutorService iExecutor = Executors.newFixedThreadPool(Math.min(iThreads, pYears.size()), pRunnable -> {
+            Thread iThread = new Thread(pRunnable, "SSOwnReport-" + iCount.incrementAndGet());
+
+            iThread.setDaemon(true);
+            return iThread;
+        });
+
+        try {
+            List<Future<Map<SSAccount, BigDecimal>>> iFutures = new ArrayList<>();
+
+            for (SSNewAccountingYear iYear : pYears) {
+                iFutures.add(iExecutor.submit(() -> getChangePeriod(iYear, pAccounts, pProjects, pResultUnits)));
+            }
+            for (Future<Map<SSAccount, BigDecimal>> iFuture : iFutures) {
+                iChanges.add(iFuture.get());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SSCalculatorException("Interrupted");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new SSCalculatorException(String.valueOf(e.getCause()));
+        } finally {
+            iExecutor.shutdownNow();
+        }
+        return iChanges;
+    }
+
+    /**
+     * Returns the change per account of the rows of one year dated within the period.
+     * With a project or result unit only its rows are read, through the index of the cube.
+     *
+     * @param pYear
+     * @param pAccounts the accounts by number
+     * @param pProjects the projects by number
+     * @param pResultUnits the result units by number
+     * @return the change
+     */
+    private Map<SSAccount, BigDecimal> getChangePeriod(SSNewAccountingYear pYear, Map<Integer, SSAccount> pAccounts,
+            Map<String, SSNewProject> pProjects, Map<String, SSNewResultUnit> pResultUnits) {
+        Map<SSAccount, BigDecimal> iChange = new HashMap<>();
+        SSLedgerCube iCube = SSLedgerCube.get(pYear);
+        List<SSVoucherRowSum> iSums;
+
+        if (iProject != null || iResultUnit != null) {
+            // Every account with rows in the period is listed, with the change of the
+            // selected project or result unit only
+            for (SSVoucherRowSum iSum : iCube.getSums(iFrom, iTo)) {
+                SSAccount iRowAccount = pAccounts.get(iSum.getAccountNr());
+
+                if (iRowAccount != null) {
+                    iChange.putIfAbsent(iRowAccount, new BigDecimal(0));
+                }
+            }
+            iSums = iProject != null
+                    ? iCube.getProjectSums(iProject.getNumber(), iFrom, iTo)
+                    : iCube.getResultUnitSums(iResultUnit.getNumber(), iFrom, iTo);
+        } else {
+            iSums = iCube.getSums(iFrom, iTo);
+        }
+
+        for (SSVoucherRowSum iSum : iSums) {
+            SSAccount iRowAccount = pAccounts.get(iSum.getAccountNr());
+
+            if (iRowAccount == null) {
+                continue;
+            }
+            SSNewProject    iRowProject = iSum.getProjectNr() == null ? null : pProjects.get(iSum.getProjectNr());
+            SSNewResultUnit iRowResultUnit = iSum.getResultUnitNr() == null ? null : pResultUnits.get(iSum.getResultUnitNr());
+
+            if (iProject != null) {
+                if (inProject(iRowProject, iProject)) {
+                    addValueToMap(iChange, iRowAccount, iSum.getCreditMinusDebet());
+                }
+            } else if (iResultUnit != null) {
+                if (inResultUnit(iRowResultUnit, iResultUnit)) {
+                    addValueToMap(iChange, iRowAccount, iSum.getCreditMinusDebet());
+                }
+            } else {
+                addValueToMap(iChange, iRowAccount, iSum.getCreditMinusDebet());
+            }
+        }
+        return iChange;
+    }
+
+    /**
+     *
+     * @param pYear
+     * @return true if the year overlaps the period
+     */
+    private boolean inPeriod(SSNewAccountingYear pYear) {
+        LocalDate iYearFrom = pYear.getLocalFrom();
+        LocalDate iYearTo = pYear.getLocalTo();
+
+        return (iYearFrom == null || !iYearFrom.isAfter(iTo)) && (iYearTo == null || !iYearTo.isBefore(iFrom));
+    }
+
     /**
      *
      * @param pRowProject
@@ -2,10 +2,11 @@ package se.swedsoft.bookkeeping.calc;
 
 
 import se.swedsoft.bookkeeping.calc.math.SSAccountMath;
-import se.swedsoft.bookkeeping.calc.math.SSVoucherMath;
 import se.swedsoft.bookkeeping.calc.util.SSCalculatorException;
 import se.swedsoft.bookkeeping.data.*;
 import se.swedsoft.bookkeeping.data.system.SSDB;
+import se.swedsoft.bookkeeping.data.system.SSVoucherRowSum;
+
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.util.*;
@@ -92,68 +93,88 @@ public class SSResultCalculator {
      * @throws SSCalculatorException
      */
     public void calculate() throws SSCalculatorException {
+        Map<Integer, SSAccount> iAccounts = SSAccountMath.getAccountsByNumber(SSDB.getInstance().getAccounts());
 
-        // Get all years
-        List<SSNewAccountingYear> iAllYearData = SSDB.getInstance().getYears();
+        // The rows of all years of the company
+        SSLedgerCube iCube = SSLedgerCube.get(null);
 
-        // All vouchers
-        List<SSVoucher> iVouchers = new LinkedList<>();
+        if (iYearData.getLocalFrom() != null && iYearData.getLocalTo() != null) {
+            // Change over the year
+            for (SSVoucherRowSum iSum : iCube.getSums(iYearData.getLocalFrom(), iYearData.getLocalTo())) {
+                SSAccount iAccount = iAccounts.get(iSum.getAccountNr());
 
-        // Add the vouchers for all years to the list
-        for (SSNewAccountingYear iCurrent : iAllYearData) {
-            iVouchers.addAll(iCurrent.getVouchers());
+                if (iAccount != null) {
+                    addValueToMap(iChange, iAccount, iSum.getCreditMinusDebet());
+                }
+            }
         }
 
-        // Loop through all vouchers
-        for (SSVoucher iVoucher: iVouchers) {
+        if (iFrom != null && iTo != null) {
+            // Change for the same period last year
+            for (SSVoucherRowSum iSum : iCube.getSums(iFrom.minusYears(1), iTo.minusYears(1))) {
+                SSAccount iAccount = iAccounts.get(iSum.getAccountNr());
 
-            // If the date of the oucher is in between the start and end date, add to PeriodChange
-            boolean inPeriod = SSVoucherMath.inPeriod(iVoucher, iFrom, iTo);
+                if (iAccount != null) {
+                    addValueToMap(iChangePrevYear, iAccount, iSum.getCreditMinusDebet());
+                }
+            }
+        }
 
-            boolean inYear = SSVoucherMath.inPeriod(iVoucher,
-                    iYearData.getLocalFrom(),
-                    iYearData.getLocalTo());
+        Map<String, SSNewProject> iProjects = new HashMap<>();
+        Map<String, SSNewResultUnit> iResultUnits = new HashMap<>();
 
-            boolean inPrevYear = SSVoucherMath.inPeriodPrevYear(iVoucher, iFrom, iTo);
+        for (SSNewProject iCurrent : SSDB.getInstance().getProjects()) {
+            iProjects.putIfAbsent(iCurrent.getNumber(), iCurrent);
+        }
+        for (SSNewResultUnit iCurrent : SSDB.getInstance().getResultUnits()) {
+            iResultUnits.putIfAbsent(iCurrent.getNumber(), iCurrent);
+        }
 
-            // Loop through all the voucher rows
-            for (SSVoucherRow iRow: iVoucher.getRows()) {
-                SSAccount    iRowAccount = iRow.getAccount();
-                SSNewProject    iRowProject = iRow.getProject();
-                SSNewResultUnit iRowResultUnit = iRow.getResultUnit();
+        if (iFrom != null && iTo != null) {
+            // Change over the period
+            for (SSVoucherRowSum iSum : iCube.getSums(iFrom, iTo)) {
+                SSAccount iAccount = iAccounts.get(iSum.getAccountNr());
 
-                // Skip the row is crossed or invalid
-                if (!iRow.isValid() || iRow.isCrossed()) {
-                    continue;
+                if (iAccount != null) {
+                    addValueToMap(iChangePeriod, iAccount, iSum.getCreditMinusDebet());
                 }
+            }
+        }
 
-                BigDecimal iRowSum = SSVoucherMath.getCreditMinusDebet(iRow);
+        // Change for projects and resultunits, first over all years and then over the period.
+        // A selected project or result unit only reads its own rows.
+        for (int i = 0; i < 2; i++) {
+            boolean inPeriod = i == 1;
 
-                if (inYear) {
-                    addValueToMap(iChange, iRowAccount, iRowSum);
-                }
-                if (inPeriod) {
-                    addValueToMap(iChangePeriod, iRowAccount, iRowSum);
-                }
-                if (inPrevYear) {
-                    addValueToMap(iChangePrevYear, iRowAccount, iRowSum);
-                }
-                if (inProject(iRowProject, iProject)) {
+            if (inPeriod && (iFrom == null || iTo == null)) {
+                break;
+            }
+            LocalDate iSumFrom = inPeriod ? iFrom : null;
+            LocalDate iSumTo = inPeriod ? iTo : null;
 
-                    addValueToMap(iProjectChange, iRowAccount, iRowSum);
+            List<SSVoucherRowSum> iProjectSums = iProject != null
+                    ? iCube.getProjectSums(iProject.getNumber(), iSumFrom, iSumTo)
+                    : iCube.getSums(iSumFrom, iSumTo);
 
-                    if (inPeriod) {
-                        addValueToMap(iProjectChangePeriod, iRowAccount, iRowSum);
-                    }
+            for (SSVoucherRowSum iSum : iProjectSums) {
+                SSAccount    iAccount = iAccounts.get(iSum.getAccountNr());
+                SSNewProject iRowProject = iSum.getProjectNr() == null ? null : iProjects.get(iSum.getProjectNr());
+
+                if (iAccount != null && inProject(iRowProject, iProject)) {
+                    addValueToMap(inPeriod ? iProjectChangePeriod : iProjectChange, iAccount, iSum.getCreditMinusDebet());
                 }
-                if (inResultUnit(iRowResultUnit, iResultUnit)) {
+            }
 
-                    addValueToMap(iResultunitChange, iRowAccount, iRowSum);
+            List<SSVoucherRowSum> iResultUnitSums = iResultUnit != null
+                    ? iCube.getResultUnitSums(iResultUnit.getNumber(), iSumFrom, iSumTo)
+                    : iCube.getSums(iSumFrom, iSumTo);
 
-                    if (inPeriod) {
-                        addValueToMap(iResultunitChangePeriod, iRowAccount, iRowSum);
-                    }
+            for (SSVoucherRowSum iSum : iResultUnitSums) {
+                SSAccount       iAccount = iAccounts.get(iSum.getAccountNr());
+                SSNewResultUnit iRowResultUnit = iSum.getResultUnitNr() == null ? null : iResultUnits.get(iSum.getResultUnitNr());
 
+                if (iAccount != null && inResultUnit(iRowResultUnit, iResultUnit)) {
+                    addValueToMap(inPeriod ? iResultunitChangePeriod : iResultunitChange, iAccount, iSum.getCreditMinusDebet());
                 }
             }
         }
@@ -332,30 +353,25 @@ public class SSResultCalculator {
      * @return The result for the year
      */
     public static Map<SSAccount, BigDecimal> getResult(SSNewAccountingYear pYearData) {
-        List<SSVoucher> iVouchers = pYearData.getVouchers();
+        return getResult(pYearData, SSAccountMath.getAccountsByNumber(SSDB.getInstance().getAccounts()));
+    }
 
+    /**
+     *
+     * @param pYearData
+     * @param pAccounts the accounts by number
+     * @return The result for the year
+     */
+    public static Map<SSAccount, BigDecimal> getResult(SSNewAccountingYear pYearData, Map<Integer, SSAccount> pAccounts) {
         Map<SSAccount, BigDecimal> iResult = new HashMap<>();
 
-        // Loop through all vouchers
-        for (SSVoucher iVoucher: iVouchers) {
-
-            // Loop through all the voucher rows
-            for (SSVoucherRow iRow: iVoucher.getRows()) {
-                SSAccount iRowAccount = iRow.getAccount();
-
-                // Skip the row is crossed or invalid
-                if (!iRow.isValid() || iRow.isCrossed()) {
-                    continue;
-                }
+        for (SSVoucherRowSum iSum : SSLedgerCube.get(pYearData).getSums(null, null)) {
+            SSAccount iAccount = pAccounts.get(iSum.getAccountNr());
 
-                // Only calculate result accoubts
-                if (SSAccountMath.isResultAccount(iRowAccount, pYearData)) {
-                    BigDecimal iRowSum = SSVoucherMath.getDebetMinusCredit(iRow);
-
-                    addValueToMap(iResult, iRowAccount, iRowSum);
-                }
+            // Only calculate result accoubts
+            if (iAccount != null && SSAccountMath.isResultAccount(iAccount, pYearData)) {
+                addValueToMap(iResult, iAccount, iSum.getDebetMinusCredit());
             }
-
         }
         return iResult;
     }
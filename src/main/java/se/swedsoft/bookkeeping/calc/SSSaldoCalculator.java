@@ -1,216 +1,198 @@
 package se.swedsoft.bookkeeping.calc;
 
 
-import se.swedsoft.bookkeeping.calc.math.SSVoucherMath;
+import se.swedsoft.bookkeeping.calc.math.SSAccountMath;
+import se.swedsoft.bookkeeping.calc.util.SSAccountSums;
 import se.swedsoft.bookkeeping.data.*;
+import se.swedsoft.bookkeeping.data.system.SSDB;
+import se.swedsoft.bookkeeping.data.system.SSVoucherRowSum;
 
 import java.math.BigDecimal;
-import java.util.HashMap;
-import java.util.List;
-import java.util.Map;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
+import java.time.LocalDate;
+import java.util.*;
+import java.util.function.Predicate;
 
 
 /**
  * Date: 2006-feb-23
  * Time: 15:39:06
+ *
+ * The saldos per month are read from the month totals in the database (see
+ * {@link SSDB#getAccountMonthSums(SSNewAccountingYear)}). A period that is not a
+ * whole calendar month is summed from the voucher rows.
  */
-public class SSSaldoCalculator {    private static final Logger LOG = LoggerFactory.getLogger(SSSaldoCalculator.class);
+public class SSSaldoCalculator {
 
     private SSSaldoCalculator() {}
 
     /**
      *
-     * @param iMap
-     * @param iAccount
-     * @param iValue
+     * @param pYearData
+     * @param pMonth
+     * @return
      */
-    private static void addValueToMap(Map<SSAccount, BigDecimal> iMap, SSAccount iAccount, BigDecimal iValue) {
-        // Add the row sum to the total sum
-        BigDecimal s = iMap.get(iAccount);
-
-        if (s == null) {
-            iMap.put(iAccount, iValue);
-        } else {
-            iMap.put(iAccount, s.add(iValue));
-        }
+    public static Map<SSAccount, BigDecimal> getSaldo(SSNewAccountingYear pYearData, SSMonth pMonth) {
+        return getSaldo(pYearData, Collections.singletonList(pMonth), iSum -> true, getAccounts()).get(pMonth);
     }
 
     /**
      *
      * @param pYearData
+     * @param pProject
      * @param pMonth
      * @return
      */
-    public static Map<SSAccount, BigDecimal> getSaldo(SSNewAccountingYear pYearData, SSMonth pMonth) {
-        List<SSVoucher> iVouchers = pYearData.getVouchers();
-
-        Map<SSAccount, BigDecimal> iResult = new HashMap<>();
-
-        // Loop through all vouchers
-        for (SSVoucher iVoucher: iVouchers) {
-
-            if (!SSVoucherMath.inPeriod(iVoucher, pMonth)) {
-                continue;
-            }
-
-            // Loop through all the voucher rows
-            for (SSVoucherRow iRow: iVoucher.getRows()) {
-                SSAccount iRowAccount = iRow.getAccount();
-
-                // Skip the row is crossed or invalid
-                if (!iRow.isValid() || iRow.isCrossed()) {
-                    continue;
-                }
-
-                BigDecimal iRowSum = SSVoucherMath.getDebetMinusCredit(iRow);
-
-                addValueToMap(iResult, iRowAccount, iRowSum);
-            }
-
-        }
-        return iResult;
+    public static Map<SSAccount, BigDecimal> getSaldo(SSNewAccountingYear pYearData, SSNewProject pProject, SSMonth pMonth) {
+        return getSaldo(pYearData, Collections.singletonList(pMonth), inProject(pProject), getAccounts()).get(pMonth);
     }
 
     /**
      *
      * @param pYearData
-     * @param pProject
+     * @param pResultUnit
      * @param pMonth
      * @return
      */
-    public static Map<SSAccount, BigDecimal> getSaldo(SSNewAccountingYear pYearData, SSNewProject pProject, SSMonth pMonth) {
-        List<SSVoucher> iVouchers = pYearData.getVouchers();
-
-        Map<SSAccount, BigDecimal> iResult = new HashMap<>();
-
-        // Loop through all vouchers
-        for (SSVoucher iVoucher: iVouchers) {
-
-            if (!SSVoucherMath.inPeriod(iVoucher, pMonth)) {
-                continue;
-            }
+    public static Map<SSAccount, BigDecimal> getSaldo(SSNewAccountingYear pYearData, SSNewResultUnit pResultUnit, SSMonth pMonth) {
+        return getSaldo(pYearData, Collections.singletonList(pMonth), inResultUnit(pResultUnit), getAccounts()).get(pMonth);
+    }
 
-            // Loop through all the voucher rows
-            for (SSVoucherRow iRow: iVoucher.getRows()) {
-                SSAccount iRowAccount = iRow.getAccount();
-                SSNewProject iRowProject = iRow.getProject();
+    /**
+     *
+     * @param pYearData
+     * @return
+     */
+    public static Map<SSMonth, Map<SSAccount, BigDecimal>> getSaldo(SSNewAccountingYear pYearData) {
+        return getSaldo(pYearData, getAccounts());
+    }
 
-                if (iRowProject != null) {
-                    // Skip the row is crossed or invalid
-                    if (!iRow.isValid() || iRow.isCrossed()
-                            || !iRowProject.equals(pProject)) {
-                        continue;
-                    }
+    /**
+     *
+     * @param pYearData
+     * @param pAccounts the accounts by number
+     * @return
+     */
+    public static Map<SSMonth, Map<SSAccount, BigDecimal>> getSaldo(SSNewAccountingYear pYearData, Map<Integer, SSAccount> pAccounts) {
+        return getSaldo(pYearData, SSMonth.splitYearIntoMonths(pYearData), iSum -> true, pAccounts);
+    }
 
-                    BigDecimal iRowSum = SSVoucherMath.getDebetMinusCredit(iRow);
+    /**
+     *
+     * @param pYearData
+     * @param pProject
+     * @return
+     */
+    public static Map<SSMonth, Map<SSAccount, BigDecimal>> getSaldo(SSNewAccountingYear pYearData, SSNewProject pProject) {
+        return getSaldo(pYearData, pProject, getAccounts());
+    }
 
-                    addValueToMap(iResult, iRowAccount, iRowSum);
-                }
-            }
+    /**
+     *
+     * @param pYearData
+     * @param pProject
+     * @param pAccounts the accounts by number
+     * @return
+     */
+    public static Map<SSMonth, Map<SSAccount, BigDecimal>> getSaldo(SSNewAccountingYear pYearData, SSNewProject pProject, Map<Integer, SSAccount> pAccounts) {
+        return getSaldo(pYearData, SSMonth.splitYearIntoMonths(pYearData), inProject(pProject), pAccounts);
+    }
 
-        }
-        return iResult;
+    /**
+     *
+     * @param pYearData
+     * @param pResultUnit
+     * @return
+     */
+    public static Map<SSMonth, Map<SSAccount, BigDecimal>> getSaldo(SSNewAccountingYear pYearData, SSNewResultUnit pResultUnit) {
+        return getSaldo(pYearData, pResultUnit, getAccounts());
     }
 
     /**
      *
      * @param pYearData
      * @param pResultUnit
-     * @param pMonth
+     * @param pAccounts the accounts by number
      * @return
      */
-    public static Map<SSAccount, BigDecimal> getSaldo(SSNewAccountingYear pYearData, SSNewResultUnit pResultUnit, SSMonth pMonth) {
-        List<SSVoucher> iVouchers = pYearData.getVouchers();
+    public static Map<SSMonth, Map<SSAccount, BigDecimal>> getSaldo(SSNewAccountingYear pYearData, SSNewResultUnit pResultUnit, Map<Integer, SSAccount> pAccounts) {
+        return getSaldo(pYearData, SSMonth.splitYearIntoMonths(pYearData), inResultUnit(pResultUnit), pAccounts);
+    }
+
+    /**
+     * Returns debet - credit per account for each of the months. Whole calendar
+     * months are taken from the month totals, other periods from the voucher rows.
+     *
+     * @param pYearData
+     * @param pMonths
+     * @param pFilter the sums to include
+     * @param pAccounts the accounts by number
+     * @return the saldos per month
+     */
+    private static Map<SSMonth, Map<SSAccount, BigDecimal>> getSaldo(SSNewAccountingYear pYearData, List<SSMonth> pMonths, Predicate<SSVoucherRowSum> pFilter, Map<Integer, SSAccount> pAccounts) {
+        SSDB iDB = SSDB.getInstance();
+        Map<LocalDate, List<SSVoucherRowSum>> iMonthSums = null;
 
-        Map<SSAccount, BigDecimal> iResult = new HashMap<>();
+        Map<SSMonth, Map<SSAccount, BigDecimal>> iResult = new HashMap<>();
 
-        // Loop through all vouchers
-        for (SSVoucher iVoucher: iVouchers) {
+        for (SSMonth iMonth : pMonths) {
+            LocalDate iFrom = iMonth.getLocalFrom();
+            LocalDate iTo = iMonth.getLocalTo();
 
-            if (!SSVoucherMath.inPeriod(iVoucher, pMonth)) {
+            if (iFrom == null || iTo == null) {
+                iResult.put(iMonth, new HashMap<>());
                 continue;
             }
+            List<SSVoucherRowSum> iSums;
 
-            // Loop through all the voucher rows
-            for (SSVoucherRow iRow: iVoucher.getRows()) {
-                SSAccount    iRowAccount = iRow.getAccount();
-                SSNewResultUnit iRowResultUnit = iRow.getResultUnit();
+            if (iFrom.getDayOfMonth() == 1 && iTo.equals(iFrom.withDayOfMonth(iFrom.lengthOfMonth()))) {
+                if (iMonthSums == null) {
+                    iMonthSums = new HashMap<>();
 
-                if (iRowResultUnit != null) {
-                    // Skip the row is crossed or invalid
-                    if (!iRow.isValid() || iRow.isCrossed()
-                            || !iRowResultUnit.equals(pResultUnit)) {
-                        continue;
+                    for (SSVoucherRowSum iSum : iDB.getAccountMonthSums(pYearData)) {
+                        iMonthSums.computeIfAbsent(iSum.getDate(), pDate -> new ArrayList<>()).add(iSum);
                     }
-
-                    BigDecimal iRowSum = SSVoucherMath.getDebetMinusCredit(iRow);
-
-                    addValueToMap(iResult, iRowAccount, iRowSum);
                 }
+                iSums = iMonthSums.getOrDefault(iFrom, Collections.emptyList());
+            } else {
+                iSums = iDB.getVoucherRowSums(pYearData, iFrom, iTo);
             }
+            SSAccountSums iSaldo = new SSAccountSums();
 
+            for (SSVoucherRowSum iSum : iSums) {
+                if (pFilter.test(iSum)) {
+                    iSaldo.add(iSum.getAccountNr(), iSum.getDebet());
+                    iSaldo.subtract(iSum.getAccountNr(), iSum.getCredit());
+                }
+            }
+            iResult.put(iMonth, iSaldo.toMap(pAccounts));
         }
         return iResult;
     }
 
     /**
      *
-     * @param pYearData
-     * @return
+     * @return the accounts of the current year by number
      */
-    public static Map<SSMonth, Map<SSAccount, BigDecimal>> getSaldo(SSNewAccountingYear pYearData) {
-        List<SSMonth> iMonths = SSMonth.splitYearIntoMonths(pYearData);
-
-        Map<SSMonth, Map<SSAccount, BigDecimal>> iResult = new HashMap<>();
-
-        for (SSMonth iMonth: iMonths) {
-            Map<SSAccount, BigDecimal> iSaldo = getSaldo(pYearData, iMonth);
-
-            iResult.put(iMonth, iSaldo);
-        }
-        return iResult;
+    private static Map<Integer, SSAccount> getAccounts() {
+        return SSAccountMath.getAccountsByNumber(SSDB.getInstance().getAccounts());
     }
 
     /**
      *
-     * @param pYearData
      * @param pProject
      * @return
      */
-    public static Map<SSMonth, Map<SSAccount, BigDecimal>> getSaldo(SSNewAccountingYear pYearData, SSNewProject pProject) {
-        List<SSMonth> iMonths = SSMonth.splitYearIntoMonths(pYearData);
-
-        Map<SSMonth, Map<SSAccount, BigDecimal>> iResult = new HashMap<>();
-
-        for (SSMonth iMonth: iMonths) {
-            LOG.info("{}", iMonth);
-            Map<SSAccount, BigDecimal> iSaldo = getSaldo(pYearData, pProject, iMonth);
-
-            iResult.put(iMonth, iSaldo);
-        }
-        return iResult;
+    private static Predicate<SSVoucherRowSum> inProject(SSNewProject pProject) {
+        return iSum -> pProject != null && Objects.equals(pProject.getNumber(), iSum.getProjectNr());
     }
 
     /**
      *
-     * @param pYearData
      * @param pResultUnit
      * @return
      */
-    public static Map<SSMonth, Map<SSAccount, BigDecimal>> getSaldo(SSNewAccountingYear pYearData, SSNewResultUnit pResultUnit) {
-        List<SSMonth> iMonths = SSMonth.splitYearIntoMonths(pYearData);
-
-        Map<SSMonth, Map<SSAccount, BigDecimal>> iResult = new HashMap<>();
-
-        for (SSMonth iMonth: iMonths) {
-            LOG.info("{}", iMonth);
-            Map<SSAccount, BigDecimal> iSaldo = getSaldo(pYearData, pResultUnit, iMonth);
-
-            iResult.put(iMonth, iSaldo);
-        }
-        return iResult;
+    private static Predicate<SSVoucherRowSum> inResultUnit(SSNewResultUnit pResultUnit) {
+        return iSum -> pResultUnit != null && Objects.equals(pResultUnit.getNumber(), iSum.getResultUnitNr());
     }
 
 }
@@ -2,15 +2,16 @@ package se.swedsoft.bookkeeping.calc;
 
 
 import se.swedsoft.bookkeeping.calc.math.SSAccountMath;
-import se.swedsoft.bookkeeping.calc.math.SSVoucherMath;
+import se.swedsoft.bookkeeping.calc.math.SSVATCodeSums;
 import se.swedsoft.bookkeeping.calc.util.SSCalculatorException;
 import se.swedsoft.bookkeeping.data.SSAccount;
 import se.swedsoft.bookkeeping.data.SSNewAccountingYear;
-import se.swedsoft.bookkeeping.data.SSVoucher;
+import se.swedsoft.bookkeeping.data.system.SSDB;
 import se.swedsoft.bookkeeping.gui.util.SSBundle;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.util.HashMap;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
@@ -55,19 +56,17 @@ public class SSSalesTaxCalculator {    private static final Logger LOG = LoggerF
         iReportGroups = createReportGroups();
         iControlGroups = createControlGroups();
 
-        // Get all vouchers
-        List<SSVoucher> iVouchers = SSVoucherMath.getVouchers(
-                iAccountingYear.getVouchers(), iDateFrom, iDateTo);
+        Map<Integer, SSAccount> iAccounts = SSAccountMath.getAccountsByNumber(SSDB.getInstance().getAccounts());
+        Map<SSAccount, BigDecimal> debetMinusCreditSum = new HashMap<>();
 
-        // LOG.info("Momsrapport, verifikationer:");
-        // for(SSVoucher iVoucher : iVouchers){
-        // LOG.info(iVoucher);
-        // }
-
-        Map<SSAccount, BigDecimal> creditMinusDebetSum = SSVoucherMath.getCreditMinusDebetSum(
-                iVouchers);
-        Map<SSAccount, BigDecimal> debetMinusCreditSum = SSVoucherMath.getDebetMinusCreditSum(
-                iVouchers);
+        // Only vouchers dated within the period
+        if (iDateFrom != null && iDateTo != null) {
+            debetMinusCreditSum = SSLedgerCube.get(iAccountingYear).getDebetMinusCreditSum(iAccounts, iDateFrom, iDateTo);
+        }
+        // Every box below is a lookup in the sums per VAT code
+        SSVATCodeSums iDebetMinusCredit = new SSVATCodeSums(
+                SSAccountMath.getAccountsPerVATCode(iAccounts.values()), debetMinusCreditSum, false);
+        SSVATCodeSums iCreditMinusDebet = iDebetMinusCredit.negate();
 
         for (SSVATReportGroup iGroup : iReportGroups) {
             BigDecimal iSum = null;
@@ -76,108 +75,95 @@ public class SSSalesTaxCalculator {    private static final Logger LOG = LoggerF
             switch (iGroup.getGroup2()) {
 
             case 11:
-                iSum = SSAccountMath.getSumByVATCodeForAccounts(creditMinusDebetSum, "MP1", "MP2", "MP3").add(
-                        SSAccountMath.getSumByVATCodeForAccounts(debetMinusCreditSum,
-                        "TFEU"));
+                iSum = iCreditMinusDebet.getSum("MP1", "MP2", "MP3").add(iDebetMinusCredit.getSum("TFEU"));
                 break;
 
             case 12:
-                iSum = SSAccountMath.getSumByVATCodeForAccounts(creditMinusDebetSum, "MF");
+                iSum = iCreditMinusDebet.getSum("MF");
                 break;
 
             case 13:
-                iSum = SSAccountMath.getSumByVATCodeForAccounts(creditMinusDebetSum,
-                        "MPFF");
+                iSum = iCreditMinusDebet.getSum("MPFF");
                 break;
 
             case 14:
-                iSum = SSAccountMath.getSumByVATCodeForAccounts(creditMinusDebetSum,
-                        "MBVT");
+                iSum = iCreditMinusDebet.getSum("MBVT");
                 break;
 
             case 15:
-                iSum = SSAccountMath.getSumByVATCodeForAccounts(creditMinusDebetSum,
-                        "MBBU");
+                iSum = iCreditMinusDebet.getSum("MBBU");
                 break;
 
             case 21:
-                iSum = SSAccountMath.getSumByVATCodeForAccounts(creditMinusDebetSum, "E");
+                iSum = iCreditMinusDebet.getSum("E");
                 break;
 
             case 22:
-                iSum = SSAccountMath.getSumByVATCodeForAccounts(creditMinusDebetSum,
-                        "OTTU");
+                iSum = iCreditMinusDebet.getSum("OTTU");
                 break;
 
             case 23:
-                iSum = SSAccountMath.getSumByVATCodeForAccounts(creditMinusDebetSum,
-                        "VTEU");
+                iSum = iCreditMinusDebet.getSum("VTEU");
                 break;
 
             case 24:
-                iSum = SSAccountMath.getSumByVATCodeForAccounts(creditMinusDebetSum,
-                        "ÖVEU");
+                iSum = iCreditMinusDebet.getSum("ÖVEU");
                 break;
 
             case 25:
-                iSum = SSAccountMath.getSumByVATCodeForAccounts(debetMinusCreditSum,
-                        "VFEU");
+                iSum = iDebetMinusCredit.getSum("VFEU");
                 break;
 
             case 26:
-                iSum = SSAccountMath.getSumByVATCodeForAccounts(debetMinusCreditSum,
-                        "3VEU");
+                iSum = iDebetMinusCredit.getSum("3VEU");
                 break;
 
             case 30:
-                iSum = SSAccountMath.getSumByVATCodeForAccounts(creditMinusDebetSum, "UVL");
+                iSum = iCreditMinusDebet.getSum("UVL");
                 break;
 
             case 31:
-                iSum = SSAccountMath.getSumByVATCodeForAccounts(debetMinusCreditSum, "IVL");
+                iSum = iDebetMinusCredit.getSum("IVL");
                 break;
 
             case 32:
-                iSum = SSAccountMath.getSumByVATCodeForAccounts(creditMinusDebetSum, "U1",
-                        "UVL");
+                iSum = iCreditMinusDebet.getSum("U1", "UVL");
                 break;
 
             case 33:
-                iSum = SSAccountMath.getSumByVATCodeForAccounts(creditMinusDebetSum, "U2");
+                iSum = iCreditMinusDebet.getSum("U2");
                 break;
 
             case 34:
-                iSum = SSAccountMath.getSumByVATCodeForAccounts(creditMinusDebetSum, "U3");
+                iSum = iCreditMinusDebet.getSum("U3");
                 break;
 
             case 35:
-                iSum = SSAccountMath.getSumByVATCodeForAccounts(creditMinusDebetSum, "UEU");
+                iSum = iCreditMinusDebet.getSum("UEU");
                 break;
 
             case 36:
-                iSum = SSAccountMath.getSumByVATCodeForAccounts(creditMinusDebetSum,
-                        "UTFU");
+                iSum = iCreditMinusDebet.getSum("UTFU");
                 break;
 
             case 37:
-                iSum = SSAccountMath.getSumByVATCodeForAccounts(debetMinusCreditSum, "I",
-                        "IVL");
+                iSum = iDebetMinusCredit.getSum("I", "IVL");
                 break;
 
             case 50:
-                iSum = SSAccountMath.getSumByVATCodeForAccounts(creditMinusDebetSum, "IBU", "IBU1", "IBU2", "IBU3");
+                iSum = iCreditMinusDebet.getSum("IBU", "IBU1", "IBU2", "IBU3");
                 break;
 
             case 60:
-                iSum = SSAccountMath.getSumByVATCodeForAccounts(creditMinusDebetSum, "UI1");
+                iSum = iCreditMinusDebet.getSum("UI1");
                 break;
 
             case 61:
-                iSum = SSAccountMath.getSumByVATCodeForAccounts(creditMinusDebetSum, "UI2");
+                iSum = iCreditMinusDebet.getSum("UI2");
                 break;
 
             case 62:
-                iSum = SSAccountMath.getSumByVATCodeForAccounts(creditMinusDebetSum, "UI3");
+                iSum = iCreditMinusDebet.getSum("UI3");
                 break;
             }
             iGroup.setSum(iSum);
@@ -188,16 +174,15 @@ public class SSSalesTaxCalculator {    private static final Logger LOG = LoggerF
 
             switch (iGroup.getGroup1()) {
             case 1:
-                iSum = SSAccountMath.getSumByVATCodeForAccounts(creditMinusDebetSum, "MP1",
-                        "MPFF");
+                iSum = iCreditMinusDebet.getSum("MP1", "MPFF");
                 break;
 
             case 2:
-                iSum = SSAccountMath.getSumByVATCodeForAccounts(creditMinusDebetSum, "MP2");
+                iSum = iCreditMinusDebet.getSum("MP2");
                 break;
 
             case 3:
-                iSum = SSAccountMath.getSumByVATCodeForAccounts(creditMinusDebetSum, "MP3");
+                iSum = iCreditMinusDebet.getSum("MP3");
                 break;
             }
 
@@ -205,18 +190,15 @@ public class SSSalesTaxCalculator {    private static final Logger LOG = LoggerF
 
             switch (iGroup.getGroup1()) {
             case 1:
-                iReported = SSAccountMath.getSumByVATCodeForAccounts(creditMinusDebetSum,
-                        "U1", "UVL");
+                iReported = iCreditMinusDebet.getSum("U1", "UVL");
                 break;
 
             case 2:
-                iReported = SSAccountMath.getSumByVATCodeForAccounts(creditMinusDebetSum,
-                        "U2");
+                iReported = iCreditMinusDebet.getSum("U2");
                 break;
 
             case 3:
-                iReported = SSAccountMath.getSumByVATCodeForAccounts(creditMinusDebetSum,
-                        "U3");
+                iReported = iCreditMinusDebet.getSum("U3");
                 break;
             }
 
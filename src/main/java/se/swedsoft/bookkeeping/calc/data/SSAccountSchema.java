@@ -15,6 +15,7 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.io.Serializable;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -72,7 +73,7 @@ public class SSAccountSchema implements Serializable {    private static final L
         return sb.toString();
     }
 
-    private static Map<String, SSAccountSchema> iSchemaCache = new HashMap<>();
+    private static Map<String, SSAccountSchema> iSchemaCache = new ConcurrentHashMap<>();
 
     /**
      *
@@ -9,6 +9,9 @@ import se.swedsoft.bookkeeping.data.SSNewAccountingYear;
 import se.swedsoft.bookkeeping.data.system.SSDB;
 
 import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
@@ -95,6 +98,22 @@ public class SSAccountMath {
         return Optional.ofNullable(iAccountPlan.getAccount(pAccountNr));
     }
 
+    /**
+     * Returns the accounts keyed by account number, used to resolve the
+     * account numbers of summed voucher rows.
+     *
+     * @param pAccounts
+     * @return map from account number to account
+     */
+    public static Map<Integer, SSAccount> getAccountsByNumber(List<SSAccount> pAccounts) {
+        Map<Integer, SSAccount> iAccounts = new HashMap<>(pAccounts.size() * 2);
+
+        for (SSAccount iAccount : pAccounts) {
+            iAccounts.putIfAbsent(iAccount.getNumber(), iAccount);
+        }
+        return iAccounts;
+    }
+
     /**
      * Returns a List of accounts that are balance accounts.
      *
@@ -254,6 +273,23 @@ public class SSAccountMath {
         return filtered;
     }
 
+    /**
+     * Groups the accounts by their VAT code, accounts without a VAT code are
+     * grouped under null.
+     *
+     * @param pAccounts The accounts to group.
+     *
+     * @return The accounts per VAT code, in the order of the list.
+     */
+    public static Map<String, List<SSAccount>> getAccountsPerVATCode(Collection<SSAccount> pAccounts) {
+        Map<String, List<SSAccount>> iAccountsPerVATCode = new HashMap<>();
+
+        for (SSAccount iAccount : pAccounts) {
+            iAccountsPerVATCode.computeIfAbsent(iAccount.getVATCode(), k -> new ArrayList<>()).add(iAccount);
+        }
+        return iAccountsPerVATCode;
+    }
+
     /**
      * @param pSums
      * @param pVatCodes
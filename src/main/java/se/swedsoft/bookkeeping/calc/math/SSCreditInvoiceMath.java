@@ -61,6 +61,11 @@ public class SSCreditInvoiceMath extends SSInvoiceMath {
     }
 
     public static HashMap<Integer, BigDecimal> getSumsForInvoices(LocalDate iDate) {
+        SSSaldoLedger iLedger = SSInvoiceMath.getLedger();
+
+        if (iLedger != null) {
+            return iLedger.getCredited(iDate);
+        }
         HashMap<Integer, BigDecimal> iSums = new HashMap<>();
 
         List<SSCreditInvoice> iCreditInvoices = SSDB.getInstance().getCreditInvoices();
@@ -84,6 +89,13 @@ public class SSCreditInvoiceMath extends SSInvoiceMath {
     }
 
     public static BigDecimal getSumForInvoice(SSInvoice iInvoice, LocalDate iDate) {
+        SSSaldoLedger iLedger = SSInvoiceMath.getLedger();
+
+        if (iLedger != null) {
+            BigDecimal iSum = iLedger.getCredited(iInvoice.getNumber(), iDate);
+
+            return iSum == null ? new BigDecimal(0) : iSum;
+        }
         // Get all credit invoices from the db
         List<SSCreditInvoice> iCreditInvoices = SSDB.getInstance().getCreditInvoices();
 
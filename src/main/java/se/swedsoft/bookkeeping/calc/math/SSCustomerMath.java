@@ -6,9 +6,10 @@ import se.swedsoft.bookkeeping.data.SSInvoice;
 import se.swedsoft.bookkeeping.data.system.SSDB;
 
 import java.math.BigDecimal;
+import java.util.ArrayList;
 import java.util.HashMap;
-import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
 
 
 /**
@@ -26,6 +27,11 @@ public class SSCustomerMath {
      * @return
      */
     public static BigDecimal getCustomerClain(SSCustomer iCustomer) {
+        SSInvoiceGroups<SSInvoice> iGroups = cInvoices;
+
+        if (iGroups != null) {
+            return iGroups.getClaim(iCustomer.getNumber());
+        }
         List<SSInvoice> iInvoices = SSInvoiceMath.getInvoicesForCustomer(iCustomer);
 
         BigDecimal iCustomerClaim = new BigDecimal(0);
@@ -41,23 +47,102 @@ public class SSCustomerMath {
         return iCustomerClaim;
     }
 
+    /**
+     * The invoices of every customer, the map of {@link #cInvoices}.
+     */
     public static HashMap<String, List<SSInvoice>> iInvoicesForCustomers;
 
-    public static void getInvoicesForCustomers() {
-        if (iInvoicesForCustomers == null) {
-            iInvoicesForCustomers = new HashMap<>();
+    private static SSInvoiceGroups<SSInvoice> cInvoices;
+
+    /**
+     * Groups the invoices by customer in one pass. After this the groups are
+     * kept up to date by the SSDB triggers through {@link #invoiceChanged},
+     * {@link #invoiceDeleted} and {@link #customerAdded}.
+     */
+    public static synchronized void getInvoicesForCustomers() {
+        List<String> iNumbers = new ArrayList<>();
+
+        for (SSCustomer iCustomer : SSDB.getInstance().getCustomers()) {
+            iNumbers.add(iCustomer.getNumber());
         }
+        SSInvoiceGroups<SSInvoice> iGroups = new SSInvoiceGroups<>(iNumbers, SSDB.getInstance().getInvoices(),
+                SSInvoice::getNumber, SSInvoice::getCustomerNr, SSCustomerMath::getSaldo,
+                SSInvoiceMath::convertToLocal);
 
-        List<SSCustomer> iCustomers = SSDB.getInstance().getCustomers();
+        cInvoices = iGroups;
+        iInvoicesForCustomers = iGroups.getGroups();
+    }
 
-        for (SSCustomer iCustomer:iCustomers) {
-            List<SSInvoice> iInvoices = SSInvoiceMath.getInvoicesForCustomer(iCustomer);
-            List<SSInvoice> iInvoiceNumbers = new LinkedList<>();
+    /**
+     *
+     * @param iInvoice the new or changed invoice
+     */
+    public static void invoiceChanged(SSInvoice iInvoice) {
+        SSInvoiceGroups<SSInvoice> iGroups = cInvoices;
 
-            for (SSInvoice iInvoice:iInvoices) {
-                iInvoiceNumbers.add(iInvoice);
-            }
-            iInvoicesForCustomers.put(iCustomer.getNumber(), iInvoiceNumbers);
+        if (iGroups != null) {
+            iGroups.set(iInvoice);
         }
     }
+
+    /**
+     *
+     * @param iNumber the number of the deleted invoice
+     */
+    public static void invoiceDeleted(Integer iNumber) {
+        SSInvoiceGroups<SSInvoice> iGroups = cInvoices;
+
+        if (iGroups != null) {
+            iGroups.remove(iNumber);
+        }
+    }
+
+    /**
+     *
+     * @param iNumber the number of the new customer
+     */
+    public static void customerAdded(String iNumber) {
+        SSInvoiceGroups<SSInvoice> iGroups = cInvoices;
+
+        if (iGroups != null) {
+            iGroups.addKey(iNumber);
+        }
+    }
+
+    /**
+     * Called by the saldo ledger of {@link SSInvoiceMath} when the saldo of an
+     * invoice has changed.
+     *
+     * @param iNumber the number of the invoice
+     */
+    static void saldoChanged(Integer iNumber) {
+        SSInvoiceGroups<SSInvoice> iGroups = cInvoices;
+
+        if (iGroups != null) {
+            iGroups.saldoChanged(iNumber);
+        }
+    }
+
+    /**
+     * Called when the saldos of all invoices have been calculated again.
+     */
+    static void saldosChanged() {
+        SSInvoiceGroups<SSInvoice> iGroups = cInvoices;
+
+        if (iGroups != null) {
+            iGroups.saldosChanged();
+        }
+    }
+
+    /**
+     *
+     * @param iNumber
+     * @return the saldo of the invoice, or null before the saldos are calculated
+     * or if the invoice has none
+     */
+    private static BigDecimal getSaldo(Integer iNumber) {
+        Map<Integer, BigDecimal> iSaldos = SSInvoiceMath.iSaldoMap;
+
+        return iSaldos == null ? null : iSaldos.get(iNumber);
+    }
 }
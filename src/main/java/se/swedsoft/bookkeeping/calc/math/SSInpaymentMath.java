@@ -109,6 +109,11 @@ public class SSInpaymentMath {
     }
 
     public static HashMap<Integer, BigDecimal> getSumsForInvoices(LocalDate iDate) {
+        SSSaldoLedger iLedger = SSInvoiceMath.getLedger();
+
+        if (iLedger != null) {
+            return iLedger.getPaid(iDate);
+        }
         HashMap<Integer, BigDecimal> iSums = new HashMap<>();
 
         List<SSInpayment> iInpayments = SSDB.getInstance().getInpayments();
@@ -132,6 +137,13 @@ public class SSInpaymentMath {
     }
 
     public static BigDecimal getSumForInvoice(SSInvoice iInvoice, LocalDate iDate) {
+        SSSaldoLedger iLedger = SSInvoiceMath.getLedger();
+
+        if (iLedger != null) {
+            BigDecimal iSum = iLedger.getPaid(iInvoice.getNumber(), iDate);
+
+            return iSum == null ? new BigDecimal(0) : iSum;
+        }
         List<SSInpayment> iInpayments = SSDB.getInstance().getInpayments();
 
         BigDecimal iSum = new BigDecimal(0);
@@ -0,0 +1,248 @@
+package se.swedsoft.bookkeeping.calc.math;
+
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+
+/**
+ * The invoices of each customer or supplier and what they owe or are owed.
+ *
+ * The groups are built in one pass over the invoices and kept current by the
+ * invoice triggers in {@link se.swedsoft.bookkeeping.data.system.SSDB} through
+ * {@link SSCustomerMath#invoiceChanged} and {@link SSSupplierMath#invoiceChanged}
+ * and the matching delete methods. An invoice stays at its place in the list
+ * of its customer when it is changed, and moves to the end of the list of the
+ * new customer if the customer is changed.
+ *
+ * The claim of a customer is the saldo of its invoices in local currency. It is
+ * summed the first time it is asked for and kept until one of the invoices or
+ * one of their saldos change.
+ *
+ * @param <T> the invoice type
+ */
+class SSInvoiceGroups<T> {
+
+    private final Function<T, Integer> iNumberOf;
+
+    private final Function<T, String> iKeyOf;
+
+    private final Function<Integer, BigDecimal> iSaldoOf;
+
+    private final BiFunction<T, BigDecimal, BigDecimal> iToLocal;
+
+    // Customer or supplier number -> invoices
+    private final HashMap<String, List<T>> iGroups;
+
+    // Invoice number -> invoice
+    private final Map<Integer, T> iInvoices;
+
+    // Customer or supplier number -> claim, for the groups asked for since they changed
+    private final Map<String, BigDecimal> iClaims;
+
+    /**
+     *
+     * @param pKeys the customer or supplier numbers, each gets a list even without invoices
+     * @param pInvoices the invoices to group
+     * @param pNumberOf the number of an invoice
+     * @param pKeyOf the customer or supplier number of an invoice
+     * @param pSaldoOf the saldo of an invoice number, null if it has none
+     * @param pToLocal converts an amount on an invoice to local currency
+     */
+    SSInvoiceGroups(Collection<String> pKeys, List<T> pInvoices, Function<T, Integer> pNumberOf,
+            Function<T, String> pKeyOf, Function<Integer, BigDecimal> pSaldoOf,
+            BiFunction<T, BigDecimal, BigDecimal> pToLocal) {
+        iNumberOf = pNumberOf;
+        iKeyOf = pKeyOf;
+        iSaldoOf = pSaldoOf;
+        iToLocal = pToLocal;
+        iGroups = new HashMap<>(pKeys.size() * 2);
+        iInvoices = new HashMap<>(pInvoices.size() * 2);
+        iClaims = new HashMap<>();
+
+        for (String iKey : pKeys) {
+            if (iKey != null) {
+                iGroups.putIfAbsent(iKey, new ArrayList<>());
+            }
+        }
+        for (T iInvoice : pInvoices) {
+            if (iInvoices.putIfAbsent(iNumberOf.apply(iInvoice), iInvoice) == null) {
+                add(iInvoice);
+            }
+        }
+    }
+
+    /**
+     * The groups, for the reports and table models that read them directly.
+     *
+     * @return the invoices per customer or supplier number
+     */
+    HashMap<String, List<T>> getGroups() {
+        return iGroups;
+    }
+
+    /**
+     * Adds an empty group for a new customer or supplier.
+     *
+     * @param pKey
+     */
+    synchronized void addKey(String pKey) {
+        if (pKey != null) {
+            iGroups.putIfAbsent(pKey, new ArrayList<>());
+        }
+    }
+
+    /**
+     * Adds an invoice, or replaces the invoice with the same number.
+     *
+     * @param pInvoice
+     */
+    synchronized void set(T pInvoice) {
+        Integer iNumber = iNumberOf.apply(pInvoice);
+        T iOld = iInvoices.put(iNumber, pInvoice);
+
+        if (iOld != null) {
+            String iOldKey = iKeyOf.apply(iOld);
+            String iNewKey = iKeyOf.apply(pInvoice);
+
+            if (iOldKey != null && iOldKey.equals(iNewKey)) {
+                List<T> iGroup = iGroups.get(iOldKey);
+                int iIndex = indexOf(iGroup, iNumber);
+
+                if (iIndex != -1) {
+                    iGroup.set(iIndex, pInvoice);
+                    iClaims.remove(iOldKey);
+                    return;
+                }
+            }
+            removeFromGroup(iOld);
+        }
+        add(pInvoice);
+    }
+
+    /**
+     *
+     * @param pNumber
+     */
+    synchronized void remove(Integer pNumber) {
+        T iOld = iInvoices.remove(pNumber);
+
+        if (iOld != null) {
+            removeFromGroup(iOld);
+        }
+    }
+
+    /**
+     * Forgets the claim of the customer of the invoice, its saldo has changed.
+     *
+     * @param pNumber
+     */
+    synchronized void saldoChanged(Integer pNumber) {
+        T iInvoice = iInvoices.get(pNumber);
+
+        if (iInvoice != null) {
+            iClaims.remove(iKeyOf.apply(iInvoice));
+        }
+    }
+
+    /**
+     * Forgets all claims, the saldos have been calculated again.
+     */
+    synchronized void saldosChanged() {
+        iClaims.clear();
+    }
+
+    /**
+     *
+     * @param pKey
+     * @return the sum of the saldos of the invoices in local currency
+     */
+    synchronized BigDecimal getClaim(String pKey) {
+        BigDecimal iClaim = iClaims.get(pKey);
+
+        if (iClaim != null) {
+            return iClaim;
+        }
+        iClaim = new BigDecimal(0);
+
+        List<T> iGroup = pKey == null ? null : iGroups.get(pKey);
+
+        if (iGroup != null) {
+            for (T iInvoice : iGroup) {
+                BigDecimal iSaldo = iSaldoOf.apply(iNumberOf.apply(iInvoice));
+
+                if (iSaldo != null) {
+                    iClaim = iClaim.add(iToLocal.apply(iInvoice, iSaldo));
+                }
+            }
+            iClaims.put(pKey, iClaim);
+        }
+        return iClaim;
+    }
+
+    /**
+     *
+     * @param pInvoice
+     */
+    private void add(T pInvoice) {
+        String iKey = iKeyOf.apply(pInvoice);
+
+        if (iKey == null) {
+            return;
+        }
+        iGroups.computeIfAbsent(iKey, pKey -> new ArrayList<>()).add(pInvoice);
+        iClaims.remove(iKey);
+    }
+
+    /**
+     *
+     * @param pInvoice
+     */
+    private void removeFromGroup(T pInvoice) {
+        String iKey = iKeyOf.apply(pInvoice);
+        List<T> iGroup = iKey == null ? null : iGroups.get(iKey);
+
+        if (iGroup == null) {
+            return;
+        }
+        int iIndex = indexOf(iGroup, iNumberOf.apply(pInvoice));
+
+        if (iIndex != -1) {
+            iGroup.remove(iIndex);
+        }
+        iClaims.remove(iKey);
+    }
+
+    /**
+     *
+     * @param pGroup
+     * @param pNumber
+     * @return the index of the invoice with the number in the group, or -1
+     */
+    private int indexOf(List<T> pGroup, Integer pNumber) {
+        for (int i = 0; i < pGroup.size(); i++) {
+            if (pNumber.equals(iNumberOf.apply(pGroup.get(i)))) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    @Override
+    public synchronized String toString() {
+        final StringBuilder sb = new StringBuilder();
+
+        sb.append("se.swedsoft.bookkeeping.calc.math.SSInvoiceGroups");
+        sb.append("{iGroups=").append(iGroups.size());
+        sb.append(", iInvoices=").append(iInvoices.size());
+        sb.append(", iClaims=").append(iClaims.size());
+        sb.append('}');
+        return sb.toString();
+    }
+}
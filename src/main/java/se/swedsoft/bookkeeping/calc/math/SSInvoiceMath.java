@@ -105,10 +105,51 @@ public class SSInvoiceMath extends SSSaleMath {    private static final Logger L
 
     public static HashMap<Integer, BigDecimal> iSaldoMap;
 
-    public static void calculateSaldos() {
-        if (iSaldoMap == null) {
-            iSaldoMap = new HashMap<>();
+    private static SSSaldoLedger cLedger;
+
+    private static SSInvoiceReferenceIndex cReferences;
+
+    /**
+     * Compare the saldos with a full recompute after every change, set with the
+     * system property bokfri.saldo.check. Meant for tests and for tracking down
+     * a saldo that looks wrong, it makes every change as slow as a full recompute.
+     */
+    private static final boolean CHECK_SALDOS = Boolean.getBoolean("bokfri.saldo.check");
+
+    /**
+     * Calculates the saldo of all invoices from scratch. After this the saldos
+     * are kept up to date by the SSDB triggers through {@link #invoiceChanged},
+     * {@link #inpaymentChanged}, {@link #creditInvoiceChanged} and the matching
+     * delete methods.
+     */
+    public static synchronized void calculateSaldos() {
+        HashMap<Integer, BigDecimal> iSaldos = new HashMap<>();
+        SSSaldoLedger iLedger = new SSSaldoLedger(iSaldos, SSCustomerMath::saldoChanged);
+
+        for (SSInpayment iInpayment : SSDB.getInstance().getInpayments()) {
+            iLedger.setPayment(iInpayment.getNumber(), iInpayment.getLocalDate(), getAmounts(iInpayment));
+        }
+        for (SSCreditInvoice iCreditInvoice : SSDB.getInstance().getCreditInvoices()) {
+            iLedger.setCredit(iCreditInvoice.getNumber(), iCreditInvoice.getLocalDate(),
+                    iCreditInvoice.getCreditingNr(), SSCreditInvoiceMath.getTotalSum(iCreditInvoice));
         }
+        for (SSInvoice iInvoice : SSDB.getInstance().getInvoices()) {
+            iLedger.setInvoice(iInvoice.getNumber(), getLedgerTotal(iInvoice));
+        }
+        cLedger = iLedger;
+        iSaldoMap = iSaldos;
+        SSCustomerMath.saldosChanged();
+    }
+
+    /**
+     * Returns the saldo of all invoices summed from all inpayments and credit
+     * invoices, without touching the kept saldos.
+     *
+     * @return the saldos
+     */
+    public static HashMap<Integer, BigDecimal> recalculateSaldos() {
+        HashMap<Integer, BigDecimal> iSaldos = new HashMap<>();
+
         HashMap<Integer, BigDecimal> iInpaymentSum = SSInpaymentMath.getSumsForInvoices();
 
         HashMap<Integer, BigDecimal> iCreditInvoiceSum = SSCreditInvoiceMath.getSumsForInvoices();
@@ -130,8 +171,148 @@ public class SSInvoiceMath extends SSSaleMath {    private static final Logger L
                 iTotalSum = iTotalSum.subtract(iCreditInvoiceSum.get(iInvoice.getNumber()));
             }
 
-            iSaldoMap.put(iInvoice.getNumber(), iTotalSum);
+            iSaldos.put(iInvoice.getNumber(), iTotalSum);
+        }
+        return iSaldos;
+    }
+
+    /**
+     * Compares the kept saldos with {@link #recalculateSaldos()}.
+     *
+     * @return the invoices where they differ, with the recalculated saldo
+     */
+    public static Map<Integer, BigDecimal> checkSaldos() {
+        if (cLedger == null) {
+            return Collections.emptyMap();
+        }
+        Map<Integer, BigDecimal> iDifferences = cLedger.compare(recalculateSaldos());
+
+        if (!iDifferences.isEmpty()) {
+            LOG.warn("Invoice saldos differ from a full recompute: {}", iDifferences);
+        }
+        return iDifferences;
+    }
+
+    /**
+     *
+     * @param iInvoice the new or changed invoice
+     */
+    public static void invoiceChanged(SSInvoice iInvoice) {
+        SSInvoiceReferenceIndex iIndex = cReferences;
+
+        if (iIndex != null) {
+            iIndex.add(iInvoice);
+        }
+        if (cLedger == null) {
+            return;
         }
+        cLedger.setInvoice(iInvoice.getNumber(), getLedgerTotal(iInvoice));
+        check();
+    }
+
+    /**
+     *
+     * @param iNumber the number of the deleted invoice
+     */
+    public static void invoiceDeleted(Integer iNumber) {
+        SSInvoiceReferenceIndex iIndex = cReferences;
+
+        if (iIndex != null) {
+            iIndex.remove(iNumber);
+        }
+        if (cLedger == null) {
+            return;
+        }
+        cLedger.removeInvoice(iNumber);
+        check();
+    }
+
+    /**
+     *
+     * @param iInpayment the new or changed inpayment
+     */
+    public static void inpaymentChanged(SSInpayment iInpayment) {
+        if (cLedger == null) {
+            return;
+        }
+        cLedger.setPayment(iInpayment.getNumber(), iInpayment.getLocalDate(), getAmounts(iInpayment));
+        check();
+    }
+
+    /**
+     *
+     * @param iNumber the number of the deleted inpayment
+     */
+    public static void inpaymentDeleted(Integer iNumber) {
+        if (cLedger == null) {
+            return;
+        }
+        cLedger.removePayment(iNumber);
+        check();
+    }
+
+    /**
+     *
+     * @param iCreditInvoice the new or changed credit invoice
+     */
+    public static void creditInvoiceChanged(SSCreditInvoice iCreditInvoice) {
+        if (cLedger == null) {
+            return;
+        }
+        cLedger.setCredit(iCreditInvoice.getNumber(), iCreditInvoice.getLocalDate(),
+                iCreditInvoice.getCreditingNr(), SSCreditInvoiceMath.getTotalSum(iCreditInvoice));
+        check();
+    }
+
+    /**
+     *
+     * @param iNumber the number of the deleted credit invoice
+     */
+    public static void creditInvoiceDeleted(Integer iNumber) {
+        if (cLedger == null) {
+            return;
+        }
+        cLedger.removeCredit(iNumber);
+        check();
+    }
+
+    /**
+     *
+     * @return the kept saldos, or null before {@link #calculateSaldos()} has run
+     */
+    static SSSaldoLedger getLedger() {
+        return cLedger;
+    }
+
+    private static void check() {
+        if (CHECK_SALDOS) {
+            checkSaldos();
+        }
+    }
+
+    /**
+     *
+     * @param iInvoice
+     * @return the total of the invoice, or null for a cash sale which never has a saldo
+     */
+    private static BigDecimal getLedgerTotal(SSInvoice iInvoice) {
+        return iInvoice.getType() == SSInvoiceType.CASH ? null : getTotalSum(iInvoice);
+    }
+
+    /**
+     *
+     * @param iInpayment
+     * @return the amount paid on each invoice
+     */
+    private static Map<Integer, BigDecimal> getAmounts(SSInpayment iInpayment) {
+        Map<Integer, BigDecimal> iAmounts = new HashMap<>();
+
+        for (SSInpaymentRow iRow : iInpayment.getRows()) {
+            if (iRow.getValue() != null && iRow.getInvoiceNr() != null) {
+                iAmounts.merge(iRow.getInvoiceNr(), iRow.getValue(), BigDecimal::add);
+            }
+        }
+        return iAmounts;
     }
 
     public static Map<Integer, BigDecimal> getSaldos(LocalDate iDate) {
@@ -475,7 +656,15 @@ public class SSInvoiceMath extends SSSaleMath {    private static final Logger L
      * @return
      */
     public static Optional<SSInvoice> getInvoiceByReference(String iReferensNumber) {
-        return getInvoiceByReference(SSDB.getInstance().getInvoices(), iReferensNumber);
+        List<SSInvoice> iInvoices = SSDB.getInstance().getInvoices();
+        SSInvoiceReferenceIndex iIndex = cReferences;
+
+        // Built on first use and again when the invoice list is reloaded
+        if (iIndex == null || !iIndex.isFor(iInvoices)) {
+            iIndex = new SSInvoiceReferenceIndex(iInvoices);
+            cReferences = iIndex;
+        }
+        return iIndex.get(iReferensNumber);
     }
 
     /**
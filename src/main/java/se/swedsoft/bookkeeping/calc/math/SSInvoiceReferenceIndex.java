@@ -0,0 +1,145 @@
+package se.swedsoft.bookkeeping.calc.math;
+
+
+import se.swedsoft.bookkeeping.data.SSInvoice;
+
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+
+/**
+ * Finds invoices by the reference a customer pays with, the OCR number or the
+ * invoice number, without going through all invoices.
+ *
+ * The index is built from the invoice list of {@link se.swedsoft.bookkeeping.data.system.SSDB}
+ * and kept current by the invoice triggers through {@link SSInvoiceMath#invoiceChanged}
+ * and {@link SSInvoiceMath#invoiceDeleted}. When a reference matches more than
+ * one invoice the first one in the list is returned, like the linear search did.
+ */
+class SSInvoiceReferenceIndex {
+
+    private final List<SSInvoice> iSource;
+
+    // Invoice number -> invoice
+    private final Map<Integer, SSInvoice> iInvoices;
+
+    // OCR or invoice number -> the numbers of the invoices with that reference
+    private final Map<String, Set<Integer>> iReferences;
+
+    /**
+     *
+     * @param pInvoices the invoices to index
+     */
+    SSInvoiceReferenceIndex(List<SSInvoice> pInvoices) {
+        iSource = pInvoices;
+        iInvoices = new HashMap<>();
+        iReferences = new HashMap<>();
+
+        for (SSInvoice iInvoice : pInvoices) {
+            add(iInvoice);
+        }
+    }
+
+    /**
+     *
+     * @param pInvoices
+     * @return true if the index was built from this list
+     */
+    boolean isFor(List<SSInvoice> pInvoices) {
+        return iSource == pInvoices;
+    }
+
+    /**
+     * Adds an invoice, or replaces the invoice with the same number.
+     *
+     * @param pInvoice
+     */
+    synchronized void add(SSInvoice pInvoice) {
+        if (pInvoice.getNumber() == null) {
+            return;
+        }
+        remove(pInvoice.getNumber());
+
+        iInvoices.put(pInvoice.getNumber(), pInvoice);
+
+        iReferences.computeIfAbsent(pInvoice.getNumber().toString(), pKey -> new LinkedHashSet<>()).add(
+                pInvoice.getNumber());
+
+        if (pInvoice.getOCRNumber() != null) {
+            iReferences.computeIfAbsent(pInvoice.getOCRNumber(), pKey -> new LinkedHashSet<>()).add(
+                    pInvoice.getNumber());
+        }
+    }
+
+    /**
+     *
+     * @param pNumber the invoice number
+     */
+    synchronized void remove(Integer pNumber) {
+        SSInvoice iInvoice = iInvoices.remove(pNumber);
+
+        if (iInvoice == null) {
+            return;
+        }
+        removeReference(pNumber.toString(), pNumber);
+
+        if (iInvoice.getOCRNumber() != null) {
+            removeReference(iInvoice.getOCRNumber(), pNumber);
+        }
+    }
+
+    /**
+     *
+     * @param pReference an OCR number or invoice number
+     * @return the invoice
+     */
+    synchronized Optional<SSInvoice> get(String pReference) {
+        Set<Integer> iNumbers = pReference == null ? null : iReferences.get(pReference);
+
+        if (iNumbers == null || iNumbers.isEmpty()) {
+            return Optional.empty();
+        }
+        if (iNumbers.size() == 1) {
+            return Optional.ofNullable(iInvoices.get(iNumbers.iterator().next()));
+        }
+        // The same reference on several invoices, take the first one in the list
+        for (SSInvoice iInvoice : iSource) {
+            if (iNumbers.contains(iInvoice.getNumber())) {
+                return Optional.of(iInvoices.get(iInvoice.getNumber()));
+            }
+        }
+        return Optional.empty();
+    }
+
+    /**
+     *
+     * @param pReference
+     * @param pNumber
+     */
+    private void removeReference(String pReference, Integer pNumber) {
+        Set<Integer> iNumbers = iReferences.get(pReference);
+
+        if (iNumbers != null) {
+            iNumbers.remove(pNumber);
+
+            if (iNumbers.isEmpty()) {
+                iReferences.remove(pReference);
+            }
+        }
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder();
+
+        sb.append("se.swedsoft.bookkeeping.calc.math.SSInvoiceReferenceIndex");
+        sb.append("{iInvoices=").append(iInvoices.size());
+        sb.append(", iReferences=").append(iReferences.size());
+        sb.append('}');
+        return sb.toString();
+    }
+}
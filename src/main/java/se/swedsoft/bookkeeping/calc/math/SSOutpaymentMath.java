@@ -175,6 +175,11 @@ public class SSOutpaymentMath {
     }
 
     public static HashMap<Integer, BigDecimal> getSumsForSupplierInvoices(LocalDate iDate) {
+        SSSaldoLedger iLedger = SSSupplierInvoiceMath.getLedger();
+
+        if (iLedger != null) {
+            return iLedger.getPaid(iDate);
+        }
         HashMap<Integer, BigDecimal> iSums = new HashMap<>();
 
         List<SSOutpayment> iOutpayments = SSDB.getInstance().getOutpayments();
@@ -198,6 +203,13 @@ public class SSOutpaymentMath {
     }
 
     public static BigDecimal getSumForInvoice(SSSupplierInvoice iInvoice, LocalDate iDate) {
+        SSSaldoLedger iLedger = SSSupplierInvoiceMath.getLedger();
+
+        if (iLedger != null) {
+            BigDecimal iSum = iLedger.getPaid(iInvoice.getNumber(), iDate);
+
+            return iSum == null ? new BigDecimal(0) : iSum;
+        }
         List<SSOutpayment> iOutpayments = SSDB.getInstance().getOutpayments();
 
         BigDecimal iSum = new BigDecimal(0);
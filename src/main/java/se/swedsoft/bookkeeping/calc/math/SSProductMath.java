@@ -214,50 +214,10 @@ public class SSProductMath {
             }
             return Optional.of(iInpriceSum);
         }
-        List<SSSupplierInvoice> iSupplierInvoices = SSDB.getInstance().getSupplierInvoices();
+        // The latest supplier invoice up to the date, see SSStockLedger.getInprice
+        BigDecimal iInprice = SSStockMath.getLedger().getInprice(iProduct.getNumber(), iDate);
 
-        List<SSSupplierInvoice> iFiltered = new LinkedList<>(
-                iSupplierInvoices);
-
-        // Sortera efter datum i fallande ordning
-        Collections.sort(iFiltered,
-                Comparator.comparing(SSSupplierInvoice::getLocalDate,
-                        Comparator.nullsLast(Comparator.reverseOrder())));
-
-        for (SSSupplierInvoice iSupplierInvoice : iFiltered) {
-
-            if (iDate == null || SSSupplierInvoiceMath.inPeriod(iSupplierInvoice, iDate)) {
-
-                List<SSSupplierInvoiceRow> iRows = iSupplierInvoice.getRows();
-
-                for (SSSupplierInvoiceRow iRow : iRows) {
-                    if (iRow.hasProduct(iProduct)) {
-
-                        BigDecimal iUnitPrice = iRow.getUnitprice();
-                        BigDecimal iUnitFreight = iRow.getUnitFreight();
-
-                        if (iUnitPrice == null) {
-                            continue;
-                        }
-
-                        BigDecimal iValue;
-
-                        if (iUnitFreight != null) {
-                            iValue = iUnitPrice.add(iUnitFreight);
-                        } else {
-                            iValue = iUnitPrice;
-                        }
-                        BigDecimal iLocalValue = SSSupplierInvoiceMath.convertToLocal(
-                                iSupplierInvoice, iValue);
-
-                        return Optional.ofNullable(iLocalValue == null
-                                ? iProduct.getStockPrice()
-                                : iLocalValue);
-                    }
-                }
-            }
-        }
-        return Optional.ofNullable(iProduct.getStockPrice());
+        return Optional.ofNullable(iInprice == null ? iProduct.getStockPrice() : iInprice);
     }
 
     /**
@@ -0,0 +1,457 @@
+package se.swedsoft.bookkeeping.calc.math;
+
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+
+/**
+ * The saldo of every invoice, kept up to date one document at a time.
+ *
+ * The ledger knows the total of each invoice and what every payment and
+ * credit invoice takes off which invoice. When a document is added, changed
+ * or deleted only the invoices it touches are recalculated. Deleting needs
+ * nothing but the number of the document, which is all the delete triggers
+ * in {@link se.swedsoft.bookkeeping.data.system.SSDB} have.
+ *
+ * The saldos are written to the map given to the constructor, which is the
+ * map the frames and table models read ({@link SSInvoiceMath#iSaldoMap} and
+ * {@link SSSupplierInvoiceMath#iSaldoMap}). Like a full recompute the map
+ * only holds the invoices that have been added with {@link #setInvoice}.
+ *
+ * The ledger can also be given a callback that is told the number of every
+ * invoice whose saldo was written or removed, which is how the claims per
+ * customer and supplier ({@link SSInvoiceGroups}) know when to sum again.
+ *
+ * For the reports that show the saldo at a date, the payments and credits of
+ * each invoice are also kept sorted by date with running sums, so the amount
+ * paid or credited up to a date is a binary search. The sorted sums of an
+ * invoice are built the first time they are asked for after it changed.
+ */
+public class SSSaldoLedger {
+
+    private final Map<Integer, BigDecimal> iSaldos;
+
+    private final Consumer<Integer> iSaldoChanged;
+
+    // Invoice number -> invoice total
+    private final Map<Integer, BigDecimal> iTotals;
+
+    // Invoice number -> sum of payments and credits
+    private final Map<Integer, BigDecimal> iReductions;
+
+    // Payment number -> what it pays on each invoice
+    private final Map<Integer, Map<Integer, BigDecimal>> iPayments;
+
+    // Credit invoice number -> what it credits on its invoice
+    private final Map<Integer, Map<Integer, BigDecimal>> iCredits;
+
+    // Invoice number -> the payments and credits on the invoice by date
+    private final Map<Integer, SSTimeline> iTimelines;
+
+    /**
+     *
+     * @param pSaldos the map to write the saldos to
+     */
+    public SSSaldoLedger(Map<Integer, BigDecimal> pSaldos) {
+        this(pSaldos, pNumber -> {});
+    }
+
+    /**
+     *
+     * @param pSaldos the map to write the saldos to
+     * @param pSaldoChanged told the number of each invoice whose saldo changed
+     */
+    public SSSaldoLedger(Map<Integer, BigDecimal> pSaldos, Consumer<Integer> pSaldoChanged) {
+        iSaldos = pSaldos;
+        iSaldoChanged = pSaldoChanged;
+        iTotals = new HashMap<>();
+        iReductions = new HashMap<>();
+        iPayments = new HashMap<>();
+        iCredits = new HashMap<>();
+        iTimelines = new HashMap<>();
+    }
+
+    /**
+     * Adds or replaces an invoice.
+     *
+     * @param pNumber
+     * @param pTotal the total of the invoice, null for an invoice that can not have a saldo
+     */
+    public synchronized void setInvoice(Integer pNumber, BigDecimal pTotal) {
+        if (pTotal == null) {
+            removeInvoice(pNumber);
+            return;
+        }
+        iTotals.put(pNumber, pTotal);
+
+        update(pNumber);
+    }
+
+    /**
+     *
+     * @param pNumber
+     */
+    public synchronized void removeInvoice(Integer pNumber) {
+        iTotals.remove(pNumber);
+
+        if (iSaldos.remove(pNumber) != null) {
+            iSaldoChanged.accept(pNumber);
+        }
+    }
+
+    /**
+     * Adds or replaces a payment. What the payment paid before is given back to
+     * its invoices first.
+     *
+     * @param pNumber the number of the payment
+     * @param pDate the date of the payment, may be null
+     * @param pAmounts the amount paid on each invoice
+     */
+    public synchronized void setPayment(Integer pNumber, LocalDate pDate, Map<Integer, BigDecimal> pAmounts) {
+        replace(iPayments, true, pNumber, pDate, pAmounts);
+    }
+
+    /**
+     *
+     * @param pNumber the number of the payment
+     */
+    public synchronized void removePayment(Integer pNumber) {
+        replace(iPayments, true, pNumber, null, Collections.emptyMap());
+    }
+
+    /**
+     * Adds or replaces a credit invoice.
+     *
+     * @param pNumber the number of the credit invoice
+     * @param pDate the date of the credit invoice, may be null
+     * @param pInvoiceNr the invoice it credits, may be null
+     * @param pAmount the credited amount, may be null
+     */
+    public synchronized void setCredit(Integer pNumber, LocalDate pDate, Integer pInvoiceNr, BigDecimal pAmount) {
+        Map<Integer, BigDecimal> iAmounts = pInvoiceNr == null || pAmount == null
+                ? Collections.emptyMap()
+                : Collections.singletonMap(pInvoiceNr, pAmount);
+
+        replace(iCredits, false, pNumber, pDate, iAmounts);
+    }
+
+    /**
+     *
+     * @param pNumber the number of the credit invoice
+     */
+    public synchronized void removeCredit(Integer pNumber) {
+        replace(iCredits, false, pNumber, null, Collections.emptyMap());
+    }
+
+    /**
+     *
+     * @param pNumber
+     * @return the saldo of the invoice, or null if the ledger does not have it
+     */
+    public synchronized BigDecimal getSaldo(Integer pNumber) {
+        return iSaldos.get(pNumber);
+    }
+
+    /**
+     *
+     * @param pInvoiceNr
+     * @param pDate
+     * @return the sum of the payments on the invoice up to and including the date,
+     * or null if there are none
+     */
+    public synchronized BigDecimal getPaid(Integer pInvoiceNr, LocalDate pDate) {
+        SSTimeline iTimeline = iTimelines.get(pInvoiceNr);
+
+        return iTimeline == null ? null : iTimeline.getPaid(pDate);
+    }
+
+    /**
+     *
+     * @param pInvoiceNr
+     * @param pDate
+     * @return the sum of the credit invoices on the invoice up to and including
+     * the date, or null if there are none
+     */
+    public synchronized BigDecimal getCredited(Integer pInvoiceNr, LocalDate pDate) {
+        SSTimeline iTimeline = iTimelines.get(pInvoiceNr);
+
+        return iTimeline == null ? null : iTimeline.getCredited(pDate);
+    }
+
+    /**
+     *
+     * @param pDate
+     * @return the sum of the payments up to and including the date for every
+     * invoice that has been paid on by then
+     */
+    public synchronized HashMap<Integer, BigDecimal> getPaid(LocalDate pDate) {
+        HashMap<Integer, BigDecimal> iSums = new HashMap<>();
+
+        for (Map.Entry<Integer, SSTimeline> iEntry : iTimelines.entrySet()) {
+            BigDecimal iSum = iEntry.getValue().getPaid(pDate);
+
+            if (iSum != null) {
+                iSums.put(iEntry.getKey(), iSum);
+            }
+        }
+        return iSums;
+    }
+
+    /**
+     *
+     * @param pDate
+     * @return the sum of the credit invoices up to and including the date for
+     * every invoice that has been credited by then
+     */
+    public synchronized HashMap<Integer, BigDecimal> getCredited(LocalDate pDate) {
+        HashMap<Integer, BigDecimal> iSums = new HashMap<>();
+
+        for (Map.Entry<Integer, SSTimeline> iEntry : iTimelines.entrySet()) {
+            BigDecimal iSum = iEntry.getValue().getCredited(pDate);
+
+            if (iSum != null) {
+                iSums.put(iEntry.getKey(), iSum);
+            }
+        }
+        return iSums;
+    }
+
+    /**
+     * Compares the ledger with saldos calculated from scratch.
+     *
+     * @param pExpected the saldos from a full recompute
+     * @return the invoices where the saldos differ, with the expected saldo
+     * (null if the ledger has an invoice that should not be there)
+     */
+    public synchronized Map<Integer, BigDecimal> compare(Map<Integer, BigDecimal> pExpected) {
+        Map<Integer, BigDecimal> iDifferences = new HashMap<>();
+
+        for (Map.Entry<Integer, BigDecimal> iEntry : pExpected.entrySet()) {
+            BigDecimal iSaldo = iSaldos.get(iEntry.getKey());
+
+            if (iSaldo == null || iSaldo.compareTo(iEntry.getValue()) != 0) {
+                iDifferences.put(iEntry.getKey(), iEntry.getValue());
+            }
+        }
+        for (Integer iNumber : iSaldos.keySet()) {
+            if (!pExpected.containsKey(iNumber)) {
+                iDifferences.put(iNumber, null);
+            }
+        }
+        return iDifferences;
+    }
+
+    /**
+     * Takes back the old amounts of a document, books the new ones and updates
+     * the saldo of the invoices involved.
+     *
+     * @param pDocuments
+     * @param pPayment true for a payment, false for a credit invoice
+     * @param pNumber
+     * @param pDate
+     * @param pAmounts
+     */
+    private void replace(Map<Integer, Map<Integer, BigDecimal>> pDocuments, boolean pPayment, Integer pNumber,
+            LocalDate pDate, Map<Integer, BigDecimal> pAmounts) {
+        Map<Integer, BigDecimal> iOld = pDocuments.remove(pNumber);
+
+        if (iOld != null) {
+            for (Map.Entry<Integer, BigDecimal> iEntry : iOld.entrySet()) {
+                iReductions.merge(iEntry.getKey(), iEntry.getValue().negate(), BigDecimal::add);
+
+                SSTimeline iTimeline = iTimelines.get(iEntry.getKey());
+
+                if (iTimeline != null && iTimeline.remove(pPayment, pNumber)) {
+                    iTimelines.remove(iEntry.getKey());
+                }
+                update(iEntry.getKey());
+            }
+        }
+
+        Map<Integer, BigDecimal> iNew = new HashMap<>();
+
+        for (Map.Entry<Integer, BigDecimal> iEntry : pAmounts.entrySet()) {
+            if (iEntry.getKey() != null && iEntry.getValue() != null) {
+                iNew.merge(iEntry.getKey(), iEntry.getValue(), BigDecimal::add);
+            }
+        }
+        if (iNew.isEmpty()) {
+            return;
+        }
+        pDocuments.put(pNumber, iNew);
+
+        for (Map.Entry<Integer, BigDecimal> iEntry : iNew.entrySet()) {
+            iReductions.merge(iEntry.getKey(), iEntry.getValue(), BigDecimal::add);
+
+            iTimelines.computeIfAbsent(iEntry.getKey(), pKey -> new SSTimeline()).add(pPayment, pNumber, pDate,
+                    iEntry.getValue());
+
+            update(iEntry.getKey());
+        }
+    }
+
+    /**
+     *
+     * @param pNumber
+     */
+    private void update(Integer pNumber) {
+        BigDecimal iTotal = iTotals.get(pNumber);
+
+        if (iTotal == null) {
+            return;
+        }
+        BigDecimal iReduction = iReductions.get(pNumber);
+
+        iSaldos.put(pNumber, iReduction == null ? iTotal : iTotal.subtract(iReduction));
+        iSaldoChanged.accept(pNumber);
+    }
+
+    @Override
+    public synchronized String toString() {
+        final StringBuilder sb = new StringBuilder();
+
+        sb.append("se.swedsoft.bookkeeping.calc.math.SSSaldoLedger");
+        sb.append("{iInvoices=").append(iTotals.size());
+        sb.append(", iPayments=").append(iPayments.size());
+        sb.append(", iCredits=").append(iCredits.size());
+        sb.append('}');
+        return sb.toString();
+    }
+
+    /**
+     * One amount on an invoice from a payment or credit invoice.
+     */
+    private static final class SSEvent {
+        private final LocalDate iDate;
+
+        private final BigDecimal iAmount;
+
+        private SSEvent(LocalDate pDate, BigDecimal pAmount) {
+            iDate = pDate;
+            iAmount = pAmount;
+        }
+    }
+
+    /**
+     * The payments and credits on one invoice.
+     */
+    private static final class SSTimeline {
+
+        // Document number -> amount on this invoice
+        private final Map<Integer, SSEvent> iPayments = new HashMap<>();
+
+        private final Map<Integer, SSEvent> iCredits = new HashMap<>();
+
+        // Running sums by date, null until asked for after a change
+        private SSRunningSum iPaid;
+
+        private SSRunningSum iCredited;
+
+        void add(boolean pPayment, Integer pNumber, LocalDate pDate, BigDecimal pAmount) {
+            if (pPayment) {
+                iPayments.put(pNumber, new SSEvent(pDate, pAmount));
+                iPaid = null;
+            } else {
+                iCredits.put(pNumber, new SSEvent(pDate, pAmount));
+                iCredited = null;
+            }
+        }
+
+        /**
+         *
+         * @param pPayment
+         * @param pNumber
+         * @return true if the invoice has no payments or credits left
+         */
+        boolean remove(boolean pPayment, Integer pNumber) {
+            if (pPayment) {
+                iPayments.remove(pNumber);
+                iPaid = null;
+            } else {
+                iCredits.remove(pNumber);
+                iCredited = null;
+            }
+            return iPayments.isEmpty() && iCredits.isEmpty();
+        }
+
+        BigDecimal getPaid(LocalDate pDate) {
+            if (iPaid == null) {
+                iPaid = new SSRunningSum(iPayments.values());
+            }
+            return iPaid.getSum(pDate);
+        }
+
+        BigDecimal getCredited(LocalDate pDate) {
+            if (iCredited == null) {
+                iCredited = new SSRunningSum(iCredits.values());
+            }
+            return iCredited.getSum(pDate);
+        }
+    }
+
+    /**
+     * Amounts sorted by date with the sum up to each of them. Amounts without a
+     * date are left out, the reports never counted them.
+     */
+    private static final class SSRunningSum {
+        private final LocalDate[] iDates;
+
+        private final BigDecimal[] iSums;
+
+        SSRunningSum(Iterable<SSEvent> pEvents) {
+            List<SSEvent> iEvents = new ArrayList<>();
+
+            for (SSEvent iEvent : pEvents) {
+                if (iEvent.iDate != null) {
+                    iEvents.add(iEvent);
+                }
+            }
+            iEvents.sort(Comparator.comparing((SSEvent pEvent) -> pEvent.iDate));
+
+            iDates = new LocalDate[iEvents.size()];
+            iSums = new BigDecimal[iEvents.size()];
+
+            BigDecimal iSum = BigDecimal.ZERO;
+
+            for (int i = 0; i < iEvents.size(); i++) {
+                iSum = iSum.add(iEvents.get(i).iAmount);
+
+                iDates[i] = iEvents.get(i).iDate;
+                iSums[i] = iSum;
+            }
+        }
+
+        /**
+         *
+         * @param pDate
+         * @return the sum of the amounts up to and including the date, or null if there are none
+         */
+        BigDecimal getSum(LocalDate pDate) {
+            if (pDate == null) {
+                return null;
+            }
+            // The first index with a date after pDate
+            int iLow = 0;
+            int iHigh = iDates.length;
+
+            while (iLow < iHigh) {
+                int iMiddle = (iLow + iHigh) >>> 1;
+
+                if (iDates[iMiddle].isAfter(pDate)) {
+                    iHigh = iMiddle;
+                } else {
+                    iLow = iMiddle + 1;
+                }
+            }
+            return iLow == 0 ? null : iSums[iLow - 1];
+        }
+    }
+}
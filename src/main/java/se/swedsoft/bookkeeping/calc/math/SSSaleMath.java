@@ -58,18 +58,7 @@ public class SSSaleMath {
      * @return the sum
      */
     public static BigDecimal getNetSum(SSSale iSale) {
-
-        BigDecimal iNetSum = new BigDecimal(0);
-
-        for (SSSaleRow iRow: iSale.getRows()) {
-            BigDecimal iRowSum = iRow.getSum().orElse(null);
-
-            if (iRowSum != null) {
-                iNetSum = iNetSum.add(iRowSum);
-            }
-        }
-
-        return iNetSum;
+        return iSale.getSums().getNetSum();
     }
 
     /**
@@ -80,43 +69,7 @@ public class SSSaleMath {
      * @return the sum for the tax codes
      */
     public static Map<SSTaxCode, BigDecimal> getTaxSum(SSSale iSale) {
-        BigDecimal iTaxRate1 = iSale.getNormalizedTaxRate1();
-        BigDecimal iTaxRate2 = iSale.getNormalizedTaxRate2();
-        BigDecimal iTaxRate3 = iSale.getNormalizedTaxRate3();
-
-        Map<SSTaxCode, BigDecimal> iTaxSum = new HashMap<>();
-
-        iTaxSum.put(SSTaxCode.TAXRATE_0, new BigDecimal(0));
-        iTaxSum.put(SSTaxCode.TAXRATE_1, new BigDecimal(0));
-        iTaxSum.put(SSTaxCode.TAXRATE_2, new BigDecimal(0));
-        iTaxSum.put(SSTaxCode.TAXRATE_3, new BigDecimal(0));
-
-        if (iSale.getTaxFree()) {
-            return iTaxSum;
-        }
-
-        for (SSSaleRow iRow: iSale.getRows()) {
-            BigDecimal iRowSum = iRow.getSum().orElse(null);
-            SSTaxCode  iRowTax = iRow.getTaxCode();
-
-            if (iRowSum != null) {
-                BigDecimal iSum = iTaxSum.get(iRowTax);
-
-                if (iRowTax == SSTaxCode.TAXRATE_1) {
-                    iSum = iSum.add(iRowSum.multiply(iTaxRate1));
-                }
-                if (iRowTax == SSTaxCode.TAXRATE_2) {
-                    iSum = iSum.add(iRowSum.multiply(iTaxRate2));
-                }
-                if (iRowTax == SSTaxCode.TAXRATE_3) {
-                    iSum = iSum.add(iRowSum.multiply(iTaxRate3));
-                }
-
-                iTaxSum.put(iRowTax, iSum);
-            }
-        }
-
-        return iTaxSum;
+        return new HashMap<>(iSale.getSums().getTaxSum());
     }
 
     /**
@@ -127,7 +80,7 @@ public class SSSaleMath {
      * @return the sum
      */
     public static BigDecimal getTotalTaxSum(SSSale iSale) {
-        Map<SSTaxCode, BigDecimal> iTaxSum = getTaxSum(iSale);
+        Map<SSTaxCode, BigDecimal> iTaxSum = iSale.getSums().getTaxSum();
 
         BigDecimal iTax1 = iTaxSum.get(SSTaxCode.TAXRATE_1);
         BigDecimal iTax2 = iTaxSum.get(SSTaxCode.TAXRATE_2);
@@ -145,26 +98,7 @@ public class SSSaleMath {
      * @return the total sum
      */
     public static BigDecimal getTotalSum(SSSale iSale) {
-        // Get the tax sum
-        Map<SSTaxCode, BigDecimal> iTaxSum = getTaxSum(iSale);
-
-        BigDecimal iNetSum = getNetSum(iSale);
-        BigDecimal iTaxSum1 = iTaxSum.get(SSTaxCode.TAXRATE_1);
-        BigDecimal iTaxSum2 = iTaxSum.get(SSTaxCode.TAXRATE_2);
-        BigDecimal iTaxSum3 = iTaxSum.get(SSTaxCode.TAXRATE_3);
-
-        BigDecimal iSum;
-
-        if (iSale.getTaxFree()) {
-            iSum = iNetSum;
-        } else {
-            iSum = iNetSum.add(iTaxSum1).add(iTaxSum2).add(iTaxSum3);
-        }
-        if (!SSDB.getInstance().getCurrentCompany().isRoundingOff()) {
-            return iSum.setScale(0, RoundingMode.HALF_UP);
-        } else {
-            return iSum;
-        }
+        return iSale.getSums().getTotalSum();
     }
 
     /**
@@ -176,27 +110,7 @@ public class SSSaleMath {
      * @return the total sum
      */
     public static BigDecimal getRounding(SSSale iSale) {
-        // Get the tax sum
-        Map<SSTaxCode, BigDecimal> iTaxSum = getTaxSum(iSale);
-
-        BigDecimal iNetSum = getNetSum(iSale);
-        BigDecimal iTaxSum1 = iTaxSum.get(SSTaxCode.TAXRATE_1);
-        BigDecimal iTaxSum2 = iTaxSum.get(SSTaxCode.TAXRATE_2);
-        BigDecimal iTaxSum3 = iTaxSum.get(SSTaxCode.TAXRATE_3);
-
-        BigDecimal iSum;
-
-        if (iSale.getTaxFree()) {
-            iSum = iNetSum;
-        } else {
-            iSum = iNetSum.add(iTaxSum1).add(iTaxSum2).add(iTaxSum3);
-        }
-        if (!SSDB.getInstance().getCurrentCompany().isRoundingOff()) {
-            return iSum.setScale(0, RoundingMode.HALF_UP).subtract(iSum);
-        } else {
-            return new BigDecimal(0);
-        }
-        // return iSum.subtract( iSum.setScale(0, RoundingMode.HALF_UP) );
+        return iSale.getSums().getRounding();
     }
 
     /**
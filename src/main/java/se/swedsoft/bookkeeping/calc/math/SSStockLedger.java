@@ -0,0 +1,492 @@
+package se.swedsoft.bookkeeping.calc.math;
+
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+
+/**
+ * The stock of every product, kept up to date one document at a time.
+ *
+ * The ledger knows what each stock document adds to the quantity in stock,
+ * the reserved quantity or the ordered quantity of each product. When a
+ * document is added, changed or deleted its old counts are taken back and the
+ * new ones booked, so the stock of a product is a map lookup instead of a pass
+ * over every order, invoice and delivery. Deleting needs nothing but the
+ * register and number of the document, which is all the delete triggers in
+ * {@link se.swedsoft.bookkeeping.data.system.SSDB} have.
+ *
+ * The counts are signed, an invoice books a negative quantity. Products are
+ * kept by number.
+ *
+ * For the stock at a date, the documents of each product are also kept
+ * sorted by date with running sums, so the stock at a date or over a period
+ * is a binary search. Supplier invoices also book the purchase price of their
+ * products, which gives the purchase price at a date the same way. As with
+ * the inPeriod methods of the documents, a document without a date is left
+ * out of the stock at a date. The sorted sums of a product are built the
+ * first time they are asked for after it changed.
+ */
+public class SSStockLedger {
+
+    public static final int QUANTITY = 0;
+
+    public static final int RESERVED = 1;
+
+    public static final int ORDERED = 2;
+
+    // Register -> document number -> what the document books
+    private final Map<String, Map<Integer, SSEntry>> iDocuments;
+
+    // Product number -> quantity, reserved and ordered
+    private final Map<String, int[]> iTotals;
+
+    // Product number -> the documents of the product by date
+    private final Map<String, SSTimeline> iTimelines;
+
+    public SSStockLedger() {
+        iDocuments = new HashMap<>();
+        iTotals = new HashMap<>();
+        iTimelines = new HashMap<>();
+    }
+
+    /**
+     * Adds or replaces a document. What the document booked before is taken
+     * back first.
+     *
+     * @param pTable the register of the document, for example ORDER or INVOICE
+     * @param pNumber the number of the document
+     * @param pDate the date of the document, may be null
+     * @param pColumn {@link #QUANTITY}, {@link #RESERVED} or {@link #ORDERED}
+     * @param pCounts the signed count per product number
+     */
+    public synchronized void setDocument(String pTable, Integer pNumber, LocalDate pDate, int pColumn, Map<String, Integer> pCounts) {
+        setDocument(pTable, pNumber, pDate, pColumn, pCounts, Collections.emptyMap());
+    }
+
+    /**
+     * Adds or replaces a document that also books purchase prices.
+     *
+     * @param pTable the register of the document
+     * @param pNumber the number of the document
+     * @param pDate the date of the document, may be null
+     * @param pColumn {@link #QUANTITY}, {@link #RESERVED} or {@link #ORDERED}
+     * @param pCounts the signed count per product number
+     * @param pPrices the purchase price per product number
+     */
+    public synchronized void setDocument(String pTable, Integer pNumber, LocalDate pDate, int pColumn, Map<String, Integer> pCounts, Map<String, BigDecimal> pPrices) {
+        removeDocument(pTable, pNumber);
+
+        Map<String, Integer> iCounts = new HashMap<>();
+        Map<String, BigDecimal> iPrices = new HashMap<>();
+
+        for (Map.Entry<String, Integer> iEntry : pCounts.entrySet()) {
+            if (iEntry.getKey() != null && iEntry.getValue() != null && iEntry.getValue() != 0) {
+                iCounts.put(iEntry.getKey(), iEntry.getValue());
+            }
+        }
+        for (Map.Entry<String, BigDecimal> iEntry : pPrices.entrySet()) {
+            if (iEntry.getKey() != null && iEntry.getValue() != null) {
+                iPrices.put(iEntry.getKey(), iEntry.getValue());
+            }
+        }
+        if (iCounts.isEmpty() && iPrices.isEmpty()) {
+            return;
+        }
+        SSEntry iEntry = new SSEntry(pNumber, pDate, pColumn, iCounts, iPrices);
+
+        iDocuments.computeIfAbsent(pTable, pKey -> new HashMap<>()).put(pNumber, iEntry);
+
+        book(pColumn, iCounts, 1);
+
+        String iKey = pTable + ':' + pNumber;
+
+        for (String iProductNr : iEntry.getProducts()) {
+            iTimelines.computeIfAbsent(iProductNr, pKey -> new SSTimeline()).add(iKey, iEntry, iProductNr);
+        }
+    }
+
+    /**
+     *
+     * @param pTable the register of the document
+     * @param pNumber the number of the document
+     */
+    public synchronized void removeDocument(String pTable, Integer pNumber) {
+        Map<Integer, SSEntry> iEntries = iDocuments.get(pTable);
+        SSEntry iOld = iEntries == null ? null : iEntries.remove(pNumber);
+
+        if (iOld == null) {
+            return;
+        }
+        book(iOld.iColumn, iOld.iCounts, -1);
+
+        String iKey = pTable + ':' + pNumber;
+
+        for (String iProductNr : iOld.getProducts()) {
+            SSTimeline iTimeline = iTimelines.get(iProductNr);
+
+            if (iTimeline != null && iTimeline.remove(iKey)) {
+                iTimelines.remove(iProductNr);
+            }
+        }
+    }
+
+    /**
+     *
+     * @param pProductNr
+     * @return the quantity in stock
+     */
+    public synchronized int getQuantity(String pProductNr) {
+        return get(pProductNr, QUANTITY);
+    }
+
+    /**
+     *
+     * @param pProductNr
+     * @return the quantity reserved by orders that are not invoiced
+     */
+    public synchronized int getReserved(String pProductNr) {
+        return get(pProductNr, RESERVED);
+    }
+
+    /**
+     *
+     * @param pProductNr
+     * @return the quantity on purchase orders that are not invoiced
+     */
+    public synchronized int getOrdered(String pProductNr) {
+        return get(pProductNr, ORDERED);
+    }
+
+    /**
+     *
+     * @param pProductNr
+     * @param pTo
+     * @return the quantity, reserved and ordered from the documents up to and
+     * including the date, all zero if the date is null
+     */
+    public synchronized int[] getStock(String pProductNr, LocalDate pTo) {
+        SSTimeline iTimeline = iTimelines.get(pProductNr);
+
+        if (iTimeline == null || pTo == null) {
+            return new int[3];
+        }
+        return iTimeline.getSums(iTimeline.countUpTo(pTo));
+    }
+
+    /**
+     *
+     * @param pProductNr
+     * @param pFrom
+     * @param pTo
+     * @return the quantity, reserved and ordered from the documents dated in the
+     * period, all zero if a date is null
+     */
+    public synchronized int[] getStock(String pProductNr, LocalDate pFrom, LocalDate pTo) {
+        SSTimeline iTimeline = iTimelines.get(pProductNr);
+
+        if (iTimeline == null || pFrom == null || pTo == null || pFrom.isAfter(pTo)) {
+            return new int[3];
+        }
+        int[] iSums = iTimeline.getSums(iTimeline.countUpTo(pTo));
+        int[] iBefore = iTimeline.getSums(iTimeline.countUpTo(pFrom.minusDays(1)));
+
+        for (int iColumn = QUANTITY; iColumn <= ORDERED; iColumn++) {
+            iSums[iColumn] -= iBefore[iColumn];
+        }
+        return iSums;
+    }
+
+    /**
+     * Returns the purchase price of the latest supplier invoice of the product.
+     * Of supplier invoices with the same date the one with the lowest number is
+     * used. Without a date the latest supplier invoice with a date is used, and
+     * if there is none the one without a date with the lowest number.
+     *
+     * @param pProductNr
+     * @param pDate the date, or null for the latest price
+     * @return the price, or null if no supplier invoice up to the date has a price
+     */
+    public synchronized BigDecimal getInprice(String pProductNr, LocalDate pDate) {
+        SSTimeline iTimeline = iTimelines.get(pProductNr);
+
+        if (iTimeline == null) {
+            return null;
+        }
+        return pDate == null ? iTimeline.getLatestPrice() : iTimeline.getPrice(iTimeline.countUpTo(pDate));
+    }
+
+    /**
+     * Compares the ledger with the stock calculated from scratch.
+     *
+     * @param pExpected the quantity, reserved and ordered per product number from a full recompute
+     * @return the products where the ledger differs, with the expected stock
+     */
+    public synchronized Map<String, int[]> compare(Map<String, int[]> pExpected) {
+        Map<String, int[]> iDifferences = new HashMap<>();
+
+        for (Map.Entry<String, int[]> iEntry : pExpected.entrySet()) {
+            int[] iExpected = iEntry.getValue();
+
+            for (int iColumn = QUANTITY; iColumn <= ORDERED; iColumn++) {
+                if (get(iEntry.getKey(), iColumn) != iExpected[iColumn]) {
+                    iDifferences.put(iEntry.getKey(), iExpected);
+                    break;
+                }
+            }
+        }
+        return iDifferences;
+    }
+
+    /**
+     *
+     * @param pColumn
+     * @param pCounts
+     * @param pSign 1 to book the counts, -1 to take them back
+     */
+    private void book(int pColumn, Map<String, Integer> pCounts, int pSign) {
+        for (Map.Entry<String, Integer> iEntry : pCounts.entrySet()) {
+            int[] iTotal = iTotals.computeIfAbsent(iEntry.getKey(), pKey -> new int[3]);
+
+            iTotal[pColumn] += pSign * iEntry.getValue();
+
+            if (iTotal[QUANTITY] == 0 && iTotal[RESERVED] == 0 && iTotal[ORDERED] == 0) {
+                iTotals.remove(iEntry.getKey());
+            }
+        }
+    }
+
+    /**
+     *
+     * @param pProductNr
+     * @param pColumn
+     * @return
+     */
+    private int get(String pProductNr, int pColumn) {
+        int[] iTotal = iTotals.get(pProductNr);
+
+        return iTotal == null ? 0 : iTotal[pColumn];
+    }
+
+    @Override
+    public synchronized String toString() {
+        final StringBuilder sb = new StringBuilder();
+
+        sb.append("se.swedsoft.bookkeeping.calc.math.SSStockLedger");
+        sb.append("{iDocuments=").append(iDocuments.values().stream().mapToInt(Map::size).sum());
+        sb.append(", iProducts=").append(iTotals.size());
+        sb.append('}');
+        return sb.toString();
+    }
+
+    /**
+     * What one document books.
+     */
+    private static final class SSEntry {
+        private final Integer iNumber;
+
+        private final LocalDate iDate;
+
+        private final int iColumn;
+
+        private final Map<String, Integer> iCounts;
+
+        private final Map<String, BigDecimal> iPrices;
+
+        private SSEntry(Integer pNumber, LocalDate pDate, int pColumn, Map<String, Integer> pCounts, Map<String, BigDecimal> pPrices) {
+            iNumber = pNumber;
+            iDate = pDate;
+            iColumn = pColumn;
+            iCounts = Collections.unmodifiableMap(pCounts);
+            iPrices = Collections.unmodifiableMap(pPrices);
+        }
+
+        private List<String> getProducts() {
+            List<String> iProducts = new ArrayList<>(iCounts.keySet());
+
+            for (String iProductNr : iPrices.keySet()) {
+                if (!iCounts.containsKey(iProductNr)) {
+                    iProducts.add(iProductNr);
+                }
+            }
+            return iProducts;
+        }
+    }
+
+    /**
+     * What one document books on one product.
+     */
+    private static final class SSEvent {
+        private final Integer iNumber;
+
+        private final LocalDate iDate;
+
+        private final int iColumn;
+
+        private final int iCount;
+
+        private final BigDecimal iPrice;
+
+        private SSEvent(SSEntry pEntry, String pProductNr) {
+            Integer iCount = pEntry.iCounts.get(pProductNr);
+
+            iNumber = pEntry.iNumber;
+            iDate = pEntry.iDate;
+            iColumn = pEntry.iColumn;
+            this.iCount = iCount == null ? 0 : iCount;
+            iPrice = pEntry.iPrices.get(pProductNr);
+        }
+    }
+
+    /**
+     * The documents of one product.
+     */
+    private static final class SSTimeline {
+
+        // Sorted by date, and by number with the highest first so the lowest
+        // number of a date is the last one
+        private static final Comparator<SSEvent> ORDER = Comparator
+                .comparing((SSEvent pEvent) -> pEvent.iDate)
+                .thenComparing(pEvent -> pEvent.iNumber, Comparator.nullsLast(Comparator.reverseOrder()));
+
+        // Register and number of the document -> what it books on the product
+        private final Map<String, SSEvent> iEvents = new HashMap<>();
+
+        // The dated events sorted, null until asked for after a change
+        private LocalDate[] iDates;
+
+        // Running sums of quantity, reserved and ordered, three per event
+        private int[] iSums;
+
+        // The latest purchase price up to each event
+        private BigDecimal[] iPrices;
+
+        // The purchase price of the undated document with the lowest number
+        private BigDecimal iUndatedPrice;
+
+        void add(String pKey, SSEntry pEntry, String pProductNr) {
+            iEvents.put(pKey, new SSEvent(pEntry, pProductNr));
+            iDates = null;
+        }
+
+        /**
+         *
+         * @param pKey
+         * @return true if the product has no documents left
+         */
+        boolean remove(String pKey) {
+            iEvents.remove(pKey);
+            iDates = null;
+
+            return iEvents.isEmpty();
+        }
+
+        /**
+         *
+         * @param pDate
+         * @return the number of dated events up to and including the date
+         */
+        int countUpTo(LocalDate pDate) {
+            build();
+
+            int iLow = 0;
+            int iHigh = iDates.length;
+
+            while (iLow < iHigh) {
+                int iMiddle = (iLow + iHigh) >>> 1;
+
+                if (iDates[iMiddle].isAfter(pDate)) {
+                    iHigh = iMiddle;
+                } else {
+                    iLow = iMiddle + 1;
+                }
+            }
+            return iLow;
+        }
+
+        /**
+         *
+         * @param pCount
+         * @return the sums of the first events
+         */
+        int[] getSums(int pCount) {
+            build();
+
+            int[] iResult = new int[3];
+
+            if (pCount > 0) {
+                System.arraycopy(iSums, (pCount - 1) * 3, iResult, 0, 3);
+            }
+            return iResult;
+        }
+
+        /**
+         *
+         * @param pCount
+         * @return the latest price of the first events
+         */
+        BigDecimal getPrice(int pCount) {
+            build();
+
+            return pCount == 0 ? null : iPrices[pCount - 1];
+        }
+
+        BigDecimal getLatestPrice() {
+            build();
+
+            BigDecimal iPrice = getPrice(iDates.length);
+
+            return iPrice == null ? iUndatedPrice : iPrice;
+        }
+
+        private void build() {
+            if (iDates != null) {
+                return;
+            }
+            List<SSEvent> iDated = new ArrayList<>();
+            Integer iUndatedNumber = null;
+
+            iUndatedPrice = null;
+
+            for (SSEvent iEvent : iEvents.values()) {
+                if (iEvent.iDate != null) {
+                    iDated.add(iEvent);
+                } else if (iEvent.iPrice != null
+                        && (iUndatedPrice == null || iEvent.iNumber != null
+                        && (iUndatedNumber == null || iEvent.iNumber < iUndatedNumber))) {
+                    iUndatedPrice = iEvent.iPrice;
+                    iUndatedNumber = iEvent.iNumber;
+                }
+            }
+            iDated.sort(ORDER);
+
+            LocalDate[] iNewDates = new LocalDate[iDated.size()];
+
+            iSums = new int[iDated.size() * 3];
+            iPrices = new BigDecimal[iDated.size()];
+
+            int[] iSum = new int[3];
+            BigDecimal iPrice = null;
+
+            for (int i = 0; i < iDated.size(); i++) {
+                SSEvent iEvent = iDated.get(i);
+
+                iSum[iEvent.iColumn] += iEvent.iCount;
+
+                if (iEvent.iPrice != null) {
+                    iPrice = iEvent.iPrice;
+                }
+                iNewDates[i] = iEvent.iDate;
+                System.arraycopy(iSum, 0, iSums, i * 3, 3);
+                iPrices[i] = iPrice;
+            }
+            iDates = iNewDates;
+        }
+    }
+}
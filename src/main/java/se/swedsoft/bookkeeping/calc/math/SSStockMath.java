@@ -0,0 +1,407 @@
+package se.swedsoft.bookkeeping.calc.math;
+
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import se.swedsoft.bookkeeping.data.*;
+import se.swedsoft.bookkeeping.data.base.SSSaleRow;
+import se.swedsoft.bookkeeping.data.system.SSDB;
+
+import java.math.BigDecimal;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+
+/**
+ * Keeps the stock of the current company in an {@link SSStockLedger}.
+ *
+ * The ledger is calculated from all stock documents the first time it is asked
+ * for. After that the SSDB triggers update it per changed or deleted document
+ * through the *Changed methods and {@link #documentDeleted}. It is dropped
+ * when the company, the products or a whole register is read again.
+ *
+ * Besides the current stock the ledger gives the stock at a date and the
+ * purchase price of the products from the supplier invoices.
+ */
+public class SSStockMath {
+    private static final Logger LOG = LoggerFactory.getLogger(SSStockMath.class);
+
+    /**
+     * Compare the stock with a full recompute after every change, set with the
+     * system property bokfri.stock.check. Like bokfri.saldo.check it makes every
+     * change as slow as a full recompute.
+     */
+    private static final boolean CHECK_STOCK = Boolean.getBoolean("bokfri.stock.check");
+
+    private static SSStockLedger cLedger;
+
+    // Product number -> product, for the products that are parcels
+    private static Map<String, SSProduct> cParcels;
+
+    private SSStockMath() {}
+
+    /**
+     *
+     * @return the stock of the current company
+     */
+    public static synchronized SSStockLedger getLedger() {
+        if (cLedger == null) {
+            calculateStock();
+        }
+        return cLedger;
+    }
+
+    /**
+     * Calculates the stock from all stock documents from scratch.
+     */
+    public static synchronized void calculateStock() {
+        SSDB iDB = SSDB.getInstance();
+        SSStockLedger iLedger = new SSStockLedger();
+        Map<String, SSProduct> iParcels = getParcels(iDB.getProducts());
+
+        for (SSOrder iOrder : iDB.getOrders()) {
+            setOrder(iLedger, iParcels, iOrder);
+        }
+        for (SSInvoice iInvoice : iDB.getInvoices()) {
+            setInvoice(iLedger, iParcels, iInvoice);
+        }
+        for (SSCreditInvoice iCreditInvoice : iDB.getCreditInvoices()) {
+            setCreditInvoice(iLedger, iParcels, iCreditInvoice);
+        }
+        for (SSPurchaseOrder iPurchaseOrder : iDB.getPurchaseOrders()) {
+            setPurchaseOrder(iLedger, iParcels, iPurchaseOrder);
+        }
+        for (SSSupplierInvoice iSupplierInvoice : iDB.getSupplierInvoices()) {
+            setSupplierInvoice(iLedger, iParcels, iSupplierInvoice);
+        }
+        for (SSSupplierCreditInvoice iSupplierCreditInvoice : iDB.getSupplierCreditInvoices()) {
+            setSupplierCreditInvoice(iLedger, iParcels, iSupplierCreditInvoice);
+        }
+        for (SSInventory iInventory : iDB.getInventories()) {
+            setInventory(iLedger, iInventory);
+        }
+        for (SSIndelivery iIndelivery : iDB.getIndeliveries()) {
+            setIndelivery(iLedger, iIndelivery);
+        }
+        for (SSOutdelivery iOutdelivery : iDB.getOutdeliveries()) {
+            setOutdelivery(iLedger, iOutdelivery);
+        }
+        cParcels = iParcels;
+        cLedger = iLedger;
+    }
+
+    /**
+     * Drops the stock, it is calculated again the next time it is asked for.
+     */
+    public static synchronized void reset() {
+        cLedger = null;
+        cParcels = null;
+    }
+
+    /**
+     * Compares the kept stock with {@link SSStock#recalculate()}.
+     *
+     * @return the product numbers where they differ, with the recalculated
+     * quantity, reserved and ordered
+     */
+    public static synchronized Map<String, int[]> checkStock() {
+        if (cLedger == null) {
+            return Collections.emptyMap();
+        }
+        SSStock iStock = new SSStock();
+
+        iStock.recalculate();
+
+        Map<String, int[]> iExpected = new HashMap<>();
+
+        for (SSProduct iProduct : SSDB.getInstance().getProducts()) {
+            if (iProduct.isStockProduct() && iProduct.getNumber() != null) {
+                iExpected.put(iProduct.getNumber(), new int[] {
+                    iStock.getQuantity(iProduct), iStock.getReserved(iProduct), iStock.getOrdered(iProduct)
+                });
+            }
+        }
+        Map<String, int[]> iDifferences = cLedger.compare(iExpected);
+
+        if (!iDifferences.isEmpty()) {
+            LOG.warn("Stock differs from a full recompute for the products {}", iDifferences.keySet());
+        }
+        return iDifferences;
+    }
+
+    /**
+     *
+     * @param pOrder the new or changed order
+     */
+    public static synchronized void orderChanged(SSOrder pOrder) {
+        if (cLedger == null) {
+            return;
+        }
+        setOrder(cLedger, cParcels, pOrder);
+        check();
+    }
+
+    /**
+     *
+     * @param pInvoice the new or changed invoice
+     */
+    public static synchronized void invoiceChanged(SSInvoice pInvoice) {
+        if (cLedger == null) {
+            return;
+        }
+        setInvoice(cLedger, cParcels, pInvoice);
+        check();
+    }
+
+    /**
+     *
+     * @param pCreditInvoice the new or changed credit invoice
+     */
+    public static synchronized void creditInvoiceChanged(SSCreditInvoice pCreditInvoice) {
+        if (cLedger == null) {
+            return;
+        }
+        setCreditInvoice(cLedger, cParcels, pCreditInvoice);
+        check();
+    }
+
+    /**
+     *
+     * @param pPurchaseOrder the new or changed purchase order
+     */
+    public static synchronized void purchaseOrderChanged(SSPurchaseOrder pPurchaseOrder) {
+        if (cLedger == null) {
+            return;
+        }
+        setPurchaseOrder(cLedger, cParcels, pPurchaseOrder);
+        check();
+    }
+
+    /**
+     *
+     * @param pSupplierInvoice the new or changed supplier invoice
+     */
+    public static synchronized void supplierInvoiceChanged(SSSupplierInvoice pSupplierInvoice) {
+        if (cLedger == null) {
+            return;
+        }
+        setSupplierInvoice(cLedger, cParcels, pSupplierInvoice);
+        check();
+    }
+
+    /**
+     *
+     * @param pSupplierCreditInvoice the new or changed supplier credit invoice
+     */
+    public static synchronized void supplierCreditInvoiceChanged(SSSupplierCreditInvoice pSupplierCreditInvoice) {
+        if (cLedger == null) {
+            return;
+        }
+        setSupplierCreditInvoice(cLedger, cParcels, pSupplierCreditInvoice);
+        check();
+    }
+
+    /**
+     *
+     * @param pInventory the new or changed inventory
+     */
+    public static synchronized void inventoryChanged(SSInventory pInventory) {
+        if (cLedger == null) {
+            return;
+        }
+        setInventory(cLedger, pInventory);
+        check();
+    }
+
+    /**
+     *
+     * @param pIndelivery the new or changed indelivery
+     */
+    public static synchronized void indeliveryChanged(SSIndelivery pIndelivery) {
+        if (cLedger == null) {
+            return;
+        }
+        setIndelivery(cLedger, pIndelivery);
+        check();
+    }
+
+    /**
+     *
+     * @param pOutdelivery the new or changed outdelivery
+     */
+    public static synchronized void outdeliveryChanged(SSOutdelivery pOutdelivery) {
+        if (cLedger == null) {
+            return;
+        }
+        setOutdelivery(cLedger, pOutdelivery);
+        check();
+    }
+
+    /**
+     *
+     * @param pTable the register of the deleted document, as in the trigger names
+     * @param pNumber the number of the deleted document
+     */
+    public static synchronized void documentDeleted(String pTable, Integer pNumber) {
+        if (cLedger == null) {
+            return;
+        }
+        cLedger.removeDocument(pTable, pNumber);
+        check();
+    }
+
+    // Orders reserve until they are invoiced
+    private static void setOrder(SSStockLedger pLedger, Map<String, SSProduct> pParcels, SSOrder pOrder) {
+        Map<String, Integer> iCounts = pOrder.hasInvoice()
+                ? Collections.emptyMap()
+                : countSaleRows(pOrder.getRows(), 1, pParcels);
+
+        pLedger.setDocument("ORDER", pOrder.getNumber(), pOrder.getLocalDate(), SSStockLedger.RESERVED, iCounts);
+    }
+
+    // Invoices take from the stock
+    private static void setInvoice(SSStockLedger pLedger, Map<String, SSProduct> pParcels, SSInvoice pInvoice) {
+        Map<String, Integer> iCounts = pInvoice.isStockInfluencing()
+                ? countSaleRows(pInvoice.getRows(), -1, pParcels)
+                : Collections.emptyMap();
+
+        pLedger.setDocument("INVOICE", pInvoice.getNumber(), pInvoice.getLocalDate(), SSStockLedger.QUANTITY, iCounts);
+    }
+
+    // Credit invoices put back in the stock
+    private static void setCreditInvoice(SSStockLedger pLedger, Map<String, SSProduct> pParcels, SSCreditInvoice pCreditInvoice) {
+        Map<String, Integer> iCounts = pCreditInvoice.isStockInfluencing()
+                ? countSaleRows(pCreditInvoice.getRows(), 1, pParcels)
+                : Collections.emptyMap();
+
+        pLedger.setDocument("CREDITINVOICE", pCreditInvoice.getNumber(), pCreditInvoice.getLocalDate(),
+                SSStockLedger.QUANTITY, iCounts);
+    }
+
+    // Purchase orders are ordered until they are invoiced
+    private static void setPurchaseOrder(SSStockLedger pLedger, Map<String, SSProduct> pParcels, SSPurchaseOrder pPurchaseOrder) {
+        Map<String, Integer> iCounts = pPurchaseOrder.isStockInfluencing() && !pPurchaseOrder.hasInvoice()
+                ? count(pPurchaseOrder.getRows(), SSPurchaseOrderRow::getProductNr, SSPurchaseOrderRow::getQuantity, 1,
+                pParcels)
+                : Collections.emptyMap();
+
+        pLedger.setDocument("PURCHASEORDER", pPurchaseOrder.getNumber(), pPurchaseOrder.getLocalDate(),
+                SSStockLedger.ORDERED, iCounts);
+    }
+
+    // Supplier invoices add to the stock and give the purchase price, see SSProductMath.getInprice
+    private static void setSupplierInvoice(SSStockLedger pLedger, Map<String, SSProduct> pParcels, SSSupplierInvoice pSupplierInvoice) {
+        Map<String, Integer> iCounts = pSupplierInvoice.isStockInfluencing()
+                ? count(pSupplierInvoice.getRows(), SSSupplierInvoiceRow::getProductNr,
+                SSSupplierInvoiceRow::getQuantity, 1, pParcels)
+                : Collections.emptyMap();
+
+        Map<String, BigDecimal> iPrices = new HashMap<>();
+
+        for (SSSupplierInvoiceRow iRow : pSupplierInvoice.getRows()) {
+            BigDecimal iUnitPrice = iRow.getUnitprice();
+
+            if (iRow.getProductNr() == null || iUnitPrice == null || iPrices.containsKey(iRow.getProductNr())) {
+                continue;
+            }
+            BigDecimal iValue = iRow.getUnitFreight() == null ? iUnitPrice : iUnitPrice.add(iRow.getUnitFreight());
+
+            iPrices.put(iRow.getProductNr(), SSSupplierInvoiceMath.convertToLocal(pSupplierInvoice, iValue));
+        }
+        pLedger.setDocument("SUPPLIERINVOICE", pSupplierInvoice.getNumber(), pSupplierInvoice.getLocalDate(),
+                SSStockLedger.QUANTITY, iCounts, iPrices);
+    }
+
+    // Supplier credit invoices take from the stock
+    private static void setSupplierCreditInvoice(SSStockLedger pLedger, Map<String, SSProduct> pParcels, SSSupplierCreditInvoice pSupplierCreditInvoice) {
+        Map<String, Integer> iCounts = pSupplierCreditInvoice.isStockInfluencing()
+                ? count(pSupplierCreditInvoice.getRows(), SSSupplierInvoiceRow::getProductNr,
+                SSSupplierInvoiceRow::getQuantity, -1, pParcels)
+                : Collections.emptyMap();
+
+        pLedger.setDocument("SUPPLIERCREDITINVOICE", pSupplierCreditInvoice.getNumber(),
+                pSupplierCreditInvoice.getLocalDate(), SSStockLedger.QUANTITY, iCounts);
+    }
+
+    private static void setInventory(SSStockLedger pLedger, SSInventory pInventory) {
+        pLedger.setDocument("INVENTORY", pInventory.getNumber(), pInventory.getLocalDate(), SSStockLedger.QUANTITY,
+                count(pInventory.getRows(), SSInventoryRow::getProductNr, SSInventoryRow::getChange, 1,
+                Collections.emptyMap()));
+    }
+
+    private static void setIndelivery(SSStockLedger pLedger, SSIndelivery pIndelivery) {
+        pLedger.setDocument("INDELIVERY", pIndelivery.getNumber(), pIndelivery.getLocalDate(), SSStockLedger.QUANTITY,
+                count(pIndelivery.getRows(), SSIndeliveryRow::getProductNr, SSIndeliveryRow::getChange, 1,
+                Collections.emptyMap()));
+    }
+
+    private static void setOutdelivery(SSStockLedger pLedger, SSOutdelivery pOutdelivery) {
+        pLedger.setDocument("OUTDELIVERY", pOutdelivery.getNumber(), pOutdelivery.getLocalDate(), SSStockLedger.QUANTITY,
+                count(pOutdelivery.getRows(), SSOutdeliveryRow::getProductNr, SSOutdeliveryRow::getChange, -1,
+                Collections.emptyMap()));
+    }
+
+    private static Map<String, Integer> countSaleRows(List<SSSaleRow> pRows, int pSign, Map<String, SSProduct> pParcels) {
+        return count(pRows, SSSaleRow::getProductNr, SSSaleRow::getQuantity, pSign, pParcels);
+    }
+
+    /**
+     * Counts the rows of a document per product the same way as the
+     * getStockInfluencing methods: a row of a parcel counts for the products
+     * in the parcel.
+     *
+     * @param pRows
+     * @param pProductNr
+     * @param pQuantity
+     * @param pSign
+     * @param pParcels
+     * @return the signed count per product number
+     */
+    private static <T> Map<String, Integer> count(List<T> pRows, Function<T, String> pProductNr, Function<T, Integer> pQuantity, int pSign, Map<String, SSProduct> pParcels) {
+        Map<String, Integer> iCounts = new HashMap<>();
+
+        for (T iRow : pRows) {
+            Integer iQuantity = pQuantity.apply(iRow);
+
+            if (iQuantity == null) {
+                continue;
+            }
+            String iProductNr = pProductNr.apply(iRow);
+            SSProduct iParcel = iProductNr == null ? null : pParcels.get(iProductNr);
+
+            if (iParcel == null) {
+                iCounts.merge(iProductNr, pSign * iQuantity, Integer::sum);
+                continue;
+            }
+            for (SSProductRow iProductRow : iParcel.getParcelRows()) {
+                iCounts.merge(iProductRow.getProductNr(), pSign * iProductRow.getQuantity() * iQuantity, Integer::sum);
+            }
+        }
+        return iCounts;
+    }
+
+    /**
+     *
+     * @param pProducts
+     * @return the parcels by product number
+     */
+    private static Map<String, SSProduct> getParcels(List<SSProduct> pProducts) {
+        Map<String, SSProduct> iParcels = new HashMap<>();
+
+        for (SSProduct iProduct : pProducts) {
+            if (iProduct.isParcel() && iProduct.getNumber() != null) {
+                iParcels.put(iProduct.getNumber(), iProduct);
+            }
+        }
+        return iParcels;
+    }
+
+    private static void check() {
+        if (CHECK_STOCK) {
+            checkStock();
+        }
+    }
+}
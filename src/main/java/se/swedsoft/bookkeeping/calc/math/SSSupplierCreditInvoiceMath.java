@@ -46,6 +46,13 @@ public class SSSupplierCreditInvoiceMath {
     }
 
     public static BigDecimal getSumForInvoice(SSSupplierInvoice iInvoice, LocalDate iDate) {
+        SSSaldoLedger iLedger = SSSupplierInvoiceMath.getLedger();
+
+        if (iLedger != null) {
+            BigDecimal iSum = iLedger.getCredited(iInvoice.getNumber(), iDate);
+
+            return iSum == null ? new BigDecimal(0) : iSum;
+        }
         // Get all credit invoices from the db
         List<SSSupplierCreditInvoice> iCreditInvoices = SSDB.getInstance().getSupplierCreditInvoices();
 
@@ -85,6 +92,11 @@ public class SSSupplierCreditInvoiceMath {
     }
 
     public static HashMap<Integer, BigDecimal> getSumsForSupplierInvoices(LocalDate iDate) {
+        SSSaldoLedger iLedger = SSSupplierInvoiceMath.getLedger();
+
+        if (iLedger != null) {
+            return iLedger.getCredited(iDate);
+        }
         HashMap<Integer, BigDecimal> iSums = new HashMap<>();
 
         List<SSSupplierCreditInvoice> iSupplierCreditInvoices = SSDB.getInstance().getSupplierCreditInvoices();
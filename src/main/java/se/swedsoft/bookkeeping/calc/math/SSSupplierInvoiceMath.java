@@ -11,6 +11,8 @@ import java.time.LocalDate;
 import java.util.*;
 import java.util.Optional;
 import java.util.stream.Collectors;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 
 /**
@@ -19,6 +21,8 @@ import java.util.stream.Collectors;
  * Time: 09:13:54
  */
 public class SSSupplierInvoiceMath {
+    private static final Logger LOG = LoggerFactory.getLogger(SSSupplierInvoiceMath.class);
+
     private SSSupplierInvoiceMath() {}
 
     public static boolean inPeriod(SSSupplierInvoice iSupplierInvoice, LocalDate pFrom, LocalDate pTo) {
@@ -163,10 +167,46 @@ public class SSSupplierInvoiceMath {
 
     public static HashMap<Integer, BigDecimal> iSaldoMap;
 
-    public static void calculateSaldos() {
-        if (iSaldoMap == null) {
-            iSaldoMap = new HashMap<>();
+    private static SSSaldoLedger cLedger;
+
+    /**
+     * Compare the saldos with a full recompute after every change, see
+     * {@link SSInvoiceMath}.
+     */
+    private static final boolean CHECK_SALDOS = Boolean.getBoolean("bokfri.saldo.check");
+
+    /**
+     * Calculates the saldo of all supplier invoices from scratch. After this the
+     * saldos are kept up to date by the SSDB triggers.
+     */
+    public static synchronized void calculateSaldos() {
+        HashMap<Integer, BigDecimal> iSaldos = new HashMap<>();
+        SSSaldoLedger iLedger = new SSSaldoLedger(iSaldos, SSSupplierMath::saldoChanged);
+
+        for (SSOutpayment iOutpayment : SSDB.getInstance().getOutpayments()) {
+            iLedger.setPayment(iOutpayment.getNumber(), iOutpayment.getLocalDate(), getAmounts(iOutpayment));
+        }
+        for (SSSupplierCreditInvoice iSupplierCreditInvoice : SSDB.getInstance().getSupplierCreditInvoices()) {
+            iLedger.setCredit(iSupplierCreditInvoice.getNumber(), iSupplierCreditInvoice.getLocalDate(),
+                    iSupplierCreditInvoice.getCreditingNr(), getTotalSum(iSupplierCreditInvoice));
+        }
+        for (SSSupplierInvoice iSupplierInvoice : SSDB.getInstance().getSupplierInvoices()) {
+            iLedger.setInvoice(iSupplierInvoice.getNumber(), getTotalSum(iSupplierInvoice));
         }
+        cLedger = iLedger;
+        iSaldoMap = iSaldos;
+        SSSupplierMath.saldosChanged();
+    }
+
+    /**
+     * Returns the saldo of all supplier invoices summed from all outpayments and
+     * supplier credit invoices, without touching the kept saldos.
+     *
+     * @return the saldos
+     */
+    public static HashMap<Integer, BigDecimal> recalculateSaldos() {
+        HashMap<Integer, BigDecimal> iSaldos = new HashMap<>();
+
         HashMap<Integer, BigDecimal> iOutpaymentSum = SSOutpaymentMath.getSumsForSupplierInvoices();
 
         HashMap<Integer, BigDecimal> iSupplierCreditInvoiceSum = SSSupplierCreditInvoiceMath.getSumsForSupplierInvoices();
@@ -186,8 +226,129 @@ public class SSSupplierInvoiceMath {
                         iSupplierCreditInvoiceSum.get(iSupplierInvoice.getNumber()));
             }
 
-            iSaldoMap.put(iSupplierInvoice.getNumber(), iTotalSum);
+            iSaldos.put(iSupplierInvoice.getNumber(), iTotalSum);
+        }
+        return iSaldos;
+    }
+
+    /**
+     * Compares the kept saldos with {@link #recalculateSaldos()}.
+     *
+     * @return the supplier invoices where they differ, with the recalculated saldo
+     */
+    public static Map<Integer, BigDecimal> checkSaldos() {
+        if (cLedger == null) {
+            return Collections.emptyMap();
+        }
+        Map<Integer, BigDecimal> iDifferences = cLedger.compare(recalculateSaldos());
+
+        if (!iDifferences.isEmpty()) {
+            LOG.warn("Supplier invoice saldos differ from a full recompute: {}", iDifferences);
+        }
+        return iDifferences;
+    }
+
+    /**
+     *
+     * @param iSupplierInvoice the new or changed supplier invoice
+     */
+    public static void supplierInvoiceChanged(SSSupplierInvoice iSupplierInvoice) {
+        if (cLedger == null) {
+            return;
+        }
+        cLedger.setInvoice(iSupplierInvoice.getNumber(), getTotalSum(iSupplierInvoice));
+        check();
+    }
+
+    /**
+     *
+     * @param iNumber the number of the deleted supplier invoice
+     */
+    public static void supplierInvoiceDeleted(Integer iNumber) {
+        if (cLedger == null) {
+            return;
+        }
+        cLedger.removeInvoice(iNumber);
+        check();
+    }
+
+    /**
+     *
+     * @param iOutpayment the new or changed outpayment
+     */
+    public static void outpaymentChanged(SSOutpayment iOutpayment) {
+        if (cLedger == null) {
+            return;
+        }
+        cLedger.setPayment(iOutpayment.getNumber(), iOutpayment.getLocalDate(), getAmounts(iOutpayment));
+        check();
+    }
+
+    /**
+     *
+     * @param iNumber the number of the deleted outpayment
+     */
+    public static void outpaymentDeleted(Integer iNumber) {
+        if (cLedger == null) {
+            return;
+        }
+        cLedger.removePayment(iNumber);
+        check();
+    }
+
+    /**
+     *
+     * @param iSupplierCreditInvoice the new or changed supplier credit invoice
+     */
+    public static void supplierCreditInvoiceChanged(SSSupplierCreditInvoice iSupplierCreditInvoice) {
+        if (cLedger == null) {
+            return;
+        }
+        cLedger.setCredit(iSupplierCreditInvoice.getNumber(), iSupplierCreditInvoice.getLocalDate(),
+                iSupplierCreditInvoice.getCreditingNr(), getTotalSum(iSupplierCreditInvoice));
+        check();
+    }
+
+    /**
+     *
+     * @param iNumber the number of the deleted supplier credit invoice
+     */
+    public static void supplierCreditInvoiceDeleted(Integer iNumber) {
+        if (cLedger == null) {
+            return;
+        }
+        cLedger.removeCredit(iNumber);
+        check();
+    }
+
+    /**
+     *
+     * @return the kept saldos, or null before {@link #calculateSaldos()} has run
+     */
+    static SSSaldoLedger getLedger() {
+        return cLedger;
+    }
+
+    private static void check() {
+        if (CHECK_SALDOS) {
+            checkSaldos();
+        }
+    }
+
+    /**
+     *
+     * @param iOutpayment
+     * @return the amount paid on each supplier invoice
+     */
+    private static Map<Integer, BigDecimal> getAmounts(SSOutpayment iOutpayment) {
+        Map<Integer, BigDecimal> iAmounts = new HashMap<>();
+
+        for (SSOutpaymentRow iRow : iOutpayment.getRows()) {
+            if (iRow.getValue() != null && iRow.getInvoiceNr() != null) {
+                iAmounts.merge(iRow.getInvoiceNr(), iRow.getValue(), BigDecimal::add);
+            }
         }
+        return iAmounts;
     }
 
     public static Map<Integer, BigDecimal> getSaldos(LocalDate iDate) {
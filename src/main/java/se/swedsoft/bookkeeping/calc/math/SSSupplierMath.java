@@ -6,9 +6,10 @@ import se.swedsoft.bookkeeping.data.SSSupplierInvoice;
 import se.swedsoft.bookkeeping.data.system.SSDB;
 
 import java.math.BigDecimal;
+import java.util.ArrayList;
 import java.util.HashMap;
-import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
 
 
 /**
@@ -26,6 +27,11 @@ public class SSSupplierMath {
      * @return
      */
     public static BigDecimal getSupplierDebt(SSSupplier iSupplier) {
+        SSInvoiceGroups<SSSupplierInvoice> iGroups = cInvoices;
+
+        if (iGroups != null) {
+            return iGroups.getClaim(iSupplier.getNumber());
+        }
         List<SSSupplierInvoice> iInvoices = SSSupplierInvoiceMath.getInvoicesForSupplier(
                 iSupplier);
 
@@ -42,27 +48,106 @@ public class SSSupplierMath {
         return iSum;
     }
 
+    /**
+     * The invoices of every supplier, the map of {@link #cInvoices}.
+     */
     public static HashMap<String, List<SSSupplierInvoice>> iInvoicesForSuppliers;
 
-    public static void getInvoicesForSuppliers() {
-        if (iInvoicesForSuppliers == null) {
-            iInvoicesForSuppliers = new HashMap<>();
+    private static SSInvoiceGroups<SSSupplierInvoice> cInvoices;
+
+    /**
+     * Groups the supplier invoices by supplier in one pass. After this the
+     * groups are kept up to date by the SSDB triggers through
+     * {@link #invoiceChanged}, {@link #invoiceDeleted} and {@link #supplierAdded}.
+     */
+    public static synchronized void getInvoicesForSuppliers() {
+        List<String> iNumbers = new ArrayList<>();
+
+        for (SSSupplier iSupplier : SSDB.getInstance().getSuppliers()) {
+            iNumbers.add(iSupplier.getNumber());
         }
+        SSInvoiceGroups<SSSupplierInvoice> iGroups = new SSInvoiceGroups<>(iNumbers,
+                SSDB.getInstance().getSupplierInvoices(), SSSupplierInvoice::getNumber,
+                SSSupplierInvoice::getSupplierNr, SSSupplierMath::getSaldo,
+                SSSupplierInvoiceMath::convertToLocal);
 
-        List<SSSupplier> iSuppliers = SSDB.getInstance().getSuppliers();
+        cInvoices = iGroups;
+        iInvoicesForSuppliers = iGroups.getGroups();
+    }
+
+    /**
+     *
+     * @param iSupplierInvoice the new or changed supplier invoice
+     */
+    public static void invoiceChanged(SSSupplierInvoice iSupplierInvoice) {
+        SSInvoiceGroups<SSSupplierInvoice> iGroups = cInvoices;
 
-        for (SSSupplier iSupplier:iSuppliers) {
-            List<SSSupplierInvoice> iSupplierInvoices = SSSupplierInvoiceMath.getInvoicesForSupplier(
-                    iSupplier);
-            List<SSSupplierInvoice> iInvoices = new LinkedList<>();
+        if (iGroups != null) {
+            iGroups.set(iSupplierInvoice);
+        }
+    }
 
-            for (SSSupplierInvoice iSupplierInvoice:iSupplierInvoices) {
-                iInvoices.add(iSupplierInvoice);
-            }
-            iInvoicesForSuppliers.put(iSupplier.getNumber(), iInvoices);
+    /**
+     *
+     * @param iNumber the number of the deleted supplier invoice
+     */
+    public static void invoiceDeleted(Integer iNumber) {
+        SSInvoiceGroups<SSSupplierInvoice> iGroups = cInvoices;
+
+        if (iGroups != null) {
+            iGroups.remove(iNumber);
         }
     }
 
+    /**
+     *
+     * @param iNumber the number of the new supplier
+     */
+    public static void supplierAdded(String iNumber) {
+        SSInvoiceGroups<SSSupplierInvoice> iGroups = cInvoices;
+
+        if (iGroups != null) {
+            iGroups.addKey(iNumber);
+        }
+    }
+
+    /**
+     * Called by the saldo ledger of {@link SSSupplierInvoiceMath} when the saldo
+     * of a supplier invoice has changed.
+     *
+     * @param iNumber the number of the supplier invoice
+     */
+    static void saldoChanged(Integer iNumber) {
+        SSInvoiceGroups<SSSupplierInvoice> iGroups = cInvoices;
+
+        if (iGroups != null) {
+            iGroups.saldoChanged(iNumber);
+        }
+    }
+
+    /**
+     * Called when the saldos of all supplier invoices have been calculated again.
+     */
+    static void saldosChanged() {
+        SSInvoiceGroups<SSSupplierInvoice> iGroups = cInvoices;
+
+        if (iGroups != null) {
+            iGroups.saldosChanged();
+        }
+    }
+
+    /**
+     *
+     * @param iNumber
+     * @return the saldo of the supplier invoice, or null before the saldos are
+     * calculated or if the invoice has none
+     */
+    private static BigDecimal getSaldo(Integer iNumber) {
+        Map<Integer, BigDecimal> iSaldos = SSSupplierInvoiceMath.iSaldoMap;
+
+        return iSaldos == null ? null : iSaldos.get(iNumber);
+    }
+
     public static Integer getOutpaymentNumber() {
         Integer iOutpaymentNumber = 0;
 
@@ -0,0 +1,99 @@
+package se.swedsoft.bookkeeping.calc.math;
+
+
+import se.swedsoft.bookkeeping.data.SSAccount;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+
+/**
+ * The sums of the accounts per VAT code, for the boxes of the VAT reports.
+ *
+ * The accounts are grouped by VAT code once, see {@link SSAccountMath#getAccountsPerVATCode},
+ * and one pass over the groups adds up every code. A box is then a lookup per
+ * VAT code instead of a pass over all account sums for every box.
+ */
+public final class SSVATCodeSums {
+
+    // VAT code -> sum of the accounts with the code
+    private final Map<String, BigDecimal> iSums;
+
+    /**
+     *
+     * @param pSums
+     */
+    private SSVATCodeSums(Map<String, BigDecimal> pSums) {
+        iSums = pSums;
+    }
+
+    /**
+     *
+     * @param pAccountsPerVATCode the accounts per VAT code
+     * @param pSums the sum per account
+     * @param pRoundDown true to round the sum of each account down to whole kronor before it is added
+     */
+    public SSVATCodeSums(Map<String, List<SSAccount>> pAccountsPerVATCode, Map<SSAccount, BigDecimal> pSums, boolean pRoundDown) {
+        iSums = new HashMap<>(pAccountsPerVATCode.size() * 2);
+
+        for (Map.Entry<String, List<SSAccount>> iEntry : pAccountsPerVATCode.entrySet()) {
+            if (iEntry.getKey() == null) {
+                continue;
+            }
+            BigDecimal iSum = new BigDecimal(0);
+
+            for (SSAccount iAccount : iEntry.getValue()) {
+                BigDecimal iSumForAccount = pSums.get(iAccount);
+
+                if (iSumForAccount != null) {
+                    iSum = iSum.add(pRoundDown ? iSumForAccount.setScale(0, RoundingMode.DOWN) : iSumForAccount);
+                }
+            }
+            iSums.put(iEntry.getKey(), iSum);
+        }
+    }
+
+    /**
+     *
+     * @param pVATCodes
+     * @return the sum of the accounts with any of the VAT codes
+     */
+    public BigDecimal getSum(String... pVATCodes) {
+        BigDecimal iSum = new BigDecimal(0);
+
+        for (String iVATCode : pVATCodes) {
+            BigDecimal iSumForCode = iSums.get(iVATCode);
+
+            if (iSumForCode != null) {
+                iSum = iSum.add(iSumForCode);
+            }
+        }
+        return iSum;
+    }
+
+    /**
+     *
+     * @return the sums with the sign changed, credit minus debet from debet minus credit
+     */
+    public SSVATCodeSums negate() {
+        Map<String, BigDecimal> iNegated = new HashMap<>(iSums.size() * 2);
+
+        for (Map.Entry<String, BigDecimal> iEntry : iSums.entrySet()) {
+            iNegated.put(iEntry.getKey(), iEntry.getValue().negate());
+        }
+        return new SSVATCodeSums(iNegated);
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder();
+
+        sb.append("se.swedsoft.bookkeeping.calc.math.SSVATCodeSums");
+        sb.append("{iSums=").append(iSums);
+        sb.append('}');
+        return sb.toString();
+    }
+}
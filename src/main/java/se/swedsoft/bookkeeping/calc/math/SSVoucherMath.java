@@ -1,6 +1,7 @@
 package se.swedsoft.bookkeeping.calc.math;
 
 
+import se.swedsoft.bookkeeping.calc.util.SSAccountSums;
 import se.swedsoft.bookkeeping.data.*;
 import se.swedsoft.bookkeeping.data.system.SSDB;
 
@@ -138,24 +139,19 @@ public class SSVoucherMath {
      * @return
      */
     public static Map<SSAccount, BigDecimal>  getCreditMinusDebetSum(List<SSVoucher> pVouchers) {
-        Map<SSAccount, BigDecimal> iSums = new HashMap<>();
+        SSAccountSums iSums = new SSAccountSums();
 
         for (SSVoucher iVoucher: pVouchers) {
             for (SSVoucherRow iVoucherRow: iVoucher.getRows()) {
                 SSAccount iAccount = iVoucherRow.getAccount();
 
                 if (iVoucherRow.isValid() && !iVoucherRow.isCrossed()) {
-                    BigDecimal s = iSums.get(iAccount);
-
-                    if (s == null) {
-                        iSums.put(iAccount, getCreditMinusDebet(iVoucherRow));
-                    } else {
-                        iSums.put(iAccount, s.add(getCreditMinusDebet(iVoucherRow)));
-                    }
+                    iSums.add(iAccount, iVoucherRow.getCredit());
+                    iSums.subtract(iAccount, iVoucherRow.getDebet());
                 }
             }
         }
-        return iSums;
+        return iSums.toMap();
     }
 
     /**
@@ -164,24 +160,19 @@ public class SSVoucherMath {
      * @return
      */
     public static Map<SSAccount, BigDecimal>  getDebetMinusCreditSum(List<SSVoucher> pVouchers) {
-        Map<SSAccount, BigDecimal> iSums = new HashMap<>();
+        SSAccountSums iSums = new SSAccountSums();
 
         for (SSVoucher iVoucher: pVouchers) {
             for (SSVoucherRow iVoucherRow: iVoucher.getRows()) {
                 SSAccount iAccount = iVoucherRow.getAccount();
 
                 if (iVoucherRow.isValid() && !iVoucherRow.isCrossed()) {
-                    BigDecimal s = iSums.get(iAccount);
-
-                    if (s == null) {
-                        iSums.put(iAccount, getDebetMinusCredit(iVoucherRow));
-                    } else {
-                        iSums.put(iAccount, s.add(getDebetMinusCredit(iVoucherRow)));
-                    }
+                    iSums.add(iAccount, iVoucherRow.getDebet());
+                    iSums.subtract(iAccount, iVoucherRow.getCredit());
                 }
             }
         }
-        return iSums;
+        return iSums.toMap();
     }
 
     /**
@@ -0,0 +1,274 @@
+package se.swedsoft.bookkeeping.calc.util;
+
+
+import se.swedsoft.bookkeeping.data.SSAccount;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+
+/**
+ * Sums amounts per account number without a BigDecimal and a map update per row.
+ *
+ * The sums are kept as öre in a long array indexed by the account number. An
+ * account whose sum overflows a long, that gets an amount with fractions of an
+ * öre, or whose number is outside the array, is summed as a BigDecimal instead,
+ * so the result is always exact.
+ */
+public class SSAccountSums {
+
+    // Account numbers at or above this are summed as BigDecimal
+    static final int MAX_INDEX = 1 << 20;
+
+    private static final byte UNUSED = 0;
+
+    private static final byte CENTS = 1;
+
+    private static final byte EXACT = 2;
+
+    private long[] iCents;
+
+    private byte[] iState;
+
+    // The first account added for each number, for toMap()
+    private SSAccount[] iAccounts;
+
+    // The sums that are not kept in iCents
+    private final Map<Integer, BigDecimal> iExact;
+
+    private final Map<Integer, SSAccount> iExactAccounts;
+
+    public SSAccountSums() {
+        iCents = new long[10000];
+        iState = new byte[10000];
+        iAccounts = new SSAccount[10000];
+        iExact = new HashMap<>();
+        iExactAccounts = new HashMap<>();
+    }
+
+    /**
+     *
+     * @param pAccount
+     * @param pAmount the amount, null is ignored
+     */
+    public void add(SSAccount pAccount, BigDecimal pAmount) {
+        add(register(pAccount), pAmount);
+    }
+
+    /**
+     *
+     * @param pAccount
+     * @param pAmount the amount to subtract, null is ignored
+     */
+    public void subtract(SSAccount pAccount, BigDecimal pAmount) {
+        subtract(register(pAccount), pAmount);
+    }
+
+    /**
+     *
+     * @param pNumber the account number
+     * @param pAmount the amount, null is ignored
+     */
+    public void add(int pNumber, BigDecimal pAmount) {
+        if (pAmount == null) {
+            return;
+        }
+        if (isIndexed(pNumber)) {
+            ensureCapacity(pNumber);
+
+            if (iState[pNumber] != EXACT) {
+                try {
+                    add(pNumber, toCents(pAmount));
+                    return;
+                } catch (ArithmeticException e) {
+                    toExact(pNumber);
+                }
+            }
+        }
+        iExact.merge(pNumber, pAmount, BigDecimal::add);
+    }
+
+    /**
+     *
+     * @param pNumber the account number
+     * @param pAmount the amount to subtract, null is ignored
+     */
+    public void subtract(int pNumber, BigDecimal pAmount) {
+        if (pAmount == null) {
+            return;
+        }
+        if (isIndexed(pNumber)) {
+            ensureCapacity(pNumber);
+
+            if (iState[pNumber] != EXACT) {
+                try {
+                    add(pNumber, Math.negateExact(toCents(pAmount)));
+                    return;
+                } catch (ArithmeticException e) {
+                    toExact(pNumber);
+                }
+            }
+        }
+        iExact.merge(pNumber, pAmount.negate(), BigDecimal::add);
+    }
+
+    /**
+     *
+     * @param pNumber the account number
+     * @param pCents the amount in öre
+     */
+    public void add(int pNumber, long pCents) {
+        if (isIndexed(pNumber)) {
+            ensureCapacity(pNumber);
+
+            if (iState[pNumber] != EXACT) {
+                try {
+                    iCents[pNumber] = Math.addExact(iCents[pNumber], pCents);
+                    iState[pNumber] = CENTS;
+                    return;
+                } catch (ArithmeticException e) {
+                    toExact(pNumber);
+                }
+            }
+        }
+        iExact.merge(pNumber, BigDecimal.valueOf(pCents, 2), BigDecimal::add);
+    }
+
+    /**
+     *
+     * @param pNumber the account number
+     * @return the sum, or null if nothing was added for the account
+     */
+    public BigDecimal get(int pNumber) {
+        if (isIndexed(pNumber) && pNumber < iState.length && iState[pNumber] == CENTS) {
+            return BigDecimal.valueOf(iCents[pNumber], 2);
+        }
+        return iExact.get(pNumber);
+    }
+
+    /**
+     *
+     * @return the sums of the accounts added with {@link #add(SSAccount, BigDecimal)}
+     */
+    public Map<SSAccount, BigDecimal> toMap() {
+        Map<SSAccount, BigDecimal> iResult = new HashMap<>();
+
+        for (int i = 0; i < iAccounts.length; i++) {
+            if (iAccounts[i] != null && iState[i] != UNUSED) {
+                iResult.put(iAccounts[i], get(i));
+            }
+        }
+        for (Map.Entry<Integer, SSAccount> iEntry : iExactAccounts.entrySet()) {
+            iResult.put(iEntry.getValue(), get(iEntry.getKey()));
+        }
+        return iResult;
+    }
+
+    /**
+     *
+     * @param pAccounts the accounts by number, sums of other numbers are left out
+     * @return the sums
+     */
+    public Map<SSAccount, BigDecimal> toMap(Map<Integer, SSAccount> pAccounts) {
+        Map<SSAccount, BigDecimal> iResult = new HashMap<>();
+
+        for (int i = 0; i < iState.length; i++) {
+            SSAccount iAccount = iState[i] == UNUSED ? null : pAccounts.get(i);
+
+            if (iAccount != null) {
+                iResult.put(iAccount, get(i));
+            }
+        }
+        for (Integer iNumber : iExact.keySet()) {
+            SSAccount iAccount = pAccounts.get(iNumber);
+
+            if (iAccount != null) {
+                iResult.put(iAccount, get(iNumber));
+            }
+        }
+        return iResult;
+    }
+
+    /**
+     *
+     * @param pAmount
+     * @return the amount in öre
+     * @throws ArithmeticException if the amount has fractions of an öre or does not fit a long
+     */
+    public static long toCents(BigDecimal pAmount) {
+        if (pAmount.scale() == 2 && pAmount.precision() < 19) {
+            return pAmount.unscaledValue().longValue();
+        }
+        return pAmount.movePointRight(2).longValueExact();
+    }
+
+    /**
+     * Remembers the account of a number for {@link #toMap()}.
+     *
+     * @param pAccount
+     * @return the account number
+     */
+    private int register(SSAccount pAccount) {
+        int iNumber = pAccount.getNumber();
+
+        if (isIndexed(iNumber)) {
+            ensureCapacity(iNumber);
+            if (iAccounts[iNumber] == null) {
+                iAccounts[iNumber] = pAccount;
+            }
+        } else {
+            iExactAccounts.putIfAbsent(iNumber, pAccount);
+        }
+        return iNumber;
+    }
+
+    /**
+     *
+     * @param pNumber
+     * @return true if the account can be kept in the arrays
+     */
+    private static boolean isIndexed(int pNumber) {
+        return pNumber >= 0 && pNumber < MAX_INDEX;
+    }
+
+    /**
+     * Moves the sum of an account from the array to the BigDecimal map.
+     *
+     * @param pNumber
+     */
+    private void toExact(int pNumber) {
+        if (iState[pNumber] == CENTS) {
+            iExact.put(pNumber, BigDecimal.valueOf(iCents[pNumber], 2));
+        }
+        iState[pNumber] = EXACT;
+        iCents[pNumber] = 0;
+    }
+
+    /**
+     *
+     * @param pNumber
+     */
+    private void ensureCapacity(int pNumber) {
+        if (pNumber < iCents.length) {
+            return;
+        }
+        int iLength = Math.min(MAX_INDEX, Math.max(pNumber + 1, iCents.length * 2));
+
+        iCents = Arrays.copyOf(iCents, iLength);
+        iState = Arrays.copyOf(iState, iLength);
+        iAccounts = Arrays.copyOf(iAccounts, iLength);
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder();
+
+        sb.append("se.swedsoft.bookkeeping.calc.util.SSAccountSums");
+        sb.append("{iLength=").append(iCents.length);
+        sb.append(", iExact=").append(iExact);
+        sb.append('}');
+        return sb.toString();
+    }
+}
@@ -42,6 +42,16 @@ public class SSCreditInvoice extends SSInvoice {
         iVoucher = new SSVoucher();
     }
 
+    /**
+     * Creates a credit invoice with the given voucher, without reading the
+     * next voucher or the defaults of the current company from the database.
+     *
+     * @param iVoucher
+     */
+    public SSCreditInvoice(SSVoucher iVoucher) {
+        super(iVoucher);
+    }
+
     /**
      *
      * @param iCrediting
@@ -73,6 +73,23 @@ public class SSInvoice extends SSSale {
         }
     }
 
+    /**
+     * Creates an invoice with the given voucher, without reading the next
+     * voucher or the defaults of the current company from the database.
+     *
+     * @param iVoucher
+     */
+    public SSInvoice(SSVoucher iVoucher) {
+        super(SSDateUtil.today());
+
+        this.iVoucher = iVoucher;
+
+        iType = SSInvoiceType.NORMAL;
+        iCurrencyRate = new BigDecimal(1);
+        iOrderNumbers = "Fakturan har inga ordrar";
+        iStockInfluencing = true;
+    }
+
     /**
      * Copy constructor
      *
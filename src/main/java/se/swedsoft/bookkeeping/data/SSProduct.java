@@ -103,6 +103,24 @@ public class SSProduct implements SSTableSearchable, Serializable {
         }
     }
 
+    /**
+     * Creates a product without the standard unit and default accounts of
+     * the current company.
+     *
+     * @param iNumber
+     */
+    public SSProduct(String iNumber) {
+        this.iNumber = iNumber;
+        iProductRows = new LinkedList<>();
+        iDefaultAccounts = new HashMap<>();
+        iUnitprice = new BigDecimal(0);
+        iPurchasePrice = new BigDecimal(0);
+        iStockPrice = new BigDecimal(0);
+        iFreight = new BigDecimal(0);
+        iTaxCode = SSTaxCode.TAXRATE_1;
+        iStockGoods = true;
+    }
+
     /**
      * Copy constructor
      *
@@ -679,6 +697,26 @@ public class SSProduct implements SSTableSearchable, Serializable {
         }
     }
 
+    /**
+     *
+     * @return
+     */
+    public Map<SSDefaultAccount, Integer> getDefaultAccounts() {
+        if (iDefaultAccounts == null) {
+            iDefaultAccounts = new HashMap<>();
+        }
+        return iDefaultAccounts;
+    }
+
+    /**
+     *
+     * @param iDefaultAccounts
+     */
+    public void setDefaultAccounts(Map<SSDefaultAccount, Integer> iDefaultAccounts) {
+        this.iDefaultAccounts = new HashMap<>();
+        this.iDefaultAccounts.putAll(iDefaultAccounts);
+    }
+
     // //////////////////////////////////////////////////
 
     /**
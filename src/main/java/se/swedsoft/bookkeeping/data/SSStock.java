@@ -46,9 +46,27 @@ public class SSStock {
     }
 
     /**
-     *
+     * Reads the current stock of the stock products from the stock ledger,
+     * see {@link SSStockMath#getLedger()}.
      */
     public void update() {
+        SSStockLedger iLedger = SSStockMath.getLedger();
+
+        for (SSProduct iProduct : SSDB.getInstance().getProducts()) {
+            if (!iProduct.isStockProduct() || iProduct.getNumber() == null) {
+                continue;
+            }
+            iQuantity.put(iProduct, iLedger.getQuantity(iProduct.getNumber()));
+            iReserved.put(iProduct, iLedger.getReserved(iProduct.getNumber()));
+            iOrdered.put(iProduct, iLedger.getOrdered(iProduct.getNumber()));
+        }
+    }
+
+    /**
+     * Calculates the current stock from all stock documents, without the stock
+     * ledger.
+     */
+    public void recalculate() {
         List<SSOrder>                 iOrders = SSDB.getInstance().getOrders();
         List<SSInvoice>               iInvoices = SSDB.getInstance().getInvoices();
         List<SSCreditInvoice>         iCreditInvoices = SSDB.getInstance().getCreditInvoices();
@@ -100,175 +118,48 @@ public class SSStock {
                 iSupplierCreditInvoices, iInventories, iIndeliveries, iOutdeliveries);
     }
 
+    /**
+     * Reads the stock of the stock products at the end of the date from the
+     * stock ledger.
+     *
+     * @param iDate
+     */
     public void update(final LocalDate iDate) {
-        List<SSOrder>                 iOrders = SSDB.getInstance().getOrders();
-        List<SSInvoice>               iInvoices = SSDB.getInstance().getInvoices();
-        List<SSCreditInvoice>         iCreditInvoices = SSDB.getInstance().getCreditInvoices();
-        List<SSPurchaseOrder>         iPurchaseOrders = SSDB.getInstance().getPurchaseOrders();
-        List<SSSupplierInvoice>       iSupplierInvoices = SSDB.getInstance().getSupplierInvoices();
-        List<SSSupplierCreditInvoice> iSupplierCreditInvoices = SSDB.getInstance().getSupplierCreditInvoices();
-        List<SSInventory>             iInventories = SSDB.getInstance().getInventories();
-        List<SSIndelivery>            iIndeliveries = SSDB.getInstance().getIndeliveries();
-        List<SSOutdelivery>           iOutdeliveries = SSDB.getInstance().getOutdeliveries();
-
-        iOrders = SSOrderMath.getOrdersWithoutInvoice(iOrders);
-        iPurchaseOrders = SSPurchaseOrderMath.getOrdersWithoutInvoice(iPurchaseOrders);
-
-        iOrders = SSFilterFactory.doFilter(iOrders, new SSFilter<>() {
-            public boolean applyFilter(SSOrder iOrder) {
-                return SSOrderMath.inPeriod(iOrder, iDate);
-            }
-        });
-
-        iInvoices = SSFilterFactory.doFilter(iInvoices,
-                new SSFilter<>() {
-            public boolean applyFilter(SSInvoice iInvoice) {
-                return iInvoice.isStockInfluencing()
-                        && SSInvoiceMath.inPeriod(iInvoice, iDate);
-            }
-        });
-
-        iCreditInvoices = SSFilterFactory.doFilter(iCreditInvoices,
-                new SSFilter<>() {
-            public boolean applyFilter(SSCreditInvoice iCreditInvoice) {
-                return iCreditInvoice.isStockInfluencing()
-                        && SSInvoiceMath.inPeriod(iCreditInvoice, iDate);
-            }
-        });
-
-        iPurchaseOrders = SSFilterFactory.doFilter(iPurchaseOrders,
-                new SSFilter<>() {
-            public boolean applyFilter(SSPurchaseOrder iPurchaseOrder) {
-                return iPurchaseOrder.isStockInfluencing()
-                        && SSPurchaseOrderMath.inPeriod(iPurchaseOrder, iDate);
-            }
-        });
-
-        iSupplierInvoices = SSFilterFactory.doFilter(iSupplierInvoices,
-                new SSFilter<>() {
-            public boolean applyFilter(SSSupplierInvoice iSupplierInvoice) {
-                return iSupplierInvoice.isStockInfluencing()
-                        && SSSupplierInvoiceMath.inPeriod(iSupplierInvoice, iDate);
-            }
-        });
-
-        iSupplierCreditInvoices = SSFilterFactory.doFilter(iSupplierCreditInvoices,
-                new SSFilter<>() {
-            public boolean applyFilter(SSSupplierCreditInvoice iSupplierCreditInvoice) {
-                return iSupplierCreditInvoice.isStockInfluencing()
-                        && SSSupplierInvoiceMath.inPeriod(iSupplierCreditInvoice, iDate);
-            }
-        });
+        SSStockLedger iLedger = SSStockMath.getLedger();
 
-        iInventories = SSFilterFactory.doFilter(iInventories,
-                new SSFilter<>() {
-            public boolean applyFilter(SSInventory iInventory) {
-                return SSInventoryMath.inPeriod(iInventory, iDate);
+        for (SSProduct iProduct : SSDB.getInstance().getProducts()) {
+            if (iProduct.isStockProduct() && iProduct.getNumber() != null) {
+                put(iProduct, iLedger.getStock(iProduct.getNumber(), iDate));
             }
-        });
-
-        iIndeliveries = SSFilterFactory.doFilter(iIndeliveries,
-                new SSFilter<>() {
-            public boolean applyFilter(SSIndelivery iIndelivery) {
-                return SSIndeliveryMath.inPeriod(iIndelivery, iDate);
-            }
-        });
-
-        iOutdeliveries = SSFilterFactory.doFilter(iOutdeliveries,
-                new SSFilter<>() {
-            public boolean applyFilter(SSOutdelivery iOutdelivery) {
-                return SSOutdeliveryMath.inPeriod(iOutdelivery, iDate);
-            }
-        });
-
-        calculate(iOrders, iInvoices, iCreditInvoices, iPurchaseOrders, iSupplierInvoices,
-                iSupplierCreditInvoices, iInventories, iIndeliveries, iOutdeliveries);
+        }
     }
 
+    /**
+     * Reads the change of the stock of the stock products over the period
+     * from the stock ledger.
+     *
+     * @param iFrom
+     * @param iTo
+     */
     public void update(final LocalDate iFrom, final LocalDate iTo) {
-        List<SSOrder>                 iOrders = SSDB.getInstance().getOrders();
-        List<SSInvoice>               iInvoices = SSDB.getInstance().getInvoices();
-        List<SSCreditInvoice>         iCreditInvoices = SSDB.getInstance().getCreditInvoices();
-        List<SSPurchaseOrder>         iPurchaseOrders = SSDB.getInstance().getPurchaseOrders();
-        List<SSSupplierInvoice>       iSupplierInvoices = SSDB.getInstance().getSupplierInvoices();
-        List<SSSupplierCreditInvoice> iSupplierCreditInvoices = SSDB.getInstance().getSupplierCreditInvoices();
-        List<SSInventory>             iInventories = SSDB.getInstance().getInventories();
-        List<SSIndelivery>            iIndeliveries = SSDB.getInstance().getIndeliveries();
-        List<SSOutdelivery>           iOutdeliveries = SSDB.getInstance().getOutdeliveries();
-
-        iOrders = SSOrderMath.getOrdersWithoutInvoice(iOrders);
-        iPurchaseOrders = SSPurchaseOrderMath.getOrdersWithoutInvoice(iPurchaseOrders);
+        SSStockLedger iLedger = SSStockMath.getLedger();
 
-        iOrders = SSFilterFactory.doFilter(iOrders, new SSFilter<>() {
-            public boolean applyFilter(SSOrder iOrder) {
-                return SSOrderMath.inPeriod(iOrder, iFrom, iTo);
-            }
-        });
-
-        iInvoices = SSFilterFactory.doFilter(iInvoices,
-                new SSFilter<>() {
-            public boolean applyFilter(SSInvoice iInvoice) {
-                return iInvoice.isStockInfluencing()
-                        && SSInvoiceMath.inPeriod(iInvoice, iFrom, iTo);
-            }
-        });
-
-        iCreditInvoices = SSFilterFactory.doFilter(iCreditInvoices,
-                new SSFilter<>() {
-            public boolean applyFilter(SSCreditInvoice iCreditInvoice) {
-                return iCreditInvoice.isStockInfluencing()
-                        && SSInvoiceMath.inPeriod(iCreditInvoice, iFrom, iTo);
-            }
-        });
-
-        iPurchaseOrders = SSFilterFactory.doFilter(iPurchaseOrders,
-                new SSFilter<>() {
-            public boolean applyFilter(SSPurchaseOrder iPurchaseOrder) {
-                return iPurchaseOrder.isStockInfluencing()
-                        && SSPurchaseOrderMath.inPeriod(iPurchaseOrder, iFrom, iTo);
+        for (SSProduct iProduct : SSDB.getInstance().getProducts()) {
+            if (iProduct.isStockProduct() && iProduct.getNumber() != null) {
+                put(iProduct, iLedger.getStock(iProduct.getNumber(), iFrom, iTo));
             }
-        });
-
-        iSupplierInvoices = SSFilterFactory.doFilter(iSupplierInvoices,
-                new SSFilter<>() {
-            public boolean applyFilter(SSSupplierInvoice iSupplierInvoice) {
-                return iSupplierInvoice.isStockInfluencing()
-                        && SSSupplierInvoiceMath.inPeriod(iSupplierInvoice, iFrom, iTo);
-            }
-        });
-
-        iSupplierCreditInvoices = SSFilterFactory.doFilter(iSupplierCreditInvoices,
-                new SSFilter<>() {
-            public boolean applyFilter(SSSupplierCreditInvoice iSupplierCreditInvoice) {
-                return iSupplierCreditInvoice.isStockInfluencing()
-                        && SSSupplierInvoiceMath.inPeriod(iSupplierCreditInvoice, iFrom,
-                        iTo);
-            }
-        });
-
-        iInventories = SSFilterFactory.doFilter(iInventories,
-                new SSFilter<>() {
-            public boolean applyFilter(SSInventory iInventory) {
-                return SSInventoryMath.inPeriod(iInventory, iFrom, iTo);
-            }
-        });
-
-        iIndeliveries = SSFilterFactory.doFilter(iIndeliveries,
-                new SSFilter<>() {
-            public boolean applyFilter(SSIndelivery iIndelivery) {
-                return SSIndeliveryMath.inPeriod(iIndelivery, iFrom, iTo);
-            }
-        });
-
-        iOutdeliveries = SSFilterFactory.doFilter(iOutdeliveries,
-                new SSFilter<>() {
-            public boolean applyFilter(SSOutdelivery iOutdelivery) {
-                return SSOutdeliveryMath.inPeriod(iOutdelivery, iFrom, iTo);
-            }
-        });
+        }
+    }
 
-        calculate(iOrders, iInvoices, iCreditInvoices, iPurchaseOrders, iSupplierInvoices,
-                iSupplierCreditInvoices, iInventories, iIndeliveries, iOutdeliveries);
+    /**
+     *
+     * @param iProduct
+     * @param iStock the quantity, reserved and ordered
+     */
+    private void put(SSProduct iProduct, int[] iStock) {
+        iQuantity.put(iProduct, iStock[SSStockLedger.QUANTITY]);
+        iReserved.put(iProduct, iStock[SSStockLedger.RESERVED]);
+        iOrdered.put(iProduct, iStock[SSStockLedger.ORDERED]);
     }
 
     /**
@@ -57,6 +57,18 @@ public class SSVoucher implements Serializable, Cloneable, SSTableSearchable {
         this.iNumber = iNumber;
     }
 
+    /**
+     * Creates a voucher without looking up the next voucher date in the database.
+     *
+     * @param iNumber
+     * @param iDate
+     */
+    public SSVoucher(Integer iNumber, LocalDate iDate) {
+        this.iNumber = iNumber;
+        this.iDate = iDate;
+        iVoucherRows = new ArrayList<>();
+    }
+
     /**
      * Copy constructor.
      *
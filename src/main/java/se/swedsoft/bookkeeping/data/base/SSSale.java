@@ -78,6 +78,9 @@ public abstract class SSSale implements SSTableSearchable, Serializable {
     // Transient reference to the customer.
     protected transient SSCustomer iCustomer;
 
+    // The last computed sums, see getSums()
+    private transient volatile SSSaleSums iSums;
+
     // //////////////////////////////////////////////////
 
     /**
@@ -101,6 +104,19 @@ public abstract class SSSale implements SSTableSearchable, Serializable {
 
     }
 
+    /**
+     * Creates a sale without the defaults of the current company.
+     *
+     * @param iDate
+     */
+    protected SSSale(LocalDate iDate) {
+        this.iDate = iDate;
+        iInvoiceAddress = new SSAddress();
+        iDeliveryAddress = new SSAddress();
+        iRows = new LinkedList<>();
+        iPrinted = false;
+    }
+
     /**
      * Copy constructor
      *
@@ -739,6 +755,44 @@ public abstract class SSSale implements SSTableSearchable, Serializable {
 
     // //////////////////////////////////////////////////
 
+    /**
+     * Returns the net, tax and total sums of the sale. The sums are kept and only
+     * computed again when a row has been added, removed or edited, or the tax rates,
+     * the tax free flag or the rounding of the company have changed.
+     *
+     * @return the sums
+     */
+    public SSSaleSums getSums() {
+        SSNewCompany iCompany = SSDB.getInstance().getCurrentCompany();
+        boolean iRoundingOff = iCompany != null && iCompany.isRoundingOff();
+        int iRowsStamp = getRowsStamp();
+        SSSaleSums iCurrent = iSums;
+
+        if (iCurrent == null || !iCurrent.isValidFor(this, iRowsStamp, iRoundingOff)) {
+            iCurrent = new SSSaleSums(this, iRowsStamp, iRoundingOff);
+            iSums = iCurrent;
+        }
+        return iCurrent;
+    }
+
+    /**
+     * Returns a stamp of the rows that changes when a row is added, removed,
+     * replaced or edited.
+     *
+     * @return the stamp
+     */
+    private int getRowsStamp() {
+        int iStamp = 1;
+
+        for (SSSaleRow iRow : getRows()) {
+            iStamp = 31 * iStamp + System.identityHashCode(iRow);
+            iStamp = 31 * iStamp + (iRow == null ? 0 : iRow.getEdits());
+        }
+        return iStamp;
+    }
+
+    // //////////////////////////////////////////////////
+
     public boolean equals(Object obj) {
 
         if (iNumber == null) {
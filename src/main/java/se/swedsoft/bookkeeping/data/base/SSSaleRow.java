@@ -60,6 +60,9 @@ public class SSSaleRow implements SSTableSearchable, Serializable {
     // Transient reference to the result init
     private transient SSNewResultUnit iResultUnit;
 
+    // Counts the changes to the sum and tax code, see SSSale.getSums()
+    private transient int iEdits;
+
     // //////////////////////////////////////////////////
 
     /**
@@ -178,6 +181,7 @@ public class SSSaleRow implements SSTableSearchable, Serializable {
      */
     public void setUnitprice(BigDecimal iUnitprice) {
         this.iUnitprice = iUnitprice;
+        iEdits++;
     }
 
     // //////////////////////////////////////////////////
@@ -196,6 +200,7 @@ public class SSSaleRow implements SSTableSearchable, Serializable {
      */
     public void setQuantity(Integer iCount) {
         this.iCount = iCount;
+        iEdits++;
     }
 
     // //////////////////////////////////////////////////
@@ -232,6 +237,7 @@ public class SSSaleRow implements SSTableSearchable, Serializable {
      */
     public void setDiscount(BigDecimal iDiscount) {
         this.iDiscount = iDiscount;
+        iEdits++;
     }
 
     /**
@@ -259,6 +265,7 @@ public class SSSaleRow implements SSTableSearchable, Serializable {
      */
     public void setTaxCode(SSTaxCode iTaxCode) {
         this.iTaxCode = iTaxCode;
+        iEdits++;
     }
 
     // //////////////////////////////////////////////////
@@ -402,6 +409,7 @@ public class SSSaleRow implements SSTableSearchable, Serializable {
         iCount = 1;
         iAccount = null;
         this.iProduct = iProduct;
+        iEdits++;
     }
 
     public void setProductOnly(SSProduct iProduct) {
@@ -417,6 +425,7 @@ public class SSSaleRow implements SSTableSearchable, Serializable {
         iProjectNumber = iProduct.getProjectNr();
         iResultUnit = iProduct.getResultUnit();
         iResultUnitNumber = iProduct.getResultUnitNr();
+        iEdits++;
     }
 
     // //////////////////////////////////////////////////
@@ -523,6 +532,14 @@ public class SSSaleRow implements SSTableSearchable, Serializable {
         return iProductNr != null && iProductNr.equals(iProduct.getNumber());
     }
 
+    /**
+     *
+     * @return the number of changes to the sum and tax code of the row
+     */
+    int getEdits() {
+        return iEdits;
+    }
+
     /**
      * Calculate the sum of the row as (Count * Unitprice) * (1 / iDiscount)
      *
@@ -0,0 +1,167 @@
+package se.swedsoft.bookkeeping.data.base;
+
+
+import se.swedsoft.bookkeeping.data.common.SSTaxCode;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+
+
+/**
+ * The net, tax and total sums of a sale, see {@link SSSale#getSums()}.
+ *
+ * The sums are computed once from the rows. The sale keeps them until its rows,
+ * the tax rates, the tax free flag or the rounding of the company change.
+ */
+public final class SSSaleSums {
+
+    private final BigDecimal iNetSum;
+
+    private final Map<SSTaxCode, BigDecimal> iTaxSum;
+
+    private final BigDecimal iTotalSum;
+
+    private final BigDecimal iRounding;
+
+    // What the sums were computed from
+    private final int iRowsStamp;
+
+    private final boolean iTaxFree;
+
+    private final BigDecimal iTaxRate1;
+
+    private final BigDecimal iTaxRate2;
+
+    private final BigDecimal iTaxRate3;
+
+    private final boolean iRoundingOff;
+
+    /**
+     *
+     * @param pSale
+     * @param pRowsStamp the stamp of the rows of the sale
+     * @param pRoundingOff true if the company does not round the total to whole kronor
+     */
+    SSSaleSums(SSSale pSale, int pRowsStamp, boolean pRoundingOff) {
+        iRowsStamp = pRowsStamp;
+        iTaxFree = pSale.getTaxFree();
+        iTaxRate1 = pSale.iTaxRate1;
+        iTaxRate2 = pSale.iTaxRate2;
+        iTaxRate3 = pSale.iTaxRate3;
+        iRoundingOff = pRoundingOff;
+
+        BigDecimal iNet = new BigDecimal(0);
+        Map<SSTaxCode, BigDecimal> iTax = new EnumMap<>(SSTaxCode.class);
+
+        iTax.put(SSTaxCode.TAXRATE_0, new BigDecimal(0));
+        iTax.put(SSTaxCode.TAXRATE_1, new BigDecimal(0));
+        iTax.put(SSTaxCode.TAXRATE_2, new BigDecimal(0));
+        iTax.put(SSTaxCode.TAXRATE_3, new BigDecimal(0));
+
+        BigDecimal iNormalizedRate1 = pSale.getNormalizedTaxRate1();
+        BigDecimal iNormalizedRate2 = pSale.getNormalizedTaxRate2();
+        BigDecimal iNormalizedRate3 = pSale.getNormalizedTaxRate3();
+
+        for (SSSaleRow iRow : pSale.getRows()) {
+            BigDecimal iRowSum = iRow.getSum().orElse(null);
+
+            if (iRowSum == null) {
+                continue;
+            }
+            iNet = iNet.add(iRowSum);
+
+            if (iTaxFree) {
+                continue;
+            }
+            SSTaxCode iRowTax = iRow.getTaxCode();
+
+            if (iRowTax == SSTaxCode.TAXRATE_1) {
+                iTax.put(iRowTax, iTax.get(iRowTax).add(iRowSum.multiply(iNormalizedRate1)));
+            }
+            if (iRowTax == SSTaxCode.TAXRATE_2) {
+                iTax.put(iRowTax, iTax.get(iRowTax).add(iRowSum.multiply(iNormalizedRate2)));
+            }
+            if (iRowTax == SSTaxCode.TAXRATE_3) {
+                iTax.put(iRowTax, iTax.get(iRowTax).add(iRowSum.multiply(iNormalizedRate3)));
+            }
+        }
+        BigDecimal iSum = iTaxFree
+                ? iNet
+                : iNet.add(iTax.get(SSTaxCode.TAXRATE_1)).add(iTax.get(SSTaxCode.TAXRATE_2)).add(iTax.get(SSTaxCode.TAXRATE_3));
+
+        iNetSum = iNet;
+        iTaxSum = Collections.unmodifiableMap(iTax);
+
+        if (pRoundingOff) {
+            iTotalSum = iSum;
+            iRounding = new BigDecimal(0);
+        } else {
+            iTotalSum = iSum.setScale(0, RoundingMode.HALF_UP);
+            iRounding = iTotalSum.subtract(iSum);
+        }
+    }
+
+    /**
+     *
+     * @param pSale
+     * @param pRowsStamp
+     * @param pRoundingOff
+     * @return true if the sums are still the sums of the sale
+     */
+    boolean isValidFor(SSSale pSale, int pRowsStamp, boolean pRoundingOff) {
+        return iRowsStamp == pRowsStamp
+                && iRoundingOff == pRoundingOff
+                && iTaxFree == pSale.getTaxFree()
+                && iTaxRate1 == pSale.iTaxRate1
+                && iTaxRate2 == pSale.iTaxRate2
+                && iTaxRate3 == pSale.iTaxRate3;
+    }
+
+    /**
+     *
+     * @return the sum of the rows
+     */
+    public BigDecimal getNetSum() {
+        return iNetSum;
+    }
+
+    /**
+     *
+     * @return the tax per tax code, all zero if tax free
+     */
+    public Map<SSTaxCode, BigDecimal> getTaxSum() {
+        return iTaxSum;
+    }
+
+    /**
+     *
+     * @return the net sum plus tax, rounded to whole kronor unless the company has rounding off
+     */
+    public BigDecimal getTotalSum() {
+        return iTotalSum;
+    }
+
+    /**
+     *
+     * @return the rounding of the total sum
+     */
+    public BigDecimal getRounding() {
+        return iRounding;
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder();
+
+        sb.append("se.swedsoft.bookkeeping.data.base.SSSaleSums");
+        sb.append("{iNetSum=").append(iNetSum);
+        sb.append(", iRounding=").append(iRounding);
+        sb.append(", iTaxSum=").append(iTaxSum);
+        sb.append(", iTotalSum=").append(iTotalSum);
+        sb.append('}');
+        return sb.toString();
+    }
+}
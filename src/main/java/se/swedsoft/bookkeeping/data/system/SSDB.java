@@ -8,6 +8,7 @@ import se.swedsoft.bookkeeping.calc.util.SSAutoIncrement;
 import se.swedsoft.bookkeeping.data.*;
 import se.swedsoft.bookkeeping.data.base.SSSaleRow;
 import se.swedsoft.bookkeeping.data.common.*;
+import se.swedsoft.bookkeeping.data.system.codec.SSEntityCodecs;
 import se.swedsoft.bookkeeping.gui.SSMainFrame;
 import se.swedsoft.bookkeeping.gui.autodist.SSAutoDistFrame;
 import se.swedsoft.bookkeeping.gui.creditinvoice.SSCreditInvoiceFrame;
@@ -39,9 +40,12 @@ import java.beans.PropertyChangeEvent;
 import java.beans.PropertyChangeListener;
 import java.io.*;
 import java.rmi.server.UID;
+import java.time.LocalDate;
 import java.sql.*;
 import java.util.*;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
 import se.swedsoft.bookkeeping.importexport.excel.SSAccountPlanImporter;
 import se.swedsoft.bookkeeping.importexport.util.SSImportException;
 import se.swedsoft.bookkeeping.util.SSUtil;
@@ -84,7 +88,7 @@ public class SSDB {    private static final Logger LOG = LoggerFactory.getLogger
     List<SSIndelivery> iIndeliveries;
     List<SSOutdelivery> iOutdeliveries;
 
-    List<SSVoucher> iVouchers;
+    volatile List<SSVoucher> iVouchers;
     List<SSOwnReport> iOwnReports;
 
     /**
@@ -103,11 +107,42 @@ public class SSDB {    private static final Logger LOG = LoggerFactory.getLogger
 
     Connection iConnection;
 
+    // Wraps iConnection and caches its prepared statements
+    SSDBConnection iDBConnection;
+
     // Listeners
     private Map<String, List<PropertyChangeListener>> iListenerMap;
 
+    // Load times from the last init
+    private Map<String, Long> iInitTimings = Collections.emptyMap();
+
+    // The vouchers of other years than the current
+    private final SSVoucherYearCache iYearVouchers;
+
+    // The open batch of each thread
+    private final ThreadLocal<SSDBBatch> iBatch = new ThreadLocal<>();
+
+    // The open batches of all threads, the triggers of the registers they write
+    // are theirs
+    private final Set<SSDBBatch> iOpenBatches = ConcurrentHashMap.newKeySet();
+
+    // The registers written on iDBConnection by each thread since its last commit
+    private final ThreadLocal<Set<String>> iWrittenTables = ThreadLocal.withInitial(HashSet::new);
+
+    // The triggers of the database, read when the first batch is started
+    private volatile Set<String> iTriggerNames;
+
+    // Changed whenever tbl_voucherrow may have changed, see SSLedgerCube
+    private volatile int iVoucherRowVersion;
+
+    // The months of tbl_accountmonth to compute again before the next commit,
+    // as year id and first day of the month
+    private final Set<List<Object>> iChangedMonths = new HashSet<>();
+
     private SSDB() {
         iListenerMap = new HashMap<>();
+        iYearVouchers = new SSVoucherYearCache();
+        iYearVouchers.listenForLowMemory();
     }
 
     /**
@@ -117,10 +152,12 @@ public class SSDB {    private static final Logger LOG = LoggerFactory.getLogger
      * @throws SQLException
      */
     public void startupLocal(Connection pConnection) throws SQLException {
-        iConnection = pConnection;
+        setConnection(pConnection);
         iConnection.setAutoCommit(false);
 
         createNewTables();
+        createAccountMonthTable();
+        createVoucherRowTable();
         // dropTriggers();
         createLocalTriggers();
         
@@ -135,7 +172,7 @@ public class SSDB {    private static final Logger LOG = LoggerFactory.getLogger
         PreparedStatement iStatement;
 
         if (iLastCompany != null) {
-            iStatement = iConnection.prepareStatement(
+            iStatement = iDBConnection.prepare(
                     "SELECT * FROM tbl_company WHERE id=?");
             iStatement.setObject(1, iLastCompany);
             iResultSet = iStatement.executeQuery();
@@ -149,7 +186,7 @@ public class SSDB {    private static final Logger LOG = LoggerFactory.getLogger
         }
 
         if (iLastYear != null && iCurrentCompany != null) {
-            iStatement = iConnection.prepareStatement(
+            iStatement = iDBConnection.prepare(
                     "SELECT * FROM tbl_accountingyear WHERE id=?");
             iStatement.setObject(1, iLastYear);
             iResultSet = iStatement.executeQuery();
@@ -172,79 +209,18 @@ public class SSDB {    private static final Logger LOG = LoggerFactory.getLogger
 
         if (iShowDialog) {
             SSInitDialog.runProgress(SSMainFrame.getInstance(), "Läser in data",
-                    () -> {
-
-                            getProducts();
-                            getCustomers();
-                            getSuppliers();
-                            getAutoDists();
-
-                            getInpayments();
-                            getTenders();
-                            getOrders();
-                            getInvoices();
-                            getCreditInvoices();
-                            getPeriodicInvoices();
-
-                            getOutpayments();
-                            getPurchaseOrders();
-                            getSupplierInvoices();
-                            getSupplierCreditInvoices();
-
-                            getInventories();
-                            getIndeliveries();
-                            getOutdeliveries();
-
-                            getOwnReports();
-
-                            SSInvoiceMath.iSaldoMap = null;
-                            SSInvoiceMath.calculateSaldos();
-                            SSCustomerMath.iInvoicesForCustomers = null;
-                            SSCustomerMath.getInvoicesForCustomers();
-                            SSSupplierInvoiceMath.iSaldoMap = null;
-                            SSSupplierInvoiceMath.calculateSaldos();
-                            SSSupplierMath.iInvoicesForSuppliers = null;
-                            SSSupplierMath.getInvoicesForSuppliers();
-                            // SSOrderMath.setInvoiceForOrders();
-                            initYear(false);
-
-                        });
+                    (SSInitDialog pDialog) -> iInitTimings = new SSDBStartupLoader(this).run(pDialog::setMessage));
         } else {
-            getProducts();
-            getCustomers();
-            getSuppliers();
-            getAutoDists();
-
-            getInpayments();
-            getTenders();
-            getOrders();
-            getInvoices();
-            getCreditInvoices();
-            getPeriodicInvoices();
-
-            getOutpayments();
-            getPurchaseOrders();
-            getSupplierInvoices();
-            getSupplierCreditInvoices();
-
-            getInventories();
-            getIndeliveries();
-            getOutdeliveries();
-
-            getOwnReports();
-
-            SSInvoiceMath.iSaldoMap = null;
-            SSInvoiceMath.calculateSaldos();
-            SSCustomerMath.iInvoicesForCustomers = null;
-            SSCustomerMath.getInvoicesForCustomers();
-            SSSupplierInvoiceMath.iSaldoMap = null;
-            SSSupplierInvoiceMath.calculateSaldos();
-            SSSupplierMath.iInvoicesForSuppliers = null;
-            SSSupplierMath.getInvoicesForSuppliers();
-            // SSOrderMath.setInvoiceForOrders();
-            initYear(false);
+            iInitTimings = new SSDBStartupLoader(this).run(null);
         }
+    }
 
+    /**
+     *
+     * @return the time in milliseconds to load each register the last time a company was opened
+     */
+    public Map<String, Long> getInitTimings() {
+        return iInitTimings;
     }
 
     public void initYear(boolean iShowLoadingDialog) {
@@ -264,6 +240,49 @@ public class SSDB {    private static final Logger LOG = LoggerFactory.getLogger
 
     }
 
+    /**
+     * Sets the connection to use and starts a new statement cache for it.
+     *
+     * @param pConnection
+     */
+    private void setConnection(Connection pConnection) {
+        if (iDBConnection != null) {
+            iDBConnection.clear();
+        }
+        iConnection = pConnection;
+        iDBConnection = new SSDBConnection(pConnection) {
+            @Override
+            protected void prepared(String pSql) {
+                String iTriggerName = getTriggerName(pSql);
+
+                if (iTriggerName != null) {
+                    iWrittenTables.get().add(SSDBBatch.getRegister(iTriggerName));
+                }
+            }
+        };
+        iTriggerNames = null;
+    }
+
+    /**
+     *
+     * @return the connection of the open batch of this thread, or the shared connection
+     */
+    private SSDBConnection getDBConnection() {
+        SSDBBatch iOwnBatch = iBatch.get();
+
+        return iOwnBatch != null && iOwnBatch.getConnection() != null
+                ? iOwnBatch.getConnection()
+                : iDBConnection;
+    }
+
+    /**
+     *
+     * @return the hit and miss counts of the prepared statement cache, or null if there is no connection
+     */
+    public SSDBConnection.SSStatistics getStatementStatistics() {
+        return iDBConnection == null ? null : iDBConnection.getStatistics();
+    }
+
     public void shutdown() {
         try {
             if (!iConnection.isClosed()) {
@@ -271,7 +290,7 @@ public class SSDB {    private static final Logger LOG = LoggerFactory.getLogger
 
                 iStatement.executeQuery("SHUTDOWN");
                 iStatement.close();
-                iConnection.close();
+                iDBConnection.close();
             }
         } catch (SQLException e) {
             LOG.error("Unexpected error", e);
@@ -284,7 +303,7 @@ public class SSDB {    private static final Logger LOG = LoggerFactory.getLogger
 
             iStatement.executeQuery("SHUTDOWN COMPACT");
             iStatement.close();
-            iConnection.close();
+            iDBConnection.close();
         } catch (SQLException e) {
             LOG.error("Unexpected error", e);
         }
@@ -292,8 +311,8 @@ public class SSDB {    private static final Logger LOG = LoggerFactory.getLogger
 
     public void loadLocalDatabase() {
         try {
-            if (iConnection != null) {
-                iConnection.close();
+            if (iDBConnection != null) {
+                iDBConnection.close();
             }
         } catch (SQLException e) {
             LOG.error("Unexpected error", e);
@@ -308,10 +327,12 @@ public class SSDB {    private static final Logger LOG = LoggerFactory.getLogger
 
         try {
             File dbDir = new File(Path.get(Path.USER_DATA), "db");
-            iConnection = DriverManager.getConnection(
-                    "jdbc:hsqldb:file:" + dbDir.getAbsolutePath() + File.separator + "JFSDB", "sa", "");
+            setConnection(DriverManager.getConnection(
+                    "jdbc:hsqldb:file:" + dbDir.getAbsolutePath() + File.separator + "JFSDB", "sa", ""));
             iConnection.setAutoCommit(false);
             createNewTables();
+            createAccountMonthTable();
+            createVoucherRowTable();
             dropTriggers();
             createLocalTriggers();
 
@@ -340,7 +361,7 @@ public class SSDB {    private static final Logger LOG = LoggerFactory.getLogger
             String q = SSUtil.readResourceToString("sql/example.sql");
 
             iStatement.executeUpdate(q);
-            iConnection.commit();
+            commit();
             iStatement.close();
         } catch (SQLException e) {
             LOG.error("Unexpected error", e);
@@ -402,11 +423,11 @@ public class SSDB {    private static final Logger LOG = LoggerFactory.getLogger
 
             iStatement.executeUpdate();
             iStatement.close();
-            iConnection.close();
+            iDBConnection.close();
         } catch (SQLException e) {
             LOG.error("Unexpected error", e);
             try {
-                iConnection.rollback();
+                rollback();
             } catch (SQLException ignored) {}
             SSErrorDialog.showDialog(SSMainFrame.getInstance(), "SQL Error",
                     e.getMessage());
@@ -456,10 +477,12 @@ public class SSDB {    private static final Logger LOG = LoggerFactory.getLogger
         iIndeliveries = null;
         iOutdeliveries = null;
         iOwnReports = null;
+        SSStockMath.reset();
     }
 
     public void setCurrentCompany(SSNewCompany iCompany) {
         iCurrentCompany = getCompany(iCompany).orElse(null);
+        iYearVouchers.clear();
         iProducts = null;
         iCustomers = null;
         iSuppliers = null;
@@ -478,6 +501,7 @@ public class SSDB {    private static final Logger LOG = LoggerFactory.getLogger
         iIndeliveries = null;
         iOutdeliveries = null;
         iOwnReports = null;
+        SSStockMath.reset();
         notifyListeners("COMPANY", iCurrentCompany, null);
     }
 
@@ -489,6 +513,9 @@ public class SSDB {    private static final Logger LOG = LoggerFactory.getLogger
     public void setCurrentYear(SSNewAccountingYear iYear) {
         iCurrentYear = iYear;
         iVouchers = null;
+        if (iYear != null) {
+            iYearVouchers.remove(iYear.getId());
+        }
         notifyListeners("YEAR", iCurrentYear, null);
     }
 
@@ -506,7 +533,7 @@ public class SSDB {    private static final Logger LOG = LoggerFactory.getLogger
                 return iCompanies;
             }
 
-            PreparedStatement iStatement = iConnection.prepareStatement(
+            PreparedStatement iStatement = getDBConnection().prepare(
                     "SELECT * FROM tbl_company");
             ResultSet iResultSet = iStatement.executeQuery();
 
@@ -518,7 +545,7 @@ public class SSDB {    private static final Logger LOG = LoggerFactory.getLogger
         } catch (SQLException e) {
             LOG.error("Unexpected error", e);
             try {
-                iConnection.rollback();
+                rollback();
             } catch (SQLException ignored) {}
             SSErrorDialog.showDialog(SSMainFrame.getInstance(), "SQL Error",
                     e.getMessage());
@@ -532,7 +559,7 @@ public class SSDB {    private static final Logger LOG = LoggerFactory.getLogger
                 return Optional.empty();
             }
 
-            PreparedStatement iStatement = iConnection.prepareStatement(
+            PreparedStatement iStatement = getDBConnection().prepare(
                     "SELECT * FROM tbl_company WHERE id=?");
 
             iStatement.setObject(1, pCompany.getId());
@@ -550,7 +577,7 @@ public class SSDB {    private static final Logger LOG = LoggerFactory.getLogger
         } catch (SQLException e) {
             LOG.error("Unexpected error", e);
             try {
-                iConnection.rollback();
+                rollback();
             } catch (SQLException ignored) {}
             SSErrorDialog.showDialog(SSMainFrame.getInstance(), "SQL Error",
                     e.getMessage());
@@ -563,15 +590,15 @@ public class SSDB {    private static final Logger LOG = LoggerFactory.getLogger
             return;
         }
         try {
-            PreparedStatement iStatement = iConnection.prepareStatement(
+            PreparedStatement iStatement = getDBConnection().prepare(
                     "INSERT INTO tbl_company VALUES(NULL,?)");
 
             iStatement.setObject(1, iCompany);
             iStatement.executeUpdate();
-            iConnection.commit();
+            commit();
             iStatement.close();
 
-            iStatement = iConnection.prepareStatement("SELECT * FROM tbl_company");
+            iStatement = getDBConnection().prepare("SELECT * FROM tbl_company");
             ResultSet iResultSet = iStatement.executeQuery();
             Integer iId = -1;
 
@@ -589,17 +616,17 @@ public class SSDB {    private static final Logger LOG = LoggerFactory.getLogger
             } catch (InterruptedException e) {
                 LOG.error("Unexpected error", e);
             }
-            iStatement = iConnection.prepareStatement(
+            iStatement = getDBConnection().prepare(
                     "UPDATE tbl_company SET company=? WHERE id=?");
             iStatement.setObject(1, iCompany);
             iStatement.setObject(2, iCompany.getId());
             iStatement.executeUpdate();
-            iConnection.commit();
+            commit();
             iStatement.close();
         } catch (SQLException e) {
             LOG.error("Unexpected error", e);
             try {
-                iConnection.rollback();
+                rollback();
             } catch (SQLException ignored) {}
             SSErrorDialog.showDialog(SSMainFrame.getInstance(), "SQL Error",
                     e.getMessage());
@@ -608,13 +635,13 @@ public class SSDB {    private static final Logger LOG = LoggerFactory.getLogger
 
     public void updateCompany(SSNewCompany iCompany) {
         try {
-            PreparedStatement iStatement = iConnection.prepareStatement(
+            PreparedStatement iStatement = getDBConnection().prepare(
                     "UPDATE tbl_company SET company=? WHERE id=?");
 
             iStatement.setObject(1, iCompany);
             iStatement.setObject(2, iCompany.getId());
             iStatement.executeUpdate();
-            iConnection.commit();
+            commit();
             iStatement.close();
 
             notifyListeners("COMPANY", iCompany, null);
@@ -622,7 +649,7 @@ public class SSDB {    private static final Logger LOG = LoggerFactory.getLogger
         } catch (SQLException e) {
             LOG.error("Unexpected error", e);
             try {
-                iConnection.rollback();
+                rollback();
             } catch (SQLException ignored) {}
             SSErrorDialog.showDialog(SSMainFrame.getInstance(), "SQL Error",
                     e.getMessage());
@@ -631,168 +658,168 @@ public class SSDB {    private static final Logger LOG = LoggerFactory.getLogger
 
     public void deleteCompany(SSNewCompany iCompany) {
         try {
-            PreparedStatement iStatement = iConnection.prepareStatement(
+            PreparedStatement iStatement = getDBConnection().prepare(
                     "DELETE FROM tbl_project WHERE companyid=?");
 
             iStatement.setObject(1, iCompany.getId());
             iStatement.executeUpdate();
-            iConnection.commit();
+            commit();
             iStatement.close();
 
-            iStatement = iConnection.prepareStatement(
+            iStatement = getDBConnection().prepare(
                     "DELETE FROM tbl_resultunit WHERE companyid=?");
             iStatement.setObject(1, iCompany.getId());
             iStatement.executeUpdate();
-            iConnection.commit();
+            commit();
             iStatement.close();
 
-            iStatement = iConnection.prepareStatement(
+            iStatement = getDBConnection().prepare(
                     "DELETE FROM tbl_product WHERE companyid=?");
             iStatement.setObject(1, iCompany.getId());
             iStatement.executeUpdate();
-            iConnection.commit();
+            commit();
             iStatement.close();
 
-            iStatement = iConnection.prepareStatement(
+            iStatement = getDBConnection().prepare(
                     "DELETE FROM tbl_customer WHERE companyid=?");
             iStatement.setObject(1, iCompany.getId());
             iStatement.executeUpdate();
-            iConnection.commit();
+            commit();
             iStatement.close();
 
-            iStatement = iConnection.prepareStatement(
+            iStatement = getDBConnection().prepare(
                     "DELETE FROM tbl_supplier WHERE companyid=?");
             iStatement.setObject(1, iCompany.getId());
             iStatement.executeUpdate();
-            iConnection.commit();
+            commit();
             iStatement.close();
 
-            iStatement = iConnection.prepareStatement(
+            iStatement = getDBConnection().prepare(
                     "DELETE FROM tbl_vouchertemplate WHERE companyid=?");
             iStatement.setObject(1, iCompany.getId());
             iStatement.executeUpdate();
-            iConnection.commit();
+            commit();
             iStatement.close();
 
-            iStatement = iConnection.prepareStatement(
+            iStatement = getDBConnection().prepare(
                     "DELETE FROM tbl_autodist WHERE companyid=?");
             iStatement.setObject(1, iCompany.getId());
             iStatement.executeUpdate();
-            iConnection.commit();
+            commit();
             iStatement.close();
 
-            iStatement = iConnection.prepareStatement(
+            iStatement = getDBConnection().prepare(
                     "DELETE FROM tbl_inpayment WHERE companyid=?");
             iStatement.setObject(1, iCompany.getId());
             iStatement.executeUpdate();
-            iConnection.commit();
+            commit();
             iStatement.close();
 
-            iStatement = iConnection.prepareStatement(
+            iStatement = getDBConnection().prepare(
                     "DELETE FROM tbl_tender WHERE companyid=?");
             iStatement.setObject(1, iCompany.getId());
             iStatement.executeUpdate();
-            iConnection.commit();
+            commit();
             iStatement.close();
 
-            iStatement = iConnection.prepareStatement(
+            iStatement = getDBConnection().prepare(
                     "DELETE FROM tbl_order WHERE companyid=?");
             iStatement.setObject(1, iCompany.getId());
             iStatement.executeUpdate();
-            iConnection.commit();
+            commit();
             iStatement.close();
 
-            iStatement = iConnection.prepareStatement(
+            iStatement = getDBConnection().prepare(
                     "DELETE FROM tbl_invoice WHERE companyid=?");
             iStatement.setObject(1, iCompany.getId());
             iStatement.executeUpdate();
-            iConnection.commit();
+            commit();
             iStatement.close();
 
-            iStatement = iConnection.prepareStatement(
+            iStatement = getDBConnection().prepare(
                     "DELETE FROM tbl_creditinvoice WHERE companyid=?");
             iStatement.setObject(1, iCompany.getId());
             iStatement.executeUpdate();
-            iConnection.commit();
+            commit();
             iStatement.close();
 
-            iStatement = iConnection.prepareStatement(
+            iStatement = getDBConnection().prepare(
                     "DELETE FROM tbl_periodicinvoice WHERE companyid=?");
             iStatement.setObject(1, iCompany.getId());
             iStatement.executeUpdate();
-            iConnection.commit();
+            commit();
             iStatement.close();
 
-            iStatement = iConnection.prepareStatement(
+            iStatement = getDBConnection().prepare(
                     "DELETE FROM tbl_outpayment WHERE companyid=?");
             iStatement.setObject(1, iCompany.getId());
             iStatement.executeUpdate();
-            iConnection.commit();
+            commit();
             iStatement.close();
 
-            iStatement = iConnection.prepareStatement(
+            iStatement = getDBConnection().prepare(
                     "DELETE FROM tbl_purchaseorder WHERE companyid=?");
             iStatement.setObject(1, iCompany.getId());
             iStatement.executeUpdate();
-            iConnection.commit();
+            commit();
             iStatement.close();
 
-            iStatement = iConnection.prepareStatement(
+            iStatement = getDBConnection().prepare(
                     "DELETE FROM tbl_supplierinvoice WHERE companyid=?");
             iStatement.setObject(1, iCompany.getId());
             iStatement.executeUpdate();
-            iConnection.commit();
+            commit();
             iStatement.close();
 
-            iStatement = iConnection.prepareStatement(
+            iStatement = getDBConnection().prepare(
                     "DELETE FROM tbl_suppliercreditinvoice WHERE companyid=?");
             iStatement.setObject(1, iCompany.getId());
             iStatement.executeUpdate();
-            iConnection.commit();
+            commit();
             iStatement.close();
 
-            iStatement = iConnection.prepareStatement(
+            iStatement = getDBConnection().prepare(
                     "DELETE FROM tbl_inventory WHERE companyid=?");
             iStatement.setObject(1, iCompany.getId());
             iStatement.executeUpdate();
-            iConnection.commit();
+            commit();
             iStatement.close();
 
-            iStatement = iConnection.prepareStatement(
+            iStatement = getDBConnection().prepare(
                     "DELETE FROM tbl_indelivery WHERE companyid=?");
             iStatement.setObject(1, iCompany.getId());
             iStatement.executeUpdate();
-            iConnection.commit();
+            commit();
             iStatement.close();
 
-            iStatement = iConnection.prepareStatement(
+            iStatement = getDBConnection().prepare(
                     "DELETE FROM tbl_outdelivery WHERE companyid=?");
             iStatement.setObject(1, iCompany.getId());
             iStatement.executeUpdate();
-            iConnection.commit();
+            commit();
             iStatement.close();
 
-            iStatement = iConnection.prepareStatement(
+            iStatement = getDBConnection().prepare(
                     "DELETE FROM tbl_ownreport WHERE companyid=?");
             iStatement.setObject(1, iCompany.getId());
             iStatement.executeUpdate();
-            iConnection.commit();
+            commit();
             iStatement.close();
 
             for (SSNewAccountingYear iYear : getYearsForCompany(iCompany)) {
                 deleteAccountingYear(iYear);
             }
 
-            iStatement = iConnection.prepareStatement("DELETE FROM tbl_company WHERE id=?");
+            iStatement = getDBConnection().prepare("DELETE FROM tbl_company WHERE id=?");
             iStatement.setObject(1, iCompany.getId());
             iStatement.executeUpdate();
-            iConnection.commit();
+            commit();
             iStatement.close();
 
         } catch (SQLException e) {
             LOG.error("Unexpected error", e);
             try {
-                iConnection.rollback();
+                rollback();
             } catch (SQLException ignored) {}
             SSErrorDialog.showDialog(SSMainFrame.getInstance(), "SQL Error",
                     e.getMessage());
@@ -804,7 +831,7 @@ public class SSDB {    private static final Logger LOG = LoggerFactory.getLogger
 
         if (iCurrentCompany != null) {
             try {
-                PreparedStatement iStatement = iConnection.prepareStatement(
+                PreparedStatement iStatement = getDBConnection().prepare(
                         "SELECT * FROM tbl_accountingyear WHERE companyid=?");
 
                 iStatement.setObject(1, iCurrentCompany.getId());
@@ -819,7 +846,7 @@ public class SSDB {    private static final Logger LOG = LoggerFactory.getLogger
             } catch (SQLException e) {
                 LOG.error("Unexpected error", e);
                 try {
-                    iConnection.rollback();
+                    rollback();
                 } catch (SQLException ignored) {}
                 SSErrorDialog.showDialog(SSMainFrame.getInstance(), "SQL Error",
                         e.getMessage());
@@ -833,7 +860,7 @@ public class SSDB {    private static final Logger LOG = LoggerFactory.getLogger
 
         if (iCompany != null) {
             try {
-                PreparedStatement iStatement = iConnection.prepareStatement(
+                PreparedStatement iStatement = getDBConnection().prepare(
                         "SELECT * FROM tbl_accountingyear WHERE companyid=?");
 
                 iStatement.setObject(1, iCompany.getId());
@@ -848,7 +875,7 @@ public class SSDB {    private static final Logger LOG = LoggerFactory.getLogger
             } catch (SQLException e) {
                 LOG.error("Unexpected error", e);
                 try {
-                    iConnection.rollback();
+                    rollback();
                 } catch (SQLException ignored) {}
                 SSErrorDialog.showDialog(SSMainFrame.getInstance(), "SQL Error",
                         e.getMessage());
@@ -863,7 +890,7 @@ public class SSDB {    private static final Logger LOG = LoggerFactory.getLogger
                 return Optional.empty();
             }
 
-            PreparedStatement iStatement = iConnection.prepareStatement(
+            PreparedStatement iStatement = getDBConnection().prepare(
                     "SELECT * FROM tbl_accountingyear WHERE id=?");
 
             iStatement.setObject(1, pAccountingYear.getId());
@@ -882,7 +909,7 @@ public class SSDB {    private static final Logger LOG = LoggerFactory.getLogger
         } catch (SQLException e) {
             LOG.error("Unexpected error", e);
             try {
-                iConnection.rollback();
+                rollback();
             } catch (SQLException ignored) {}
             SSErrorDialog.showDialog(SSMainFrame.getInstance(), "SQL Error",
                     e.getMessage());
@@ -898,16 +925,16 @@ public class SSDB {    private static final Logger LOG = LoggerFactory.getLogger
             return;
         }
         try {
-            PreparedStatement iStatement = iConnection.prepareStatement(
+            PreparedStatement iStatement = getDBConnection().prepare(
                     "INSERT INTO tbl_accountingyear VALUES(NULL,?,?)");
 
             iStatement.setObject(1, iAccountingYear);
             iStatement.setObject(2, iCurrentCompany.getId());
             iStatement.executeUpdate();
-            iConnection.commit();
+            commit();
             iStatement.close();
 
-            iStatement = iConnection.prepareStatement("SELECT * FROM tbl_accountingyear");
+            iStatement = getDBConnection().prepare("SELECT * FROM tbl_accountingyear");
             ResultSet iResultSet = iStatement.executeQuery();
             Integer iId = -1;
 
@@ -919,19 +946,19 @@ public class SSDB {    private static final Logger LOG = LoggerFactory.getLogger
             iAccountingYear.setId(iId);
             iStatement.close();
 
-            iStatement = iConnection.prepareStatement(
+            iStatement = getDBConnection().prepare(
                     "UPDATE tbl_accountingyear SET accountingyear=? WHERE id=?");
             iStatement.setObject(1, iAccountingYear);
             iStatement.setObject(2, iAccountingYear.getId());
             iStatement.executeUpdate();
-            iConnection.commit();
+            commit();
 
             iResultSet.close();
             iStatement.close();
         } catch (SQLException e) {
             LOG.error("Unexpected error", e);
             try {
-                iConnection.rollback();
+                rollback();
             } catch (SQLException ignored) {}
             SSErrorDialog.showDialog(SSMainFrame.getInstance(), "SQL Error",
                     e.getMessage());
@@ -943,13 +970,13 @@ public class SSDB {    private static final Logger LOG = LoggerFactory.getLogger
             return;
         }
         try {
-            PreparedStatement iStatement = iConnection.prepareStatement(
+            PreparedStatement iStatement = getDBConnection().prepare(
                     "UPDATE tbl_accountingyear SET accountingyear=? WHERE id=?");
 
             iStatement.setObject(1, iAccountingYear);
             iStatement.setObject(2, iAccountingYear.getId());
             iStatement.executeUpdate();
-            iConnection.commit();
+            commit();
             iStatement.close();
 
             if (iAccountingYear.equals(iCurrentYear)) {
@@ -960,7 +987,7 @@ public class SSDB {    private static final Logger LOG = LoggerFactory.getLogger
         } catch (SQLException e) {
             LOG.error("Unexpected error", e);
             try {
-                iConnection.rollback();
+                rollback();
             } catch (SQLException ignored) {}
             SSErrorDialog.showDialog(SSMainFrame.getInstance(), "SQL Error",
                     e.getMessage());
@@ -971,26 +998,42 @@ public class SSDB {    private static final Logger LOG = LoggerFactory.getLogger
         if (iAccountingYear == null) {
             return;
         }
+        iYearVouchers.remove(iAccountingYear.getId());
+        iVoucherRowVersion++;
         try {
-            PreparedStatement iStatement = iConnection.prepareStatement(
+            PreparedStatement iStatement = getDBConnection().prepare(
+                    "DELETE FROM tbl_voucherrow WHERE yearid=?");
+
+            iStatement.setObject(1, iAccountingYear.getId());
+            iStatement.executeUpdate();
+            iStatement.close();
+
+            iStatement = getDBConnection().prepare(
+                    "DELETE FROM tbl_accountmonth WHERE yearid=?");
+
+            iStatement.setObject(1, iAccountingYear.getId());
+            iStatement.executeUpdate();
+            iStatement.close();
+
+            iStatement = getDBConnection().prepare(
                     "DELETE FROM tbl_voucher WHERE yearid=?");
 
             iStatement.setObject(1, iAccountingYear.getId());
             iStatement.executeUpdate();
-            iConnection.commit();
+            commit();
             iStatement.close();
 
-            iStatement = iConnection.prepareStatement(
+            iStatement = getDBConnection().prepare(
                     "DELETE FROM tbl_accountingyear WHERE id=?");
             iStatement.setObject(1, iAccountingYear.getId());
             iStatement.executeUpdate();
-            iConnection.commit();
+            commit();
             iStatement.close();
 
         } catch (SQLException e) {
             LOG.error("Unexpected error", e);
             try {
-                iConnection.rollback();
+                rollback();
             } catch (SQLException ignored) {}
             SSErrorDialog.showDialog(SSMainFrame.getInstance(), "SQL Error",
                     e.getMessage());
@@ -1023,7 +1066,7 @@ public class SSDB {    private static final Logger LOG = LoggerFactory.getLogger
 
         if (iCurrentCompany != null) {
             try {
-                PreparedStatement iStatement = iConnection.prepareStatement(
+                PreparedStatement iStatement = getDBConnection().prepare(
                         "SELECT * FROM tbl_accountingyear WHERE companyid=?");
 
                 iStatement.setObject(1, iCurrentCompany.getId());
@@ -1055,7 +1098,7 @@ public class SSDB {    private static final Logger LOG = LoggerFactory.getLogger
             } catch (SQLException e) {
                 LOG.error("Unexpected error", e);
                 try {
-                    iConnection.rollback();
+                    rollback();
                 } catch (SQLException ignored) {}
                 SSErrorDialog.showDialog(SSMainFrame.getInstance(), "SQL Error",
                         e.getMessage());
@@ -1113,91 +1156,86 @@ public class SSDB {    private static final Logger LOG = LoggerFactory.getLogger
     }
 
     public List<SSVoucher> getVouchers() {
-        if (iVouchers != null) {
-            return iVouchers;
+        List<SSVoucher> iList = iVouchers;
+
+        if (iList != null) {
+            return iList;
         }
-        iVouchers = new LinkedList<>();
+        iList = new LinkedList<>();
         if (iCurrentYear == null) {
-            return iVouchers;
+            iVouchers = iList;
+            return iList;
         }
         try {
-            Integer iMax = -1;
-            ResultSet iResultSet;
-            PreparedStatement iStatement;
-
-            while (true) {
-                iStatement = iConnection.prepareStatement(
-                        "SELECT * FROM tbl_voucher WHERE yearid=? AND id>?");
-                iStatement.setObject(1, iCurrentYear.getId());
-                iStatement.setObject(2, iMax);
-                iStatement.setMaxRows(1024);
-
-                iResultSet = iStatement.executeQuery();
-                int i = 0;
-
-                while (iResultSet.next()) {
-                    iMax = iResultSet.getInt(1);
-                    iVouchers.add((SSVoucher) iResultSet.getObject(3));
-                    i++;
-                }
-                if (i != 1024) {
-                    break;
-                }
-            }
-            iResultSet.close();
-            iStatement.close();
+            SSDBBulkReader.forEach(getDBConnection(),
+                    "SELECT * FROM tbl_voucher WHERE yearid=? AND id>? ORDER BY id", iCurrentYear.getId(),
+                    iResultSet -> SSEntityCodecs.decode(iResultSet.getObject(3), SSVoucher.class), iList::add);
         } catch (SQLException e) {
             LOG.error("Unexpected error", e);
             try {
-                iConnection.rollback();
+                rollback();
             } catch (SQLException ignored) {}
             SSErrorDialog.showDialog(SSMainFrame.getInstance(), "SQL Error",
                     e.getMessage());
         }
-        return iVouchers;
+        // Published only when filled, so no caller sees a partially read list
+        iVouchers = iList;
+
+        return iList;
     }
 
+    /**
+     * Returns the vouchers of an accounting year.
+     *
+     * The current year is served from the loaded voucher list, other years from a
+     * small cache of recently used years. The returned list is a copy and can be
+     * changed by the caller.
+     *
+     * @param iAccountingYear
+     * @return the vouchers of the year
+     */
     public List<SSVoucher> getVouchers(SSNewAccountingYear iAccountingYear) {
-        List<SSVoucher> iVoucherList = new LinkedList<>();
-
         if (iAccountingYear == null) {
-            return iVoucherList;
+            return new LinkedList<>();
         }
-        try {
-            Integer iMax = -1;
-            ResultSet iResultSet;
-            PreparedStatement iStatement;
+        if (iCurrentYear != null && Objects.equals(iCurrentYear.getId(), iAccountingYear.getId())) {
+            return new LinkedList<>(getVouchers());
+        }
+        List<SSVoucher> iVoucherList = iYearVouchers.get(iAccountingYear.getId());
 
-            while (true) {
-                iStatement = iConnection.prepareStatement(
-                        "SELECT * FROM tbl_voucher WHERE yearid=? AND id>?");
-                iStatement.setObject(1, iAccountingYear.getId());
-                iStatement.setObject(2, iMax);
-                iStatement.setMaxRows(1024);
+        if (iVoucherList == null) {
+            iVoucherList = new ArrayList<>();
 
-                iResultSet = iStatement.executeQuery();
-                int i = 0;
+            forEachVoucher(iAccountingYear, iVoucherList::add);
 
-                while (iResultSet.next()) {
-                    iMax = iResultSet.getInt(1);
-                    iVoucherList.add((SSVoucher) iResultSet.getObject(3));
-                    i++;
-                }
-                if (i != 1024) {
-                    break;
-                }
-            }
-            iResultSet.close();
-            iStatement.close();
+            iYearVouchers.put(iAccountingYear.getId(), iVoucherList);
+        }
+        return new LinkedList<>(iVoucherList);
+    }
+
+    /**
+     * Streams the vouchers of an accounting year to the consumer, page by page,
+     * without collecting them in a list first.
+     *
+     * @param pAccountingYear
+     * @param pConsumer
+     */
+    public void forEachVoucher(SSNewAccountingYear pAccountingYear, Consumer<SSVoucher> pConsumer) {
+        if (pAccountingYear == null) {
+            return;
+        }
+        try {
+            SSDBBulkReader.forEach(getDBConnection(),
+                    "SELECT * FROM tbl_voucher WHERE yearid=? AND id>? ORDER BY id", pAccountingYear.getId(),
+                    iResultSet -> SSEntityCodecs.decode(iResultSet.getObject(3), SSVoucher.class), pConsumer);
         } catch (SQLException e) {
             LOG.error("Unexpected error", e);
             try {
-                iConnection.rollback();
+                rollback();
             } catch (SQLException ignored) {}
             SSErrorDialog.showDialog(SSMainFrame.getInstance(), "SQL Error",
                     e.getMessage());
         }
-        return iVoucherList;
     }
 
     public Optional<SSVoucher> getVoucher(SSVoucher pVoucher) {
@@ -1205,26 +1243,20 @@ public class SSDB {    private static final Logger LOG = LoggerFactory.getLogger
             return Optional.empty();
         }
 
-        try {
-            PreparedStatement iStatement = iConnection.prepareStatement(
-                    "SELECT * FROM tbl_voucher WHERE number=? AND yearid=?");
-
+        try (PreparedStatement iStatement = getDBConnection().prepare(
+                "SELECT * FROM tbl_voucher WHERE number=? AND yearid=?")) {
             iStatement.setObject(1, pVoucher.getNumber());
             iStatement.setObject(2, iCurrentYear.getId());
-            ResultSet iResultSet = iStatement.executeQuery();
-
-            if (iResultSet.next()) {
-                SSVoucher iVoucher = (SSVoucher) iResultSet.getObject(3);
 
-                iStatement.close();
-                return Optional.of(iVoucher);
+            try (ResultSet iResultSet = iStatement.executeQuery()) {
+                if (iResultSet.next()) {
+                    return Optional.of(SSEntityCodecs.decode(iResultSet.getObject(3), SSVoucher.class));
+                }
             }
-            iResultSet.close();
-            iStatement.close();
         } catch (SQLException e) {
             LOG.error("Unexpected error", e);
             try {
-                iConnection.rollback();
+                rollback();
             } catch (SQLException ignored) {}
             SSErrorDialog.showDialog(SSMainFrame.getInstance(), "SQL Error",
                     e.getMessage());
@@ -1239,25 +1271,15 @@ public class SSDB {    private static final Logger LOG = LoggerFactory.getLogger
         List<SSVoucher> iVouchers = new LinkedList<>();
 
         try {
-            for (SSVoucher iVoucher : pVouchers) {
-                PreparedStatement iStatement = iConnection.prepareStatement(
-                        "SELECT * FROM tbl_voucher WHERE number=? AND yearid=?");
-
-                iStatement.setObject(1, iVoucher.getNumber());
-                iStatement.setObject(2, iCurrentYear.getId());
-                ResultSet iResultSet = iStatement.executeQuery();
-
-                if (iResultSet.next()) {
-                    iVouchers.add((SSVoucher) iResultSet.getObject("voucher"));
-                }
-                iStatement.close();
-            }
+            iVouchers.addAll(SSDBBulkReader.readIn(getDBConnection(),
+                    "SELECT * FROM tbl_voucher WHERE number IN (%s) AND yearid=?", pVouchers, SSVoucher::getNumber, iCurrentYear.getId(),
+                    iResultSet -> SSEntityCodecs.decode(iResultSet.getObject("voucher"), SSVoucher.class)));
 
             return iVouchers;
         } catch (SQLException e) {
             LOG.error("Unexpected error", e);
             try {
-                iConnection.rollback();
+                rollback();
             } catch (SQLException ignored) {}
             SSErrorDialog.showDialog(SSMainFrame.getInstance(), "SQL Error",
                     e.getMessage());
@@ -1273,7 +1295,7 @@ public class SSDB {    private static final Logger LOG = LoggerFactory.getLogger
             PreparedStatement iStatement;
 
             if (!iHasNumber) {
-                iStatement = iConnection.prepareStatement(
+                iStatement = getDBConnection().prepare(
                         "SELECT MAX(number) AS maxnum FROM tbl_voucher WHERE yearid=?");
                 iStatement.setObject(1, iCurrentYear.getId());
                 ResultSet iResultSet = iStatement.executeQuery();
@@ -1289,18 +1311,20 @@ public class SSDB {    private static final Logger LOG = LoggerFactory.getLogger
                 iStatement.close();
             }
 
-            iStatement = iConnection.prepareStatement(
+            iStatement = getDBConnection().prepare(
                     "INSERT INTO tbl_voucher VALUES(NULL,?,?,?)");
             iStatement.setObject(1, iVoucher.getNumber());
-            iStatement.setObject(2, iVoucher);
+            iStatement.setObject(2, SSEntityCodecs.encode(iVoucher));
             iStatement.setObject(3, iCurrentYear.getId());
             iStatement.executeUpdate();
-            iConnection.commit();
             iStatement.close();
+
+            insertVoucherRows(iVoucher, iCurrentYear.getId());
+            commit();
         } catch (SQLException e) {
             LOG.error("Unexpected error", e);
             try {
-                iConnection.rollback();
+                rollback();
             } catch (SQLException ignored) {}
             SSErrorDialog.showDialog(SSMainFrame.getInstance(), "SQL Error",
                     e.getMessage());
@@ -1312,7 +1336,7 @@ public class SSDB {    private static final Logger LOG = LoggerFactory.getLogger
             return 0;
         }
         try {
-            PreparedStatement iStatement = iConnection.prepareStatement(
+            PreparedStatement iStatement = getDBConnection().prepare(
                     "SELECT MAX(number) AS maxnum FROM tbl_voucher WHERE yearid=?");
 
             iStatement.setObject(1, iCurrentYear.getId());
@@ -1330,7 +1354,7 @@ public class SSDB {    private static final Logger LOG = LoggerFactory.getLogger
         } catch (SQLException e) {
             LOG.error("Unexpected error", e);
             try {
-                iConnection.rollback();
+                rollback();
             } catch (SQLException ignored) {}
             SSErrorDialog.showDialog(SSMainFrame.getInstance(), "SQL Error",
                     e.getMessage());
@@ -1343,24 +1367,88 @@ public class SSDB {    private static final Logger LOG = LoggerFactory.getLogger
             return;
         }
         try {
-            PreparedStatement iStatement = iConnection.prepareStatement(
-                    "UPDATE tbl_voucher SET voucher=? WHERE number=? AND yearid=?");
+            try (PreparedStatement iStatement = getDBConnection().prepare(
+                    "UPDATE tbl_voucher SET voucher=? WHERE number=? AND yearid=?")) {
+                iStatement.setObject(1, SSEntityCodecs.encode(iVoucher));
+                iStatement.setObject(2, iVoucher.getNumber());
+                iStatement.setObject(3, iCurrentYear.getId());
+                iStatement.executeUpdate();
+            }
 
-            iStatement.setObject(1, iVoucher);
-            iStatement.setObject(2, iVoucher.getNumber());
-            iStatement.setObject(3, iCurrentYear.getId());
-            iStatement.executeUpdate();
-            iConnection.commit();
-            iStatement.close();
+            deleteVoucherRows(iVoucher.getNumber(), iCurrentYear.getId());
+            insertVoucherRows(iVoucher, iCurrentYear.getId());
+            commit();
+
+        } catch (SQLException e) {
+            LOG.error("Unexpected error", e);
+            try {
+                rollback();
+            } catch (SQLException ignored) {}
+            SSErrorDialog.showDialog(SSMainFrame.getInstance(), "SQL Error",
+                    e.getMessage());
+        }
+    }
+
+    /**
+     * Adds vouchers that already have their numbers, with JDBC batches instead of
+     * a round trip per voucher and row. Commits once, or not at all if a batch is
+     * open. The vouchers are not added to the list in memory one by one, it is
+     * read again when it is next asked for.
+     *
+     * @param pVouchers
+     * @throws SSImportException if the vouchers could not be written, after rolling back
+     */
+    public void addVouchers(List<SSVoucher> pVouchers) {
+        if (pVouchers == null || pVouchers.isEmpty() || iCurrentYear == null) {
+            return;
+        }
+        try {
+            iVoucherRowVersion++;
+            for (SSVoucher iVoucher : pVouchers) {
+                changedMonth(iCurrentYear.getId(), iVoucher.getLocalDate());
+            }
+            SSDBBulkWriter.insertVouchers(getDBConnection(), pVouchers, iCurrentYear.getId());
+            commit();
+        } catch (SQLException e) {
+            LOG.error("Unexpected error", e);
+            try {
+                rollback();
+            } catch (SQLException ignored) {}
+            iVouchers = null;
+            // Stops the import, which rolls back its batch
+            throw new SSImportException(e.getMessage());
+        }
+        iVouchers = null;
+    }
 
+    /**
+     * Deletes all vouchers of the current year with one statement per table,
+     * instead of one delete per voucher.
+     */
+    public void deleteVouchers() {
+        if (iCurrentYear == null) {
+            return;
+        }
+        try {
+            iVoucherRowVersion++;
+            for (String iTable : new String[] { "tbl_voucher", "tbl_voucherrow", "tbl_accountmonth" }) {
+                try (PreparedStatement iStatement = getDBConnection().prepare(
+                        "DELETE FROM " + iTable + " WHERE yearid=?")) {
+                    iStatement.setObject(1, iCurrentYear.getId());
+                    iStatement.executeUpdate();
+                }
+            }
+            commit();
         } catch (SQLException e) {
             LOG.error("Unexpected error", e);
             try {
-                iConnection.rollback();
+                rollback();
             } catch (SQLException ignored) {}
             SSErrorDialog.showDialog(SSMainFrame.getInstance(), "SQL Error",
                     e.getMessage());
         }
+        iVouchers = null;
+        iYearVouchers.remove(iCurrentYear.getId());
     }
 
     public void deleteVoucher(SSVoucher iVoucher) {
@@ -1368,137 +1456,682 @@ public class SSDB {    private static final Logger LOG = LoggerFactory.getLogger
             return;
         }
         try {
-            PreparedStatement iStatement = iConnection.prepareStatement(
+            PreparedStatement iStatement = getDBConnection().prepare(
                     "DELETE FROM tbl_voucher WHERE number=? AND yearid=?");
 
             iStatement.setObject(1, iVoucher.getNumber());
             iStatement.setObject(2, iCurrentYear.getId());
             iStatement.executeUpdate();
-            iConnection.commit();
             iStatement.close();
 
+            deleteVoucherRows(iVoucher.getNumber(), iCurrentYear.getId());
+            commit();
+
         } catch (SQLException e) {
             LOG.error("Unexpected error", e);
             try {
-                iConnection.rollback();
+                rollback();
             } catch (SQLException ignored) {}
             SSErrorDialog.showDialog(SSMainFrame.getInstance(), "SQL Error",
                     e.getMessage());
         }
     }
 
-    public List<SSVoucherTemplate> getVoucherTemplates() {
-        List<SSVoucherTemplate> iVoucherTemplates = new LinkedList<>();
+    // //////////////////////////////////////////////////////////////////////////////////////
+    // tbl_voucherrow holds one row per voucher row so that the balance, result and main book
+    // calculators can sum in the database instead of loading every voucher of the year.
 
-        if (iCurrentCompany == null) {
-            return iVoucherTemplates;
+    /**
+     * Returns the debet and credit sums per account, project and result unit for the
+     * voucher rows of a year. Crossed rows and rows without account or amount are left out.
+     *
+     * @param pYear the accounting year, or null for the rows of all years of the current company
+     * @param pFrom first voucher date to include, or null for no lower bound
+     * @param pTo last voucher date to include, or null for no upper bound
+     * @return the sums, or an empty list
+     */
+    public List<SSVoucherRowSum> getVoucherRowSums(SSNewAccountingYear pYear, LocalDate pFrom, LocalDate pTo) {
+        List<SSVoucherRowSum> iSums = new LinkedList<>();
+
+        if (iConnection == null || (pYear == null && iCurrentCompany == null)) {
+            return iSums;
+        }
+        StringBuilder iQuery = new StringBuilder(
+                "SELECT accountnr, projectnr, resultunitnr, SUM(COALESCE(debet, 0)), SUM(COALESCE(credit, 0))"
+                + " FROM tbl_voucherrow WHERE accountnr IS NOT NULL AND crossed=FALSE"
+                + " AND (debet IS NOT NULL OR credit IS NOT NULL)");
+
+        if (pYear != null) {
+            iQuery.append(" AND yearid=?");
+        } else {
+            iQuery.append(" AND yearid IN (SELECT id FROM tbl_accountingyear WHERE companyid=?)");
+        }
+        if (pFrom != null) {
+            iQuery.append(" AND voucherdate>=?");
         }
+        if (pTo != null) {
+            iQuery.append(" AND voucherdate<=?");
+        }
+        iQuery.append(" GROUP BY accountnr, projectnr, resultunitnr");
+
         try {
-            PreparedStatement iStatement = iConnection.prepareStatement(
-                    "SELECT * FROM tbl_vouchertemplate WHERE companyid=?");
+            PreparedStatement iStatement = getDBConnection().prepare(iQuery.toString());
+            int iIndex = 1;
 
-            iStatement.setObject(1, iCurrentCompany.getId());
+            iStatement.setObject(iIndex++, pYear != null ? pYear.getId() : iCurrentCompany.getId());
+            if (pFrom != null) {
+                iStatement.setDate(iIndex++, java.sql.Date.valueOf(pFrom));
+            }
+            if (pTo != null) {
+                iStatement.setDate(iIndex, java.sql.Date.valueOf(pTo));
+            }
             ResultSet iResultSet = iStatement.executeQuery();
-            int i = 0;
 
             while (iResultSet.next()) {
-                iVoucherTemplates.add((SSVoucherTemplate) iResultSet.getObject(2));
-                i++;
+                iSums.add(new SSVoucherRowSum((Integer) iResultSet.getObject(1),
+                        iResultSet.getString(2), iResultSet.getString(3),
+                        iResultSet.getBigDecimal(4), iResultSet.getBigDecimal(5)));
             }
             iResultSet.close();
             iStatement.close();
         } catch (SQLException e) {
             LOG.error("Unexpected error", e);
             try {
-                iConnection.rollback();
+                rollback();
             } catch (SQLException ignored) {}
             SSErrorDialog.showDialog(SSMainFrame.getInstance(), "SQL Error",
                     e.getMessage());
         }
-        return iVoucherTemplates;
+        return iSums;
     }
 
-    public List<SSVoucherTemplate> getVoucherTemplates(List<SSVoucherTemplate> pVoucherTemplates) {
-        if (pVoucherTemplates == null) {
-            return Collections.emptyList();
-        }
-        List<SSVoucherTemplate> iVoucherTemplates = new LinkedList<>();
+    /**
+     * Returns the debet and credit sums per account, project, result unit and voucher
+     * date for the voucher rows of a year, or of all years of the current company.
+     * Crossed rows and rows without account or amount are left out.
+     *
+     * @param pYear the accounting year, or null for all years of the current company
+     * @return the sums, or an empty list
+     */
+    public List<SSVoucherRowSum> getVoucherRowDaySums(SSNewAccountingYear pYear) {
+        List<SSVoucherRowSum> iSums = new ArrayList<>();
 
-        if (iCurrentCompany == null) {
-            return iVoucherTemplates;
+        if (iConnection == null || (pYear == null && iCurrentCompany == null)) {
+            return iSums;
         }
+        String iQuery = "SELECT accountnr, projectnr, resultunitnr, voucherdate,"
+                + " SUM(COALESCE(debet, 0)), SUM(COALESCE(credit, 0))"
+                + " FROM tbl_voucherrow WHERE accountnr IS NOT NULL AND crossed=FALSE"
+                + " AND (debet IS NOT NULL OR credit IS NOT NULL)"
+                + (pYear != null
+                        ? " AND yearid=?"
+                        : " AND yearid IN (SELECT id FROM tbl_accountingyear WHERE companyid=?)")
+                + " GROUP BY accountnr, projectnr, resultunitnr, voucherdate";
+
         try {
-            for (SSVoucherTemplate iVoucherTemplate : pVoucherTemplates) {
-                PreparedStatement iStatement = iConnection.prepareStatement(
-                        "SELECT * FROM tbl_vouchertemplate WHERE name=? AND companyid=?");
+            PreparedStatement iStatement = getDBConnection().prepare(iQuery);
 
-                iStatement.setObject(1, iVoucherTemplate.getDescription());
-                iStatement.setObject(2, iCurrentCompany.getId());
-                ResultSet iResultSet = iStatement.executeQuery();
+            iStatement.setObject(1, pYear != null ? pYear.getId() : iCurrentCompany.getId());
+            ResultSet iResultSet = iStatement.executeQuery();
 
-                if (iResultSet.next()) {
-                    iVoucherTemplates.add((SSVoucherTemplate) iResultSet.getObject(2));
-                }
-                iStatement.close();
-            }
+            while (iResultSet.next()) {
+                java.sql.Date iDate = iResultSet.getDate(4);
 
-            return iVoucherTemplates;
+                iSums.add(new SSVoucherRowSum((Integer) iResultSet.getObject(1),
+                        iResultSet.getString(2), iResultSet.getString(3),
+                        iDate == null ? null : iDate.toLocalDate(),
+                        iResultSet.getBigDecimal(5), iResultSet.getBigDecimal(6)));
+            }
+            iResultSet.close();
+            iStatement.close();
         } catch (SQLException e) {
             LOG.error("Unexpected error", e);
             try {
-                iConnection.rollback();
+                rollback();
             } catch (SQLException ignored) {}
             SSErrorDialog.showDialog(SSMainFrame.getInstance(), "SQL Error",
                     e.getMessage());
         }
-        return Collections.emptyList();
+        return iSums;
     }
 
-    public void addVoucherTemplate(SSVoucherTemplate iVoucherTemplate) {
-        if (iVoucherTemplate == null) {
-            return;
-        }
-        if (iCurrentCompany == null) {
-            return;
+    /**
+     *
+     * @return a number that changes whenever the voucher rows may have changed
+     */
+    public int getVoucherRowVersion() {
+        return iVoucherRowVersion;
+    }
+
+    /**
+     * Returns the voucher rows of a year with a voucher date within the given range,
+     * ordered by voucher number and row. Crossed rows are included.
+     *
+     * @param pYear the accounting year
+     * @param pFrom first voucher date to include
+     * @param pTo last voucher date to include
+     * @return the rows, or an empty list
+     */
+    public List<SSVoucherRowEntry> getVoucherRowEntries(SSNewAccountingYear pYear, LocalDate pFrom, LocalDate pTo) {
+        List<SSVoucherRowEntry> iEntries = new LinkedList<>();
+
+        if (pYear == null || pFrom == null || pTo == null || iConnection == null) {
+            return iEntries;
         }
         try {
             PreparedStatement iStatement = iConnection.prepareStatement(
-                    "INSERT INTO tbl_vouchertemplate VALUES(?,?,?)");
+                    "SELECT vouchernumber, voucherdate, description, accountnr, projectnr, resultunitnr,"
+                    + " debet, credit, crossed, added FROM tbl_voucherrow"
+                    + " WHERE yearid=? AND voucherdate>=? AND voucherdate<=?"
+                    + " ORDER BY vouchernumber, rowindex");
 
-            iStatement.setObject(1, iVoucherTemplate.getDescription());
-            iStatement.setObject(2, iVoucherTemplate);
-            iStatement.setObject(3, iCurrentCompany.getId());
-            iStatement.executeUpdate();
-            iConnection.commit();
+            iStatement.setObject(1, pYear.getId());
+            iStatement.setDate(2, java.sql.Date.valueOf(pFrom));
+            iStatement.setDate(3, java.sql.Date.valueOf(pTo));
+            ResultSet iResultSet = iStatement.executeQuery();
+
+            while (iResultSet.next()) {
+                SSVoucherRowEntry iEntry = new SSVoucherRowEntry();
+
+                iEntry.iVoucherNumber = (Integer) iResultSet.getObject(1);
+                iEntry.iDate = iResultSet.getDate(2).toLocalDate();
+                iEntry.iDescription = iResultSet.getString(3);
+                iEntry.iAccountNr = (Integer) iResultSet.getObject(4);
+                iEntry.iProjectNr = iResultSet.getString(5);
+                iEntry.iResultUnitNr = iResultSet.getString(6);
+                iEntry.iDebet = iResultSet.getBigDecimal(7);
+                iEntry.iCredit = iResultSet.getBigDecimal(8);
+                iEntry.iCrossed = iResultSet.getBoolean(9);
+                iEntry.iAdded = iResultSet.getBoolean(10);
+
+                iEntries.add(iEntry);
+            }
+            iResultSet.close();
             iStatement.close();
         } catch (SQLException e) {
             LOG.error("Unexpected error", e);
             try {
-                iConnection.rollback();
+                rollback();
             } catch (SQLException ignored) {}
             SSErrorDialog.showDialog(SSMainFrame.getInstance(), "SQL Error",
                     e.getMessage());
         }
+        return iEntries;
     }
 
-    public void deleteVoucherTemplate(SSVoucherTemplate iVoucherTemplate) {
-        if (iCurrentCompany == null) {
+    /**
+     * Rebuilds tbl_voucherrow from the vouchers stored in tbl_voucher.
+     */
+    public void rebuildVoucherRows() {
+        if (iConnection == null) {
             return;
         }
+        iVoucherRowVersion++;
         try {
-            PreparedStatement iStatement = iConnection.prepareStatement(
-                    "DELETE FROM tbl_vouchertemplate WHERE name=? AND companyid=?");
+            PreparedStatement iStatement = getDBConnection().prepare("DELETE FROM tbl_voucherrow");
 
-            iStatement.setObject(1, iVoucherTemplate.getDescription());
-            iStatement.setObject(2, iCurrentCompany.getId());
             iStatement.executeUpdate();
-            iConnection.commit();
             iStatement.close();
 
+            iStatement = getDBConnection().prepare("DELETE FROM tbl_accountmonth");
+            iStatement.executeUpdate();
+            iStatement.close();
+
+            iStatement = getDBConnection().prepare("SELECT yearid, voucher FROM tbl_voucher");
+            ResultSet iResultSet = iStatement.executeQuery();
+            int iCount = 0;
+
+            while (iResultSet.next()) {
+                Integer iYearId = (Integer) iResultSet.getObject(1);
+                SSVoucher iVoucher = SSEntityCodecs.decode(iResultSet.getObject(2), SSVoucher.class);
+
+                insertVoucherRows(iVoucher, iYearId);
+                iCount++;
+            }
+            iResultSet.close();
+            iStatement.close();
+            commit();
+
+            LOG.info("Indexed the rows of {} vouchers", iCount);
         } catch (SQLException e) {
             LOG.error("Unexpected error", e);
             try {
-                iConnection.rollback();
+                rollback();
+            } catch (SQLException ignored) {}
+        }
+    }
+
+    /**
+     * Creates tbl_voucherrow and fills it from the stored vouchers if the database
+     * was created before the table existed.
+     */
+    private void createVoucherRowTable() {
+        try {
+            if (iConnection == null || iConnection.isClosed()) {
+                return;
+            }
+            ResultSet iTables = iConnection.getMetaData().getTables(null, null, "TBL_VOUCHERROW", null);
+            boolean iExists = iTables.next();
+
+            iTables.close();
+            if (iExists) {
+                return;
+            }
+            PreparedStatement iStatement = iConnection.prepareStatement(
+                    SSUtil.readResourceToString("sql/create_voucherrow.sql"));
+
+            iStatement.executeUpdate();
+            commit();
+            iStatement.close();
+        } catch (SQLException e) {
+            LOG.error("Unexpected error", e);
+            return;
+        }
+        rebuildVoucherRows();
+    }
+
+    /**
+     * Inserts the rows of a voucher into tbl_voucherrow. Does not commit.
+     *
+     * @param pVoucher
+     * @param pYearId
+     * @throws SQLException
+     */
+    private void insertVoucherRows(SSVoucher pVoucher, Integer pYearId) throws SQLException {
+        if (pVoucher == null || pVoucher.getRows() == null) {
+            return;
+        }
+        int iIndex = 0;
+
+        iVoucherRowVersion++;
+        changedMonth(pYearId, pVoucher.getLocalDate());
+        try (PreparedStatement iStatement = getDBConnection().prepare(
+                "INSERT INTO tbl_voucherrow VALUES(NULL,?,?,?,?,?,?,?,?,?,?,?,?)")) {
+            for (SSVoucherRow iRow : pVoucher.getRows()) {
+                if (iRow == null) {
+                    continue;
+                }
+                SSDBBulkWriter.setVoucherRow(iStatement, pYearId, pVoucher, iIndex++, iRow);
+                iStatement.executeUpdate();
+            }
+        }
+    }
+
+    /**
+     * Removes the rows of a voucher from tbl_voucherrow. Does not commit.
+     *
+     * @param pNumber
+     * @param pYearId
+     * @throws SQLException
+     */
+    private void deleteVoucherRows(Integer pNumber, Integer pYearId) throws SQLException {
+        iVoucherRowVersion++;
+        try (PreparedStatement iStatement = getDBConnection().prepare(
+                "SELECT DISTINCT voucherdate FROM tbl_voucherrow WHERE vouchernumber=? AND yearid=?")) {
+            iStatement.setObject(1, pNumber);
+            iStatement.setObject(2, pYearId);
+
+            try (ResultSet iResultSet = iStatement.executeQuery()) {
+                while (iResultSet.next()) {
+                    java.sql.Date iDate = iResultSet.getDate(1);
+
+                    changedMonth(pYearId, iDate == null ? null : iDate.toLocalDate());
+                }
+            }
+        }
+        try (PreparedStatement iStatement = getDBConnection().prepare(
+                "DELETE FROM tbl_voucherrow WHERE vouchernumber=? AND yearid=?")) {
+            iStatement.setObject(1, pNumber);
+            iStatement.setObject(2, pYearId);
+            iStatement.executeUpdate();
+        }
+    }
+
+    // //////////////////////////////////////////////////////////////////////////////////////
+    // tbl_accountmonth holds the debet and credit totals per account, project and result
+    // unit for each month of a year, so that a period report adds whole months instead of
+    // every voucher row before the period. The months touched by a voucher are computed
+    // again from tbl_voucherrow when the transaction is committed.
+
+    /**
+     * Returns the debet and credit totals per account, project, result unit and month
+     * of a year. The date of each sum is the first day of its month.
+     *
+     * Months changed since the last commit are summed from tbl_voucherrow instead,
+     * tbl_accountmonth is only written when the changes are committed.
+     *
+     * @param pYear the accounting year
+     * @return the sums, or an empty list
+     */
+    public List<SSVoucherRowSum> getAccountMonthSums(SSNewAccountingYear pYear) {
+        List<SSVoucherRowSum> iSums = new ArrayList<>();
+
+        if (pYear == null || iConnection == null) {
+            return iSums;
+        }
+        Set<LocalDate> iChanged = getChangedMonths(pYear.getId());
+
+        try {
+            PreparedStatement iStatement = getDBConnection().prepare(
+                    "SELECT accountnr, projectnr, resultunitnr, month, debet, credit"
+                    + " FROM tbl_accountmonth WHERE yearid=?");
+
+            iStatement.setObject(1, pYear.getId());
+            ResultSet iResultSet = iStatement.executeQuery();
+
+            while (iResultSet.next()) {
+                LocalDate iMonth = iResultSet.getDate(4).toLocalDate();
+
+                if (iChanged.contains(iMonth)) {
+                    continue;
+                }
+                iSums.add(new SSVoucherRowSum((Integer) iResultSet.getObject(1),
+                        iResultSet.getString(2), iResultSet.getString(3), iMonth,
+                        iResultSet.getBigDecimal(5), iResultSet.getBigDecimal(6)));
+            }
+            iResultSet.close();
+            iStatement.close();
+
+            if (!iChanged.isEmpty()) {
+                iStatement = getDBConnection().prepare(MONTH_SUMS_QUERY);
+
+                for (LocalDate iMonth : iChanged) {
+                    iStatement.setObject(1, pYear.getId());
+                    iStatement.setDate(2, java.sql.Date.valueOf(iMonth));
+                    iStatement.setDate(3, java.sql.Date.valueOf(iMonth.withDayOfMonth(iMonth.lengthOfMonth())));
+                    iResultSet = iStatement.executeQuery();
+
+                    while (iResultSet.next()) {
+                        iSums.add(new SSVoucherRowSum((Integer) iResultSet.getObject(1),
+                                iResultSet.getString(2), iResultSet.getString(3), iMonth,
+                                iResultSet.getBigDecimal(4), iResultSet.getBigDecimal(5)));
+                    }
+                    iResultSet.close();
+                }
+                iStatement.close();
+            }
+        } catch (SQLException e) {
+            LOG.error("Unexpected error", e);
+            try {
+                rollback();
+            } catch (SQLException ignored) {}
+            SSErrorDialog.showDialog(SSMainFrame.getInstance(), "SQL Error",
+                    e.getMessage());
+        }
+        return iSums;
+    }
+
+    /**
+     * The sums of one month of tbl_voucherrow, by year id and first and last day.
+     */
+    private static final String MONTH_SUMS_QUERY =
+            "SELECT accountnr, projectnr, resultunitnr, SUM(COALESCE(debet, 0)), SUM(COALESCE(credit, 0))"
+            + " FROM tbl_voucherrow WHERE accountnr IS NOT NULL AND crossed=FALSE"
+            + " AND (debet IS NOT NULL OR credit IS NOT NULL)"
+            + " AND yearid=? AND voucherdate>=? AND voucherdate<=?"
+            + " GROUP BY accountnr, projectnr, resultunitnr";
+
+    /**
+     * Marks the month of a voucher date to be computed again.
+     *
+     * @param pYearId
+     * @param pDate the voucher date, null is ignored
+     */
+    private void changedMonth(Integer pYearId, LocalDate pDate) {
+        if (pDate == null) {
+            return;
+        }
+        Set<List<Object>> iMonths = getChangedMonths();
+
+        synchronized (iMonths) {
+            iMonths.add(Arrays.asList(pYearId, pDate.withDayOfMonth(1)));
+        }
+    }
+
+    /**
+     * Returns the months of a year that are not yet computed again in tbl_accountmonth,
+     * on the shared connection or in any open batch.
+     *
+     * @param pYearId
+     * @return the first day of each changed month
+     */
+    private Set<LocalDate> getChangedMonths(Integer pYearId) {
+        List<Set<List<Object>>> iAll = new ArrayList<>();
+        Set<LocalDate> iMonths = new HashSet<>();
+
+        iAll.add(iChangedMonths);
+        for (SSDBBatch iOpenBatch : iOpenBatches) {
+            iAll.add(iOpenBatch.getChangedMonths());
+        }
+        for (Set<List<Object>> iSet : iAll) {
+            synchronized (iSet) {
+                for (List<Object> iMonth : iSet) {
+                    if (Objects.equals(iMonth.get(0), pYearId)) {
+                        iMonths.add((LocalDate) iMonth.get(1));
+                    }
+                }
+            }
+        }
+        return iMonths;
+    }
+
+    /**
+     *
+     * @return the changed months of the open batch of this thread, or of the shared connection
+     */
+    private Set<List<Object>> getChangedMonths() {
+        SSDBBatch iOwnBatch = iBatch.get();
+
+        return iOwnBatch != null && iOwnBatch.getConnection() != null
+                ? iOwnBatch.getChangedMonths()
+                : iChangedMonths;
+    }
+
+    /**
+     * Computes the changed months of tbl_accountmonth again from tbl_voucherrow.
+     * Does not commit.
+     *
+     * @param pConnection the connection the months were changed on
+     * @param pChangedMonths the changed months of the connection
+     * @throws SQLException
+     */
+    private void updateChangedMonths(SSDBConnection pConnection, Set<List<Object>> pChangedMonths) throws SQLException {
+        List<List<Object>> iMonths;
+
+        synchronized (pChangedMonths) {
+            if (pChangedMonths.isEmpty()) {
+                return;
+            }
+            iMonths = new ArrayList<>(pChangedMonths);
+            pChangedMonths.clear();
+        }
+        try (PreparedStatement iDelete = pConnection.prepare(
+                "DELETE FROM tbl_accountmonth WHERE yearid=? AND month=?");
+             PreparedStatement iSelect = pConnection.prepare(MONTH_SUMS_QUERY);
+             PreparedStatement iInsert = pConnection.prepare(
+                "INSERT INTO tbl_accountmonth VALUES(?,?,?,?,?,?,?)")) {
+            for (List<Object> iMonth : iMonths) {
+                Object iYearId = iMonth.get(0);
+                LocalDate iFrom = (LocalDate) iMonth.get(1);
+                java.sql.Date iDate = java.sql.Date.valueOf(iFrom);
+
+                iDelete.setObject(1, iYearId);
+                iDelete.setDate(2, iDate);
+                iDelete.executeUpdate();
+
+                iSelect.setObject(1, iYearId);
+                iSelect.setDate(2, iDate);
+                iSelect.setDate(3, java.sql.Date.valueOf(iFrom.withDayOfMonth(iFrom.lengthOfMonth())));
+
+                try (ResultSet iResultSet = iSelect.executeQuery()) {
+                    while (iResultSet.next()) {
+                        iInsert.setObject(1, iYearId);
+                        iInsert.setDate(2, iDate);
+                        iInsert.setObject(3, iResultSet.getObject(1));
+                        iInsert.setObject(4, iResultSet.getString(2));
+                        iInsert.setObject(5, iResultSet.getString(3));
+                        iInsert.setBigDecimal(6, iResultSet.getBigDecimal(4));
+                        iInsert.setBigDecimal(7, iResultSet.getBigDecimal(5));
+                        iInsert.executeUpdate();
+                    }
+                }
+            }
+        } catch (SQLException e) {
+            synchronized (pChangedMonths) {
+                pChangedMonths.addAll(iMonths);
+            }
+            throw e;
+        }
+        LOG.debug("Updated {} months of tbl_accountmonth", iMonths.size());
+    }
+
+    /**
+     * Creates tbl_accountmonth and fills it from tbl_voucherrow if the database
+     * was created before the table existed.
+     */
+    private void createAccountMonthTable() {
+        try {
+            if (iConnection == null || iConnection.isClosed()) {
+                return;
+            }
+            ResultSet iTables = iConnection.getMetaData().getTables(null, null, "TBL_ACCOUNTMONTH", null);
+            boolean iExists = iTables.next();
+
+            iTables.close();
+            if (iExists) {
+                return;
+            }
+            PreparedStatement iStatement = iConnection.prepareStatement(
+                    SSUtil.readResourceToString("sql/create_accountmonth.sql"));
+
+            iStatement.executeUpdate();
+            iStatement.close();
+
+            // A new database gets its months when tbl_voucherrow is created and filled
+            iTables = iConnection.getMetaData().getTables(null, null, "TBL_VOUCHERROW", null);
+            iExists = iTables.next();
+            iTables.close();
+            if (iExists) {
+                iStatement = iConnection.prepareStatement(
+                        "SELECT DISTINCT yearid, voucherdate FROM tbl_voucherrow");
+                ResultSet iResultSet = iStatement.executeQuery();
+
+                while (iResultSet.next()) {
+                    java.sql.Date iDate = iResultSet.getDate(2);
+
+                    changedMonth((Integer) iResultSet.getObject(1), iDate == null ? null : iDate.toLocalDate());
+                }
+                iResultSet.close();
+                iStatement.close();
+            }
+            commit();
+        } catch (SQLException e) {
+            LOG.error("Unexpected error", e);
+        }
+    }
+
+    public List<SSVoucherTemplate> getVoucherTemplates() {
+        List<SSVoucherTemplate> iVoucherTemplates = new LinkedList<>();
+
+        if (iCurrentCompany == null) {
+            return iVoucherTemplates;
+        }
+        try {
+            PreparedStatement iStatement = getDBConnection().prepare(
+                    "SELECT * FROM tbl_vouchertemplate WHERE companyid=?");
+
+            iStatement.setObject(1, iCurrentCompany.getId());
+            ResultSet iResultSet = iStatement.executeQuery();
+            int i = 0;
+
+            while (iResultSet.next()) {
+                iVoucherTemplates.add((SSVoucherTemplate) iResultSet.getObject(2));
+                i++;
+            }
+            iResultSet.close();
+            iStatement.close();
+        } catch (SQLException e) {
+            LOG.error("Unexpected error", e);
+            try {
+                rollback();
+            } catch (SQLException ignored) {}
+            SSErrorDialog.showDialog(SSMainFrame.getInstance(), "SQL Error",
+                    e.getMessage());
+        }
+        return iVoucherTemplates;
+    }
+
+    public List<SSVoucherTemplate> getVoucherTemplates(List<SSVoucherTemplate> pVoucherTemplates) {
+        if (pVoucherTemplates == null) {
+            return Collections.emptyList();
+        }
+        List<SSVoucherTemplate> iVoucherTemplates = new LinkedList<>();
+
+        if (iCurrentCompany == null) {
+            return iVoucherTemplates;
+        }
+        try {
+            iVoucherTemplates.addAll(SSDBBulkReader.readIn(getDBConnection(),
+                    "SELECT * FROM tbl_vouchertemplate WHERE name IN (%s) AND companyid=?", pVoucherTemplates, SSVoucherTemplate::getDescription, iCurrentCompany.getId(),
+                    iResultSet -> (SSVoucherTemplate) iResultSet.getObject(2)));
+
+            return iVoucherTemplates;
+        } catch (SQLException e) {
+            LOG.error("Unexpected error", e);
+            try {
+                rollback();
+            } catch (SQLException ignored) {}
+            SSErrorDialog.showDialog(SSMainFrame.getInstance(), "SQL Error",
+                    e.getMessage());
+        }
+        return Collections.emptyList();
+    }
+
+    public void addVoucherTemplate(SSVoucherTemplate iVoucherTemplate) {
+        if (iVoucherTemplate == null) {
+            return;
+        }
+        if (iCurrentCompany == null) {
+            return;
+        }
+        try {
+            PreparedStatement iStatement = getDBConnection().prepare(
+                    "INSERT INTO tbl_vouchertemplate VALUES(?,?,?)");
+
+            iStatement.setObject(1, iVoucherTemplate.getDescription());
+            iStatement.setObject(2, iVoucherTemplate);
+            iStatement.setObject(3, iCurrentCompany.getId());
+            iStatement.executeUpdate();
+            commit();
+            iStatement.close();
+        } catch (SQLException e) {
+            LOG.error("Unexpected error", e);
+            try {
+                rollback();
+            } catch (SQLException ignored) {}
+            SSErrorDialog.showDialog(SSMainFrame.getInstance(), "SQL Error",
+                    e.getMessage());
+        }
+    }
+
+    public void deleteVoucherTemplate(SSVoucherTemplate iVoucherTemplate) {
+        if (iCurrentCompany == null) {
+            return;
+        }
+        try {
+            PreparedStatement iStatement = getDBConnection().prepare(
+                    "DELETE FROM tbl_vouchertemplate WHERE name=? AND companyid=?");
+
+            iStatement.setObject(1, iVoucherTemplate.getDescription());
+            iStatement.setObject(2, iCurrentCompany.getId());
+            iStatement.executeUpdate();
+            commit();
+            iStatement.close();
+
+        } catch (SQLException e) {
+            LOG.error("Unexpected error", e);
+            try {
+                rollback();
             } catch (SQLException ignored) {}
             SSErrorDialog.showDialog(SSMainFrame.getInstance(), "SQL Error",
                     e.getMessage());
@@ -1528,7 +2161,7 @@ public class SSDB {    private static final Logger LOG = LoggerFactory.getLogger
         List<SSAccountPlan> iAccountPlans = new LinkedList<>();
 
         try {
-            PreparedStatement iStatement = iConnection.prepareStatement(
+            PreparedStatement iStatement = getDBConnection().prepare(
                     "SELECT * FROM tbl_accountplan");
             ResultSet iResultSet = iStatement.executeQuery();
 
@@ -1540,7 +2173,7 @@ public class SSDB {    private static final Logger LOG = LoggerFactory.getLogger
         } catch (SQLException e) {
             LOG.error("Unexpected error", e);
             try {
-                iConnection.rollback();
+                rollback();
             } catch (SQLException ignored) {}
             SSErrorDialog.showDialog(SSMainFrame.getInstance(), "SQL Error",
                     e.getMessage());
@@ -1553,7 +2186,7 @@ public class SSDB {    private static final Logger LOG = LoggerFactory.getLogger
             return Optional.empty();
         }
         try {
-            PreparedStatement iStatement = iConnection.prepareStatement(
+            PreparedStatement iStatement = getDBConnection().prepare(
                     "SELECT * FROM tbl_accountplan WHERE id=?");
 
             iStatement.setObject(1, pAccountPlan.getId());
@@ -1571,7 +2204,7 @@ public class SSDB {    private static final Logger LOG = LoggerFactory.getLogger
         } catch (SQLException e) {
             LOG.error("Unexpected error", e);
             try {
-                iConnection.rollback();
+                rollback();
             } catch (SQLException ignored) {}
             SSErrorDialog.showDialog(SSMainFrame.getInstance(), "SQL Error",
                     e.getMessage());
@@ -1584,15 +2217,15 @@ public class SSDB {    private static final Logger LOG = LoggerFactory.getLogger
             return;
         }
         try {
-            PreparedStatement iStatement = iConnection.prepareStatement(
+            PreparedStatement iStatement = getDBConnection().prepare(
                     "INSERT INTO tbl_accountplan VALUES(NULL,?)");
 
             iStatement.setObject(1, iAccountPlan);
             iStatement.executeUpdate();
-            iConnection.commit();
+            commit();
             iStatement.close();
 
-            iStatement = iConnection.prepareStatement("SELECT * FROM tbl_accountplan");
+            iStatement = getDBConnection().prepare("SELECT * FROM tbl_accountplan");
             ResultSet iResultSet = iStatement.executeQuery();
             Integer iId = -1;
 
@@ -1604,18 +2237,18 @@ public class SSDB {    private static final Logger LOG = LoggerFactory.getLogger
             iAccountPlan.setId(iId);
             iStatement.close();
 
-            iStatement = iConnection.prepareStatement(
+            iStatement = getDBConnection().prepare(
                     "UPDATE tbl_accountplan SET accountplan=? WHERE id=?");
             iStatement.setObject(1, iAccountPlan);
             iStatement.setObject(2, iAccountPlan.getId());
             iStatement.executeUpdate();
-            iConnection.commit();
+            commit();
             iResultSet.close();
             iStatement.close();
         } catch (SQLException e) {
             LOG.error("Unexpected error", e);
             try {
-                iConnection.rollback();
+                rollback();
             } catch (SQLException ignored) {}
             SSErrorDialog.showDialog(SSMainFrame.getInstance(), "SQL Error",
                     e.getMessage());
@@ -1628,19 +2261,19 @@ public class SSDB {    private static final Logger LOG = LoggerFactory.getLogger
         }
 
         try {
-            PreparedStatement iStatement = iConnection.prepareStatement(
+            PreparedStatement iStatement = getDBConnection().prepare(
                     "UPDATE tbl_accountplan SET accountplan=? WHERE id=?");
 
             iStatement.setObject(1, iAccountPlan);
             iStatement.setObject(2, iAccountPlan.getId());
             iStatement.executeUpdate();
-            iConnection.commit();
+            commit();
             iStatement.close();
 
         } catch (SQLException e) {
             LOG.error("Unexpected error", e);
             try {
-                iConnection.rollback();
+                rollback();
             } catch (SQLException ignored) {}
             SSErrorDialog.showDialog(SSMainFrame.getInstance(), "SQL Error",
                     e.getMessage());
@@ -1652,18 +2285,18 @@ public class SSDB {    private static final Logger LOG = LoggerFactory.getLogger
             return;
         }
         try {
-            PreparedStatement iStatement = iConnection.prepareStatement(
+            PreparedStatement iStatement = getDBConnection().prepare(
                     "DELETE FROM tbl_accountplan WHERE id=?");
 
             iStatement.setObject(1, iAccountPlan.getId());
             iStatement.executeUpdate();
-            iConnection.commit();
+            commit();
             iStatement.close();
 
         } catch (SQLException e) {
             LOG.error("Unexpected error", e);
             try {
-                iConnection.rollback();
+                rollback();
             } catch (SQLException ignored) {}
             SSErrorDialog.showDialog(SSMainFrame.getInstance(), "SQL Error",
                     e.getMessage());
@@ -1674,7 +2307,7 @@ public class SSDB {    private static final Logger LOG = LoggerFactory.getLogger
         List<SSUnit> iUnits = new LinkedList<>();
 
         try {
-            PreparedStatement iStatement = iConnection.prepareStatement(
+            PreparedStatement iStatement = getDBConnection().prepare(
                     "SELECT * FROM tbl_unit");
             ResultSet iResultSet = iStatement.executeQuery();
 
@@ -1686,7 +2319,7 @@ public class SSDB {    private static final Logger LOG = LoggerFactory.getLogger
         } catch (SQLException e) {
             LOG.error("Unexpected error", e);
             try {
-                iConnection.rollback();
+                rollback();
             } catch (SQLException ignored) {}
             SSErrorDialog.showDialog(SSMainFrame.getInstance(), "SQL Error",
                     e.getMessage());
@@ -1699,18 +2332,18 @@ public class SSDB {    private static final Logger LOG = LoggerFactory.getLogger
             return;
         }
         try {
-            PreparedStatement iStatement = iConnection.prepareStatement(
+            PreparedStatement iStatement = getDBConnection().prepare(
                     "INSERT INTO tbl_unit VALUES(?,?)");
 
             iStatement.setObject(1, iUnit.getName());
             iStatement.setObject(2, iUnit);
             iStatement.executeUpdate();
-            iConnection.commit();
+            commit();
             iStatement.close();
         } catch (SQLException e) {
             LOG.error("Unexpected error", e);
             try {
-                iConnection.rollback();
+                rollback();
             } catch (SQLException ignored) {}
             SSErrorDialog.showDialog(SSMainFrame.getInstance(), "SQL Error",
                     e.getMessage());
@@ -1722,19 +2355,19 @@ public class SSDB {    private static final Logger LOG = LoggerFactory.getLogger
             return;
         }
         try {
-            PreparedStatement iStatement = iConnection.prepareStatement(
+            PreparedStatement iStatement = getDBConnection().prepare(
                     "UPDATE tbl_unit SET unit=? WHERE name=?");
 
             iStatement.setObject(1, iUnit);
             iStatement.setObject(2, iUnit.getName());
             iStatement.executeUpdate();
-            iConnection.commit();
+            commit();
             iStatement.close();
 
         } catch (SQLException e) {
             LOG.error("Unexpected error", e);
             try {
-                iConnection.rollback();
+                rollback();
             } catch (SQLException ignored) {}
             SSErrorDialog.showDialog(SSMainFrame.getInstance(), "SQL Error",
                     e.getMessage());
@@ -1746,18 +2379,18 @@ public class SSDB {    private static final Logger LOG = LoggerFactory.getLogger
             return;
         }
         try {
-            PreparedStatement iStatement = iConnection.prepareStatement(
+            PreparedStatement iStatement = getDBConnection().prepare(
                     "DELETE FROM tbl_unit WHERE name=?");
 
             iStatement.setObject(1, iUnit.getName());
             iStatement.executeUpdate();
-            iConnection.commit();
+            commit();
             iStatement.close();
 
         } catch (SQLException e) {
             LOG.error("Unexpected error", e);
             try {
-                iConnection.rollback();
+                rollback();
             } catch (SQLException ignored) {}
             SSErrorDialog.showDialog(SSMainFrame.getInstance(), "SQL Error",
                     e.getMessage());
@@ -1775,7 +2408,7 @@ public class SSDB {    private static final Logger LOG = LoggerFactory.getLogger
         List<SSCurrency> iCurrencies = new LinkedList<>();
 
         try {
-            PreparedStatement iStatement = iConnection.prepareStatement(
+            PreparedStatement iStatement = getDBConnection().prepare(
                     "SELECT * FROM tbl_currency");
             ResultSet iResultSet = iStatement.executeQuery();
 
@@ -1787,7 +2420,7 @@ public class SSDB {    private static final Logger LOG = LoggerFactory.getLogger
         } catch (SQLException e) {
             LOG.error("Unexpected error", e);
             try {
-                iConnection.rollback();
+                rollback();
             } catch (SQLException ignored) {}
             SSErrorDialog.showDialog(SSMainFrame.getInstance(), "SQL Error",
                     e.getMessage());
@@ -1799,7 +2432,7 @@ public class SSDB {    private static final Logger LOG = LoggerFactory.getLogger
         SSCurrency iUpdatedCurrency = new SSCurrency();
 
         try {
-            PreparedStatement iStatement = iConnection.prepareStatement(
+            PreparedStatement iStatement = getDBConnection().prepare(
                     "SELECT * FROM tbl_currency WHERE code=?");
 
             iStatement.setObject(1, iCurrency.getName());
@@ -1813,7 +2446,7 @@ public class SSDB {    private static final Logger LOG = LoggerFactory.getLogger
         } catch (SQLException e) {
             LOG.error("Unexpected error", e);
             try {
-                iConnection.rollback();
+                rollback();
             } catch (SQLException ignored) {}
             SSErrorDialog.showDialog(SSMainFrame.getInstance(), "SQL Error",
                     e.getMessage());
@@ -1826,18 +2459,18 @@ public class SSDB {    private static final Logger LOG = LoggerFactory.getLogger
             return;
         }
         try {
-            PreparedStatement iStatement = iConnection.prepareStatement(
+            PreparedStatement iStatement = getDBConnection().prepare(
                     "INSERT INTO tbl_currency VALUES(?,?)");
 
             iStatement.setObject(1, iCurrency.getName());
             iStatement.setObject(2, iCurrency);
             iStatement.executeUpdate();
-            iConnection.commit();
+            commit();
             iStatement.close();
         } catch (SQLException e) {
             LOG.error("Unexpected error", e);
             try {
-                iConnection.rollback();
+                rollback();
             } catch (SQLException ignored) {}
             SSErrorDialog.showDialog(SSMainFrame.getInstance(), "SQL Error",
                     e.getMessage());
@@ -1849,19 +2482,19 @@ public class SSDB {    private static final Logger LOG = LoggerFactory.getLogger
             return;
         }
         try {
-            PreparedStatement iStatement = iConnection.prepareStatement(
+            PreparedStatement iStatement = getDBConnection().prepare(
                     "UPDATE tbl_currency SET currency=? WHERE code=?");
 
             iStatement.setObject(1, iCurrency);
             iStatement.setObject(2, iCurrency.getName());
             iStatement.executeUpdate();
-            iConnection.commit();
+            commit();
             iStatement.close();
 
         } catch (SQLException e) {
             LOG.error("Unexpected error", e);
             try {
-                iConnection.rollback();
+                rollback();
             } catch (SQLException ignored) {}
             SSErrorDialog.showDialog(SSMainFrame.getInstance(), "SQL Error",
                     e.getMessage());
@@ -1873,18 +2506,18 @@ public class SSDB {    private static final Logger LOG = LoggerFactory.getLogger
             return;
         }
         try {
-            PreparedStatement iStatement = iConnection.prepareStatement(
+            PreparedStatement iStatement = getDBConnection().prepare(
                     "DELETE FROM tbl_currency WHERE code=?");
 
             iStatement.setObject(1, iCurrency.getName());
             iStatement.executeUpdate();
-            iConnection.commit();
+            commit();
             iStatement.close();
 
         } catch (SQLException e) {
             LOG.error("Unexpected error", e);
             try {
-                iConnection.rollback();
+                rollback();
             } catch (SQLException ignored) {}
             SSErrorDialog.showDialog(SSMainFrame.getInstance(), "SQL Error",
                     e.getMessage());
@@ -1902,7 +2535,7 @@ public class SSDB {    private static final Logger LOG = LoggerFactory.getLogger
         List<SSDeliveryWay> iDeliveryWays = new LinkedList<>();
 
         try {
-            PreparedStatement iStatement = iConnection.prepareStatement(
+            PreparedStatement iStatement = getDBConnection().prepare(
                     "SELECT * FROM tbl_deliveryway");
             ResultSet iResultSet = iStatement.executeQuery();
 
@@ -1914,7 +2547,7 @@ public class SSDB {    private static final Logger LOG = LoggerFactory.getLogger
         } catch (SQLException e) {
             LOG.error("Unexpected error", e);
             try {
-                iConnection.rollback();
+                rollback();
             } catch (SQLException ignored) {}
             SSErrorDialog.showDialog(SSMainFrame.getInstance(), "SQL Error",
                     e.getMessage());
@@ -1927,18 +2560,18 @@ public class SSDB {    private static final Logger LOG = LoggerFactory.getLogger
             return;
         }
         try {
-            PreparedStatement iStatement = iConnection.prepareStatement(
+            PreparedStatement iStatement = getDBConnection().prepare(
                     "INSERT INTO tbl_deliveryway VALUES(?,?)");
 
             iStatement.setObject(1, iDeliveryWay.getName());
             iStatement.setObject(2, iDeliveryWay);
             iStatement.executeUpdate();
-            iConnection.commit();
+            commit();
             iStatement.close();
         } catch (SQLException e) {
             LOG.error("Unexpected error", e);
             try {
-                iConnection.rollback();
+                rollback();
             } catch (SQLException ignored) {}
             SSErrorDialog.showDialog(SSMainFrame.getInstance(), "SQL Error",
                     e.getMessage());
@@ -1950,19 +2583,19 @@ public class SSDB {    private static final Logger LOG = LoggerFactory.getLogger
             return;
         }
         try {
-            PreparedStatement iStatement = iConnection.prepareStatement(
+            PreparedStatement iStatement = getDBConnection().prepare(
                     "UPDATE tbl_deliveryway SET deliveryway=? WHERE name=?");
 
             iStatement.setObject(1, iDeliveryWay);
             iStatement.setObject(2, iDeliveryWay.getName());
             iStatement.executeUpdate();
-            iConnection.commit();
+            commit();
             iStatement.close();
 
         } catch (SQLException e) {
             LOG.error("Unexpected error", e);
             try {
-                iConnection.rollback();
+                rollback();
             } catch (SQLException ignored) {}
             SSErrorDialog.showDialog(SSMainFrame.getInstance(), "SQL Error",
                     e.getMessage());
@@ -1974,18 +2607,18 @@ public class SSDB {    private static final Logger LOG = LoggerFactory.getLogger
             return;
         }
         try {
-            PreparedStatement iStatement = iConnection.prepareStatement(
+            PreparedStatement iStatement = getDBConnection().prepare(
                     "DELETE FROM tbl_deliveryway WHERE name=?");
 
             iStatement.setObject(1, iDeliveryWay.getName());
             iStatement.executeUpdate();
-            iConnection.commit();
+            commit();
             iStatement.close();
 
         } catch (SQLException e) {
             LOG.error("Unexpected error", e);
             try {
-                iConnection.rollback();
+                rollback();
             } catch (SQLException ignored) {}
             SSErrorDialog.showDialog(SSMainFrame.getInstance(), "SQL Error",
                     e.getMessage());
@@ -2003,7 +2636,7 @@ public class SSDB {    private static final Logger LOG = LoggerFactory.getLogger
         List<SSDeliveryTerm> iDeliveryTerms = new LinkedList<>();
 
         try {
-            PreparedStatement iStatement = iConnection.prepareStatement(
+            PreparedStatement iStatement = getDBConnection().prepare(
                     "SELECT * FROM tbl_deliveryterm");
             ResultSet iResultSet = iStatement.executeQuery();
 
@@ -2015,7 +2648,7 @@ public class SSDB {    private static final Logger LOG = LoggerFactory.getLogger
         } catch (SQLException e) {
             LOG.error("Unexpected error", e);
             try {
-                iConnection.rollback();
+                rollback();
             } catch (SQLException ignored) {}
             SSErrorDialog.showDialog(SSMainFrame.getInstance(), "SQL Error",
                     e.getMessage());
@@ -2028,18 +2661,18 @@ public class SSDB {    private static final Logger LOG = LoggerFactory.getLogger
             return;
         }
         try {
-            PreparedStatement iStatement = iConnection.prepareStatement(
+            PreparedStatement iStatement = getDBConnection().prepare(
                     "INSERT INTO tbl_deliveryterm VALUES(?,?)");
 
             iStatement.setObject(1, iDeliveryTerm.getName());
             iStatement.setObject(2, iDeliveryTerm);
             iStatement.executeUpdate();
-            iConnection.commit();
+            commit();
             iStatement.close();
         } catch (SQLException e) {
             LOG.error("Unexpected error", e);
             try {
-                iConnection.rollback();
+                rollback();
             } catch (SQLException ignored) {}
             SSErrorDialog.showDialog(SSMainFrame.getInstance(), "SQL Error",
                     e.getMessage());
@@ -2051,19 +2684,19 @@ public class SSDB {    private static final Logger LOG = LoggerFactory.getLogger
             return;
         }
         try {
-            PreparedStatement iStatement = iConnection.prepareStatement(
+            PreparedStatement iStatement = getDBConnection().prepare(
                     "UPDATE tbl_deliveryterm SET deliveryterm=? WHERE name=?");
 
             iStatement.setObject(1, iDeliveryTerm);
             iStatement.setObject(2, iDeliveryTerm.getName());
             iStatement.executeUpdate();
-            iConnection.commit();
+            commit();
             iStatement.close();
 
         } catch (SQLException e) {
             LOG.error("Unexpected error", e);
             try {
-                iConnection.rollback();
+                rollback();
             } catch (SQLException ignored) {}
             SSErrorDialog.showDialog(SSMainFrame.getInstance(), "SQL Error",
                     e.getMessage());
@@ -2075,18 +2708,18 @@ public class SSDB {    private static final Logger LOG = LoggerFactory.getLogger
             return;
         }
         try {
-            PreparedStatement iStatement = iConnection.prepareStatement(
+            PreparedStatement iStatement = getDBConnection().prepare(
                     "DELETE FROM tbl_deliveryterm WHERE name=?");
 
             iStatement.setObject(1, iDeliveryTerm.getName());
             iStatement.executeUpdate();
-            iConnection.commit();
+            commit();
             iStatement.close();
 
         } catch (SQLException e) {
             LOG.error("Unexpected error", e);
             try {
-                iConnection.rollback();
+                rollback();
             } catch (SQLException ignored) {}
             SSErrorDialog.showDialog(SSMainFrame.getInstance(), "SQL Error",
                     e.getMessage());
@@ -2104,7 +2737,7 @@ public class SSDB {    private static final Logger LOG = LoggerFactory.getLogger
         List<SSPaymentTerm> iPaymentTerms = new LinkedList<>();
 
         try {
-            PreparedStatement iStatement = iConnection.prepareStatement(
+            PreparedStatement iStatement = getDBConnection().prepare(
                     "SELECT * FROM tbl_paymentterm");
             ResultSet iResultSet = iStatement.executeQuery();
 
@@ -2116,7 +2749,7 @@ public class SSDB {    private static final Logger LOG = LoggerFactory.getLogger
         } catch (SQLException e) {
             LOG.error("Unexpected error", e);
             try {
-                iConnection.rollback();
+                rollback();
             } catch (SQLException ignored) {}
             SSErrorDialog.showDialog(SSMainFrame.getInstance(), "SQL Error",
                     e.getMessage());
@@ -2129,18 +2762,18 @@ public class SSDB {    private static final Logger LOG = LoggerFactory.getLogger
             return;
         }
         try {
-            PreparedStatement iStatement = iConnection.prepareStatement(
+            PreparedStatement iStatement = getDBConnection().prepare(
                     "INSERT INTO tbl_paymentterm VALUES(?,?)");
 
             iStatement.setObject(1, iPaymentTerm.getName());
             iStatement.setObject(2, iPaymentTerm);
             iStatement.executeUpdate();
-            iConnection.commit();
+            commit();
             iStatement.close();
         } catch (SQLException e) {
             LOG.error("Unexpected error", e);
             try {
-                iConnection.rollback();
+                rollback();
             } catch (SQLException ignored) {}
             SSErrorDialog.showDialog(SSMainFrame.getInstance(), "SQL Error",
                     e.getMessage());
@@ -2152,19 +2785,19 @@ public class SSDB {    private static final Logger LOG = LoggerFactory.getLogger
             return;
         }
         try {
-            PreparedStatement iStatement = iConnection.prepareStatement(
+            PreparedStatement iStatement = getDBConnection().prepare(
                     "UPDATE tbl_paymentterm SET paymentterm=? WHERE name=?");
 
             iStatement.setObject(1, iPaymentTerm);
             iStatement.setObject(2, iPaymentTerm.getName());
             iStatement.executeUpdate();
-            iConnection.commit();
+            commit();
             iStatement.close();
 
         } catch (SQLException e) {
             LOG.error("Unexpected error", e);
             try {
-                iConnection.rollback();
+                rollback();
             } catch (SQLException ignored) {}
             SSErrorDialog.showDialog(SSMainFrame.getInstance(), "SQL Error",
                     e.getMessage());
@@ -2176,18 +2809,18 @@ public class SSDB {    private static final Logger LOG = LoggerFactory.getLogger
             return;
         }
         try {
-            PreparedStatement iStatement = iConnection.prepareStatement(
+            PreparedStatement iStatement = getDBConnection().prepare(
                     "DELETE FROM tbl_paymentterm WHERE name=?");
 
             iStatement.setObject(1, iPaymentTerm.getName());
             iStatement.executeUpdate();
-            iConnection.commit();
+            commit();
             iStatement.close();
 
         } catch (SQLException e) {
             LOG.error("Unexpected error", e);
             try {
-                iConnection.rollback();
+                rollback();
             } catch (SQLException ignored) {}
             SSErrorDialog.showDialog(SSMainFrame.getInstance(), "SQL Error",
                     e.getMessage());
@@ -2197,16 +2830,20 @@ public class SSDB {    private static final Logger LOG = LoggerFactory.getLogger
     // //////////////////////////////////////////////////////////////////////////////////////
 
     public List<SSNewResultUnit> getResultUnits() {
+        return getResultUnitsForCompany(iCurrentCompany);
+    }
+
+    public List<SSNewResultUnit> getResultUnitsForCompany(SSNewCompany pCompany) {
         List<SSNewResultUnit> iResultUnits = new LinkedList<>();
 
-        if (iCurrentCompany == null) {
+        if (pCompany == null) {
             return iResultUnits;
         }
         try {
-            PreparedStatement iStatement = iConnection.prepareStatement(
+            PreparedStatement iStatement = getDBConnection().prepare(
                     "SELECT * FROM tbl_resultunit WHERE companyid=?");
 
-            iStatement.setObject(1, iCurrentCompany.getId());
+            iStatement.setObject(1, pCompany.getId());
             ResultSet iResultSet = iStatement.executeQuery();
 
             while (iResultSet.next()) {
@@ -2217,7 +2854,7 @@ public class SSDB {    private static final Logger LOG = LoggerFactory.getLogger
         } catch (SQLException e) {
             LOG.error("Unexpected error", e);
             try {
-                iConnection.rollback();
+                rollback();
             } catch (SQLException ignored) {}
             SSErrorDialog.showDialog(SSMainFrame.getInstance(), "SQL Error",
                     e.getMessage());
@@ -2233,7 +2870,7 @@ public class SSDB {    private static final Logger LOG = LoggerFactory.getLogger
             return Optional.empty();
         }
         try {
-            PreparedStatement iStatement = iConnection.prepareStatement(
+            PreparedStatement iStatement = getDBConnection().prepare(
                     "SELECT * FROM tbl_resultunit WHERE number=? AND companyid=?");
 
             iStatement.setObject(1, pResultUnit.getNumber());
@@ -2252,7 +2889,7 @@ public class SSDB {    private static final Logger LOG = LoggerFactory.getLogger
         } catch (SQLException e) {
             LOG.error("Unexpected error", e);
             try {
-                iConnection.rollback();
+                rollback();
             } catch (SQLException ignored) {}
             SSErrorDialog.showDialog(SSMainFrame.getInstance(), "SQL Error",
                     e.getMessage());
@@ -2268,7 +2905,7 @@ public class SSDB {    private static final Logger LOG = LoggerFactory.getLogger
             return Optional.empty();
         }
         try {
-            PreparedStatement iStatement = iConnection.prepareStatement(
+            PreparedStatement iStatement = getDBConnection().prepare(
                     "SELECT * FROM tbl_resultunit WHERE number=? AND companyid=?");
 
             iStatement.setObject(1, pResultUnitNumber);
@@ -2287,7 +2924,7 @@ public class SSDB {    private static final Logger LOG = LoggerFactory.getLogger
         } catch (SQLException e) {
             LOG.error("Unexpected error", e);
             try {
-                iConnection.rollback();
+                rollback();
             } catch (SQLException ignored) {}
             SSErrorDialog.showDialog(SSMainFrame.getInstance(), "SQL Error",
                     e.getMessage());
@@ -2305,25 +2942,15 @@ public class SSDB {    private static final Logger LOG = LoggerFactory.getLogger
             return iResultUnits;
         }
         try {
-            for (SSNewResultUnit iResultUnit : pResultUnits) {
-                PreparedStatement iStatement = iConnection.prepareStatement(
-                        "SELECT * FROM tbl_resultunit WHERE number=? AND companyid=?");
-
-                iStatement.setObject(1, iResultUnit.getNumber());
-                iStatement.setObject(2, iCurrentCompany.getId());
-                ResultSet iResultSet = iStatement.executeQuery();
-
-                if (iResultSet.next()) {
-                    iResultUnits.add((SSNewResultUnit) iResultSet.getObject("resultunit"));
-                }
-                iStatement.close();
-            }
+            iResultUnits.addAll(SSDBBulkReader.readIn(getDBConnection(),
+                    "SELECT * FROM tbl_resultunit WHERE number IN (%s) AND companyid=?", pResultUnits, SSNewResultUnit::getNumber, iCurrentCompany.getId(),
+                    iResultSet -> (SSNewResultUnit) iResultSet.getObject("resultunit")));
 
             return iResultUnits;
         } catch (SQLException e) {
             LOG.error("Unexpected error", e);
             try {
-                iConnection.rollback();
+                rollback();
             } catch (SQLException ignored) {}
             SSErrorDialog.showDialog(SSMainFrame.getInstance(), "SQL Error",
                     e.getMessage());
@@ -2339,19 +2966,19 @@ public class SSDB {    private static final Logger LOG = LoggerFactory.getLogger
             return;
         }
         try {
-            PreparedStatement iStatement = iConnection.prepareStatement(
+            PreparedStatement iStatement = getDBConnection().prepare(
                     "INSERT INTO tbl_resultunit VALUES(?,?,?)");
 
             iStatement.setObject(1, iResultUnit.getNumber());
             iStatement.setObject(2, iResultUnit);
             iStatement.setObject(3, iCurrentCompany.getId());
             iStatement.executeUpdate();
-            iConnection.commit();
+            commit();
             iStatement.close();
         } catch (SQLException e) {
             LOG.error("Unexpected error", e);
             try {
-                iConnection.rollback();
+                rollback();
             } catch (SQLException ignored) {}
             SSErrorDialog.showDialog(SSMainFrame.getInstance(), "SQL Error",
                     e.getMessage());
@@ -2363,20 +2990,20 @@ public class SSDB {    private static final Logger LOG = LoggerFactory.getLogger
             return;
         }
         try {
-            PreparedStatement iStatement = iConnection.prepareStatement(
+            PreparedStatement iStatement = getDBConnection().prepare(
                     "UPDATE tbl_resultunit SET resultunit=? WHERE number=? AND companyid=?");
 
             iStatement.setObject(1, iResultUnit);
             iStatement.setObject(2, iResultUnit.getNumber());
             iStatement.setObject(3, iCurrentCompany.getId());
             iStatement.executeUpdate();
-            iConnection.commit();
+            commit();
             iStatement.close();
 
         } catch (SQLException e) {
             LOG.error("Unexpected error", e);
             try {
-                iConnection.rollback();
+                rollback();
             } catch (SQLException ignored) {}
             SSErrorDialog.showDialog(SSMainFrame.getInstance(), "SQL Error",
                     e.getMessage());
@@ -2388,19 +3015,19 @@ public class SSDB {    private static final Logger LOG = LoggerFactory.getLogger
             return;
         }
         try {
-            PreparedStatement iStatement = iConnection.prepareStatement(
+            PreparedStatement iStatement = getDBConnection().prepare(
                     "DELETE FROM tbl_resultunit WHERE number=? AND companyid=?");
 
             iStatement.setObject(1, iResultUnit.getNumber());
             iStatement.setObject(2, iCurrentCompany.getId());
             iStatement.executeUpdate();
-            iConnection.commit();
+            commit();
             iStatement.close();
 
         } catch (SQLException e) {
             LOG.error("Unexpected error", e);
             try {
-                iConnection.rollback();
+                rollback();
             } catch (SQLException ignored) {}
             SSErrorDialog.showDialog(SSMainFrame.getInstance(), "SQL Error",
                     e.getMessage());
@@ -2410,16 +3037,20 @@ public class SSDB {    private static final Logger LOG = LoggerFactory.getLogger
     // //////////////////////////////////////////////////////////////////////////////////////
 
     public List<SSNewProject> getProjects() {
+        return getProjectsForCompany(iCurrentCompany);
+    }
+
+    public List<SSNewProject> getProjectsForCompany(SSNewCompany pCompany) {
         List<SSNewProject> iProjects = new LinkedList<>();
 
-        if (iCurrentCompany == null) {
+        if (pCompany == null) {
             return iProjects;
         }
         try {
-            PreparedStatement iStatement = iConnection.prepareStatement(
+            PreparedStatement iStatement = getDBConnection().prepare(
                     "SELECT * FROM tbl_project WHERE companyid=?");
 
-            iStatement.setObject(1, iCurrentCompany.getId());
+            iStatement.setObject(1, pCompany.getId());
             ResultSet iResultSet = iStatement.executeQuery();
 
             while (iResultSet.next()) {
@@ -2430,7 +3061,7 @@ public class SSDB {    private static final Logger LOG = LoggerFactory.getLogger
         } catch (SQLException e) {
             LOG.error("Unexpected error", e);
             try {
-                iConnection.rollback();
+                rollback();
             } catch (SQLException ignored) {}
             SSErrorDialog.showDialog(SSMainFrame.getInstance(), "SQL Error",
                     e.getMessage());
@@ -2446,7 +3077,7 @@ public class SSDB {    private static final Logger LOG = LoggerFactory.getLogger
             return Optional.empty();
         }
         try {
-            PreparedStatement iStatement = iConnection.prepareStatement(
+            PreparedStatement iStatement = getDBConnection().prepare(
                     "SELECT * FROM tbl_project WHERE number=? AND companyid=?");
 
             iStatement.setObject(1, pProject.getNumber());
@@ -2464,7 +3095,7 @@ public class SSDB {    private static final Logger LOG = LoggerFactory.getLogger
         } catch (SQLException e) {
             LOG.error("Unexpected error", e);
             try {
-                iConnection.rollback();
+                rollback();
             } catch (SQLException ignored) {}
             SSErrorDialog.showDialog(SSMainFrame.getInstance(), "SQL Error",
                     e.getMessage());
@@ -2480,7 +3111,7 @@ public class SSDB {    private static final Logger LOG = LoggerFactory.getLogger
             return Optional.empty();
         }
         try {
-            PreparedStatement iStatement = iConnection.prepareStatement(
+            PreparedStatement iStatement = getDBConnection().prepare(
                     "SELECT * FROM tbl_project WHERE number=? AND companyid=?");
 
             iStatement.setObject(1, pProjectNumber);
@@ -2498,7 +3129,7 @@ public class SSDB {    private static final Logger LOG = LoggerFactory.getLogger
         } catch (SQLException e) {
             LOG.error("Unexpected error", e);
             try {
-                iConnection.rollback();
+                rollback();
             } catch (SQLException ignored) {}
             SSErrorDialog.showDialog(SSMainFrame.getInstance(), "SQL Error",
                     e.getMessage());
@@ -2516,111 +3147,516 @@ public class SSDB {    private static final Logger LOG = LoggerFactory.getLogger
             return iProjects;
         }
         try {
-            for (SSNewProject iProject : pProjects) {
-                PreparedStatement iStatement = iConnection.prepareStatement(
-                        "SELECT * FROM tbl_project WHERE number=? AND companyid=?");
+            iProjects.addAll(SSDBBulkReader.readIn(getDBConnection(),
+                    "SELECT * FROM tbl_project WHERE number IN (%s) AND companyid=?", pProjects, SSNewProject::getNumber, iCurrentCompany.getId(),
+                    iResultSet -> (SSNewProject) iResultSet.getObject("project")));
 
-                iStatement.setObject(1, iProject.getNumber());
-                iStatement.setObject(2, iCurrentCompany.getId());
-                ResultSet iResultSet = iStatement.executeQuery();
+            return iProjects;
+        } catch (SQLException e) {
+            LOG.error("Unexpected error", e);
+            try {
+                rollback();
+            } catch (SQLException ignored) {}
+            SSErrorDialog.showDialog(SSMainFrame.getInstance(), "SQL Error",
+                    e.getMessage());
+        }
+        return Collections.emptyList();
+    }
 
-                if (iResultSet.next()) {
-                    iProjects.add((SSNewProject) iResultSet.getObject("project"));
-                }
-                iStatement.close();
-            }
+    public void addProject(SSNewProject iProject) {
+        if (iProject == null) {
+            return;
+        }
+        if (iCurrentCompany == null) {
+            return;
+        }
+        try {
+            PreparedStatement iStatement = getDBConnection().prepare(
+                    "INSERT INTO tbl_project VALUES(?,?,?)");
 
-            return iProjects;
+            iStatement.setObject(1, iProject.getNumber());
+            iStatement.setObject(2, iProject);
+            iStatement.setObject(3, iCurrentCompany.getId());
+            iStatement.executeUpdate();
+            commit();
+            iStatement.close();
         } catch (SQLException e) {
             LOG.error("Unexpected error", e);
             try {
-                iConnection.rollback();
+                rollback();
             } catch (SQLException ignored) {}
             SSErrorDialog.showDialog(SSMainFrame.getInstance(), "SQL Error",
                     e.getMessage());
         }
-        return Collections.emptyList();
-    }
-
-    public void addProject(SSNewProject iProject) {
-        if (iProject == null) {
-            return;
+    }
+
+    public void updateProject(SSNewProject iProject) {
+        if (iProject == null || iCurrentCompany == null) {
+            return;
+        }
+        try {
+            PreparedStatement iStatement = getDBConnection().prepare(
+                    "UPDATE tbl_project SET project=? WHERE number=? AND companyid=?");
+
+            iStatement.setObject(1, iProject);
+            iStatement.setObject(2, iProject.getNumber());
+            iStatement.setObject(3, iCurrentCompany.getId());
+            iStatement.executeUpdate();
+            commit();
+            iStatement.close();
+
+        } catch (SQLException e) {
+            LOG.error("Unexpected error", e);
+            try {
+                rollback();
+            } catch (SQLException ignored) {}
+            SSErrorDialog.showDialog(SSMainFrame.getInstance(), "SQL Error",
+                    e.getMessage());
+        }
+    }
+
+    public void deleteProject(SSNewProject iProject) {
+        if (iProject == null || iCurrentCompany == null) {
+            return;
+        }
+        try {
+            PreparedStatement iStatement = getDBConnection().prepare(
+                    "DELETE FROM tbl_project WHERE number=? AND companyid=?");
+
+            iStatement.setObject(1, iProject.getNumber());
+            iStatement.setObject(2, iCurrentCompany.getId());
+            iStatement.executeUpdate();
+            commit();
+            iStatement.close();
+
+        } catch (SQLException e) {
+            LOG.error("Unexpected error", e);
+            try {
+                rollback();
+            } catch (SQLException ignored) {}
+            SSErrorDialog.showDialog(SSMainFrame.getInstance(), "SQL Error",
+                    e.getMessage());
+        }
+    }
+
+    // //////////////////////////////////////////////////////////////////////////////////////
+
+    /**
+     * Longest time to wait for the triggers of a closed batch.
+     */
+    private static final long BATCH_MAX_WAIT = 5000;
+
+    /**
+     * Starts a batch of writes on this thread. Until the batch is closed the writes
+     * of this thread are not committed and the lists in memory are not updated row
+     * by row, see {@link SSDBBatch}. A batch started while this thread has one open
+     * joins the open batch.
+     *
+     * @param pName the name of the batch, for the log
+     * @return the batch, close it when done
+     */
+    public SSDBBatch beginBatch(String pName) {
+        SSDBBatch iOwnBatch = iBatch.get();
+
+        if (iOwnBatch != null) {
+            iOwnBatch.enter();
+            return iOwnBatch;
+        }
+        Connection iBatchConnection = null;
+
+        try {
+            DatabaseMetaData iMetaData = iConnection.getMetaData();
+
+            iBatchConnection = DriverManager.getConnection(iMetaData.getURL(), iMetaData.getUserName(), "");
+            iBatchConnection.setAutoCommit(false);
+        } catch (SQLException e) {
+            LOG.warn("Could not open a connection for the batch {}, committing row by row", pName, e);
+            iBatchConnection = null;
+        }
+        iOwnBatch = new SSDBBatch(this, pName, iBatchConnection, getTriggerNames());
+        iBatch.set(iOwnBatch);
+        iOpenBatches.add(iOwnBatch);
+        return iOwnBatch;
+    }
+
+    /**
+     *
+     * @return the open batch of this thread, or null
+     */
+    public SSDBBatch getBatch() {
+        return iBatch.get();
+    }
+
+    /**
+     * Commits or rolls back the batch, waits for its triggers and reads the
+     * changed registers again.
+     *
+     * @param pBatch
+     */
+    void endBatch(SSDBBatch pBatch) {
+        if (iBatch.get() != pBatch || !pBatch.leave()) {
+            return;
+        }
+        iBatch.remove();
+
+        SSDBConnection iBatchConnection = pBatch.getConnection();
+
+        if (iBatchConnection != null) {
+            try {
+                if (pBatch.isFailed()) {
+                    iBatchConnection.getConnection().rollback();
+                } else {
+                    updateChangedMonths(iBatchConnection, pBatch.getChangedMonths());
+                    iBatchConnection.getConnection().commit();
+                }
+            } catch (SQLException e) {
+                LOG.error("Unexpected error", e);
+                pBatch.setFailed();
+                try {
+                    iBatchConnection.getConnection().rollback();
+                } catch (SQLException ignored) {}
+                SSErrorDialog.showDialog(SSMainFrame.getInstance(), "SQL Error",
+                        e.getMessage());
+            }
+            if (pBatch.isFailed()) {
+                iVoucherRowVersion++;
+            }
+            try {
+                iBatchConnection.close();
+            } catch (SQLException e) {
+                LOG.error("Unexpected error", e);
+            }
+        }
+        pBatch.finish();
+
+        if (!pBatch.awaitTriggers(BATCH_MAX_WAIT)) {
+            LOG.warn("Batch {}: not all triggers received after {} ms", pBatch.getName(), BATCH_MAX_WAIT);
+        }
+        iOpenBatches.remove(pBatch);
+        refreshTables(pBatch.getTables());
+
+        LOG.info("Batch {}: {} rows in {} ms, {} rows/s{}", pBatch.getName(), pBatch.getRows(),
+                pBatch.getTime(), Math.round(pBatch.getRowsPerSecond()),
+                pBatch.isFailed() ? ", rolled back" : "");
+    }
+
+    /**
+     * Reads the names of the triggers of the database once.
+     *
+     * @return the trigger names, for example NEWINVOICE
+     */
+    private Set<String> getTriggerNames() {
+        Set<String> iNames = iTriggerNames;
+
+        if (iNames != null) {
+            return iNames;
+        }
+        iNames = new HashSet<>();
+        try (Statement iStatement = iConnection.createStatement();
+             ResultSet iResultSet = iStatement.executeQuery(
+                     "SELECT trigger_name FROM information_schema.system_triggers")) {
+            while (iResultSet.next()) {
+                iNames.add(iResultSet.getString(1));
+            }
+        } catch (SQLException e) {
+            LOG.warn("Could not read the triggers, batches will not wait for them", e);
+        }
+        iTriggerNames = iNames;
+        return iNames;
+    }
+
+    /**
+     * Commits the current transaction, unless this thread has a batch open.
+     * The registers written are read again if the trigger events of them were
+     * taken by the open batch of another thread.
+     *
+     * @throws SQLException
+     */
+    private void commit() throws SQLException {
+        SSDBBatch iOwnBatch = iBatch.get();
+
+        if (iOwnBatch != null && iOwnBatch.getConnection() != null) {
+            return;
+        }
+        updateChangedMonths(iDBConnection, iChangedMonths);
+        iConnection.commit();
+
+        Set<String> iWritten = iWrittenTables.get();
+        Set<String> iDeferred = new HashSet<>();
+
+        for (SSDBBatch iOpenBatch : iOpenBatches) {
+            for (String iTable : iWritten) {
+                if (iOpenBatch.isWriting(iTable)) {
+                    iDeferred.add(iTable);
+                }
+            }
+        }
+        iWritten.clear();
+        if (!iDeferred.isEmpty()) {
+            refreshTables(iDeferred);
+        }
+    }
+
+    /**
+     * Rolls back the current transaction. An open batch of this thread is rolled
+     * back as a whole when it is closed.
+     *
+     * @throws SQLException
+     */
+    private void rollback() throws SQLException {
+        SSDBBatch iOwnBatch = iBatch.get();
+
+        iVoucherRowVersion++;
+        if (iOwnBatch != null) {
+            iOwnBatch.setFailed();
+        }
+        if (iOwnBatch != null && iOwnBatch.getConnection() != null) {
+            synchronized (iOwnBatch.getChangedMonths()) {
+                iOwnBatch.getChangedMonths().clear();
+            }
+            iOwnBatch.getConnection().getConnection().rollback();
+            return;
+        }
+        synchronized (iChangedMonths) {
+            iChangedMonths.clear();
+        }
+        iWrittenTables.get().clear();
+        iConnection.rollback();
+    }
+
+    /**
+     * Reads the registers changed by a batch again and updates their frames,
+     * once per register instead of once per row.
+     *
+     * @param pTables the trigger names without NEW, EDIT or DELETE
+     */
+    private synchronized void refreshTables(Set<String> pTables) {
+        boolean iInvoiceSaldos = false;
+        boolean iSupplierInvoiceSaldos = false;
+        boolean iCustomerIndex = false;
+        boolean iSupplierIndex = false;
+        boolean iStock = false;
+
+        for (String iTable : pTables) {
+            switch (iTable) {
+            case "PRODUCT":
+                iProducts = null;
+                iStock = true;
+                break;
+
+            case "CUSTOMER":
+                iCustomers = null;
+                iCustomerIndex = true;
+                break;
+
+            case "SUPPLIER":
+                iSuppliers = null;
+                iSupplierIndex = true;
+                break;
+
+            case "AUTODIST":
+                iAutoDists = null;
+                break;
+
+            case "INPAYMENT":
+                iInpayments = null;
+                iInvoiceSaldos = true;
+                break;
+
+            case "TENDER":
+                iTenders = null;
+                break;
+
+            case "ORDER":
+                iOrders = null;
+                iStock = true;
+                break;
+
+            case "INVOICE":
+                iInvoices = null;
+                iStock = true;
+                iCustomerIndex = true;
+                iInvoiceSaldos = true;
+                break;
+
+            case "CREDITINVOICE":
+                iCreditInvoices = null;
+                iStock = true;
+                iInvoiceSaldos = true;
+                break;
+
+            case "PERIODICINVOICE":
+                iPeriodicInvoices = null;
+                break;
+
+            case "OUTPAYMENT":
+                iOutpayments = null;
+                iSupplierInvoiceSaldos = true;
+                break;
+
+            case "PURCHASEORDER":
+                iPurchaseOrders = null;
+                iStock = true;
+                break;
+
+            case "SUPPLIERINVOICE":
+                iSupplierInvoices = null;
+                iStock = true;
+                iSupplierIndex = true;
+                iSupplierInvoiceSaldos = true;
+                break;
+
+            case "SUPPLIERCREDITINVOICE":
+                iSupplierCreditInvoices = null;
+                iStock = true;
+                iSupplierInvoiceSaldos = true;
+                break;
+
+            case "INVENTORY":
+                iInventories = null;
+                iStock = true;
+                break;
+
+            case "INDELIVERY":
+                iIndeliveries = null;
+                iStock = true;
+                break;
+
+            case "OUTDELIVERY":
+                iOutdeliveries = null;
+                iStock = true;
+                break;
+
+            case "VOUCHER":
+                iVouchers = null;
+                iYearVouchers.clear();
+                break;
+
+            case "OWNREPORT":
+                iOwnReports = null;
+                break;
+
+            default:
+                break;
+            }
+        }
+
+        if (iStock) {
+            SSStockMath.reset();
+        }
+        if (iInvoiceSaldos && SSInvoiceMath.iSaldoMap != null) {
+            SSInvoiceMath.calculateSaldos();
+        }
+        if (iSupplierInvoiceSaldos && SSSupplierInvoiceMath.iSaldoMap != null) {
+            SSSupplierInvoiceMath.calculateSaldos();
+        }
+        if (iCustomerIndex && SSCustomerMath.iInvoicesForCustomers != null) {
+            SSCustomerMath.iInvoicesForCustomers = null;
+            SSCustomerMath.getInvoicesForCustomers();
+        }
+        if (iSupplierIndex && SSSupplierMath.iInvoicesForSuppliers != null) {
+            SSSupplierMath.iInvoicesForSuppliers = null;
+            SSSupplierMath.getInvoicesForSuppliers();
+        }
+
+        // The same frames as the triggers update
+        if (SSProductFrame.getInstance() != null && isChanged(pTables, "PRODUCT")) {
+            SSProductFrame.getInstance().updateFrame();
+        }
+        if (SSCustomerFrame.getInstance() != null && isChanged(pTables, "CUSTOMER", "INPAYMENT", "INVOICE", "CREDITINVOICE")) {
+            SSCustomerFrame.getInstance().updateFrame();
+        }
+        if (SSSupplierFrame.getInstance() != null && isChanged(pTables, "SUPPLIER", "OUTPAYMENT", "SUPPLIERINVOICE", "SUPPLIERCREDITINVOICE")) {
+            SSSupplierFrame.getInstance().updateFrame();
+        }
+        if (SSAutoDistFrame.getInstance() != null && isChanged(pTables, "AUTODIST")) {
+            SSAutoDistFrame.getInstance().updateFrame();
+        }
+        if (SSInpaymentFrame.getInstance() != null && isChanged(pTables, "INPAYMENT")) {
+            SSInpaymentFrame.getInstance().updateFrame();
+        }
+        if (SSTenderFrame.getInstance() != null && isChanged(pTables, "TENDER")) {
+            SSTenderFrame.getInstance().updateFrame();
+        }
+        if (SSOrderFrame.getInstance() != null && isChanged(pTables, "ORDER", "INVOICE", "PURCHASEORDER")) {
+            SSOrderFrame.getInstance().updateFrame();
+        }
+        if (SSInvoiceFrame.getInstance() != null && isChanged(pTables, "INVOICE", "INPAYMENT", "CREDITINVOICE")) {
+            SSInvoiceFrame.getInstance().updateFrame();
+        }
+        if (SSCreditInvoiceFrame.getInstance() != null && isChanged(pTables, "CREDITINVOICE")) {
+            SSCreditInvoiceFrame.getInstance().updateFrame();
+        }
+        if (SSPeriodicInvoiceFrame.getInstance() != null && isChanged(pTables, "PERIODICINVOICE")) {
+            SSPeriodicInvoiceFrame.getInstance().updateFrame();
+        }
+        if (SSOutpaymentFrame.getInstance() != null && isChanged(pTables, "OUTPAYMENT")) {
+            SSOutpaymentFrame.getInstance().updateFrame();
+        }
+        if (SSPurchaseOrderFrame.getInstance() != null && isChanged(pTables, "PURCHASEORDER")) {
+            SSPurchaseOrderFrame.getInstance().updateFrame();
         }
-        if (iCurrentCompany == null) {
-            return;
+        if (SSSupplierInvoiceFrame.getInstance() != null && isChanged(pTables, "SUPPLIERINVOICE", "OUTPAYMENT", "SUPPLIERCREDITINVOICE")) {
+            SSSupplierInvoiceFrame.getInstance().updateFrame();
         }
-        try {
-            PreparedStatement iStatement = iConnection.prepareStatement(
-                    "INSERT INTO tbl_project VALUES(?,?,?)");
-
-            iStatement.setObject(1, iProject.getNumber());
-            iStatement.setObject(2, iProject);
-            iStatement.setObject(3, iCurrentCompany.getId());
-            iStatement.executeUpdate();
-            iConnection.commit();
-            iStatement.close();
-        } catch (SQLException e) {
-            LOG.error("Unexpected error", e);
-            try {
-                iConnection.rollback();
-            } catch (SQLException ignored) {}
-            SSErrorDialog.showDialog(SSMainFrame.getInstance(), "SQL Error",
-                    e.getMessage());
+        if (SSSupplierCreditInvoiceFrame.getInstance() != null && isChanged(pTables, "SUPPLIERCREDITINVOICE")) {
+            SSSupplierCreditInvoiceFrame.getInstance().updateFrame();
         }
-    }
-
-    public void updateProject(SSNewProject iProject) {
-        if (iProject == null || iCurrentCompany == null) {
-            return;
+        if (SSInventoryFrame.getInstance() != null && isChanged(pTables, "INVENTORY")) {
+            SSInventoryFrame.getInstance().updateFrame();
         }
-        try {
-            PreparedStatement iStatement = iConnection.prepareStatement(
-                    "UPDATE tbl_project SET project=? WHERE number=? AND companyid=?");
-
-            iStatement.setObject(1, iProject);
-            iStatement.setObject(2, iProject.getNumber());
-            iStatement.setObject(3, iCurrentCompany.getId());
-            iStatement.executeUpdate();
-            iConnection.commit();
-            iStatement.close();
-
-        } catch (SQLException e) {
-            LOG.error("Unexpected error", e);
-            try {
-                iConnection.rollback();
-            } catch (SQLException ignored) {}
-            SSErrorDialog.showDialog(SSMainFrame.getInstance(), "SQL Error",
-                    e.getMessage());
+        if (SSIndeliveryFrame.getInstance() != null && isChanged(pTables, "INDELIVERY")) {
+            SSIndeliveryFrame.getInstance().updateFrame();
+        }
+        if (SSOutdeliveryFrame.getInstance() != null && isChanged(pTables, "OUTDELIVERY")) {
+            SSOutdeliveryFrame.getInstance().updateFrame();
+        }
+        if (SSVoucherFrame.getInstance() != null && isChanged(pTables, "VOUCHER")) {
+            SSVoucherFrame.getInstance().updateFrame();
+        }
+        if (SSOwnReportFrame.getInstance() != null && isChanged(pTables, "OWNREPORT")) {
+            SSOwnReportFrame.getInstance().updateFrame();
+        }
+        if (SSProjectFrame.getInstance() != null && isChanged(pTables, "PROJECT")) {
+            SSProjectFrame.getInstance().updateFrame();
+        }
+        if (SSResultUnitFrame.getInstance() != null && isChanged(pTables, "RESULTUNIT")) {
+            SSResultUnitFrame.getInstance().updateFrame();
+        }
+        if (SSVoucherTemplateFrame.getInstance() != null && isChanged(pTables, "VOUCHERTEMPLATE")) {
+            SSVoucherTemplateFrame.getInstance().updateFrame();
         }
     }
 
-    public void deleteProject(SSNewProject iProject) {
-        if (iProject == null || iCurrentCompany == null) {
-            return;
+    /**
+     *
+     * @param pTables
+     * @param pNames
+     * @return true if any of the registers is changed
+     */
+    private static boolean isChanged(Set<String> pTables, String... pNames) {
+        for (String iName : pNames) {
+            if (pTables.contains(iName)) {
+                return true;
+            }
         }
-        try {
-            PreparedStatement iStatement = iConnection.prepareStatement(
-                    "DELETE FROM tbl_project WHERE number=? AND companyid=?");
+        return false;
+    }
 
-            iStatement.setObject(1, iProject.getNumber());
-            iStatement.setObject(2, iCurrentCompany.getId());
-            iStatement.executeUpdate();
-            iConnection.commit();
-            iStatement.close();
+    public void triggerAction(String iTriggerName, String iTableName, String iNumber) {
+        String iRegister = SSDBBatch.getRegister(iTriggerName);
 
-        } catch (SQLException e) {
-            LOG.error("Unexpected error", e);
-            try {
-                iConnection.rollback();
-            } catch (SQLException ignored) {}
-            SSErrorDialog.showDialog(SSMainFrame.getInstance(), "SQL Error",
-                    e.getMessage());
+        // The lists are read again when the batch writing the register is closed
+        for (SSDBBatch iOpenBatch : iOpenBatches) {
+            if (iOpenBatch.isWriting(iRegister)) {
+                iOpenBatch.addEvent(iTriggerName);
+                return;
+            }
         }
+        updateFromTrigger(iTriggerName, iNumber);
     }
 
-    // //////////////////////////////////////////////////////////////////////////////////////
-
-    public synchronized void triggerAction(String iTriggerName, String iTableName, String iNumber) {
+    private synchronized void updateFromTrigger(String iTriggerName, String iNumber) {
 
         /** Körs då en trigger triggas i databasen. De flesta triggers uppdaterar listan som
          *  som motsvarar objekten triggen körts på. Projekt, Resultatenhet och konteringsmallar får
@@ -2628,6 +3664,10 @@ public class SSDB {    private static final Logger LOG = LoggerFactory.getLogger
          */
 
         try {
+            // The trigger does not tell which year a voucher belongs to
+            if (iTriggerName.endsWith("VOUCHER")) {
+                iYearVouchers.clear();
+            }
 
             /**
              *  REGISTER
@@ -2650,8 +3690,10 @@ public class SSDB {    private static final Logger LOG = LoggerFactory.getLogger
                     return;
                 }
                 iProduct = optProduct.get();
-
-                iProducts.add(iProduct);
+                if (!iProducts.contains(iProduct)) {
+                    iProducts.add(iProduct);
+                }
+                SSStockMath.reset();
                 iProduct = null;
                 if (SSProductFrame.getInstance() != null) {
                     SSProductFrame.getInstance().updateFrame();
@@ -2673,6 +3715,7 @@ public class SSDB {    private static final Logger LOG = LoggerFactory.getLogger
                 }
                 iProducts.remove(iIndex);
                 iProducts.add(iIndex, iProduct);
+                SSStockMath.reset();
                 iProduct = null;
                 if (SSProductFrame.getInstance() != null) {
                     SSProductFrame.getInstance().updateFrame();
@@ -2682,6 +3725,7 @@ public class SSDB {    private static final Logger LOG = LoggerFactory.getLogger
 
                 iProduct.setNumber(iNumber);
                 iProducts.remove(iProduct);
+                SSStockMath.reset();
                 iProduct = null;
                 if (SSProductFrame.getInstance() != null) {
                     SSProductFrame.getInstance().updateFrame();
@@ -2696,9 +3740,10 @@ public class SSDB {    private static final Logger LOG = LoggerFactory.getLogger
                     return;
                 }
                 iCustomer = optCustomer.get();
-                iCustomers.add(iCustomer);
-                SSCustomerMath.iInvoicesForCustomers.put(iCustomer.getNumber(),
-                        new LinkedList<>());
+                if (!iCustomers.contains(iCustomer)) {
+                    iCustomers.add(iCustomer);
+                    SSCustomerMath.customerAdded(iCustomer.getNumber());
+                }
                 iCustomer = null;
                 if (SSCustomerFrame.getInstance() != null) {
                     SSCustomerFrame.getInstance().updateFrame();
@@ -2743,9 +3788,10 @@ public class SSDB {    private static final Logger LOG = LoggerFactory.getLogger
                     return;
                 }
                 iSupplier = optSupplier.get();
-                iSuppliers.add(iSupplier);
-                SSSupplierMath.iInvoicesForSuppliers.put(iSupplier.getNumber(),
-                        new LinkedList<>());
+                if (!iSuppliers.contains(iSupplier)) {
+                    iSuppliers.add(iSupplier);
+                    SSSupplierMath.supplierAdded(iSupplier.getNumber());
+                }
                 iSupplier = null;
                 if (SSSupplierFrame.getInstance() != null) {
                     SSSupplierFrame.getInstance().updateFrame();
@@ -2795,7 +3841,9 @@ public class SSDB {    private static final Logger LOG = LoggerFactory.getLogger
                     return;
                 }
                 iAutoDist = optAutoDist.get();
-                iAutoDists.add(iAutoDist);
+                if (!iAutoDists.contains(iAutoDist)) {
+                    iAutoDists.add(iAutoDist);
+                }
                 iAutoDist = null;
                 if (SSAutoDistFrame.getInstance() != null) {
                     SSAutoDistFrame.getInstance().updateFrame();
@@ -2847,15 +3895,7 @@ public class SSDB {    private static final Logger LOG = LoggerFactory.getLogger
                 if (!iInpayments.contains(iInpayment)) {
                     iInpayments.add(iInpayment);
                 }
-                for (SSInpaymentRow iRow : iInpayment.getRows()) {
-                    if (iRow.getValue() != null && iRow.getInvoiceNr() != null) {
-                        if (SSInvoiceMath.iSaldoMap.containsKey(iRow.getInvoiceNr())) {
-                            SSInvoiceMath.iSaldoMap.put(iRow.getInvoiceNr(),
-                                    SSInvoiceMath.iSaldoMap.get(iRow.getInvoiceNr()).subtract(
-                                    iRow.getValue()));
-                        }
-                    }
-                }
+                SSInvoiceMath.inpaymentChanged(iInpayment);
                 if (SSCustomerFrame.getInstance() != null) {
                     SSCustomerFrame.getInstance().updateFrame();
                 }
@@ -2881,29 +3921,11 @@ public class SSDB {    private static final Logger LOG = LoggerFactory.getLogger
                 if (iIndex == -1) {
                     return;
                 }
-                SSInpayment iOldInpayment = iInpayments.get(iIndex);
 
-                for (SSInpaymentRow iRow : iOldInpayment.getRows()) {
-                    if (iRow.getValue() != null && iRow.getInvoiceNr() != null) {
-                        if (SSInvoiceMath.iSaldoMap.containsKey(iRow.getInvoiceNr())) {
-                            SSInvoiceMath.iSaldoMap.put(iRow.getInvoiceNr(),
-                                    SSInvoiceMath.iSaldoMap.get(iRow.getInvoiceNr()).add(
-                                    iRow.getValue()));
-                        }
-                    }
-                }
                 iInpayments.remove(iIndex);
 
                 iInpayments.add(iIndex, iInpayment);
-                for (SSInpaymentRow iRow : iInpayment.getRows()) {
-                    if (iRow.getValue() != null && iRow.getInvoiceNr() != null) {
-                        if (SSInvoiceMath.iSaldoMap.containsKey(iRow.getInvoiceNr())) {
-                            SSInvoiceMath.iSaldoMap.put(iRow.getInvoiceNr(),
-                                    SSInvoiceMath.iSaldoMap.get(iRow.getInvoiceNr()).subtract(
-                                    iRow.getValue()));
-                        }
-                    }
-                }
+                SSInvoiceMath.inpaymentChanged(iInpayment);
                 if (SSCustomerFrame.getInstance() != null) {
                     SSCustomerFrame.getInstance().updateFrame();
                 }
@@ -2919,6 +3941,7 @@ public class SSDB {    private static final Logger LOG = LoggerFactory.getLogger
 
                 iInpayment.setNumber(Integer.parseInt(iNumber));
                 iInpayments.remove(iInpayment);
+                SSInvoiceMath.inpaymentDeleted(iInpayment.getNumber());
 
                 iInpayment = null;
                 if (SSCustomerFrame.getInstance() != null) {
@@ -2992,6 +4015,7 @@ public class SSDB {    private static final Logger LOG = LoggerFactory.getLogger
                 if (!iOrders.contains(iOrder)) {
                     iOrders.add(iOrder);
                 }
+                SSStockMath.orderChanged(iOrder);
                 if (SSOrderFrame.getInstance() != null) {
                     SSOrderFrame.getInstance().updateFrame();
                 }
@@ -3013,6 +4037,7 @@ public class SSDB {    private static final Logger LOG = LoggerFactory.getLogger
                 }
                 iOrders.remove(iIndex);
                 iOrders.add(iIndex, iOrder);
+                SSStockMath.orderChanged(iOrder);
                 iOrder = null;
                 if (SSOrderFrame.getInstance() != null) {
                     SSOrderFrame.getInstance().updateFrame();
@@ -3022,6 +4047,7 @@ public class SSDB {    private static final Logger LOG = LoggerFactory.getLogger
 
                 iOrder.setNumber(Integer.parseInt(iNumber));
                 iOrders.remove(iOrder);
+                SSStockMath.documentDeleted("ORDER", iOrder.getNumber());
                 iOrder = null;
                 if (SSOrderFrame.getInstance() != null) {
                     SSOrderFrame.getInstance().updateFrame();
@@ -3039,19 +4065,9 @@ public class SSDB {    private static final Logger LOG = LoggerFactory.getLogger
                 if (!iInvoices.contains(iInvoice)) {
                     iInvoices.add(iInvoice);
                 }
-                SSInvoiceMath.iSaldoMap.put(iInvoice.getNumber(),
-                        SSInvoiceMath.getSaldo(iInvoice));
-                if (SSCustomerMath.iInvoicesForCustomers.containsKey(
-                        iInvoice.getCustomerNr())) {
-                    SSCustomerMath.iInvoicesForCustomers.get(iInvoice.getCustomerNr()).add(
-                            iInvoice);
-                } else {
-                    List<SSInvoice> iNumbers = new LinkedList<>();
-
-                    iNumbers.add(iInvoice);
-                    SSCustomerMath.iInvoicesForCustomers.put(iInvoice.getCustomerNr(),
-                            iNumbers);
-                }
+                SSStockMath.invoiceChanged(iInvoice);
+                SSInvoiceMath.invoiceChanged(iInvoice);
+                SSCustomerMath.invoiceChanged(iInvoice);
                 if (SSOrderFrame.getInstance() != null) {
                     SSOrderFrame.getInstance().updateFrame();
                 }
@@ -3079,16 +4095,9 @@ public class SSDB {    private static final Logger LOG = LoggerFactory.getLogger
                 }
                 iInvoices.remove(iIndex);
                 iInvoices.add(iIndex, iInvoice);
-                SSInvoiceMath.iSaldoMap.put(iInvoice.getNumber(),
-                        SSInvoiceMath.getSaldo(iInvoice));
-                iIndex = SSCustomerMath.iInvoicesForCustomers.get(iInvoice.getCustomerNr()).indexOf(
-                        iInvoice);
-                if (iIndex != -1) {
-                    SSCustomerMath.iInvoicesForCustomers.get(iInvoice.getCustomerNr()).remove(
-                            iIndex);
-                    SSCustomerMath.iInvoicesForCustomers.get(iInvoice.getCustomerNr()).add(
-                            iIndex, iInvoice);
-                }
+                SSStockMath.invoiceChanged(iInvoice);
+                SSInvoiceMath.invoiceChanged(iInvoice);
+                SSCustomerMath.invoiceChanged(iInvoice);
                 iInvoice = null;
                 if (SSOrderFrame.getInstance() != null) {
                     SSOrderFrame.getInstance().updateFrame();
@@ -3104,7 +4113,9 @@ public class SSDB {    private static final Logger LOG = LoggerFactory.getLogger
 
                 iInvoice.setNumber(Integer.parseInt(iNumber));
                 iInvoices.remove(iInvoice);
-                SSInvoiceMath.iSaldoMap.remove(iInvoice.getNumber());
+                SSStockMath.documentDeleted("INVOICE", iInvoice.getNumber());
+                SSInvoiceMath.invoiceDeleted(iInvoice.getNumber());
+                SSCustomerMath.invoiceDeleted(iInvoice.getNumber());
                 iInvoice = null;
                 if (SSCustomerFrame.getInstance() != null) {
                     SSCustomerFrame.getInstance().updateFrame();
@@ -3125,12 +4136,9 @@ public class SSDB {    private static final Logger LOG = LoggerFactory.getLogger
                 if (!iCreditInvoices.contains(iCreditInvoice)) {
                     iCreditInvoices.add(iCreditInvoice);
                 }
+                SSStockMath.creditInvoiceChanged(iCreditInvoice);
 
-                if (SSInvoiceMath.iSaldoMap.containsKey(iCreditInvoice.getCreditingNr())) {
-                    SSInvoiceMath.iSaldoMap.put(iCreditInvoice.getCreditingNr(),
-                            SSInvoiceMath.iSaldoMap.get(iCreditInvoice.getCreditingNr()).subtract(
-                            SSCreditInvoiceMath.getTotalSum(iCreditInvoice)));
-                }
+                SSInvoiceMath.creditInvoiceChanged(iCreditInvoice);
                 if (SSCustomerFrame.getInstance() != null) {
                     SSCustomerFrame.getInstance().updateFrame();
                 }
@@ -3156,13 +4164,7 @@ public class SSDB {    private static final Logger LOG = LoggerFactory.getLogger
                 if (iIndex == -1) {
                     return;
                 }
-                SSCreditInvoice iOldCreditInvoice = iCreditInvoices.get(iIndex);
 
-                if (SSInvoiceMath.iSaldoMap.containsKey(iOldCreditInvoice.getCreditingNr())) {
-                    SSInvoiceMath.iSaldoMap.put(iOldCreditInvoice.getCreditingNr(),
-                            SSInvoiceMath.iSaldoMap.get(iOldCreditInvoice.getCreditingNr()).add(
-                            SSCreditInvoiceMath.getTotalSum(iOldCreditInvoice)));
-                }
                 if (SSCustomerFrame.getInstance() != null) {
                     SSCustomerFrame.getInstance().updateFrame();
                 }
@@ -3171,11 +4173,8 @@ public class SSDB {    private static final Logger LOG = LoggerFactory.getLogger
                 }
                 iCreditInvoices.remove(iIndex);
                 iCreditInvoices.add(iIndex, iCreditInvoice);
-                if (SSInvoiceMath.iSaldoMap.containsKey(iCreditInvoice.getCreditingNr())) {
-                    SSInvoiceMath.iSaldoMap.put(iCreditInvoice.getCreditingNr(),
-                            SSInvoiceMath.iSaldoMap.get(iCreditInvoice.getCreditingNr()).subtract(
-                            SSCreditInvoiceMath.getTotalSum(iCreditInvoice)));
-                }
+                SSStockMath.creditInvoiceChanged(iCreditInvoice);
+                SSInvoiceMath.creditInvoiceChanged(iCreditInvoice);
                 if (SSInvoiceFrame.getInstance() != null) {
                     SSInvoiceFrame.getInstance().updateFrame();
                 }
@@ -3189,6 +4188,8 @@ public class SSDB {    private static final Logger LOG = LoggerFactory.getLogger
 
                 iCreditInvoice.setNumber(Integer.parseInt(iNumber));
                 iCreditInvoices.remove(iCreditInvoice);
+                SSStockMath.documentDeleted("CREDITINVOICE", iCreditInvoice.getNumber());
+                SSInvoiceMath.creditInvoiceDeleted(iCreditInvoice.getNumber());
                 iCreditInvoice = null;
                 if (SSCustomerFrame.getInstance() != null) {
                     SSCustomerFrame.getInstance().updateFrame();
@@ -3261,16 +4262,7 @@ public class SSDB {    private static final Logger LOG = LoggerFactory.getLogger
                 if (!iOutpayments.contains(iOutpayment)) {
                     iOutpayments.add(iOutpayment);
                 }
-                for (SSOutpaymentRow iRow : iOutpayment.getRows()) {
-                    if (iRow.getValue() != null && iRow.getInvoiceNr() != null) {
-                        if (SSSupplierInvoiceMath.iSaldoMap.containsKey(
-                                iRow.getInvoiceNr())) {
-                            SSSupplierInvoiceMath.iSaldoMap.put(iRow.getInvoiceNr(),
-                                    SSSupplierInvoiceMath.iSaldoMap.get(iRow.getInvoiceNr()).subtract(
-                                    iRow.getValue()));
-                        }
-                    }
-                }
+                SSSupplierInvoiceMath.outpaymentChanged(iOutpayment);
                 if (SSSupplierFrame.getInstance() != null) {
                     SSSupplierFrame.getInstance().updateFrame();
                 }
@@ -3296,30 +4288,10 @@ public class SSDB {    private static final Logger LOG = LoggerFactory.getLogger
                 if (iIndex == -1) {
                     return;
                 }
-                SSOutpayment iOldOutpayment = iOutpayments.get(iIndex);
 
-                for (SSOutpaymentRow iRow : iOldOutpayment.getRows()) {
-                    if (iRow.getValue() != null && iRow.getInvoiceNr() != null) {
-                        if (SSSupplierInvoiceMath.iSaldoMap.containsKey(
-                                iRow.getInvoiceNr())) {
-                            SSSupplierInvoiceMath.iSaldoMap.put(iRow.getInvoiceNr(),
-                                    SSSupplierInvoiceMath.iSaldoMap.get(iRow.getInvoiceNr()).add(
-                                    iRow.getValue()));
-                        }
-                    }
-                }
                 iOutpayments.remove(iIndex);
                 iOutpayments.add(iIndex, iOutpayment);
-                for (SSOutpaymentRow iRow : iOutpayment.getRows()) {
-                    if (iRow.getValue() != null && iRow.getInvoiceNr() != null) {
-                        if (SSSupplierInvoiceMath.iSaldoMap.containsKey(
-                                iRow.getInvoiceNr())) {
-                            SSSupplierInvoiceMath.iSaldoMap.put(iRow.getInvoiceNr(),
-                                    SSSupplierInvoiceMath.iSaldoMap.get(iRow.getInvoiceNr()).subtract(
-                                    iRow.getValue()));
-                        }
-                    }
-                }
+                SSSupplierInvoiceMath.outpaymentChanged(iOutpayment);
                 iOutpayment = null;
                 if (SSSupplierFrame.getInstance() != null) {
                     SSSupplierFrame.getInstance().updateFrame();
@@ -3335,6 +4307,7 @@ public class SSDB {    private static final Logger LOG = LoggerFactory.getLogger
 
                 iOutpayment.setNumber(Integer.parseInt(iNumber));
                 iOutpayments.remove(iOutpayment);
+                SSSupplierInvoiceMath.outpaymentDeleted(iOutpayment.getNumber());
                 iOutpayment = null;
                 if (SSSupplierFrame.getInstance() != null) {
                     SSSupplierFrame.getInstance().updateFrame();
@@ -3358,6 +4331,7 @@ public class SSDB {    private static final Logger LOG = LoggerFactory.getLogger
                 if (!iPurchaseOrders.contains(iPurchaseOrder)) {
                     iPurchaseOrders.add(iPurchaseOrder);
                 }
+                SSStockMath.purchaseOrderChanged(iPurchaseOrder);
                 if (SSOrderFrame.getInstance() != null) {
                     SSOrderFrame.getInstance().updateFrame();
                 }
@@ -3382,6 +4356,7 @@ public class SSDB {    private static final Logger LOG = LoggerFactory.getLogger
                 }
                 iPurchaseOrders.remove(iIndex);
                 iPurchaseOrders.add(iIndex, iPurchaseOrder);
+                SSStockMath.purchaseOrderChanged(iPurchaseOrder);
                 iPurchaseOrder = null;
                 if (SSPurchaseOrderFrame.getInstance() != null) {
                     SSPurchaseOrderFrame.getInstance().updateFrame();
@@ -3392,6 +4367,7 @@ public class SSDB {    private static final Logger LOG = LoggerFactory.getLogger
 
                 iPurchaseOrder.setNumber(Integer.parseInt(iNumber));
                 iPurchaseOrders.remove(iPurchaseOrder);
+                SSStockMath.documentDeleted("PURCHASEORDER", iPurchaseOrder.getNumber());
                 iPurchaseOrder = null;
                 if (SSOrderFrame.getInstance() != null) {
                     SSOrderFrame.getInstance().updateFrame();
@@ -3413,19 +4389,9 @@ public class SSDB {    private static final Logger LOG = LoggerFactory.getLogger
                 if (!iSupplierInvoices.contains(iSupplierInvoice)) {
                     iSupplierInvoices.add(iSupplierInvoice);
                 }
-                SSSupplierInvoiceMath.iSaldoMap.put(iSupplierInvoice.getNumber(),
-                        SSSupplierInvoiceMath.getSaldo(iSupplierInvoice));
-                if (SSSupplierMath.iInvoicesForSuppliers.containsKey(
-                        iSupplierInvoice.getSupplierNr())) {
-                    SSSupplierMath.iInvoicesForSuppliers.get(iSupplierInvoice.getSupplierNr()).add(
-                            iSupplierInvoice);
-                } else {
-                    List<SSSupplierInvoice> iNumbers = new LinkedList<>();
-
-                    iNumbers.add(iSupplierInvoice);
-                    SSSupplierMath.iInvoicesForSuppliers.put(
-                            iSupplierInvoice.getSupplierNr(), iNumbers);
-                }
+                SSStockMath.supplierInvoiceChanged(iSupplierInvoice);
+                SSSupplierInvoiceMath.supplierInvoiceChanged(iSupplierInvoice);
+                SSSupplierMath.invoiceChanged(iSupplierInvoice);
                 if (SSSupplierFrame.getInstance() != null) {
                     SSSupplierFrame.getInstance().updateFrame();
                 }
@@ -3451,16 +4417,9 @@ public class SSDB {    private static final Logger LOG = LoggerFactory.getLogger
                 }
                 iSupplierInvoices.remove(iIndex);
                 iSupplierInvoices.add(iIndex, iSupplierInvoice);
-                SSSupplierInvoiceMath.iSaldoMap.put(iSupplierInvoice.getNumber(),
-                        SSSupplierInvoiceMath.getSaldo(iSupplierInvoice));
-                iIndex = SSSupplierMath.iInvoicesForSuppliers.get(iSupplierInvoice.getSupplierNr()).indexOf(
-                        iSupplierInvoice);
-                if (iIndex != -1) {
-                    SSSupplierMath.iInvoicesForSuppliers.get(iSupplierInvoice.getSupplierNr()).remove(
-                            iIndex);
-                    SSSupplierMath.iInvoicesForSuppliers.get(iSupplierInvoice.getSupplierNr()).add(
-                            iIndex, iSupplierInvoice);
-                }
+                SSStockMath.supplierInvoiceChanged(iSupplierInvoice);
+                SSSupplierInvoiceMath.supplierInvoiceChanged(iSupplierInvoice);
+                SSSupplierMath.invoiceChanged(iSupplierInvoice);
                 iSupplierInvoice = null;
                 if (SSSupplierFrame.getInstance() != null) {
                     SSSupplierFrame.getInstance().updateFrame();
@@ -3474,7 +4433,9 @@ public class SSDB {    private static final Logger LOG = LoggerFactory.getLogger
 
                 iSupplierInvoice.setNumber(Integer.parseInt(iNumber));
                 iSupplierInvoices.remove(iSupplierInvoice);
-                SSSupplierInvoiceMath.iSaldoMap.remove(iSupplierInvoice.getNumber());
+                SSStockMath.documentDeleted("SUPPLIERINVOICE", iSupplierInvoice.getNumber());
+                SSSupplierInvoiceMath.supplierInvoiceDeleted(iSupplierInvoice.getNumber());
+                SSSupplierMath.invoiceDeleted(iSupplierInvoice.getNumber());
                 iSupplierInvoice = null;
                 if (SSSupplierFrame.getInstance() != null) {
                     SSSupplierFrame.getInstance().updateFrame();
@@ -3496,14 +4457,8 @@ public class SSDB {    private static final Logger LOG = LoggerFactory.getLogger
                 if (!iSupplierCreditInvoices.contains(iSupplierCreditInvoice)) {
                     iSupplierCreditInvoices.add(iSupplierCreditInvoice);
                 }
-                if (SSSupplierInvoiceMath.iSaldoMap.containsKey(
-                        iSupplierCreditInvoice.getCreditingNr())) {
-                    SSSupplierInvoiceMath.iSaldoMap.put(
-                            iSupplierCreditInvoice.getCreditingNr(),
-                            SSSupplierInvoiceMath.iSaldoMap.get(iSupplierCreditInvoice.getCreditingNr()).subtract(
-                                    SSSupplierInvoiceMath.getTotalSum(
-                                            iSupplierCreditInvoice)));
-                }
+                SSStockMath.supplierCreditInvoiceChanged(iSupplierCreditInvoice);
+                SSSupplierInvoiceMath.supplierCreditInvoiceChanged(iSupplierCreditInvoice);
                 if (SSSupplierFrame.getInstance() != null) {
                     SSSupplierFrame.getInstance().updateFrame();
                 }
@@ -3530,27 +4485,11 @@ public class SSDB {    private static final Logger LOG = LoggerFactory.getLogger
                 if (iIndex == -1) {
                     return;
                 }
-                SSSupplierCreditInvoice iOldSupplierCreditInvoice = iSupplierCreditInvoices.get(
-                        iIndex);
 
-                if (SSSupplierInvoiceMath.iSaldoMap.containsKey(
-                        iOldSupplierCreditInvoice.getCreditingNr())) {
-                    SSSupplierInvoiceMath.iSaldoMap.put(
-                            iOldSupplierCreditInvoice.getCreditingNr(),
-                            SSSupplierInvoiceMath.iSaldoMap.get(iOldSupplierCreditInvoice.getCreditingNr()).add(
-                                    SSSupplierInvoiceMath.getTotalSum(
-                                            iOldSupplierCreditInvoice)));
-                }
                 iSupplierCreditInvoices.remove(iIndex);
                 iSupplierCreditInvoices.add(iIndex, iSupplierCreditInvoice);
-                if (SSSupplierInvoiceMath.iSaldoMap.containsKey(
-                        iSupplierCreditInvoice.getCreditingNr())) {
-                    SSSupplierInvoiceMath.iSaldoMap.put(
-                            iSupplierCreditInvoice.getCreditingNr(),
-                            SSSupplierInvoiceMath.iSaldoMap.get(iSupplierCreditInvoice.getCreditingNr()).subtract(
-                                    SSSupplierInvoiceMath.getTotalSum(
-                                            iSupplierCreditInvoice)));
-                }
+                SSStockMath.supplierCreditInvoiceChanged(iSupplierCreditInvoice);
+                SSSupplierInvoiceMath.supplierCreditInvoiceChanged(iSupplierCreditInvoice);
                 if (SSSupplierInvoiceFrame.getInstance() != null) {
                     SSSupplierInvoiceFrame.getInstance().updateFrame();
                 }
@@ -3567,6 +4506,8 @@ public class SSDB {    private static final Logger LOG = LoggerFactory.getLogger
 
                 iSupplierCreditInvoice.setNumber(Integer.parseInt(iNumber));
                 iSupplierCreditInvoices.remove(iSupplierCreditInvoice);
+                SSStockMath.documentDeleted("SUPPLIERCREDITINVOICE", iSupplierCreditInvoice.getNumber());
+                SSSupplierInvoiceMath.supplierCreditInvoiceDeleted(iSupplierCreditInvoice.getNumber());
                 iSupplierCreditInvoice = null;
                 if (SSSupplierFrame.getInstance() != null) {
                     SSSupplierFrame.getInstance().updateFrame();
@@ -3592,6 +4533,7 @@ public class SSDB {    private static final Logger LOG = LoggerFactory.getLogger
                 if (!iInventories.contains(iInventory)) {
                     iInventories.add(iInventory);
                 }
+                SSStockMath.inventoryChanged(iInventory);
                 if (SSInventoryFrame.getInstance() != null) {
                     SSInventoryFrame.getInstance().updateFrame();
                 }
@@ -3613,6 +4555,7 @@ public class SSDB {    private static final Logger LOG = LoggerFactory.getLogger
                 }
                 iInventories.remove(iIndex);
                 iInventories.add(iIndex, iInventory);
+                SSStockMath.inventoryChanged(iInventory);
                 iInventory = null;
                 if (SSInventoryFrame.getInstance() != null) {
                     SSInventoryFrame.getInstance().updateFrame();
@@ -3622,6 +4565,7 @@ public class SSDB {    private static final Logger LOG = LoggerFactory.getLogger
 
                 iInventory.setNumber(Integer.parseInt(iNumber));
                 iInventories.remove(iInventory);
+                SSStockMath.documentDeleted("INVENTORY", iInventory.getNumber());
                 iInventory = null;
                 if (SSInventoryFrame.getInstance() != null) {
                     SSInventoryFrame.getInstance().updateFrame();
@@ -3639,6 +4583,7 @@ public class SSDB {    private static final Logger LOG = LoggerFactory.getLogger
                 if (!iIndeliveries.contains(iIndelivery)) {
                     iIndeliveries.add(iIndelivery);
                 }
+                SSStockMath.indeliveryChanged(iIndelivery);
                 if (SSIndeliveryFrame.getInstance() != null) {
                     SSIndeliveryFrame.getInstance().updateFrame();
                 }
@@ -3660,6 +4605,7 @@ public class SSDB {    private static final Logger LOG = LoggerFactory.getLogger
                 }
                 iIndeliveries.remove(iIndex);
                 iIndeliveries.add(iIndex, iIndelivery);
+                SSStockMath.indeliveryChanged(iIndelivery);
                 iIndelivery = null;
                 if (SSIndeliveryFrame.getInstance() != null) {
                     SSIndeliveryFrame.getInstance().updateFrame();
@@ -3669,6 +4615,7 @@ public class SSDB {    private static final Logger LOG = LoggerFactory.getLogger
 
                 iIndelivery.setNumber(Integer.parseInt(iNumber));
                 iIndeliveries.remove(iIndelivery);
+                SSStockMath.documentDeleted("INDELIVERY", iIndelivery.getNumber());
                 iIndelivery = null;
                 if (SSIndeliveryFrame.getInstance() != null) {
                     SSIndeliveryFrame.getInstance().updateFrame();
@@ -3686,6 +4633,7 @@ public class SSDB {    private static final Logger LOG = LoggerFactory.getLogger
                 if (!iOutdeliveries.contains(iOutdelivery)) {
                     iOutdeliveries.add(iOutdelivery);
                 }
+                SSStockMath.outdeliveryChanged(iOutdelivery);
                 if (SSOutdeliveryFrame.getInstance() != null) {
                     SSOutdeliveryFrame.getInstance().updateFrame();
                 }
@@ -3707,6 +4655,7 @@ public class SSDB {    private static final Logger LOG = LoggerFactory.getLogger
                 }
                 iOutdeliveries.remove(iIndex);
                 iOutdeliveries.add(iIndex, iOutdelivery);
+                SSStockMath.outdeliveryChanged(iOutdelivery);
                 iOutdelivery = null;
                 if (SSOutdeliveryFrame.getInstance() != null) {
                     SSOutdeliveryFrame.getInstance().updateFrame();
@@ -3716,6 +4665,7 @@ public class SSDB {    private static final Logger LOG = LoggerFactory.getLogger
 
                 iOutdelivery.setNumber(Integer.parseInt(iNumber));
                 iOutdeliveries.remove(iOutdelivery);
+                SSStockMath.documentDeleted("OUTDELIVERY", iOutdelivery.getNumber());
                 iOutdelivery = null;
                 if (SSOutdeliveryFrame.getInstance() != null) {
                     SSOutdeliveryFrame.getInstance().updateFrame();
@@ -3830,34 +4780,13 @@ public class SSDB {    private static final Logger LOG = LoggerFactory.getLogger
             return iProducts;
         }
         try {
-            Integer iMax = -1;
-            ResultSet iResultSet;
-            PreparedStatement iStatement;
-
-            while (true) {
-                iStatement = iConnection.prepareStatement(
-                        "SELECT * FROM tbl_product WHERE companyid=? AND id>?");
-                iStatement.setObject(1, iCurrentCompany.getId());
-                iStatement.setObject(2, iMax);
-                iStatement.setMaxRows(1024);
-                iResultSet = iStatement.executeQuery();
-                int i = 0;
-
-                while (iResultSet.next()) {
-                    iMax = iResultSet.getInt(1);
-                    iProducts.add((SSProduct) iResultSet.getObject(3));
-                    i++;
-                }
-                if (i != 1024) {
-                    break;
-                }
-            }
-            iResultSet.close();
-            iStatement.close();
+            SSDBBulkReader.forEach(getDBConnection(),
+                    "SELECT * FROM tbl_product WHERE companyid=? AND id>? ORDER BY id", iCurrentCompany.getId(),
+                    iResultSet -> SSEntityCodecs.decode(iResultSet.getObject(3), SSProduct.class), iProducts::add);
         } catch (SQLException e) {
             LOG.error("Unexpected error", e);
             try {
-                iConnection.rollback();
+                rollback();
             } catch (SQLException ignored) {}
             SSErrorDialog.showDialog(SSMainFrame.getInstance(), "SQL Error",
                     e.getMessage());
@@ -3873,7 +4802,7 @@ public class SSDB {    private static final Logger LOG = LoggerFactory.getLogger
             return Optional.empty();
         }
         try {
-            PreparedStatement iStatement = iConnection.prepareStatement(
+            PreparedStatement iStatement = getDBConnection().prepare(
                     "SELECT * FROM tbl_product WHERE number=? AND companyid=?");
 
             iStatement.setObject(1, pProduct.getNumber());
@@ -3881,7 +4810,7 @@ public class SSDB {    private static final Logger LOG = LoggerFactory.getLogger
             ResultSet iResultSet = iStatement.executeQuery();
 
             if (iResultSet.next()) {
-                SSProduct iProduct = (SSProduct) iResultSet.getObject(3);
+                SSProduct iProduct = SSEntityCodecs.decode(iResultSet.getObject(3), SSProduct.class);
 
                 iStatement.close();
                 return Optional.of(iProduct);
@@ -3891,7 +4820,7 @@ public class SSDB {    private static final Logger LOG = LoggerFactory.getLogger
         } catch (SQLException e) {
             LOG.error("Unexpected error", e);
             try {
-                iConnection.rollback();
+                rollback();
             } catch (SQLException ignored) {}
             SSErrorDialog.showDialog(SSMainFrame.getInstance(), "SQL Error",
                     e.getMessage());
@@ -3915,7 +4844,7 @@ public class SSDB {    private static final Logger LOG = LoggerFactory.getLogger
             ResultSet iResultSet = iStatement.executeQuery();
 
             if (iResultSet.next()) {
-                SSProduct iProduct = (SSProduct) iResultSet.getObject(3);
+                SSProduct iProduct = SSEntityCodecs.decode(iResultSet.getObject(3), SSProduct.class);
 
                 iStatement.close();
                 return Optional.of(iProduct);
@@ -3925,7 +4854,7 @@ public class SSDB {    private static final Logger LOG = LoggerFactory.getLogger
         } catch (SQLException e) {
             LOG.error("Unexpected error", e);
             try {
-                iConnection.rollback();
+                rollback();
             } catch (SQLException ignored) {}
             SSErrorDialog.showDialog(SSMainFrame.getInstance(), "SQL Error",
                     e.getMessage());
@@ -3951,25 +4880,15 @@ public class SSDB {    private static final Logger LOG = LoggerFactory.getLogger
             return iProducts;
         }
         try {
-            for (SSProduct iProduct : pProducts) {
-                PreparedStatement iStatement = iConnection.prepareStatement(
-                        "SELECT * FROM tbl_product WHERE number=? AND companyid=?");
-
-                iStatement.setObject(1, iProduct.getNumber());
-                iStatement.setObject(2, iCurrentCompany.getId());
-                ResultSet iResultSet = iStatement.executeQuery();
-
-                if (iResultSet.next()) {
-                    iProducts.add((SSProduct) iResultSet.getObject(3));
-                }
-                iStatement.close();
-            }
+            iProducts.addAll(SSDBBulkReader.readIn(getDBConnection(),
+                    "SELECT * FROM tbl_product WHERE number IN (%s) AND companyid=?", pProducts, SSProduct::getNumber, iCurrentCompany.getId(),
+                    iResultSet -> SSEntityCodecs.decode(iResultSet.getObject(3), SSProduct.class)));
 
             return iProducts;
         } catch (SQLException e) {
             LOG.error("Unexpected error", e);
             try {
-                iConnection.rollback();
+                rollback();
             } catch (SQLException ignored) {}
             SSErrorDialog.showDialog(SSMainFrame.getInstance(), "SQL Error",
                     e.getMessage());
@@ -3985,19 +4904,19 @@ public class SSDB {    private static final Logger LOG = LoggerFactory.getLogger
             return;
         }
         try {
-            PreparedStatement iStatement = iConnection.prepareStatement(
+            PreparedStatement iStatement = getDBConnection().prepare(
                     "INSERT INTO tbl_product VALUES(NULL,?,?,?)");
 
             iStatement.setObject(1, iProduct.getNumber());
-            iStatement.setObject(2, iProduct);
+            iStatement.setObject(2, SSEntityCodecs.encode(iProduct));
             iStatement.setObject(3, iCurrentCompany.getId());
             iStatement.executeUpdate();
-            iConnection.commit();
+            commit();
             iStatement.close();
         } catch (SQLException e) {
             LOG.error("Unexpected error", e);
             try {
-                iConnection.rollback();
+                rollback();
             } catch (SQLException ignored) {}
             SSErrorDialog.showDialog(SSMainFrame.getInstance(), "SQL Error",
                     e.getMessage());
@@ -4008,21 +4927,18 @@ public class SSDB {    private static final Logger LOG = LoggerFactory.getLogger
         if (iProduct == null || iCurrentCompany == null) {
             return;
         }
-        try {
-            PreparedStatement iStatement = iConnection.prepareStatement(
-                    "UPDATE tbl_product SET product=? WHERE number=? AND companyid=?");
-
-            iStatement.setObject(1, iProduct);
+        try (PreparedStatement iStatement = getDBConnection().prepare(
+                "UPDATE tbl_product SET product=? WHERE number=? AND companyid=?")) {
+            iStatement.setObject(1, SSEntityCodecs.encode(iProduct));
             iStatement.setObject(2, iProduct.getNumber());
             iStatement.setObject(3, iCurrentCompany.getId());
             iStatement.executeUpdate();
-            iConnection.commit();
-            iStatement.close();
+            commit();
 
         } catch (SQLException e) {
             LOG.error("Unexpected error", e);
             try {
-                iConnection.rollback();
+                rollback();
             } catch (SQLException ignored) {}
             SSErrorDialog.showDialog(SSMainFrame.getInstance(), "SQL Error",
                     e.getMessage());
@@ -4034,19 +4950,19 @@ public class SSDB {    private static final Logger LOG = LoggerFactory.getLogger
             return;
         }
         try {
-            PreparedStatement iStatement = iConnection.prepareStatement(
+            PreparedStatement iStatement = getDBConnection().prepare(
                     "DELETE FROM tbl_product WHERE number=? AND companyid=?");
 
             iStatement.setObject(1, iProduct.getNumber());
             iStatement.setObject(2, iCurrentCompany.getId());
             iStatement.executeUpdate();
-            iConnection.commit();
+            commit();
             iStatement.close();
 
         } catch (SQLException e) {
             LOG.error("Unexpected error", e);
             try {
-                iConnection.rollback();
+                rollback();
             } catch (SQLException ignored) {}
             SSErrorDialog.showDialog(SSMainFrame.getInstance(), "SQL Error",
                     e.getMessage());
@@ -4069,34 +4985,13 @@ public class SSDB {    private static final Logger LOG = LoggerFactory.getLogger
             return iCustomers;
         }
         try {
-            Integer iMax = -1;
-            ResultSet iResultSet;
-            PreparedStatement iStatement;
-
-            while (true) {
-                iStatement = iConnection.prepareStatement(
-                        "SELECT * FROM tbl_customer WHERE companyid=? AND id>?");
-                iStatement.setObject(1, iCurrentCompany.getId());
-                iStatement.setObject(2, iMax);
-                iStatement.setMaxRows(1024);
-                iResultSet = iStatement.executeQuery();
-                int i = 0;
-
-                while (iResultSet.next()) {
-                    iMax = iResultSet.getInt(1);
-                    iCustomers.add((SSCustomer) iResultSet.getObject(3));
-                    i++;
-                }
-                if (i != 1024) {
-                    break;
-                }
-            }
-            iResultSet.close();
-            iStatement.close();
+            SSDBBulkReader.forEach(getDBConnection(),
+                    "SELECT * FROM tbl_customer WHERE companyid=? AND id>? ORDER BY id", iCurrentCompany.getId(),
+                    iResultSet -> (SSCustomer) iResultSet.getObject(3), iCustomers::add);
         } catch (SQLException e) {
             LOG.error("Unexpected error", e);
             try {
-                iConnection.rollback();
+                rollback();
             } catch (SQLException ignored) {}
             SSErrorDialog.showDialog(SSMainFrame.getInstance(), "SQL Error",
                     e.getMessage());
@@ -4112,7 +5007,7 @@ public class SSDB {    private static final Logger LOG = LoggerFactory.getLogger
             return Optional.empty();
         }
         try {
-            PreparedStatement iStatement = iConnection.prepareStatement(
+            PreparedStatement iStatement = getDBConnection().prepare(
                     "SELECT * FROM tbl_customer WHERE number=? AND companyid=?");
 
             iStatement.setObject(1, pCustomer.getNumber());
@@ -4130,7 +5025,7 @@ public class SSDB {    private static final Logger LOG = LoggerFactory.getLogger
         } catch (SQLException e) {
             LOG.error("Unexpected error", e);
             try {
-                iConnection.rollback();
+                rollback();
             } catch (SQLException ignored) {}
             SSErrorDialog.showDialog(SSMainFrame.getInstance(), "SQL Error",
                     e.getMessage());
@@ -4164,7 +5059,7 @@ public class SSDB {    private static final Logger LOG = LoggerFactory.getLogger
         } catch (SQLException e) {
             LOG.error("Unexpected error", e);
             try {
-                iConnection.rollback();
+                rollback();
             } catch (SQLException ignored) {}
             SSErrorDialog.showDialog(SSMainFrame.getInstance(), "SQL Error",
                     e.getMessage());
@@ -4190,25 +5085,15 @@ public class SSDB {    private static final Logger LOG = LoggerFactory.getLogger
             return iCustomers;
         }
         try {
-            for (SSCustomer iCustomer : pCustomers) {
-                PreparedStatement iStatement = iConnection.prepareStatement(
-                        "SELECT * FROM tbl_customer WHERE number=? AND companyid=?");
-
-                iStatement.setObject(1, iCustomer.getNumber());
-                iStatement.setObject(2, iCurrentCompany.getId());
-                ResultSet iResultSet = iStatement.executeQuery();
-
-                if (iResultSet.next()) {
-                    iCustomers.add((SSCustomer) iResultSet.getObject(3));
-                }
-                iStatement.close();
-            }
+            iCustomers.addAll(SSDBBulkReader.readIn(getDBConnection(),
+                    "SELECT * FROM tbl_customer WHERE number IN (%s) AND companyid=?", pCustomers, SSCustomer::getNumber, iCurrentCompany.getId(),
+                    iResultSet -> (SSCustomer) iResultSet.getObject(3)));
 
             return iCustomers;
         } catch (SQLException e) {
             LOG.error("Unexpected error", e);
             try {
-                iConnection.rollback();
+                rollback();
             } catch (SQLException ignored) {}
             SSErrorDialog.showDialog(SSMainFrame.getInstance(), "SQL Error",
                     e.getMessage());
@@ -4224,19 +5109,19 @@ public class SSDB {    private static final Logger LOG = LoggerFactory.getLogger
             return;
         }
         try {
-            PreparedStatement iStatement = iConnection.prepareStatement(
+            PreparedStatement iStatement = getDBConnection().prepare(
                     "INSERT INTO tbl_customer VALUES(NULL,?,?,?)");
 
             iStatement.setObject(1, iCustomer.getNumber());
             iStatement.setObject(2, iCustomer);
             iStatement.setObject(3, iCurrentCompany.getId());
             iStatement.executeUpdate();
-            iConnection.commit();
+            commit();
             iStatement.close();
         } catch (SQLException e) {
             LOG.error("Unexpected error", e);
             try {
-                iConnection.rollback();
+                rollback();
             } catch (SQLException ignored) {}
             SSErrorDialog.showDialog(SSMainFrame.getInstance(), "SQL Error",
                     e.getMessage());
@@ -4248,20 +5133,20 @@ public class SSDB {    private static final Logger LOG = LoggerFactory.getLogger
             return;
         }
         try {
-            PreparedStatement iStatement = iConnection.prepareStatement(
+            PreparedStatement iStatement = getDBConnection().prepare(
                     "UPDATE tbl_customer SET customer=? WHERE number=? AND companyid=?");
 
             iStatement.setObject(1, iCustomer);
             iStatement.setObject(2, iCustomer.getNumber());
             iStatement.setObject(3, iCurrentCompany.getId());
             iStatement.executeUpdate();
-            iConnection.commit();
+            commit();
             iStatement.close();
 
         } catch (SQLException e) {
             LOG.error("Unexpected error", e);
             try {
-                iConnection.rollback();
+                rollback();
             } catch (SQLException ignored) {}
             SSErrorDialog.showDialog(SSMainFrame.getInstance(), "SQL Error",
                     e.getMessage());
@@ -4273,19 +5158,19 @@ public class SSDB {    private static final Logger LOG = LoggerFactory.getLogger
             return;
         }
         try {
-            PreparedStatement iStatement = iConnection.prepareStatement(
+            PreparedStatement iStatement = getDBConnection().prepare(
                     "DELETE FROM tbl_customer WHERE number=? AND companyid=?");
 
             iStatement.setObject(1, iCustomer.getNumber());
             iStatement.setObject(2, iCurrentCompany.getId());
             iStatement.executeUpdate();
-            iConnection.commit();
+            commit();
             iStatement.close();
 
         } catch (SQLException e) {
             LOG.error("Unexpected error", e);
             try {
-                iConnection.rollback();
+                rollback();
             } catch (SQLException ignored) {}
             SSErrorDialog.showDialog(SSMainFrame.getInstance(), "SQL Error",
                     e.getMessage());
@@ -4308,34 +5193,13 @@ public class SSDB {    private static final Logger LOG = LoggerFactory.getLogger
             return iSuppliers;
         }
         try {
-            Integer iMax = -1;
-            ResultSet iResultSet;
-            PreparedStatement iStatement;
-
-            while (true) {
-                iStatement = iConnection.prepareStatement(
-                        "SELECT * FROM tbl_supplier WHERE companyid=? AND id>?");
-                iStatement.setObject(1, iCurrentCompany.getId());
-                iStatement.setObject(2, iMax);
-                iStatement.setMaxRows(1024);
-                iResultSet = iStatement.executeQuery();
-                int i = 0;
-
-                while (iResultSet.next()) {
-                    iMax = iResultSet.getInt(1);
-                    iSuppliers.add((SSSupplier) iResultSet.getObject(3));
-                    i++;
-                }
-                if (i != 1024) {
-                    break;
-                }
-            }
-            iResultSet.close();
-            iStatement.close();
+            SSDBBulkReader.forEach(getDBConnection(),
+                    "SELECT * FROM tbl_supplier WHERE companyid=? AND id>? ORDER BY id", iCurrentCompany.getId(),
+                    iResultSet -> (SSSupplier) iResultSet.getObject(3), iSuppliers::add);
         } catch (SQLException e) {
             LOG.error("Unexpected error", e);
             try {
-                iConnection.rollback();
+                rollback();
             } catch (SQLException ignored) {}
             SSErrorDialog.showDialog(SSMainFrame.getInstance(), "SQL Error",
                     e.getMessage());
@@ -4348,7 +5212,7 @@ public class SSDB {    private static final Logger LOG = LoggerFactory.getLogger
             return Optional.empty();
         }
         try {
-            PreparedStatement iStatement = iConnection.prepareStatement(
+            PreparedStatement iStatement = getDBConnection().prepare(
                     "SELECT * FROM tbl_supplier WHERE number=? AND companyid=?");
 
             iStatement.setObject(1, pSupplier.getNumber());
@@ -4366,7 +5230,7 @@ public class SSDB {    private static final Logger LOG = LoggerFactory.getLogger
         } catch (SQLException e) {
             LOG.error("Unexpected error", e);
             try {
-                iConnection.rollback();
+                rollback();
             } catch (SQLException ignored) {}
             SSErrorDialog.showDialog(SSMainFrame.getInstance(), "SQL Error",
                     e.getMessage());
@@ -4392,25 +5256,15 @@ public class SSDB {    private static final Logger LOG = LoggerFactory.getLogger
             return iSuppliers;
         }
         try {
-            for (SSSupplier iSupplier : pSuppliers) {
-                PreparedStatement iStatement = iConnection.prepareStatement(
-                        "SELECT * FROM tbl_supplier WHERE number=? AND companyid=?");
-
-                iStatement.setObject(1, iSupplier.getNumber());
-                iStatement.setObject(2, iCurrentCompany.getId());
-                ResultSet iResultSet = iStatement.executeQuery();
-
-                if (iResultSet.next()) {
-                    iSuppliers.add((SSSupplier) iResultSet.getObject(3));
-                }
-                iStatement.close();
-            }
+            iSuppliers.addAll(SSDBBulkReader.readIn(getDBConnection(),
+                    "SELECT * FROM tbl_supplier WHERE number IN (%s) AND companyid=?", pSuppliers, SSSupplier::getNumber, iCurrentCompany.getId(),
+                    iResultSet -> (SSSupplier) iResultSet.getObject(3)));
 
             return iSuppliers;
         } catch (SQLException e) {
             LOG.error("Unexpected error", e);
             try {
-                iConnection.rollback();
+                rollback();
             } catch (SQLException ignored) {}
             SSErrorDialog.showDialog(SSMainFrame.getInstance(), "SQL Error",
                     e.getMessage());
@@ -4423,19 +5277,19 @@ public class SSDB {    private static final Logger LOG = LoggerFactory.getLogger
             return;
         }
         try {
-            PreparedStatement iStatement = iConnection.prepareStatement(
+            PreparedStatement iStatement = getDBConnection().prepare(
                     "INSERT INTO tbl_supplier VALUES(NULL,?,?,?)");
 
             iStatement.setObject(1, iSupplier.getNumber());
             iStatement.setObject(2, iSupplier);
             iStatement.setObject(3, iCurrentCompany.getId());
             iStatement.executeUpdate();
-            iConnection.commit();
+            commit();
             iStatement.close();
         } catch (SQLException e) {
             LOG.error("Unexpected error", e);
             try {
-                iConnection.rollback();
+                rollback();
             } catch (SQLException ignored) {}
             SSErrorDialog.showDialog(SSMainFrame.getInstance(), "SQL Error",
                     e.getMessage());
@@ -4447,20 +5301,20 @@ public class SSDB {    private static final Logger LOG = LoggerFactory.getLogger
             return;
         }
         try {
-            PreparedStatement iStatement = iConnection.prepareStatement(
+            PreparedStatement iStatement = getDBConnection().prepare(
                     "UPDATE tbl_supplier SET supplier=? WHERE number=? AND companyid=?");
 
             iStatement.setObject(1, iSupplier);
             iStatement.setObject(2, iSupplier.getNumber());
             iStatement.setObject(3, iCurrentCompany.getId());
             iStatement.executeUpdate();
-            iConnection.commit();
+            commit();
             iStatement.close();
 
         } catch (SQLException e) {
             LOG.error("Unexpected error", e);
             try {
-                iConnection.rollback();
+                rollback();
             } catch (SQLException ignored) {}
             SSErrorDialog.showDialog(SSMainFrame.getInstance(), "SQL Error",
                     e.getMessage());
@@ -4472,19 +5326,19 @@ public class SSDB {    private static final Logger LOG = LoggerFactory.getLogger
             return;
         }
         try {
-            PreparedStatement iStatement = iConnection.prepareStatement(
+            PreparedStatement iStatement = getDBConnection().prepare(
                     "DELETE FROM tbl_supplier WHERE number=? AND companyid=?");
 
             iStatement.setObject(1, iSupplier.getNumber());
             iStatement.setObject(2, iCurrentCompany.getId());
             iStatement.executeUpdate();
-            iConnection.commit();
+            commit();
             iStatement.close();
 
         } catch (SQLException e) {
             LOG.error("Unexpected error", e);
             try {
-                iConnection.rollback();
+                rollback();
             } catch (SQLException ignored) {}
             SSErrorDialog.showDialog(SSMainFrame.getInstance(), "SQL Error",
                     e.getMessage());
@@ -4509,34 +5363,13 @@ public class SSDB {    private static final Logger LOG = LoggerFactory.getLogger
             return iAutoDists;
         }
         try {
-            Integer iMax = -1;
-            ResultSet iResultSet;
-            PreparedStatement iStatement;
-
-            while (true) {
-                iStatement = iConnection.prepareStatement(
-                        "SELECT * FROM tbl_autodist WHERE companyid=? AND id>?");
-                iStatement.setObject(1, iCurrentCompany.getId());
-                iStatement.setObject(2, iMax);
-                iStatement.setMaxRows(1024);
-                iResultSet = iStatement.executeQuery();
-                int i = 0;
-
-                while (iResultSet.next()) {
-                    iMax = iResultSet.getInt(1);
-                    iAutoDists.add((SSAutoDist) iResultSet.getObject(3));
-                    i++;
-                }
-                if (i != 1024) {
-                    break;
-                }
-            }
-            iResultSet.close();
-            iStatement.close();
+            SSDBBulkReader.forEach(getDBConnection(),
+                    "SELECT * FROM tbl_autodist WHERE companyid=? AND id>? ORDER BY id", iCurrentCompany.getId(),
+                    iResultSet -> (SSAutoDist) iResultSet.getObject(3), iAutoDists::add);
         } catch (SQLException e) {
             LOG.error("Unexpected error", e);
             try {
-                iConnection.rollback();
+                rollback();
             } catch (SQLException ignored) {}
             SSErrorDialog.showDialog(SSMainFrame.getInstance(), "SQL Error",
                     e.getMessage());
@@ -4549,7 +5382,7 @@ public class SSDB {    private static final Logger LOG = LoggerFactory.getLogger
             return Optional.empty();
         }
         try {
-            PreparedStatement iStatement = iConnection.prepareStatement(
+            PreparedStatement iStatement = getDBConnection().prepare(
                     "SELECT * FROM tbl_autodist WHERE number=? AND companyid=?");
 
             iStatement.setObject(1, pAutoDist.getNumber());
@@ -4567,7 +5400,7 @@ public class SSDB {    private static final Logger LOG = LoggerFactory.getLogger
         } catch (SQLException e) {
             LOG.error("Unexpected error", e);
             try {
-                iConnection.rollback();
+                rollback();
             } catch (SQLException ignored) {}
             SSErrorDialog.showDialog(SSMainFrame.getInstance(), "SQL Error",
                     e.getMessage());
@@ -4593,25 +5426,15 @@ public class SSDB {    private static final Logger LOG = LoggerFactory.getLogger
             return iAutoDists;
         }
         try {
-            for (SSAutoDist iAutoDist : pAutoDists) {
-                PreparedStatement iStatement = iConnection.prepareStatement(
-                        "SELECT * FROM tbl_autodist WHERE number=? AND companyid=?");
-
-                iStatement.setObject(1, iAutoDist.getNumber());
-                iStatement.setObject(2, iCurrentCompany.getId());
-                ResultSet iResultSet = iStatement.executeQuery();
-
-                if (iResultSet.next()) {
-                    iAutoDists.add((SSAutoDist) iResultSet.getObject(3));
-                }
-                iStatement.close();
-            }
+            iAutoDists.addAll(SSDBBulkReader.readIn(getDBConnection(),
+                    "SELECT * FROM tbl_autodist WHERE number IN (%s) AND companyid=?", pAutoDists, SSAutoDist::getNumber, iCurrentCompany.getId(),
+                    iResultSet -> (SSAutoDist) iResultSet.getObject(3)));
 
             return iAutoDists;
         } catch (SQLException e) {
             LOG.error("Unexpected error", e);
             try {
-                iConnection.rollback();
+                rollback();
             } catch (SQLException ignored) {}
             SSErrorDialog.showDialog(SSMainFrame.getInstance(), "SQL Error",
                     e.getMessage());
@@ -4624,19 +5447,19 @@ public class SSDB {    private static final Logger LOG = LoggerFactory.getLogger
             return;
         }
         try {
-            PreparedStatement iStatement = iConnection.prepareStatement(
+            PreparedStatement iStatement = getDBConnection().prepare(
                     "INSERT INTO tbl_autodist VALUES(NULL,?,?,?)");
 
             iStatement.setObject(1, iAutoDist.getNumber());
             iStatement.setObject(2, iAutoDist);
             iStatement.setObject(3, iCurrentCompany.getId());
             iStatement.executeUpdate();
-            iConnection.commit();
+            commit();
             iStatement.close();
         } catch (SQLException e) {
             LOG.error("Unexpected error", e);
             try {
-                iConnection.rollback();
+                rollback();
             } catch (SQLException ignored) {}
             SSErrorDialog.showDialog(SSMainFrame.getInstance(), "SQL Error",
                     e.getMessage());
@@ -4648,7 +5471,7 @@ public class SSDB {    private static final Logger LOG = LoggerFactory.getLogger
             return;
         }
         try {
-            PreparedStatement iStatement = iConnection.prepareStatement(
+            PreparedStatement iStatement = getDBConnection().prepare(
                     "UPDATE tbl_autodist SET autodist=?, number=? WHERE number=? AND companyid=?");
 
             iStatement.setObject(1, iAutoDist);
@@ -4656,13 +5479,13 @@ public class SSDB {    private static final Logger LOG = LoggerFactory.getLogger
             iStatement.setObject(3, iOriginal.getNumber());
             iStatement.setObject(4, iCurrentCompany.getId());
             iStatement.executeUpdate();
-            iConnection.commit();
+            commit();
             iStatement.close();
 
         } catch (SQLException e) {
             LOG.error("Unexpected error", e);
             try {
-                iConnection.rollback();
+                rollback();
             } catch (SQLException ignored) {}
             SSErrorDialog.showDialog(SSMainFrame.getInstance(), "SQL Error",
                     e.getMessage());
@@ -4677,19 +5500,19 @@ public class SSDB {    private static final Logger LOG = LoggerFactory.getLogger
             return;
         }
         try {
-            PreparedStatement iStatement = iConnection.prepareStatement(
+            PreparedStatement iStatement = getDBConnection().prepare(
                     "DELETE FROM tbl_autodist WHERE number=? AND companyid=?");
 
             iStatement.setObject(1, iAutoDist.getNumber());
             iStatement.setObject(2, iCurrentCompany.getId());
             iStatement.executeUpdate();
-            iConnection.commit();
+            commit();
             iStatement.close();
 
         } catch (SQLException e) {
             LOG.error("Unexpected error", e);
             try {
-                iConnection.rollback();
+                rollback();
             } catch (SQLException ignored) {}
             SSErrorDialog.showDialog(SSMainFrame.getInstance(), "SQL Error",
                     e.getMessage());
@@ -4712,35 +5535,13 @@ public class SSDB {    private static final Logger LOG = LoggerFactory.getLogger
             return iTenders;
         }
         try {
-            Integer iMax = -1;
-            ResultSet iResultSet;
-            PreparedStatement iStatement;
-
-            while (true) {
-                iStatement = iConnection.prepareStatement(
-                        "SELECT * FROM tbl_tender WHERE companyid=? AND id>?");
-                iStatement.setObject(1, iCurrentCompany.getId());
-                iStatement.setObject(2, iMax);
-                iStatement.setMaxRows(1024);
-
-                iResultSet = iStatement.executeQuery();
-                int i = 0;
-
-                while (iResultSet.next()) {
-                    iMax = iResultSet.getInt(1);
-                    iTenders.add((SSTender) iResultSet.getObject(3));
-                    i++;
-                }
-                if (i != 1024) {
-                    break;
-                }
-            }
-            iResultSet.close();
-            iStatement.close();
+            SSDBBulkReader.forEach(getDBConnection(),
+                    "SELECT * FROM tbl_tender WHERE companyid=? AND id>? ORDER BY id", iCurrentCompany.getId(),
+                    iResultSet -> (SSTender) iResultSet.getObject(3), iTenders::add);
         } catch (SQLException e) {
             LOG.error("Unexpected error", e);
             try {
-                iConnection.rollback();
+                rollback();
             } catch (SQLException ignored) {}
             SSErrorDialog.showDialog(SSMainFrame.getInstance(), "SQL Error",
                     e.getMessage());
@@ -4753,7 +5554,7 @@ public class SSDB {    private static final Logger LOG = LoggerFactory.getLogger
             return Optional.empty();
         }
         try {
-            PreparedStatement iStatement = iConnection.prepareStatement(
+            PreparedStatement iStatement = getDBConnection().prepare(
                     "SELECT * FROM tbl_tender WHERE number=? AND companyid=?");
 
             iStatement.setObject(1, pTender.getNumber());
@@ -4771,7 +5572,7 @@ public class SSDB {    private static final Logger LOG = LoggerFactory.getLogger
         } catch (SQLException e) {
             LOG.error("Unexpected error", e);
             try {
-                iConnection.rollback();
+                rollback();
             } catch (SQLException ignored) {}
             SSErrorDialog.showDialog(SSMainFrame.getInstance(), "SQL Error",
                     e.getMessage());
@@ -4798,25 +5599,15 @@ public class SSDB {    private static final Logger LOG = LoggerFactory.getLogger
         }
 
         try {
-            for (SSTender iTender : pTenders) {
-                PreparedStatement iStatement = iConnection.prepareStatement(
-                        "SELECT * FROM tbl_tender WHERE number=? AND companyid=?");
-
-                iStatement.setObject(1, iTender.getNumber());
-                iStatement.setObject(2, iCurrentCompany.getId());
-                ResultSet iResultSet = iStatement.executeQuery();
-
-                if (iResultSet.next()) {
-                    iTenders.add((SSTender) iResultSet.getObject(3));
-                }
-                iStatement.close();
-            }
+            iTenders.addAll(SSDBBulkReader.readIn(getDBConnection(),
+                    "SELECT * FROM tbl_tender WHERE number IN (%s) AND companyid=?", pTenders, SSTender::getNumber, iCurrentCompany.getId(),
+                    iResultSet -> (SSTender) iResultSet.getObject(3)));
 
             return iTenders;
         } catch (SQLException e) {
             LOG.error("Unexpected error", e);
             try {
-                iConnection.rollback();
+                rollback();
             } catch (SQLException ignored) {}
             SSErrorDialog.showDialog(SSMainFrame.getInstance(), "SQL Error",
                     e.getMessage());
@@ -4830,7 +5621,7 @@ public class SSDB {    private static final Logger LOG = LoggerFactory.getLogger
         }
         try {
 
-            PreparedStatement iStatement = iConnection.prepareStatement(
+            PreparedStatement iStatement = getDBConnection().prepare(
                     "SELECT MAX(number) AS maxnum FROM tbl_tender WHERE companyid=?");
 
             iStatement.setObject(1, iCurrentCompany.getId());
@@ -4853,20 +5644,20 @@ public class SSDB {    private static final Logger LOG = LoggerFactory.getLogger
             iResultSet.close();
             iStatement.close();
 
-            iStatement = iConnection.prepareStatement(
+            iStatement = getDBConnection().prepare(
                     "INSERT INTO tbl_tender VALUES(NULL,?,?,?)");
             iStatement.setObject(1, iTender.getNumber());
             iStatement.setObject(2, iTender);
             iStatement.setObject(3, iCurrentCompany.getId());
             iStatement.executeUpdate();
-            iConnection.commit();
+            commit();
             iStatement.close();
 
         } catch (SQLException e) {
             LOG.error("Unexpected error", e);
 
             try {
-                iConnection.rollback();
+                rollback();
             } catch (SQLException ignored) {}
             SSErrorDialog.showDialog(SSMainFrame.getInstance(), "SQL Error",
                     e.getMessage());
@@ -4878,20 +5669,20 @@ public class SSDB {    private static final Logger LOG = LoggerFactory.getLogger
             return;
         }
         try {
-            PreparedStatement iStatement = iConnection.prepareStatement(
+            PreparedStatement iStatement = getDBConnection().prepare(
                     "UPDATE tbl_tender SET tender=? WHERE number=? AND companyid=?");
 
             iStatement.setObject(1, iTender);
             iStatement.setObject(2, iTender.getNumber());
             iStatement.setObject(3, iCurrentCompany.getId());
             iStatement.executeUpdate();
-            iConnection.commit();
+            commit();
             iStatement.close();
 
         } catch (SQLException e) {
             LOG.error("Unexpected error", e);
             try {
-                iConnection.rollback();
+                rollback();
             } catch (SQLException ignored) {}
             SSErrorDialog.showDialog(SSMainFrame.getInstance(), "SQL Error",
                     e.getMessage());
@@ -4903,19 +5694,19 @@ public class SSDB {    private static final Logger LOG = LoggerFactory.getLogger
             return;
         }
         try {
-            PreparedStatement iStatement = iConnection.prepareStatement(
+            PreparedStatement iStatement = getDBConnection().prepare(
                     "DELETE FROM tbl_tender WHERE number=? AND companyid=?");
 
             iStatement.setObject(1, iTender.getNumber());
             iStatement.setObject(2, iCurrentCompany.getId());
             iStatement.executeUpdate();
-            iConnection.commit();
+            commit();
             iStatement.close();
 
         } catch (SQLException e) {
             LOG.error("Unexpected error", e);
             try {
-                iConnection.rollback();
+                rollback();
             } catch (SQLException ignored) {}
             SSErrorDialog.showDialog(SSMainFrame.getInstance(), "SQL Error",
                     e.getMessage());
@@ -4933,35 +5724,13 @@ public class SSDB {    private static final Logger LOG = LoggerFactory.getLogger
             return iOrders;
         }
         try {
-            Integer iMax = -1;
-            ResultSet iResultSet;
-            PreparedStatement iStatement;
-
-            while (true) {
-                iStatement = iConnection.prepareStatement(
-                        "SELECT * FROM tbl_order WHERE companyid=? AND id>?");
-                iStatement.setObject(1, iCurrentCompany.getId());
-                iStatement.setObject(2, iMax);
-                iStatement.setMaxRows(1024);
-
-                iResultSet = iStatement.executeQuery();
-                int i = 0;
-
-                while (iResultSet.next()) {
-                    iMax = iResultSet.getInt(1);
-                    iOrders.add((SSOrder) iResultSet.getObject(3));
-                    i++;
-                }
-                if (i != 1024) {
-                    break;
-                }
-            }
-            iResultSet.close();
-            iStatement.close();
+            SSDBBulkReader.forEach(getDBConnection(),
+                    "SELECT * FROM tbl_order WHERE companyid=? AND id>? ORDER BY id", iCurrentCompany.getId(),
+                    iResultSet -> (SSOrder) iResultSet.getObject(3), iOrders::add);
         } catch (SQLException e) {
             LOG.error("Unexpected error", e);
             try {
-                iConnection.rollback();
+                rollback();
             } catch (SQLException ignored) {}
             SSErrorDialog.showDialog(SSMainFrame.getInstance(), "SQL Error",
                     e.getMessage());
@@ -4974,7 +5743,7 @@ public class SSDB {    private static final Logger LOG = LoggerFactory.getLogger
             return Optional.empty();
         }
         try {
-            PreparedStatement iStatement = iConnection.prepareStatement(
+            PreparedStatement iStatement = getDBConnection().prepare(
                     "SELECT * FROM tbl_order WHERE number=? AND companyid=?");
 
             iStatement.setObject(1, pOrder.getNumber());
@@ -4992,7 +5761,7 @@ public class SSDB {    private static final Logger LOG = LoggerFactory.getLogger
         } catch (SQLException e) {
             LOG.error("Unexpected error", e);
             try {
-                iConnection.rollback();
+                rollback();
             } catch (SQLException ignored) {}
             SSErrorDialog.showDialog(SSMainFrame.getInstance(), "SQL Error",
                     e.getMessage());
@@ -5018,25 +5787,15 @@ public class SSDB {    private static final Logger LOG = LoggerFactory.getLogger
             return iOrders;
         }
         try {
-            for (SSOrder iOrder : pOrders) {
-                PreparedStatement iStatement = iConnection.prepareStatement(
-                        "SELECT * FROM tbl_order WHERE number=? AND companyid=?");
-
-                iStatement.setObject(1, iOrder.getNumber());
-                iStatement.setObject(2, iCurrentCompany.getId());
-                ResultSet iResultSet = iStatement.executeQuery();
-
-                if (iResultSet.next()) {
-                    iOrders.add((SSOrder) iResultSet.getObject(3));
-                }
-                iStatement.close();
-            }
+            iOrders.addAll(SSDBBulkReader.readIn(getDBConnection(),
+                    "SELECT * FROM tbl_order WHERE number IN (%s) AND companyid=?", pOrders, SSOrder::getNumber, iCurrentCompany.getId(),
+                    iResultSet -> (SSOrder) iResultSet.getObject(3)));
 
             return iOrders;
         } catch (SQLException e) {
             LOG.error("Unexpected error", e);
             try {
-                iConnection.rollback();
+                rollback();
             } catch (SQLException ignored) {}
             SSErrorDialog.showDialog(SSMainFrame.getInstance(), "SQL Error",
                     e.getMessage());
@@ -5050,7 +5809,7 @@ public class SSDB {    private static final Logger LOG = LoggerFactory.getLogger
         }
         try {
 
-            PreparedStatement iStatement = iConnection.prepareStatement(
+            PreparedStatement iStatement = getDBConnection().prepare(
                     "SELECT MAX(number) AS maxnum FROM tbl_order WHERE companyid=?");
 
             iStatement.setObject(1, iCurrentCompany.getId());
@@ -5073,20 +5832,20 @@ public class SSDB {    private static final Logger LOG = LoggerFactory.getLogger
             iResultSet.close();
             iStatement.close();
 
-            iStatement = iConnection.prepareStatement(
+            iStatement = getDBConnection().prepare(
                     "INSERT INTO tbl_order VALUES(NULL,?,?,?)");
             iStatement.setObject(1, iOrder.getNumber());
             iStatement.setObject(2, iOrder);
             iStatement.setObject(3, iCurrentCompany.getId());
             iStatement.executeUpdate();
-            iConnection.commit();
+            commit();
             iStatement.close();
 
         } catch (SQLException e) {
             LOG.error("Unexpected error", e);
 
             try {
-                iConnection.rollback();
+                rollback();
             } catch (SQLException ignored) {}
             SSErrorDialog.showDialog(SSMainFrame.getInstance(), "SQL Error",
                     e.getMessage());
@@ -5098,20 +5857,20 @@ public class SSDB {    private static final Logger LOG = LoggerFactory.getLogger
             return;
         }
         try {
-            PreparedStatement iStatement = iConnection.prepareStatement(
+            PreparedStatement iStatement = getDBConnection().prepare(
                     "UPDATE tbl_order SET iorder=? WHERE number=? AND companyid=?");
 
             iStatement.setObject(1, iOrder);
             iStatement.setObject(2, iOrder.getNumber());
             iStatement.setObject(3, iCurrentCompany.getId());
             iStatement.executeUpdate();
-            iConnection.commit();
+            commit();
             iStatement.close();
 
         } catch (SQLException e) {
             LOG.error("Unexpected error", e);
             try {
-                iConnection.rollback();
+                rollback();
             } catch (SQLException ignored) {}
             SSErrorDialog.showDialog(SSMainFrame.getInstance(), "SQL Error",
                     e.getMessage());
@@ -5123,19 +5882,19 @@ public class SSDB {    private static final Logger LOG = LoggerFactory.getLogger
             return;
         }
         try {
-            PreparedStatement iStatement = iConnection.prepareStatement(
+            PreparedStatement iStatement = getDBConnection().prepare(
                     "DELETE FROM tbl_order WHERE number=? AND companyid=?");
 
             iStatement.setObject(1, iOrder.getNumber());
             iStatement.setObject(2, iCurrentCompany.getId());
             iStatement.executeUpdate();
-            iConnection.commit();
+            commit();
             iStatement.close();
 
         } catch (SQLException e) {
             LOG.error("Unexpected error", e);
             try {
-                iConnection.rollback();
+                rollback();
             } catch (SQLException ignored) {}
             SSErrorDialog.showDialog(SSMainFrame.getInstance(), "SQL Error",
                     e.getMessage());
@@ -5158,35 +5917,13 @@ public class SSDB {    private static final Logger LOG = LoggerFactory.getLogger
             return iInvoices;
         }
         try {
-            Integer iMax = -1;
-            ResultSet iResultSet;
-            PreparedStatement iStatement;
-
-            while (true) {
-                iStatement = iConnection.prepareStatement(
-                        "SELECT * FROM tbl_invoice WHERE companyid=? AND id>?");
-                iStatement.setObject(1, iCurrentCompany.getId());
-                iStatement.setObject(2, iMax);
-                iStatement.setMaxRows(1024);
-                iResultSet = iStatement.executeQuery();
-
-                int i = 0;
-
-                while (iResultSet.next()) {
-                    iMax = iResultSet.getInt(1);
-                    iInvoices.add((SSInvoice) iResultSet.getObject(3));
-                    i++;
-                }
-                if (i != 1024) {
-                    break;
-                }
-            }
-            iResultSet.close();
-            iStatement.close();
+            SSDBBulkReader.forEach(getDBConnection(),
+                    "SELECT * FROM tbl_invoice WHERE companyid=? AND id>? ORDER BY id", iCurrentCompany.getId(),
+                    iResultSet -> SSEntityCodecs.decode(iResultSet.getObject(3), SSInvoice.class), iInvoices::add);
         } catch (SQLException e) {
             LOG.error("Unexpected error", e);
             try {
-                iConnection.rollback();
+                rollback();
             } catch (SQLException ignored) {}
             SSErrorDialog.showDialog(SSMainFrame.getInstance(), "SQL Error",
                     e.getMessage());
@@ -5199,7 +5936,7 @@ public class SSDB {    private static final Logger LOG = LoggerFactory.getLogger
             return Optional.empty();
         }
         try {
-            PreparedStatement iStatement = iConnection.prepareStatement(
+            PreparedStatement iStatement = getDBConnection().prepare(
                     "SELECT * FROM tbl_invoice WHERE number=? AND companyid=?");
 
             iStatement.setObject(1, pInvoice.getNumber());
@@ -5207,7 +5944,7 @@ public class SSDB {    private static final Logger LOG = LoggerFactory.getLogger
             ResultSet iResultSet = iStatement.executeQuery();
 
             if (iResultSet.next()) {
-                SSInvoice iInvoice = (SSInvoice) iResultSet.getObject(3);
+                SSInvoice iInvoice = SSEntityCodecs.decode(iResultSet.getObject(3), SSInvoice.class);
 
                 iStatement.close();
                 return Optional.of(iInvoice);
@@ -5217,7 +5954,7 @@ public class SSDB {    private static final Logger LOG = LoggerFactory.getLogger
         } catch (SQLException e) {
             LOG.error("Unexpected error", e);
             try {
-                iConnection.rollback();
+                rollback();
             } catch (SQLException ignored) {}
             SSErrorDialog.showDialog(SSMainFrame.getInstance(), "SQL Error",
                     e.getMessage());
@@ -5243,25 +5980,15 @@ public class SSDB {    private static final Logger LOG = LoggerFactory.getLogger
             return iInvoices;
         }
         try {
-            for (SSInvoice iInvoice : pInvoices) {
-                PreparedStatement iStatement = iConnection.prepareStatement(
-                        "SELECT * FROM tbl_invoice WHERE number=? AND companyid=?");
-
-                iStatement.setObject(1, iInvoice.getNumber());
-                iStatement.setObject(2, iCurrentCompany.getId());
-                ResultSet iResultSet = iStatement.executeQuery();
-
-                if (iResultSet.next()) {
-                    iInvoices.add((SSInvoice) iResultSet.getObject(3));
-                }
-                iStatement.close();
-            }
+            iInvoices.addAll(SSDBBulkReader.readIn(getDBConnection(),
+                    "SELECT * FROM tbl_invoice WHERE number IN (%s) AND companyid=?", pInvoices, SSInvoice::getNumber, iCurrentCompany.getId(),
+                    iResultSet -> SSEntityCodecs.decode(iResultSet.getObject(3), SSInvoice.class)));
 
             return iInvoices;
         } catch (SQLException e) {
             LOG.error("Unexpected error", e);
             try {
-                iConnection.rollback();
+                rollback();
             } catch (SQLException ignored) {}
             SSErrorDialog.showDialog(SSMainFrame.getInstance(), "SQL Error",
                     e.getMessage());
@@ -5275,7 +6002,7 @@ public class SSDB {    private static final Logger LOG = LoggerFactory.getLogger
         }
         try {
 
-            PreparedStatement iStatement = iConnection.prepareStatement(
+            PreparedStatement iStatement = getDBConnection().prepare(
                     "SELECT MAX(number) AS maxnum FROM tbl_invoice WHERE companyid=?");
 
             iStatement.setObject(1, iCurrentCompany.getId());
@@ -5298,20 +6025,20 @@ public class SSDB {    private static final Logger LOG = LoggerFactory.getLogger
             iResultSet.close();
             iStatement.close();
 
-            iStatement = iConnection.prepareStatement(
+            iStatement = getDBConnection().prepare(
                     "INSERT INTO tbl_invoice VALUES(NULL,?,?,?)");
             iStatement.setObject(1, iInvoice.getNumber());
-            iStatement.setObject(2, iInvoice);
+            iStatement.setObject(2, SSEntityCodecs.encode(iInvoice));
             iStatement.setObject(3, iCurrentCompany.getId());
             iStatement.executeUpdate();
-            iConnection.commit();
+            commit();
             iStatement.close();
 
         } catch (SQLException e) {
             LOG.error("Unexpected error", e);
 
             try {
-                iConnection.rollback();
+                rollback();
             } catch (SQLException ignored) {}
             SSErrorDialog.showDialog(SSMainFrame.getInstance(), "SQL Error",
                     e.getMessage());
@@ -5323,20 +6050,20 @@ public class SSDB {    private static final Logger LOG = LoggerFactory.getLogger
             return;
         }
         try {
-            PreparedStatement iStatement = iConnection.prepareStatement(
+            PreparedStatement iStatement = getDBConnection().prepare(
                     "UPDATE tbl_invoice SET invoice=? WHERE number=? AND companyid=?");
 
-            iStatement.setObject(1, iInvoice);
+            iStatement.setObject(1, SSEntityCodecs.encode(iInvoice));
             iStatement.setObject(2, iInvoice.getNumber());
             iStatement.setObject(3, iCurrentCompany.getId());
             iStatement.executeUpdate();
-            iConnection.commit();
+            commit();
             iStatement.close();
 
         } catch (SQLException e) {
             LOG.error("Unexpected error", e);
             try {
-                iConnection.rollback();
+                rollback();
             } catch (SQLException ignored) {}
             SSErrorDialog.showDialog(SSMainFrame.getInstance(), "SQL Error",
                     e.getMessage());
@@ -5348,19 +6075,19 @@ public class SSDB {    private static final Logger LOG = LoggerFactory.getLogger
             return;
         }
         try {
-            PreparedStatement iStatement = iConnection.prepareStatement(
+            PreparedStatement iStatement = getDBConnection().prepare(
                     "DELETE FROM tbl_invoice WHERE number=? AND companyid=?");
 
             iStatement.setObject(1, iInvoice.getNumber());
             iStatement.setObject(2, iCurrentCompany.getId());
             iStatement.executeUpdate();
-            iConnection.commit();
+            commit();
             iStatement.close();
 
         } catch (SQLException e) {
             LOG.error("Unexpected error", e);
             try {
-                iConnection.rollback();
+                rollback();
             } catch (SQLException ignored) {}
             SSErrorDialog.showDialog(SSMainFrame.getInstance(), "SQL Error",
                     e.getMessage());
@@ -5383,35 +6110,13 @@ public class SSDB {    private static final Logger LOG = LoggerFactory.getLogger
             return iInpayments;
         }
         try {
-            Integer iMax = -1;
-            ResultSet iResultSet;
-            PreparedStatement iStatement;
-
-            while (true) {
-                iStatement = iConnection.prepareStatement(
-                        "SELECT * FROM tbl_inpayment WHERE companyid=? AND id>?");
-                iStatement.setObject(1, iCurrentCompany.getId());
-                iStatement.setObject(2, iMax);
-                iStatement.setMaxRows(1024);
-
-                iResultSet = iStatement.executeQuery();
-                int i = 0;
-
-                while (iResultSet.next()) {
-                    iMax = iResultSet.getInt(1);
-                    iInpayments.add((SSInpayment) iResultSet.getObject(3));
-                    i++;
-                }
-                if (i != 1024) {
-                    break;
-                }
-            }
-            iResultSet.close();
-            iStatement.close();
+            SSDBBulkReader.forEach(getDBConnection(),
+                    "SELECT * FROM tbl_inpayment WHERE companyid=? AND id>? ORDER BY id", iCurrentCompany.getId(),
+                    iResultSet -> (SSInpayment) iResultSet.getObject(3), iInpayments::add);
         } catch (SQLException e) {
             LOG.error("Unexpected error", e);
             try {
-                iConnection.rollback();
+                rollback();
             } catch (SQLException ignored) {}
             SSErrorDialog.showDialog(SSMainFrame.getInstance(), "SQL Error",
                     e.getMessage());
@@ -5424,7 +6129,7 @@ public class SSDB {    private static final Logger LOG = LoggerFactory.getLogger
             return Optional.empty();
         }
         try {
-            PreparedStatement iStatement = iConnection.prepareStatement(
+            PreparedStatement iStatement = getDBConnection().prepare(
                     "SELECT * FROM tbl_inpayment WHERE number=? AND companyid=?");
 
             iStatement.setObject(1, pInpayment.getNumber());
@@ -5442,7 +6147,7 @@ public class SSDB {    private static final Logger LOG = LoggerFactory.getLogger
         } catch (SQLException e) {
             LOG.error("Unexpected error", e);
             try {
-                iConnection.rollback();
+                rollback();
             } catch (SQLException ignored) {}
             SSErrorDialog.showDialog(SSMainFrame.getInstance(), "SQL Error",
                     e.getMessage());
@@ -5456,7 +6161,7 @@ public class SSDB {    private static final Logger LOG = LoggerFactory.getLogger
         }
         try {
 
-            PreparedStatement iStatement = iConnection.prepareStatement(
+            PreparedStatement iStatement = getDBConnection().prepare(
                     "SELECT MAX(number) AS maxnum FROM tbl_inpayment WHERE companyid=?");
 
             iStatement.setObject(1, iCurrentCompany.getId());
@@ -5479,20 +6184,20 @@ public class SSDB {    private static final Logger LOG = LoggerFactory.getLogger
             iResultSet.close();
             iStatement.close();
 
-            iStatement = iConnection.prepareStatement(
+            iStatement = getDBConnection().prepare(
                     "INSERT INTO tbl_inpayment VALUES(NULL,?,?,?)");
             iStatement.setObject(1, iInpayment.getNumber());
             iStatement.setObject(2, iInpayment);
             iStatement.setObject(3, iCurrentCompany.getId());
             iStatement.executeUpdate();
-            iConnection.commit();
+            commit();
             iStatement.close();
 
         } catch (SQLException e) {
             LOG.error("Unexpected error", e);
 
             try {
-                iConnection.rollback();
+                rollback();
             } catch (SQLException ignored) {}
             SSErrorDialog.showDialog(SSMainFrame.getInstance(), "SQL Error",
                     e.getMessage());
@@ -5504,20 +6209,20 @@ public class SSDB {    private static final Logger LOG = LoggerFactory.getLogger
             return;
         }
         try {
-            PreparedStatement iStatement = iConnection.prepareStatement(
+            PreparedStatement iStatement = getDBConnection().prepare(
                     "UPDATE tbl_inpayment SET inpayment=? WHERE number=? AND companyid=?");
 
             iStatement.setObject(1, iInpayment);
             iStatement.setObject(2, iInpayment.getNumber());
             iStatement.setObject(3, iCurrentCompany.getId());
             iStatement.executeUpdate();
-            iConnection.commit();
+            commit();
             iStatement.close();
 
         } catch (SQLException e) {
             LOG.error("Unexpected error", e);
             try {
-                iConnection.rollback();
+                rollback();
             } catch (SQLException ignored) {}
             SSErrorDialog.showDialog(SSMainFrame.getInstance(), "SQL Error",
                     e.getMessage());
@@ -5529,19 +6234,19 @@ public class SSDB {    private static final Logger LOG = LoggerFactory.getLogger
             return;
         }
         try {
-            PreparedStatement iStatement = iConnection.prepareStatement(
+            PreparedStatement iStatement = getDBConnection().prepare(
                     "DELETE FROM tbl_inpayment WHERE number=? AND companyid=?");
 
             iStatement.setObject(1, iInpayment.getNumber());
             iStatement.setObject(2, iCurrentCompany.getId());
             iStatement.executeUpdate();
-            iConnection.commit();
+            commit();
             iStatement.close();
 
         } catch (SQLException e) {
             LOG.error("Unexpected error", e);
             try {
-                iConnection.rollback();
+                rollback();
             } catch (SQLException ignored) {}
             SSErrorDialog.showDialog(SSMainFrame.getInstance(), "SQL Error",
                     e.getMessage());
@@ -5562,35 +6267,13 @@ public class SSDB {    private static final Logger LOG = LoggerFactory.getLogger
             return iOutpayments;
         }
         try {
-            Integer iMax = -1;
-            ResultSet iResultSet;
-            PreparedStatement iStatement;
-
-            while (true) {
-                iStatement = iConnection.prepareStatement(
-                        "SELECT * FROM tbl_outpayment WHERE companyid=? AND id>?");
-                iStatement.setObject(1, iCurrentCompany.getId());
-                iStatement.setObject(2, iMax);
-                iStatement.setMaxRows(1024);
-
-                iResultSet = iStatement.executeQuery();
-                int i = 0;
-
-                while (iResultSet.next()) {
-                    iMax = iResultSet.getInt(1);
-                    iOutpayments.add((SSOutpayment) iResultSet.getObject(3));
-                    i++;
-                }
-                if (i != 1024) {
-                    break;
-                }
-            }
-            iResultSet.close();
-            iStatement.close();
+            SSDBBulkReader.forEach(getDBConnection(),
+                    "SELECT * FROM tbl_outpayment WHERE companyid=? AND id>? ORDER BY id", iCurrentCompany.getId(),
+                    iResultSet -> (SSOutpayment) iResultSet.getObject(3), iOutpayments::add);
         } catch (SQLException e) {
             LOG.error("Unexpected error", e);
             try {
-                iConnection.rollback();
+                rollback();
             } catch (SQLException ignored) {}
             SSErrorDialog.showDialog(SSMainFrame.getInstance(), "SQL Error",
                     e.getMessage());
@@ -5603,7 +6286,7 @@ public class SSDB {    private static final Logger LOG = LoggerFactory.getLogger
             return Optional.empty();
         }
         try {
-            PreparedStatement iStatement = iConnection.prepareStatement(
+            PreparedStatement iStatement = getDBConnection().prepare(
                     "SELECT * FROM tbl_outpayment WHERE number=? AND companyid=?");
 
             iStatement.setObject(1, pOutpayment.getNumber());
@@ -5621,7 +6304,7 @@ public class SSDB {    private static final Logger LOG = LoggerFactory.getLogger
         } catch (SQLException e) {
             LOG.error("Unexpected error", e);
             try {
-                iConnection.rollback();
+                rollback();
             } catch (SQLException ignored) {}
             SSErrorDialog.showDialog(SSMainFrame.getInstance(), "SQL Error",
                     e.getMessage());
@@ -5635,7 +6318,7 @@ public class SSDB {    private static final Logger LOG = LoggerFactory.getLogger
         }
         try {
 
-            PreparedStatement iStatement = iConnection.prepareStatement(
+            PreparedStatement iStatement = getDBConnection().prepare(
                     "SELECT MAX(number) AS maxnum FROM tbl_outpayment WHERE companyid=?");
 
             iStatement.setObject(1, iCurrentCompany.getId());
@@ -5658,20 +6341,20 @@ public class SSDB {    private static final Logger LOG = LoggerFactory.getLogger
             iResultSet.close();
             iStatement.close();
 
-            iStatement = iConnection.prepareStatement(
+            iStatement = getDBConnection().prepare(
                     "INSERT INTO tbl_outpayment VALUES(NULL,?,?,?)");
             iStatement.setObject(1, iOutpayment.getNumber());
             iStatement.setObject(2, iOutpayment);
             iStatement.setObject(3, iCurrentCompany.getId());
             iStatement.executeUpdate();
-            iConnection.commit();
+            commit();
             iStatement.close();
 
         } catch (SQLException e) {
             LOG.error("Unexpected error", e);
 
             try {
-                iConnection.rollback();
+                rollback();
             } catch (SQLException ignored) {}
             SSErrorDialog.showDialog(SSMainFrame.getInstance(), "SQL Error",
                     e.getMessage());
@@ -5683,20 +6366,20 @@ public class SSDB {    private static final Logger LOG = LoggerFactory.getLogger
             return;
         }
         try {
-            PreparedStatement iStatement = iConnection.prepareStatement(
+            PreparedStatement iStatement = getDBConnection().prepare(
                     "UPDATE tbl_outpayment SET outpayment=? WHERE number=? AND companyid=?");
 
             iStatement.setObject(1, iOutpayment);
             iStatement.setObject(2, iOutpayment.getNumber());
             iStatement.setObject(3, iCurrentCompany.getId());
             iStatement.executeUpdate();
-            iConnection.commit();
+            commit();
             iStatement.close();
 
         } catch (SQLException e) {
             LOG.error("Unexpected error", e);
             try {
-                iConnection.rollback();
+                rollback();
             } catch (SQLException ignored) {}
             SSErrorDialog.showDialog(SSMainFrame.getInstance(), "SQL Error",
                     e.getMessage());
@@ -5708,19 +6391,19 @@ public class SSDB {    private static final Logger LOG = LoggerFactory.getLogger
             return;
         }
         try {
-            PreparedStatement iStatement = iConnection.prepareStatement(
+            PreparedStatement iStatement = getDBConnection().prepare(
                     "DELETE FROM tbl_outpayment WHERE number=? AND companyid=?");
 
             iStatement.setObject(1, iOutpayment.getNumber());
             iStatement.setObject(2, iCurrentCompany.getId());
             iStatement.executeUpdate();
-            iConnection.commit();
+            commit();
             iStatement.close();
 
         } catch (SQLException e) {
             LOG.error("Unexpected error", e);
             try {
-                iConnection.rollback();
+                rollback();
             } catch (SQLException ignored) {}
             SSErrorDialog.showDialog(SSMainFrame.getInstance(), "SQL Error",
                     e.getMessage());
@@ -5743,35 +6426,13 @@ public class SSDB {    private static final Logger LOG = LoggerFactory.getLogger
             return iCreditInvoices;
         }
         try {
-            Integer iMax = -1;
-            ResultSet iResultSet;
-            PreparedStatement iStatement;
-
-            while (true) {
-                iStatement = iConnection.prepareStatement(
-                        "SELECT * FROM tbl_creditinvoice WHERE companyid=? AND id>?");
-                iStatement.setObject(1, iCurrentCompany.getId());
-                iStatement.setObject(2, iMax);
-                iStatement.setMaxRows(1024);
-
-                iResultSet = iStatement.executeQuery();
-                int i = 0;
-
-                while (iResultSet.next()) {
-                    iMax = iResultSet.getInt(1);
-                    iCreditInvoices.add((SSCreditInvoice) iResultSet.getObject(3));
-                    i++;
-                }
-                if (i != 1024) {
-                    break;
-                }
-            }
-            iResultSet.close();
-            iStatement.close();
+            SSDBBulkReader.forEach(getDBConnection(),
+                    "SELECT * FROM tbl_creditinvoice WHERE companyid=? AND id>? ORDER BY id", iCurrentCompany.getId(),
+                    iResultSet -> SSEntityCodecs.decode(iResultSet.getObject(3), SSCreditInvoice.class), iCreditInvoices::add);
         } catch (SQLException e) {
             LOG.error("Unexpected error", e);
             try {
-                iConnection.rollback();
+                rollback();
             } catch (SQLException ignored) {}
             SSErrorDialog.showDialog(SSMainFrame.getInstance(), "SQL Error",
                     e.getMessage());
@@ -5784,7 +6445,7 @@ public class SSDB {    private static final Logger LOG = LoggerFactory.getLogger
             return Optional.empty();
         }
         try {
-            PreparedStatement iStatement = iConnection.prepareStatement(
+            PreparedStatement iStatement = getDBConnection().prepare(
                     "SELECT * FROM tbl_creditinvoice WHERE number=? AND companyid=?");
 
             iStatement.setObject(1, pCreditInvoice.getNumber());
@@ -5792,7 +6453,7 @@ public class SSDB {    private static final Logger LOG = LoggerFactory.getLogger
             ResultSet iResultSet = iStatement.executeQuery();
 
             if (iResultSet.next()) {
-                SSCreditInvoice iCreditInvoice = (SSCreditInvoice) iResultSet.getObject(3);
+                SSCreditInvoice iCreditInvoice = SSEntityCodecs.decode(iResultSet.getObject(3), SSCreditInvoice.class);
 
                 iStatement.close();
                 return Optional.of(iCreditInvoice);
@@ -5802,7 +6463,7 @@ public class SSDB {    private static final Logger LOG = LoggerFactory.getLogger
         } catch (SQLException e) {
             LOG.error("Unexpected error", e);
             try {
-                iConnection.rollback();
+                rollback();
             } catch (SQLException ignored) {}
             SSErrorDialog.showDialog(SSMainFrame.getInstance(), "SQL Error",
                     e.getMessage());
@@ -5828,25 +6489,15 @@ public class SSDB {    private static final Logger LOG = LoggerFactory.getLogger
             return iCreditInvoices;
         }
         try {
-            for (SSCreditInvoice iCreditInvoice : pCreditInvoices) {
-                PreparedStatement iStatement = iConnection.prepareStatement(
-                        "SELECT * FROM tbl_creditinvoice WHERE number=? AND companyid=?");
-
-                iStatement.setObject(1, iCreditInvoice.getNumber());
-                iStatement.setObject(2, iCurrentCompany.getId());
-                ResultSet iResultSet = iStatement.executeQuery();
-
-                if (iResultSet.next()) {
-                    iCreditInvoices.add((SSCreditInvoice) iResultSet.getObject(3));
-                }
-                iStatement.close();
-            }
+            iCreditInvoices.addAll(SSDBBulkReader.readIn(getDBConnection(),
+                    "SELECT * FROM tbl_creditinvoice WHERE number IN (%s) AND companyid=?", pCreditInvoices, SSCreditInvoice::getNumber, iCurrentCompany.getId(),
+                    iResultSet -> SSEntityCodecs.decode(iResultSet.getObject(3), SSCreditInvoice.class)));
 
             return iCreditInvoices;
         } catch (SQLException e) {
             LOG.error("Unexpected error", e);
             try {
-                iConnection.rollback();
+                rollback();
             } catch (SQLException ignored) {}
             SSErrorDialog.showDialog(SSMainFrame.getInstance(), "SQL Error",
                     e.getMessage());
@@ -5860,7 +6511,7 @@ public class SSDB {    private static final Logger LOG = LoggerFactory.getLogger
         }
         try {
 
-            PreparedStatement iStatement = iConnection.prepareStatement(
+            PreparedStatement iStatement = getDBConnection().prepare(
                     "SELECT MAX(number) AS maxnum FROM tbl_creditinvoice WHERE companyid=?");
 
             iStatement.setObject(1, iCurrentCompany.getId());
@@ -5883,20 +6534,20 @@ public class SSDB {    private static final Logger LOG = LoggerFactory.getLogger
             iResultSet.close();
             iStatement.close();
 
-            iStatement = iConnection.prepareStatement(
+            iStatement = getDBConnection().prepare(
                     "INSERT INTO tbl_creditinvoice VALUES(NULL,?,?,?)");
             iStatement.setObject(1, iCreditInvoice.getNumber());
-            iStatement.setObject(2, iCreditInvoice);
+            iStatement.setObject(2, SSEntityCodecs.encode(iCreditInvoice));
             iStatement.setObject(3, iCurrentCompany.getId());
             iStatement.executeUpdate();
-            iConnection.commit();
+            commit();
             iStatement.close();
 
         } catch (SQLException e) {
             LOG.error("Unexpected error", e);
 
             try {
-                iConnection.rollback();
+                rollback();
             } catch (SQLException ignored) {}
             SSErrorDialog.showDialog(SSMainFrame.getInstance(), "SQL Error",
                     e.getMessage());
@@ -5908,20 +6559,20 @@ public class SSDB {    private static final Logger LOG = LoggerFactory.getLogger
             return;
         }
         try {
-            PreparedStatement iStatement = iConnection.prepareStatement(
+            PreparedStatement iStatement = getDBConnection().prepare(
                     "UPDATE tbl_creditinvoice SET creditinvoice=? WHERE number=? AND companyid=?");
 
-            iStatement.setObject(1, iCreditInvoice);
+            iStatement.setObject(1, SSEntityCodecs.encode(iCreditInvoice));
             iStatement.setObject(2, iCreditInvoice.getNumber());
             iStatement.setObject(3, iCurrentCompany.getId());
             iStatement.executeUpdate();
-            iConnection.commit();
+            commit();
             iStatement.close();
 
         } catch (SQLException e) {
             LOG.error("Unexpected error", e);
             try {
-                iConnection.rollback();
+                rollback();
             } catch (SQLException ignored) {}
             SSErrorDialog.showDialog(SSMainFrame.getInstance(), "SQL Error",
                     e.getMessage());
@@ -5933,19 +6584,19 @@ public class SSDB {    private static final Logger LOG = LoggerFactory.getLogger
             return;
         }
         try {
-            PreparedStatement iStatement = iConnection.prepareStatement(
+            PreparedStatement iStatement = getDBConnection().prepare(
                     "DELETE FROM tbl_creditinvoice WHERE number=? AND companyid=?");
 
             iStatement.setObject(1, iCreditInvoice.getNumber());
             iStatement.setObject(2, iCurrentCompany.getId());
             iStatement.executeUpdate();
-            iConnection.commit();
+            commit();
             iStatement.close();
 
         } catch (SQLException e) {
             LOG.error("Unexpected error", e);
             try {
-                iConnection.rollback();
+                rollback();
             } catch (SQLException ignored) {}
             SSErrorDialog.showDialog(SSMainFrame.getInstance(), "SQL Error",
                     e.getMessage());
@@ -5968,35 +6619,13 @@ public class SSDB {    private static final Logger LOG = LoggerFactory.getLogger
             return iPeriodicInvoices;
         }
         try {
-            Integer iMax = -1;
-            ResultSet iResultSet;
-            PreparedStatement iStatement;
-
-            while (true) {
-                iStatement = iConnection.prepareStatement(
-                        "SELECT * FROM tbl_periodicinvoice WHERE companyid=? AND id>?");
-                iStatement.setObject(1, iCurrentCompany.getId());
-                iStatement.setObject(2, iMax);
-                iStatement.setMaxRows(1024);
-
-                iResultSet = iStatement.executeQuery();
-                int i = 0;
-
-                while (iResultSet.next()) {
-                    iMax = iResultSet.getInt(1);
-                    iPeriodicInvoices.add((SSPeriodicInvoice) iResultSet.getObject(3));
-                    i++;
-                }
-                if (i != 1024) {
-                    break;
-                }
-            }
-            iResultSet.close();
-            iStatement.close();
+            SSDBBulkReader.forEach(getDBConnection(),
+                    "SELECT * FROM tbl_periodicinvoice WHERE companyid=? AND id>? ORDER BY id", iCurrentCompany.getId(),
+                    iResultSet -> (SSPeriodicInvoice) iResultSet.getObject(3), iPeriodicInvoices::add);
         } catch (SQLException e) {
             LOG.error("Unexpected error", e);
             try {
-                iConnection.rollback();
+                rollback();
             } catch (SQLException ignored) {}
             SSErrorDialog.showDialog(SSMainFrame.getInstance(), "SQL Error",
                     e.getMessage());
@@ -6009,7 +6638,7 @@ public class SSDB {    private static final Logger LOG = LoggerFactory.getLogger
             return Optional.empty();
         }
         try {
-            PreparedStatement iStatement = iConnection.prepareStatement(
+            PreparedStatement iStatement = getDBConnection().prepare(
                     "SELECT * FROM tbl_periodicinvoice WHERE number=? AND companyid=?");
 
             iStatement.setObject(1, pPeriodicInvoice.getNumber());
@@ -6028,7 +6657,7 @@ public class SSDB {    private static final Logger LOG = LoggerFactory.getLogger
         } catch (SQLException e) {
             LOG.error("Unexpected error", e);
             try {
-                iConnection.rollback();
+                rollback();
             } catch (SQLException ignored) {}
             SSErrorDialog.showDialog(SSMainFrame.getInstance(), "SQL Error",
                     e.getMessage());
@@ -6042,7 +6671,7 @@ public class SSDB {    private static final Logger LOG = LoggerFactory.getLogger
         }
         try {
 
-            PreparedStatement iStatement = iConnection.prepareStatement(
+            PreparedStatement iStatement = getDBConnection().prepare(
                     "SELECT MAX(number) AS maxnum FROM tbl_periodicinvoice WHERE companyid=?");
 
             iStatement.setObject(1, iCurrentCompany.getId());
@@ -6065,20 +6694,20 @@ public class SSDB {    private static final Logger LOG = LoggerFactory.getLogger
             iResultSet.close();
             iStatement.close();
 
-            iStatement = iConnection.prepareStatement(
+            iStatement = getDBConnection().prepare(
                     "INSERT INTO tbl_periodicinvoice VALUES(NULL,?,?,?)");
             iStatement.setObject(1, iPeriodicInvoice.getNumber());
             iStatement.setObject(2, iPeriodicInvoice);
             iStatement.setObject(3, iCurrentCompany.getId());
             iStatement.executeUpdate();
-            iConnection.commit();
+            commit();
             iStatement.close();
 
         } catch (SQLException e) {
             LOG.error("Unexpected error", e);
 
             try {
-                iConnection.rollback();
+                rollback();
             } catch (SQLException ignored) {}
             SSErrorDialog.showDialog(SSMainFrame.getInstance(), "SQL Error",
                     e.getMessage());
@@ -6090,20 +6719,20 @@ public class SSDB {    private static final Logger LOG = LoggerFactory.getLogger
             return;
         }
         try {
-            PreparedStatement iStatement = iConnection.prepareStatement(
+            PreparedStatement iStatement = getDBConnection().prepare(
                     "UPDATE tbl_periodicinvoice SET periodicinvoice=? WHERE number=? AND companyid=?");
 
             iStatement.setObject(1, iPeriodicInvoice);
             iStatement.setObject(2, iPeriodicInvoice.getNumber());
             iStatement.setObject(3, iCurrentCompany.getId());
             iStatement.executeUpdate();
-            iConnection.commit();
+            commit();
             iStatement.close();
 
         } catch (SQLException e) {
             LOG.error("Unexpected error", e);
             try {
-                iConnection.rollback();
+                rollback();
             } catch (SQLException ignored) {}
             SSErrorDialog.showDialog(SSMainFrame.getInstance(), "SQL Error",
                     e.getMessage());
@@ -6115,19 +6744,19 @@ public class SSDB {    private static final Logger LOG = LoggerFactory.getLogger
             return;
         }
         try {
-            PreparedStatement iStatement = iConnection.prepareStatement(
+            PreparedStatement iStatement = getDBConnection().prepare(
                     "DELETE FROM tbl_periodicinvoice WHERE number=? AND companyid=?");
 
             iStatement.setObject(1, iPeriodicInvoice.getNumber());
             iStatement.setObject(2, iCurrentCompany.getId());
             iStatement.executeUpdate();
-            iConnection.commit();
+            commit();
             iStatement.close();
 
         } catch (SQLException e) {
             LOG.error("Unexpected error", e);
             try {
-                iConnection.rollback();
+                rollback();
             } catch (SQLException ignored) {}
             SSErrorDialog.showDialog(SSMainFrame.getInstance(), "SQL Error",
                     e.getMessage());
@@ -6150,35 +6779,13 @@ public class SSDB {    private static final Logger LOG = LoggerFactory.getLogger
             return iPurchaseOrders;
         }
         try {
-            Integer iMax = -1;
-            ResultSet iResultSet;
-            PreparedStatement iStatement;
-
-            while (true) {
-                iStatement = iConnection.prepareStatement(
-                        "SELECT * FROM tbl_purchaseorder WHERE companyid=? AND id>?");
-                iStatement.setObject(1, iCurrentCompany.getId());
-                iStatement.setObject(2, iMax);
-                iStatement.setMaxRows(1024);
-
-                iResultSet = iStatement.executeQuery();
-                int i = 0;
-
-                while (iResultSet.next()) {
-                    iMax = iResultSet.getInt(1);
-                    iPurchaseOrders.add((SSPurchaseOrder) iResultSet.getObject(3));
-                    i++;
-                }
-                if (i != 1024) {
-                    break;
-                }
-            }
-            iResultSet.close();
-            iStatement.close();
+            SSDBBulkReader.forEach(getDBConnection(),
+                    "SELECT * FROM tbl_purchaseorder WHERE companyid=? AND id>? ORDER BY id", iCurrentCompany.getId(),
+                    iResultSet -> (SSPurchaseOrder) iResultSet.getObject(3), iPurchaseOrders::add);
         } catch (SQLException e) {
             LOG.error("Unexpected error", e);
             try {
-                iConnection.rollback();
+                rollback();
             } catch (SQLException ignored) {}
             SSErrorDialog.showDialog(SSMainFrame.getInstance(), "SQL Error",
                     e.getMessage());
@@ -6191,7 +6798,7 @@ public class SSDB {    private static final Logger LOG = LoggerFactory.getLogger
             return Optional.empty();
         }
         try {
-            PreparedStatement iStatement = iConnection.prepareStatement(
+            PreparedStatement iStatement = getDBConnection().prepare(
                     "SELECT * FROM tbl_purchaseorder WHERE number=? AND companyid=?");
 
             iStatement.setObject(1, pPurchaseOrder.getNumber());
@@ -6209,7 +6816,7 @@ public class SSDB {    private static final Logger LOG = LoggerFactory.getLogger
         } catch (SQLException e) {
             LOG.error("Unexpected error", e);
             try {
-                iConnection.rollback();
+                rollback();
             } catch (SQLException ignored) {}
             SSErrorDialog.showDialog(SSMainFrame.getInstance(), "SQL Error",
                     e.getMessage());
@@ -6235,25 +6842,15 @@ public class SSDB {    private static final Logger LOG = LoggerFactory.getLogger
             return iPurchaseOrders;
         }
         try {
-            for (SSPurchaseOrder iPurchaseOrder : pPurchaseOrders) {
-                PreparedStatement iStatement = iConnection.prepareStatement(
-                        "SELECT * FROM tbl_purchaseorder WHERE number=? AND companyid=?");
-
-                iStatement.setObject(1, iPurchaseOrder.getNumber());
-                iStatement.setObject(2, iCurrentCompany.getId());
-                ResultSet iResultSet = iStatement.executeQuery();
-
-                if (iResultSet.next()) {
-                    iPurchaseOrders.add((SSPurchaseOrder) iResultSet.getObject(3));
-                }
-                iStatement.close();
-            }
+            iPurchaseOrders.addAll(SSDBBulkReader.readIn(getDBConnection(),
+                    "SELECT * FROM tbl_purchaseorder WHERE number IN (%s) AND companyid=?", pPurchaseOrders, SSPurchaseOrder::getNumber, iCurrentCompany.getId(),
+                    iResultSet -> (SSPurchaseOrder) iResultSet.getObject(3)));
 
             return iPurchaseOrders;
         } catch (SQLException e) {
             LOG.error("Unexpected error", e);
             try {
-                iConnection.rollback();
+                rollback();
             } catch (SQLException ignored) {}
             SSErrorDialog.showDialog(SSMainFrame.getInstance(), "SQL Error",
                     e.getMessage());
@@ -6267,7 +6864,7 @@ public class SSDB {    private static final Logger LOG = LoggerFactory.getLogger
         }
         try {
 
-            PreparedStatement iStatement = iConnection.prepareStatement(
+            PreparedStatement iStatement = getDBConnection().prepare(
                     "SELECT MAX(number) AS maxnum FROM tbl_purchaseorder WHERE companyid=?");
 
             iStatement.setObject(1, iCurrentCompany.getId());
@@ -6290,20 +6887,20 @@ public class SSDB {    private static final Logger LOG = LoggerFactory.getLogger
             iResultSet.close();
             iStatement.close();
 
-            iStatement = iConnection.prepareStatement(
+            iStatement = getDBConnection().prepare(
                     "INSERT INTO tbl_purchaseorder VALUES(NULL,?,?,?)");
             iStatement.setObject(1, iPurchaseOrder.getNumber());
             iStatement.setObject(2, iPurchaseOrder);
             iStatement.setObject(3, iCurrentCompany.getId());
             iStatement.executeUpdate();
-            iConnection.commit();
+            commit();
             iStatement.close();
 
         } catch (SQLException e) {
             LOG.error("Unexpected error", e);
 
             try {
-                iConnection.rollback();
+                rollback();
             } catch (SQLException ignored) {}
             SSErrorDialog.showDialog(SSMainFrame.getInstance(), "SQL Error",
                     e.getMessage());
@@ -6315,20 +6912,20 @@ public class SSDB {    private static final Logger LOG = LoggerFactory.getLogger
             return;
         }
         try {
-            PreparedStatement iStatement = iConnection.prepareStatement(
+            PreparedStatement iStatement = getDBConnection().prepare(
                     "UPDATE tbl_purchaseorder SET purchaseorder=? WHERE number=? AND companyid=?");
 
             iStatement.setObject(1, iPurchaseOrder);
             iStatement.setObject(2, iPurchaseOrder.getNumber());
             iStatement.setObject(3, iCurrentCompany.getId());
             iStatement.executeUpdate();
-            iConnection.commit();
+            commit();
             iStatement.close();
 
         } catch (SQLException e) {
             LOG.error("Unexpected error", e);
             try {
-                iConnection.rollback();
+                rollback();
             } catch (SQLException ignored) {}
             SSErrorDialog.showDialog(SSMainFrame.getInstance(), "SQL Error",
                     e.getMessage());
@@ -6340,19 +6937,19 @@ public class SSDB {    private static final Logger LOG = LoggerFactory.getLogger
             return;
         }
         try {
-            PreparedStatement iStatement = iConnection.prepareStatement(
+            PreparedStatement iStatement = getDBConnection().prepare(
                     "DELETE FROM tbl_purchaseorder WHERE number=? AND companyid=?");
 
             iStatement.setObject(1, iPurchaseOrder.getNumber());
             iStatement.setObject(2, iCurrentCompany.getId());
             iStatement.executeUpdate();
-            iConnection.commit();
+            commit();
             iStatement.close();
 
         } catch (SQLException e) {
             LOG.error("Unexpected error", e);
             try {
-                iConnection.rollback();
+                rollback();
             } catch (SQLException ignored) {}
             SSErrorDialog.showDialog(SSMainFrame.getInstance(), "SQL Error",
                     e.getMessage());
@@ -6375,35 +6972,13 @@ public class SSDB {    private static final Logger LOG = LoggerFactory.getLogger
             return iSupplierInvoices;
         }
         try {
-            Integer iMax = -1;
-            ResultSet iResultSet;
-            PreparedStatement iStatement;
-
-            while (true) {
-                iStatement = iConnection.prepareStatement(
-                        "SELECT * FROM tbl_supplierinvoice WHERE companyid=? AND id>?");
-                iStatement.setObject(1, iCurrentCompany.getId());
-                iStatement.setObject(2, iMax);
-                iStatement.setMaxRows(1024);
-
-                iResultSet = iStatement.executeQuery();
-                int i = 0;
-
-                while (iResultSet.next()) {
-                    iMax = iResultSet.getInt(1);
-                    iSupplierInvoices.add((SSSupplierInvoice) iResultSet.getObject(3));
-                    i++;
-                }
-                if (i != 1024) {
-                    break;
-                }
-            }
-            iResultSet.close();
-            iStatement.close();
+            SSDBBulkReader.forEach(getDBConnection(),
+                    "SELECT * FROM tbl_supplierinvoice WHERE companyid=? AND id>? ORDER BY id", iCurrentCompany.getId(),
+                    iResultSet -> (SSSupplierInvoice) iResultSet.getObject(3), iSupplierInvoices::add);
         } catch (SQLException e) {
             LOG.error("Unexpected error", e);
             try {
-                iConnection.rollback();
+                rollback();
             } catch (SQLException ignored) {}
             SSErrorDialog.showDialog(SSMainFrame.getInstance(), "SQL Error",
                     e.getMessage());
@@ -6416,7 +6991,7 @@ public class SSDB {    private static final Logger LOG = LoggerFactory.getLogger
             return Optional.empty();
         }
         try {
-            PreparedStatement iStatement = iConnection.prepareStatement(
+            PreparedStatement iStatement = getDBConnection().prepare(
                     "SELECT * FROM tbl_supplierinvoice WHERE number=? AND companyid=?");
 
             iStatement.setObject(1, pSupplierInvoice.getNumber());
@@ -6435,7 +7010,7 @@ public class SSDB {    private static final Logger LOG = LoggerFactory.getLogger
         } catch (SQLException e) {
             LOG.error("Unexpected error", e);
             try {
-                iConnection.rollback();
+                rollback();
             } catch (SQLException ignored) {}
             SSErrorDialog.showDialog(SSMainFrame.getInstance(), "SQL Error",
                     e.getMessage());
@@ -6461,25 +7036,15 @@ public class SSDB {    private static final Logger LOG = LoggerFactory.getLogger
             return iSupplierInvoices;
         }
         try {
-            for (SSSupplierInvoice iSupplierInvoice : pSupplierInvoices) {
-                PreparedStatement iStatement = iConnection.prepareStatement(
-                        "SELECT * FROM tbl_supplierinvoice WHERE number=? AND companyid=?");
-
-                iStatement.setObject(1, iSupplierInvoice.getNumber());
-                iStatement.setObject(2, iCurrentCompany.getId());
-                ResultSet iResultSet = iStatement.executeQuery();
-
-                if (iResultSet.next()) {
-                    iSupplierInvoices.add((SSSupplierInvoice) iResultSet.getObject(3));
-                }
-                iStatement.close();
-            }
+            iSupplierInvoices.addAll(SSDBBulkReader.readIn(getDBConnection(),
+                    "SELECT * FROM tbl_supplierinvoice WHERE number IN (%s) AND companyid=?", pSupplierInvoices, SSSupplierInvoice::getNumber, iCurrentCompany.getId(),
+                    iResultSet -> (SSSupplierInvoice) iResultSet.getObject(3)));
 
             return iSupplierInvoices;
         } catch (SQLException e) {
             LOG.error("Unexpected error", e);
             try {
-                iConnection.rollback();
+                rollback();
             } catch (SQLException ignored) {}
             SSErrorDialog.showDialog(SSMainFrame.getInstance(), "SQL Error",
                     e.getMessage());
@@ -6493,7 +7058,7 @@ public class SSDB {    private static final Logger LOG = LoggerFactory.getLogger
         }
         try {
 
-            PreparedStatement iStatement = iConnection.prepareStatement(
+            PreparedStatement iStatement = getDBConnection().prepare(
                     "SELECT MAX(number) AS maxnum FROM tbl_supplierinvoice WHERE companyid=?");
 
             iStatement.setObject(1, iCurrentCompany.getId());
@@ -6516,20 +7081,20 @@ public class SSDB {    private static final Logger LOG = LoggerFactory.getLogger
             iResultSet.close();
             iStatement.close();
 
-            iStatement = iConnection.prepareStatement(
+            iStatement = getDBConnection().prepare(
                     "INSERT INTO tbl_supplierinvoice VALUES(NULL,?,?,?)");
             iStatement.setObject(1, iSupplierInvoice.getNumber());
             iStatement.setObject(2, iSupplierInvoice);
             iStatement.setObject(3, iCurrentCompany.getId());
             iStatement.executeUpdate();
-            iConnection.commit();
+            commit();
             iStatement.close();
 
         } catch (SQLException e) {
             LOG.error("Unexpected error", e);
 
             try {
-                iConnection.rollback();
+                rollback();
             } catch (SQLException ignored) {}
             SSErrorDialog.showDialog(SSMainFrame.getInstance(), "SQL Error",
                     e.getMessage());
@@ -6541,20 +7106,20 @@ public class SSDB {    private static final Logger LOG = LoggerFactory.getLogger
             return;
         }
         try {
-            PreparedStatement iStatement = iConnection.prepareStatement(
+            PreparedStatement iStatement = getDBConnection().prepare(
                     "UPDATE tbl_supplierinvoice SET supplierinvoice=? WHERE number=? AND companyid=?");
 
             iStatement.setObject(1, iSupplierInvoice);
             iStatement.setObject(2, iSupplierInvoice.getNumber());
             iStatement.setObject(3, iCurrentCompany.getId());
             iStatement.executeUpdate();
-            iConnection.commit();
+            commit();
             iStatement.close();
 
         } catch (SQLException e) {
             LOG.error("Unexpected error", e);
             try {
-                iConnection.rollback();
+                rollback();
             } catch (SQLException ignored) {}
             SSErrorDialog.showDialog(SSMainFrame.getInstance(), "SQL Error",
                     e.getMessage());
@@ -6566,19 +7131,19 @@ public class SSDB {    private static final Logger LOG = LoggerFactory.getLogger
             return;
         }
         try {
-            PreparedStatement iStatement = iConnection.prepareStatement(
+            PreparedStatement iStatement = getDBConnection().prepare(
                     "DELETE FROM tbl_supplierinvoice WHERE number=? AND companyid=?");
 
             iStatement.setObject(1, iSupplierInvoice.getNumber());
             iStatement.setObject(2, iCurrentCompany.getId());
             iStatement.executeUpdate();
-            iConnection.commit();
+            commit();
             iStatement.close();
 
         } catch (SQLException e) {
             LOG.error("Unexpected error", e);
             try {
-                iConnection.rollback();
+                rollback();
             } catch (SQLException ignored) {}
             SSErrorDialog.showDialog(SSMainFrame.getInstance(), "SQL Error",
                     e.getMessage());
@@ -6601,36 +7166,13 @@ public class SSDB {    private static final Logger LOG = LoggerFactory.getLogger
             return iSupplierCreditInvoices;
         }
         try {
-            Integer iMax = -1;
-            ResultSet iResultSet;
-            PreparedStatement iStatement;
-
-            while (true) {
-                iStatement = iConnection.prepareStatement(
-                        "SELECT * FROM tbl_suppliercreditinvoice WHERE companyid=? AND id>?");
-                iStatement.setObject(1, iCurrentCompany.getId());
-                iStatement.setObject(2, iMax);
-                iStatement.setMaxRows(1024);
-
-                iResultSet = iStatement.executeQuery();
-                int i = 0;
-
-                while (iResultSet.next()) {
-                    iMax = iResultSet.getInt(1);
-                    iSupplierCreditInvoices.add(
-                            (SSSupplierCreditInvoice) iResultSet.getObject(3));
-                    i++;
-                }
-                if (i != 1024) {
-                    break;
-                }
-            }
-            iResultSet.close();
-            iStatement.close();
+            SSDBBulkReader.forEach(getDBConnection(),
+                    "SELECT * FROM tbl_suppliercreditinvoice WHERE companyid=? AND id>? ORDER BY id", iCurrentCompany.getId(),
+                    iResultSet -> (SSSupplierCreditInvoice) iResultSet.getObject(3), iSupplierCreditInvoices::add);
         } catch (SQLException e) {
             LOG.error("Unexpected error", e);
             try {
-                iConnection.rollback();
+                rollback();
             } catch (SQLException ignored) {}
             SSErrorDialog.showDialog(SSMainFrame.getInstance(), "SQL Error",
                     e.getMessage());
@@ -6643,7 +7185,7 @@ public class SSDB {    private static final Logger LOG = LoggerFactory.getLogger
             return Optional.empty();
         }
         try {
-            PreparedStatement iStatement = iConnection.prepareStatement(
+            PreparedStatement iStatement = getDBConnection().prepare(
                     "SELECT * FROM tbl_suppliercreditinvoice WHERE number=? AND companyid=?");
 
             iStatement.setObject(1, pSupplierCreditInvoice.getNumber());
@@ -6662,7 +7204,7 @@ public class SSDB {    private static final Logger LOG = LoggerFactory.getLogger
         } catch (SQLException e) {
             LOG.error("Unexpected error", e);
             try {
-                iConnection.rollback();
+                rollback();
             } catch (SQLException ignored) {}
             SSErrorDialog.showDialog(SSMainFrame.getInstance(), "SQL Error",
                     e.getMessage());
@@ -6676,7 +7218,7 @@ public class SSDB {    private static final Logger LOG = LoggerFactory.getLogger
         }
         try {
 
-            PreparedStatement iStatement = iConnection.prepareStatement(
+            PreparedStatement iStatement = getDBConnection().prepare(
                     "SELECT MAX(number) AS maxnum FROM tbl_suppliercreditinvoice WHERE companyid=?");
 
             iStatement.setObject(1, iCurrentCompany.getId());
@@ -6699,20 +7241,20 @@ public class SSDB {    private static final Logger LOG = LoggerFactory.getLogger
             iResultSet.close();
             iStatement.close();
 
-            iStatement = iConnection.prepareStatement(
+            iStatement = getDBConnection().prepare(
                     "INSERT INTO tbl_suppliercreditinvoice VALUES(NULL,?,?,?)");
             iStatement.setObject(1, iSupplierCreditInvoice.getNumber());
             iStatement.setObject(2, iSupplierCreditInvoice);
             iStatement.setObject(3, iCurrentCompany.getId());
             iStatement.executeUpdate();
-            iConnection.commit();
+            commit();
             iStatement.close();
 
         } catch (SQLException e) {
             LOG.error("Unexpected error", e);
 
             try {
-                iConnection.rollback();
+                rollback();
             } catch (SQLException ignored) {}
             SSErrorDialog.showDialog(SSMainFrame.getInstance(), "SQL Error",
                     e.getMessage());
@@ -6724,20 +7266,20 @@ public class SSDB {    private static final Logger LOG = LoggerFactory.getLogger
             return;
         }
         try {
-            PreparedStatement iStatement = iConnection.prepareStatement(
+            PreparedStatement iStatement = getDBConnection().prepare(
                     "UPDATE tbl_suppliercreditinvoice SET suppliercreditinvoice=? WHERE number=? AND companyid=?");
 
             iStatement.setObject(1, iSupplierCreditInvoice);
             iStatement.setObject(2, iSupplierCreditInvoice.getNumber());
             iStatement.setObject(3, iCurrentCompany.getId());
             iStatement.executeUpdate();
-            iConnection.commit();
+            commit();
             iStatement.close();
 
         } catch (SQLException e) {
             LOG.error("Unexpected error", e);
             try {
-                iConnection.rollback();
+                rollback();
             } catch (SQLException ignored) {}
             SSErrorDialog.showDialog(SSMainFrame.getInstance(), "SQL Error",
                     e.getMessage());
@@ -6749,19 +7291,19 @@ public class SSDB {    private static final Logger LOG = LoggerFactory.getLogger
             return;
         }
         try {
-            PreparedStatement iStatement = iConnection.prepareStatement(
+            PreparedStatement iStatement = getDBConnection().prepare(
                     "DELETE FROM tbl_suppliercreditinvoice WHERE number=? AND companyid=?");
 
             iStatement.setObject(1, iSupplierCreditInvoice.getNumber());
             iStatement.setObject(2, iCurrentCompany.getId());
             iStatement.executeUpdate();
-            iConnection.commit();
+            commit();
             iStatement.close();
 
         } catch (SQLException e) {
             LOG.error("Unexpected error", e);
             try {
-                iConnection.rollback();
+                rollback();
             } catch (SQLException ignored) {}
             SSErrorDialog.showDialog(SSMainFrame.getInstance(), "SQL Error",
                     e.getMessage());
@@ -6783,35 +7325,13 @@ public class SSDB {    private static final Logger LOG = LoggerFactory.getLogger
             return iInventories;
         }
         try {
-            Integer iMax = -1;
-            ResultSet iResultSet;
-            PreparedStatement iStatement;
-
-            while (true) {
-                iStatement = iConnection.prepareStatement(
-                        "SELECT * FROM tbl_inventory WHERE companyid=? AND id>?");
-                iStatement.setObject(1, iCurrentCompany.getId());
-                iStatement.setObject(2, iMax);
-                iStatement.setMaxRows(1024);
-
-                iResultSet = iStatement.executeQuery();
-                int i = 0;
-
-                while (iResultSet.next()) {
-                    iMax = iResultSet.getInt(1);
-                    iInventories.add((SSInventory) iResultSet.getObject(3));
-                    i++;
-                }
-                if (i != 1024) {
-                    break;
-                }
-            }
-            iResultSet.close();
-            iStatement.close();
+            SSDBBulkReader.forEach(getDBConnection(),
+                    "SELECT * FROM tbl_inventory WHERE companyid=? AND id>? ORDER BY id", iCurrentCompany.getId(),
+                    iResultSet -> (SSInventory) iResultSet.getObject(3), iInventories::add);
         } catch (SQLException e) {
             LOG.error("Unexpected error", e);
             try {
-                iConnection.rollback();
+                rollback();
             } catch (SQLException ignored) {}
             SSErrorDialog.showDialog(SSMainFrame.getInstance(), "SQL Error",
                     e.getMessage());
@@ -6824,7 +7344,7 @@ public class SSDB {    private static final Logger LOG = LoggerFactory.getLogger
             return Optional.empty();
         }
         try {
-            PreparedStatement iStatement = iConnection.prepareStatement(
+            PreparedStatement iStatement = getDBConnection().prepare(
                     "SELECT * FROM tbl_inventory WHERE number=? AND companyid=?");
 
             iStatement.setObject(1, pInventory.getNumber());
@@ -6842,7 +7362,7 @@ public class SSDB {    private static final Logger LOG = LoggerFactory.getLogger
         } catch (SQLException e) {
             LOG.error("Unexpected error", e);
             try {
-                iConnection.rollback();
+                rollback();
             } catch (SQLException ignored) {}
             SSErrorDialog.showDialog(SSMainFrame.getInstance(), "SQL Error",
                     e.getMessage());
@@ -6856,7 +7376,7 @@ public class SSDB {    private static final Logger LOG = LoggerFactory.getLogger
         }
         try {
 
-            PreparedStatement iStatement = iConnection.prepareStatement(
+            PreparedStatement iStatement = getDBConnection().prepare(
                     "SELECT MAX(number) AS maxnum FROM tbl_inventory WHERE companyid=?");
 
             iStatement.setObject(1, iCurrentCompany.getId());
@@ -6879,20 +7399,20 @@ public class SSDB {    private static final Logger LOG = LoggerFactory.getLogger
             iResultSet.close();
             iStatement.close();
 
-            iStatement = iConnection.prepareStatement(
+            iStatement = getDBConnection().prepare(
                     "INSERT INTO tbl_inventory VALUES(NULL,?,?,?)");
             iStatement.setObject(1, iInventory.getNumber());
             iStatement.setObject(2, iInventory);
             iStatement.setObject(3, iCurrentCompany.getId());
             iStatement.executeUpdate();
-            iConnection.commit();
+            commit();
             iStatement.close();
 
         } catch (SQLException e) {
             LOG.error("Unexpected error", e);
 
             try {
-                iConnection.rollback();
+                rollback();
             } catch (SQLException ignored) {}
             SSErrorDialog.showDialog(SSMainFrame.getInstance(), "SQL Error",
                     e.getMessage());
@@ -6904,20 +7424,20 @@ public class SSDB {    private static final Logger LOG = LoggerFactory.getLogger
             return;
         }
         try {
-            PreparedStatement iStatement = iConnection.prepareStatement(
+            PreparedStatement iStatement = getDBConnection().prepare(
                     "UPDATE tbl_inventory SET inventory=? WHERE number=? AND companyid=?");
 
             iStatement.setObject(1, iInventory);
             iStatement.setObject(2, iInventory.getNumber());
             iStatement.setObject(3, iCurrentCompany.getId());
             iStatement.executeUpdate();
-            iConnection.commit();
+            commit();
             iStatement.close();
 
         } catch (SQLException e) {
             LOG.error("Unexpected error", e);
             try {
-                iConnection.rollback();
+                rollback();
             } catch (SQLException ignored) {}
             SSErrorDialog.showDialog(SSMainFrame.getInstance(), "SQL Error",
                     e.getMessage());
@@ -6929,19 +7449,19 @@ public class SSDB {    private static final Logger LOG = LoggerFactory.getLogger
             return;
         }
         try {
-            PreparedStatement iStatement = iConnection.prepareStatement(
+            PreparedStatement iStatement = getDBConnection().prepare(
                     "DELETE FROM tbl_inventory WHERE number=? AND companyid=?");
 
             iStatement.setObject(1, iInventory.getNumber());
             iStatement.setObject(2, iCurrentCompany.getId());
             iStatement.executeUpdate();
-            iConnection.commit();
+            commit();
             iStatement.close();
 
         } catch (SQLException e) {
             LOG.error("Unexpected error", e);
             try {
-                iConnection.rollback();
+                rollback();
             } catch (SQLException ignored) {}
             SSErrorDialog.showDialog(SSMainFrame.getInstance(), "SQL Error",
                     e.getMessage());
@@ -6963,35 +7483,13 @@ public class SSDB {    private static final Logger LOG = LoggerFactory.getLogger
             return iIndeliveries;
         }
         try {
-            Integer iMax = -1;
-            ResultSet iResultSet;
-            PreparedStatement iStatement;
-
-            while (true) {
-                iStatement = iConnection.prepareStatement(
-                        "SELECT * FROM tbl_indelivery WHERE companyid=? AND id>?");
-                iStatement.setObject(1, iCurrentCompany.getId());
-                iStatement.setObject(2, iMax);
-                iStatement.setMaxRows(1024);
-
-                iResultSet = iStatement.executeQuery();
-                int i = 0;
-
-                while (iResultSet.next()) {
-                    iMax = iResultSet.getInt(1);
-                    iIndeliveries.add((SSIndelivery) iResultSet.getObject(3));
-                    i++;
-                }
-                if (i != 1024) {
-                    break;
-                }
-            }
-            iResultSet.close();
-            iStatement.close();
+            SSDBBulkReader.forEach(getDBConnection(),
+                    "SELECT * FROM tbl_indelivery WHERE companyid=? AND id>? ORDER BY id", iCurrentCompany.getId(),
+                    iResultSet -> (SSIndelivery) iResultSet.getObject(3), iIndeliveries::add);
         } catch (SQLException e) {
             LOG.error("Unexpected error", e);
             try {
-                iConnection.rollback();
+                rollback();
             } catch (SQLException ignored) {}
             SSErrorDialog.showDialog(SSMainFrame.getInstance(), "SQL Error",
                     e.getMessage());
@@ -7004,7 +7502,7 @@ public class SSDB {    private static final Logger LOG = LoggerFactory.getLogger
             return Optional.empty();
         }
         try {
-            PreparedStatement iStatement = iConnection.prepareStatement(
+            PreparedStatement iStatement = getDBConnection().prepare(
                     "SELECT * FROM tbl_indelivery WHERE number=? AND companyid=?");
 
             iStatement.setObject(1, pIndelivery.getNumber());
@@ -7022,7 +7520,7 @@ public class SSDB {    private static final Logger LOG = LoggerFactory.getLogger
         } catch (SQLException e) {
             LOG.error("Unexpected error", e);
             try {
-                iConnection.rollback();
+                rollback();
             } catch (SQLException ignored) {}
             SSErrorDialog.showDialog(SSMainFrame.getInstance(), "SQL Error",
                     e.getMessage());
@@ -7036,7 +7534,7 @@ public class SSDB {    private static final Logger LOG = LoggerFactory.getLogger
         }
         try {
 
-            PreparedStatement iStatement = iConnection.prepareStatement(
+            PreparedStatement iStatement = getDBConnection().prepare(
                     "SELECT MAX(number) AS maxnum FROM tbl_indelivery WHERE companyid=?");
 
             iStatement.setObject(1, iCurrentCompany.getId());
@@ -7059,20 +7557,20 @@ public class SSDB {    private static final Logger LOG = LoggerFactory.getLogger
             iResultSet.close();
             iStatement.close();
 
-            iStatement = iConnection.prepareStatement(
+            iStatement = getDBConnection().prepare(
                     "INSERT INTO tbl_indelivery VALUES(NULL,?,?,?)");
             iStatement.setObject(1, iIndelivery.getNumber());
             iStatement.setObject(2, iIndelivery);
             iStatement.setObject(3, iCurrentCompany.getId());
             iStatement.executeUpdate();
-            iConnection.commit();
+            commit();
             iStatement.close();
 
         } catch (SQLException e) {
             LOG.error("Unexpected error", e);
 
             try {
-                iConnection.rollback();
+                rollback();
             } catch (SQLException ignored) {}
             SSErrorDialog.showDialog(SSMainFrame.getInstance(), "SQL Error",
                     e.getMessage());
@@ -7084,20 +7582,20 @@ public class SSDB {    private static final Logger LOG = LoggerFactory.getLogger
             return;
         }
         try {
-            PreparedStatement iStatement = iConnection.prepareStatement(
+            PreparedStatement iStatement = getDBConnection().prepare(
                     "UPDATE tbl_indelivery SET indelivery=? WHERE number=? AND companyid=?");
 
             iStatement.setObject(1, iIndelivery);
             iStatement.setObject(2, iIndelivery.getNumber());
             iStatement.setObject(3, iCurrentCompany.getId());
             iStatement.executeUpdate();
-            iConnection.commit();
+            commit();
             iStatement.close();
 
         } catch (SQLException e) {
             LOG.error("Unexpected error", e);
             try {
-                iConnection.rollback();
+                rollback();
             } catch (SQLException ignored) {}
             SSErrorDialog.showDialog(SSMainFrame.getInstance(), "SQL Error",
                     e.getMessage());
@@ -7109,19 +7607,19 @@ public class SSDB {    private static final Logger LOG = LoggerFactory.getLogger
             return;
         }
         try {
-            PreparedStatement iStatement = iConnection.prepareStatement(
+            PreparedStatement iStatement = getDBConnection().prepare(
                     "DELETE FROM tbl_indelivery WHERE number=? AND companyid=?");
 
             iStatement.setObject(1, iIndelivery.getNumber());
             iStatement.setObject(2, iCurrentCompany.getId());
             iStatement.executeUpdate();
-            iConnection.commit();
+            commit();
             iStatement.close();
 
         } catch (SQLException e) {
             LOG.error("Unexpected error", e);
             try {
-                iConnection.rollback();
+                rollback();
             } catch (SQLException ignored) {}
             SSErrorDialog.showDialog(SSMainFrame.getInstance(), "SQL Error",
                     e.getMessage());
@@ -7143,35 +7641,13 @@ public class SSDB {    private static final Logger LOG = LoggerFactory.getLogger
             return iOutdeliveries;
         }
         try {
-            Integer iMax = -1;
-            ResultSet iResultSet;
-            PreparedStatement iStatement;
-
-            while (true) {
-                iStatement = iConnection.prepareStatement(
-                        "SELECT * FROM tbl_outdelivery WHERE companyid=? AND id>?");
-                iStatement.setObject(1, iCurrentCompany.getId());
-                iStatement.setObject(2, iMax);
-                iStatement.setMaxRows(1024);
-
-                iResultSet = iStatement.executeQuery();
-                int i = 0;
-
-                while (iResultSet.next()) {
-                    iMax = iResultSet.getInt(1);
-                    iOutdeliveries.add((SSOutdelivery) iResultSet.getObject(3));
-                    i++;
-                }
-                if (i != 1024) {
-                    break;
-                }
-            }
-            iResultSet.close();
-            iStatement.close();
+            SSDBBulkReader.forEach(getDBConnection(),
+                    "SELECT * FROM tbl_outdelivery WHERE companyid=? AND id>? ORDER BY id", iCurrentCompany.getId(),
+                    iResultSet -> (SSOutdelivery) iResultSet.getObject(3), iOutdeliveries::add);
         } catch (SQLException e) {
             LOG.error("Unexpected error", e);
             try {
-                iConnection.rollback();
+                rollback();
             } catch (SQLException ignored) {}
             SSErrorDialog.showDialog(SSMainFrame.getInstance(), "SQL Error",
                     e.getMessage());
@@ -7184,7 +7660,7 @@ public class SSDB {    private static final Logger LOG = LoggerFactory.getLogger
             return Optional.empty();
         }
         try {
-            PreparedStatement iStatement = iConnection.prepareStatement(
+            PreparedStatement iStatement = getDBConnection().prepare(
                     "SELECT * FROM tbl_outdelivery WHERE number=? AND companyid=?");
 
             iStatement.setObject(1, pOutdelivery.getNumber());
@@ -7202,7 +7678,7 @@ public class SSDB {    private static final Logger LOG = LoggerFactory.getLogger
         } catch (SQLException e) {
             LOG.error("Unexpected error", e);
             try {
-                iConnection.rollback();
+                rollback();
             } catch (SQLException ignored) {}
             SSErrorDialog.showDialog(SSMainFrame.getInstance(), "SQL Error",
                     e.getMessage());
@@ -7216,7 +7692,7 @@ public class SSDB {    private static final Logger LOG = LoggerFactory.getLogger
         }
         try {
 
-            PreparedStatement iStatement = iConnection.prepareStatement(
+            PreparedStatement iStatement = getDBConnection().prepare(
                     "SELECT MAX(number) AS maxnum FROM tbl_outdelivery WHERE companyid=?");
 
             iStatement.setObject(1, iCurrentCompany.getId());
@@ -7239,20 +7715,20 @@ public class SSDB {    private static final Logger LOG = LoggerFactory.getLogger
             iResultSet.close();
             iStatement.close();
 
-            iStatement = iConnection.prepareStatement(
+            iStatement = getDBConnection().prepare(
                     "INSERT INTO tbl_outdelivery VALUES(NULL,?,?,?)");
             iStatement.setObject(1, iOutdelivery.getNumber());
             iStatement.setObject(2, iOutdelivery);
             iStatement.setObject(3, iCurrentCompany.getId());
             iStatement.executeUpdate();
-            iConnection.commit();
+            commit();
             iStatement.close();
 
         } catch (SQLException e) {
             LOG.error("Unexpected error", e);
 
             try {
-                iConnection.rollback();
+                rollback();
             } catch (SQLException ignored) {}
             SSErrorDialog.showDialog(SSMainFrame.getInstance(), "SQL Error",
                     e.getMessage());
@@ -7264,20 +7740,20 @@ public class SSDB {    private static final Logger LOG = LoggerFactory.getLogger
             return;
         }
         try {
-            PreparedStatement iStatement = iConnection.prepareStatement(
+            PreparedStatement iStatement = getDBConnection().prepare(
                     "UPDATE tbl_outdelivery SET outdelivery=? WHERE number=? AND companyid=?");
 
             iStatement.setObject(1, iOutdelivery);
             iStatement.setObject(2, iOutdelivery.getNumber());
             iStatement.setObject(3, iCurrentCompany.getId());
             iStatement.executeUpdate();
-            iConnection.commit();
+            commit();
             iStatement.close();
 
         } catch (SQLException e) {
             LOG.error("Unexpected error", e);
             try {
-                iConnection.rollback();
+                rollback();
             } catch (SQLException ignored) {}
             SSErrorDialog.showDialog(SSMainFrame.getInstance(), "SQL Error",
                     e.getMessage());
@@ -7289,19 +7765,19 @@ public class SSDB {    private static final Logger LOG = LoggerFactory.getLogger
             return;
         }
         try {
-            PreparedStatement iStatement = iConnection.prepareStatement(
+            PreparedStatement iStatement = getDBConnection().prepare(
                     "DELETE FROM tbl_outdelivery WHERE number=? AND companyid=?");
 
             iStatement.setObject(1, iOutdelivery.getNumber());
             iStatement.setObject(2, iCurrentCompany.getId());
             iStatement.executeUpdate();
-            iConnection.commit();
+            commit();
             iStatement.close();
 
         } catch (SQLException e) {
             LOG.error("Unexpected error", e);
             try {
-                iConnection.rollback();
+                rollback();
             } catch (SQLException ignored) {}
             SSErrorDialog.showDialog(SSMainFrame.getInstance(), "SQL Error",
                     e.getMessage());
@@ -7319,34 +7795,13 @@ public class SSDB {    private static final Logger LOG = LoggerFactory.getLogger
             return iOwnReports;
         }
         try {
-            Integer iMax = -1;
-            ResultSet iResultSet;
-            PreparedStatement iStatement;
-
-            while (true) {
-                iStatement = iConnection.prepareStatement(
-                        "SELECT * FROM tbl_ownreport WHERE companyid=? AND id>?");
-                iStatement.setObject(1, iCurrentCompany.getId());
-                iStatement.setObject(2, iMax);
-                iStatement.setMaxRows(1024);
-                iResultSet = iStatement.executeQuery();
-                int i = 0;
-
-                while (iResultSet.next()) {
-                    iMax = iResultSet.getInt(1);
-                    iOwnReports.add((SSOwnReport) iResultSet.getObject(2));
-                    i++;
-                }
-                if (i != 1024) {
-                    break;
-                }
-            }
-            iResultSet.close();
-            iStatement.close();
+            SSDBBulkReader.forEach(getDBConnection(),
+                    "SELECT * FROM tbl_ownreport WHERE companyid=? AND id>? ORDER BY id", iCurrentCompany.getId(),
+                    iResultSet -> (SSOwnReport) iResultSet.getObject(2), iOwnReports::add);
         } catch (SQLException e) {
             LOG.error("Unexpected error", e);
             try {
-                iConnection.rollback();
+                rollback();
             } catch (SQLException ignored) {}
             SSErrorDialog.showDialog(SSMainFrame.getInstance(), "SQL Error",
                     e.getMessage());
@@ -7362,7 +7817,7 @@ public class SSDB {    private static final Logger LOG = LoggerFactory.getLogger
             return Optional.empty();
         }
         try {
-            PreparedStatement iStatement = iConnection.prepareStatement(
+            PreparedStatement iStatement = getDBConnection().prepare(
                     "SELECT * FROM tbl_ownreport WHERE id=? AND companyid=?");
 
             iStatement.setObject(1, pOwnReport.getId());
@@ -7380,7 +7835,7 @@ public class SSDB {    private static final Logger LOG = LoggerFactory.getLogger
         } catch (SQLException e) {
             LOG.error("Unexpected error", e);
             try {
-                iConnection.rollback();
+                rollback();
             } catch (SQLException ignored) {}
             SSErrorDialog.showDialog(SSMainFrame.getInstance(), "SQL Error",
                     e.getMessage());
@@ -7414,7 +7869,7 @@ public class SSDB {    private static final Logger LOG = LoggerFactory.getLogger
         } catch (SQLException e) {
             LOG.error("Unexpected error", e);
             try {
-                iConnection.rollback();
+                rollback();
             } catch (SQLException ignored) {}
             SSErrorDialog.showDialog(SSMainFrame.getInstance(), "SQL Error",
                     e.getMessage());
@@ -7440,25 +7895,15 @@ public class SSDB {    private static final Logger LOG = LoggerFactory.getLogger
             return iOwnReports;
         }
         try {
-            for (SSOwnReport iOwnReport : pOwnReports) {
-                PreparedStatement iStatement = iConnection.prepareStatement(
-                        "SELECT * FROM tbl_ownreport WHERE id=? AND companyid=?");
-
-                iStatement.setObject(1, iOwnReport.getId());
-                iStatement.setObject(2, iCurrentCompany.getId());
-                ResultSet iResultSet = iStatement.executeQuery();
-
-                if (iResultSet.next()) {
-                    iOwnReports.add((SSOwnReport) iResultSet.getObject(2));
-                }
-                iStatement.close();
-            }
+            iOwnReports.addAll(SSDBBulkReader.readIn(getDBConnection(),
+                    "SELECT * FROM tbl_ownreport WHERE id IN (%s) AND companyid=?", pOwnReports, SSOwnReport::getId, iCurrentCompany.getId(),
+                    iResultSet -> (SSOwnReport) iResultSet.getObject(2)));
 
             return iOwnReports;
         } catch (SQLException e) {
             LOG.error("Unexpected error", e);
             try {
-                iConnection.rollback();
+                rollback();
             } catch (SQLException ignored) {}
             SSErrorDialog.showDialog(SSMainFrame.getInstance(), "SQL Error",
                     e.getMessage());
@@ -7471,16 +7916,16 @@ public class SSDB {    private static final Logger LOG = LoggerFactory.getLogger
             return;
         }
         try {
-            PreparedStatement iStatement = iConnection.prepareStatement(
+            PreparedStatement iStatement = getDBConnection().prepare(
                     "INSERT INTO tbl_ownreport VALUES(NULL,?,?)");
 
             iStatement.setObject(1, iOwnReport);
             iStatement.setObject(2, iCurrentCompany.getId());
             iStatement.executeUpdate();
-            iConnection.commit();
+            commit();
             iStatement.close();
 
-            iStatement = iConnection.prepareStatement("SELECT * FROM tbl_ownreport");
+            iStatement = getDBConnection().prepare("SELECT * FROM tbl_ownreport");
             ResultSet iResultSet = iStatement.executeQuery();
             Integer iId = -1;
 
@@ -7498,17 +7943,17 @@ public class SSDB {    private static final Logger LOG = LoggerFactory.getLogger
             } catch (InterruptedException e) {
                 LOG.error("Unexpected error", e);
             }
-            iStatement = iConnection.prepareStatement(
+            iStatement = getDBConnection().prepare(
                     "UPDATE tbl_ownreport SET ownreport=? WHERE id=?");
             iStatement.setObject(1, iOwnReport);
             iStatement.setObject(2, iOwnReport.getId());
             iStatement.executeUpdate();
-            iConnection.commit();
+            commit();
             iStatement.close();
         } catch (SQLException e) {
             LOG.error("Unexpected error", e);
             try {
-                iConnection.rollback();
+                rollback();
             } catch (SQLException ignored) {}
             SSErrorDialog.showDialog(SSMainFrame.getInstance(), "SQL Error",
                     e.getMessage());
@@ -7520,20 +7965,20 @@ public class SSDB {    private static final Logger LOG = LoggerFactory.getLogger
             return;
         }
         try {
-            PreparedStatement iStatement = iConnection.prepareStatement(
+            PreparedStatement iStatement = getDBConnection().prepare(
                     "UPDATE tbl_ownreport SET ownreport=? WHERE id=? AND companyid=?");
 
             iStatement.setObject(1, iOwnReport);
             iStatement.setObject(2, iOwnReport.getId());
             iStatement.setObject(3, iCurrentCompany.getId());
             iStatement.executeUpdate();
-            iConnection.commit();
+            commit();
             iStatement.close();
 
         } catch (SQLException e) {
             LOG.error("Unexpected error", e);
             try {
-                iConnection.rollback();
+                rollback();
             } catch (SQLException ignored) {}
             SSErrorDialog.showDialog(SSMainFrame.getInstance(), "SQL Error",
                     e.getMessage());
@@ -7545,19 +7990,19 @@ public class SSDB {    private static final Logger LOG = LoggerFactory.getLogger
             return;
         }
         try {
-            PreparedStatement iStatement = iConnection.prepareStatement(
+            PreparedStatement iStatement = getDBConnection().prepare(
                     "DELETE FROM tbl_ownreport WHERE id=? AND companyid=?");
 
             iStatement.setObject(1, iOwnReport.getId());
             iStatement.setObject(2, iCurrentCompany.getId());
             iStatement.executeUpdate();
-            iConnection.commit();
+            commit();
             iStatement.close();
 
         } catch (SQLException e) {
             LOG.error("Unexpected error", e);
             try {
-                iConnection.rollback();
+                rollback();
             } catch (SQLException ignored) {}
             SSErrorDialog.showDialog(SSMainFrame.getInstance(), "SQL Error",
                     e.getMessage());
@@ -7567,6 +8012,7 @@ public class SSDB {    private static final Logger LOG = LoggerFactory.getLogger
     // /////////////////////////////////////////////////////////////////////////////
 
     public void createLocalTriggers() {
+        iTriggerNames = null;
 
         try {
             PreparedStatement iStatement = iConnection.prepareStatement(
@@ -7637,7 +8083,7 @@ public class SSDB {    private static final Logger LOG = LoggerFactory.getLogger
                             + "CREATE TRIGGER DELETEOWNREPORT  AFTER DELETE ON tbl_ownreport FOR EACH ROW CALL \"se.swedsoft.bookkeeping.SSTriggerHandler\";");
 
             iStatement.executeUpdate();
-            iConnection.commit();
+            commit();
             iStatement.close();
 
         } catch (SQLException e) {// LOG.info("Triggers fanns redan vi lokal tilläggning");
@@ -7650,6 +8096,7 @@ public class SSDB {    private static final Logger LOG = LoggerFactory.getLogger
     }
 
     public void dropTriggers() {
+        iTriggerNames = null;
 
         try {
             PreparedStatement iStatement = iConnection.prepareStatement(
@@ -7694,7 +8141,7 @@ public class SSDB {    private static final Logger LOG = LoggerFactory.getLogger
                     + "DROP TRIGGER DELETEOWNREPORT;");
 
             iStatement.executeUpdate();
-            iConnection.commit();
+            commit();
             iStatement.close();
 
         } catch (SQLException e) {// LOG.info("Triggers fanns inte vid borttagning");
@@ -7721,7 +8168,7 @@ public class SSDB {    private static final Logger LOG = LoggerFactory.getLogger
             PreparedStatement iStatement = iConnection.prepareStatement(q);
 
             iStatement.executeUpdate();
-            iConnection.commit();
+            commit();
             iStatement.close();
 
             dropTriggers();
@@ -7729,6 +8176,66 @@ public class SSDB {    private static final Logger LOG = LoggerFactory.getLogger
         }
     }
 
+    /**
+     * Rewrites all vouchers, products, invoices and credit invoices that are
+     * still stored as Java serialized objects in the compact codec form.
+     * Rows that are already encoded are left untouched.
+     *
+     * @return the number of rewritten rows
+     */
+    public int migrateEntityCodecs() {
+        if (iConnection == null || !SSEntityCodecs.isEnabled()) {
+            return 0;
+        }
+        String[][] iTables = {
+            { "tbl_voucher", "voucher" },
+            { "tbl_product", "product" },
+            { "tbl_invoice", "invoice" },
+            { "tbl_creditinvoice", "creditinvoice" }
+        };
+
+        int iCount = 0;
+
+        dropTriggers();
+        try {
+            for (String[] iTable : iTables) {
+                PreparedStatement iSelect = iConnection.prepareStatement(
+                        "SELECT id, " + iTable[1] + " FROM " + iTable[0]);
+                PreparedStatement iUpdate = iConnection.prepareStatement(
+                        "UPDATE " + iTable[0] + " SET " + iTable[1] + "=? WHERE id=?");
+
+                ResultSet iResultSet = iSelect.executeQuery();
+
+                while (iResultSet.next()) {
+                    Object iStored = iResultSet.getObject(2);
+
+                    if (iStored == null || SSEntityCodecs.isEncoded(iStored)) {
+                        continue;
+                    }
+                    iUpdate.setObject(1, SSEntityCodecs.encode(iStored));
+                    iUpdate.setObject(2, iResultSet.getInt(1));
+                    iUpdate.executeUpdate();
+                    iCount++;
+                }
+                iResultSet.close();
+                iSelect.close();
+                iUpdate.close();
+            }
+            commit();
+        } catch (SQLException e) {
+            LOG.error("Unexpected error", e);
+            try {
+                rollback();
+            } catch (SQLException ignored) {}
+            iCount = 0;
+        } finally {
+            createLocalTriggers();
+        }
+        LOG.info("Rewrote {} rows in the compact entity format", iCount);
+
+        return iCount;
+    }
+
     @Override
     public String toString() {
         final StringBuilder sb = new StringBuilder();
@@ -0,0 +1,328 @@
+package se.swedsoft.bookkeeping.data.system;
+
+
+import java.sql.Connection;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+
+/**
+ * A batch of writes to the database, started with {@link SSDB#beginBatch(String)}.
+ *
+ * The batch belongs to the thread that started it. The add, update and delete
+ * methods of SSDB called on that thread write on a connection of the batch and do
+ * not commit, and the triggers of the registers written do not update the lists in
+ * memory one row at a time. When the batch is closed everything is committed in
+ * one transaction, or rolled back if a write failed, and each changed register is
+ * read again once. Writes from other threads commit and update the lists as usual.
+ *
+ * <pre>
+ * try (SSDBBatch iBatch = SSDB.getInstance().beginBatch("Produkter")) {
+ *     for (SSProduct iProduct : iProducts) {
+ *         if (!SSDB.getInstance().getProducts().contains(iProduct)
+ *                 && iBatch.add("PRODUCT", iProduct.getNumber())) {
+ *             SSDB.getInstance().addProduct(iProduct);
+ *         }
+ *     }
+ * }
+ * </pre>
+ */
+public class SSDBBatch implements AutoCloseable {
+
+    private final SSDB iDB;
+
+    private final String iName;
+
+    private final long iStart;
+
+    // The connection the batch writes on, null if it could not be opened
+    private final SSDBConnection iConnection;
+
+    // The triggers of the database, for example NEWINVOICE
+    private final Set<String> iTriggerNames;
+
+    // The registers written, the trigger names without NEW, EDIT or DELETE
+    private final Set<String> iTables;
+
+    // Trigger events to wait for and received, per trigger name
+    private final Map<String, Integer> iExpected;
+
+    private final Map<String, Integer> iReceived;
+
+    // The register and key of every entity added with add
+    private final Set<List<Object>> iKeys;
+
+    // The months of tbl_accountmonth to compute again before the batch is committed
+    private final Set<List<Object>> iChangedMonths;
+
+    private int iRows;
+
+    private int iDepth;
+
+    private boolean iFailed;
+
+    private long iTime;
+
+    /**
+     *
+     * @param pDB
+     * @param pName
+     * @param pConnection a connection of its own, or null to commit row by row
+     * @param pTriggerNames
+     */
+    SSDBBatch(SSDB pDB, String pName, Connection pConnection, Set<String> pTriggerNames) {
+        iDB = pDB;
+        iName = pName;
+        iStart = System.nanoTime();
+        iConnection = pConnection == null ? null : new SSBatchConnection(pConnection);
+        iTriggerNames = pTriggerNames;
+        iTables = new LinkedHashSet<>();
+        iExpected = new HashMap<>();
+        iReceived = new HashMap<>();
+        iKeys = new HashSet<>();
+        iChangedMonths = new HashSet<>();
+        iDepth = 1;
+    }
+
+    /**
+     *
+     * @return the name of the batch
+     */
+    public String getName() {
+        return iName;
+    }
+
+    /**
+     *
+     * @return the number of rows written
+     */
+    public synchronized int getRows() {
+        return iRows;
+    }
+
+    /**
+     *
+     * @return the time in milliseconds from the start of the batch until it was committed
+     */
+    public synchronized long getTime() {
+        return iTime;
+    }
+
+    /**
+     *
+     * @return the rows written per second, or 0 if the batch is still open
+     */
+    public synchronized double getRowsPerSecond() {
+        return iTime == 0 ? 0 : iRows * 1000.0 / iTime;
+    }
+
+    /**
+     *
+     * @return true if a write failed and the batch will be rolled back
+     */
+    public synchronized boolean isFailed() {
+        return iFailed;
+    }
+
+    /**
+     * Commits the batch, unless it is nested in another batch.
+     */
+    @Override
+    public void close() {
+        iDB.endBatch(this);
+    }
+
+    /**
+     * Remembers the key of an entity written in the batch. The lists of SSDB are not
+     * read again until the batch is closed, so an import checks for duplicates in the
+     * file against these keys.
+     *
+     * @param pRegister the register, for example CUSTOMER
+     * @param pKey the key, for example the customer number
+     * @return true if the key was not added before
+     */
+    public synchronized boolean add(String pRegister, Object pKey) {
+        return iKeys.add(Arrays.asList(pRegister, pKey));
+    }
+
+    /**
+     *
+     * @param pRegister
+     * @param pKey
+     * @return true if the key was added to the batch
+     */
+    public synchronized boolean contains(String pRegister, Object pKey) {
+        return iKeys.contains(Arrays.asList(pRegister, pKey));
+    }
+
+    /**
+     *
+     * @return the connection of the batch, or null
+     */
+    SSDBConnection getConnection() {
+        return iConnection;
+    }
+
+    /**
+     *
+     * @return the changed months of tbl_accountmonth, guarded by the set
+     */
+    Set<List<Object>> getChangedMonths() {
+        return iChangedMonths;
+    }
+
+    /**
+     *
+     * @param pRegister the trigger name without NEW, EDIT or DELETE
+     * @return true if the batch has written to the register
+     */
+    synchronized boolean isWriting(String pRegister) {
+        return iTables.contains(pRegister);
+    }
+
+    /**
+     * Records a trigger event of a register written by the batch.
+     *
+     * @param pTriggerName
+     */
+    synchronized void addEvent(String pTriggerName) {
+        iReceived.merge(pTriggerName, 1, Integer::sum);
+        notifyAll();
+    }
+
+    /**
+     * Waits until the triggers of all rows written by the batch have been received.
+     * The HSQLDB triggers run on their own threads and may lag behind the writes.
+     *
+     * @param pTimeout the longest time to wait, in milliseconds
+     * @return false if the time ran out
+     */
+    synchronized boolean awaitTriggers(long pTimeout) {
+        long iStop = System.nanoTime() + pTimeout * 1000000;
+
+        try {
+            while (!isDrained()) {
+                long iLeft = (iStop - System.nanoTime()) / 1000000;
+
+                if (iLeft <= 0) {
+                    return false;
+                }
+                wait(iLeft);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+        return true;
+    }
+
+    private boolean isDrained() {
+        for (Map.Entry<String, Integer> iEntry : iExpected.entrySet()) {
+            if (iReceived.getOrDefault(iEntry.getKey(), 0) < iEntry.getValue()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     *
+     * @return the changed registers
+     */
+    synchronized Set<String> getTables() {
+        return Collections.unmodifiableSet(new LinkedHashSet<>(iTables));
+    }
+
+    /**
+     * Rolls back the whole batch when it is closed, for example when an import
+     * is stopped by an error halfway through.
+     */
+    public synchronized void setFailed() {
+        iFailed = true;
+    }
+
+    synchronized void enter() {
+        iDepth++;
+    }
+
+    /**
+     *
+     * @return true if this was the outermost batch
+     */
+    synchronized boolean leave() {
+        iDepth--;
+        return iDepth == 0;
+    }
+
+    synchronized void finish() {
+        iTime = Math.max(1, (System.nanoTime() - iStart) / 1000000);
+    }
+
+    /**
+     *
+     * @param pTriggerName for example NEWINVOICE
+     * @return the register, for example INVOICE
+     */
+    static String getRegister(String pTriggerName) {
+        for (String iPrefix : new String[] { "NEW", "EDIT", "DELETE" }) {
+            if (pTriggerName.startsWith(iPrefix)) {
+                return pTriggerName.substring(iPrefix.length());
+            }
+        }
+        return pTriggerName;
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder();
+
+        sb.append("se.swedsoft.bookkeeping.data.system.SSDBBatch");
+        sb.append("{iName='").append(iName).append('\'');
+        sb.append(", iRows=").append(getRows());
+        sb.append(", iTables=").append(getTables());
+        sb.append(", iTime=").append(getTime());
+        sb.append(", iFailed=").append(isFailed());
+        sb.append('}');
+        return sb.toString();
+    }
+
+    /**
+     * Records the registers written and the trigger events to wait for.
+     */
+    private class SSBatchConnection extends SSDBConnection {
+
+        SSBatchConnection(Connection pConnection) {
+            super(pConnection);
+        }
+
+        // Before the statement runs, so that no trigger of it is missed
+        @Override
+        protected void prepared(String pSql) {
+            String iTriggerName = getTriggerName(pSql);
+
+            if (iTriggerName != null && iTriggerNames.contains(iTriggerName)) {
+                synchronized (SSDBBatch.this) {
+                    iTables.add(getRegister(iTriggerName));
+                }
+            }
+        }
+
+        @Override
+        protected void updated(String pSql, int pRows) {
+            String iTriggerName = getTriggerName(pSql);
+
+            synchronized (SSDBBatch.this) {
+                iRows += pRows;
+                if (iTriggerName != null && iTriggerNames.contains(iTriggerName)) {
+                    iExpected.merge(iTriggerName, pRows, Integer::sum);
+                }
+            }
+        }
+    }
+}
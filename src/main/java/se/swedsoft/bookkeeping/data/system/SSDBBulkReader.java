@@ -0,0 +1,167 @@
+package se.swedsoft.bookkeeping.data.system;
+
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+
+/**
+ * Bulk reads for {@link SSDB}.
+ *
+ * Every statement is prepared once per call and reused for all pages or key
+ * chunks, instead of being prepared again for every page or every object.
+ * The statements come from the cache of the {@link SSDBConnection}.
+ */
+final class SSDBBulkReader {
+
+    /**
+     * Number of rows read per page, also used as the JDBC fetch size.
+     */
+    static final int PAGE_SIZE = 1024;
+
+    /**
+     * Maximum number of keys bound in one IN (...) list.
+     */
+    static final int IN_SIZE = 256;
+
+    /**
+     * Reads one object from the current row of a result set.
+     *
+     * @param <T>
+     */
+    @FunctionalInterface
+    interface SSRowReader<T> {
+        T read(ResultSet pResultSet) throws SQLException;
+    }
+
+    private SSDBBulkReader() {}
+
+    /**
+     * Streams all rows of a table to the consumer, one page at a time in id order.
+     *
+     * The query must select the id as its first column and have exactly two
+     * parameters, the owner (company or year) id and the last read id, for
+     * example {@code SELECT * FROM tbl_voucher WHERE yearid=? AND id>? ORDER BY id}.
+     *
+     * @param pConnection
+     * @param pQuery
+     * @param pOwnerId
+     * @param pReader
+     * @param pConsumer
+     * @return the number of rows read
+     * @throws SQLException
+     */
+    static <T> int forEach(SSDBConnection pConnection, String pQuery, Object pOwnerId, SSRowReader<T> pReader, Consumer<? super T> pConsumer) throws SQLException {
+        int iCount = 0;
+
+        try (PreparedStatement iStatement = pConnection.prepare(pQuery)) {
+            iStatement.setMaxRows(PAGE_SIZE);
+            iStatement.setFetchSize(PAGE_SIZE);
+
+            int iMax = -1;
+
+            while (true) {
+                iStatement.setObject(1, pOwnerId);
+                iStatement.setObject(2, iMax);
+
+                int i = 0;
+
+                try (ResultSet iResultSet = iStatement.executeQuery()) {
+                    while (iResultSet.next()) {
+                        iMax = iResultSet.getInt(1);
+                        pConsumer.accept(pReader.read(iResultSet));
+                        i++;
+                    }
+                }
+                iCount += i;
+
+                if (i != PAGE_SIZE) {
+                    break;
+                }
+            }
+        }
+        return iCount;
+    }
+
+    /**
+     * Looks up the objects with the given keys using IN (...) lists.
+     *
+     * The query must contain one {@code %s} where the IN list goes, with the owner
+     * id as its last parameter, for example
+     * {@code SELECT * FROM tbl_product WHERE number IN (%s) AND companyid=?}.
+     * The keys are bound in chunks of {@link #IN_SIZE}; the last chunk is padded
+     * with its last key so that the same statement is used for every chunk.
+     *
+     * The result follows the order of the given objects. Objects that are not found
+     * are skipped.
+     *
+     * @param pConnection
+     * @param pQuery
+     * @param pObjects the objects to read again
+     * @param pKeyOf returns the key of an object
+     * @param pOwnerId
+     * @param pReader
+     * @return the objects
+     * @throws SQLException
+     */
+    static <K, T> List<T> readIn(SSDBConnection pConnection, String pQuery, List<T> pObjects, Function<T, K> pKeyOf, Object pOwnerId, SSRowReader<T> pReader) throws SQLException {
+        List<T> iList = new LinkedList<>();
+
+        if (pObjects.isEmpty()) {
+            return iList;
+        }
+        Object[] iKeys = new Object[pObjects.size()];
+        int iIndex = 0;
+
+        for (T iObject : pObjects) {
+            iKeys[iIndex++] = pKeyOf.apply(iObject);
+        }
+        int iSize = Math.min(IN_SIZE, iKeys.length);
+
+        char[] iMarkers = new char[iSize * 2 - 1];
+
+        Arrays.fill(iMarkers, ',');
+        for (int i = 0; i < iSize; i++) {
+            iMarkers[i * 2] = '?';
+        }
+
+        Map<Object, T> iFound = new HashMap<>(iKeys.length * 2);
+
+        try (PreparedStatement iStatement = pConnection.prepare(
+                String.format(pQuery, new String(iMarkers)))) {
+            iStatement.setFetchSize(PAGE_SIZE);
+
+            for (int iStart = 0; iStart < iKeys.length; iStart += iSize) {
+                for (int i = 0; i < iSize; i++) {
+                    iStatement.setObject(i + 1, iKeys[Math.min(iStart + i, iKeys.length - 1)]);
+                }
+                iStatement.setObject(iSize + 1, pOwnerId);
+
+                try (ResultSet iResultSet = iStatement.executeQuery()) {
+                    while (iResultSet.next()) {
+                        T iObject = pReader.read(iResultSet);
+
+                        iFound.putIfAbsent(pKeyOf.apply(iObject), iObject);
+                    }
+                }
+            }
+        }
+
+        for (Object iKey : iKeys) {
+            T iObject = iFound.get(iKey);
+
+            if (iObject != null) {
+                iList.add(iObject);
+            }
+        }
+        return iList;
+    }
+}
@@ -0,0 +1,109 @@
+package se.swedsoft.bookkeeping.data.system;
+
+
+import se.swedsoft.bookkeeping.data.SSVoucher;
+import se.swedsoft.bookkeeping.data.SSVoucherRow;
+import se.swedsoft.bookkeeping.data.system.codec.SSEntityCodecs;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.List;
+
+
+/**
+ * Bulk writes for {@link SSDB}.
+ *
+ * The rows are sent with JDBC batches of {@link #BATCH_SIZE} statements
+ * instead of one round trip per row. Nothing is committed, the caller
+ * commits once when all rows are written.
+ */
+final class SSDBBulkWriter {
+
+    /**
+     * Number of statements sent in one JDBC batch.
+     */
+    static final int BATCH_SIZE = 500;
+
+    private SSDBBulkWriter() {}
+
+    /**
+     * Inserts vouchers and their rows into tbl_voucher and tbl_voucherrow.
+     * The vouchers must already have their numbers. Does not commit.
+     *
+     * @param pConnection
+     * @param pVouchers
+     * @param pYearId
+     * @return the number of voucher rows inserted
+     * @throws SQLException
+     */
+    static int insertVouchers(SSDBConnection pConnection, List<SSVoucher> pVouchers, Object pYearId) throws SQLException {
+        int iRows = 0;
+
+        try (PreparedStatement iVoucherStatement = pConnection.prepare(
+                "INSERT INTO tbl_voucher VALUES(NULL,?,?,?)");
+             PreparedStatement iRowStatement = pConnection.prepare(
+                "INSERT INTO tbl_voucherrow VALUES(NULL,?,?,?,?,?,?,?,?,?,?,?,?)")) {
+            int iVouchers = 0;
+
+            for (SSVoucher iVoucher : pVouchers) {
+                iVoucherStatement.setObject(1, iVoucher.getNumber());
+                iVoucherStatement.setObject(2, SSEntityCodecs.encode(iVoucher));
+                iVoucherStatement.setObject(3, pYearId);
+                iVoucherStatement.addBatch();
+
+                if (++iVouchers % BATCH_SIZE == 0) {
+                    iVoucherStatement.executeBatch();
+                }
+                if (iVoucher.getRows() == null) {
+                    continue;
+                }
+                int iIndex = 0;
+
+                for (SSVoucherRow iRow : iVoucher.getRows()) {
+                    if (iRow == null) {
+                        continue;
+                    }
+                    setVoucherRow(iRowStatement, pYearId, iVoucher, iIndex++, iRow);
+                    iRowStatement.addBatch();
+
+                    if (++iRows % BATCH_SIZE == 0) {
+                        iRowStatement.executeBatch();
+                    }
+                }
+            }
+            iVoucherStatement.executeBatch();
+            iRowStatement.executeBatch();
+        }
+        return iRows;
+    }
+
+    /**
+     * Binds a row of a voucher to an {@code INSERT INTO tbl_voucherrow} statement.
+     *
+     * @param pStatement
+     * @param pYearId
+     * @param pVoucher
+     * @param pIndex the index of the row in the voucher
+     * @param pRow
+     * @throws SQLException
+     */
+    static void setVoucherRow(PreparedStatement pStatement, Object pYearId, SSVoucher pVoucher, int pIndex, SSVoucherRow pRow) throws SQLException {
+        LocalDate iDate = pVoucher.getLocalDate();
+
+        pRow.fixResultUnitAndProject();
+
+        pStatement.setObject(1, pYearId);
+        pStatement.setObject(2, pVoucher.getNumber());
+        pStatement.setObject(3, pIndex);
+        pStatement.setDate(4, iDate == null ? null : java.sql.Date.valueOf(iDate));
+        pStatement.setObject(5, pVoucher.getDescription());
+        pStatement.setObject(6, pRow.getAccountNr());
+        pStatement.setObject(7, pRow.getProjectNr());
+        pStatement.setObject(8, pRow.getResultUnitNr());
+        pStatement.setBigDecimal(9, pRow.getDebet());
+        pStatement.setBigDecimal(10, pRow.getCredit());
+        pStatement.setBoolean(11, pRow.isCrossed());
+        pStatement.setBoolean(12, pRow.isAdded());
+    }
+}
@@ -0,0 +1,367 @@
+package se.swedsoft.bookkeeping.data.system;
+
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+
+/**
+ * Wraps the JDBC connection of {@link SSDB} and caches its prepared statements
+ * by SQL text.
+ *
+ * A statement from {@link #prepare(String)} is checked out of the cache until it
+ * is closed. Closing it clears its parameters and puts it back, so the usual
+ * prepare - execute - close sequence in SSDB reuses the parsed statement. A
+ * statement that is already checked out, for example by another thread, is
+ * prepared again and counted as a miss.
+ */
+public class SSDBConnection {
+    private static final Logger LOG = LoggerFactory.getLogger(SSDBConnection.class);
+
+    /**
+     * Maximum number of idle statements kept, the least recently used is closed first.
+     */
+    static final int MAX_CACHED = 256;
+
+    // INSERT INTO, UPDATE or DELETE FROM one of the tables
+    private static final Pattern cWrite = Pattern.compile(
+            "^\\s*(INSERT\\s+INTO|UPDATE|DELETE\\s+FROM)\\s+tbl_(\\w+)", Pattern.CASE_INSENSITIVE);
+
+    private final Connection iConnection;
+
+    private final Map<String, PreparedStatement> iCache;
+
+    private long iHits;
+
+    private long iMisses;
+
+    private long iEvictions;
+
+    /**
+     *
+     * @param pConnection
+     */
+    public SSDBConnection(Connection pConnection) {
+        iConnection = pConnection;
+        iCache = new LinkedHashMap<String, PreparedStatement>(MAX_CACHED, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, PreparedStatement> pEldest) {
+                if (size() <= MAX_CACHED) {
+                    return false;
+                }
+                iEvictions++;
+                closeQuietly(pEldest.getValue());
+                return true;
+            }
+        };
+    }
+
+    /**
+     *
+     * @return the wrapped connection
+     */
+    public Connection getConnection() {
+        return iConnection;
+    }
+
+    /**
+     * Returns a prepared statement for the SQL, from the cache if there is an idle one.
+     * The statement must be closed after use to return it to the cache.
+     *
+     * @param pSql
+     * @return the statement
+     * @throws SQLException
+     */
+    public PreparedStatement prepare(String pSql) throws SQLException {
+        PreparedStatement iStatement;
+
+        prepared(pSql);
+
+        synchronized (iCache) {
+            iStatement = iCache.remove(pSql);
+
+            if (iStatement != null) {
+                iHits++;
+            } else {
+                iMisses++;
+            }
+        }
+        if (iStatement == null) {
+            iStatement = iConnection.prepareStatement(pSql);
+        }
+        return (PreparedStatement) Proxy.newProxyInstance(
+                PreparedStatement.class.getClassLoader(),
+                new Class<?>[] { PreparedStatement.class },
+                new SSCachedStatement(pSql, iStatement));
+    }
+
+    /**
+     * Called for every statement handed out by {@link #prepare(String)}, before it is
+     * executed. Does nothing by default.
+     *
+     * @param pSql
+     */
+    protected void prepared(String pSql) {}
+
+    /**
+     * Called after a statement from {@link #prepare(String)} has changed rows.
+     * Does nothing by default.
+     *
+     * @param pSql
+     * @param pRows the number of rows changed
+     */
+    protected void updated(String pSql, int pRows) {}
+
+    /**
+     * Returns the trigger name of the rows written by the SQL, for example NEWPRODUCT
+     * for an insert into tbl_product.
+     *
+     * @param pSql
+     * @return the trigger name, or null if the SQL does not write to a table
+     */
+    static String getTriggerName(String pSql) {
+        Matcher iMatcher = cWrite.matcher(pSql);
+
+        if (!iMatcher.find()) {
+            return null;
+        }
+        String iRegister = iMatcher.group(2).toUpperCase(Locale.ROOT);
+
+        switch (Character.toUpperCase(iMatcher.group(1).charAt(0))) {
+        case 'I':
+            return "NEW" + iRegister;
+
+        case 'U':
+            return "EDIT" + iRegister;
+
+        default:
+            return "DELETE" + iRegister;
+        }
+    }
+
+    /**
+     * Closes all idle statements. Statements that are checked out are closed
+     * when they are returned.
+     */
+    public void clear() {
+        synchronized (iCache) {
+            Iterator<PreparedStatement> iIterator = iCache.values().iterator();
+
+            while (iIterator.hasNext()) {
+                closeQuietly(iIterator.next());
+                iIterator.remove();
+            }
+        }
+    }
+
+    /**
+     * Closes all cached statements and the connection.
+     *
+     * @throws SQLException
+     */
+    public void close() throws SQLException {
+        LOG.info("Statement cache: {}", getStatistics());
+        clear();
+        iConnection.close();
+    }
+
+    /**
+     *
+     * @return the current hit, miss and eviction counts
+     */
+    public SSStatistics getStatistics() {
+        synchronized (iCache) {
+            return new SSStatistics(iHits, iMisses, iEvictions, iCache.size());
+        }
+    }
+
+    /**
+     *
+     * @param pSql
+     * @param pStatement
+     */
+    private void release(String pSql, PreparedStatement pStatement) {
+        boolean iCached = false;
+
+        try {
+            if (!iConnection.isClosed()) {
+                pStatement.clearParameters();
+                // A batch left by a failed executeBatch must not run on the next use
+                pStatement.clearBatch();
+
+                synchronized (iCache) {
+                    if (!iCache.containsKey(pSql)) {
+                        iCache.put(pSql, pStatement);
+                        iCached = true;
+                    }
+                }
+            }
+        } catch (SQLException e) {
+            LOG.debug("Could not return statement to the cache", e);
+        }
+        if (!iCached) {
+            closeQuietly(pStatement);
+        }
+    }
+
+    private static void closeQuietly(PreparedStatement pStatement) {
+        try {
+            pStatement.close();
+        } catch (SQLException e) {
+            LOG.debug("Could not close statement", e);
+        }
+    }
+
+    /**
+     * Forwards everything to the real statement, except close which returns it to the cache.
+     */
+    private class SSCachedStatement implements InvocationHandler {
+
+        private final String iSql;
+
+        private final PreparedStatement iStatement;
+
+        private boolean iClosed;
+
+        SSCachedStatement(String pSql, PreparedStatement pStatement) {
+            iSql = pSql;
+            iStatement = pStatement;
+        }
+
+        @Override
+        public Object invoke(Object pProxy, Method pMethod, Object[] pArguments) throws Throwable {
+            switch (pMethod.getName()) {
+            case "close":
+                if (!iClosed) {
+                    iClosed = true;
+                    release(iSql, iStatement);
+                }
+                return null;
+
+            case "isClosed":
+                return iClosed || iStatement.isClosed();
+
+            case "equals":
+                return pProxy == pArguments[0];
+
+            case "hashCode":
+                return System.identityHashCode(pProxy);
+
+            default:
+                if (iClosed) {
+                    throw new SQLException("Statement is closed");
+                }
+                Object iResult;
+
+                try {
+                    iResult = pMethod.invoke(iStatement, pArguments);
+                } catch (InvocationTargetException e) {
+                    throw e.getCause();
+                }
+                switch (pMethod.getName()) {
+                case "executeUpdate":
+                    updated(iSql, (Integer) iResult);
+                    break;
+
+                case "executeBatch":
+                    int iRows = 0;
+
+                    for (int iCount : (int[]) iResult) {
+                        // The driver may not know the count of each statement
+                        iRows += iCount == Statement.SUCCESS_NO_INFO ? 1 : Math.max(iCount, 0);
+                    }
+                    updated(iSql, iRows);
+                    break;
+
+                case "execute":
+                    if (!(Boolean) iResult && iStatement.getUpdateCount() > 0) {
+                        updated(iSql, iStatement.getUpdateCount());
+                    }
+                    break;
+
+                default:
+                    break;
+                }
+                return iResult;
+            }
+        }
+    }
+
+    /**
+     * A snapshot of the statement cache counters.
+     */
+    public static class SSStatistics {
+
+        private final long iHits;
+
+        private final long iMisses;
+
+        private final long iEvictions;
+
+        private final int iCached;
+
+        SSStatistics(long pHits, long pMisses, long pEvictions, int pCached) {
+            iHits = pHits;
+            iMisses = pMisses;
+            iEvictions = pEvictions;
+            iCached = pCached;
+        }
+
+        public long getHits() {
+            return iHits;
+        }
+
+        public long getMisses() {
+            return iMisses;
+        }
+
+        public long getEvictions() {
+            return iEvictions;
+        }
+
+        /**
+         *
+         * @return the number of idle statements in the cache
+         */
+        public int getCached() {
+            return iCached;
+        }
+
+        /**
+         *
+         * @return hits / (hits + misses), or 0 when nothing has been prepared
+         */
+        public double getHitRatio() {
+            long iTotal = iHits + iMisses;
+
+            return iTotal == 0 ? 0 : (double) iHits / iTotal;
+        }
+
+        @Override
+        public String toString() {
+            final StringBuilder sb = new StringBuilder();
+
+            sb.append("{iHits=").append(iHits);
+            sb.append(", iMisses=").append(iMisses);
+            sb.append(", iEvictions=").append(iEvictions);
+            sb.append(", iCached=").append(iCached);
+            sb.append('}');
+            return sb.toString();
+        }
+    }
+}
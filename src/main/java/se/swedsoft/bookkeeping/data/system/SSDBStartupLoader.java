@@ -0,0 +1,197 @@
+package se.swedsoft.bookkeeping.data.system;
+
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import se.swedsoft.bookkeeping.calc.math.SSCustomerMath;
+import se.swedsoft.bookkeeping.calc.math.SSInvoiceMath;
+import se.swedsoft.bookkeeping.calc.math.SSSupplierInvoiceMath;
+import se.swedsoft.bookkeeping.calc.math.SSSupplierMath;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+
+/**
+ * Loads the registers of the current company when it is opened.
+ *
+ * The vouchers of the current year are read first, on the calling thread,
+ * since the lazy voucher list is not safe to fill from several threads. The
+ * other registers do not depend on each other and are read concurrently. Their
+ * lists are filled on the worker threads, which is where the objects are
+ * decoded. The saldo and customer/supplier indexes are computed as soon as the
+ * registers they are built from have been read. The number of threads is set
+ * with the system property {@code bokfri.init.threads}; with 1 thread the
+ * registers are read one at a time.
+ */
+class SSDBStartupLoader {
+    private static final Logger LOG = LoggerFactory.getLogger(SSDBStartupLoader.class);
+
+    private final SSDB iDB;
+
+    private final int iThreads;
+
+    private final Map<String, Long> iTimings;
+
+    private Consumer<String> iProgress;
+
+    private ExecutorService iExecutor;
+
+    /**
+     *
+     * @param pDB
+     */
+    SSDBStartupLoader(SSDB pDB) {
+        this(pDB, Integer.getInteger("bokfri.init.threads",
+                Math.min(4, Runtime.getRuntime().availableProcessors())));
+    }
+
+    /**
+     *
+     * @param pDB
+     * @param pThreads
+     */
+    SSDBStartupLoader(SSDB pDB, int pThreads) {
+        iDB = pDB;
+        iThreads = Math.max(1, pThreads);
+        iTimings = Collections.synchronizedMap(new LinkedHashMap<>());
+    }
+
+    /**
+     * Loads all registers and waits until they and the indexes are done.
+     *
+     * @param pProgress called with a line of text as each step finishes, may be null
+     * @return the time in milliseconds for each step, in the order they finished
+     */
+    Map<String, Long> run(Consumer<String> pProgress) {
+        iProgress = pProgress;
+
+        AtomicInteger iCount = new AtomicInteger();
+        ThreadFactory iFactory = pRunnable -> {
+            Thread iThread = new Thread(pRunnable, "SSDB-init-" + iCount.incrementAndGet());
+
+            iThread.setDaemon(true);
+            return iThread;
+        };
+
+        long iStart = System.nanoTime();
+
+        timed("Verifikationer", () -> iDB.initYear(false));
+
+        iExecutor = Executors.newFixedThreadPool(iThreads, iFactory);
+
+        try {
+            CompletableFuture<Void> iProducts = load("Produkter", () -> iDB.getProducts());
+            CompletableFuture<Void> iCustomers = load("Kunder", () -> iDB.getCustomers());
+            CompletableFuture<Void> iSuppliers = load("Leverantörer", () -> iDB.getSuppliers());
+            CompletableFuture<Void> iAutoDists = load("Automatkonteringar", () -> iDB.getAutoDists());
+
+            CompletableFuture<Void> iInpayments = load("Inbetalningar", () -> iDB.getInpayments());
+            CompletableFuture<Void> iTenders = load("Offerter", () -> iDB.getTenders());
+            CompletableFuture<Void> iOrders = load("Order", () -> iDB.getOrders());
+            CompletableFuture<Void> iInvoices = load("Fakturor", () -> iDB.getInvoices());
+            CompletableFuture<Void> iCreditInvoices = load("Kreditfakturor", () -> iDB.getCreditInvoices());
+            CompletableFuture<Void> iPeriodicInvoices = load("Periodfakturor", () -> iDB.getPeriodicInvoices());
+
+            CompletableFuture<Void> iOutpayments = load("Utbetalningar", () -> iDB.getOutpayments());
+            CompletableFuture<Void> iPurchaseOrders = load("Inköpsorder", () -> iDB.getPurchaseOrders());
+            CompletableFuture<Void> iSupplierInvoices = load("Leverantörsfakturor", () -> iDB.getSupplierInvoices());
+            CompletableFuture<Void> iSupplierCreditInvoices = load("Leverantörskreditfakturor",
+                    () -> iDB.getSupplierCreditInvoices());
+
+            CompletableFuture<Void> iInventories = load("Inventeringar", () -> iDB.getInventories());
+            CompletableFuture<Void> iIndeliveries = load("Inleveranser", () -> iDB.getIndeliveries());
+            CompletableFuture<Void> iOutdeliveries = load("Utleveranser", () -> iDB.getOutdeliveries());
+
+            CompletableFuture<Void> iOwnReports = load("Egna rapporter", () -> iDB.getOwnReports());
+
+            // The indexes, each started when the registers it reads are loaded
+            CompletableFuture<Void> iInvoiceSaldos = after("Fakturasaldon", () -> {
+                SSInvoiceMath.iSaldoMap = null;
+                SSInvoiceMath.calculateSaldos();
+            }, iInvoices, iInpayments, iCreditInvoices);
+
+            CompletableFuture<Void> iCustomerInvoices = after("Kundfakturor", () -> {
+                SSCustomerMath.iInvoicesForCustomers = null;
+                SSCustomerMath.getInvoicesForCustomers();
+            }, iCustomers, iInvoices);
+
+            CompletableFuture<Void> iSupplierInvoiceSaldos = after("Leverantörsfakturasaldon", () -> {
+                SSSupplierInvoiceMath.iSaldoMap = null;
+                SSSupplierInvoiceMath.calculateSaldos();
+            }, iSupplierInvoices, iOutpayments, iSupplierCreditInvoices);
+
+            CompletableFuture<Void> iSupplierInvoicesBySupplier = after("Leverantörers fakturor", () -> {
+                SSSupplierMath.iInvoicesForSuppliers = null;
+                SSSupplierMath.getInvoicesForSuppliers();
+            }, iSuppliers, iSupplierInvoices);
+
+            CompletableFuture.allOf(iProducts, iAutoDists, iTenders, iOrders, iPeriodicInvoices,
+                    iPurchaseOrders, iInventories, iIndeliveries, iOutdeliveries, iOwnReports,
+                    iInvoiceSaldos, iCustomerInvoices, iSupplierInvoiceSaldos, iSupplierInvoicesBySupplier).join();
+        } finally {
+            iExecutor.shutdown();
+        }
+
+        long iTotal = (System.nanoTime() - iStart) / 1000000;
+
+        LOG.info("Loaded company in {} ms on {} threads: {}", iTotal, iThreads, iTimings);
+
+        return iTimings;
+    }
+
+    /**
+     *
+     * @param pName
+     * @param pAction
+     * @return the future of the step
+     */
+    private CompletableFuture<Void> load(String pName, Runnable pAction) {
+        return CompletableFuture.runAsync(() -> timed(pName, pAction), iExecutor);
+    }
+
+    /**
+     *
+     * @param pName
+     * @param pAction
+     * @param pDependencies the steps that must be done first
+     * @return the future of the step
+     */
+    private CompletableFuture<Void> after(String pName, Runnable pAction, CompletableFuture<?>... pDependencies) {
+        return CompletableFuture.allOf(pDependencies).handleAsync((pResult, pError) -> {
+            timed(pName, pAction);
+            return null;
+        }, iExecutor);
+    }
+
+    /**
+     * Runs one step and records its time. A failing step is logged and does not stop
+     * the others, like a failing register did not stop the sequential load.
+     *
+     * @param pName
+     * @param pAction
+     */
+    private void timed(String pName, Runnable pAction) {
+        long iStart = System.nanoTime();
+
+        try {
+            pAction.run();
+        } catch (RuntimeException e) {
+            LOG.error("Could not load " + pName, e);
+        }
+        long iTime = (System.nanoTime() - iStart) / 1000000;
+
+        iTimings.put(pName, iTime);
+
+        if (iProgress != null) {
+            iProgress.accept(pName + " (" + iTime + " ms)");
+        }
+    }
+}
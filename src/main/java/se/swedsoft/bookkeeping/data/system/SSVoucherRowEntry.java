@@ -0,0 +1,103 @@
+package se.swedsoft.bookkeeping.data.system;
+
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+
+/**
+ * One voucher row as stored in {@code tbl_voucherrow}, together with the
+ * number, date and description of its voucher.
+ */
+public class SSVoucherRowEntry {
+
+    Integer iVoucherNumber;
+
+    LocalDate iDate;
+
+    String iDescription;
+
+    Integer iAccountNr;
+
+    String iProjectNr;
+
+    String iResultUnitNr;
+
+    BigDecimal iDebet;
+
+    BigDecimal iCredit;
+
+    boolean iCrossed;
+
+    boolean iAdded;
+
+    SSVoucherRowEntry() {}
+
+    public Integer getVoucherNumber() {
+        return iVoucherNumber;
+    }
+
+    public LocalDate getLocalDate() {
+        return iDate;
+    }
+
+    public String getDescription() {
+        return iDescription;
+    }
+
+    public Integer getAccountNr() {
+        return iAccountNr;
+    }
+
+    public String getProjectNr() {
+        return iProjectNr;
+    }
+
+    public String getResultUnitNr() {
+        return iResultUnitNr;
+    }
+
+    public BigDecimal getDebet() {
+        return iDebet;
+    }
+
+    public BigDecimal getCredit() {
+        return iCredit;
+    }
+
+    public boolean isCrossed() {
+        return iCrossed;
+    }
+
+    public boolean isAdded() {
+        return iAdded;
+    }
+
+    /**
+     *
+     * @return debet - credit where a missing value counts as zero
+     */
+    public BigDecimal getDebetMinusCredit() {
+        BigDecimal iDebetValue = iDebet == null ? new BigDecimal(0) : iDebet;
+        BigDecimal iCreditValue = iCredit == null ? new BigDecimal(0) : iCredit;
+
+        return iDebetValue.subtract(iCreditValue);
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder();
+
+        sb.append("se.swedsoft.bookkeeping.data.system.SSVoucherRowEntry");
+        sb.append("{iAccountNr=").append(iAccountNr);
+        sb.append(", iAdded=").append(iAdded);
+        sb.append(", iCredit=").append(iCredit);
+        sb.append(", iCrossed=").append(iCrossed);
+        sb.append(", iDate=").append(iDate);
+        sb.append(", iDebet=").append(iDebet);
+        sb.append(", iDescription='").append(iDescription).append('\'');
+        sb.append(", iVoucherNumber=").append(iVoucherNumber);
+        sb.append('}');
+        return sb.toString();
+    }
+}
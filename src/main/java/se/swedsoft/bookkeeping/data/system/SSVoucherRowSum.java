@@ -0,0 +1,111 @@
+package se.swedsoft.bookkeeping.data.system;
+
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+
+/**
+ * The debet and credit sums of the voucher rows for one account, project
+ * and result unit, as computed by {@link SSDB#getVoucherRowSums}, or for one
+ * voucher date as well, as computed by {@link SSDB#getVoucherRowDaySums}.
+ */
+public class SSVoucherRowSum {
+
+    private final Integer iAccountNr;
+
+    private final String iProjectNr;
+
+    private final String iResultUnitNr;
+
+    private final LocalDate iDate;
+
+    private final BigDecimal iDebet;
+
+    private final BigDecimal iCredit;
+
+    /**
+     *
+     * @param pAccountNr
+     * @param pProjectNr
+     * @param pResultUnitNr
+     * @param pDebet
+     * @param pCredit
+     */
+    public SSVoucherRowSum(Integer pAccountNr, String pProjectNr, String pResultUnitNr, BigDecimal pDebet, BigDecimal pCredit) {
+        this(pAccountNr, pProjectNr, pResultUnitNr, null, pDebet, pCredit);
+    }
+
+    /**
+     *
+     * @param pAccountNr
+     * @param pProjectNr
+     * @param pResultUnitNr
+     * @param pDate the voucher date, or null
+     * @param pDebet
+     * @param pCredit
+     */
+    public SSVoucherRowSum(Integer pAccountNr, String pProjectNr, String pResultUnitNr, LocalDate pDate, BigDecimal pDebet, BigDecimal pCredit) {
+        iAccountNr = pAccountNr;
+        iProjectNr = pProjectNr;
+        iResultUnitNr = pResultUnitNr;
+        iDate = pDate;
+        iDebet = pDebet == null ? new BigDecimal(0) : pDebet;
+        iCredit = pCredit == null ? new BigDecimal(0) : pCredit;
+    }
+
+    public Integer getAccountNr() {
+        return iAccountNr;
+    }
+
+    public String getProjectNr() {
+        return iProjectNr;
+    }
+
+    public String getResultUnitNr() {
+        return iResultUnitNr;
+    }
+
+    public LocalDate getDate() {
+        return iDate;
+    }
+
+    public BigDecimal getDebet() {
+        return iDebet;
+    }
+
+    public BigDecimal getCredit() {
+        return iCredit;
+    }
+
+    /**
+     *
+     * @return debet - credit
+     */
+    public BigDecimal getDebetMinusCredit() {
+        return iDebet.subtract(iCredit);
+    }
+
+    /**
+     *
+     * @return credit - debet
+     */
+    public BigDecimal getCreditMinusDebet() {
+        return iCredit.subtract(iDebet);
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder();
+
+        sb.append("se.swedsoft.bookkeeping.data.system.SSVoucherRowSum");
+        sb.append("{iAccountNr=").append(iAccountNr);
+        sb.append(", iCredit=").append(iCredit);
+        sb.append(", iDate=").append(iDate);
+        sb.append(", iDebet=").append(iDebet);
+        sb.append(", iProjectNr='").append(iProjectNr).append('\'');
+        sb.append(", iResultUnitNr='").append(iResultUnitNr).append('\'');
+        sb.append('}');
+        return sb.toString();
+    }
+}
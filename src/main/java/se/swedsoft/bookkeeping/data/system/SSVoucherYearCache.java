@@ -0,0 +1,119 @@
+package se.swedsoft.bookkeeping.data.system;
+
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import se.swedsoft.bookkeeping.data.SSVoucher;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+
+/**
+ * Keeps the vouchers of the accounting years that are not the current year,
+ * for example the previous year when a report compares periods.
+ *
+ * Only the most recently used years are kept, set with the system property
+ * {@code bokfri.voucheryears.cached} (default 2). All years are dropped when
+ * {@link SSMemoryWarning} reports that the heap is running low. The vouchers
+ * of the current year are kept by {@link SSDB} itself and never end up here.
+ */
+class SSVoucherYearCache implements SSMemoryWarning.Listener {
+    private static final Logger LOG = LoggerFactory.getLogger(SSVoucherYearCache.class);
+
+    /**
+     * Share of the tenured heap in use when the cache is dropped.
+     */
+    static final double MEMORY_THRESHOLD = 0.80;
+
+    private final int iMaxYears;
+
+    private final Map<Integer, List<SSVoucher>> iYears;
+
+    SSVoucherYearCache() {
+        this(Integer.getInteger("bokfri.voucheryears.cached", 2));
+    }
+
+    /**
+     *
+     * @param pMaxYears the number of years to keep
+     */
+    SSVoucherYearCache(int pMaxYears) {
+        iMaxYears = Math.max(0, pMaxYears);
+        iYears = new LinkedHashMap<Integer, List<SSVoucher>>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, List<SSVoucher>> pEldest) {
+                return size() > iMaxYears;
+            }
+        };
+    }
+
+    /**
+     * Drops the cache when the heap runs low. Does nothing if the JVM has no heap
+     * pool that supports a usage threshold, in which case SSMemoryWarning fails
+     * in its static initializer.
+     */
+    void listenForLowMemory() {
+        try {
+            SSMemoryWarning.setPercentageUsageThreshold(MEMORY_THRESHOLD);
+            new SSMemoryWarning().addListener(this);
+        } catch (RuntimeException | LinkageError e) {
+            LOG.info("No memory warnings, the voucher cache is only bounded by year count: {}", e.getMessage());
+        }
+    }
+
+    /**
+     *
+     * @param pYearId
+     * @return the vouchers of the year, or null if they are not cached
+     */
+    synchronized List<SSVoucher> get(Integer pYearId) {
+        return iYears.get(pYearId);
+    }
+
+    /**
+     *
+     * @param pYearId
+     * @param pVouchers
+     */
+    synchronized void put(Integer pYearId, List<SSVoucher> pVouchers) {
+        if (iMaxYears > 0) {
+            iYears.put(pYearId, pVouchers);
+        }
+    }
+
+    /**
+     *
+     * @param pYearId
+     */
+    synchronized void remove(Integer pYearId) {
+        iYears.remove(pYearId);
+    }
+
+    synchronized void clear() {
+        iYears.clear();
+    }
+
+    synchronized int size() {
+        return iYears.size();
+    }
+
+    @Override
+    public void memoryUsageLow(long usedMemory, long maxMemory) {
+        LOG.info("Low memory ({} of {} bytes used), dropping the vouchers of {} cached years",
+                usedMemory, maxMemory, size());
+        clear();
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder();
+
+        sb.append("se.swedsoft.bookkeeping.data.system.SSVoucherYearCache");
+        sb.append("{iMaxYears=").append(iMaxYears);
+        sb.append(", iYears=").append(iYears.keySet());
+        sb.append('}');
+        return sb.toString();
+    }
+}
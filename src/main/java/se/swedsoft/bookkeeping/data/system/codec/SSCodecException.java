@@ -0,0 +1,27 @@
+package se.swedsoft.bookkeeping.data.system.codec;
+
+
+/**
+ * Thrown when stored entity data can not be decoded.
+ */
+public class SSCodecException extends RuntimeException {
+
+    static final long serialVersionUID = 1L;
+
+    /**
+     *
+     * @param pMessage
+     */
+    public SSCodecException(String pMessage) {
+        super(pMessage);
+    }
+
+    /**
+     *
+     * @param pMessage
+     * @param pCause
+     */
+    public SSCodecException(String pMessage, Throwable pCause) {
+        super(pMessage, pCause);
+    }
+}
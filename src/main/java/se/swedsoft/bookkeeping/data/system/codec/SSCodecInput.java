@@ -0,0 +1,225 @@
+package se.swedsoft.bookkeeping.data.system.codec;
+
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+
+
+/**
+ * Reads values written by {@link SSCodecOutput}.
+ *
+ * <p>Malformed or truncated input is reported as an
+ * {@link SSCodecException}.</p>
+ */
+public final class SSCodecInput {
+
+    private final byte[] iData;
+
+    private int iPosition;
+
+    /**
+     *
+     * @param pData the encoded bytes
+     * @param pOffset the position of the first byte to read
+     */
+    public SSCodecInput(byte[] pData, int pOffset) {
+        iData = pData;
+        iPosition = pOffset;
+    }
+
+    /**
+     *
+     * @return true if all bytes have been read
+     */
+    public boolean isAtEnd() {
+        return iPosition >= iData.length;
+    }
+
+    // //////////////////////////////////////////////////
+
+    /**
+     *
+     * @return the next byte as an unsigned value
+     */
+    public int readByte() {
+        if (iPosition >= iData.length) {
+            throw new SSCodecException("Unexpected end of encoded data");
+        }
+        return iData[iPosition++] & 0xFF;
+    }
+
+    /**
+     *
+     * @return
+     */
+    public boolean readBoolean() {
+        return readByte() != 0;
+    }
+
+    /**
+     *
+     * @return
+     */
+    public int readVarInt() {
+        int iValue = 0;
+
+        for (int iShift = 0; iShift < 35; iShift += 7) {
+            int iByte = readByte();
+
+            iValue |= (iByte & 0x7F) << iShift;
+            if ((iByte & 0x80) == 0) {
+                return iValue;
+            }
+        }
+        throw new SSCodecException("Malformed variable length int");
+    }
+
+    /**
+     *
+     * @return
+     */
+    public long readVarLong() {
+        long iValue = 0;
+
+        for (int iShift = 0; iShift < 70; iShift += 7) {
+            int iByte = readByte();
+
+            iValue |= (long) (iByte & 0x7F) << iShift;
+            if ((iByte & 0x80) == 0) {
+                return iValue;
+            }
+        }
+        throw new SSCodecException("Malformed variable length long");
+    }
+
+    /**
+     *
+     * @return
+     */
+    public int readSignedInt() {
+        int iValue = readVarInt();
+
+        return (iValue >>> 1) ^ -(iValue & 1);
+    }
+
+    /**
+     *
+     * @return
+     */
+    public long readSignedLong() {
+        long iValue = readVarLong();
+
+        return (iValue >>> 1) ^ -(iValue & 1);
+    }
+
+    // //////////////////////////////////////////////////
+
+    /**
+     *
+     * @return
+     */
+    public Integer readInteger() {
+        return readBoolean() ? readSignedInt() : null;
+    }
+
+    /**
+     *
+     * @return
+     */
+    public String readString() {
+        int iLength = readVarInt();
+
+        if (iLength == 0) {
+            return null;
+        }
+        iLength--;
+        if (iLength < 0 || iLength > iData.length - iPosition) {
+            throw new SSCodecException("Invalid string length " + iLength);
+        }
+        String iValue = new String(iData, iPosition, iLength, StandardCharsets.UTF_8);
+
+        iPosition += iLength;
+        return iValue;
+    }
+
+    /**
+     *
+     * @return
+     */
+    public BigDecimal readBigDecimal() {
+        int iKind = readByte();
+
+        switch (iKind) {
+        case 0:
+            return null;
+
+        case 1: {
+            int iScale = readSignedInt();
+
+            return BigDecimal.valueOf(readSignedLong(), iScale);
+        }
+
+        case 2: {
+            int iScale = readSignedInt();
+            int iLength = readVarInt();
+
+            if (iLength <= 0 || iLength > iData.length - iPosition) {
+                throw new SSCodecException("Invalid number length " + iLength);
+            }
+            byte[] iBytes = new byte[iLength];
+
+            System.arraycopy(iData, iPosition, iBytes, 0, iLength);
+            iPosition += iLength;
+            return new BigDecimal(new BigInteger(iBytes), iScale);
+        }
+
+        default:
+            throw new SSCodecException("Unknown number kind " + iKind);
+        }
+    }
+
+    /**
+     *
+     * @return
+     */
+    public LocalDate readLocalDate() {
+        return readBoolean() ? LocalDate.ofEpochDay(readSignedLong()) : null;
+    }
+
+    /**
+     *
+     * @return
+     */
+    public LocalDateTime readLocalDateTime() {
+        if (!readBoolean()) {
+            return null;
+        }
+        LocalDate iDate = LocalDate.ofEpochDay(readSignedLong());
+
+        return LocalDateTime.of(iDate, LocalTime.ofNanoOfDay(readVarLong()));
+    }
+
+    /**
+     * Reads an enum constant written by {@link SSCodecOutput#writeEnum(Enum)}.
+     * Names that no longer exist in the enum are read as {@code null}.
+     *
+     * @param pType the enum class
+     * @return the constant or null
+     */
+    public <E extends Enum<E>> E readEnum(Class<E> pType) {
+        String iName = readString();
+
+        if (iName == null) {
+            return null;
+        }
+        try {
+            return Enum.valueOf(pType, iName);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+}
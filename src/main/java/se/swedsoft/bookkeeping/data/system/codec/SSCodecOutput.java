@@ -0,0 +1,207 @@
+package se.swedsoft.bookkeeping.data.system.codec;
+
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+
+/**
+ * Growable byte sink used by the entity codecs.
+ *
+ * <p>All numbers are written as variable length integers (zig-zag encoded when
+ * they may be negative) so that the small values that dominate the bookkeeping
+ * data, such as account numbers, voucher numbers and amounts in öre, only take
+ * one to four bytes.  Every nullable value is prefixed by a presence marker so
+ * that {@code null} round-trips exactly.</p>
+ *
+ * @see SSCodecInput
+ */
+public final class SSCodecOutput {
+
+    private final ByteArrayOutputStream iBuffer;
+
+    /**
+     * Creates an empty output.
+     */
+    public SSCodecOutput() {
+        iBuffer = new ByteArrayOutputStream(256);
+    }
+
+    /**
+     * Returns the bytes written so far.
+     *
+     * @return a copy of the written bytes
+     */
+    public byte[] toByteArray() {
+        return iBuffer.toByteArray();
+    }
+
+    /**
+     * Returns the number of bytes written so far.
+     *
+     * @return the size
+     */
+    public int size() {
+        return iBuffer.size();
+    }
+
+    // //////////////////////////////////////////////////
+
+    /**
+     *
+     * @param pValue
+     */
+    public void writeByte(int pValue) {
+        iBuffer.write(pValue);
+    }
+
+    /**
+     *
+     * @param pValue
+     */
+    public void writeBoolean(boolean pValue) {
+        iBuffer.write(pValue ? 1 : 0);
+    }
+
+    /**
+     * Writes an unsigned variable length int.
+     *
+     * @param pValue the value, treated as unsigned
+     */
+    public void writeVarInt(int pValue) {
+        while ((pValue & ~0x7F) != 0) {
+            iBuffer.write((pValue & 0x7F) | 0x80);
+            pValue >>>= 7;
+        }
+        iBuffer.write(pValue);
+    }
+
+    /**
+     * Writes an unsigned variable length long.
+     *
+     * @param pValue the value, treated as unsigned
+     */
+    public void writeVarLong(long pValue) {
+        while ((pValue & ~0x7FL) != 0) {
+            iBuffer.write((int) ((pValue & 0x7F) | 0x80));
+            pValue >>>= 7;
+        }
+        iBuffer.write((int) pValue);
+    }
+
+    /**
+     * Writes a signed int using zig-zag encoding.
+     *
+     * @param pValue
+     */
+    public void writeSignedInt(int pValue) {
+        writeVarInt((pValue << 1) ^ (pValue >> 31));
+    }
+
+    /**
+     * Writes a signed long using zig-zag encoding.
+     *
+     * @param pValue
+     */
+    public void writeSignedLong(long pValue) {
+        writeVarLong((pValue << 1) ^ (pValue >> 63));
+    }
+
+    // //////////////////////////////////////////////////
+
+    /**
+     * Writes a nullable integer.
+     *
+     * @param pValue
+     */
+    public void writeInteger(Integer pValue) {
+        writeBoolean(pValue != null);
+        if (pValue != null) {
+            writeSignedInt(pValue);
+        }
+    }
+
+    /**
+     * Writes a nullable string as UTF-8. The length is stored plus one so that
+     * zero can mark {@code null}.
+     *
+     * @param pValue
+     */
+    public void writeString(String pValue) {
+        if (pValue == null) {
+            writeVarInt(0);
+            return;
+        }
+        byte[] iBytes = pValue.getBytes(StandardCharsets.UTF_8);
+
+        writeVarInt(iBytes.length + 1);
+        iBuffer.write(iBytes, 0, iBytes.length);
+    }
+
+    /**
+     * Writes a nullable big decimal as scale and unscaled value. Unscaled
+     * values that fit in a long, which is every realistic amount, are written
+     * as a zig-zag varint, larger ones as two-complement bytes.
+     *
+     * @param pValue
+     */
+    public void writeBigDecimal(BigDecimal pValue) {
+        if (pValue == null) {
+            writeByte(0);
+            return;
+        }
+        BigInteger iUnscaled = pValue.unscaledValue();
+
+        if (iUnscaled.bitLength() < 64) {
+            writeByte(1);
+            writeSignedInt(pValue.scale());
+            writeSignedLong(iUnscaled.longValue());
+        } else {
+            byte[] iBytes = iUnscaled.toByteArray();
+
+            writeByte(2);
+            writeSignedInt(pValue.scale());
+            writeVarInt(iBytes.length);
+            iBuffer.write(iBytes, 0, iBytes.length);
+        }
+    }
+
+    /**
+     * Writes a nullable date as its epoch day.
+     *
+     * @param pValue
+     */
+    public void writeLocalDate(LocalDate pValue) {
+        writeBoolean(pValue != null);
+        if (pValue != null) {
+            writeSignedLong(pValue.toEpochDay());
+        }
+    }
+
+    /**
+     * Writes a nullable date time as epoch day and nano of day.
+     *
+     * @param pValue
+     */
+    public void writeLocalDateTime(LocalDateTime pValue) {
+        writeBoolean(pValue != null);
+        if (pValue != null) {
+            writeSignedLong(pValue.toLocalDate().toEpochDay());
+            writeVarLong(pValue.toLocalTime().toNanoOfDay());
+        }
+    }
+
+    /**
+     * Writes a nullable enum constant by name, so that reordering the
+     * constants does not break stored data.
+     *
+     * @param pValue
+     */
+    public void writeEnum(Enum<?> pValue) {
+        writeString(pValue == null ? null : pValue.name());
+    }
+}
@@ -0,0 +1,240 @@
+package se.swedsoft.bookkeeping.data.system.codec;
+
+
+import se.swedsoft.bookkeeping.data.SSAddress;
+import se.swedsoft.bookkeeping.data.base.SSSaleRow;
+import se.swedsoft.bookkeeping.data.common.*;
+
+import java.util.HashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+
+/**
+ * Readers and writers for the small value objects shared by several entity
+ * codecs. Every value is nullable and written with a leading presence marker.
+ */
+final class SSCodecValues {
+
+    private SSCodecValues() {}
+
+    // //////////////////////////////////////////////////
+
+    static void writeAddress(SSCodecOutput pOutput, SSAddress pAddress) {
+        pOutput.writeBoolean(pAddress != null);
+        if (pAddress != null) {
+            pOutput.writeString(pAddress.getName());
+            pOutput.writeString(pAddress.getAddress1());
+            pOutput.writeString(pAddress.getAddress2());
+            pOutput.writeString(pAddress.getZipCode());
+            pOutput.writeString(pAddress.getCity());
+            pOutput.writeString(pAddress.getCountry());
+        }
+    }
+
+    static SSAddress readAddress(SSCodecInput pInput) {
+        if (!pInput.readBoolean()) {
+            return null;
+        }
+        String iName = pInput.readString();
+        String iAddress1 = pInput.readString();
+        String iAddress2 = pInput.readString();
+        String iZipCode = pInput.readString();
+        String iCity = pInput.readString();
+        String iCountry = pInput.readString();
+
+        return new SSAddress(iName, iAddress1, iAddress2, iZipCode, iCity, iCountry);
+    }
+
+    // //////////////////////////////////////////////////
+
+    static void writeCurrency(SSCodecOutput pOutput, SSCurrency pCurrency) {
+        pOutput.writeBoolean(pCurrency != null);
+        if (pCurrency != null) {
+            pOutput.writeString(pCurrency.getName());
+            pOutput.writeString(pCurrency.getDescription());
+            pOutput.writeBigDecimal(pCurrency.getExchangeRate());
+        }
+    }
+
+    static SSCurrency readCurrency(SSCodecInput pInput) {
+        if (!pInput.readBoolean()) {
+            return null;
+        }
+        SSCurrency iCurrency = new SSCurrency(pInput.readString(), pInput.readString());
+
+        iCurrency.setExchangeRate(pInput.readBigDecimal());
+        return iCurrency;
+    }
+
+    static void writeUnit(SSCodecOutput pOutput, SSUnit pUnit) {
+        pOutput.writeBoolean(pUnit != null);
+        if (pUnit != null) {
+            pOutput.writeString(pUnit.getName());
+            pOutput.writeString(pUnit.getDescription());
+        }
+    }
+
+    static SSUnit readUnit(SSCodecInput pInput) {
+        return pInput.readBoolean() ? new SSUnit(pInput.readString(), pInput.readString()) : null;
+    }
+
+    static void writePaymentTerm(SSCodecOutput pOutput, SSPaymentTerm pPaymentTerm) {
+        pOutput.writeBoolean(pPaymentTerm != null);
+        if (pPaymentTerm != null) {
+            pOutput.writeString(pPaymentTerm.getName());
+            pOutput.writeString(pPaymentTerm.getDescription());
+        }
+    }
+
+    static SSPaymentTerm readPaymentTerm(SSCodecInput pInput) {
+        return pInput.readBoolean() ? new SSPaymentTerm(pInput.readString(), pInput.readString()) : null;
+    }
+
+    static void writeDeliveryTerm(SSCodecOutput pOutput, SSDeliveryTerm pDeliveryTerm) {
+        pOutput.writeBoolean(pDeliveryTerm != null);
+        if (pDeliveryTerm != null) {
+            pOutput.writeString(pDeliveryTerm.getName());
+            pOutput.writeString(pDeliveryTerm.getDescription());
+        }
+    }
+
+    static SSDeliveryTerm readDeliveryTerm(SSCodecInput pInput) {
+        return pInput.readBoolean() ? new SSDeliveryTerm(pInput.readString(), pInput.readString()) : null;
+    }
+
+    static void writeDeliveryWay(SSCodecOutput pOutput, SSDeliveryWay pDeliveryWay) {
+        pOutput.writeBoolean(pDeliveryWay != null);
+        if (pDeliveryWay != null) {
+            pOutput.writeString(pDeliveryWay.getName());
+            pOutput.writeString(pDeliveryWay.getDescription());
+        }
+    }
+
+    static SSDeliveryWay readDeliveryWay(SSCodecInput pInput) {
+        return pInput.readBoolean() ? new SSDeliveryWay(pInput.readString(), pInput.readString()) : null;
+    }
+
+    // //////////////////////////////////////////////////
+
+    static void writeDefaultAccounts(SSCodecOutput pOutput, Map<SSDefaultAccount, Integer> pDefaultAccounts) {
+        if (pDefaultAccounts == null) {
+            pOutput.writeVarInt(0);
+            return;
+        }
+        pOutput.writeVarInt(pDefaultAccounts.size() + 1);
+        for (Map.Entry<SSDefaultAccount, Integer> iEntry : pDefaultAccounts.entrySet()) {
+            pOutput.writeEnum(iEntry.getKey());
+            pOutput.writeInteger(iEntry.getValue());
+        }
+    }
+
+    static Map<SSDefaultAccount, Integer> readDefaultAccounts(SSCodecInput pInput) {
+        int iCount = pInput.readVarInt();
+
+        if (iCount == 0) {
+            return null;
+        }
+        Map<SSDefaultAccount, Integer> iDefaultAccounts = new HashMap<>();
+
+        for (int i = 1; i < iCount; i++) {
+            SSDefaultAccount iDefaultAccount = pInput.readEnum(SSDefaultAccount.class);
+            Integer iAccount = pInput.readInteger();
+
+            if (iDefaultAccount != null) {
+                iDefaultAccounts.put(iDefaultAccount, iAccount);
+            }
+        }
+        return iDefaultAccounts;
+    }
+
+    static void writeDescriptions(SSCodecOutput pOutput, Map<Locale, String> pDescriptions) {
+        if (pDescriptions == null) {
+            pOutput.writeVarInt(0);
+            return;
+        }
+        pOutput.writeVarInt(pDescriptions.size() + 1);
+        for (Map.Entry<Locale, String> iEntry : pDescriptions.entrySet()) {
+            pOutput.writeString(iEntry.getKey() == null ? null : iEntry.getKey().toLanguageTag());
+            pOutput.writeString(iEntry.getValue());
+        }
+    }
+
+    static Map<Locale, String> readDescriptions(SSCodecInput pInput) {
+        int iCount = pInput.readVarInt();
+
+        if (iCount == 0) {
+            return null;
+        }
+        Map<Locale, String> iDescriptions = new HashMap<>();
+
+        for (int i = 1; i < iCount; i++) {
+            String iTag = pInput.readString();
+            String iDescription = pInput.readString();
+
+            iDescriptions.put(iTag == null ? null : Locale.forLanguageTag(iTag), iDescription);
+        }
+        return iDescriptions;
+    }
+
+    // //////////////////////////////////////////////////
+
+    static void writeSaleRows(SSCodecOutput pOutput, List<SSSaleRow> pRows) {
+        if (pRows == null) {
+            pOutput.writeVarInt(0);
+            return;
+        }
+        pOutput.writeVarInt(pRows.size() + 1);
+        for (SSSaleRow iRow : pRows) {
+            pOutput.writeBoolean(iRow != null);
+            if (iRow == null) {
+                continue;
+            }
+            iRow.fixResultUnitAndProject();
+
+            pOutput.writeString(iRow.getProductNr());
+            pOutput.writeString(iRow.getDescription());
+            pOutput.writeBigDecimal(iRow.getUnitprice());
+            pOutput.writeInteger(iRow.getQuantity());
+            writeUnit(pOutput, iRow.getUnit());
+            pOutput.writeBigDecimal(iRow.getDiscount());
+            pOutput.writeEnum(iRow.getTaxCode());
+            pOutput.writeInteger(iRow.getAccountNr());
+            pOutput.writeString(iRow.getProjectNr());
+            pOutput.writeString(iRow.getResultUnitNr());
+        }
+    }
+
+    static List<SSSaleRow> readSaleRows(SSCodecInput pInput) {
+        int iCount = pInput.readVarInt();
+
+        if (iCount == 0) {
+            return null;
+        }
+        List<SSSaleRow> iRows = new LinkedList<>();
+
+        for (int i = 1; i < iCount; i++) {
+            if (!pInput.readBoolean()) {
+                iRows.add(null);
+                continue;
+            }
+            SSSaleRow iRow = new SSSaleRow();
+
+            iRow.setProductNr(pInput.readString());
+            iRow.setDescription(pInput.readString());
+            iRow.setUnitprice(pInput.readBigDecimal());
+            iRow.setQuantity(pInput.readInteger());
+            iRow.setUnit(readUnit(pInput));
+            iRow.setDiscount(pInput.readBigDecimal());
+            iRow.setTaxCode(pInput.readEnum(SSTaxCode.class));
+            iRow.setAccountNr(pInput.readInteger());
+            iRow.setProjectNr(pInput.readString());
+            iRow.setResultUnitNr(pInput.readString());
+
+            iRows.add(iRow);
+        }
+        return iRows;
+    }
+}
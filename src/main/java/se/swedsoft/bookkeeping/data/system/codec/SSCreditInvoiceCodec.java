@@ -0,0 +1,48 @@
+package se.swedsoft.bookkeeping.data.system.codec;
+
+
+import se.swedsoft.bookkeeping.data.SSCreditInvoice;
+
+
+/**
+ * Codec for {@link SSCreditInvoice}, written as an invoice followed by the
+ * number of the credited invoice.
+ */
+public class SSCreditInvoiceCodec implements SSEntityCodec<SSCreditInvoice> {
+
+    static final int TYPE_ID = 4;
+
+    private static final int VERSION = 1;
+
+    @Override
+    public Class<SSCreditInvoice> getType() {
+        return SSCreditInvoice.class;
+    }
+
+    @Override
+    public int getTypeId() {
+        return TYPE_ID;
+    }
+
+    @Override
+    public int getVersion() {
+        return VERSION;
+    }
+
+    @Override
+    public void write(SSCodecOutput pOutput, SSCreditInvoice pInvoice) {
+        SSInvoiceCodec.writeInvoice(pOutput, pInvoice);
+
+        pOutput.writeInteger(pInvoice.getCreditingNr());
+    }
+
+    @Override
+    public SSCreditInvoice read(SSCodecInput pInput, int pVersion) {
+        SSCreditInvoice iInvoice = new SSCreditInvoice(SSVoucherCodec.newVoucher());
+
+        SSInvoiceCodec.readInvoice(pInput, iInvoice);
+        iInvoice.setCreditingNr(pInput.readInteger());
+
+        return iInvoice;
+    }
+}
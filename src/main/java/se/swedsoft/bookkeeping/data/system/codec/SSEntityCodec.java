@@ -0,0 +1,52 @@
+package se.swedsoft.bookkeeping.data.system.codec;
+
+
+/**
+ * Writes and reads one entity type in the compact binary form stored in the
+ * {@code OBJECT} columns of the database.
+ *
+ * <p>Each codec owns a type id that is unique within {@link SSEntityCodecs}
+ * and a schema version. The version is stored with every encoded row and
+ * handed back to {@link #read(SSCodecInput, int)} so that a codec can keep
+ * reading rows written by older versions of itself after fields have been
+ * added.</p>
+ *
+ * @param <T> the entity type
+ */
+public interface SSEntityCodec<T> {
+
+    /**
+     *
+     * @return the entity class handled by this codec
+     */
+    Class<T> getType();
+
+    /**
+     *
+     * @return the type id stored in the header of every encoded row
+     */
+    int getTypeId();
+
+    /**
+     *
+     * @return the schema version written by {@link #write(SSCodecOutput, Object)}
+     */
+    int getVersion();
+
+    /**
+     * Writes the entity in the current schema version.
+     *
+     * @param pOutput
+     * @param pEntity
+     */
+    void write(SSCodecOutput pOutput, T pEntity);
+
+    /**
+     * Reads an entity written with the given schema version.
+     *
+     * @param pInput
+     * @param pVersion the version the entity was written with
+     * @return the entity
+     */
+    T read(SSCodecInput pInput, int pVersion);
+}
@@ -0,0 +1,201 @@
+package se.swedsoft.bookkeeping.data.system.codec;
+
+
+import java.util.HashMap;
+import java.util.Map;
+
+
+/**
+ * Registry of the entity codecs used when storing objects in the database.
+ *
+ * <p>An encoded row is a {@code byte[]} that starts with a two byte magic
+ * marker, the codec type id and the schema version, followed by the codec
+ * payload. The array is stored in the existing {@code OBJECT} columns, so no
+ * schema change is needed and rows written before the codecs existed, which
+ * hold the Java serialized entity itself, can still be read:
+ * {@link #decode(Object, Class)} accepts both forms. Legacy rows are
+ * rewritten in the compact form the next time they are saved, or all at once
+ * through {@code SSDB.migrateEntityCodecs()}.</p>
+ *
+ * <p>Entity types without a registered codec are passed through unchanged and
+ * keep using Java serialization.</p>
+ */
+public final class SSEntityCodecs {
+
+    private static final int MAGIC_1 = 0x53;
+
+    private static final int MAGIC_2 = 0xEC;
+
+    private static final Map<Class<?>, SSEntityCodec<?>> cCodecsByType = new HashMap<>();
+
+    private static final Map<Integer, SSEntityCodec<?>> cCodecsById = new HashMap<>();
+
+    // Writing in the compact form can be switched off, for example to keep a
+    // database readable by an older version of the program.
+    private static volatile boolean cEnabled = !Boolean.getBoolean("bokfri.codec.disabled");
+
+    static {
+        register(new SSVoucherCodec());
+        register(new SSProductCodec());
+        register(new SSInvoiceCodec());
+        register(new SSCreditInvoiceCodec());
+    }
+
+    private SSEntityCodecs() {}
+
+    /**
+     * Registers a codec, replacing any codec for the same entity type.
+     *
+     * @param pCodec
+     */
+    public static synchronized void register(SSEntityCodec<?> pCodec) {
+        SSEntityCodec<?> iExisting = cCodecsById.get(pCodec.getTypeId());
+
+        if (iExisting != null && iExisting.getType() != pCodec.getType()) {
+            throw new IllegalArgumentException("Codec type id " + pCodec.getTypeId()
+                    + " is already used by " + iExisting.getType().getName());
+        }
+        cCodecsByType.put(pCodec.getType(), pCodec);
+        cCodecsById.put(pCodec.getTypeId(), pCodec);
+    }
+
+    /**
+     *
+     * @return true if entities with a codec are written in the compact form
+     */
+    public static boolean isEnabled() {
+        return cEnabled;
+    }
+
+    /**
+     *
+     * @param pEnabled
+     */
+    public static void setEnabled(boolean pEnabled) {
+        cEnabled = pEnabled;
+    }
+
+    /**
+     *
+     * @param pType
+     * @return true if a codec is registered for the exact type
+     */
+    public static synchronized boolean hasCodec(Class<?> pType) {
+        return cCodecsByType.containsKey(pType);
+    }
+
+    // //////////////////////////////////////////////////
+
+    /**
+     * Returns the value to store in the database for an entity: the encoded
+     * bytes if a codec is registered for its exact class, otherwise the entity
+     * itself.
+     *
+     * @param pEntity
+     * @return the value to pass to {@code PreparedStatement.setObject}
+     */
+    public static Object encode(Object pEntity) {
+        if (pEntity == null || !cEnabled) {
+            return pEntity;
+        }
+        SSEntityCodec<?> iCodec = getCodec(pEntity.getClass());
+
+        if (iCodec == null) {
+            return pEntity;
+        }
+        return encodeWith(iCodec, pEntity);
+    }
+
+    /**
+     * Encodes an entity that has a registered codec.
+     *
+     * @param pEntity
+     * @return the encoded bytes including the header
+     * @throws IllegalArgumentException if no codec is registered for the entity class
+     */
+    public static byte[] encodeBytes(Object pEntity) {
+        SSEntityCodec<?> iCodec = getCodec(pEntity.getClass());
+
+        if (iCodec == null) {
+            throw new IllegalArgumentException("No codec for " + pEntity.getClass().getName());
+        }
+        return encodeWith(iCodec, pEntity);
+    }
+
+    /**
+     * Turns a value read from the database back into an entity. Accepts both
+     * encoded rows and legacy Java serialized objects.
+     *
+     * @param pStored the value returned by {@code ResultSet.getObject}
+     * @param pType the expected entity type
+     * @return the entity or null
+     */
+    public static <T> T decode(Object pStored, Class<T> pType) {
+        if (pStored instanceof byte[] && isEncoded((byte[]) pStored)) {
+            return pType.cast(decodeBytes((byte[]) pStored));
+        }
+        return pType.cast(pStored);
+    }
+
+    /**
+     *
+     * @param pStored
+     * @return true if the value is an encoded row rather than a legacy object
+     */
+    public static boolean isEncoded(Object pStored) {
+        if (!(pStored instanceof byte[])) {
+            return false;
+        }
+        byte[] iData = (byte[]) pStored;
+
+        return iData.length >= 4 && (iData[0] & 0xFF) == MAGIC_1 && (iData[1] & 0xFF) == MAGIC_2;
+    }
+
+    /**
+     * Decodes bytes produced by {@link #encodeBytes(Object)}.
+     *
+     * @param pData
+     * @return the entity
+     */
+    public static Object decodeBytes(byte[] pData) {
+        if (!isEncoded(pData)) {
+            throw new SSCodecException("Not an encoded entity");
+        }
+        SSCodecInput iInput = new SSCodecInput(pData, 2);
+        int iTypeId = iInput.readByte();
+        int iVersion = iInput.readVarInt();
+
+        SSEntityCodec<?> iCodec;
+
+        synchronized (SSEntityCodecs.class) {
+            iCodec = cCodecsById.get(iTypeId);
+        }
+        if (iCodec == null) {
+            throw new SSCodecException("Unknown codec type id " + iTypeId);
+        }
+        if (iVersion > iCodec.getVersion()) {
+            throw new SSCodecException(iCodec.getType().getSimpleName() + " was written with schema version "
+                    + iVersion + " but only version " + iCodec.getVersion() + " is supported");
+        }
+        return iCodec.read(iInput, iVersion);
+    }
+
+    // //////////////////////////////////////////////////
+
+    private static synchronized SSEntityCodec<?> getCodec(Class<?> pType) {
+        return cCodecsByType.get(pType);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> byte[] encodeWith(SSEntityCodec<T> pCodec, Object pEntity) {
+        SSCodecOutput iOutput = new SSCodecOutput();
+
+        iOutput.writeByte(MAGIC_1);
+        iOutput.writeByte(MAGIC_2);
+        iOutput.writeByte(pCodec.getTypeId());
+        iOutput.writeVarInt(pCodec.getVersion());
+        pCodec.write(iOutput, (T) pEntity);
+
+        return iOutput.toByteArray();
+    }
+}
@@ -0,0 +1,154 @@
+package se.swedsoft.bookkeeping.data.system.codec;
+
+
+import se.swedsoft.bookkeeping.data.SSInvoice;
+import se.swedsoft.bookkeeping.data.base.SSSale;
+import se.swedsoft.bookkeeping.data.common.SSDefaultAccount;
+import se.swedsoft.bookkeeping.data.common.SSInvoiceType;
+
+import java.util.Map;
+
+
+/**
+ * Codec for {@link SSInvoice}, its rows and the voucher of the invoice.
+ */
+public class SSInvoiceCodec implements SSEntityCodec<SSInvoice> {
+
+    static final int TYPE_ID = 3;
+
+    private static final int VERSION = 1;
+
+    @Override
+    public Class<SSInvoice> getType() {
+        return SSInvoice.class;
+    }
+
+    @Override
+    public int getTypeId() {
+        return TYPE_ID;
+    }
+
+    @Override
+    public int getVersion() {
+        return VERSION;
+    }
+
+    @Override
+    public void write(SSCodecOutput pOutput, SSInvoice pInvoice) {
+        writeInvoice(pOutput, pInvoice);
+    }
+
+    @Override
+    public SSInvoice read(SSCodecInput pInput, int pVersion) {
+        // The default constructor reads the next voucher and the defaults of
+        // the current company, decoding must not call back into the database
+        SSInvoice iInvoice = new SSInvoice(SSVoucherCodec.newVoucher());
+
+        readInvoice(pInput, iInvoice);
+
+        return iInvoice;
+    }
+
+    // //////////////////////////////////////////////////
+
+    /**
+     * Writes the fields of an invoice, shared with the credit invoice codec.
+     *
+     * @param pOutput
+     * @param pInvoice
+     */
+    static void writeInvoice(SSCodecOutput pOutput, SSInvoice pInvoice) {
+        writeSale(pOutput, pInvoice);
+
+        pOutput.writeEnum(pInvoice.getType());
+        pOutput.writeBigDecimal(pInvoice.getCurrencyRate());
+        pOutput.writeLocalDate(pInvoice.getLocalDueDate());
+        pOutput.writeString(pInvoice.getYourOrderNumber());
+        pOutput.writeString(pInvoice.getOCRNumber());
+        pOutput.writeBoolean(pInvoice.isEntered());
+        pOutput.writeSignedInt(pInvoice.getNumReminders());
+        pOutput.writeBoolean(pInvoice.isInterestInvoiced());
+        pOutput.writeBoolean(pInvoice.isStockInfluencing());
+        pOutput.writeString(pInvoice.getOrderNumbers());
+        SSVoucherCodec.writeEmbedded(pOutput, pInvoice.getVoucher());
+    }
+
+    /**
+     * Reads the fields written by {@link #writeInvoice(SSCodecOutput, SSInvoice)}.
+     *
+     * @param pInput
+     * @param pInvoice the invoice to fill in
+     */
+    static void readInvoice(SSCodecInput pInput, SSInvoice pInvoice) {
+        readSale(pInput, pInvoice);
+
+        pInvoice.setType(pInput.readEnum(SSInvoiceType.class));
+        pInvoice.setCurrencyRate(pInput.readBigDecimal());
+        pInvoice.setLocalDueDate(pInput.readLocalDate());
+        pInvoice.setYourOrderNumber(pInput.readString());
+        pInvoice.setOCRNumber(pInput.readString());
+        pInvoice.setEntered(pInput.readBoolean());
+        pInvoice.setNumRemainders(pInput.readSignedInt());
+        pInvoice.setInterestInvoiced(pInput.readBoolean());
+        pInvoice.setStockInfluencing(pInput.readBoolean());
+        pInvoice.setOrderNumbers(pInput.readString());
+        pInvoice.setVoucher(SSVoucherCodec.readEmbedded(pInput));
+    }
+
+    private static void writeSale(SSCodecOutput pOutput, SSSale pSale) {
+        pOutput.writeInteger(pSale.getNumber());
+        pOutput.writeLocalDate(pSale.getLocalDate());
+        pOutput.writeString(pSale.getCustomerNr());
+        pOutput.writeString(pSale.getCustomerName());
+        pOutput.writeString(pSale.getOurContactPerson());
+        pOutput.writeString(pSale.getYourContactPerson());
+        pOutput.writeBigDecimal(pSale.getDelayInterest());
+        SSCodecValues.writeCurrency(pOutput, pSale.getCurrency());
+        SSCodecValues.writePaymentTerm(pOutput, pSale.getPaymentTerm());
+        SSCodecValues.writeDeliveryTerm(pOutput, pSale.getDeliveryTerm());
+        SSCodecValues.writeDeliveryWay(pOutput, pSale.getDeliveryWay());
+        pOutput.writeBoolean(pSale.getTaxFree());
+        pOutput.writeString(pSale.getText());
+        pOutput.writeBigDecimal(pSale.getTaxRate1());
+        pOutput.writeBigDecimal(pSale.getTaxRate2());
+        pOutput.writeBigDecimal(pSale.getTaxRate3());
+        pOutput.writeBoolean(pSale.getEuSaleCommodity());
+        pOutput.writeBoolean(pSale.getEuSaleThirdPartCommodity());
+        pOutput.writeBoolean(pSale.isPrinted());
+        SSCodecValues.writeAddress(pOutput, pSale.getInvoiceAddress());
+        SSCodecValues.writeAddress(pOutput, pSale.getDeliveryAddress());
+        SSCodecValues.writeDefaultAccounts(pOutput, pSale.getDefaultAccounts());
+        SSCodecValues.writeSaleRows(pOutput, pSale.getRows());
+    }
+
+    private static void readSale(SSCodecInput pInput, SSSale pSale) {
+        pSale.setNumber(pInput.readInteger());
+        pSale.setLocalDate(pInput.readLocalDate());
+        pSale.setCustomerNr(pInput.readString());
+        pSale.setCustomerName(pInput.readString());
+        pSale.setOurContactPerson(pInput.readString());
+        pSale.setYourContactPerson(pInput.readString());
+        pSale.setDelayInterest(pInput.readBigDecimal());
+        pSale.setCurrency(SSCodecValues.readCurrency(pInput));
+        pSale.setPaymentTerm(SSCodecValues.readPaymentTerm(pInput));
+        pSale.setDeliveryTerm(SSCodecValues.readDeliveryTerm(pInput));
+        pSale.setDeliveryWay(SSCodecValues.readDeliveryWay(pInput));
+        pSale.setTaxFree(pInput.readBoolean());
+        pSale.setText(pInput.readString());
+        pSale.setTaxRate1(pInput.readBigDecimal());
+        pSale.setTaxRate2(pInput.readBigDecimal());
+        pSale.setTaxRate3(pInput.readBigDecimal());
+        pSale.setEuSaleCommodity(pInput.readBoolean());
+        pSale.setEuSaleYhirdPartCommodity(pInput.readBoolean());
+        pSale.setPrinted(pInput.readBoolean());
+        pSale.setInvoiceAddress(SSCodecValues.readAddress(pInput));
+        pSale.setDeliveryAddress(SSCodecValues.readAddress(pInput));
+
+        Map<SSDefaultAccount, Integer> iDefaultAccounts = SSCodecValues.readDefaultAccounts(pInput);
+
+        if (iDefaultAccounts != null) {
+            pSale.setDefaultAccounts(iDefaultAccounts);
+        }
+        pSale.setRows(SSCodecValues.readSaleRows(pInput));
+    }
+}
@@ -0,0 +1,115 @@
+package se.swedsoft.bookkeeping.data.system.codec;
+
+
+import se.swedsoft.bookkeeping.data.SSProduct;
+import se.swedsoft.bookkeeping.data.SSProductRow;
+import se.swedsoft.bookkeeping.data.common.SSTaxCode;
+
+import java.util.LinkedList;
+import java.util.List;
+
+
+/**
+ * Codec for {@link SSProduct} including its parcel rows.
+ */
+public class SSProductCodec implements SSEntityCodec<SSProduct> {
+
+    static final int TYPE_ID = 2;
+
+    private static final int VERSION = 1;
+
+    @Override
+    public Class<SSProduct> getType() {
+        return SSProduct.class;
+    }
+
+    @Override
+    public int getTypeId() {
+        return TYPE_ID;
+    }
+
+    @Override
+    public int getVersion() {
+        return VERSION;
+    }
+
+    @Override
+    public void write(SSCodecOutput pOutput, SSProduct pProduct) {
+        pProduct.fixResultUnitAndProject();
+
+        pOutput.writeString(pProduct.getNumber());
+        pOutput.writeString(pProduct.getDescription());
+        pOutput.writeBigDecimal(pProduct.getSellingPrice());
+        pOutput.writeEnum(pProduct.getTaxCode());
+        pOutput.writeString(pProduct.getWarehouseLocation());
+        pOutput.writeInteger(pProduct.getOrderpoint());
+        pOutput.writeInteger(pProduct.getOrdercount());
+        pOutput.writeBigDecimal(pProduct.getPurchasePrice());
+        pOutput.writeBigDecimal(pProduct.getStockPrice());
+        pOutput.writeBigDecimal(pProduct.getUnitFreight());
+        pOutput.writeString(pProduct.getSupplierNr());
+        pOutput.writeString(pProduct.getSupplierProductNr());
+        pOutput.writeBoolean(pProduct.isExpired());
+        pOutput.writeBoolean(pProduct.isStockProduct());
+        SSCodecValues.writeUnit(pOutput, pProduct.getUnit());
+        pOutput.writeBigDecimal(pProduct.getWeight());
+        pOutput.writeBigDecimal(pProduct.getVolume());
+        SSCodecValues.writeDefaultAccounts(pOutput, pProduct.getDefaultAccounts());
+        pOutput.writeString(pProduct.getProjectNr());
+        pOutput.writeString(pProduct.getResultUnitNr());
+
+        List<SSProductRow> iRows = pProduct.getParcelRows();
+
+        pOutput.writeVarInt(iRows.size());
+        for (SSProductRow iRow : iRows) {
+            pOutput.writeString(iRow.getProductNr());
+            pOutput.writeString(iRow.getDescription());
+            pOutput.writeInteger(iRow.getQuantity());
+        }
+        SSCodecValues.writeDescriptions(pOutput, pProduct.getDescriptions());
+    }
+
+    @Override
+    public SSProduct read(SSCodecInput pInput, int pVersion) {
+        // The default constructor reads the standard unit and default accounts
+        // of the current company, decoding must not call back into the database
+        SSProduct iProduct = new SSProduct(pInput.readString());
+
+        iProduct.setDescription(pInput.readString());
+        iProduct.setSellingPrice(pInput.readBigDecimal());
+        iProduct.setTaxCode(pInput.readEnum(SSTaxCode.class));
+        iProduct.setWarehouseLocation(pInput.readString());
+        iProduct.setOrderpoint(pInput.readInteger());
+        iProduct.setOrdercount(pInput.readInteger());
+        iProduct.setPurchasePrice(pInput.readBigDecimal());
+        iProduct.setStockPrice(pInput.readBigDecimal());
+        iProduct.setUnitFreight(pInput.readBigDecimal());
+        iProduct.setSupplierNr(pInput.readString());
+        iProduct.setSupplierProductNr(pInput.readString());
+        iProduct.setExpired(pInput.readBoolean());
+        iProduct.setStockProduct(pInput.readBoolean());
+        iProduct.setUnit(SSCodecValues.readUnit(pInput));
+        iProduct.setWeight(pInput.readBigDecimal());
+        iProduct.setVolume(pInput.readBigDecimal());
+        iProduct.setDefaultAccounts(SSCodecValues.readDefaultAccounts(pInput));
+        iProduct.setProjectNr(pInput.readString());
+        iProduct.setResultUnitNr(pInput.readString());
+
+        int iCount = pInput.readVarInt();
+        List<SSProductRow> iRows = new LinkedList<>();
+
+        for (int i = 0; i < iCount; i++) {
+            SSProductRow iRow = new SSProductRow();
+
+            iRow.setProduct(pInput.readString());
+            iRow.setDescription(pInput.readString());
+            iRow.setQuantity(pInput.readInteger());
+
+            iRows.add(iRow);
+        }
+        iProduct.setParcelRows(iRows);
+        iProduct.setDescriptions(SSCodecValues.readDescriptions(pInput));
+
+        return iProduct;
+    }
+}
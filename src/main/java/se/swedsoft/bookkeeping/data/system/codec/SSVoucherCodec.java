@@ -0,0 +1,208 @@
+package se.swedsoft.bookkeeping.data.system.codec;
+
+
+import se.swedsoft.bookkeeping.data.SSVoucher;
+import se.swedsoft.bookkeeping.data.SSVoucherRow;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+
+/**
+ * Codec for {@link SSVoucher} and its {@link SSVoucherRow}s.
+ *
+ * <p>Only the account, project and result unit numbers of a row are stored,
+ * just like the Java serialized form which drops the resolved objects before
+ * writing. The vouchers referenced by {@code corrects} and
+ * {@code correctedBy} are written inline; a voucher that is reached a second
+ * time within the same row is written as a back reference so that two
+ * vouchers pointing at each other do not recurse forever.</p>
+ */
+public class SSVoucherCodec implements SSEntityCodec<SSVoucher> {
+
+    static final int TYPE_ID = 1;
+
+    private static final int VERSION = 1;
+
+    private static final int NULL = 0;
+
+    private static final int INLINE = 1;
+
+    private static final int REFERENCE = 2;
+
+    @Override
+    public Class<SSVoucher> getType() {
+        return SSVoucher.class;
+    }
+
+    @Override
+    public int getTypeId() {
+        return TYPE_ID;
+    }
+
+    @Override
+    public int getVersion() {
+        return VERSION;
+    }
+
+    @Override
+    public void write(SSCodecOutput pOutput, SSVoucher pVoucher) {
+        writeVoucher(pOutput, pVoucher, new IdentityHashMap<>());
+    }
+
+    @Override
+    public SSVoucher read(SSCodecInput pInput, int pVersion) {
+        return readVoucher(pInput, new ArrayList<>());
+    }
+
+    // //////////////////////////////////////////////////
+
+    /**
+     * Writes a voucher embedded in another entity.
+     *
+     * @param pOutput
+     * @param pVoucher the voucher, may be null
+     */
+    static void writeEmbedded(SSCodecOutput pOutput, SSVoucher pVoucher) {
+        writeVoucher(pOutput, pVoucher, new IdentityHashMap<>());
+    }
+
+    /**
+     * Reads a voucher written by {@link #writeEmbedded(SSCodecOutput, SSVoucher)}.
+     *
+     * @param pInput
+     * @return the voucher or null
+     */
+    static SSVoucher readEmbedded(SSCodecInput pInput) {
+        return readVoucher(pInput, new ArrayList<>());
+    }
+
+    /**
+     *
+     * @return a voucher without rows that has not consulted the database
+     */
+    static SSVoucher newVoucher() {
+        return new SSVoucher(0, null);
+    }
+
+    private static void writeVoucher(SSCodecOutput pOutput, SSVoucher pVoucher, Map<SSVoucher, Integer> pWritten) {
+        if (pVoucher == null) {
+            pOutput.writeByte(NULL);
+            return;
+        }
+        Integer iReference = pWritten.get(pVoucher);
+
+        if (iReference != null) {
+            pOutput.writeByte(REFERENCE);
+            pOutput.writeVarInt(iReference);
+            return;
+        }
+        pWritten.put(pVoucher, pWritten.size());
+
+        pOutput.writeByte(INLINE);
+        pOutput.writeSignedInt(pVoucher.getNumber());
+        pOutput.writeLocalDate(pVoucher.getLocalDate());
+        pOutput.writeString(pVoucher.getDescription());
+
+        List<SSVoucherRow> iRows = pVoucher.getRows();
+
+        if (iRows == null) {
+            pOutput.writeVarInt(0);
+        } else {
+            pOutput.writeVarInt(iRows.size() + 1);
+            for (SSVoucherRow iRow : iRows) {
+                writeRow(pOutput, iRow);
+            }
+        }
+        writeVoucher(pOutput, pVoucher.getCorrects(), pWritten);
+        writeVoucher(pOutput, pVoucher.getCorrectedBy(), pWritten);
+    }
+
+    private static SSVoucher readVoucher(SSCodecInput pInput, List<SSVoucher> pRead) {
+        int iTag = pInput.readByte();
+
+        switch (iTag) {
+        case NULL:
+            return null;
+
+        case REFERENCE: {
+            int iReference = pInput.readVarInt();
+
+            if (iReference >= pRead.size()) {
+                throw new SSCodecException("Invalid voucher reference " + iReference);
+            }
+            return pRead.get(iReference);
+        }
+
+        case INLINE:
+            break;
+
+        default:
+            throw new SSCodecException("Unknown voucher tag " + iTag);
+        }
+        SSVoucher iVoucher = newVoucher();
+
+        pRead.add(iVoucher);
+
+        iVoucher.setNumber(pInput.readSignedInt());
+        iVoucher.setLocalDate(pInput.readLocalDate());
+        iVoucher.setDescription(pInput.readString());
+
+        int iCount = pInput.readVarInt();
+
+        if (iCount == 0) {
+            iVoucher.setVoucherRows(null);
+        } else {
+            List<SSVoucherRow> iRows = new ArrayList<>(iCount - 1);
+
+            for (int i = 1; i < iCount; i++) {
+                iRows.add(readRow(pInput));
+            }
+            iVoucher.setVoucherRows(iRows);
+        }
+        iVoucher.setCorrects(readVoucher(pInput, pRead));
+        iVoucher.setCorrectedBy(readVoucher(pInput, pRead));
+
+        return iVoucher;
+    }
+
+    private static void writeRow(SSCodecOutput pOutput, SSVoucherRow pRow) {
+        if (pRow == null) {
+            pOutput.writeBoolean(false);
+            return;
+        }
+        pOutput.writeBoolean(true);
+        pRow.fixResultUnitAndProject();
+
+        pOutput.writeInteger(pRow.getAccountNr());
+        pOutput.writeString(pRow.getProjectNr());
+        pOutput.writeString(pRow.getResultUnitNr());
+        pOutput.writeBigDecimal(pRow.getDebet());
+        pOutput.writeBigDecimal(pRow.getCredit());
+        pOutput.writeLocalDateTime(pRow.getLocalEditedDate());
+        pOutput.writeString(pRow.getEditedSignature());
+        pOutput.writeBoolean(pRow.isCrossed());
+        pOutput.writeBoolean(pRow.isAdded());
+    }
+
+    private static SSVoucherRow readRow(SSCodecInput pInput) {
+        if (!pInput.readBoolean()) {
+            return null;
+        }
+        SSVoucherRow iRow = new SSVoucherRow();
+
+        iRow.setAccountNr(pInput.readInteger());
+        iRow.setProjectNr(pInput.readString());
+        iRow.setResultUnitNr(pInput.readString());
+        iRow.setDebet(pInput.readBigDecimal());
+        iRow.setCredit(pInput.readBigDecimal());
+        iRow.setLocalEditedDate(pInput.readLocalDateTime());
+        iRow.setEditedSignature(pInput.readString());
+        iRow.setCrossed(pInput.readBoolean());
+        iRow.setAdded(pInput.readBoolean());
+
+        return iRow;
+    }
+}
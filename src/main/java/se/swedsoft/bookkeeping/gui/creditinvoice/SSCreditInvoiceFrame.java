@@ -1,8 +1,6 @@
 package se.swedsoft.bookkeeping.gui.creditinvoice;
 
 
-import se.swedsoft.bookkeeping.calc.math.SSCreditInvoiceMath;
-import se.swedsoft.bookkeeping.calc.math.SSInvoiceMath;
 import se.swedsoft.bookkeeping.data.SSCreditInvoice;
 import se.swedsoft.bookkeeping.data.system.SSDB;
 import se.swedsoft.bookkeeping.data.system.SSMail;
@@ -307,12 +305,6 @@ public class SSCreditInvoiceFrame extends SSDefaultTableFrame {
 
         if (iResponce == JOptionPane.YES_OPTION) {
             for (SSCreditInvoice iCreditInvoice : delete) {
-                    if (SSInvoiceMath.iSaldoMap.containsKey(
-                            iCreditInvoice.getCreditingNr())) {
-                        SSInvoiceMath.iSaldoMap.put(iCreditInvoice.getCreditingNr(),
-                                SSInvoiceMath.iSaldoMap.get(iCreditInvoice.getCreditingNr()).add(
-                                SSCreditInvoiceMath.getTotalSum(iCreditInvoice)));
-                    }
                     SSDB.getInstance().deleteCreditInvoice(iCreditInvoice);
             }
         }
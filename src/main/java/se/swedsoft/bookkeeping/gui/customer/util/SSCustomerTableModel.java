@@ -2,9 +2,7 @@ package se.swedsoft.bookkeeping.gui.customer.util;
 
 
 import se.swedsoft.bookkeeping.calc.math.SSCustomerMath;
-import se.swedsoft.bookkeeping.calc.math.SSInvoiceMath;
 import se.swedsoft.bookkeeping.data.SSCustomer;
-import se.swedsoft.bookkeeping.data.SSInvoice;
 import se.swedsoft.bookkeeping.data.system.SSDB;
 import se.swedsoft.bookkeeping.gui.util.SSBundle;
 import se.swedsoft.bookkeeping.gui.util.table.model.SSTableColumn;
@@ -182,24 +180,7 @@ public class SSCustomerTableModel extends SSTableModel<SSCustomer> {
             SSBundle.getBundle().getString("customertable.column.6")) {
         @Override
         public Object getValue(SSCustomer iCustomer) {
-            List<SSInvoice> iInvoices = SSCustomerMath.iInvoicesForCustomers.get(
-                    iCustomer.getNumber());
-
-            if (iInvoices == null) {
-                return new BigDecimal(0);
-            }
-            BigDecimal iTotalSum = new BigDecimal(0);
-
-            for (SSInvoice iInvoice:iInvoices) {
-                if (SSInvoiceMath.iSaldoMap.containsKey(iInvoice.getNumber())) {
-                    BigDecimal iInvoiceSaldo = SSInvoiceMath.iSaldoMap.get(
-                            iInvoice.getNumber());
-
-                    iTotalSum = iTotalSum.add(
-                            SSInvoiceMath.convertToLocal(iInvoice, iInvoiceSaldo));
-                }
-            }
-            return iTotalSum;
+            return SSCustomerMath.getCustomerClain(iCustomer);
         }
 
         @Override
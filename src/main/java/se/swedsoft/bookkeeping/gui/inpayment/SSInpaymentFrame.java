@@ -1,9 +1,7 @@
 package se.swedsoft.bookkeeping.gui.inpayment;
 
 
-import se.swedsoft.bookkeeping.calc.math.SSInvoiceMath;
 import se.swedsoft.bookkeeping.data.SSInpayment;
-import se.swedsoft.bookkeeping.data.SSInpaymentRow;
 import se.swedsoft.bookkeeping.data.system.SSDB;
 import se.swedsoft.bookkeeping.gui.SSMainFrame;
 import se.swedsoft.bookkeeping.gui.inpayment.panel.SSInpaymentSearchPanel;
@@ -241,15 +239,6 @@ public class SSInpaymentFrame extends SSDefaultTableFrame {
 
         if (iResponce == JOptionPane.YES_OPTION) {
             for (SSInpayment iInpayment : delete) {
-                    for (SSInpaymentRow iRow : iInpayment.getRows()) {
-                        if (iRow.getValue() != null && iRow.getInvoiceNr() != null) {
-                            if (SSInvoiceMath.iSaldoMap.containsKey(iRow.getInvoiceNr())) {
-                                SSInvoiceMath.iSaldoMap.put(iRow.getInvoiceNr(),
-                                        SSInvoiceMath.iSaldoMap.get(iRow.getInvoiceNr()).add(
-                                        iRow.getValue()));
-                            }
-                        }
-                    }
                     SSDB.getInstance().deleteInpayment(iInpayment);
             }
         }
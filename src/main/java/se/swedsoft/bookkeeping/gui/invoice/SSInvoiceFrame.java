@@ -1,7 +1,6 @@
 package se.swedsoft.bookkeeping.gui.invoice;
 
 
-import se.swedsoft.bookkeeping.calc.math.SSCustomerMath;
 import se.swedsoft.bookkeeping.calc.math.SSInvoiceMath;
 import se.swedsoft.bookkeeping.calc.math.SSPeriodicInvoiceMath;
 import se.swedsoft.bookkeeping.data.SSInpayment;
@@ -518,13 +517,6 @@ public class SSInvoiceFrame extends SSDefaultTableFrame {
                     SSDB.getInstance().updateOrder(iOrder);
                 }
                 iOrdersToUpdate = null;
-                int iIndex = SSCustomerMath.iInvoicesForCustomers.get(iInvoice.getCustomerNr()).indexOf(
-                        iInvoice);
-
-                if (iIndex != -1) {
-                    SSCustomerMath.iInvoicesForCustomers.get(iInvoice.getCustomerNr()).remove(
-                            iIndex);
-                }
                 SSDB.getInstance().deleteInvoice(iInvoice);
             }
         }
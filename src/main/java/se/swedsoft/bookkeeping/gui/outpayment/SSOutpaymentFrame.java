@@ -1,9 +1,7 @@
 package se.swedsoft.bookkeeping.gui.outpayment;
 
 
-import se.swedsoft.bookkeeping.calc.math.SSSupplierInvoiceMath;
 import se.swedsoft.bookkeeping.data.SSOutpayment;
-import se.swedsoft.bookkeeping.data.SSOutpaymentRow;
 import se.swedsoft.bookkeeping.data.system.SSDB;
 import se.swedsoft.bookkeeping.gui.SSMainFrame;
 import se.swedsoft.bookkeeping.gui.outpayment.panel.SSOutpaymentSearchPanel;
@@ -242,16 +240,6 @@ public class SSOutpaymentFrame extends SSDefaultTableFrame {
 
         if (iResponce == JOptionPane.YES_OPTION) {
             for (SSOutpayment iOutpayment : delete) {
-                for (SSOutpaymentRow iRow : iOutpayment.getRows()) {
-                    if (iRow.getValue() != null && iRow.getInvoiceNr() != null) {
-                        if (SSSupplierInvoiceMath.iSaldoMap.containsKey(
-                                iRow.getInvoiceNr())) {
-                            SSSupplierInvoiceMath.iSaldoMap.put(iRow.getInvoiceNr(),
-                                    SSSupplierInvoiceMath.iSaldoMap.get(iRow.getInvoiceNr()).add(
-                                    iRow.getValue()));
-                        }
-                    }
-                }
                 SSDB.getInstance().deleteOutpayment(iOutpayment);
             }
         }
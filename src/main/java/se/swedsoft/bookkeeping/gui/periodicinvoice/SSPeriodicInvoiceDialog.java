@@ -7,6 +7,7 @@ import se.swedsoft.bookkeeping.data.SSInvoice;
 import se.swedsoft.bookkeeping.data.SSOrder;
 import se.swedsoft.bookkeeping.data.SSPeriodicInvoice;
 import se.swedsoft.bookkeeping.data.system.SSDB;
+import se.swedsoft.bookkeeping.data.system.SSDBBatch;
 import se.swedsoft.bookkeeping.gui.SSMainFrame;
 import se.swedsoft.bookkeeping.gui.invoice.SSInvoiceFrame;
 import se.swedsoft.bookkeeping.gui.periodicinvoice.dialog.SSPendingPeriodicInvoiceDialog;
@@ -342,25 +343,27 @@ public class SSPeriodicInvoiceDialog {
         Map<SSPeriodicInvoice, List<SSInvoice>> iTemp = new HashMap<>(
                 iSelected);
 
-        for (SSPeriodicInvoice iPeriodicInvoice : iSelected.keySet()) {
+        try (SSDBBatch iBatch = SSDB.getInstance().beginBatch("Periodfakturor")) {
+            for (SSPeriodicInvoice iPeriodicInvoice : iSelected.keySet()) {
 
-            if (SSDB.getInstance().getPeriodicInvoice(iPeriodicInvoice) == null) {
-                iTemp.remove(iPeriodicInvoice);
-                new SSErrorDialog(new JFrame(), "periodicinvoiceframe.invoicegone",
-                        iPeriodicInvoice.getNumber());
-                continue;
-            }
+                if (SSDB.getInstance().getPeriodicInvoice(iPeriodicInvoice) == null) {
+                    iTemp.remove(iPeriodicInvoice);
+                    new SSErrorDialog(new JFrame(), "periodicinvoiceframe.invoicegone",
+                            iPeriodicInvoice.getNumber());
+                    continue;
+                }
 
-            for (SSInvoice iInvoice : iTemp.get(iPeriodicInvoice)) {
+                for (SSInvoice iInvoice : iTemp.get(iPeriodicInvoice)) {
 
-                iPeriodicInvoice.setAdded(iInvoice);
-                SSDB.getInstance().updatePeriodicInvoice(iPeriodicInvoice);
+                    iPeriodicInvoice.setAdded(iInvoice);
+                    SSDB.getInstance().updatePeriodicInvoice(iPeriodicInvoice);
 
-                iInvoice = new SSInvoice(iInvoice);
-                iInvoice.setLocalDate(SSDateUtil.today());
-                iInvoice.setDueDate();
+                    iInvoice = new SSInvoice(iInvoice);
+                    iInvoice.setLocalDate(SSDateUtil.today());
+                    iInvoice.setDueDate();
 
-                SSDB.getInstance().addInvoice(iInvoice);
+                    SSDB.getInstance().addInvoice(iInvoice);
+                }
             }
         }
 
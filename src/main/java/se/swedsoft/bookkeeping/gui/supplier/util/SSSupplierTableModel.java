@@ -1,10 +1,8 @@
 package se.swedsoft.bookkeeping.gui.supplier.util;
 
 
-import se.swedsoft.bookkeeping.calc.math.SSSupplierInvoiceMath;
 import se.swedsoft.bookkeeping.calc.math.SSSupplierMath;
 import se.swedsoft.bookkeeping.data.SSSupplier;
-import se.swedsoft.bookkeeping.data.SSSupplierInvoice;
 import se.swedsoft.bookkeeping.data.system.SSDB;
 import se.swedsoft.bookkeeping.gui.util.SSBundle;
 import se.swedsoft.bookkeeping.gui.util.table.model.SSTableColumn;
@@ -195,25 +193,7 @@ public class SSSupplierTableModel extends SSTableModel<SSSupplier> {
             SSBundle.getBundle().getString("suppliertable.column.6")) {
         @Override
         public Object getValue(SSSupplier iObject) {
-            List<SSSupplierInvoice> iInvoices = SSSupplierMath.iInvoicesForSuppliers.get(
-                    iObject.getNumber());
-
-            if (iInvoices == null) {
-                return new BigDecimal(0);
-            }
-            BigDecimal iTotalSum = new BigDecimal(0);
-
-            for (SSSupplierInvoice iInvoice:iInvoices) {
-                if (SSSupplierInvoiceMath.iSaldoMap.containsKey(iInvoice.getNumber())) {
-                    BigDecimal iSupplierInvoiceSaldo = SSSupplierInvoiceMath.iSaldoMap.get(
-                            iInvoice.getNumber());
-
-                    iTotalSum = iTotalSum.add(
-                            SSSupplierInvoiceMath.convertToLocal(iInvoice,
-                            iSupplierInvoiceSaldo));
-                }
-            }
-            return iTotalSum;
+            return SSSupplierMath.getSupplierDebt(iObject);
         }
 
         @Override
@@ -1,7 +1,6 @@
 package se.swedsoft.bookkeeping.gui.suppliercreditinvoice;
 
 
-import se.swedsoft.bookkeeping.calc.math.SSSupplierInvoiceMath;
 import se.swedsoft.bookkeeping.data.SSSupplierCreditInvoice;
 import se.swedsoft.bookkeeping.data.system.SSDB;
 
@@ -281,14 +280,6 @@ public class SSSupplierCreditInvoiceFrame extends SSDefaultTableFrame {
 
         if (iResponce == JOptionPane.YES_OPTION) {
             for (SSSupplierCreditInvoice iSupplierCreditInvoice : delete) {
-                if (SSSupplierInvoiceMath.iSaldoMap.containsKey(
-                        iSupplierCreditInvoice.getCreditingNr())) {
-                    SSSupplierInvoiceMath.iSaldoMap.put(
-                            iSupplierCreditInvoice.getCreditingNr(),
-                            SSSupplierInvoiceMath.iSaldoMap.get(iSupplierCreditInvoice.getCreditingNr()).add(
-                                    SSSupplierInvoiceMath.getTotalSum(
-                                            iSupplierCreditInvoice)));
-                }
                 SSDB.getInstance().deleteSupplierCreditInvoice(iSupplierCreditInvoice);
             }
         }
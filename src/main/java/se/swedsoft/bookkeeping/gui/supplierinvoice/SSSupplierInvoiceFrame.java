@@ -2,7 +2,6 @@ package se.swedsoft.bookkeeping.gui.supplierinvoice;
 
 
 import se.swedsoft.bookkeeping.calc.math.SSSupplierInvoiceMath;
-import se.swedsoft.bookkeeping.calc.math.SSSupplierMath;
 import se.swedsoft.bookkeeping.data.SSOutpayment;
 import se.swedsoft.bookkeeping.data.SSPurchaseOrder;
 import se.swedsoft.bookkeeping.data.SSSupplierInvoice;
@@ -463,13 +462,6 @@ public class SSSupplierInvoiceFrame extends SSDefaultTableFrame {
                         SSDB.getInstance().updatePurchaseOrder(iPurchaseOrder);
                     }
                 }
-                int iIndex = SSSupplierMath.iInvoicesForSuppliers.get(iSupplierInvoice.getSupplierNr()).indexOf(
-                        iSupplierInvoice);
-
-                if (iIndex != -1) {
-                    SSSupplierMath.iInvoicesForSuppliers.get(iSupplierInvoice.getSupplierNr()).remove(
-                            iIndex);
-                }
                 SSDB.getInstance().deleteSupplierInvoice(iSupplierInvoice);
             }
         }
@@ -5,6 +5,7 @@ import com.sun.java.help.impl.SwingWorker;
 
 import javax.swing.*;
 import java.awt.*;
+import java.util.function.Consumer;
 
 
 /**
@@ -16,6 +17,8 @@ public class SSInitDialog extends SSDialog {
 
     private JPanel iPanel;
 
+    private JLabel iMessage;
+
     /**
      *
      * @param iFrame
@@ -84,6 +87,48 @@ public class SSInitDialog extends SSDialog {
         }.start();
     }
 
+    /**
+     * Runs the action in the background while the dialog is shown. The action gets
+     * the dialog so that it can report what it is doing with {@link #setMessage(String)}.
+     *
+     * @param iFrame
+     * @param iTitle
+     * @param iAction
+     */
+    public static void runProgress(JFrame iFrame, String iTitle, final Consumer<SSInitDialog> iAction) {
+        final SSInitDialog dialog = new SSInitDialog(iFrame, iTitle);
+
+        dialog.setCursor(new Cursor(Cursor.WAIT_CURSOR));
+        dialog.setVisible();
+
+        new SwingWorker() {
+            @Override
+            public Object construct() {
+                try {
+                    iAction.accept(dialog);
+                } finally {
+                    dialog.setCursor(new Cursor(Cursor.DEFAULT_CURSOR));
+                    dialog.setVisible(false);
+                    dialog.dispose();
+                }
+                return null;
+            }
+        }.start();
+    }
+
+    /**
+     * Shows a line of text above the progress bar. Can be called from any thread.
+     *
+     * @param iText
+     */
+    public void setMessage(final String iText) {
+        SwingUtilities.invokeLater(() -> {
+            if (iMessage != null) {
+                iMessage.setText(iText);
+            }
+        });
+    }
+
     /**
      *
      * @param iDialog
@@ -125,7 +170,8 @@ public class SSInitDialog extends SSDialog {
         final StringBuilder sb = new StringBuilder();
 
         sb.append("se.swedsoft.bookkeeping.gui.util.dialogs.SSInitDialog");
-        sb.append("{iPanel=").append(iPanel);
+        sb.append("{iMessage=").append(iMessage);
+        sb.append(", iPanel=").append(iPanel);
         sb.append('}');
         return sb.toString();
     }
@@ -2,6 +2,7 @@ package se.swedsoft.bookkeeping.gui.util.filechooser;
 
 
 import se.swedsoft.bookkeeping.gui.util.filechooser.util.SSFilterXLS;
+import se.swedsoft.bookkeeping.gui.util.filechooser.util.SSFilterXLSX;
 
 
 /**
@@ -28,6 +29,7 @@ public class SSExcelFileChooser extends SSFileChooser {
      */
     private SSExcelFileChooser() {
         // Add a custom file filter
+        addChoosableFileFilter(new SSFilterXLSX());
         addChoosableFileFilter(new SSFilterXLS());
         // Disable the default (Accept All) file filter.
         setAcceptAllFileFilterUsed(false);
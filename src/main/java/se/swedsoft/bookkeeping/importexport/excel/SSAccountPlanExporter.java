@@ -1,10 +1,6 @@
 package se.swedsoft.bookkeeping.importexport.excel;
 
 
-import jxl.Workbook;
-import jxl.WorkbookSettings;
-import jxl.write.WritableSheet;
-import jxl.write.WritableWorkbook;
 import jxl.write.WriteException;
 import se.swedsoft.bookkeeping.data.SSAccount;
 import se.swedsoft.bookkeeping.data.SSAccountPlan;
@@ -18,7 +14,6 @@ import se.swedsoft.bookkeeping.importexport.util.SSImportException;
 import java.io.File;
 import java.io.IOException;
 import java.util.Iterator;
-import java.util.Locale;
 import java.util.ResourceBundle;
 
 
@@ -48,23 +43,8 @@ public class SSAccountPlanExporter {
      * @throws SSImportException
      */
     public void doExport(SSAccountPlan pAccountPlan) throws IOException, SSImportException {
-        WorkbookSettings iSettings = new WorkbookSettings();
-
-        iSettings.setLocale(new Locale("sv", "SE"));
-        iSettings.setEncoding("windows-1252");
-        iSettings.setExcelDisplayLanguage("SE");
-        iSettings.setExcelRegionalSettings("SE");
-
-        try {
-            WritableWorkbook iWorkbook = Workbook.createWorkbook(iFile, iSettings);
-
-            WritableSheet iSheet = iWorkbook.createSheet(pAccountPlan.getName(), 0);
-
-            writeAccountPlan(new SSWritableExcelSheet(iSheet), pAccountPlan);
-
-            iWorkbook.write();
-            iWorkbook.close();
-
+        try (SSWritableExcelSheet iSheet = SSWritableExcelSheet.create(iFile, pAccountPlan.getName())) {
+            writeAccountPlan(iSheet, pAccountPlan);
         } catch (WriteException e) {
             throw new SSExportException(e.getLocalizedMessage());
         }
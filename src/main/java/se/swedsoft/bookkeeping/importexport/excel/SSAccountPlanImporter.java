@@ -17,7 +17,6 @@ import se.swedsoft.bookkeeping.importexport.excel.util.SSExcelSheet;
 import se.swedsoft.bookkeeping.importexport.util.SSImportException;
 
 import java.io.File;
-import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.util.Locale;
@@ -62,7 +61,12 @@ public class SSAccountPlanImporter {
      * @throws IOException
      */
     public static void doImport(File iFile) throws IOException {
-        doImport(new FileInputStream(iFile));
+        SSAccountPlan iAccountPlan = new SSAccountPlan();
+
+        try (SSExcelSheet iSheet = SSExcelSheet.open(iFile)) {
+            readAccountPlan(iSheet, iAccountPlan);
+        }
+        addAccountPlan(iAccountPlan);
     }
     
     /**
@@ -97,6 +101,15 @@ public class SSAccountPlanImporter {
         } catch (BiffException e) {
             throw new SSImportException(e.getLocalizedMessage());
         }
+        addAccountPlan(iAccountPlan);
+    }
+
+    /**
+     * Stores the account plan if there is no account plan with the same name.
+     *
+     * @param iAccountPlan
+     */
+    private static void addAccountPlan(SSAccountPlan iAccountPlan) {
         for (SSAccountPlan pAccountPlan : SSDB.getInstance().getAccountPlans()) {
             if (iAccountPlan.getName().equals(pAccountPlan.getName())) {
                 new SSErrorDialog(SSMainFrame.getInstance(), "accountplanframe.duplicate",
@@ -116,7 +129,7 @@ public class SSAccountPlanImporter {
     private static void readAccountPlan(SSExcelSheet pSheet, SSAccountPlan pAccountPlan) {
         int iRowStart = Integer.MAX_VALUE;
 
-        for (SSExcelRow iRow : pSheet.getRows()) {
+        for (SSExcelRow iRow : pSheet) {
 
             // Skip empty rows
             if (iRow.empty()) {
@@ -1,12 +1,8 @@
 package se.swedsoft.bookkeeping.importexport.excel;
 
 
-import jxl.Workbook;
-import jxl.WorkbookSettings;
 import jxl.format.Colour;
 import jxl.write.WritableCellFormat;
-import jxl.write.WritableSheet;
-import jxl.write.WritableWorkbook;
 import jxl.write.WriteException;
 import org.w3c.dom.Document;
 import org.w3c.dom.Element;
@@ -24,7 +20,6 @@ import javax.xml.transform.TransformerException;
 import java.io.File;
 import java.io.IOException;
 import java.util.List;
-import java.util.Locale;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -90,23 +85,8 @@ public class SSCustomerExporter {    private static final Logger LOG = LoggerFac
      * @throws SSExportException
      */
     public void export()  throws IOException, SSExportException {
-        WorkbookSettings iSettings = new WorkbookSettings();
-
-        iSettings.setLocale(new Locale("sv", "SE"));
-        iSettings.setEncoding("windows-1252");
-        iSettings.setExcelDisplayLanguage("SE");
-        iSettings.setExcelRegionalSettings("SE");
-
-        try {
-            WritableWorkbook iWorkbook = Workbook.createWorkbook(iFile, iSettings);
-
-            WritableSheet iSheet = iWorkbook.createSheet("Kunder", 0);
-
-            writeCustomers(new SSWritableExcelSheet(iSheet));
-
-            iWorkbook.write();
-            iWorkbook.close();
-
+        try (SSWritableExcelSheet iSheet = SSWritableExcelSheet.create(iFile, "Kunder")) {
+            writeCustomers(iSheet);
         } catch (WriteException e) {
             throw new SSExportException(e.getLocalizedMessage());
         }
@@ -116,14 +96,13 @@ public class SSCustomerExporter {    private static final Logger LOG = LoggerFac
     /**
      *
      * @param pSheet
+     * @throws IOException
      * @throws WriteException
      */
-    private void writeCustomers(SSWritableExcelSheet pSheet) throws WriteException {
-
-        List<SSWritableExcelRow> iRows = pSheet.getRows(iCustomers.size() + 1);
+    private void writeCustomers(SSWritableExcelSheet pSheet) throws IOException, WriteException {
 
         // Write the column names
-        SSWritableExcelRow iColumns = iRows.get(0);
+        SSWritableExcelRow iColumns = pSheet.getRow(0);
 
         WritableCellFormat iCellFormat = new WritableCellFormat();
 
@@ -157,7 +136,7 @@ public class SSCustomerExporter {    private static final Logger LOG = LoggerFac
         int iRowIndex = 1;
 
         for (SSCustomer iCustomer : iCustomers) {
-            SSWritableExcelRow iRow = iRows.get(iRowIndex);
+            SSWritableExcelRow iRow = pSheet.getRow(iRowIndex);
 
             iRow.setString(0, iCustomer.getNumber());
             iRow.setString(1, iCustomer.getName());
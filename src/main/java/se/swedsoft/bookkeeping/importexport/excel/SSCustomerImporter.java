@@ -1,10 +1,6 @@
 package se.swedsoft.bookkeeping.importexport.excel;
 
 
-import jxl.Sheet;
-import jxl.Workbook;
-import jxl.WorkbookSettings;
-import jxl.read.biff.BiffException;
 import org.w3c.dom.Document;
 import org.w3c.dom.Element;
 import org.w3c.dom.Node;
@@ -18,6 +14,7 @@ import se.swedsoft.bookkeeping.data.common.SSDeliveryTerm;
 import se.swedsoft.bookkeeping.data.common.SSDeliveryWay;
 import se.swedsoft.bookkeeping.data.common.SSPaymentTerm;
 import se.swedsoft.bookkeeping.data.system.SSDB;
+import se.swedsoft.bookkeeping.data.system.SSDBBatch;
 import se.swedsoft.bookkeeping.gui.SSMainFrame;
 import se.swedsoft.bookkeeping.gui.util.SSBundle;
 import se.swedsoft.bookkeeping.gui.util.dialogs.SSInformationDialog;
@@ -61,43 +58,24 @@ public class SSCustomerImporter {
      * @throws SSImportException
      */
     public void Import()  throws SSImportException {
-        WorkbookSettings iSettings = new WorkbookSettings();
+        List<SSCustomer> iCustomers;
 
-        iSettings.setLocale(new Locale("sv", "SE"));
-        iSettings.setEncoding("windows-1252");
-        iSettings.setExcelDisplayLanguage("SE");
-        iSettings.setExcelRegionalSettings("SE");
-
-        List<SSCustomer> iCustomers = null;
-
-        try {
-            Workbook iWorkbook = Workbook.getWorkbook(iFile, iSettings);
-
-            // Empty workbook, ie nothing to import
-            if (iWorkbook.getNumberOfSheets() == 0) {
-                throw new SSImportException(SSBundle.getBundle(),
-                        "customerframe.import.nosheets");
-            }
-
-            Sheet iSheet = iWorkbook.getSheet(0);
-
-            iCustomers = importCustomers(new SSExcelSheet(iSheet));
-
-            iWorkbook.close();
-
-        } catch (BiffException e) {
+        try (SSExcelSheet iSheet = SSExcelSheet.open(iFile)) {
+            iCustomers = importCustomers(iSheet);
+        } catch (IOException e) {
             throw new SSImportException(e.getLocalizedMessage());
-        } catch (IOException e1) {
-            throw new SSImportException(e1.getLocalizedMessage());
         }
         boolean iResult = showImportReport(iCustomers);
 
         if (iCustomers != null && iResult) {
-            for (SSCustomer iCustomer : iCustomers) {
-                if (!SSDB.getInstance().getCustomers().contains(iCustomer)) {
-                    SSDB.getInstance().addCustomer(iCustomer);
-                }
+            try (SSDBBatch iBatch = SSDB.getInstance().beginBatch("Importera kunder")) {
+                for (SSCustomer iCustomer : iCustomers) {
+                    if (!SSDB.getInstance().getCustomers().contains(iCustomer)
+                            && iBatch.add("CUSTOMER", iCustomer.getNumber())) {
+                        SSDB.getInstance().addCustomer(iCustomer);
+                    }
 
+                }
             }
         }
     }
@@ -182,19 +160,24 @@ public class SSCustomerImporter {
      */
     private List<SSCustomer> importCustomers(SSExcelSheet pSheet) {
 
-        List<SSExcelRow> iRows = pSheet.getRows();
+        Iterator<SSExcelRow> iRows = pSheet.iterator();
 
-        if (iRows.size() < 2) {
+        if (!iRows.hasNext()) {
             throw new SSImportException(SSBundle.getBundle(),
                     "customerframe.import.norows");
         }
 
-        getColumnIndexes(iRows.get(0));
+        getColumnIndexes(iRows.next());
+
+        if (!iRows.hasNext()) {
+            throw new SSImportException(SSBundle.getBundle(),
+                    "customerframe.import.norows");
+        }
 
         List<SSCustomer> iCustomers = new LinkedList<>();
 
-        for (int row = 1; row < iRows.size(); row++) {
-            SSExcelRow iRow = iRows.get(row);
+        while (iRows.hasNext()) {
+            SSExcelRow iRow = iRows.next();
 
             // Skip empty rows
             if (iRow.empty()) {
@@ -863,11 +846,14 @@ public class SSCustomerImporter {
                 }
             }
 
-            for (SSCustomer pCustomer : iCustomers) {
-                if (SSDB.getInstance().getCustomers().contains(pCustomer)) {
-                    SSDB.getInstance().updateCustomer(pCustomer);
-                } else {
-                    SSDB.getInstance().addCustomer(pCustomer);
+            try (SSDBBatch iBatch = SSDB.getInstance().beginBatch("Importera kunder")) {
+                for (SSCustomer pCustomer : iCustomers) {
+                    if (SSDB.getInstance().getCustomers().contains(pCustomer)
+                            || !iBatch.add("CUSTOMER", pCustomer.getNumber())) {
+                        SSDB.getInstance().updateCustomer(pCustomer);
+                    } else {
+                        SSDB.getInstance().addCustomer(pCustomer);
+                    }
                 }
             }
 
@@ -931,150 +917,152 @@ public class SSCustomerImporter {
 
             Integer iCustomerCount = 0;
 
-            for (String iLine : al) {
-                boolean iNewCustomer = false;
-                String[] iFields = iLine.split("\t", -1);
-                SSCustomer iCustomer = SSDB.getInstance().getCustomer(iFields[0]).orElse(null);
-
-                if (iCustomer == null) {
-                    iCustomer = new SSCustomer();
-                    iCustomer.setNumber(iFields[0]);
-                    // iCustomer.setCreditLimit(new BigDecimal(0));
-                    iNewCustomer = true;
-                }
-
-                if (iFields.length == 20) {
-                    if (iFields[2] == null || iFields[2].length() == 0) {
-                        iCustomer.getInvoiceAddress().setName(
-                                iFields[3] + ' ' + iFields[4]);
-                        iCustomer.setName(iFields[3] + ' ' + iFields[4]);
-                        iCustomer.getInvoiceAddress().setAddress1(iFields[5]);
-                    } else {
-                        iCustomer.getInvoiceAddress().setName(iFields[2]);
-                        iCustomer.getInvoiceAddress().setAddress1(
-                                iFields[3] + ' ' + iFields[4]);
-                        iCustomer.getInvoiceAddress().setAddress2(iFields[5]);
-                        iCustomer.setName(iFields[2]);
+            try (SSDBBatch iBatch = SSDB.getInstance().beginBatch("Importera kunder")) {
+                for (String iLine : al) {
+                    boolean iNewCustomer = false;
+                    String[] iFields = iLine.split("\t", -1);
+                    SSCustomer iCustomer = SSDB.getInstance().getCustomer(iFields[0]).orElse(null);
+
+                    if (iCustomer == null) {
+                        iCustomer = new SSCustomer();
+                        iCustomer.setNumber(iFields[0]);
+                        // iCustomer.setCreditLimit(new BigDecimal(0));
+                        iNewCustomer = true;
                     }
-                    iCustomer.setYourContactPerson(iFields[3] + ' ' + iFields[4]);
-                    iCustomer.getInvoiceAddress().setZipCode(iFields[6]);
-                    iCustomer.getInvoiceAddress().setCity(iFields[7]);
-                    iCustomer.getInvoiceAddress().setCountry(iFields[8]);
-
-                    if (iFields[9] == null
-                            || (iFields[9].length() == 0 && iFields[2].length() == 0)) {
-                        iCustomer.getDeliveryAddress().setName(
-                                (iFields[10] + ' ' + iFields[11]).equals(" ")
-                                        ? iCustomer.getInvoiceAddress().getName()
-                                        : iFields[10] + ' ' + iFields[11]);
-                        iCustomer.getDeliveryAddress().setAddress1(
+
+                    if (iFields.length == 20) {
+                        if (iFields[2] == null || iFields[2].length() == 0) {
+                            iCustomer.getInvoiceAddress().setName(
+                                    iFields[3] + ' ' + iFields[4]);
+                            iCustomer.setName(iFields[3] + ' ' + iFields[4]);
+                            iCustomer.getInvoiceAddress().setAddress1(iFields[5]);
+                        } else {
+                            iCustomer.getInvoiceAddress().setName(iFields[2]);
+                            iCustomer.getInvoiceAddress().setAddress1(
+                                    iFields[3] + ' ' + iFields[4]);
+                            iCustomer.getInvoiceAddress().setAddress2(iFields[5]);
+                            iCustomer.setName(iFields[2]);
+                        }
+                        iCustomer.setYourContactPerson(iFields[3] + ' ' + iFields[4]);
+                        iCustomer.getInvoiceAddress().setZipCode(iFields[6]);
+                        iCustomer.getInvoiceAddress().setCity(iFields[7]);
+                        iCustomer.getInvoiceAddress().setCountry(iFields[8]);
+
+                        if (iFields[9] == null
+                                || (iFields[9].length() == 0 && iFields[2].length() == 0)) {
+                            iCustomer.getDeliveryAddress().setName(
+                                    (iFields[10] + ' ' + iFields[11]).equals(" ")
+                                            ? iCustomer.getInvoiceAddress().getName()
+                                            : iFields[10] + ' ' + iFields[11]);
+                            iCustomer.getDeliveryAddress().setAddress1(
+                                    iFields[12].length() == 0
+                                            ? iCustomer.getInvoiceAddress().getAddress1()
+                                            : iFields[12]);
+                        } else {
+                            iCustomer.getDeliveryAddress().setName(
+                                    iFields[9].length() == 0
+                                            ? iCustomer.getInvoiceAddress().getName()
+                                            : iFields[9]);
+                            iCustomer.getDeliveryAddress().setAddress1(
+                                    (iFields[10] + ' ' + iFields[11]).equals(" ")
+                                            ? iCustomer.getInvoiceAddress().getAddress1()
+                                            : iFields[10] + ' ' + iFields[11]);
+                            iCustomer.getDeliveryAddress().setAddress2(
+                                    iFields[12].length() == 0
+                                            ? iCustomer.getInvoiceAddress().getAddress2()
+                                            : iFields[12]);
+                        }
+                        iCustomer.getDeliveryAddress().setZipCode(
+                                iFields[13].length() == 0
+                                        ? iCustomer.getInvoiceAddress().getZipCode()
+                                        : iFields[13]);
+                        iCustomer.getDeliveryAddress().setCity(
+                                iFields[14].length() == 0
+                                        ? iCustomer.getInvoiceAddress().getCity()
+                                        : iFields[14]);
+                        iCustomer.getDeliveryAddress().setCountry(
+                                iFields[15].length() == 0
+                                        ? iCustomer.getInvoiceAddress().getCountry()
+                                        : iFields[15]);
+
+                        iCustomer.setPhone1(iFields[16]);
+                        iCustomer.setTelefax(iFields[17]);
+                        iCustomer.setEMail(iFields[18]);
+                        iCustomer.setRegistrationNumber(iFields[19]);
+                        if (iNewCustomer) {
+                            SSDB.getInstance().addCustomer(iCustomer);
+                        } else {
+                            SSDB.getInstance().updateCustomer(iCustomer);
+                        }
+                        iCustomerCount++;
+                    } else if (iFields.length == 19) {
+                        if (iFields[1] == null || iFields[1].length() == 0) {
+                            iCustomer.getInvoiceAddress().setName(
+                                    iFields[2] + ' ' + iFields[3]);
+                            iCustomer.setName(iFields[2] + ' ' + iFields[3]);
+                            iCustomer.getInvoiceAddress().setAddress1(iFields[4]);
+                        } else {
+                            iCustomer.getInvoiceAddress().setName(iFields[1]);
+                            iCustomer.getInvoiceAddress().setAddress1(
+                                    iFields[2] + ' ' + iFields[3]);
+                            iCustomer.getInvoiceAddress().setAddress2(iFields[4]);
+                            iCustomer.setName(iFields[1]);
+                        }
+                        iCustomer.setYourContactPerson(iFields[2] + ' ' + iFields[3]);
+                        iCustomer.getInvoiceAddress().setZipCode(iFields[5]);
+                        iCustomer.getInvoiceAddress().setCity(iFields[6]);
+                        iCustomer.getInvoiceAddress().setCountry(iFields[7]);
+
+                        if (iFields[8] == null
+                                || (iFields[8].length() == 0 && iFields[1].length() == 0)) {
+                            iCustomer.getDeliveryAddress().setName(
+                                    (iFields[9] + ' ' + iFields[10]).equals(" ")
+                                            ? iCustomer.getInvoiceAddress().getName()
+                                            : iFields[9] + ' ' + iFields[10]);
+                            iCustomer.getDeliveryAddress().setAddress1(
+                                    iFields[11].length() == 0
+                                            ? iCustomer.getInvoiceAddress().getAddress1()
+                                            : iFields[11]);
+                        } else {
+                            iCustomer.getDeliveryAddress().setName(
+                                    iFields[8].length() == 0
+                                            ? iCustomer.getInvoiceAddress().getName()
+                                            : iFields[8]);
+                            iCustomer.getDeliveryAddress().setAddress1(
+                                    (iFields[9] + ' ' + iFields[10]).equals(" ")
+                                            ? iCustomer.getInvoiceAddress().getAddress1()
+                                            : iFields[9] + ' ' + iFields[10]);
+                            iCustomer.getDeliveryAddress().setAddress2(
+                                    iFields[11].length() == 0
+                                            ? iCustomer.getInvoiceAddress().getAddress2()
+                                            : iFields[11]);
+                        }
+                        iCustomer.getDeliveryAddress().setZipCode(
                                 iFields[12].length() == 0
-                                        ? iCustomer.getInvoiceAddress().getAddress1()
+                                        ? iCustomer.getInvoiceAddress().getZipCode()
                                         : iFields[12]);
+                        iCustomer.getDeliveryAddress().setCity(
+                                iFields[13].length() == 0
+                                        ? iCustomer.getInvoiceAddress().getCity()
+                                        : iFields[13]);
+                        iCustomer.getDeliveryAddress().setCountry(
+                                iFields[14].length() == 0
+                                        ? iCustomer.getInvoiceAddress().getCountry()
+                                        : iFields[14]);
+
+                        iCustomer.setPhone1(iFields[15]);
+                        iCustomer.setTelefax(iFields[16]);
+                        iCustomer.setEMail(iFields[17]);
+                        iCustomer.setRegistrationNumber(iFields[18]);
+                        if (iNewCustomer) {
+                            SSDB.getInstance().addCustomer(iCustomer);
+                        } else {
+                            SSDB.getInstance().updateCustomer(iCustomer);
+                        }
+                        iCustomerCount++;
                     } else {
-                        iCustomer.getDeliveryAddress().setName(
-                                iFields[9].length() == 0
-                                        ? iCustomer.getInvoiceAddress().getName()
-                                        : iFields[9]);
-                        iCustomer.getDeliveryAddress().setAddress1(
-                                (iFields[10] + ' ' + iFields[11]).equals(" ")
-                                        ? iCustomer.getInvoiceAddress().getAddress1()
-                                        : iFields[10] + ' ' + iFields[11]);
-                        iCustomer.getDeliveryAddress().setAddress2(
-                                iFields[12].length() == 0
-                                        ? iCustomer.getInvoiceAddress().getAddress2()
-                                        : iFields[12]);
+                        iBadCustomers.add(iFields[0] + " - Fel antal fält");
                     }
-                    iCustomer.getDeliveryAddress().setZipCode(
-                            iFields[13].length() == 0
-                                    ? iCustomer.getInvoiceAddress().getZipCode()
-                                    : iFields[13]);
-                    iCustomer.getDeliveryAddress().setCity(
-                            iFields[14].length() == 0
-                                    ? iCustomer.getInvoiceAddress().getCity()
-                                    : iFields[14]);
-                    iCustomer.getDeliveryAddress().setCountry(
-                            iFields[15].length() == 0
-                                    ? iCustomer.getInvoiceAddress().getCountry()
-                                    : iFields[15]);
-
-                    iCustomer.setPhone1(iFields[16]);
-                    iCustomer.setTelefax(iFields[17]);
-                    iCustomer.setEMail(iFields[18]);
-                    iCustomer.setRegistrationNumber(iFields[19]);
-                    if (iNewCustomer) {
-                        SSDB.getInstance().addCustomer(iCustomer);
-                    } else {
-                        SSDB.getInstance().updateCustomer(iCustomer);
-                    }
-                    iCustomerCount++;
-                } else if (iFields.length == 19) {
-                    if (iFields[1] == null || iFields[1].length() == 0) {
-                        iCustomer.getInvoiceAddress().setName(
-                                iFields[2] + ' ' + iFields[3]);
-                        iCustomer.setName(iFields[2] + ' ' + iFields[3]);
-                        iCustomer.getInvoiceAddress().setAddress1(iFields[4]);
-                    } else {
-                        iCustomer.getInvoiceAddress().setName(iFields[1]);
-                        iCustomer.getInvoiceAddress().setAddress1(
-                                iFields[2] + ' ' + iFields[3]);
-                        iCustomer.getInvoiceAddress().setAddress2(iFields[4]);
-                        iCustomer.setName(iFields[1]);
-                    }
-                    iCustomer.setYourContactPerson(iFields[2] + ' ' + iFields[3]);
-                    iCustomer.getInvoiceAddress().setZipCode(iFields[5]);
-                    iCustomer.getInvoiceAddress().setCity(iFields[6]);
-                    iCustomer.getInvoiceAddress().setCountry(iFields[7]);
-
-                    if (iFields[8] == null
-                            || (iFields[8].length() == 0 && iFields[1].length() == 0)) {
-                        iCustomer.getDeliveryAddress().setName(
-                                (iFields[9] + ' ' + iFields[10]).equals(" ")
-                                        ? iCustomer.getInvoiceAddress().getName()
-                                        : iFields[9] + ' ' + iFields[10]);
-                        iCustomer.getDeliveryAddress().setAddress1(
-                                iFields[11].length() == 0
-                                        ? iCustomer.getInvoiceAddress().getAddress1()
-                                        : iFields[11]);
-                    } else {
-                        iCustomer.getDeliveryAddress().setName(
-                                iFields[8].length() == 0
-                                        ? iCustomer.getInvoiceAddress().getName()
-                                        : iFields[8]);
-                        iCustomer.getDeliveryAddress().setAddress1(
-                                (iFields[9] + ' ' + iFields[10]).equals(" ")
-                                        ? iCustomer.getInvoiceAddress().getAddress1()
-                                        : iFields[9] + ' ' + iFields[10]);
-                        iCustomer.getDeliveryAddress().setAddress2(
-                                iFields[11].length() == 0
-                                        ? iCustomer.getInvoiceAddress().getAddress2()
-                                        : iFields[11]);
-                    }
-                    iCustomer.getDeliveryAddress().setZipCode(
-                            iFields[12].length() == 0
-                                    ? iCustomer.getInvoiceAddress().getZipCode()
-                                    : iFields[12]);
-                    iCustomer.getDeliveryAddress().setCity(
-                            iFields[13].length() == 0
-                                    ? iCustomer.getInvoiceAddress().getCity()
-                                    : iFields[13]);
-                    iCustomer.getDeliveryAddress().setCountry(
-                            iFields[14].length() == 0
-                                    ? iCustomer.getInvoiceAddress().getCountry()
-                                    : iFields[14]);
-
-                    iCustomer.setPhone1(iFields[15]);
-                    iCustomer.setTelefax(iFields[16]);
-                    iCustomer.setEMail(iFields[17]);
-                    iCustomer.setRegistrationNumber(iFields[18]);
-                    if (iNewCustomer) {
-                        SSDB.getInstance().addCustomer(iCustomer);
-                    } else {
-                        SSDB.getInstance().updateCustomer(iCustomer);
-                    }
-                    iCustomerCount++;
-                } else {
-                    iBadCustomers.add(iFields[0] + " - Fel antal fält");
                 }
             }
 
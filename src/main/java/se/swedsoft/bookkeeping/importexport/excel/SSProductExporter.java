@@ -1,12 +1,8 @@
 package se.swedsoft.bookkeeping.importexport.excel;
 
 
-import jxl.Workbook;
-import jxl.WorkbookSettings;
 import jxl.format.Colour;
 import jxl.write.WritableCellFormat;
-import jxl.write.WritableSheet;
-import jxl.write.WritableWorkbook;
 import jxl.write.WriteException;
 import org.w3c.dom.Document;
 import org.w3c.dom.Element;
@@ -86,23 +82,8 @@ public class SSProductExporter {    private static final Logger LOG = LoggerFact
      * @throws SSImportException
      */
     public void doExport()  throws IOException, SSImportException {
-        WorkbookSettings iSettings = new WorkbookSettings();
-
-        iSettings.setLocale(new Locale("sv", "SE"));
-        iSettings.setEncoding("windows-1252");
-        iSettings.setExcelDisplayLanguage("SE");
-        iSettings.setExcelRegionalSettings("SE");
-
-        try {
-            WritableWorkbook iWorkbook = Workbook.createWorkbook(iFile, iSettings);
-
-            WritableSheet iSheet = iWorkbook.createSheet("Produkter", 0);
-
-            writeSheet(new SSWritableExcelSheet(iSheet));
-
-            iWorkbook.write();
-            iWorkbook.close();
-
+        try (SSWritableExcelSheet iSheet = SSWritableExcelSheet.create(iFile, "Produkter")) {
+            writeSheet(iSheet);
         } catch (WriteException e) {
             throw new SSExportException(e.getLocalizedMessage());
         }
@@ -112,13 +93,12 @@ public class SSProductExporter {    private static final Logger LOG = LoggerFact
     /**
      *
      * @param pSheet
+     * @throws IOException
      * @throws WriteException
      */
-    private void writeSheet(SSWritableExcelSheet pSheet) throws WriteException {
-        List<SSWritableExcelRow> iRows = pSheet.getRows(iProducts.size() + 1);
-
+    private void writeSheet(SSWritableExcelSheet pSheet) throws IOException, WriteException {
         // Write the column names
-        SSWritableExcelRow iColumns = iRows.get(0);
+        SSWritableExcelRow iColumns = pSheet.getRow(0);
 
         WritableCellFormat iCellFormat = new WritableCellFormat();
 
@@ -149,7 +129,7 @@ public class SSProductExporter {    private static final Logger LOG = LoggerFact
             SSSupplier iMainsupplier = iProduct.getSupplier(
                     SSDB.getInstance().getSuppliers());
 
-            SSWritableExcelRow iRow = iRows.get(iRowIndex);
+            SSWritableExcelRow iRow = pSheet.getRow(iRowIndex);
 
             iRow.setString(0, iProduct.getNumber());
             iRow.setString(1, iProduct.getDescription());
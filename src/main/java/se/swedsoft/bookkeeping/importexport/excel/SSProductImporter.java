@@ -1,10 +1,6 @@
 package se.swedsoft.bookkeeping.importexport.excel;
 
 
-import jxl.Sheet;
-import jxl.Workbook;
-import jxl.WorkbookSettings;
-import jxl.read.biff.BiffException;
 import org.w3c.dom.Document;
 import org.w3c.dom.Element;
 import org.w3c.dom.Node;
@@ -17,6 +13,7 @@ import se.swedsoft.bookkeeping.data.common.SSDefaultAccount;
 import se.swedsoft.bookkeeping.data.common.SSTaxCode;
 import se.swedsoft.bookkeeping.data.common.SSUnit;
 import se.swedsoft.bookkeeping.data.system.SSDB;
+import se.swedsoft.bookkeeping.data.system.SSDBBatch;
 import se.swedsoft.bookkeeping.gui.SSMainFrame;
 import se.swedsoft.bookkeeping.gui.util.SSBundle;
 import se.swedsoft.bookkeeping.gui.util.dialogs.SSInitDialog;
@@ -67,27 +64,10 @@ public class SSProductImporter {    private static final Logger LOG = LoggerFact
      * @throws SSImportException
      */
     public void doImport() throws IOException, SSImportException {
-        WorkbookSettings iSettings = new WorkbookSettings();
+        List<SSProduct> iProducts;
 
-        iSettings.setLocale(new Locale("sv", "SE"));
-        iSettings.setEncoding("windows-1252");
-        iSettings.setExcelDisplayLanguage("SE");
-        iSettings.setExcelRegionalSettings("SE");
-
-        List<SSProduct> iProducts = null;
-
-        try {
-            Workbook iWorkbook = Workbook.getWorkbook(iFile, iSettings);
-
-            Sheet iSheet = iWorkbook.getSheet(0);
-
-            iProducts = importProducts(new SSExcelSheet(iSheet));
-
-            // iWorkbook.write();
-            iWorkbook.close();
-
-        } catch (BiffException e) {
-            throw new SSImportException(e.getLocalizedMessage());
+        try (SSExcelSheet iSheet = SSExcelSheet.open(iFile)) {
+            iProducts = importProducts(iSheet);
         }
         final List<SSProduct> iNewProducts = new LinkedList<>(iProducts);
         final boolean iResult = showImportReport(iProducts);
@@ -98,9 +78,12 @@ public class SSProductImporter {    private static final Logger LOG = LoggerFact
                         if (iNewProducts != null && iResult) {
                             List<SSProduct> iExistingProducts = SSDB.getInstance().getProducts();
 
-                            for (SSProduct iProduct : iNewProducts) {
-                                if (!iExistingProducts.contains(iProduct)) {
-                                    SSDB.getInstance().addProduct(iProduct);
+                            try (SSDBBatch iBatch = SSDB.getInstance().beginBatch("Importera produkter")) {
+                                for (SSProduct iProduct : iNewProducts) {
+                                    if (!iExistingProducts.contains(iProduct)
+                                            && iBatch.add("PRODUCT", iProduct.getNumber())) {
+                                        SSDB.getInstance().addProduct(iProduct);
+                                    }
                                 }
                             }
                         }
@@ -172,18 +155,22 @@ public class SSProductImporter {    private static final Logger LOG = LoggerFact
      */
     private List<SSProduct> importProducts(SSExcelSheet iSheet) {
 
-        List<SSExcelRow> iRows = iSheet.getRows();
+        Iterator<SSExcelRow> iRows = iSheet.iterator();
 
-        if (iRows.size() < 2) {
+        if (!iRows.hasNext()) {
             throw new SSImportException(SSBundle.getBundle(), "productframe.import.norows");
         }
 
-        getColumnIndexes(iRows.get(0));
+        getColumnIndexes(iRows.next());
+
+        if (!iRows.hasNext()) {
+            throw new SSImportException(SSBundle.getBundle(), "productframe.import.norows");
+        }
 
         List<SSProduct> iProducts = new LinkedList<>();
 
-        for (int row = 1; row < iRows.size(); row++) {
-            SSExcelRow iRow = iRows.get(row);
+        while (iRows.hasNext()) {
+            SSExcelRow iRow = iRows.next();
 
             // Skip empty rows
             if (iRow.empty()) {
@@ -663,11 +650,14 @@ public class SSProductImporter {    private static final Logger LOG = LoggerFact
             }
             List<SSProduct> iExistingProducts = SSDB.getInstance().getProducts();
 
-            for (SSProduct pProduct : iProducts) {
-                if (iExistingProducts.contains(pProduct)) {
-                    SSDB.getInstance().updateProduct(pProduct);
-                } else {
-                    SSDB.getInstance().addProduct(pProduct);
+            try (SSDBBatch iBatch = SSDB.getInstance().beginBatch("Importera produkter")) {
+                for (SSProduct pProduct : iProducts) {
+                    if (iExistingProducts.contains(pProduct)
+                            || !iBatch.add("PRODUCT", pProduct.getNumber())) {
+                        SSDB.getInstance().updateProduct(pProduct);
+                    } else {
+                        SSDB.getInstance().addProduct(pProduct);
+                    }
                 }
             }
 
@@ -1,12 +1,8 @@
 package se.swedsoft.bookkeeping.importexport.excel;
 
 
-import jxl.Workbook;
-import jxl.WorkbookSettings;
 import jxl.format.Colour;
 import jxl.write.WritableCellFormat;
-import jxl.write.WritableSheet;
-import jxl.write.WritableWorkbook;
 import jxl.write.WriteException;
 import se.swedsoft.bookkeeping.data.SSSupplier;
 import se.swedsoft.bookkeeping.data.system.SSDB;
@@ -18,7 +14,6 @@ import se.swedsoft.bookkeeping.importexport.util.SSImportException;
 import java.io.File;
 import java.io.IOException;
 import java.util.List;
-import java.util.Locale;
 
 
 /**
@@ -77,23 +72,8 @@ public class SSSupplierExporter {
      * @throws SSExportException
      */
     public void export()  throws IOException, SSExportException {
-        WorkbookSettings iSettings = new WorkbookSettings();
-
-        iSettings.setLocale(new Locale("sv", "SE"));
-        iSettings.setEncoding("windows-1252");
-        iSettings.setExcelDisplayLanguage("SE");
-        iSettings.setExcelRegionalSettings("SE");
-
-        try {
-            WritableWorkbook iWorkbook = Workbook.createWorkbook(iFile, iSettings);
-
-            WritableSheet iSheet = iWorkbook.createSheet("Leverantörer", 0);
-
-            writeSuppliers(new SSWritableExcelSheet(iSheet));
-
-            iWorkbook.write();
-            iWorkbook.close();
-
+        try (SSWritableExcelSheet iSheet = SSWritableExcelSheet.create(iFile, "Leverantörer")) {
+            writeSuppliers(iSheet);
         } catch (WriteException e) {
             throw new SSExportException(e.getLocalizedMessage());
         }
@@ -1,13 +1,10 @@
 package se.swedsoft.bookkeeping.importexport.excel;
 
 
-import jxl.Sheet;
-import jxl.Workbook;
-import jxl.WorkbookSettings;
-import jxl.read.biff.BiffException;
 import se.swedsoft.bookkeeping.calc.math.SSSupplierMath;
 import se.swedsoft.bookkeeping.data.SSSupplier;
 import se.swedsoft.bookkeeping.data.system.SSDB;
+import se.swedsoft.bookkeeping.data.system.SSDBBatch;
 import se.swedsoft.bookkeeping.gui.SSMainFrame;
 import se.swedsoft.bookkeeping.gui.util.SSBundle;
 import se.swedsoft.bookkeeping.gui.util.dialogs.SSInitDialog;
@@ -48,32 +45,10 @@ public class SSSupplierImporter {
      * @throws IOException
      */
     public void Import()  throws IOException, SSImportException {
-        WorkbookSettings iSettings = new WorkbookSettings();
+        List<SSSupplier> iSuppliers;
 
-        iSettings.setLocale(new Locale("sv", "SE"));
-        iSettings.setEncoding("windows-1252");
-        iSettings.setExcelDisplayLanguage("SE");
-        iSettings.setExcelRegionalSettings("SE");
-
-        List<SSSupplier> iSuppliers = new LinkedList<>();
-
-        try {
-            Workbook iWorkbook = Workbook.getWorkbook(iFile, iSettings);
-
-            // Empty workbook, ie nothing to import
-            if (iWorkbook.getNumberOfSheets() == 0) {
-                throw new SSImportException(SSBundle.getBundle(),
-                        "supplierframe.import.nosheets");
-            }
-
-            Sheet iSheet = iWorkbook.getSheet(0);
-
-            iSuppliers = importSuppliers(new SSExcelSheet(iSheet));
-
-            iWorkbook.close();
-
-        } catch (BiffException e) {
-            throw new SSImportException(e.getLocalizedMessage());
+        try (SSExcelSheet iSheet = SSExcelSheet.open(iFile)) {
+            iSuppliers = importSuppliers(iSheet);
         }
         final List<SSSupplier> iNewSuppliers = new LinkedList<>(iSuppliers);
         final boolean iResult = showImportReport(iSuppliers);
@@ -84,11 +59,14 @@ public class SSSupplierImporter {
                         if (iNewSuppliers != null && iResult) {
                             Integer iOutPaymentNumber = SSSupplierMath.getOutpaymentNumber();
 
-                            for (SSSupplier iSupplier : iNewSuppliers) {
-                                if (!SSDB.getInstance().getSuppliers().contains(iSupplier)) {
-                                    iSupplier.setOutpaymentNumber(iOutPaymentNumber);
-                                    SSDB.getInstance().addSupplier(iSupplier);
-                                    iOutPaymentNumber++;
+                            try (SSDBBatch iBatch = SSDB.getInstance().beginBatch("Importera leverant\u00f6rer")) {
+                                for (SSSupplier iSupplier : iNewSuppliers) {
+                                    if (!SSDB.getInstance().getSuppliers().contains(iSupplier)
+                                            && iBatch.add("SUPPLIER", iSupplier.getNumber())) {
+                                        iSupplier.setOutpaymentNumber(iOutPaymentNumber);
+                                        SSDB.getInstance().addSupplier(iSupplier);
+                                        iOutPaymentNumber++;
+                                    }
                                 }
                             }
                         }
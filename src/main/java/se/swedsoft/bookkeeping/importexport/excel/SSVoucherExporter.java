@@ -1,8 +1,6 @@
 package se.swedsoft.bookkeeping.importexport.excel;
 
 
-import jxl.Workbook;
-import jxl.WorkbookSettings;
 import jxl.format.Colour;
 import jxl.write.*;
 import se.swedsoft.bookkeeping.data.SSVoucher;
@@ -16,7 +14,6 @@ import se.swedsoft.bookkeeping.importexport.util.SSImportException;
 import java.io.File;
 import java.io.IOException;
 import java.util.List;
-import java.util.Locale;
 
 
 /**
@@ -66,63 +63,35 @@ public class SSVoucherExporter {
      * @throws SSExportException
      */
     public void export()  throws IOException, SSExportException {
-        WorkbookSettings iSettings = new WorkbookSettings();
-
-        iSettings.setLocale(new Locale("sv", "SE"));
-        iSettings.setEncoding("windows-1252");
-        iSettings.setExcelDisplayLanguage("SE");
-        iSettings.setExcelRegionalSettings("SE");
-
-        try {
-            WritableWorkbook iWorkbook = Workbook.createWorkbook(iFile, iSettings);
-
-            WritableSheet iSheet = iWorkbook.createSheet("Verifikationer", 0);
-
-            writeVouchers(new SSWritableExcelSheet(iSheet));
-
-            iWorkbook.write();
-            iWorkbook.close();
-
+        try (SSWritableExcelSheet iSheet = SSWritableExcelSheet.create(iFile, "Verifikationer")) {
+            writeVouchers(iSheet);
         } catch (WriteException e) {
             throw new SSExportException(e.getLocalizedMessage());
         }
 
     }
 
-    /**
-     *
-     * @param iVouchers
-     * @return
-     */
-    private int getNumRows(List<SSVoucher> iVouchers) {
-        int count = 0;
-
-        for (SSVoucher iVoucher : iVouchers) {
-            count = count + iVoucher.getRows().size() + 1;
-        }
-        return count;
-    }
-
     /**
      *
      * @param pSheet
+     * @throws IOException
      * @throws WriteException
      */
-    private void writeVouchers(SSWritableExcelSheet pSheet) throws WriteException {
-        List<SSWritableExcelRow> iRows = pSheet.getRows(getNumRows(iVouchers) + 4);
-
+    private void writeVouchers(SSWritableExcelSheet pSheet) throws IOException, WriteException {
         WritableCellFormat iCellFormat = new WritableCellFormat();
 
         iCellFormat.setBackground(Colour.GRAY_25);
 
-        iRows.get(0).setString(0, NUMMER, iCellFormat);
-        iRows.get(0).setString(1, BESKRIVNING, iCellFormat);
-        iRows.get(0).setString(2, DATUM, iCellFormat);
-        iRows.get(0).setString(3, KONTO, iCellFormat);
-        iRows.get(0).setString(4, DEBET, iCellFormat);
-        iRows.get(0).setString(5, KREDIT, iCellFormat);
-        iRows.get(0).setString(6, PROJEKT, iCellFormat);
-        iRows.get(0).setString(7, RESULTATENHET, iCellFormat);
+        SSWritableExcelRow iColumns = pSheet.getRow(0);
+
+        iColumns.setString(0, NUMMER, iCellFormat);
+        iColumns.setString(1, BESKRIVNING, iCellFormat);
+        iColumns.setString(2, DATUM, iCellFormat);
+        iColumns.setString(3, KONTO, iCellFormat);
+        iColumns.setString(4, DEBET, iCellFormat);
+        iColumns.setString(5, KREDIT, iCellFormat);
+        iColumns.setString(6, PROJEKT, iCellFormat);
+        iColumns.setString(7, RESULTATENHET, iCellFormat);
 
         iCellFormat = new WritableCellFormat();
         WritableFont iFont = new WritableFont(WritableFont.ARIAL,
@@ -134,7 +103,7 @@ public class SSVoucherExporter {
 
         for (SSVoucher iVoucher : iVouchers) {
             iRowIndex++;
-            SSWritableExcelRow iRow = iRows.get(iRowIndex);
+            SSWritableExcelRow iRow = pSheet.getRow(iRowIndex);
 
             iRow.setNumber(0, iVoucher.getNumber(), iCellFormat);
             iRow.setString(1, iVoucher.getDescription(), iCellFormat);
@@ -147,7 +116,7 @@ public class SSVoucherExporter {
                 }
 
                 iRowIndex++;
-                iRow = iRows.get(iRowIndex);
+                iRow = pSheet.getRow(iRowIndex);
                 iRow.setNumber(3, iVoucherRow.getAccountNr());
                 iRow.setNumber(4, iVoucherRow.getDebet());
                 iRow.setNumber(5, iVoucherRow.getCredit());
@@ -1,13 +1,10 @@
 package se.swedsoft.bookkeeping.importexport.excel;
 
 
-import jxl.Sheet;
-import jxl.Workbook;
-import jxl.WorkbookSettings;
-import jxl.read.biff.BiffException;
 import se.swedsoft.bookkeeping.data.SSVoucher;
 import se.swedsoft.bookkeeping.data.SSVoucherRow;
 import se.swedsoft.bookkeeping.data.system.SSDB;
+import se.swedsoft.bookkeeping.data.system.SSDBBatch;
 import se.swedsoft.bookkeeping.gui.SSMainFrame;
 import se.swedsoft.bookkeeping.gui.util.SSBundle;
 import se.swedsoft.bookkeeping.importexport.dialog.SSImportReportDialog;
@@ -47,37 +44,18 @@ public class SSVoucherImporter {
      * @throws IOException
      */
     public void Import()  throws IOException, SSImportException {
-        WorkbookSettings iSettings = new WorkbookSettings();
+        List<SSVoucher> iVouchers;
 
-        iSettings.setLocale(new Locale("sv", "SE"));
-        iSettings.setEncoding("windows-1252");
-        iSettings.setExcelDisplayLanguage("SE");
-        iSettings.setExcelRegionalSettings("SE");
-
-        List<SSVoucher> iVouchers = null;
-
-        try {
-            Workbook iWorkbook = Workbook.getWorkbook(iFile, iSettings);
-
-            // Empty workbook, ie nothing to import
-            if (iWorkbook.getNumberOfSheets() == 0) {
-                throw new SSImportException(SSBundle.getBundle(),
-                        "voucherframe.import.nosheets");
-            }
-
-            Sheet iSheet = iWorkbook.getSheet(0);
-
-            iVouchers = importVouchers(new SSExcelSheet(iSheet));
-
-            iWorkbook.close();
-
-        } catch (BiffException e) {
-            throw new SSImportException(e.getLocalizedMessage());
+        try (SSExcelSheet iSheet = SSExcelSheet.open(iFile)) {
+            iVouchers = importVouchers(iSheet);
         }
         if (iVouchers != null && showImportReport(iVouchers)) {
-            for (SSVoucher iVoucher : iVouchers) {
-                if (!SSDB.getInstance().getVouchers().contains(iVoucher)) {
-                    SSDB.getInstance().addVoucher(iVoucher, false);
+            try (SSDBBatch iBatch = SSDB.getInstance().beginBatch("Importera verifikationer")) {
+                for (SSVoucher iVoucher : iVouchers) {
+                    if (!SSDB.getInstance().getVouchers().contains(iVoucher)
+                            && iBatch.add("VOUCHER", iVoucher.getNumber())) {
+                        SSDB.getInstance().addVoucher(iVoucher, false);
+                    }
                 }
             }
         }
@@ -130,21 +108,25 @@ public class SSVoucherImporter {
      */
     private List<SSVoucher> importVouchers(SSExcelSheet pSheet) {
 
-        List<SSExcelRow> iRows = pSheet.getRows();
+        Iterator<SSExcelRow> iRows = pSheet.iterator();
 
-        if (iRows.size() < 2) {
+        if (!iRows.hasNext()) {
             throw new SSImportException(SSBundle.getBundle(), "voucherframe.import.norows");
         }
 
-        getColumnIndexes(iRows.get(0));
+        getColumnIndexes(iRows.next());
+
+        if (!iRows.hasNext()) {
+            throw new SSImportException(SSBundle.getBundle(), "voucherframe.import.norows");
+        }
 
         List<SSVoucher> iVouchers = new LinkedList<>();
 
         SSVoucher    iVoucher = null;
         SSVoucherRow iVoucherRow = null;
 
-        for (int row = 1; row < iRows.size(); row++) {
-            SSExcelRow iRow = iRows.get(row);
+        while (iRows.hasNext()) {
+            SSExcelRow iRow = iRows.next();
 
             // Skip empty rows
             if (iRow.empty()) {
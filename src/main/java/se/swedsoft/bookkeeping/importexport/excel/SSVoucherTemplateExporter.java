@@ -1,8 +1,6 @@
 package se.swedsoft.bookkeeping.importexport.excel;
 
 
-import jxl.Workbook;
-import jxl.WorkbookSettings;
 import jxl.format.Colour;
 import jxl.write.*;
 import se.swedsoft.bookkeeping.data.SSVoucherTemplate;
@@ -15,7 +13,6 @@ import se.swedsoft.bookkeeping.importexport.util.SSImportException;
 import java.io.File;
 import java.io.IOException;
 import java.util.List;
-import java.util.Locale;
 
 import static se.swedsoft.bookkeeping.data.SSVoucherTemplate.SSVoucherTemplateRow;
 
@@ -62,22 +59,8 @@ public class SSVoucherTemplateExporter {
      * @throws SSExportException
      */
     public void export()  throws IOException, SSExportException {
-        WorkbookSettings iSettings = new WorkbookSettings();
-
-        iSettings.setLocale(new Locale("sv", "SE"));
-        iSettings.setEncoding("windows-1252");
-        iSettings.setExcelDisplayLanguage("SE");
-        iSettings.setExcelRegionalSettings("SE");
-        try {
-            WritableWorkbook iWorkbook = Workbook.createWorkbook(iFile, iSettings);
-
-            WritableSheet iSheet = iWorkbook.createSheet("Konteringmallar", 0);
-
-            writeVoucherTemplates(new SSWritableExcelSheet(iSheet));
-
-            iWorkbook.write();
-            iWorkbook.close();
-
+        try (SSWritableExcelSheet iSheet = SSWritableExcelSheet.create(iFile, "Konteringmallar")) {
+            writeVoucherTemplates(iSheet);
         } catch (WriteException e) {
             throw new SSExportException(e.getLocalizedMessage());
         }
@@ -1,10 +1,6 @@
 package se.swedsoft.bookkeeping.importexport.excel;
 
 
-import jxl.Sheet;
-import jxl.Workbook;
-import jxl.WorkbookSettings;
-import jxl.read.biff.BiffException;
 import se.swedsoft.bookkeeping.data.SSVoucherTemplate;
 import se.swedsoft.bookkeeping.data.system.SSDB;
 import se.swedsoft.bookkeeping.gui.SSMainFrame;
@@ -48,32 +44,10 @@ public class SSVoucherTemplateImporter {
      * @throws IOException
      */
     public void Import()  throws IOException, SSImportException {
-        WorkbookSettings iSettings = new WorkbookSettings();
+        List<SSVoucherTemplate> iVoucherTemplates;
 
-        iSettings.setLocale(new Locale("sv", "SE"));
-        iSettings.setEncoding("windows-1252");
-        iSettings.setExcelDisplayLanguage("SE");
-        iSettings.setExcelRegionalSettings("SE");
-
-        List<SSVoucherTemplate> iVoucherTemplates = null;
-
-        try {
-            Workbook iWorkbook = Workbook.getWorkbook(iFile, iSettings);
-
-            // Empty workbook, ie nothing to import
-            if (iWorkbook.getNumberOfSheets() == 0) {
-                throw new SSImportException(SSBundle.getBundle(),
-                        "vouchertemplateframe.import.nosheets");
-            }
-
-            Sheet iSheet = iWorkbook.getSheet(0);
-
-            iVoucherTemplates = importVouchers(new SSExcelSheet(iSheet));
-
-            iWorkbook.close();
-
-        } catch (BiffException e) {
-            throw new SSImportException(e.getLocalizedMessage());
+        try (SSExcelSheet iSheet = SSExcelSheet.open(iFile)) {
+            iVoucherTemplates = importVouchers(iSheet);
         }
         boolean iResult = showImportReport(iVoucherTemplates);
 
@@ -24,13 +24,41 @@ public class SSExcelCell {
 
     private int iColumn;
 
-    private Cell iCell;
+    private String iContents;
+
+    // The value of a number cell, null for other cells
+    private Double iNumber;
+
+    // The value of a date cell, null for other cells
+    private LocalDate iDate;
 
     public SSExcelCell(Cell pCell, int pRow, int pColumn) {
-        iCell = pCell;
+        iContents = pCell.getContents();
         iRow = pRow;
         iColumn = pColumn;
 
+        if (pCell instanceof NumberCell) {
+            iNumber = ((NumberCell) pCell).getValue();
+        }
+        if (pCell instanceof DateCell) {
+            iDate = SSDateUtil.toLocalDate(((DateCell) pCell).getDate());
+        }
+    }
+
+    /**
+     *
+     * @param pContents
+     * @param pNumber the value if this is a number cell
+     * @param pDate the value if this is a date cell
+     * @param pRow
+     * @param pColumn
+     */
+    SSExcelCell(String pContents, Double pNumber, LocalDate pDate, int pRow, int pColumn) {
+        iContents = pContents;
+        iNumber = pNumber;
+        iDate = pDate;
+        iRow = pRow;
+        iColumn = pColumn;
     }
 
     /**
@@ -38,7 +66,7 @@ public class SSExcelCell {
      * @return
      */
     public String getString() {
-        return iCell.getContents();
+        return iContents;
     }
 
     /**
@@ -46,13 +74,11 @@ public class SSExcelCell {
      * @return
      */
     public Integer getInteger() {
-        if (iCell instanceof NumberCell) {
-            NumberCell iNumber = (NumberCell) iCell;
-
-            return Math.round((float) iNumber.getValue());
+        if (iNumber != null) {
+            return Math.round(iNumber.floatValue());
         }
         try {
-            return Integer.parseInt(iCell.getContents());
+            return Integer.parseInt(iContents);
         } catch (NumberFormatException e) {
             return 0;
         }
@@ -63,14 +89,12 @@ public class SSExcelCell {
      * @return
      */
     public Double getDouble() {
-        if (iCell instanceof NumberCell) {
-            NumberCell iNumber = (NumberCell) iCell;
-
-            return iNumber.getValue();
+        if (iNumber != null) {
+            return iNumber;
         }
 
         try {
-            return Double.parseDouble(iCell.getContents());
+            return Double.parseDouble(iContents);
         } catch (NumberFormatException e) {
             return 0.0;
         }
@@ -81,15 +105,13 @@ public class SSExcelCell {
      * @return
      */
     public LocalDate getLocalDate() {
-        if (iCell instanceof DateCell) {
-            DateCell   iDateCell = (DateCell) iCell;
-
-            return SSDateUtil.toLocalDate(iDateCell.getDate());
+        if (iDate != null) {
+            return iDate;
         }
         DateTimeFormatter iFormat = DateTimeFormatter.ofPattern("yyyy-MM-dd");
 
         try {
-            return LocalDate.parse(iCell.getContents(), iFormat);
+            return LocalDate.parse(iContents, iFormat);
         } catch (DateTimeParseException e) {
             return SSDateUtil.today();
         }
@@ -100,13 +122,11 @@ public class SSExcelCell {
      * @return
      */
     public Optional<BigDecimal> getBigDecimal() {
-        if (iCell instanceof NumberCell) {
-            NumberCell iNumber = (NumberCell) iCell;
-
-            return Optional.of(new BigDecimal(iNumber.getValue()));
+        if (iNumber != null) {
+            return Optional.of(new BigDecimal(iNumber));
         }
         try {
-            return Optional.of(new BigDecimal(iCell.getContents()));
+            return Optional.of(new BigDecimal(iContents));
         } catch (NumberFormatException e) {
             return Optional.empty();
         }
@@ -133,7 +153,7 @@ public class SSExcelCell {
         final StringBuilder sb = new StringBuilder();
 
         sb.append("se.swedsoft.bookkeeping.importexport.excel.util.SSExcelCell");
-        sb.append("{iCell=").append(iCell);
+        sb.append("{iContents=").append(iContents);
         sb.append(", iColumn=").append(iColumn);
         sb.append(", iRow=").append(iRow);
         sb.append('}');
@@ -4,7 +4,7 @@ package se.swedsoft.bookkeeping.importexport.excel.util;
 import jxl.Cell;
 import jxl.Sheet;
 
-import java.util.LinkedList;
+import java.util.ArrayList;
 import java.util.List;
 
 
@@ -16,34 +16,37 @@ public class SSExcelRow {
 
     private int iRow;
 
-    private Sheet iSheet;
+    private List<SSExcelCell> iCells;
 
     public SSExcelRow(Sheet pSheet, int pRow) {
-        iSheet = pSheet;
         iRow = pRow;
-    }
-
-    public List<SSExcelCell> getCells() {
-        List<SSExcelCell> iList = new LinkedList<>();
+        iCells = new ArrayList<>();
 
         int iColumn = 0;
 
-        for (Cell iCell: iSheet.getRow(iRow)) {
-            iList.add(new SSExcelCell(iCell, iRow, iColumn));
+        for (Cell iCell: pSheet.getRow(pRow)) {
+            iCells.add(new SSExcelCell(iCell, pRow, iColumn));
             iColumn++;
         }
-        return iList;
     }
 
-    public boolean empty() {
-        Cell[] iRows = iSheet.getRow(iRow);
+    /**
+     *
+     * @param pRow
+     * @param pCells the cells of the row, one for each column up to the last cell
+     */
+    SSExcelRow(int pRow, List<SSExcelCell> pCells) {
+        iRow = pRow;
+        iCells = pCells;
+    }
 
-        if (iRows.length == 0) {
-            return true;
-        }
+    public List<SSExcelCell> getCells() {
+        return iCells;
+    }
 
-        for (Cell iCell : iRows) {
-            if (iCell.getContents() != null && iCell.getContents().length() > 0) {
+    public boolean empty() {
+        for (SSExcelCell iCell : iCells) {
+            if (iCell.getString() != null && iCell.getString().length() > 0) {
                 return false;
             }
         }
@@ -64,7 +67,7 @@ public class SSExcelRow {
      * @return
      */
     public String getString(int pColumn) {
-        return iSheet.getCell(pColumn, iRow).getContents();
+        return pColumn < iCells.size() ? iCells.get(pColumn).getString() : "";
     }
 
     /**
@@ -99,7 +102,7 @@ public class SSExcelRow {
 
         sb.append("se.swedsoft.bookkeeping.importexport.excel.util.SSExcelRow");
         sb.append("{iRow=").append(iRow);
-        sb.append(", iSheet=").append(iSheet);
+        sb.append(", iCells=").append(iCells);
         sb.append('}');
         return sb.toString();
     }
@@ -2,19 +2,41 @@ package se.swedsoft.bookkeeping.importexport.excel.util;
 
 
 import jxl.Sheet;
+import jxl.Workbook;
+import jxl.WorkbookSettings;
+import jxl.read.biff.BiffException;
+import se.swedsoft.bookkeeping.gui.util.SSBundle;
+import se.swedsoft.bookkeeping.importexport.util.SSImportException;
 
-import java.util.LinkedList;
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Locale;
+import java.util.NoSuchElementException;
 
 
 /**
  * Date: 2006-feb-14
  * Time: 11:30:33
+ *
+ * The first sheet of a xls file read with jxl, or of a xlsx file that is read
+ * one row at a time while iterating, see {@link #open(File)}.
  */
-public class SSExcelSheet {
+public class SSExcelSheet implements Iterable<SSExcelRow>, Closeable {
 
     private Sheet iSheet;
 
+    // The workbook of the sheet when opened by this class
+    private Workbook iWorkbook;
+
+    private SSXLSXReader iReader;
+
+    // If the rows of the xlsx file has been read
+    private boolean iStarted;
+
     /**
      *
      * @param pSheet
@@ -24,25 +46,168 @@ public class SSExcelSheet {
     }
 
     /**
+     *
+     * @param pReader
+     */
+    private SSExcelSheet(SSXLSXReader pReader) {
+        iReader = pReader;
+    }
+
+    /**
+     * Opens the first sheet of a xls or xlsx file, depending on the file
+     * extension. The sheet must be closed.
+     *
+     * @param pFile
+     * @return the sheet
+     * @throws IOException
+     * @throws SSImportException if the file has no sheets or is no excel file
+     */
+    public static SSExcelSheet open(File pFile) throws IOException {
+        if (isXLSX(pFile)) {
+            return new SSExcelSheet(new SSXLSXReader(pFile));
+        }
+        try {
+            Workbook iWorkbook = Workbook.getWorkbook(pFile, getSettings());
+
+            // Empty workbook, ie nothing to import
+            if (iWorkbook.getNumberOfSheets() == 0) {
+                iWorkbook.close();
+
+                throw new SSImportException(SSBundle.getBundle(), "importaccountplan.nosheets");
+            }
+            SSExcelSheet iSheet = new SSExcelSheet(iWorkbook.getSheet(0));
+
+            iSheet.iWorkbook = iWorkbook;
+
+            return iSheet;
+        } catch (BiffException e) {
+            throw new SSImportException(e.getLocalizedMessage());
+        }
+    }
+
+    /**
+     *
+     * @param pFile
+     * @return if the file is a xlsx file
+     */
+    static boolean isXLSX(File pFile) {
+        return pFile.getName().toLowerCase(Locale.ROOT).endsWith(".xlsx");
+    }
+
+    /**
+     *
+     * @return the settings for reading and writing xls files
+     */
+    static WorkbookSettings getSettings() {
+        WorkbookSettings iSettings = new WorkbookSettings();
+
+        iSettings.setLocale(new Locale("sv", "SE"));
+        iSettings.setEncoding("windows-1252");
+        iSettings.setExcelDisplayLanguage("SE");
+        iSettings.setExcelRegionalSettings("SE");
+
+        return iSettings;
+    }
+
+    /**
+     * Reads all rows into memory. Prefer iterating over the sheet for large files.
      *
      * @return
      */
     public List<SSExcelRow> getRows() {
-        List<SSExcelRow> iList = new LinkedList<>();
+        List<SSExcelRow> iList = new ArrayList<>();
 
-        for (int i = 0; i < iSheet.getRows(); i++) {
-            iList.add(new SSExcelRow(iSheet, i));
+        for (SSExcelRow iRow : this) {
+            iList.add(iRow);
         }
         return iList;
     }
 
+    /**
+     * The rows of a xlsx file are read from the file while iterating, they can
+     * only be iterated once.
+     *
+     * @return
+     */
+    @Override
+    public Iterator<SSExcelRow> iterator() {
+        if (iReader != null) {
+            return new XLSXIterator();
+        }
+        return new Iterator<SSExcelRow>() {
+            private int iRow = 0;
+
+            @Override
+            public boolean hasNext() {
+                return iRow < iSheet.getRows();
+            }
+
+            @Override
+            public SSExcelRow next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                return new SSExcelRow(iSheet, iRow++);
+            }
+        };
+    }
+
+    @Override
+    public void close() {
+        if (iWorkbook != null) {
+            iWorkbook.close();
+        }
+        if (iReader != null) {
+            iReader.close();
+        }
+    }
+
     @Override
     public String toString() {
         final StringBuilder sb = new StringBuilder();
 
         sb.append("se.swedsoft.bookkeeping.importexport.excel.util.SSExcelSheet");
         sb.append("{iSheet=").append(iSheet);
+        sb.append(", iReader=").append(iReader);
         sb.append('}');
         return sb.toString();
     }
+
+    private class XLSXIterator implements Iterator<SSExcelRow> {
+
+        private SSExcelRow iNext;
+
+        private XLSXIterator() {
+            if (iStarted) {
+                throw new IllegalStateException("The rows of a xlsx file can only be read once");
+            }
+            iStarted = true;
+            iNext = readRow();
+        }
+
+        @Override
+        public boolean hasNext() {
+            return iNext != null;
+        }
+
+        @Override
+        public SSExcelRow next() {
+            if (iNext == null) {
+                throw new NoSuchElementException();
+            }
+            SSExcelRow iRow = iNext;
+
+            iNext = readRow();
+
+            return iRow;
+        }
+
+        private SSExcelRow readRow() {
+            try {
+                return iReader.nextRow();
+            } catch (IOException e) {
+                throw new SSImportException(e.getLocalizedMessage());
+            }
+        }
+    }
 }
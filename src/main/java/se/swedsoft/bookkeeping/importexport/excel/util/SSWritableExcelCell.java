@@ -3,6 +3,7 @@ package se.swedsoft.bookkeeping.importexport.excel.util;
 
 import jxl.write.Label;
 import jxl.write.Number;
+import jxl.write.WritableCell;
 import jxl.write.WritableSheet;
 import jxl.write.WriteException;
 import jxl.write.biff.RowsExceededException;
@@ -23,6 +24,8 @@ public class SSWritableExcelCell {    private static final Logger LOG = LoggerFa
 
     private WritableSheet iSheet;
 
+    private SSWritableExcelRow iParent;
+
     /**
      *
      * @param pSheet
@@ -36,17 +39,24 @@ public class SSWritableExcelCell {    private static final Logger LOG = LoggerFa
 
     }
 
+    /**
+     *
+     * @param pParent the row of the cell
+     * @param pColumn
+     */
+    SSWritableExcelCell(SSWritableExcelRow pParent, int pColumn) {
+        iParent = pParent;
+        iRow = pParent.getRow();
+        iColumn = pColumn;
+    }
+
     /**
      *
      * @param pValue
      * @throws WriteException
      */
     public void setString(String pValue) throws WriteException {
-        try {
-            iSheet.addCell(new Label(iColumn, iRow, pValue));
-        } catch (RowsExceededException e) {
-            LOG.error("Unexpected error", e);
-        }
+        addCell(new Label(iColumn, iRow, pValue));
     }
 
     /**
@@ -55,11 +65,7 @@ public class SSWritableExcelCell {    private static final Logger LOG = LoggerFa
      * @throws WriteException
      */
     public void setInteger(Integer pValue) throws WriteException {
-        try {
-            iSheet.addCell(new Number(iColumn, iRow, pValue));
-        } catch (RowsExceededException e) {
-            LOG.error("Unexpected error", e);
-        }
+        addCell(new Number(iColumn, iRow, pValue));
     }
 
     /**
@@ -68,8 +74,21 @@ public class SSWritableExcelCell {    private static final Logger LOG = LoggerFa
      * @throws WriteException
      */
     public void setDouble(Double pValue) throws WriteException {
+        addCell(new Number(iColumn, iRow, pValue));
+    }
+
+    /**
+     *
+     * @param pCell
+     * @throws WriteException
+     */
+    private void addCell(WritableCell pCell) throws WriteException {
+        if (iParent != null) {
+            iParent.addCell(pCell);
+            return;
+        }
         try {
-            iSheet.addCell(new Number(iColumn, iRow, pValue));
+            iSheet.addCell(pCell);
         } catch (RowsExceededException e) {
             LOG.error("Unexpected error", e);
         }
@@ -4,6 +4,7 @@ package se.swedsoft.bookkeeping.importexport.excel.util;
 import jxl.format.CellFormat;
 import jxl.write.Label;
 import jxl.write.Number;
+import jxl.write.WritableCell;
 import jxl.write.WritableSheet;
 import jxl.write.WriteException;
 import jxl.write.biff.RowsExceededException;
@@ -11,8 +12,11 @@ import jxl.write.biff.RowsExceededException;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
 
+import java.util.Collection;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.SortedMap;
+import java.util.TreeMap;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -30,6 +34,9 @@ public class SSWritableExcelRow {    private static final Logger LOG = LoggerFac
 
     private WritableSheet iSheet;
 
+    // The cells of a row of a xlsx file, by column, until the row is written
+    private SortedMap<Integer, WritableCell> iCells;
+
     /**
      *
      * @param pSheet
@@ -40,6 +47,16 @@ public class SSWritableExcelRow {    private static final Logger LOG = LoggerFac
         iRow = pRow;
     }
 
+    /**
+     * A row of a xlsx file, see {@link SSWritableExcelSheet#getRow(int)}.
+     *
+     * @param pRow
+     */
+    SSWritableExcelRow(int pRow) {
+        iRow = pRow;
+        iCells = new TreeMap<>();
+    }
+
     /**
      *
      * @param pCount
@@ -49,7 +66,7 @@ public class SSWritableExcelRow {    private static final Logger LOG = LoggerFac
         List<SSWritableExcelCell> iList = new LinkedList<>();
 
         for (int iColumn = 0; iColumn < pCount; iColumn++) {
-            iList.add(new SSWritableExcelCell(iSheet, iRow, iColumn));
+            iList.add(new SSWritableExcelCell(this, iColumn));
         }
         return iList;
     }
@@ -69,11 +86,7 @@ public class SSWritableExcelRow {    private static final Logger LOG = LoggerFac
      * @throws WriteException
      */
     public void setString(int iColumn, String pValue) throws WriteException {
-        try {
-            iSheet.addCell(new Label(iColumn, iRow, pValue == null ? "" : pValue));
-        } catch (RowsExceededException e) {
-            LOG.error("Unexpected error", e);
-        }
+        addCell(new Label(iColumn, iRow, pValue == null ? "" : pValue));
     }
 
     /**
@@ -84,12 +97,7 @@ public class SSWritableExcelRow {    private static final Logger LOG = LoggerFac
      * @throws WriteException
      */
     public void setString(int iColumn, String pValue, CellFormat iCellFormat) throws WriteException {
-        try {
-            iSheet.addCell(
-                    new Label(iColumn, iRow, pValue == null ? "" : pValue, iCellFormat));
-        } catch (RowsExceededException e) {
-            LOG.error("Unexpected error", e);
-        }
+        addCell(new Label(iColumn, iRow, pValue == null ? "" : pValue, iCellFormat));
     }
 
     /**
@@ -99,14 +107,10 @@ public class SSWritableExcelRow {    private static final Logger LOG = LoggerFac
      * @throws WriteException
      */
     public void setNumber(int iColumn, java.lang.Number pValue) throws WriteException {
-        try {
-            if (pValue == null) {
-                iSheet.addCell(new Label(iColumn, iRow, ""));
-            } else {
-                iSheet.addCell(new Number(iColumn, iRow, pValue.doubleValue()));
-            }
-        } catch (RowsExceededException e) {
-            LOG.error("Unexpected error", e);
+        if (pValue == null) {
+            addCell(new Label(iColumn, iRow, ""));
+        } else {
+            addCell(new Number(iColumn, iRow, pValue.doubleValue()));
         }
 
     }
@@ -119,43 +123,55 @@ public class SSWritableExcelRow {    private static final Logger LOG = LoggerFac
      * @throws WriteException
      */
     public void setNumber(int iColumn, java.lang.Number pValue, CellFormat iCellFormat) throws WriteException {
-        try {
-            if (pValue == null) {
-                iSheet.addCell(new Label(iColumn, iRow, "", iCellFormat));
-            } else {
-                iSheet.addCell(
-                        new Number(iColumn, iRow, pValue.doubleValue(), iCellFormat));
-            }
-        } catch (RowsExceededException e) {
-            LOG.error("Unexpected error", e);
+        if (pValue == null) {
+            addCell(new Label(iColumn, iRow, "", iCellFormat));
+        } else {
+            addCell(new Number(iColumn, iRow, pValue.doubleValue(), iCellFormat));
         }
     }
 
     public void setDate(int iColumn, LocalDate pValue) throws WriteException {
-        try {
-            if (pValue == null) {
-                iSheet.addCell(new Label(iColumn, iRow, ""));
-            } else {
-                iSheet.addCell(new Label(iColumn, iRow, pValue.format(DATE_FORMAT)));
-            }
-
-        } catch (RowsExceededException e) {
-            LOG.error("Unexpected error", e);
+        if (pValue == null) {
+            addCell(new Label(iColumn, iRow, ""));
+        } else {
+            addCell(new Label(iColumn, iRow, pValue.format(DATE_FORMAT)));
         }
+
     }
 
     public void setDate(int iColumn, LocalDate pValue, CellFormat iCellFormat) throws WriteException {
+        if (pValue == null) {
+            addCell(new Label(iColumn, iRow, "", iCellFormat));
+        } else {
+            addCell(new Label(iColumn, iRow, pValue.format(DATE_FORMAT), iCellFormat));
+        }
+    }
+
+    /**
+     *
+     * @param pCell
+     * @throws WriteException
+     */
+    void addCell(WritableCell pCell) throws WriteException {
+        if (iCells != null) {
+            iCells.put(pCell.getColumn(), pCell);
+            return;
+        }
         try {
-            if (pValue == null) {
-                iSheet.addCell(new Label(iColumn, iRow, "", iCellFormat));
-            } else {
-                iSheet.addCell(new Label(iColumn, iRow, pValue.format(DATE_FORMAT), iCellFormat));
-            }
+            iSheet.addCell(pCell);
         } catch (RowsExceededException e) {
             LOG.error("Unexpected error", e);
         }
     }
 
+    /**
+     *
+     * @return the cells of a row of a xlsx file, in column order
+     */
+    Collection<WritableCell> getCells() {
+        return iCells.values();
+    }
+
     @Override
     public String toString() {
         final StringBuilder sb = new StringBuilder();
@@ -1,14 +1,22 @@
 package se.swedsoft.bookkeeping.importexport.excel.util;
 
 
+import jxl.Workbook;
 import jxl.write.Label;
 import jxl.write.Number;
+import jxl.write.WritableCell;
 import jxl.write.WritableSheet;
+import jxl.write.WritableWorkbook;
 import jxl.write.WriteException;
 import jxl.write.biff.RowsExceededException;
 
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.SortedMap;
+import java.util.TreeMap;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -16,22 +24,68 @@ import org.slf4j.LoggerFactory;
 /**
  * Date: 2006-feb-14
  * Time: 11:30:33
+ *
+ * A sheet of a xls file written with jxl, or of a xlsx file that is written
+ * one row at a time, see {@link #create(File, String)}.
  */
-public class SSWritableExcelSheet {    private static final Logger LOG = LoggerFactory.getLogger(SSWritableExcelSheet.class);
+public class SSWritableExcelSheet implements Closeable {    private static final Logger LOG = LoggerFactory.getLogger(SSWritableExcelSheet.class);
 
 
     private WritableSheet iSheet;
 
+    // The workbook of the sheet when created by this class
+    private WritableWorkbook iWorkbook;
+
+    private SSXLSXWriter iWriter;
+
+    // The rows of the xlsx file that are not written yet, by row
+    private SortedMap<Integer, SSWritableExcelRow> iPending;
+
+    // The rows before this row are written to the xlsx file
+    private int iWritten;
+
     /**
      *
      * @param pSheet
      */
     public SSWritableExcelSheet(WritableSheet pSheet) {
         iSheet = pSheet;
+    }
+
+    /**
+     *
+     * @param pWriter
+     */
+    private SSWritableExcelSheet(SSXLSXWriter pWriter) {
+        iWriter = pWriter;
+        iPending = new TreeMap<>();
+    }
 
+    /**
+     * Creates a xls or xlsx file with one sheet, depending on the file
+     * extension. The file is written when the sheet is closed.
+     *
+     * @param pFile
+     * @param pName the name of the sheet
+     * @return the sheet
+     * @throws IOException
+     */
+    public static SSWritableExcelSheet create(File pFile, String pName) throws IOException {
+        if (SSExcelSheet.isXLSX(pFile)) {
+            return new SSWritableExcelSheet(new SSXLSXWriter(pFile, pName));
+        }
+        WritableWorkbook iWorkbook = Workbook.createWorkbook(pFile, SSExcelSheet.getSettings());
+
+        SSWritableExcelSheet iSheet = new SSWritableExcelSheet(iWorkbook.createSheet(pName, 0));
+
+        iSheet.iWorkbook = iWorkbook;
+
+        return iSheet;
     }
 
     /**
+     * Returns the rows to write in any order. The rows of a xlsx file are kept
+     * in memory until the sheet is closed, use {@link #getRow(int)} for large sheets.
      *
      * @param pCount
      * @return
@@ -40,27 +94,86 @@ public class SSWritableExcelSheet {    private static final Logger LOG = LoggerF
         List<SSWritableExcelRow> iList = new LinkedList<>();
 
         for (int iRow = 0; iRow < pCount; iRow++) {
-            iList.add(new SSWritableExcelRow(iSheet, iRow));
+            iList.add(iWriter == null ? new SSWritableExcelRow(iSheet, iRow) : getPendingRow(iRow));
         }
         return iList;
     }
 
     /**
+     * Returns a row to write. The rows of a xlsx file must be written in order,
+     * the rows before the returned row are written to the file and can not be
+     * changed after this.
      *
-     * @param iRow
-     * @param iColumn
-     * @param pValue
-     * @throws WriteException
+     * @param pRow
+     * @return the row
+     * @throws IOException
      */
-    public void setString(int iRow, int iColumn, String pValue) throws WriteException {
+    public SSWritableExcelRow getRow(int pRow) throws IOException {
+        if (iWriter == null) {
+            return new SSWritableExcelRow(iSheet, pRow);
+        }
+        SSWritableExcelRow iRow = getPendingRow(pRow);
+
+        writeRows(pRow);
+
+        return iRow;
+    }
 
+    /**
+     *
+     * @param pRow
+     * @return the row of the xlsx file
+     */
+    private SSWritableExcelRow getPendingRow(int pRow) {
+        if (pRow < iWritten) {
+            throw new IllegalStateException("Row " + pRow + " is already written");
+        }
+        return iPending.computeIfAbsent(pRow, SSWritableExcelRow::new);
+    }
+
+    /**
+     * Writes the pending rows before a row to the xlsx file.
+     *
+     * @param pRow
+     * @throws IOException
+     */
+    private void writeRows(int pRow) throws IOException {
+        while (!iPending.isEmpty() && iPending.firstKey() < pRow) {
+            SSWritableExcelRow iRow = iPending.remove(iPending.firstKey());
+
+            iWriter.writeRow(iRow.getRow(), iRow.getCells());
+        }
+        iWritten = Math.max(iWritten, pRow);
+    }
+
+    /**
+     *
+     * @param pCell
+     * @throws WriteException
+     */
+    private void addCell(WritableCell pCell) throws WriteException {
+        if (iWriter != null) {
+            getPendingRow(pCell.getRow()).addCell(pCell);
+            return;
+        }
         try {
-            iSheet.addCell(new Label(iColumn, iRow, pValue));
+            iSheet.addCell(pCell);
         } catch (RowsExceededException e) {
             LOG.error("Unexpected error", e);
         }
     }
 
+    /**
+     *
+     * @param iRow
+     * @param iColumn
+     * @param pValue
+     * @throws WriteException
+     */
+    public void setString(int iRow, int iColumn, String pValue) throws WriteException {
+        addCell(new Label(iColumn, iRow, pValue));
+    }
+
     /**
      *
      * @param iRow
@@ -69,11 +182,7 @@ public class SSWritableExcelSheet {    private static final Logger LOG = LoggerF
      * @throws WriteException
      */
     public void setInteger(int iRow, int iColumn, Integer pValue) throws WriteException {
-        try {
-            iSheet.addCell(new jxl.write.Number(iColumn, iRow, pValue));
-        } catch (RowsExceededException e) {
-            LOG.error("Unexpected error", e);
-        }
+        addCell(new jxl.write.Number(iColumn, iRow, pValue));
     }
 
     /**
@@ -84,11 +193,7 @@ public class SSWritableExcelSheet {    private static final Logger LOG = LoggerF
      * @throws WriteException
      */
     public void setDouble(int iRow, int iColumn, Double pValue) throws WriteException {
-        try {
-            iSheet.addCell(new Number(iColumn, iRow, pValue));
-        } catch (RowsExceededException e) {
-            LOG.error("Unexpected error", e);
-        }
+        addCell(new Number(iColumn, iRow, pValue));
     }
 
     /**
@@ -107,12 +212,38 @@ public class SSWritableExcelSheet {    private static final Logger LOG = LoggerF
         this.iSheet = iSheet;
     }
 
+    /**
+     * Writes and closes the file if the sheet was created by {@link #create(File, String)}.
+     *
+     * @throws IOException
+     */
+    @Override
+    public void close() throws IOException {
+        if (iWriter != null) {
+            try {
+                writeRows(Integer.MAX_VALUE);
+            } finally {
+                iWriter.close();
+            }
+        }
+        if (iWorkbook != null) {
+            iWorkbook.write();
+
+            try {
+                iWorkbook.close();
+            } catch (WriteException e) {
+                throw new IOException(e.getLocalizedMessage(), e);
+            }
+        }
+    }
+
     @Override
     public String toString() {
         final StringBuilder sb = new StringBuilder();
 
         sb.append("se.swedsoft.bookkeeping.importexport.excel.util.SSWritableExcelSheet");
         sb.append("{iSheet=").append(iSheet);
+        sb.append(", iWriter=").append(iWriter);
         sb.append('}');
         return sb.toString();
     }
@@ -0,0 +1,507 @@
+package se.swedsoft.bookkeeping.importexport.excel.util;
+
+
+import se.swedsoft.bookkeeping.gui.util.SSBundle;
+import se.swedsoft.bookkeeping.importexport.util.SSImportException;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.text.DecimalFormat;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+
+/**
+ * Reads the first sheet of a xlsx file one row at a time.
+ *
+ * A xlsx file is a zip file with xml parts. The shared strings and the cell
+ * styles are read when the file is opened, the sheet itself is parsed with
+ * StAX while the rows are read, so only the current row is kept in memory.
+ */
+final class SSXLSXReader implements Closeable {    private static final Logger LOG = LoggerFactory.getLogger(SSXLSXReader.class);
+
+    private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd");
+
+    private static final String DEFAULT_SHEET = "xl/worksheets/sheet1.xml";
+
+    private final ZipFile iZip;
+
+    private final XMLInputFactory iFactory;
+
+    private final List<String> iSharedStrings;
+
+    // The indexes of the cell styles that have a date format
+    private final BitSet iDateStyles;
+
+    // Numbers are shown as jxl shows them for the general format, in the default locale
+    private final DecimalFormat iNumberFormat;
+
+    private LocalDate iEpoch;
+
+    private InputStream iInput;
+
+    private XMLStreamReader iReader;
+
+    private int iLastRow;
+
+    /**
+     *
+     * @param pFile
+     * @throws IOException
+     */
+    SSXLSXReader(File pFile) throws IOException {
+        iZip = new ZipFile(pFile);
+        iFactory = XMLInputFactory.newInstance();
+        iFactory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        iFactory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        iSharedStrings = new ArrayList<>();
+        iDateStyles = new BitSet();
+        iNumberFormat = new DecimalFormat("0.##########");
+        iEpoch = LocalDate.of(1899, 12, 30);
+        iLastRow = -1;
+
+        try {
+            readSharedStrings();
+            readStyles();
+
+            ZipEntry iEntry = iZip.getEntry(getFirstSheet());
+
+            if (iEntry == null) {
+                throw new SSImportException(SSBundle.getBundle(), "importaccountplan.nosheets");
+            }
+            iInput = iZip.getInputStream(iEntry);
+            iReader = iFactory.createXMLStreamReader(iInput);
+        } catch (XMLStreamException e) {
+            close();
+            throw new IOException(e.getMessage(), e);
+        } catch (IOException | RuntimeException e) {
+            close();
+            throw e;
+        }
+    }
+
+    /**
+     *
+     * @return the next row of the sheet, or null at the end of the sheet
+     * @throws IOException
+     */
+    SSExcelRow nextRow() throws IOException {
+        try {
+            while (iReader.hasNext()) {
+                if (iReader.next() == XMLStreamConstants.START_ELEMENT
+                        && iReader.getLocalName().equals("row")) {
+                    return readRow();
+                }
+            }
+        } catch (XMLStreamException e) {
+            throw new IOException(e.getMessage(), e);
+        }
+        return null;
+    }
+
+    /**
+     * Reads a {@code <row>}, the reader is positioned at its start tag. Cells
+     * missing in the file are returned as empty cells.
+     *
+     * @return the row
+     * @throws XMLStreamException
+     */
+    private SSExcelRow readRow() throws XMLStreamException {
+        String iReference = iReader.getAttributeValue(null, "r");
+        int    iRow = iReference == null ? iLastRow + 1 : Integer.parseInt(iReference) - 1;
+
+        iLastRow = iRow;
+
+        List<SSExcelCell> iCells = new ArrayList<>();
+
+        while (iReader.hasNext()) {
+            int iEvent = iReader.next();
+
+            if (iEvent == XMLStreamConstants.END_ELEMENT && iReader.getLocalName().equals("row")) {
+                break;
+            }
+            if (iEvent != XMLStreamConstants.START_ELEMENT || !iReader.getLocalName().equals("c")) {
+                continue;
+            }
+            String iCellReference = iReader.getAttributeValue(null, "r");
+            int    iColumn = iCellReference == null ? iCells.size() : getColumn(iCellReference);
+
+            while (iCells.size() < iColumn) {
+                iCells.add(new SSExcelCell("", null, null, iRow, iCells.size()));
+            }
+            SSExcelCell iCell = readCell(iRow, iColumn);
+
+            if (iColumn < iCells.size()) {
+                iCells.set(iColumn, iCell);
+            } else {
+                iCells.add(iCell);
+            }
+        }
+        return new SSExcelRow(iRow, iCells);
+    }
+
+    /**
+     * Reads a {@code <c>}, the reader is positioned at its start tag.
+     *
+     * @param pRow
+     * @param pColumn
+     * @return the cell
+     * @throws XMLStreamException
+     */
+    private SSExcelCell readCell(int pRow, int pColumn) throws XMLStreamException {
+        String iType = iReader.getAttributeValue(null, "t");
+        String iStyle = iReader.getAttributeValue(null, "s");
+
+        String        iValue = null;
+        StringBuilder iInline = new StringBuilder();
+
+        while (iReader.hasNext()) {
+            int iEvent = iReader.next();
+
+            if (iEvent == XMLStreamConstants.END_ELEMENT && iReader.getLocalName().equals("c")) {
+                break;
+            }
+            if (iEvent != XMLStreamConstants.START_ELEMENT) {
+                continue;
+            }
+            switch (iReader.getLocalName()) {
+            case "v":
+                iValue = iReader.getElementText();
+                break;
+
+            case "t":
+                iInline.append(iReader.getElementText());
+                break;
+
+            case "rPh":
+            case "f":
+                skipElement();
+                break;
+
+            default:
+                break;
+            }
+        }
+
+        if (iType == null) {
+            iType = "n";
+        }
+        switch (iType) {
+        case "inlineStr":
+            return new SSExcelCell(iInline.toString(), null, null, pRow, pColumn);
+
+        case "s":
+            String iString = iValue == null ? "" : iSharedStrings.get(Integer.parseInt(iValue.trim()));
+
+            return new SSExcelCell(iString, null, null, pRow, pColumn);
+
+        case "b":
+            return new SSExcelCell(Boolean.toString("1".equals(iValue)), null, null, pRow, pColumn);
+
+        case "d":
+            if (iValue != null && iValue.length() >= 10) {
+                LocalDate iDate = LocalDate.parse(iValue.substring(0, 10));
+
+                return new SSExcelCell(iDate.format(DATE_FORMAT), null, iDate, pRow, pColumn);
+            }
+            return new SSExcelCell(iValue == null ? "" : iValue, null, null, pRow, pColumn);
+
+        case "n":
+            if (iValue == null || iValue.isEmpty()) {
+                return new SSExcelCell("", null, null, pRow, pColumn);
+            }
+            double iNumber = Double.parseDouble(iValue);
+
+            if (iStyle != null && iDateStyles.get(Integer.parseInt(iStyle))) {
+                LocalDate iDate = iEpoch.plusDays((long) Math.floor(iNumber));
+
+                return new SSExcelCell(iDate.format(DATE_FORMAT), null, iDate, pRow, pColumn);
+            }
+            return new SSExcelCell(iNumberFormat.format(iNumber), iNumber, null, pRow, pColumn);
+
+        default:
+            // Formula strings and errors
+            return new SSExcelCell(iValue == null ? "" : iValue, null, null, pRow, pColumn);
+        }
+    }
+
+    /**
+     * Skips the element the reader is positioned at, with all its children.
+     *
+     * @throws XMLStreamException
+     */
+    private void skipElement() throws XMLStreamException {
+        int iDepth = 1;
+
+        while (iDepth > 0 && iReader.hasNext()) {
+            int iEvent = iReader.next();
+
+            if (iEvent == XMLStreamConstants.START_ELEMENT) {
+                iDepth++;
+            }
+            if (iEvent == XMLStreamConstants.END_ELEMENT) {
+                iDepth--;
+            }
+        }
+    }
+
+    /**
+     *
+     * @param pReference a cell reference, for example {@code AB12}
+     * @return the index of the column, starting at 0
+     */
+    static int getColumn(String pReference) {
+        int iColumn = 0;
+
+        for (int i = 0; i < pReference.length(); i++) {
+            char c = Character.toUpperCase(pReference.charAt(i));
+
+            if (c < 'A' || c > 'Z') {
+                break;
+            }
+            iColumn = iColumn * 26 + (c - 'A' + 1);
+        }
+        return iColumn - 1;
+    }
+
+    /**
+     * Reads xl/sharedStrings.xml, the strings that the cells of type s refer to.
+     *
+     * @throws IOException
+     * @throws XMLStreamException
+     */
+    private void readSharedStrings() throws IOException, XMLStreamException {
+        ZipEntry iEntry = iZip.getEntry("xl/sharedStrings.xml");
+
+        if (iEntry == null) {
+            return;
+        }
+        try (InputStream iStream = iZip.getInputStream(iEntry)) {
+            XMLStreamReader iStrings = iFactory.createXMLStreamReader(iStream);
+            StringBuilder   iString = null;
+            int             iPhonetic = 0;
+
+            while (iStrings.hasNext()) {
+                int iEvent = iStrings.next();
+
+                if (iEvent == XMLStreamConstants.START_ELEMENT) {
+                    switch (iStrings.getLocalName()) {
+                    case "si":
+                        iString = new StringBuilder();
+                        break;
+
+                    case "rPh":
+                        iPhonetic++;
+                        break;
+
+                    case "t":
+                        String iText = iStrings.getElementText();
+
+                        if (iString != null && iPhonetic == 0) {
+                            iString.append(iText);
+                        }
+                        break;
+
+                    default:
+                        break;
+                    }
+                }
+                if (iEvent == XMLStreamConstants.END_ELEMENT) {
+                    if (iStrings.getLocalName().equals("si") && iString != null) {
+                        iSharedStrings.add(iString.toString());
+                        iString = null;
+                    }
+                    if (iStrings.getLocalName().equals("rPh")) {
+                        iPhonetic--;
+                    }
+                }
+            }
+            iStrings.close();
+        }
+    }
+
+    /**
+     * Reads xl/styles.xml to find the cell styles with a date format, since
+     * dates are stored as numbers in the sheet.
+     *
+     * @throws IOException
+     * @throws XMLStreamException
+     */
+    private void readStyles() throws IOException, XMLStreamException {
+        ZipEntry iEntry = iZip.getEntry("xl/styles.xml");
+
+        if (iEntry == null) {
+            return;
+        }
+        try (InputStream iStream = iZip.getInputStream(iEntry)) {
+            XMLStreamReader iStyles = iFactory.createXMLStreamReader(iStream);
+            BitSet          iDateFormats = new BitSet();
+            boolean         iCellStyles = false;
+            int             iIndex = 0;
+
+            // The built in date formats
+            iDateFormats.set(14, 23);
+            iDateFormats.set(45, 48);
+
+            while (iStyles.hasNext()) {
+                int iEvent = iStyles.next();
+
+                if (iEvent == XMLStreamConstants.START_ELEMENT) {
+                    String iName = iStyles.getLocalName();
+
+                    if (iName.equals("numFmt")) {
+                        String iId = iStyles.getAttributeValue(null, "numFmtId");
+                        String iCode = iStyles.getAttributeValue(null, "formatCode");
+
+                        if (iId != null && isDateFormat(iCode)) {
+                            iDateFormats.set(Integer.parseInt(iId));
+                        }
+                    }
+                    if (iName.equals("cellXfs")) {
+                        iCellStyles = true;
+                    }
+                    if (iName.equals("xf") && iCellStyles) {
+                        String iId = iStyles.getAttributeValue(null, "numFmtId");
+
+                        if (iId != null && iDateFormats.get(Integer.parseInt(iId))) {
+                            iDateStyles.set(iIndex);
+                        }
+                        iIndex++;
+                    }
+                }
+                if (iEvent == XMLStreamConstants.END_ELEMENT && iStyles.getLocalName().equals("cellXfs")) {
+                    iCellStyles = false;
+                }
+            }
+            iStyles.close();
+        }
+    }
+
+    /**
+     *
+     * @param pCode a custom number format, for example {@code yyyy-mm-dd} or {@code #,##0.00 "kr"}
+     * @return if the format shows a date
+     */
+    static boolean isDateFormat(String pCode) {
+        if (pCode == null) {
+            return false;
+        }
+        // Quoted text, escaped characters and colours or conditions does not count
+        String iCode = pCode.replaceAll("\"[^\"]*\"|\\\\.|\\[[^\\]]*\\]", "").toLowerCase();
+
+        return iCode.indexOf('y') >= 0 || iCode.indexOf('d') >= 0;
+    }
+
+    /**
+     * Reads xl/workbook.xml and its relations to find the part of the first sheet.
+     *
+     * @return the name of the zip entry of the first sheet
+     * @throws IOException
+     * @throws XMLStreamException
+     */
+    private String getFirstSheet() throws IOException, XMLStreamException {
+        ZipEntry iEntry = iZip.getEntry("xl/workbook.xml");
+
+        if (iEntry == null) {
+            return DEFAULT_SHEET;
+        }
+        String iRelation = null;
+
+        try (InputStream iStream = iZip.getInputStream(iEntry)) {
+            XMLStreamReader iWorkbook = iFactory.createXMLStreamReader(iStream);
+
+            while (iWorkbook.hasNext() && iRelation == null) {
+                if (iWorkbook.next() != XMLStreamConstants.START_ELEMENT) {
+                    continue;
+                }
+                if (iWorkbook.getLocalName().equals("workbookPr")) {
+                    String iDate1904 = iWorkbook.getAttributeValue(null, "date1904");
+
+                    if ("1".equals(iDate1904) || "true".equals(iDate1904)) {
+                        iEpoch = LocalDate.of(1904, 1, 1);
+                    }
+                }
+                if (iWorkbook.getLocalName().equals("sheet")) {
+                    for (int i = 0; i < iWorkbook.getAttributeCount(); i++) {
+                        if (iWorkbook.getAttributeLocalName(i).equals("id")) {
+                            iRelation = iWorkbook.getAttributeValue(i);
+                        }
+                    }
+                    if (iRelation == null) {
+                        return DEFAULT_SHEET;
+                    }
+                }
+            }
+            iWorkbook.close();
+        }
+        if (iRelation == null) {
+            throw new SSImportException(SSBundle.getBundle(), "importaccountplan.nosheets");
+        }
+        Map<String, String> iTargets = new HashMap<>();
+
+        iEntry = iZip.getEntry("xl/_rels/workbook.xml.rels");
+
+        if (iEntry == null) {
+            return DEFAULT_SHEET;
+        }
+        try (InputStream iStream = iZip.getInputStream(iEntry)) {
+            XMLStreamReader iRelations = iFactory.createXMLStreamReader(iStream);
+
+            while (iRelations.hasNext()) {
+                if (iRelations.next() == XMLStreamConstants.START_ELEMENT
+                        && iRelations.getLocalName().equals("Relationship")) {
+                    iTargets.put(iRelations.getAttributeValue(null, "Id"),
+                            iRelations.getAttributeValue(null, "Target"));
+                }
+            }
+            iRelations.close();
+        }
+        String iTarget = iTargets.get(iRelation);
+
+        if (iTarget == null) {
+            return DEFAULT_SHEET;
+        }
+        return iTarget.startsWith("/") ? iTarget.substring(1) : "xl/" + iTarget;
+    }
+
+    @Override
+    public void close() {
+        try {
+            if (iReader != null) {
+                iReader.close();
+            }
+            if (iInput != null) {
+                iInput.close();
+            }
+            iZip.close();
+        } catch (XMLStreamException | IOException e) {
+            LOG.error("Unexpected error", e);
+        }
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder();
+
+        sb.append("se.swedsoft.bookkeeping.importexport.excel.util.SSXLSXReader");
+        sb.append("{iZip=").append(iZip.getName());
+        sb.append(", iLastRow=").append(iLastRow);
+        sb.append('}');
+        return sb.toString();
+    }
+}
@@ -0,0 +1,358 @@
+package se.swedsoft.bookkeeping.importexport.excel.util;
+
+
+import jxl.Cell;
+import jxl.NumberCell;
+import jxl.format.CellFormat;
+import jxl.format.Colour;
+import jxl.format.RGB;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+
+/**
+ * Writes a xlsx file with one sheet, one row at a time.
+ *
+ * The rows are written to the sheet part of the zip file as they are added,
+ * so only the row being written is kept in memory. The strings are written
+ * inline in the cells instead of in a shared string table. The cells are the
+ * jxl cells also used for xls files, the bold font and background colour of
+ * their formats are written as cell styles when the file is closed.
+ */
+final class SSXLSXWriter implements Closeable {
+
+    private static final String HEADER = "<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"yes\"?>\n";
+
+    private static final String MAIN_NAMESPACE = "http://schemas.openxmlformats.org/spreadsheetml/2006/main";
+
+    private static final String RELATIONSHIPS = "http://schemas.openxmlformats.org/officeDocument/2006/relationships";
+
+    private static final String PACKAGE_RELATIONSHIPS = "http://schemas.openxmlformats.org/package/2006/relationships";
+
+    private final ZipOutputStream iOutput;
+
+    private final Writer iWriter;
+
+    private final String iSheetName;
+
+    // Style key -> index of the cell style, see getStyle
+    private final Map<String, Integer> iStyles;
+
+    private int iLastRow;
+
+    /**
+     *
+     * @param pFile
+     * @param pSheetName
+     * @throws IOException
+     */
+    SSXLSXWriter(File pFile, String pSheetName) throws IOException {
+        iOutput = new ZipOutputStream(new BufferedOutputStream(new FileOutputStream(pFile)));
+        iWriter = new OutputStreamWriter(iOutput, StandardCharsets.UTF_8);
+        iSheetName = pSheetName;
+        iStyles = new LinkedHashMap<>();
+        iStyles.put("", 0);
+        iLastRow = -1;
+
+        iOutput.putNextEntry(new ZipEntry("xl/worksheets/sheet1.xml"));
+
+        iWriter.write(HEADER);
+        iWriter.write("<worksheet xmlns=\"" + MAIN_NAMESPACE + "\"><sheetData>");
+    }
+
+    /**
+     * Writes a row, the rows must be written in order.
+     *
+     * @param pRow the index of the row, starting at 0
+     * @param pCells the cells of the row, in column order
+     * @throws IOException
+     */
+    void writeRow(int pRow, Collection<? extends Cell> pCells) throws IOException {
+        if (pRow <= iLastRow) {
+            throw new IllegalStateException("Row " + pRow + " is written after row " + iLastRow);
+        }
+        iLastRow = pRow;
+
+        StringBuilder sb = new StringBuilder();
+
+        sb.append("<row r=\"").append(pRow + 1).append("\">");
+
+        for (Cell iCell : pCells) {
+            String iReference = getReference(iCell.getColumn(), pRow);
+            int    iStyle = getStyle(iCell.getCellFormat());
+
+            sb.append("<c r=\"").append(iReference).append('"');
+
+            if (iStyle != 0) {
+                sb.append(" s=\"").append(iStyle).append('"');
+            }
+            double iNumber = iCell instanceof NumberCell ? ((NumberCell) iCell).getValue() : Double.NaN;
+
+            if (Double.isNaN(iNumber) || Double.isInfinite(iNumber)) {
+                sb.append(" t=\"inlineStr\"><is><t xml:space=\"preserve\">");
+                escape(sb, iCell.getContents());
+                sb.append("</t></is></c>");
+            } else {
+                sb.append("><v>").append(formatNumber(iNumber)).append("</v></c>");
+            }
+        }
+        sb.append("</row>");
+
+        iWriter.write(sb.toString());
+    }
+
+    /**
+     * Ends the sheet and writes the other parts of the file.
+     *
+     * @throws IOException
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            iWriter.write("</sheetData></worksheet>");
+            iWriter.flush();
+            iOutput.closeEntry();
+
+            writeEntry("[Content_Types].xml", HEADER
+                    + "<Types xmlns=\"http://schemas.openxmlformats.org/package/2006/content-types\">"
+                    + "<Default Extension=\"rels\" ContentType=\"application/vnd.openxmlformats-package.relationships+xml\"/>"
+                    + "<Default Extension=\"xml\" ContentType=\"application/xml\"/>"
+                    + "<Override PartName=\"/xl/workbook.xml\" ContentType=\"application/vnd.openxmlformats-officedocument.spreadsheetml.sheet.main+xml\"/>"
+                    + "<Override PartName=\"/xl/worksheets/sheet1.xml\" ContentType=\"application/vnd.openxmlformats-officedocument.spreadsheetml.worksheet+xml\"/>"
+                    + "<Override PartName=\"/xl/styles.xml\" ContentType=\"application/vnd.openxmlformats-officedocument.spreadsheetml.styles+xml\"/>"
+                    + "</Types>");
+
+            writeEntry("_rels/.rels", HEADER
+                    + "<Relationships xmlns=\"" + PACKAGE_RELATIONSHIPS + "\">"
+                    + "<Relationship Id=\"rId1\" Type=\"" + RELATIONSHIPS + "/officeDocument\" Target=\"xl/workbook.xml\"/>"
+                    + "</Relationships>");
+
+            StringBuilder iName = new StringBuilder();
+
+            escape(iName, getSheetName(iSheetName));
+
+            writeEntry("xl/workbook.xml", HEADER
+                    + "<workbook xmlns=\"" + MAIN_NAMESPACE + "\" xmlns:r=\"" + RELATIONSHIPS + "\">"
+                    + "<sheets><sheet name=\"" + iName + "\" sheetId=\"1\" r:id=\"rId1\"/></sheets>"
+                    + "</workbook>");
+
+            writeEntry("xl/_rels/workbook.xml.rels", HEADER
+                    + "<Relationships xmlns=\"" + PACKAGE_RELATIONSHIPS + "\">"
+                    + "<Relationship Id=\"rId1\" Type=\"" + RELATIONSHIPS + "/worksheet\" Target=\"worksheets/sheet1.xml\"/>"
+                    + "<Relationship Id=\"rId2\" Type=\"" + RELATIONSHIPS + "/styles\" Target=\"styles.xml\"/>"
+                    + "</Relationships>");
+
+            writeEntry("xl/styles.xml", getStyles());
+        } finally {
+            iWriter.close();
+        }
+    }
+
+    /**
+     *
+     * @param pName
+     * @param pContents
+     * @throws IOException
+     */
+    private void writeEntry(String pName, String pContents) throws IOException {
+        iOutput.putNextEntry(new ZipEntry(pName));
+        iWriter.write(pContents);
+        iWriter.flush();
+        iOutput.closeEntry();
+    }
+
+    /**
+     * A style is identified by a key, the empty string for the default style,
+     * {@code b} for bold and the background colour as {@code RRGGBB}.
+     *
+     * @param pFormat
+     * @return the index of the cell style for the format
+     */
+    private int getStyle(CellFormat pFormat) {
+        if (pFormat == null) {
+            return 0;
+        }
+        String iKey = "";
+
+        if (pFormat.getFont() != null && pFormat.getFont().getBoldWeight() > 400) {
+            iKey = "b";
+        }
+        Colour iColour = pFormat.getBackgroundColour();
+
+        if (iColour != null && iColour != Colour.DEFAULT_BACKGROUND) {
+            RGB iRGB = iColour.getDefaultRGB();
+
+            String iBackground = String.format("%02X%02X%02X", iRGB.getRed(), iRGB.getGreen(), iRGB.getBlue());
+
+            if (!iBackground.equals("FFFFFF")) {
+                iKey = iKey + iBackground;
+            }
+        }
+        return iStyles.computeIfAbsent(iKey, pKey -> iStyles.size());
+    }
+
+    /**
+     *
+     * @return the contents of xl/styles.xml, with the styles used by the cells
+     */
+    private String getStyles() {
+        List<String> iFills = new ArrayList<>();
+        StringBuilder sb = new StringBuilder(HEADER);
+
+        sb.append("<styleSheet xmlns=\"").append(MAIN_NAMESPACE).append("\">");
+        sb.append("<fonts count=\"2\">");
+        sb.append("<font><sz val=\"10\"/><name val=\"Arial\"/></font>");
+        sb.append("<font><b/><sz val=\"10\"/><name val=\"Arial\"/></font>");
+        sb.append("</fonts>");
+
+        for (String iKey : iStyles.keySet()) {
+            String iBackground = iKey.startsWith("b") ? iKey.substring(1) : iKey;
+
+            if (!iBackground.isEmpty() && !iFills.contains(iBackground)) {
+                iFills.add(iBackground);
+            }
+        }
+        // The first two fills are reserved
+        sb.append("<fills count=\"").append(iFills.size() + 2).append("\">");
+        sb.append("<fill><patternFill patternType=\"none\"/></fill>");
+        sb.append("<fill><patternFill patternType=\"gray125\"/></fill>");
+
+        for (String iFill : iFills) {
+            sb.append("<fill><patternFill patternType=\"solid\"><fgColor rgb=\"FF").append(iFill);
+            sb.append("\"/><bgColor indexed=\"64\"/></patternFill></fill>");
+        }
+        sb.append("</fills>");
+        sb.append("<borders count=\"1\"><border><left/><right/><top/><bottom/><diagonal/></border></borders>");
+        sb.append("<cellStyleXfs count=\"1\"><xf numFmtId=\"0\" fontId=\"0\" fillId=\"0\" borderId=\"0\"/></cellStyleXfs>");
+        sb.append("<cellXfs count=\"").append(iStyles.size()).append("\">");
+
+        for (String iKey : iStyles.keySet()) {
+            boolean iBold = iKey.startsWith("b");
+            String  iBackground = iBold ? iKey.substring(1) : iKey;
+            int     iFill = iBackground.isEmpty() ? 0 : iFills.indexOf(iBackground) + 2;
+
+            sb.append("<xf numFmtId=\"0\" fontId=\"").append(iBold ? 1 : 0);
+            sb.append("\" fillId=\"").append(iFill).append("\" borderId=\"0\" xfId=\"0\"");
+
+            if (iBold) {
+                sb.append(" applyFont=\"1\"");
+            }
+            if (iFill != 0) {
+                sb.append(" applyFill=\"1\"");
+            }
+            sb.append("/>");
+        }
+        sb.append("</cellXfs>");
+        sb.append("</styleSheet>");
+
+        return sb.toString();
+    }
+
+    /**
+     *
+     * @param pColumn
+     * @param pRow
+     * @return the reference of the cell, for example {@code AB12}
+     */
+    static String getReference(int pColumn, int pRow) {
+        StringBuilder sb = new StringBuilder();
+
+        for (int iColumn = pColumn + 1; iColumn > 0; iColumn = (iColumn - 1) / 26) {
+            sb.insert(0, (char) ('A' + (iColumn - 1) % 26));
+        }
+        return sb.append(pRow + 1).toString();
+    }
+
+    /**
+     *
+     * @param pNumber
+     * @return the number without a decimal part if it is a whole number
+     */
+    private static String formatNumber(double pNumber) {
+        if (pNumber == Math.rint(pNumber) && Math.abs(pNumber) < 1e15) {
+            return Long.toString((long) pNumber);
+        }
+        return Double.toString(pNumber);
+    }
+
+    /**
+     * Sheet names are at most 31 characters and can not contain : \ / ? * [ or ].
+     *
+     * @param pName
+     * @return the name to use for the sheet
+     */
+    private static String getSheetName(String pName) {
+        String iName = pName == null ? "" : pName.replaceAll("[:\\\\/?*\\[\\]]", "_");
+
+        if (iName.isEmpty()) {
+            return "Blad1";
+        }
+        return iName.length() > 31 ? iName.substring(0, 31) : iName;
+    }
+
+    /**
+     * Appends a text escaped for xml. Control characters that xml can not
+     * contain are left out.
+     *
+     * @param sb
+     * @param pText
+     */
+    private static void escape(StringBuilder sb, String pText) {
+        if (pText == null) {
+            return;
+        }
+        for (int i = 0; i < pText.length(); i++) {
+            char c = pText.charAt(i);
+
+            switch (c) {
+            case '&':
+                sb.append("&amp;");
+                break;
+
+            case '<':
+                sb.append("&lt;");
+                break;
+
+            case '>':
+                sb.append("&gt;");
+                break;
+
+            case '"':
+                sb.append("&quot;");
+                break;
+
+            default:
+                if (c >= 0x20 || c == '\t' || c == '\n' || c == '\r') {
+                    sb.append(c);
+                }
+                break;
+            }
+        }
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder();
+
+        sb.append("se.swedsoft.bookkeeping.importexport.excel.util.SSXLSXWriter");
+        sb.append("{iSheetName=").append(iSheetName);
+        sb.append(", iLastRow=").append(iLastRow);
+        sb.append(", iStyles=").append(iStyles);
+        sb.append('}');
+        return sb.toString();
+    }
+}
@@ -0,0 +1,267 @@
+package se.swedsoft.bookkeeping.importexport.sie;
+
+
+import se.swedsoft.bookkeeping.data.SSNewAccountingYear;
+import se.swedsoft.bookkeeping.data.SSNewCompany;
+import se.swedsoft.bookkeeping.data.system.SSDB;
+import se.swedsoft.bookkeeping.importexport.sie.util.SIEType;
+import se.swedsoft.bookkeeping.importexport.util.SSExportException;
+
+import java.io.File;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+
+/**
+ * Exports SIE files for many companies and years without the user interface,
+ * for example for all companies of an accounting firm at year end.
+ *
+ * The companies and years are selected with strings: {@code all} for every year
+ * of every company, a company id for every year of that company, or a company id
+ * and the year the accounting year starts in, {@code 3:2024}. Each year is
+ * written to its own file in the directory, named after the company and the
+ * dates of the year.
+ *
+ * Each company and year is given to its {@link SSSIEExporter}, so the current
+ * company and year of {@link SSDB} are not changed. Up to
+ * {@code bokfri.export.companies} companies are exported at the same time, the
+ * years of a company one after another, each with its sections rendered in
+ * parallel by {@link SSSIEExporter}.
+ */
+public class SSSIEBatchExporter {    private static final Logger LOG = LoggerFactory.getLogger(SSSIEBatchExporter.class);
+
+    private static final DateTimeFormatter FILE_DATE_FORMAT = DateTimeFormatter.ofPattern("yyyyMMdd");
+
+    private final File iDirectory;
+
+    private final SIEType iType;
+
+    // The most companies to export at the same time
+    private final int iThreads;
+
+    // File name -> time in milliseconds, in the order the files were written
+    private final Map<String, Long> iTimings;
+
+    // File name -> error message
+    private final Map<String, String> iErrors;
+
+    // The selections that matched no year
+    private final List<String> iUnmatched;
+
+    /**
+     *
+     * @param pDirectory the directory to write the files to
+     * @param pType
+     */
+    public SSSIEBatchExporter(File pDirectory, SIEType pType) {
+        iDirectory = pDirectory;
+        iType = pType;
+        iThreads = Math.max(1, Integer.getInteger("bokfri.export.companies",
+                Math.min(2, Runtime.getRuntime().availableProcessors())));
+        iTimings = Collections.synchronizedMap(new LinkedHashMap<>());
+        iErrors = Collections.synchronizedMap(new LinkedHashMap<>());
+        iUnmatched = new ArrayList<>();
+    }
+
+    /**
+     * Exports the selected years. A year that fails is logged and the others are
+     * still exported.
+     *
+     * @param pSelection {@code all}, company ids or company ids and years, see the class comment
+     * @return the time in milliseconds for each file written
+     */
+    public Map<String, Long> export(Collection<String> pSelection) {
+        long iStart = System.nanoTime();
+
+        iTimings.clear();
+        iErrors.clear();
+        iUnmatched.clear();
+        iUnmatched.addAll(pSelection);
+
+        if (!iDirectory.isDirectory() && !iDirectory.mkdirs()) {
+            throw new IllegalArgumentException("Cannot create " + iDirectory);
+        }
+
+        Map<SSNewCompany, List<SSNewAccountingYear>> iSelected = new LinkedHashMap<>();
+
+        for (SSNewCompany iCompany : SSDB.getInstance().getCompanies()) {
+            List<SSNewAccountingYear> iYears = getSelectedYears(iCompany, pSelection);
+
+            for (SSNewAccountingYear iYear : iYears) {
+                iUnmatched.removeIf(pValue -> isSelected(iCompany, iYear, Collections.singletonList(pValue)));
+            }
+            if (!iYears.isEmpty()) {
+                iSelected.put(iCompany, iYears);
+            }
+        }
+        if (!iSelected.isEmpty()) {
+            exportCompanies(iSelected);
+        }
+
+        for (String iSelection : iUnmatched) {
+            LOG.error("No year matches the selection {}", iSelection);
+        }
+        LOG.info("Exported {} SIE files in {} ms, {} failed", iTimings.size(),
+                (System.nanoTime() - iStart) / 1000000, iErrors.size());
+
+        return Collections.unmodifiableMap(iTimings);
+    }
+
+    /**
+     * Exports the years of the companies, at most iThreads companies at the same time.
+     *
+     * @param pSelected the selected years of each company
+     */
+    private void exportCompanies(Map<SSNewCompany, List<SSNewAccountingYear>> pSelected) {
+        AtomicInteger iCount = new AtomicInteger();
+        ExecutorService iExecutor = Executors.newFixedThreadPool(Math.min(iThreads, pSelected.size()), pRunnable -> {
+            Thread iThread = new Thread(pRunnable, "SIE-batch-" + iCount.incrementAndGet());
+
+            iThread.setDaemon(true);
+            return iThread;
+        });
+
+        try {
+            List<Future<?>> iFutures = new ArrayList<>();
+
+            for (Map.Entry<SSNewCompany, List<SSNewAccountingYear>> iEntry : pSelected.entrySet()) {
+                iFutures.add(iExecutor.submit(() -> {
+                    for (SSNewAccountingYear iYear : iEntry.getValue()) {
+                        exportYear(iEntry.getKey(), iYear);
+                    }
+                }));
+            }
+            for (Future<?> iFuture : iFutures) {
+                iFuture.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SSExportException("Interrupted");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new SSExportException(String.valueOf(e.getCause()));
+        } finally {
+            iExecutor.shutdownNow();
+        }
+    }
+
+    /**
+     *
+     * @return the error message for each file that could not be written
+     */
+    public Map<String, String> getErrors() {
+        return Collections.unmodifiableMap(iErrors);
+    }
+
+    /**
+     *
+     * @return the selections of the last export that matched no year
+     */
+    public List<String> getUnmatched() {
+        return Collections.unmodifiableList(iUnmatched);
+    }
+
+    /**
+     *
+     * @param pCompany
+     * @param pYear
+     */
+    private void exportYear(SSNewCompany pCompany, SSNewAccountingYear pYear) {
+        File iFile = new File(iDirectory, getFileName(pCompany, pYear));
+        long iStart = System.nanoTime();
+
+        try {
+            new SSSIEExporter(iType).exportSIE(iFile, pCompany, pYear);
+        } catch (RuntimeException e) {
+            LOG.error("Could not export " + iFile.getName(), e);
+            iErrors.put(iFile.getName(), e.getMessage());
+            return;
+        }
+        long iTime = (System.nanoTime() - iStart) / 1000000;
+
+        iTimings.put(iFile.getName(), iTime);
+
+        LOG.info("Exported {} ({} {}) in {} ms", iFile.getName(), pCompany.getName(), pYear, iTime);
+    }
+
+    /**
+     *
+     * @param pCompany
+     * @param pSelection
+     * @return the years of the company that are selected
+     */
+    static List<SSNewAccountingYear> getSelectedYears(SSNewCompany pCompany, Collection<String> pSelection) {
+        List<SSNewAccountingYear> iYears = new ArrayList<>();
+
+        for (SSNewAccountingYear iYear : SSDB.getInstance().getYearsForCompany(pCompany)) {
+            if (isSelected(pCompany, iYear, pSelection)) {
+                iYears.add(iYear);
+            }
+        }
+        return iYears;
+    }
+
+    /**
+     *
+     * @param pCompany
+     * @param pYear
+     * @param pSelection
+     * @return if the year of the company is selected
+     */
+    static boolean isSelected(SSNewCompany pCompany, SSNewAccountingYear pYear, Collection<String> pSelection) {
+        String iCompanyId = String.valueOf(pCompany.getId());
+        String iYearId = pYear.getLocalFrom() == null ? null : iCompanyId + ':' + pYear.getLocalFrom().getYear();
+
+        for (String iSelection : pSelection) {
+            String iValue = iSelection.trim();
+
+            if (iValue.equalsIgnoreCase("all") || iValue.equals(iCompanyId) || iValue.equals(iYearId)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     *
+     * @param pCompany
+     * @param pYear
+     * @return the name of the file for the year, for example {@code Bolaget_AB_3_20240101-20241231.se}
+     */
+    static String getFileName(SSNewCompany pCompany, SSNewAccountingYear pYear) {
+        String iName = pCompany.getName() == null ? "" : pCompany.getName().replaceAll("[^\\p{L}\\p{N}-]+", "_");
+        String iFrom = pYear.getLocalFrom() == null ? "" : pYear.getLocalFrom().format(FILE_DATE_FORMAT);
+        String iTo = pYear.getLocalTo() == null ? "" : pYear.getLocalTo().format(FILE_DATE_FORMAT);
+
+        return iName + '_' + pCompany.getId() + '_' + iFrom + '-' + iTo + ".se";
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder();
+
+        sb.append("se.swedsoft.bookkeeping.importexport.sie.SSSIEBatchExporter");
+        sb.append("{iDirectory=").append(iDirectory);
+        sb.append(", iType=").append(iType);
+        sb.append(", iThreads=").append(iThreads);
+        sb.append(", iTimings=").append(iTimings);
+        sb.append(", iErrors=").append(iErrors);
+        sb.append(", iUnmatched=").append(iUnmatched);
+        sb.append('}');
+        return sb.toString();
+    }
+}
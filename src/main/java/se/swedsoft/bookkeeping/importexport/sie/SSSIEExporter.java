@@ -1,20 +1,42 @@
 package se.swedsoft.bookkeeping.importexport.sie;
 
 
+import se.swedsoft.bookkeeping.calc.math.SSAccountMath;
+import se.swedsoft.bookkeeping.data.SSAccount;
 import se.swedsoft.bookkeeping.data.SSNewAccountingYear;
 import se.swedsoft.bookkeeping.data.SSNewCompany;
+import se.swedsoft.bookkeeping.data.SSNewProject;
+import se.swedsoft.bookkeeping.data.SSNewResultUnit;
+import se.swedsoft.bookkeeping.data.SSVoucher;
 import se.swedsoft.bookkeeping.data.system.SSDB;
 import se.swedsoft.bookkeeping.gui.util.SSBundleString;
 import se.swedsoft.bookkeeping.importexport.sie.fields.SIEEntry;
+import se.swedsoft.bookkeeping.importexport.sie.fields.SIEEntryVerifikation;
 import se.swedsoft.bookkeeping.importexport.sie.util.*;
 import se.swedsoft.bookkeeping.importexport.util.SSExportException;
-import se.swedsoft.bookkeeping.importexport.util.SSImportException;
 
+import java.io.BufferedWriter;
 import java.io.File;
-import java.io.FileNotFoundException;
 import java.io.IOException;
-import java.util.LinkedList;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDate;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -22,22 +44,44 @@ import org.slf4j.LoggerFactory;
 /**
  * Date: 2006-feb-20
  * Time: 14:16:55
+ *
+ * The sections of the file, one per label and one per {@link #VOUCHER_CHUNK_SIZE}
+ * vouchers, are rendered on worker threads and written to the file in order as
+ * soon as they are done. At most two sections per thread are held in memory.
+ * The sections are written to a temporary file that replaces the file only
+ * when every section is done, so a failed export leaves no partial file.
+ * The company and year are given to the exporter, which reads the previous
+ * year, the accounts, the registers and the vouchers of that year on the
+ * calling thread before the sections are rendered. The entries take them from
+ * the exporter and not from the current company and year of {@link SSDB}, so
+ * several exporters can run at the same time.
+ * The number of threads is set with the system property
+ * {@code bokfri.export.threads}.
  */
 public class SSSIEExporter {    private static final Logger LOG = LoggerFactory.getLogger(SSSIEExporter.class);
 
-
-    private List<String> iLines;
+    // Number of vouchers rendered in one section
+    private static final int VOUCHER_CHUNK_SIZE = 1000;
 
     private SIEType iType;
 
     private String iComment;
 
+    private SSNewCompany iCompany;
+
+    private SSNewAccountingYear iPreviousYear;
+
+    private Map<Integer, SSAccount> iAccounts;
+
+    private List<SSNewResultUnit> iResultUnits;
+
+    private List<SSNewProject> iProjects;
+
     /**
      *
      * @param pType
      */
     public SSSIEExporter(SIEType pType) {
-        iLines = new LinkedList<>();
         iType = pType;
         iComment = null;
     }
@@ -48,7 +92,6 @@ public class SSSIEExporter {    private static final Logger LOG = LoggerFactory.
      * @param pComment
      */
     public SSSIEExporter(SIEType pType, String pComment) {
-        iLines = new LinkedList<>();
         iType = pType;
         iComment = pComment;
     }
@@ -59,17 +102,27 @@ public class SSSIEExporter {    private static final Logger LOG = LoggerFactory.
      * @throws SSExportException
      */
     public void exportSIE(File pFile) throws SSExportException {
-        SSNewAccountingYear iYearData = SSDB.getInstance().getCurrentYear();
+        exportSIE(pFile, SSDB.getInstance().getCurrentCompany(), SSDB.getInstance().getCurrentYear());
+    }
+
+    /**
+     * Exports a year of a company, which need not be the current ones.
+     *
+     * @param pFile
+     * @param pCompany
+     * @param pYearData
+     * @throws SSExportException
+     */
+    public void exportSIE(File pFile, SSNewCompany pCompany, SSNewAccountingYear pYearData) throws SSExportException {
+        SSNewAccountingYear iYearData = pYearData;
 
         // Test so we have an active year
         if (iYearData == null) {
             throw new SSExportException(SSBundleString.getString("sieexport.noyear"));
         }
 
-        SSNewCompany iCompany = SSDB.getInstance().getCurrentCompany();
-
         // Test so we have an active company
-        if (iCompany == null) {
+        if (pCompany == null) {
             throw new SSExportException(SSBundleString.getString("sieexport.nocompany"));
         }
 
@@ -78,6 +131,15 @@ public class SSSIEExporter {    private static final Logger LOG = LoggerFactory.
 
         // LOG.info(iFactory.toString());
 
+        // Read here and not on the workers, for the company and year and not the current ones
+        iCompany = pCompany;
+        iPreviousYear = getPreviousYear(SSDB.getInstance().getYearsForCompany(pCompany), iYearData);
+        iAccounts = SSAccountMath.getAccountsByNumber(iYearData.getAccounts());
+        iResultUnits = SSDB.getInstance().getResultUnitsForCompany(pCompany);
+        iProjects = SSDB.getInstance().getProjectsForCompany(pCompany);
+
+        List<Callable<List<String>>> iSections = new ArrayList<>();
+
         for (SIELabel iLabel : iFactory.getLabels()) {
             SIEEntry iEntry = iLabel.getEntry();
 
@@ -85,54 +147,143 @@ public class SSSIEExporter {    private static final Logger LOG = LoggerFactory.
                 continue;
             }
 
-            SIEWriter iWriter = new SIEWriter();
+            if (iEntry instanceof SIEEntryVerifikation) {
+                List<SSVoucher> iVouchers = new ArrayList<>(SSDB.getInstance().getVouchers(iYearData));
 
-            if (iEntry.exportEntry(this, iWriter, iYearData)) {
+                for (int iStart = 0; iStart < iVouchers.size(); iStart += VOUCHER_CHUNK_SIZE) {
+                    List<SSVoucher> iChunk = iVouchers.subList(iStart,
+                            Math.min(iStart + VOUCHER_CHUNK_SIZE, iVouchers.size()));
 
-                if (iWriter.getLines().isEmpty()) {
-                    throw new RuntimeException(
-                            "Entry reported data but no lines found: " + iEntry);
+                    iSections.add(() -> {
+                        SIEWriter iWriter = new SIEWriter();
+
+                        return ((SIEEntryVerifikation) iEntry).exportEntry(this, iWriter, iChunk)
+                                ? getLines(iEntry, iWriter)
+                                : null;
+                    });
                 }
+            } else {
+                iSections.add(() -> {
+                    SIEWriter iWriter = new SIEWriter();
 
-                iLines.addAll(iWriter.getLines());
+                    return iEntry.exportEntry(this, iWriter, iYearData) ? getLines(iEntry, iWriter) : null;
+                });
             }
         }
-        writeFile(pFile);
+        writeFile(pFile, iSections);
     }
 
     /**
      *
-     * @param pFile
-     * @throws SSImportException
-     * @throws SSExportException
+     * @param pYears the years of the company
+     * @param pYearData
+     * @return the year that ends the day before the year starts, or null
      */
-    protected void readFile(File pFile) throws SSExportException {
-        try {
-            iLines = SIEFile.readFile(pFile);
-        } catch (FileNotFoundException ex) {
-            LOG.error("Unexpected error", ex);
-            throw new SSExportException(ex.getMessage());
-        } catch (IOException ex) {
-            LOG.error("Unexpected error", ex);
-            throw new SSExportException(ex.getMessage());
+    private static SSNewAccountingYear getPreviousYear(List<SSNewAccountingYear> pYears, SSNewAccountingYear pYearData) {
+        if (pYearData.getLocalFrom() == null) {
+            return null;
+        }
+        LocalDate iDayBefore = pYearData.getLocalFrom().minusDays(1);
+
+        for (SSNewAccountingYear iYear : pYears) {
+            if (iDayBefore.equals(iYear.getLocalTo())) {
+                return iYear;
+            }
         }
+        return null;
     }
 
     /**
+     *
+     * @param pEntry
+     * @param pWriter
+     * @return the lines of an entry that reported data
+     */
+    private static List<String> getLines(SIEEntry pEntry, SIEWriter pWriter) {
+        if (pWriter.getLines().isEmpty()) {
+            throw new RuntimeException(
+                    "Entry reported data but no lines found: " + pEntry);
+        }
+        return pWriter.getLines();
+    }
+
+    /**
+     * Renders the sections concurrently and writes them to the file in order.
+     * The file is only written if every section is rendered.
      *
      * @param pFile
-     * @throws SSImportException
+     * @param pSections
      * @throws SSExportException
      */
-    private void writeFile(File pFile) throws SSExportException {
+    static void writeFile(File pFile, List<Callable<List<String>>> pSections) throws SSExportException {
+        int iThreads = Math.max(1, Integer.getInteger("bokfri.export.threads",
+                Math.min(4, Runtime.getRuntime().availableProcessors())));
+
+        AtomicInteger iCount = new AtomicInteger();
+        ThreadFactory iFactory = pRunnable -> {
+            Thread iThread = new Thread(pRunnable, "SIE-export-" + iCount.incrementAndGet());
+
+            iThread.setDaemon(true);
+            return iThread;
+        };
+        Path iTemp;
+
         try {
-            SIEFile.writeFile(pFile, iLines);
-        } catch (FileNotFoundException ex) {
+            iTemp = Files.createTempFile(pFile.getAbsoluteFile().getParentFile().toPath(), pFile.getName(), ".tmp");
+        } catch (IOException ex) {
             LOG.error("Unexpected error", ex);
             throw new SSExportException(ex.getMessage());
+        }
+        ExecutorService iExecutor = Executors.newFixedThreadPool(iThreads, iFactory);
+        boolean iWritten = false;
+
+        try {
+            try (BufferedWriter iWriter = Files.newBufferedWriter(iTemp, SIEFile.CHARSET)) {
+                Deque<Future<List<String>>> iPending = new ArrayDeque<>();
+                Iterator<Callable<List<String>>> iIterator = pSections.iterator();
+
+                while (iIterator.hasNext() || !iPending.isEmpty()) {
+                    while (iIterator.hasNext() && iPending.size() < iThreads * 2) {
+                        iPending.add(iExecutor.submit(iIterator.next()));
+                    }
+                    List<String> iLines = iPending.remove().get();
+
+                    if (iLines == null) {
+                        continue;
+                    }
+                    for (String iLine : iLines) {
+                        iWriter.write(iLine);
+                        iWriter.newLine();
+                    }
+                }
+            }
+            try {
+                Files.move(iTemp, pFile.toPath(), StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException ex) {
+                Files.move(iTemp, pFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            }
+            iWritten = true;
         } catch (IOException ex) {
             LOG.error("Unexpected error", ex);
             throw new SSExportException(ex.getMessage());
+        } catch (ExecutionException ex) {
+            if (ex.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) ex.getCause();
+            }
+            LOG.error("Unexpected error", ex);
+            throw new SSExportException(ex.getMessage());
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new SSExportException(ex.getMessage());
+        } finally {
+            iExecutor.shutdownNow();
+            if (!iWritten) {
+                try {
+                    Files.deleteIfExists(iTemp);
+                } catch (IOException ex) {
+                    LOG.error("Unexpected error", ex);
+                }
+            }
         }
     }
 
@@ -161,12 +312,44 @@ public class SSSIEExporter {    private static final Logger LOG = LoggerFactory.
         return iComment;
     }
 
+    /**
+     *
+     * @return the exported company
+     */
+    public SSNewCompany getCompany() {
+        return iCompany;
+    }
+
+    /**
+     *
+     * @return the year before the exported year
+     */
+    public Optional<SSNewAccountingYear> getPreviousYear() {
+        return Optional.ofNullable(iPreviousYear);
+    }
+
+    /**
+     *
+     * @return the accounts of the exported year by number
+     */
+    public Map<Integer, SSAccount> getAccounts() {
+        return iAccounts;
+    }
+
+    /**
+     *
+     * @return
+     */
+    public List<SSNewResultUnit> getResultUnits() {
+        return iResultUnits;
+    }
+
     /**
      *
      * @return
      */
-    public List<String> getLines() {
-        return iLines;
+    public List<SSNewProject> getProjects() {
+        return iProjects;
     }
 
     @Override
@@ -175,7 +358,6 @@ public class SSSIEExporter {    private static final Logger LOG = LoggerFactory.
 
         sb.append("se.swedsoft.bookkeeping.importexport.sie.SSSIEExporter");
         sb.append("{iComment='").append(iComment).append('\'');
-        sb.append(", iLines=").append(iLines);
         sb.append(", iType=").append(iType);
         sb.append('}');
         return sb.toString();
@@ -6,6 +6,7 @@ import se.swedsoft.bookkeeping.data.SSNewProject;
 import se.swedsoft.bookkeeping.data.SSNewResultUnit;
 import se.swedsoft.bookkeeping.data.SSVoucher;
 import se.swedsoft.bookkeeping.data.system.SSDB;
+import se.swedsoft.bookkeeping.data.system.SSDBBatch;
 import se.swedsoft.bookkeeping.gui.util.frame.SSFrameManager;
 import se.swedsoft.bookkeeping.importexport.sie.fields.SIEEntry;
 import se.swedsoft.bookkeeping.importexport.sie.types.SIEDimension;
@@ -16,8 +17,7 @@ import se.swedsoft.bookkeeping.importexport.util.SSImportException;
 import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.IOException;
-import java.util.LinkedList;
-import java.util.List;
+import java.util.*;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -28,8 +28,8 @@ import org.slf4j.LoggerFactory;
  */
 public class SSSIEImporter {    private static final Logger LOG = LoggerFactory.getLogger(SSSIEImporter.class);
 
-
-    private List<String> iLines;
+    // Number of vouchers written to the database at a time
+    private static final int VOUCHER_BATCH_SIZE = 500;
 
     private SIEType iType;
 
@@ -40,6 +40,11 @@ public class SSSIEImporter {    private static final Logger LOG = LoggerFactory.
 
     private File iFile;
 
+    // The vouchers read but not yet written
+    private List<SSVoucher> iVouchers;
+
+    private int iLastVoucherNumber;
+
     /**
      *
      * @param iFile
@@ -47,8 +52,8 @@ public class SSSIEImporter {    private static final Logger LOG = LoggerFactory.
     public SSSIEImporter(File iFile) {
         this.iFile = iFile;
 
-        iLines = new LinkedList<>();
         iDimensions = SIEDimension.getDefaultDimensions();
+        iVouchers = new ArrayList<>(VOUCHER_BATCH_SIZE);
         iFactory = SIEFactory.getImportInstance();
     }
 
@@ -60,24 +65,52 @@ public class SSSIEImporter {    private static final Logger LOG = LoggerFactory.
         SSDB.getInstance().dropTriggers();
         SSNewAccountingYear iAccountingYear = SSDB.getInstance().getCurrentYear();
 
-        // Read the contents of the file
-        readFile(iFile);
+        // The file is read one entry at a time while it is imported
+        try (SIEBlockReader iReader = openFile(iFile)) {
+            List<String> iFirst = nextBlock(iReader);
 
-        if (iLines.isEmpty()) {
-            return;
-        }
+            if (iFirst == null) {
+                return;
+            }
 
-        // Clear all active data
+            // Clear all active data
 
-        iAccountingYear.getInBalance().clear();
-        iAccountingYear.getBudget().clear();
-        iAccountingYear.getAccountPlan().clear();
-        // SSDB.getInstance().updateAccountingYear(iAccountingYear);
+            iAccountingYear.getInBalance().clear();
+            iAccountingYear.getBudget().clear();
+            iAccountingYear.getAccountPlan().clear();
+            // SSDB.getInstance().updateAccountingYear(iAccountingYear);
 
-        for (SSVoucher iVoucher : SSDB.getInstance().getVouchers()) {
-            SSDB.getInstance().deleteVoucher(iVoucher);
+            // The whole import is one transaction, rolled back if it stops halfway
+            try (SSDBBatch iBatch = SSDB.getInstance().beginBatch("SIE-import")) {
+                try {
+                    importYear(iAccountingYear, iReader, iFirst);
+                } catch (RuntimeException e) {
+                    iBatch.setFailed();
+                    throw e;
+                }
+            }
         }
-        SSDB.getInstance().getVouchers().clear();
+        SSDB.getInstance().notifyListeners("YEAR", SSDB.getInstance().getCurrentYear(),
+                null);
+        setReaded(iFile);
+
+        SSFrameManager.getInstance().close();
+        SSDB.getInstance().initYear(true);
+
+        SSDB.getInstance().createTriggers();
+    }
+
+    /**
+     * Replaces the vouchers, projects and result units of the year with the
+     * contents of the file.
+     *
+     * @param iAccountingYear
+     * @param iReader
+     * @param iFirst the first entry of the file, already read
+     */
+    private void importYear(SSNewAccountingYear iAccountingYear, SIEBlockReader iReader, List<String> iFirst) {
+        SSDB.getInstance().deleteVouchers();
+        startVouchers(Collections.emptyList());
 
         List<SSNewProject> projectsToDelete = new LinkedList<>(
                 SSDB.getInstance().getProjects());
@@ -95,31 +128,23 @@ public class SSSIEImporter {    private static final Logger LOG = LoggerFactory.
         resultUnitsToDelete = null;
         // LOG.info(iFactory.toString());
 
-        List<List<String>> iParsedLines = getParsedLines(iLines);
-
         // iAccountingYear = SSDB.getInstance().getCurrentYear();
-        for (List<String> iEntryLines : iParsedLines) {
-            SIEReader iReader = new SIEReader(iEntryLines);
+        for (List<String> iEntryLines = iFirst; iEntryLines != null; iEntryLines = nextBlock(iReader)) {
+            SIEReader iEntryReader = new SIEReader(iEntryLines);
 
-            String iLabel = iReader.next();
+            String iLabel = iEntryReader.next();
 
             SIEEntry iEntry = iFactory.get(iLabel);
 
             if (iEntry != null) {
-                iEntry.importEntry(this, iReader, iAccountingYear);
+                iEntry.importEntry(this, iEntryReader, iAccountingYear);
             } else {
                 LOG.info("(SSSIEImporter)Missing reader for: " + iLabel);
             }
         }
-        SSDB.getInstance().updateAccountingYear(iAccountingYear);
-        SSDB.getInstance().notifyListeners("YEAR", SSDB.getInstance().getCurrentYear(),
-                null);
-        setReaded(iFile);
+        flushVouchers();
 
-        SSFrameManager.getInstance().close();
-        SSDB.getInstance().initYear(true);
-
-        SSDB.getInstance().createTriggers();
+        SSDB.getInstance().updateAccountingYear(iAccountingYear);
     }
 
     /**
@@ -127,89 +152,106 @@ public class SSSIEImporter {    private static final Logger LOG = LoggerFactory.
      * @throws SSImportException
      */
     public void doImportVouchers() throws SSImportException {
-        // Read the contents of the file
-        readFile(iFile);
+        SSNewAccountingYear iYear = SSDB.getInstance().getCurrentYear();
 
-        if (iLines.isEmpty()) {
-            return;
-        }
+        // The file is read one entry at a time while it is imported
+        try (SIEBlockReader iReader = openFile(iFile)) {
+            List<String> iEntryLines = nextBlock(iReader);
 
-        List<List<String>> iParsedLines = getParsedLines(iLines);
-        SSNewAccountingYear iYear = SSDB.getInstance().getCurrentYear();
+            if (iEntryLines == null) {
+                return;
+            }
+
+            startVouchers(SSDB.getInstance().getVouchers());
 
-        for (List<String> iEntryLines : iParsedLines) {
-            SIEReader iReader = new SIEReader(iEntryLines);
+            try (SSDBBatch iBatch = SSDB.getInstance().beginBatch("SIE-import av verifikationer")) {
+                try {
+                    for (; iEntryLines != null; iEntryLines = nextBlock(iReader)) {
+                        SIEReader iEntryReader = new SIEReader(iEntryLines);
 
-            String iLabel = iReader.next();
+                        String iLabel = iEntryReader.next();
 
-            // Only import verifications
-            if (iLabel.equals("#VER")) {
-                SIEEntry iEntry = iFactory.get("#VER");
+                        // Only import verifications
+                        if (iLabel.equals("#VER")) {
+                            SIEEntry iEntry = iFactory.get("#VER");
 
-                iEntry.importEntry(this, iReader, iYear);
+                            iEntry.importEntry(this, iEntryReader, iYear);
+                        }
+                    }
+                    flushVouchers();
+                } catch (RuntimeException e) {
+                    iBatch.setFailed();
+                    throw e;
+                }
             }
         }
         setReaded(iFile);
     }
 
     /**
+     * Adds a voucher read from the file. The voucher gets the number after the
+     * highest one used in the year. The vouchers are written in batches, see
+     * {@link #flushVouchers()}.
      *
-     * @param pFile
+     * @param pVoucher
      */
-    private void setReaded(File pFile) {
-        // Set the flag to 1
-        iLines.set(0, SIELabel.SIE_FLAGGA + " 1");
+    public void addVoucher(SSVoucher pVoucher) {
+        iLastVoucherNumber++;
 
-        writeFile(pFile);
+        pVoucher.setNumber(iLastVoucherNumber);
+        iVouchers.add(pVoucher);
+
+        if (iVouchers.size() >= VOUCHER_BATCH_SIZE) {
+            flushVouchers();
+        }
     }
 
     /**
+     * Starts numbering the vouchers of the file after the vouchers already in the year.
      *
-     * @param iLines
-     * @return
+     * @param pVouchers the vouchers of the year
      */
-    private static List<List<String>> getParsedLines(List<String> iLines) {
-        List<List<String>> iParsedLines = new LinkedList<>();
-
-        for (int iIndex = 0; iIndex < iLines.size(); iIndex++) {
-            String iLine = iLines.get(iIndex);
-            String iNext = (iIndex + 1 < iLines.size()) ? iLines.get(iIndex + 1) : "";
-
-            // Skip any blank lines
-            if (iLine == null || iLine.trim().length() == 0) {
-                continue;
-            }
-
-            List<String> iEntryLines = new LinkedList<>();
-
-            iEntryLines.add(iLine);
+    private void startVouchers(Collection<SSVoucher> pVouchers) {
+        iVouchers.clear();
+        iLastVoucherNumber = 0;
 
-            if (iNext.equals("{")) {
-                int iStart = iIndex + 2;
+        for (SSVoucher iVoucher : pVouchers) {
+            iLastVoucherNumber = Math.max(iLastVoucherNumber, iVoucher.getNumber());
+        }
+    }
 
-                for (iIndex = iStart; iIndex < iLines.size(); iIndex++) {
-                    iLine = iLines.get(iIndex);
+    /**
+     * Writes the vouchers read since the last call.
+     */
+    private void flushVouchers() {
+        SSDB.getInstance().addVouchers(iVouchers);
 
-                    if (iLine.equals("}")) {
-                        break;
-                    }
+        iVouchers.clear();
+    }
 
-                    iEntryLines.add(iLine);
-                }
-            }
-            iParsedLines.add(iEntryLines);
+    /**
+     *
+     * @param pFile
+     */
+    private void setReaded(File pFile) {
+        // Set the flag to 1
+        try {
+            SIEFile.replaceFirstLine(pFile, SIELabel.SIE_FLAGGA + " 1");
+        } catch (IOException ex) {
+            LOG.error("Unexpected error", ex);
+            throw new SSExportException(ex.getMessage());
         }
-        return iParsedLines;
     }
 
     /**
      *
      * @param pFile
+     * @return
      * @throws SSImportException
      */
-    protected void readFile(File pFile) throws SSImportException {
+    private static SIEBlockReader openFile(File pFile) throws SSImportException {
         try {
-            iLines = SIEFile.readFile(pFile);
+            return SIEBlockReader.open(pFile);
         } catch (FileNotFoundException ex) {
             LOG.error("Unexpected error", ex);
             throw new SSImportException(ex.getMessage());
@@ -221,19 +263,16 @@ public class SSSIEImporter {    private static final Logger LOG = LoggerFactory.
 
     /**
      *
-     * @param pFile
+     * @param pReader
+     * @return the lines of the next entry, or null at the end of the file
      * @throws SSImportException
-     * @throws SSExportException
      */
-    private void writeFile(File pFile) throws SSExportException {
+    private static List<String> nextBlock(SIEBlockReader pReader) throws SSImportException {
         try {
-            SIEFile.writeFile(pFile, iLines);
-        } catch (FileNotFoundException ex) {
-            LOG.error("Unexpected error", ex);
-            throw new SSExportException(ex.getMessage());
+            return pReader.nextBlock();
         } catch (IOException ex) {
             LOG.error("Unexpected error", ex);
-            throw new SSExportException(ex.getMessage());
+            throw new SSImportException(ex.getMessage());
         }
     }
 
@@ -295,14 +334,6 @@ public class SSSIEImporter {    private static final Logger LOG = LoggerFactory.
         this.iFactory = iFactory;
     }
 
-    /**
-     *
-     * @return
-     */
-    public List<String> getLines() {
-        return iLines;
-    }
-
     @Override
     public String toString() {
         final StringBuilder sb = new StringBuilder();
@@ -311,7 +342,6 @@ public class SSSIEImporter {    private static final Logger LOG = LoggerFactory.
         sb.append("{iDimensions=").append(iDimensions);
         sb.append(", iFactory=").append(iFactory);
         sb.append(", iFile=").append(iFile);
-        sb.append(", iLines=").append(iLines);
         sb.append(", iType=").append(iType);
         sb.append('}');
         return sb.toString();
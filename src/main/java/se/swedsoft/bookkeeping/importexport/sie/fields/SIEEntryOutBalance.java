@@ -4,7 +4,6 @@ package se.swedsoft.bookkeeping.importexport.sie.fields;
 import se.swedsoft.bookkeeping.calc.SSBalanceCalculator;
 import se.swedsoft.bookkeeping.data.SSAccount;
 import se.swedsoft.bookkeeping.data.SSNewAccountingYear;
-import se.swedsoft.bookkeeping.data.system.SSDB;
 import se.swedsoft.bookkeeping.importexport.sie.SSSIEExporter;
 import se.swedsoft.bookkeeping.importexport.sie.SSSIEImporter;
 import se.swedsoft.bookkeeping.importexport.sie.util.SIELabel;
@@ -49,13 +48,13 @@ public class SIEEntryOutBalance implements SIEEntry {
      */
     @Override
     public boolean exportEntry(SSSIEExporter iExporter, SIEWriter iWriter, SSNewAccountingYear iCurrentYearData) throws SSExportException {
-        SSNewAccountingYear iPreviousYearData = SSDB.getInstance().getPreviousYear().orElse(null);
+        SSNewAccountingYear iPreviousYearData = iExporter.getPreviousYear().orElse(null);
 
         boolean iHasData = false;
 
         if (iPreviousYearData != null) {
             Map<SSAccount, BigDecimal> iOutBalance = SSBalanceCalculator.getOutBalance(
-                    iPreviousYearData);
+                    iPreviousYearData, iExporter.getAccounts());
 
             for (Map.Entry<SSAccount, BigDecimal> ssAccountBigDecimalEntry : iOutBalance.entrySet()) {
                 iWriter.append(SIELabel.SIE_UB);
@@ -68,7 +67,7 @@ public class SIEEntryOutBalance implements SIEEntry {
         }
         if (iCurrentYearData != null) {
             Map<SSAccount, BigDecimal> iOutBalance = SSBalanceCalculator.getOutBalance(
-                    iCurrentYearData);
+                    iCurrentYearData, iExporter.getAccounts());
 
             for (Map.Entry<SSAccount, BigDecimal> ssAccountBigDecimalEntry : iOutBalance.entrySet()) {
                 iWriter.append(SIELabel.SIE_UB);
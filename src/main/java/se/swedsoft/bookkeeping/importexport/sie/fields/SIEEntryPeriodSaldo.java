@@ -3,7 +3,6 @@ package se.swedsoft.bookkeeping.importexport.sie.fields;
 
 import se.swedsoft.bookkeeping.calc.SSSaldoCalculator;
 import se.swedsoft.bookkeeping.data.*;
-import se.swedsoft.bookkeeping.data.system.SSDB;
 import se.swedsoft.bookkeeping.importexport.sie.SSSIEExporter;
 import se.swedsoft.bookkeeping.importexport.sie.SSSIEImporter;
 import se.swedsoft.bookkeeping.importexport.sie.util.SIELabel;
@@ -49,10 +48,10 @@ public class SIEEntryPeriodSaldo implements SIEEntry {
      */
     @Override
     public boolean exportEntry(SSSIEExporter iExporter, SIEWriter iWriter, SSNewAccountingYear iCurrentYearData) throws SSExportException {
-        SSNewAccountingYear iPreviousYearData = SSDB.getInstance().getPreviousYear().orElse(null);
+        SSNewAccountingYear iPreviousYearData = iExporter.getPreviousYear().orElse(null);
 
-        List<SSNewResultUnit> iResultUnits = SSDB.getInstance().getResultUnits();
-        List<SSNewProject   > iProjects = SSDB.getInstance().getProjects();
+        List<SSNewResultUnit> iResultUnits = iExporter.getResultUnits();
+        List<SSNewProject   > iProjects = iExporter.getProjects();
 
         Map<SSMonth, Map<SSAccount, BigDecimal>> iMonths;
 
@@ -60,7 +59,7 @@ public class SIEEntryPeriodSaldo implements SIEEntry {
 
         if (iPreviousYearData != null) {
 
-            iMonths = SSSaldoCalculator.getSaldo(iPreviousYearData);
+            iMonths = SSSaldoCalculator.getSaldo(iPreviousYearData, iExporter.getAccounts());
 
             for (Map.Entry<SSMonth, Map<SSAccount, BigDecimal>> ssMonthMapEntry1 : iMonths.entrySet()) {
                 Map<SSAccount, BigDecimal> iAccounts = ssMonthMapEntry1.getValue();
@@ -84,7 +83,7 @@ public class SIEEntryPeriodSaldo implements SIEEntry {
                 // Resultatenhet, #DIM 1
                 for (SSNewResultUnit iResultUnit: iResultUnits) {
 
-                    iMonths = SSSaldoCalculator.getSaldo(iPreviousYearData, iResultUnit);
+                    iMonths = SSSaldoCalculator.getSaldo(iPreviousYearData, iResultUnit, iExporter.getAccounts());
 
                     for (Map.Entry<SSMonth, Map<SSAccount, BigDecimal>> ssMonthMapEntry : iMonths.entrySet()) {
                         Map<SSAccount, BigDecimal> iAccounts = ssMonthMapEntry.getValue();
@@ -106,7 +105,7 @@ public class SIEEntryPeriodSaldo implements SIEEntry {
                 // Projekt, #DIM 6
                 for (SSNewProject iProject: iProjects) {
 
-                    iMonths = SSSaldoCalculator.getSaldo(iPreviousYearData, iProject);
+                    iMonths = SSSaldoCalculator.getSaldo(iPreviousYearData, iProject, iExporter.getAccounts());
 
                     for (Map.Entry<SSMonth, Map<SSAccount, BigDecimal>> ssMonthMapEntry : iMonths.entrySet()) {
                         Map<SSAccount, BigDecimal> iAccounts = ssMonthMapEntry.getValue();
@@ -129,7 +128,7 @@ public class SIEEntryPeriodSaldo implements SIEEntry {
         }
 
         if (iCurrentYearData != null) {
-            iMonths = SSSaldoCalculator.getSaldo(iCurrentYearData);
+            iMonths = SSSaldoCalculator.getSaldo(iCurrentYearData, iExporter.getAccounts());
 
             for (Map.Entry<SSMonth, Map<SSAccount, BigDecimal>> ssMonthMapEntry1 : iMonths.entrySet()) {
                 Map<SSAccount, BigDecimal> iAccounts = ssMonthMapEntry1.getValue();
@@ -153,7 +152,7 @@ public class SIEEntryPeriodSaldo implements SIEEntry {
 
                 // Resultatenhet, #DIM 1
                 for (SSNewResultUnit iResultUnit: iResultUnits) {
-                    iMonths = SSSaldoCalculator.getSaldo(iCurrentYearData, iResultUnit);
+                    iMonths = SSSaldoCalculator.getSaldo(iCurrentYearData, iResultUnit, iExporter.getAccounts());
 
                     for (Map.Entry<SSMonth, Map<SSAccount, BigDecimal>> ssMonthMapEntry : iMonths.entrySet()) {
                         Map<SSAccount, BigDecimal> iAccounts = ssMonthMapEntry.getValue();
@@ -174,7 +173,7 @@ public class SIEEntryPeriodSaldo implements SIEEntry {
                 }
                 // Projekt, #DIM 6
                 for (SSNewProject iProject: iProjects) {
-                    iMonths = SSSaldoCalculator.getSaldo(iCurrentYearData, iProject);
+                    iMonths = SSSaldoCalculator.getSaldo(iCurrentYearData, iProject, iExporter.getAccounts());
 
                     for (Map.Entry<SSMonth, Map<SSAccount, BigDecimal>> ssMonthMapEntry : iMonths.entrySet()) {
                         Map<SSAccount, BigDecimal> iAccounts = ssMonthMapEntry.getValue();
@@ -4,7 +4,6 @@ package se.swedsoft.bookkeeping.importexport.sie.fields;
 import se.swedsoft.bookkeeping.calc.SSResultCalculator;
 import se.swedsoft.bookkeeping.data.SSAccount;
 import se.swedsoft.bookkeeping.data.SSNewAccountingYear;
-import se.swedsoft.bookkeeping.data.system.SSDB;
 import se.swedsoft.bookkeeping.importexport.sie.SSSIEExporter;
 import se.swedsoft.bookkeeping.importexport.sie.SSSIEImporter;
 import se.swedsoft.bookkeeping.importexport.sie.util.SIELabel;
@@ -49,14 +48,14 @@ public class SIEEntryResult implements SIEEntry {
      */
     @Override
     public boolean exportEntry(SSSIEExporter iExporter, SIEWriter iWriter, SSNewAccountingYear iYear) throws SSExportException {
-        Optional<SSNewAccountingYear> optPreviousYearData = SSDB.getInstance().getPreviousYear();
+        Optional<SSNewAccountingYear> optPreviousYearData = iExporter.getPreviousYear();
 
         boolean iHasData = false;
 
         if (optPreviousYearData.isPresent()) {
             SSNewAccountingYear iPreviousYearData = optPreviousYearData.get();
             Map<SSAccount, BigDecimal> iResult = SSResultCalculator.getResult(
-                    iPreviousYearData);
+                    iPreviousYearData, iExporter.getAccounts());
 
             for (Map.Entry<SSAccount, BigDecimal> ssAccountBigDecimalEntry : iResult.entrySet()) {
                 iWriter.append(SIELabel.SIE_RES);
@@ -68,7 +67,7 @@ public class SIEEntryResult implements SIEEntry {
             }
         }
         if (iYear != null) {
-            Map<SSAccount, BigDecimal> iResult = SSResultCalculator.getResult(iYear);
+            Map<SSAccount, BigDecimal> iResult = SSResultCalculator.getResult(iYear, iExporter.getAccounts());
 
             for (Map.Entry<SSAccount, BigDecimal> ssAccountBigDecimalEntry : iResult.entrySet()) {
                 iWriter.append(SIELabel.SIE_RES);
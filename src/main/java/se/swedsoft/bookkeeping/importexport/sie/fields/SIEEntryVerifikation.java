@@ -1,7 +1,6 @@
 package se.swedsoft.bookkeeping.importexport.sie.fields;
 
 
-import se.swedsoft.bookkeeping.calc.math.SSVoucherMath;
 import se.swedsoft.bookkeeping.data.SSNewAccountingYear;
 import se.swedsoft.bookkeeping.data.SSVoucher;
 import se.swedsoft.bookkeeping.data.system.SSDB;
@@ -58,13 +57,6 @@ public class SIEEntryVerifikation implements SIEEntry {
 		iNumber = iNumber + (10000 * (iSerie.charAt(0) - 'A')) + 1000000;
 	    }
         }
-        boolean iHasNumber = false;
-
-        if (iNumber != null && !SSVoucherMath.hasVoucher(iNumber)) {
-            iVoucher.setNumber(iNumber);
-            iHasNumber = true;
-        }
-
         iVoucher.setLocalDate(iDate);
         iVoucher.setDescription(iDescription);
 
@@ -82,7 +74,9 @@ public class SIEEntryVerifikation implements SIEEntry {
             ((SIEEntryTransaktion) iEntry).importEntry(iVoucher, iImporter, iReader,
                     iYearData);
         }
-        SSDB.getInstance().addVoucher(iVoucher, iHasNumber);
+        // Numbered after the vouchers of the year in the order of the file, as
+        // addVoucher(iVoucher, false) did, and written with the other vouchers
+        iImporter.addVoucher(iVoucher);
         return true;
     }
 
@@ -97,8 +91,20 @@ public class SIEEntryVerifikation implements SIEEntry {
      */
     @Override
     public boolean exportEntry(SSSIEExporter iExporter, SIEWriter iWriter, SSNewAccountingYear iCurrentYearData) throws SSExportException {
-        List<SSVoucher> iVouchers = SSDB.getInstance().getVouchers();
+        return exportEntry(iExporter, iWriter, SSDB.getInstance().getVouchers(iCurrentYearData));
+    }
 
+    /**
+     * Exports some of the vouchers, so that the vouchers of a year can be
+     * exported in parts.
+     *
+     * @param iExporter
+     * @param iWriter
+     * @param iVouchers
+     * @return If anything was exported
+     * @throws SSExportException
+     */
+    public boolean exportEntry(SSSIEExporter iExporter, SIEWriter iWriter, List<SSVoucher> iVouchers) throws SSExportException {
         SIEEntryTransaktion iEntry = new SIEEntryTransaktion();
 
         // #VER serie vernr [verdatum] [vertext] [regdatum]
@@ -0,0 +1,105 @@
+package se.swedsoft.bookkeeping.importexport.sie.util;
+
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.*;
+import java.util.ArrayList;
+import java.util.List;
+
+
+/**
+ * Reads the entries of a SIE file one at a time.
+ *
+ * An entry is a label line, and if the next line is a single "{" the lines
+ * up to the matching "}", as for #VER and its #TRANS rows. Only the entry
+ * being returned is held in memory, so a file of any size is read in one
+ * pass and the lines of an entry can be dropped once it has been imported.
+ */
+public class SIEBlockReader implements Closeable {    private static final Logger LOG = LoggerFactory.getLogger(SIEBlockReader.class);
+
+    private final BufferedReader iReader;
+
+    // The line after the last entry, read to see if it opens a block
+    private String iPending;
+
+    /**
+     *
+     * @param pReader
+     */
+    public SIEBlockReader(Reader pReader) {
+        iReader = pReader instanceof BufferedReader
+                ? (BufferedReader) pReader
+                : new BufferedReader(pReader);
+    }
+
+    /**
+     * Opens a SIE file, which is written in the IBM-437 (PC8) charset.
+     *
+     * @param pFile
+     * @return
+     * @throws IOException
+     */
+    public static SIEBlockReader open(File pFile) throws IOException {
+        return new SIEBlockReader(
+                new InputStreamReader(new FileInputStream(pFile), SIEFile.CHARSET));
+    }
+
+    /**
+     * Returns the lines of the next entry, the label line first and without
+     * the braces. Blank lines between the entries are skipped.
+     *
+     * @return the lines of the entry, or null at the end of the file
+     * @throws IOException
+     */
+    public List<String> nextBlock() throws IOException {
+        String iLine = nextLine();
+
+        // Skip any blank lines
+        while (iLine != null && iLine.trim().length() == 0) {
+            iLine = nextLine();
+        }
+        if (iLine == null) {
+            return null;
+        }
+        List<String> iBlock = new ArrayList<>();
+
+        iBlock.add(iLine);
+
+        String iNext = nextLine();
+
+        if ("{".equals(iNext)) {
+            while ((iLine = nextLine()) != null && !iLine.equals("}")) {
+                iBlock.add(iLine);
+            }
+        } else {
+            iPending = iNext;
+        }
+        return iBlock;
+    }
+
+    /**
+     *
+     * @return
+     * @throws IOException
+     */
+    private String nextLine() throws IOException {
+        if (iPending != null) {
+            String iLine = iPending;
+
+            iPending = null;
+            return iLine;
+        }
+        return iReader.readLine();
+    }
+
+    @Override
+    public void close() {
+        try {
+            iReader.close();
+        } catch (IOException ex) {
+            LOG.error("Unexpected error", ex);
+        }
+    }
+}
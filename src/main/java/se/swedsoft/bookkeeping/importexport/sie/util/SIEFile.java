@@ -2,6 +2,9 @@ package se.swedsoft.bookkeeping.importexport.sie.util;
 
 
 import java.io.*;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
 import java.util.LinkedList;
 import java.util.List;
 
@@ -11,6 +14,10 @@ import java.util.List;
  * Time: 12:59:15
  */
 public class SIEFile {
+
+    // SIE files are written in the PC8 charset
+    public static final Charset CHARSET = Charset.forName("IBM-437");
+
     private SIEFile() {}
 
     /**
@@ -24,7 +31,7 @@ public class SIEFile {
         List<String> iLines = new LinkedList<>();
 
         try (BufferedReader iReader = new BufferedReader(
-                new InputStreamReader(new FileInputStream(pFile), "IBM-437"))) {
+                new InputStreamReader(new FileInputStream(pFile), CHARSET))) {
             String iLine;
 
             while ((iLine = iReader.readLine()) != null) {
@@ -43,11 +50,63 @@ public class SIEFile {
      */
     public static void writeFile(File pFile, List<String> iLines) throws IOException {
         try (BufferedWriter iWriter = new BufferedWriter(
-                new OutputStreamWriter(new FileOutputStream(pFile), "IBM-437"))) {
+                new OutputStreamWriter(new FileOutputStream(pFile), CHARSET))) {
             for (String iLine: iLines) {
                 iWriter.write(iLine);
                 iWriter.newLine();
             }
         }
     }
+
+    /**
+     * Replaces the first line of the file without reading the rest of it
+     * into memory. The line is written in place if it has the same length as
+     * the old one, otherwise the file is copied once with the new line first.
+     *
+     * @param pFile
+     * @param pLine
+     * @throws IOException
+     */
+    public static void replaceFirstLine(File pFile, String pLine) throws IOException {
+        byte[] iBytes = pLine.getBytes(CHARSET);
+
+        try (RandomAccessFile iFile = new RandomAccessFile(pFile, "rw")) {
+            long iLength = 0;
+            int  iByte;
+
+            while ((iByte = iFile.read()) != -1 && iByte != '\n' && iByte != '\r') {
+                iLength++;
+            }
+            if (iLength == iBytes.length) {
+                iFile.seek(0);
+                iFile.write(iBytes);
+                return;
+            }
+        }
+
+        File iCopy = File.createTempFile("sie", ".tmp", pFile.getAbsoluteFile().getParentFile());
+
+        try {
+            try (BufferedReader iReader = new BufferedReader(
+                    new InputStreamReader(new FileInputStream(pFile), CHARSET));
+                    BufferedWriter iWriter = new BufferedWriter(
+                    new OutputStreamWriter(new FileOutputStream(iCopy), CHARSET))) {
+                // Skip the old first line
+                iReader.readLine();
+
+                iWriter.write(pLine);
+                iWriter.newLine();
+
+                String iLine;
+
+                while ((iLine = iReader.readLine()) != null) {
+                    iWriter.write(iLine);
+                    iWriter.newLine();
+                }
+            }
+            Files.move(iCopy.toPath(), pFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(iCopy.toPath());
+        }
+    }
 }
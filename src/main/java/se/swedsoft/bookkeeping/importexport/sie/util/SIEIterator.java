@@ -50,8 +50,7 @@ public class SIEIterator implements Iterator<String> {    private static final L
      */
     public SIEIterator(String... pValues) {
         iIndex = -1;
-        iValues = new LinkedList<>();
-        iValues.addAll(Arrays.asList(pValues));
+        iValues = Arrays.asList(pValues);
     }
 
     /**
@@ -193,7 +192,7 @@ public class SIEIterator implements Iterator<String> {    private static final L
     public List<String> nextArray() {
         String pLine = next();
 
-        List<String> iObjects = new LinkedList<>();
+        List<String> iObjects = new ArrayList<>();
 
         for (int iIndex = 0; iIndex < pLine.length(); iIndex++) {
             char c = pLine.charAt(iIndex);
@@ -373,7 +372,7 @@ public class SIEIterator implements Iterator<String> {    private static final L
      * @return
      */
     private List<String> parseLine(String pLine) {
-        List<String> iValues = new LinkedList<>();
+        List<String> iValues = new ArrayList<>();
 
         for (int iIndex = 0; iIndex < pLine.length(); iIndex++) {
             char c = pLine.charAt(iIndex);
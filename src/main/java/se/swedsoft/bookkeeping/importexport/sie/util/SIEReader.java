@@ -26,7 +26,7 @@ public class SIEReader implements Iterator<String> {
      *
      */
     public SIEReader() {
-        iLines = new LinkedList<>();
+        iLines = new ArrayList<>();
         iIndex = 0;
         iValues = null;
     }
@@ -47,7 +47,8 @@ public class SIEReader implements Iterator<String> {
      * @param pLines
      */
     public SIEReader(List<String> pLines) {
-        iLines = pLines;
+        // The lines are read by index
+        iLines = pLines instanceof RandomAccess ? pLines : new ArrayList<>(pLines);
 
         reset();
     }
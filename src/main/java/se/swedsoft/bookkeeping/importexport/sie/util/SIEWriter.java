@@ -8,7 +8,7 @@ import java.math.BigInteger;
 import java.text.NumberFormat;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
-import java.util.LinkedList;
+import java.util.ArrayList;
 import java.util.List;
 
 
@@ -30,7 +30,7 @@ public class SIEWriter {
      */
     public SIEWriter() {
         iStringBuilder = new StringBuilder();
-        iLines = new LinkedList<>();
+        iLines = new ArrayList<>();
     }
 
     /**
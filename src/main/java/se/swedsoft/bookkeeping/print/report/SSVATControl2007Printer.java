@@ -2,6 +2,7 @@ package se.swedsoft.bookkeeping.print.report;
 
 
 import se.swedsoft.bookkeeping.calc.math.SSAccountMath;
+import se.swedsoft.bookkeeping.calc.math.SSVATCodeSums;
 import se.swedsoft.bookkeeping.calc.math.SSVoucherMath;
 import se.swedsoft.bookkeeping.data.SSAccount;
 import se.swedsoft.bookkeeping.data.SSNewAccountingYear;
@@ -40,6 +41,10 @@ public class SSVATControl2007Printer extends SSPrinter {
 
     private Map<SSAccount, BigDecimal> iDebetMinusCreditSum;
 
+    private SSVATCodeSums iCreditMinusDebetSums;
+
+    private SSVATCodeSums iDebetMinusCreditSums;
+
     /**
      *
      * @param iAccountingYear
@@ -81,20 +86,10 @@ public class SSVATControl2007Printer extends SSPrinter {
         iCreditMinusDebetSum = SSVoucherMath.getCreditMinusDebetSum(iVouchers);
         iDebetMinusCreditSum = SSVoucherMath.getDebetMinusCreditSum(iVouchers);
 
-        iAccountsByVatCode = new HashMap<>();
-
-        for (SSAccount iAccount : iAccounts) {
-            String iVATCode = iAccount.getVATCode();
-
-            List<SSAccount> iAccountsForVatCode = iAccountsByVatCode.get(iVATCode);
+        iAccountsByVatCode = SSAccountMath.getAccountsPerVATCode(iAccounts);
 
-            if (iAccountsForVatCode == null) {
-                iAccountsForVatCode = new LinkedList<>();
-
-                iAccountsByVatCode.put(iVATCode, iAccountsForVatCode);
-            }
-            iAccountsForVatCode.add(iAccount);
-        }
+        iCreditMinusDebetSums = new SSVATCodeSums(iAccountsByVatCode, iCreditMinusDebetSum, false);
+        iDebetMinusCreditSums = new SSVATCodeSums(iAccountsByVatCode, iDebetMinusCreditSum, false);
     }
 
     /**
@@ -179,13 +174,13 @@ public class SSVATControl2007Printer extends SSPrinter {
 
         switch (group) {
         case 1:
-            return getSumForAccounts(iCreditMinusDebetSum, "MP1", "MPFF", "MBBU", "MU1");
+            return iCreditMinusDebetSums.getSum("MP1", "MPFF", "MBBU", "MU1");
 
         case 2:
-            return getSumForAccounts(iCreditMinusDebetSum, "MP2", "MU2");
+            return iCreditMinusDebetSums.getSum("MP2", "MU2");
 
         case 3:
-            return getSumForAccounts(iCreditMinusDebetSum, "MP3", "MU3");
+            return iCreditMinusDebetSums.getSum("MP3", "MU3");
         }
 
         return new BigDecimal(0);
@@ -222,13 +217,13 @@ public class SSVATControl2007Printer extends SSPrinter {
 
         switch (group) {
         case 1:
-            return getSumForAccounts(iCreditMinusDebetSum, "U1", "UVL");
+            return iCreditMinusDebetSums.getSum("U1", "UVL");
 
         case 2:
-            return getSumForAccounts(iCreditMinusDebetSum, "U2");
+            return iCreditMinusDebetSums.getSum("U2");
 
         case 3:
-            return getSumForAccounts(iCreditMinusDebetSum, "U3");
+            return iCreditMinusDebetSums.getSum("U3");
         }
 
         return new BigDecimal(0);
@@ -293,49 +288,6 @@ public class SSVATControl2007Printer extends SSPrinter {
         return iModel;
     }
 
-    /**
-     *
-     * @param iSums
-     * @param iVATCodes
-     * @return
-     */
-    private BigDecimal getSumForAccounts(Map<SSAccount, BigDecimal> iSums, String... iVATCodes) {
-        BigDecimal iSum = new BigDecimal(0);
-
-        for (SSAccount iAccount : iAccounts) {
-
-            if (hasVATCode(iAccount, iVATCodes)) {
-                BigDecimal iSumForAccount = iSums.get(iAccount);
-
-                if (iSumForAccount != null) {
-                    iSum = iSum.add(iSumForAccount);
-                }
-            }
-
-        }
-        return iSum;
-    }
-
-    /**
-     *
-     * @param iAccount
-     * @param iVATCodes
-     * @return
-     */
-    private boolean hasVATCode(SSAccount iAccount, String... iVATCodes) {
-
-        String iVATCodeForAccount = iAccount.getVATCode();
-
-        for (String iVATCode : iVATCodes) {
-
-            if (iVATCode.equals(iVATCodeForAccount)) {
-
-                return true;
-            }
-        }
-        return false;
-    }
-
     @Override
     public String toString() {
         final StringBuilder sb = new StringBuilder();
@@ -2,6 +2,7 @@ package se.swedsoft.bookkeeping.print.report;
 
 
 import se.swedsoft.bookkeeping.calc.math.SSAccountMath;
+import se.swedsoft.bookkeeping.calc.math.SSVATCodeSums;
 import se.swedsoft.bookkeeping.calc.math.SSVoucherMath;
 import se.swedsoft.bookkeeping.data.SSAccount;
 import se.swedsoft.bookkeeping.data.SSNewAccountingYear;
@@ -46,6 +47,10 @@ public class SSVATControl2015Printer extends SSPrinter {    private static final
 
     private Map<SSAccount, BigDecimal> iDebetMinusCreditSum;
 
+    private SSVATCodeSums iCreditMinusDebetSums;
+
+    private SSVATCodeSums iDebetMinusCreditSums;
+
     /**
      *
      * @param iAccountingYear
@@ -94,20 +99,10 @@ public class SSVATControl2015Printer extends SSPrinter {    private static final
         iCreditMinusDebetSum = SSVoucherMath.getCreditMinusDebetSum(iVouchers2);
         iDebetMinusCreditSum = SSVoucherMath.getDebetMinusCreditSum(iVouchers2);
 
-        iAccountsByVatCode = new HashMap<>();
-
-        for (SSAccount iAccount : iAccounts) {
-            String iVATCode = iAccount.getVATCode();
-
-            List<SSAccount> iAccountsForVatCode = iAccountsByVatCode.get(iVATCode);
+        iAccountsByVatCode = SSAccountMath.getAccountsPerVATCode(iAccounts);
 
-            if (iAccountsForVatCode == null) {
-                iAccountsForVatCode = new LinkedList<>();
-
-                iAccountsByVatCode.put(iVATCode, iAccountsForVatCode);
-            }
-            iAccountsForVatCode.add(iAccount);
-        }
+        iCreditMinusDebetSums = new SSVATCodeSums(iAccountsByVatCode, iCreditMinusDebetSum, false);
+        iDebetMinusCreditSums = new SSVATCodeSums(iAccountsByVatCode, iDebetMinusCreditSum, false);
     }
 
     /**
@@ -192,22 +187,22 @@ public class SSVATControl2015Printer extends SSPrinter {    private static final
 
         switch (group) {
         case 1:
-            return getSumForAccounts(iCreditMinusDebetSum, "MP1", "MPFF", "MBBU", "MU1");
+            return iCreditMinusDebetSums.getSum("MP1", "MPFF", "MBBU", "MU1");
 
         case 2:
-            return getSumForAccounts(iCreditMinusDebetSum, "MP2", "MU2");
+            return iCreditMinusDebetSums.getSum("MP2", "MU2");
 
         case 3:
-            return getSumForAccounts(iCreditMinusDebetSum, "MP3", "MU3");
+            return iCreditMinusDebetSums.getSum("MP3", "MU3");
 
         case 4:
-            return getSumForAccounts(iCreditMinusDebetSum, "IBU", "IBU1");
+            return iCreditMinusDebetSums.getSum("IBU", "IBU1");
 
         case 5:
-            return getSumForAccounts(iCreditMinusDebetSum, "IBU2");
+            return iCreditMinusDebetSums.getSum("IBU2");
 
         case 6:
-            return getSumForAccounts(iCreditMinusDebetSum, "IBU3");
+            return iCreditMinusDebetSums.getSum("IBU3");
         }
 
         return new BigDecimal(0);
@@ -253,22 +248,22 @@ public class SSVATControl2015Printer extends SSPrinter {    private static final
 
         switch (group) {
         case 1:
-            return getSumForAccounts(iCreditMinusDebetSum, "U1", "UVL");
+            return iCreditMinusDebetSums.getSum("U1", "UVL");
 
         case 2:
-            return getSumForAccounts(iCreditMinusDebetSum, "U2");
+            return iCreditMinusDebetSums.getSum("U2");
 
         case 3:
-            return getSumForAccounts(iCreditMinusDebetSum, "U3");
+            return iCreditMinusDebetSums.getSum("U3");
 
         case 4:
-            return getSumForAccounts(iCreditMinusDebetSum, "UI1");
+            return iCreditMinusDebetSums.getSum("UI1");
 
         case 5:
-            return getSumForAccounts(iCreditMinusDebetSum, "UI2");
+            return iCreditMinusDebetSums.getSum("UI2");
 
         case 6:
-            return getSumForAccounts(iCreditMinusDebetSum, "UI3");
+            return iCreditMinusDebetSums.getSum("UI3");
         }
 
         return new BigDecimal(0);
@@ -336,49 +331,6 @@ public class SSVATControl2015Printer extends SSPrinter {    private static final
         return iModel;
     }
 
-    /**
-     *
-     * @param iSums
-     * @param iVATCodes
-     * @return
-     */
-    private BigDecimal getSumForAccounts(Map<SSAccount, BigDecimal> iSums, String... iVATCodes) {
-        BigDecimal iSum = new BigDecimal(0);
-
-        for (SSAccount iAccount : iAccounts) {
-
-            if (hasVATCode(iAccount, iVATCodes)) {
-                BigDecimal iSumForAccount = iSums.get(iAccount);
-
-                if (iSumForAccount != null) {
-                    iSum = iSum.add(iSumForAccount);
-                }
-            }
-
-        }
-        return iSum;
-    }
-
-    /**
-     *
-     * @param iAccount
-     * @param iVATCodes
-     * @return
-     */
-    private boolean hasVATCode(SSAccount iAccount, String... iVATCodes) {
-
-        String iVATCodeForAccount = iAccount.getVATCode();
-
-        for (String iVATCode : iVATCodes) {
-
-            if (iVATCode.equals(iVATCodeForAccount)) {
-
-                return true;
-            }
-        }
-        return false;
-    }
-
     @Override
     public String toString() {
         final StringBuilder sb = new StringBuilder();
@@ -1,6 +1,8 @@
 package se.swedsoft.bookkeeping.print.report;
 
 
+import se.swedsoft.bookkeeping.calc.math.SSAccountMath;
+import se.swedsoft.bookkeeping.calc.math.SSVATCodeSums;
 import se.swedsoft.bookkeeping.calc.math.SSVoucherMath;
 import se.swedsoft.bookkeeping.data.SSAccount;
 import se.swedsoft.bookkeeping.data.SSNewAccountingYear;
@@ -46,6 +48,10 @@ public class SSVATReport2015Printer extends SSPrinter {    private static final
 
     private Map<SSAccount, BigDecimal> iDebetMinusCreditSum;
 
+    private SSVATCodeSums iCreditMinusDebetSums;
+
+    private SSVATCodeSums iDebetMinusCreditSums;
+
     /**
      *
      * @param iAccountingYear
@@ -94,20 +100,10 @@ public class SSVATReport2015Printer extends SSPrinter {    private static final
         iCreditMinusDebetSum = SSVoucherMath.getCreditMinusDebetSum(iVouchers2);
         iDebetMinusCreditSum = SSVoucherMath.getDebetMinusCreditSum(iVouchers2);
 
-        iAccountsByVatCode = new HashMap<>();
-
-        for (SSAccount iAccount : iAccounts) {
-            String iVATCode = iAccount.getVATCode();
-
-            List<SSAccount> iAccountsForVatCode = iAccountsByVatCode.get(iVATCode);
+        iAccountsByVatCode = SSAccountMath.getAccountsPerVATCode(iAccounts);
 
-            if (iAccountsForVatCode == null) {
-                iAccountsForVatCode = new LinkedList<>();
-
-                iAccountsByVatCode.put(iVATCode, iAccountsForVatCode);
-            }
-            iAccountsForVatCode.add(iAccount);
-        }
+        iCreditMinusDebetSums = new SSVATCodeSums(iAccountsByVatCode, iCreditMinusDebetSum, true);
+        iDebetMinusCreditSums = new SSVATCodeSums(iAccountsByVatCode, iDebetMinusCreditSum, true);
     }
 
     /**
@@ -226,83 +222,83 @@ public class SSVATReport2015Printer extends SSPrinter {    private static final
         switch (group) {
         // A. Momspliktig försäljning eller utag exklusive moms
         case 5:
-            return getSumForAccounts(iCreditMinusDebetSum, "MP1", "MP2", "MP3", "PTOG");
+            return iCreditMinusDebetSums.getSum("MP1", "MP2", "MP3", "PTOG");
 
         case 6:
-            return getSumForAccounts(iCreditMinusDebetSum, "MU1", "MU2", "MU3");
+            return iCreditMinusDebetSums.getSum("MU1", "MU2", "MU3");
 
         case 7:
-            return getSumForAccounts(iCreditMinusDebetSum, "MBBU");
+            return iCreditMinusDebetSums.getSum("MBBU");
 
         case 8:
-            return getSumForAccounts(iCreditMinusDebetSum, "MPFF");
+            return iCreditMinusDebetSums.getSum("MPFF");
 
         // B. Utgående moms på försäljning eller uttag i ruta 5-8
 
         case 10:
-            return getSumForAccounts(iCreditMinusDebetSum, "U1", "UVL");
+            return iCreditMinusDebetSums.getSum("U1", "UVL");
 
         case 11:
-            return getSumForAccounts(iCreditMinusDebetSum, "U2");
+            return iCreditMinusDebetSums.getSum("U2");
 
         case 12:
-            return getSumForAccounts(iCreditMinusDebetSum, "U3");
+            return iCreditMinusDebetSums.getSum("U3");
 
         // C. Momspliktiga inköp där köparen är skatteskyldig.
 
         case 20:
-            return getSumForAccounts(iDebetMinusCreditSum, "VFEU");
+            return iDebetMinusCreditSums.getSum("VFEU");
 
         case 21:
-            return getSumForAccounts(iDebetMinusCreditSum, "TFEU");
+            return iDebetMinusCreditSums.getSum("TFEU");
 
         case 22:
-            return getSumForAccounts(iDebetMinusCreditSum, "TFFU");
+            return iDebetMinusCreditSums.getSum("TFFU");
 
         case 23:
-            return getSumForAccounts(iDebetMinusCreditSum, "IVIS");
+            return iDebetMinusCreditSums.getSum("IVIS");
 
         case 24:
-            return getSumForAccounts(iDebetMinusCreditSum, "ITIS");
+            return iDebetMinusCreditSums.getSum("ITIS");
 
         // D. Utgående moms på inköp i ruta 20 - 24
         case 30:
-            return getSumForAccounts(iCreditMinusDebetSum, "U1MI", "UEU", "UTFU");
+            return iCreditMinusDebetSums.getSum("U1MI", "UEU", "UTFU");
 
         case 31:
-            return getSumForAccounts(iCreditMinusDebetSum, "U2MI");
+            return iCreditMinusDebetSums.getSum("U2MI");
 
         case 32:
-            return getSumForAccounts(iCreditMinusDebetSum, "U3MI");
+            return iCreditMinusDebetSums.getSum("U3MI");
 
         // E. Försäljning m.m. som är undantagen från moms.
         case 35:
-            return getSumForAccounts(iCreditMinusDebetSum, "VTEU", "ÖVEU");
+            return iCreditMinusDebetSums.getSum("VTEU", "ÖVEU");
 
         case 36:
-            return getSumForAccounts(iCreditMinusDebetSum, "E");
+            return iCreditMinusDebetSums.getSum("E");
 
         case 37:
-            return getSumForAccounts(iDebetMinusCreditSum, "3VEU");
+            return iDebetMinusCreditSums.getSum("3VEU");
 
         case 38:
-            return getSumForAccounts(iCreditMinusDebetSum, "3FEU");
+            return iCreditMinusDebetSums.getSum("3FEU");
 
         case 39:
-            return getSumForAccounts(iCreditMinusDebetSum, "FTEU");
+            return iCreditMinusDebetSums.getSum("FTEU");
 
         case 40:
-            return getSumForAccounts(iCreditMinusDebetSum, "OTTU");
+            return iCreditMinusDebetSums.getSum("OTTU");
 
         case 41:
-            return getSumForAccounts(iCreditMinusDebetSum, "OMSS");
+            return iCreditMinusDebetSums.getSum("OMSS");
 
         case 42:
-            return getSumForAccounts(iCreditMinusDebetSum, "MF");
+            return iCreditMinusDebetSums.getSum("MF");
 
         // F. Ingående moms
         case 48:
-            return getSumForAccounts(iDebetMinusCreditSum, "I", "IVL");
+            return iDebetMinusCreditSums.getSum("I", "IVL");
 
         // G. Moms att betala eller få tillbaka.
         case 49:
@@ -326,17 +322,17 @@ public class SSVATReport2015Printer extends SSPrinter {    private static final
 
 	// H. Importmoms
         case 50:
-            return getSumForAccounts(iCreditMinusDebetSum, "IBU", "IBU1", "IBU2", "IBU3");
+            return iCreditMinusDebetSums.getSum("IBU", "IBU1", "IBU2", "IBU3");
 
 	// I. Utgående moms på import i ruta 50 
         case 60:
-            return getSumForAccounts(iCreditMinusDebetSum, "UI1");
+            return iCreditMinusDebetSums.getSum("UI1");
 
         case 61:
-            return getSumForAccounts(iCreditMinusDebetSum, "UI2");
+            return iCreditMinusDebetSums.getSum("UI2");
 
         case 62:
-            return getSumForAccounts(iCreditMinusDebetSum, "UI3");
+            return iCreditMinusDebetSums.getSum("UI3");
 
         }
         return new BigDecimal(0);
@@ -563,49 +559,6 @@ public class SSVATReport2015Printer extends SSPrinter {    private static final
         }
     }
 
-    /**
-     *
-     * @param iSums
-     * @param iVATCodes
-     * @return
-     */
-    private BigDecimal getSumForAccounts(Map<SSAccount, BigDecimal> iSums, String... iVATCodes) {
-        BigDecimal iSum = new BigDecimal(0);
-
-        for (SSAccount iAccount : iAccounts) {
-
-            if (hasVATCode(iAccount, iVATCodes)) {
-                BigDecimal iSumForAccount = iSums.get(iAccount);
-
-                if (iSumForAccount != null) {
-                    iSum = iSum.add(iSumForAccount.setScale(0, RoundingMode.DOWN));
-                }
-            }
-
-        }
-        return iSum;
-    }
-
-    /**
-     *
-     * @param iAccount
-     * @param iVATCodes
-     * @return
-     */
-    private boolean hasVATCode(SSAccount iAccount, String... iVATCodes) {
-
-        String iVATCodeForAccount = iAccount.getVATCode();
-
-        for (String iVATCode : iVATCodes) {
-
-            if (iVATCode.equals(iVATCodeForAccount)) {
-
-                return true;
-            }
-        }
-        return false;
-    }
-
     @Override
     public String toString() {
         final StringBuilder sb = new StringBuilder();
@@ -0,0 +1,12 @@
+CREATE CACHED TABLE tbl_accountmonth(
+  yearid INTEGER,
+  month DATE,
+  accountnr INTEGER,
+  projectnr VARCHAR,
+  resultunitnr VARCHAR,
+  debet DECIMAL,
+  credit DECIMAL,
+  FOREIGN KEY(yearid) REFERENCES tbl_accountingyear(id)
+  ) ;
+
+CREATE INDEX idx_accountmonth_month ON tbl_accountmonth(yearid, month) ;
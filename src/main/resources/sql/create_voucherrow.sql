@@ -0,0 +1,20 @@
+CREATE CACHED TABLE tbl_voucherrow(
+  id INTEGER IDENTITY,
+  yearid INTEGER,
+  vouchernumber INTEGER,
+  rowindex INTEGER,
+  voucherdate DATE,
+  description VARCHAR,
+  accountnr INTEGER,
+  projectnr VARCHAR,
+  resultunitnr VARCHAR,
+  debet DECIMAL,
+  credit DECIMAL,
+  crossed BOOLEAN,
+  added BOOLEAN,
+  FOREIGN KEY(yearid) REFERENCES tbl_accountingyear(id)
+  ) ;
+
+CREATE INDEX idx_voucherrow_account ON tbl_voucherrow(yearid, accountnr, voucherdate) ;
+
+CREATE INDEX idx_voucherrow_voucher ON tbl_voucherrow(yearid, vouchernumber) ;
@@ -0,0 +1,102 @@
+package se.swedsoft.bookkeeping.calc;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import se.swedsoft.bookkeeping.calc.util.SSAccountSums;
+import se.swedsoft.bookkeeping.data.SSAccount;
+
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares summing a synthetic ledger per account with {@link SSAccountSums} and
+ * with the map of BigDecimal it replaces.
+ *
+ * <p>Not run by surefire. Start it from the IDE through {@link #main(String[])}
+ * or with {@code mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=se.swedsoft.bookkeeping.calc.SSAccountSumsBenchmark}.
+ * Add {@code -prof gc} to the JMH arguments to see the allocation per row.</p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SSAccountSumsBenchmark {
+
+    @Param({ "1000000" })
+    public int rows;
+
+    private SSAccount[] accounts;
+
+    private BigDecimal[] debet;
+
+    private BigDecimal[] credit;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        SSAccount[] chart = new SSAccount[400];
+
+        for (int i = 0; i < chart.length; i++) {
+            chart[i] = new SSAccount(1000 + i * 20);
+        }
+        accounts = new SSAccount[rows];
+        debet = new BigDecimal[rows];
+        credit = new BigDecimal[rows];
+
+        for (int i = 0; i < rows; i++) {
+            BigDecimal amount = BigDecimal.valueOf(random.nextInt(10_000_000), 2);
+
+            accounts[i] = chart[random.nextInt(chart.length)];
+            debet[i] = i % 2 == 0 ? amount : null;
+            credit[i] = i % 2 == 0 ? null : amount;
+        }
+    }
+
+    @Benchmark
+    public Map<SSAccount, BigDecimal> bigDecimalMap() {
+        Map<SSAccount, BigDecimal> sums = new HashMap<>();
+
+        for (int i = 0; i < rows; i++) {
+            BigDecimal d = debet[i] == null ? BigDecimal.ZERO : debet[i];
+            BigDecimal c = credit[i] == null ? BigDecimal.ZERO : credit[i];
+
+            sums.merge(accounts[i], d.subtract(c), BigDecimal::add);
+        }
+        return sums;
+    }
+
+    @Benchmark
+    public Map<SSAccount, BigDecimal> accountSums() {
+        SSAccountSums sums = new SSAccountSums();
+
+        for (int i = 0; i < rows; i++) {
+            sums.add(accounts[i], debet[i]);
+            sums.subtract(accounts[i], credit[i]);
+        }
+        return sums.toMap();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(SSAccountSumsBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
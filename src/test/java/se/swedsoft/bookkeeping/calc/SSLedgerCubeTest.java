@@ -0,0 +1,92 @@
+package se.swedsoft.bookkeeping.calc;
+
+import org.junit.jupiter.api.Test;
+import se.swedsoft.bookkeeping.data.system.SSVoucherRowSum;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link SSLedgerCube}.
+ */
+class SSLedgerCubeTest {
+
+    private final SSLedgerCube cube = new SSLedgerCube(List.of(
+            sum(1930, null, LocalDate.of(2024, 1, 10), "100", "0"),
+            sum(1930, null, LocalDate.of(2024, 3, 5), "50", "20"),
+            sum(1930, null, LocalDate.of(2024, 2, 1), "0", "30"),
+            sum(1930, "P1", LocalDate.of(2024, 2, 1), "7", "0"),
+            sum(3010, null, LocalDate.of(2024, 6, 30), "0", "400"),
+            sum(3010, null, null, "0", "5")));
+
+    @Test
+    void wholeLedgerIncludesUndatedRows() {
+        List<SSVoucherRowSum> sums = cube.getSums(null, null);
+
+        assertThat(sums).hasSize(3);
+        assertThat(find(sums, 1930, null).getDebetMinusCredit()).isEqualByComparingTo("100");
+        assertThat(find(sums, 1930, "P1").getDebet()).isEqualByComparingTo("7");
+        assertThat(find(sums, 3010, null).getCredit()).isEqualByComparingTo("405");
+    }
+
+    @Test
+    void rangesAreInclusive() {
+        List<SSVoucherRowSum> sums = cube.getSums(LocalDate.of(2024, 2, 1), LocalDate.of(2024, 3, 5));
+
+        assertThat(find(sums, 1930, null).getDebet()).isEqualByComparingTo("50");
+        assertThat(find(sums, 1930, null).getCredit()).isEqualByComparingTo("50");
+        assertThat(find(sums, 3010, null)).isNull();
+    }
+
+    @Test
+    void openRangeLeavesOutUndatedRows() {
+        List<SSVoucherRowSum> sums = cube.getSums(null, LocalDate.of(2024, 12, 31));
+
+        assertThat(find(sums, 3010, null).getCredit()).isEqualByComparingTo("400");
+        assertThat(cube.getSums(LocalDate.of(2024, 7, 1), null)).isEmpty();
+    }
+
+    @Test
+    void rangeBetweenDatesIsEmpty() {
+        assertThat(cube.getSums(LocalDate.of(2024, 1, 11), LocalDate.of(2024, 1, 31))).isEmpty();
+    }
+
+    @Test
+    void projectIndexOnlyReturnsTheRowsOfTheProject() {
+        SSLedgerCube indexed = new SSLedgerCube(List.of(
+                sum(3010, "P1", "R1", LocalDate.of(2024, 1, 5), "0", "100"),
+                sum(3010, "P1", "R2", LocalDate.of(2024, 2, 5), "0", "40"),
+                sum(4010, "P2", "R1", LocalDate.of(2024, 1, 7), "25", "0"),
+                sum(4010, null, null, LocalDate.of(2024, 1, 7), "10", "0")));
+
+        assertThat(indexed.getProjectSums("P1", null, null))
+                .extracting(SSVoucherRowSum::getResultUnitNr).containsExactlyInAnyOrder("R1", "R2");
+        assertThat(indexed.getProjectSums("P1", LocalDate.of(2024, 2, 1), null))
+                .extracting(SSVoucherRowSum::getCredit).usingElementComparator(BigDecimal::compareTo)
+                .containsExactly(new BigDecimal("40"));
+        assertThat(indexed.getResultUnitSums("R1", null, null))
+                .extracting(SSVoucherRowSum::getAccountNr).containsExactlyInAnyOrder(3010, 4010);
+        assertThat(indexed.getProjectSums("P3", null, null)).isEmpty();
+    }
+
+    private static SSVoucherRowSum sum(int account, String project, LocalDate date, String debet, String credit) {
+        return sum(account, project, null, date, debet, credit);
+    }
+
+    private static SSVoucherRowSum sum(int account, String project, String resultUnit, LocalDate date, String debet, String credit) {
+        return new SSVoucherRowSum(account, project, resultUnit, date, new BigDecimal(debet), new BigDecimal(credit));
+    }
+
+    private static SSVoucherRowSum find(List<SSVoucherRowSum> sums, int account, String project) {
+        for (SSVoucherRowSum sum : sums) {
+            if (sum.getAccountNr() == account
+                    && (project == null ? sum.getProjectNr() == null : project.equals(sum.getProjectNr()))) {
+                return sum;
+            }
+        }
+        return null;
+    }
+}
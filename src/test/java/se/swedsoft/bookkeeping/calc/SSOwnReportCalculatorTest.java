@@ -0,0 +1,131 @@
+package se.swedsoft.bookkeeping.calc;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import se.swedsoft.bookkeeping.data.SSAccount;
+import se.swedsoft.bookkeeping.data.SSNewAccountingYear;
+import se.swedsoft.bookkeeping.data.SSOwnReport;
+import se.swedsoft.bookkeeping.data.SSVoucher;
+import se.swedsoft.bookkeeping.data.SSVoucherRow;
+import se.swedsoft.bookkeeping.data.system.SSDB;
+import se.swedsoft.bookkeeping.data.system.SSDBTestFixture;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Integration tests for {@link SSOwnReportCalculator}.
+ */
+@Tag("integration")
+class SSOwnReportCalculatorTest {
+
+    @BeforeAll
+    static void setUpDatabase() throws Exception {
+        SSDBTestFixture.setupOnce();
+    }
+
+    @BeforeEach
+    void resetCaches() {
+        SSDBTestFixture.resetCaches();
+    }
+
+    @AfterEach
+    void checkBackgroundThreads() {
+        SSDBTestFixture.drainUncaughtExceptions();
+    }
+
+    @Test
+    void parallelResultEqualsSequentialResult() {
+        SSDB db = SSDB.getInstance();
+        SSNewAccountingYear current = db.getCurrentYear();
+        SSNewAccountingYear extra = new SSNewAccountingYear();
+
+        extra.setLocalFrom(LocalDate.of(2031, 1, 1));
+        extra.setLocalTo(LocalDate.of(2031, 12, 31));
+        db.addAccountingYear(extra);
+
+        // An account without rows, so its change is only that of the vouchers below
+        Map<SSAccount, BigDecimal> before = calculate(1);
+        int account = db.getAccounts().stream()
+                .map(SSAccount::getNumber)
+                .filter(number -> number >= 3000 && number < 4000)
+                .filter(number -> !before.containsKey(account(number)))
+                .sorted()
+                .findFirst()
+                .orElseThrow();
+
+        SSVoucher v = new SSVoucher(95_001);
+
+        v.setLocalDate(current.getLocalFrom());
+        v.getRows().add(row(account, null, new BigDecimal("250.00")));
+        v.getRows().add(row(1930, new BigDecimal("250.00"), null));
+        db.addVoucher(v, true);
+
+        SSVoucher other = new SSVoucher(95_002);
+
+        other.setLocalDate(LocalDate.of(2031, 6, 30));
+        other.getRows().add(row(account, null, new BigDecimal("75.00")));
+        other.getRows().add(row(1930, new BigDecimal("75.00"), null));
+        db.setCurrentYear(getYear(db, extra));
+        db.addVoucher(other, true);
+        db.setCurrentYear(current);
+
+        try {
+            assertThat(db.getYears()).hasSizeGreaterThan(1);
+
+            Map<SSAccount, BigDecimal> sequential = calculate(1);
+            Map<SSAccount, BigDecimal> parallel = calculate(4);
+
+            assertThat(parallel.get(account(account))).isEqualTo(new BigDecimal("325.00"));
+            assertThat(parallel).isEqualTo(sequential);
+        } finally {
+            db.deleteVoucher(v);
+            SSNewAccountingYear year = getYear(db, extra);
+
+            if (year != null) {
+                db.setCurrentYear(year);
+                db.deleteVoucher(other);
+                db.setCurrentYear(current);
+                db.deleteAccountingYear(year);
+            }
+        }
+    }
+
+    private static SSNewAccountingYear getYear(SSDB db, SSNewAccountingYear added) {
+        for (SSNewAccountingYear year : db.getYears()) {
+            if (added.getLocalFrom().equals(year.getLocalFrom())) {
+                return year;
+            }
+        }
+        return null;
+    }
+
+    private static Map<SSAccount, BigDecimal> calculate(int threads) {
+        SSOwnReportCalculator calculator = new SSOwnReportCalculator(LocalDate.of(2000, 1, 1),
+                LocalDate.of(2099, 12, 31), new SSOwnReport(), null, null, threads);
+
+        calculator.calculate();
+        return calculator.getChangePeriod();
+    }
+
+    private static SSAccount account(int number) {
+        SSAccount account = new SSAccount();
+
+        account.setNumber(number);
+        return account;
+    }
+
+    private static SSVoucherRow row(int accountNumber, BigDecimal debet, BigDecimal credit) {
+        SSVoucherRow row = new SSVoucherRow();
+        row.setAccount(account(accountNumber));
+        row.setDebet(debet);
+        row.setCredit(credit);
+        return row;
+    }
+}
@@ -0,0 +1,124 @@
+package se.swedsoft.bookkeeping.calc.math;
+
+import org.junit.jupiter.api.Test;
+import se.swedsoft.bookkeeping.data.SSInvoice;
+
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link SSInvoiceGroups}.
+ */
+class SSInvoiceGroupsTest {
+
+    private final Map<Integer, BigDecimal> saldos = new HashMap<>();
+
+    @Test
+    void invoicesAreGroupedByCustomerInListOrder() {
+        SSInvoice first = invoice(1, "A", null);
+        SSInvoice second = invoice(2, "B", null);
+        SSInvoice third = invoice(3, "A", null);
+
+        SSInvoiceGroups<SSInvoice> groups = groups(List.of("A", "B", "C"), List.of(first, second, third));
+
+        assertThat(groups.getGroups().get("A")).containsExactly(first, third);
+        assertThat(groups.getGroups().get("B")).containsExactly(second);
+        assertThat(groups.getGroups().get("C")).isEmpty();
+    }
+
+    @Test
+    void changedInvoiceKeepsItsPlace() {
+        SSInvoiceGroups<SSInvoice> groups = groups(List.of("A"), List.of(invoice(1, "A", null), invoice(2, "A", null)));
+        SSInvoice changed = invoice(1, "A", null);
+
+        groups.set(changed);
+
+        assertThat(groups.getGroups().get("A")).hasSize(2);
+        assertThat(groups.getGroups().get("A").get(0)).isSameAs(changed);
+    }
+
+    @Test
+    void changedCustomerMovesTheInvoice() {
+        SSInvoiceGroups<SSInvoice> groups = groups(List.of("A", "B"), List.of(invoice(1, "A", null)));
+        SSInvoice moved = invoice(1, "B", null);
+
+        groups.set(moved);
+
+        assertThat(groups.getGroups().get("A")).isEmpty();
+        assertThat(groups.getGroups().get("B")).containsExactly(moved);
+    }
+
+    @Test
+    void deletedInvoiceIsRemoved() {
+        SSInvoiceGroups<SSInvoice> groups = groups(List.of("A"), List.of(invoice(1, "A", null)));
+
+        groups.remove(1);
+        groups.remove(2);
+
+        assertThat(groups.getGroups().get("A")).isEmpty();
+    }
+
+    @Test
+    void claimIsTheSaldoInLocalCurrency() {
+        saldos.put(1, new BigDecimal("100.00"));
+        saldos.put(2, new BigDecimal("10.00"));
+
+        SSInvoiceGroups<SSInvoice> groups = groups(List.of("A"),
+                List.of(invoice(1, "A", null), invoice(2, "A", new BigDecimal("9.5")), invoice(3, "A", null)));
+
+        assertThat(groups.getClaim("A")).isEqualByComparingTo("195.00");
+        assertThat(groups.getClaim("X")).isEqualByComparingTo("0");
+    }
+
+    @Test
+    void claimIsSummedAgainWhenASaldoChanges() {
+        saldos.put(1, new BigDecimal("100.00"));
+
+        SSInvoiceGroups<SSInvoice> groups = groups(List.of("A"), List.of(invoice(1, "A", null)));
+
+        assertThat(groups.getClaim("A")).isEqualByComparingTo("100.00");
+
+        saldos.put(1, new BigDecimal("40.00"));
+        assertThat(groups.getClaim("A")).isEqualByComparingTo("100.00");
+
+        groups.saldoChanged(1);
+        assertThat(groups.getClaim("A")).isEqualByComparingTo("40.00");
+
+        saldos.put(2, new BigDecimal("5.00"));
+        groups.set(invoice(2, "A", null));
+        assertThat(groups.getClaim("A")).isEqualByComparingTo("45.00");
+    }
+
+    @Test
+    void claimsFollowTheLedger() {
+        SSInvoiceGroups<SSInvoice> groups = groups(List.of("A"), List.of(invoice(1, "A", null)));
+        SSSaldoLedger ledger = new SSSaldoLedger(saldos, groups::saldoChanged);
+
+        ledger.setInvoice(1, new BigDecimal("100.00"));
+        assertThat(groups.getClaim("A")).isEqualByComparingTo("100.00");
+
+        ledger.setPayment(10, null, Map.of(1, new BigDecimal("30.00")));
+        assertThat(groups.getClaim("A")).isEqualByComparingTo("70.00");
+
+        ledger.removeInvoice(1);
+        assertThat(groups.getClaim("A")).isEqualByComparingTo("0");
+    }
+
+    private SSInvoiceGroups<SSInvoice> groups(List<String> customers, List<SSInvoice> invoices) {
+        return new SSInvoiceGroups<>(customers, invoices, SSInvoice::getNumber, SSInvoice::getCustomerNr,
+                saldos::get, SSInvoiceMath::convertToLocal);
+    }
+
+    private static SSInvoice invoice(int number, String customerNr, BigDecimal currencyRate) {
+        SSInvoice invoice = new SSInvoice();
+
+        invoice.setNumber(number);
+        invoice.setCustomerNr(customerNr);
+        invoice.setCurrencyRate(currencyRate);
+        return invoice;
+    }
+}
@@ -0,0 +1,69 @@
+package se.swedsoft.bookkeeping.calc.math;
+
+import org.junit.jupiter.api.Test;
+import se.swedsoft.bookkeeping.data.SSInvoice;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link SSInvoiceReferenceIndex}.
+ */
+class SSInvoiceReferenceIndexTest {
+
+    @Test
+    void findsInvoiceByOcrAndNumber() {
+        SSInvoice invoice = invoice(17, "1234567");
+        SSInvoiceReferenceIndex index = new SSInvoiceReferenceIndex(List.of(invoice(1, null), invoice));
+
+        assertThat(index.get("1234567")).containsSame(invoice);
+        assertThat(index.get("17")).containsSame(invoice);
+        assertThat(index.get("99")).isEmpty();
+        assertThat(index.get(null)).isEmpty();
+    }
+
+    @Test
+    void changedOcrNumberReplacesTheOldReference() {
+        SSInvoiceReferenceIndex index = new SSInvoiceReferenceIndex(List.of(invoice(1, "1000")));
+        SSInvoice changed = invoice(1, "2000");
+
+        index.add(changed);
+
+        assertThat(index.get("1000")).isEmpty();
+        assertThat(index.get("2000")).containsSame(changed);
+    }
+
+    @Test
+    void deletedInvoiceIsNotFound() {
+        SSInvoiceReferenceIndex index = new SSInvoiceReferenceIndex(List.of(invoice(1, "1000")));
+
+        index.remove(1);
+
+        assertThat(index.get("1000")).isEmpty();
+        assertThat(index.get("1")).isEmpty();
+    }
+
+    @Test
+    void sharedReferenceGivesTheFirstInvoiceInTheList() {
+        List<SSInvoice> invoices = new ArrayList<>();
+        SSInvoice first = invoice(5, null);
+
+        invoices.add(first);
+        invoices.add(invoice(6, "5"));
+
+        SSInvoiceReferenceIndex index = new SSInvoiceReferenceIndex(invoices);
+
+        assertThat(index.get("5")).containsSame(first);
+        assertThat(SSInvoiceMath.getInvoiceByReference(invoices, "5")).containsSame(first);
+    }
+
+    private static SSInvoice invoice(int number, String ocr) {
+        SSInvoice invoice = new SSInvoice();
+
+        invoice.setNumber(number);
+        invoice.setOCRNumber(ocr);
+        return invoice;
+    }
+}
@@ -0,0 +1,146 @@
+package se.swedsoft.bookkeeping.calc.math;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link SSSaldoLedger}.
+ */
+class SSSaldoLedgerTest {
+
+    @Test
+    void paymentsAndCreditsReduceTheSaldo() {
+        Map<Integer, BigDecimal> saldos = new HashMap<>();
+        SSSaldoLedger ledger = new SSSaldoLedger(saldos);
+
+        ledger.setInvoice(1, new BigDecimal("1000.00"));
+        ledger.setPayment(10, null, Map.of(1, new BigDecimal("300.00")));
+        ledger.setCredit(20, null, 1, new BigDecimal("200.00"));
+
+        assertThat(saldos.get(1)).isEqualByComparingTo("500.00");
+    }
+
+    @Test
+    void changedPaymentReplacesTheOldAmounts() {
+        Map<Integer, BigDecimal> saldos = new HashMap<>();
+        SSSaldoLedger ledger = new SSSaldoLedger(saldos);
+
+        ledger.setInvoice(1, new BigDecimal("1000.00"));
+        ledger.setInvoice(2, new BigDecimal("500.00"));
+        ledger.setPayment(10, null, Map.of(1, new BigDecimal("300.00")));
+        ledger.setPayment(10, null, Map.of(2, new BigDecimal("100.00")));
+
+        assertThat(saldos.get(1)).isEqualByComparingTo("1000.00");
+        assertThat(saldos.get(2)).isEqualByComparingTo("400.00");
+    }
+
+    @Test
+    void deletedDocumentsOnlyNeedTheirNumber() {
+        Map<Integer, BigDecimal> saldos = new HashMap<>();
+        SSSaldoLedger ledger = new SSSaldoLedger(saldos);
+
+        ledger.setInvoice(1, new BigDecimal("1000.00"));
+        ledger.setPayment(10, null, Map.of(1, new BigDecimal("300.00")));
+        ledger.setCredit(20, null, 1, new BigDecimal("200.00"));
+        ledger.removePayment(10);
+        ledger.removeCredit(20);
+
+        assertThat(saldos.get(1)).isEqualByComparingTo("1000.00");
+    }
+
+    @Test
+    void paymentBeforeItsInvoiceIsCounted() {
+        Map<Integer, BigDecimal> saldos = new HashMap<>();
+        SSSaldoLedger ledger = new SSSaldoLedger(saldos);
+
+        ledger.setPayment(10, null, Map.of(1, new BigDecimal("300.00")));
+
+        assertThat(saldos).doesNotContainKey(1);
+
+        ledger.setInvoice(1, new BigDecimal("1000.00"));
+
+        assertThat(saldos.get(1)).isEqualByComparingTo("700.00");
+    }
+
+    @Test
+    void invoiceWithoutTotalHasNoSaldo() {
+        Map<Integer, BigDecimal> saldos = new HashMap<>();
+        SSSaldoLedger ledger = new SSSaldoLedger(saldos);
+
+        ledger.setInvoice(1, new BigDecimal("1000.00"));
+        ledger.setInvoice(1, null);
+
+        assertThat(saldos).isEmpty();
+    }
+
+    @Test
+    void compareReportsDifferences() {
+        Map<Integer, BigDecimal> saldos = new HashMap<>();
+        SSSaldoLedger ledger = new SSSaldoLedger(saldos);
+
+        ledger.setInvoice(1, new BigDecimal("1000.00"));
+        ledger.setInvoice(2, new BigDecimal("500.00"));
+        ledger.setInvoice(3, new BigDecimal("100.00"));
+
+        Map<Integer, BigDecimal> expected = new HashMap<>();
+
+        expected.put(1, new BigDecimal("1000"));
+        expected.put(2, new BigDecimal("400.00"));
+
+        Map<Integer, BigDecimal> differences = ledger.compare(expected);
+
+        assertThat(differences).containsOnlyKeys(2, 3);
+        assertThat(differences.get(2)).isEqualByComparingTo("400.00");
+        assertThat(differences.get(3)).isNull();
+    }
+
+    @Test
+    void paidAndCreditedAsOfDate() {
+        SSSaldoLedger ledger = new SSSaldoLedger(new HashMap<>());
+
+        ledger.setInvoice(1, new BigDecimal("1000.00"));
+        ledger.setPayment(10, LocalDate.of(2024, 3, 1), Map.of(1, new BigDecimal("100.00")));
+        ledger.setPayment(11, LocalDate.of(2024, 1, 15), Map.of(1, new BigDecimal("200.00")));
+        ledger.setPayment(12, LocalDate.of(2024, 3, 1), Map.of(1, new BigDecimal("50.00")));
+        ledger.setCredit(20, LocalDate.of(2024, 2, 1), 1, new BigDecimal("300.00"));
+
+        assertThat(ledger.getPaid(1, LocalDate.of(2024, 1, 14))).isNull();
+        assertThat(ledger.getPaid(1, LocalDate.of(2024, 1, 15))).isEqualByComparingTo("200.00");
+        assertThat(ledger.getPaid(1, LocalDate.of(2024, 2, 28))).isEqualByComparingTo("200.00");
+        assertThat(ledger.getPaid(1, LocalDate.of(2024, 3, 1))).isEqualByComparingTo("350.00");
+        assertThat(ledger.getCredited(1, LocalDate.of(2024, 1, 31))).isNull();
+        assertThat(ledger.getCredited(LocalDate.of(2024, 12, 31))).containsOnlyKeys(1);
+    }
+
+    @Test
+    void asOfSumsFollowChanges() {
+        SSSaldoLedger ledger = new SSSaldoLedger(new HashMap<>());
+
+        ledger.setPayment(10, LocalDate.of(2024, 3, 1), Map.of(1, new BigDecimal("100.00")));
+        assertThat(ledger.getPaid(1, LocalDate.of(2024, 3, 1))).isEqualByComparingTo("100.00");
+
+        ledger.setPayment(10, LocalDate.of(2024, 4, 1), Map.of(1, new BigDecimal("100.00")));
+        assertThat(ledger.getPaid(1, LocalDate.of(2024, 3, 1))).isNull();
+
+        ledger.removePayment(10);
+        assertThat(ledger.getPaid(LocalDate.of(2024, 12, 31))).isEmpty();
+    }
+
+    @Test
+    void undatedPaymentsOnlyCountInTheSaldo() {
+        Map<Integer, BigDecimal> saldos = new HashMap<>();
+        SSSaldoLedger ledger = new SSSaldoLedger(saldos);
+
+        ledger.setInvoice(1, new BigDecimal("1000.00"));
+        ledger.setPayment(10, null, Map.of(1, new BigDecimal("100.00")));
+
+        assertThat(saldos.get(1)).isEqualByComparingTo("900.00");
+        assertThat(ledger.getPaid(1, LocalDate.of(2024, 12, 31))).isNull();
+    }
+}
@@ -0,0 +1,127 @@
+package se.swedsoft.bookkeeping.calc.math;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link SSStockLedger}.
+ */
+class SSStockLedgerTest {
+
+    @Test
+    void documentsBookTheirColumn() {
+        SSStockLedger ledger = new SSStockLedger();
+
+        ledger.setDocument("SUPPLIERINVOICE", 1, null, SSStockLedger.QUANTITY, Map.of("A", 10));
+        ledger.setDocument("INVOICE", 1, null, SSStockLedger.QUANTITY, Map.of("A", -3));
+        ledger.setDocument("ORDER", 1, null, SSStockLedger.RESERVED, Map.of("A", 2));
+        ledger.setDocument("PURCHASEORDER", 1, null, SSStockLedger.ORDERED, Map.of("A", 5, "B", 1));
+
+        assertThat(ledger.getQuantity("A")).isEqualTo(7);
+        assertThat(ledger.getReserved("A")).isEqualTo(2);
+        assertThat(ledger.getOrdered("A")).isEqualTo(5);
+        assertThat(ledger.getOrdered("B")).isEqualTo(1);
+        assertThat(ledger.getQuantity("C")).isZero();
+    }
+
+    @Test
+    void changedDocumentReplacesTheOldCounts() {
+        SSStockLedger ledger = new SSStockLedger();
+
+        ledger.setDocument("INVOICE", 1, null, SSStockLedger.QUANTITY, Map.of("A", -3));
+        ledger.setDocument("INVOICE", 1, null, SSStockLedger.QUANTITY, Map.of("B", -4));
+
+        assertThat(ledger.getQuantity("A")).isZero();
+        assertThat(ledger.getQuantity("B")).isEqualTo(-4);
+    }
+
+    @Test
+    void deletedDocumentIsTakenBack() {
+        SSStockLedger ledger = new SSStockLedger();
+
+        ledger.setDocument("ORDER", 1, null, SSStockLedger.RESERVED, Map.of("A", 2));
+        ledger.setDocument("ORDER", 2, null, SSStockLedger.RESERVED, Map.of("A", 3));
+        ledger.removeDocument("ORDER", 1);
+        ledger.removeDocument("INVOICE", 2);
+
+        assertThat(ledger.getReserved("A")).isEqualTo(3);
+    }
+
+    @Test
+    void sameNumberInAnotherRegisterIsAnotherDocument() {
+        SSStockLedger ledger = new SSStockLedger();
+
+        ledger.setDocument("INDELIVERY", 1, null, SSStockLedger.QUANTITY, Map.of("A", 5));
+        ledger.setDocument("OUTDELIVERY", 1, null, SSStockLedger.QUANTITY, Map.of("A", -2));
+
+        assertThat(ledger.getQuantity("A")).isEqualTo(3);
+    }
+
+    @Test
+    void compareReturnsTheProductsThatDiffer() {
+        SSStockLedger ledger = new SSStockLedger();
+
+        ledger.setDocument("INVENTORY", 1, null, SSStockLedger.QUANTITY, Map.of("A", 5, "B", 1));
+
+        Map<String, int[]> differences = ledger.compare(Map.of(
+                "A", new int[] {5, 0, 0},
+                "B", new int[] {2, 0, 0},
+                "C", new int[] {0, 0, 0}));
+
+        assertThat(differences).containsOnlyKeys("B");
+    }
+
+    @Test
+    void stockAtADateCountsTheDocumentsUpToTheDate() {
+        SSStockLedger ledger = new SSStockLedger();
+
+        ledger.setDocument("INDELIVERY", 1, LocalDate.of(2024, 1, 10), SSStockLedger.QUANTITY, Map.of("A", 10));
+        ledger.setDocument("INVOICE", 1, LocalDate.of(2024, 2, 5), SSStockLedger.QUANTITY, Map.of("A", -4));
+        ledger.setDocument("ORDER", 1, LocalDate.of(2024, 2, 5), SSStockLedger.RESERVED, Map.of("A", 3));
+        ledger.setDocument("OUTDELIVERY", 1, null, SSStockLedger.QUANTITY, Map.of("A", -1));
+
+        assertThat(ledger.getStock("A", LocalDate.of(2024, 1, 9))).containsExactly(0, 0, 0);
+        assertThat(ledger.getStock("A", LocalDate.of(2024, 1, 10))).containsExactly(10, 0, 0);
+        assertThat(ledger.getStock("A", LocalDate.of(2024, 12, 31))).containsExactly(6, 3, 0);
+        assertThat(ledger.getStock("A", LocalDate.of(2024, 2, 1), LocalDate.of(2024, 2, 5))).containsExactly(-4, 3, 0);
+        assertThat(ledger.getStock("A", null)).containsExactly(0, 0, 0);
+        assertThat(ledger.getQuantity("A")).isEqualTo(5);
+    }
+
+    @Test
+    void changedDateMovesTheDocument() {
+        SSStockLedger ledger = new SSStockLedger();
+
+        ledger.setDocument("INDELIVERY", 1, LocalDate.of(2024, 1, 10), SSStockLedger.QUANTITY, Map.of("A", 10));
+        assertThat(ledger.getStock("A", LocalDate.of(2024, 1, 31))).containsExactly(10, 0, 0);
+
+        ledger.setDocument("INDELIVERY", 1, LocalDate.of(2024, 3, 1), SSStockLedger.QUANTITY, Map.of("A", 10));
+        assertThat(ledger.getStock("A", LocalDate.of(2024, 1, 31))).containsExactly(0, 0, 0);
+
+        ledger.removeDocument("INDELIVERY", 1);
+        assertThat(ledger.getStock("A", LocalDate.of(2024, 12, 31))).containsExactly(0, 0, 0);
+    }
+
+    @Test
+    void inpriceIsTheLatestSupplierInvoiceUpToTheDate() {
+        SSStockLedger ledger = new SSStockLedger();
+
+        ledger.setDocument("SUPPLIERINVOICE", 1, LocalDate.of(2024, 1, 10), SSStockLedger.QUANTITY, Map.of(),
+                Map.of("A", new BigDecimal("10.00")));
+        ledger.setDocument("SUPPLIERINVOICE", 3, LocalDate.of(2024, 3, 1), SSStockLedger.QUANTITY, Map.of(),
+                Map.of("A", new BigDecimal("14.00")));
+        ledger.setDocument("SUPPLIERINVOICE", 2, LocalDate.of(2024, 3, 1), SSStockLedger.QUANTITY, Map.of(),
+                Map.of("A", new BigDecimal("12.00")));
+
+        assertThat(ledger.getInprice("A", LocalDate.of(2024, 1, 9))).isNull();
+        assertThat(ledger.getInprice("A", LocalDate.of(2024, 2, 1))).isEqualByComparingTo("10.00");
+        assertThat(ledger.getInprice("A", LocalDate.of(2024, 3, 1))).isEqualByComparingTo("12.00");
+        assertThat(ledger.getInprice("A", null)).isEqualByComparingTo("12.00");
+        assertThat(ledger.getInprice("B", null)).isNull();
+    }
+}
@@ -0,0 +1,76 @@
+package se.swedsoft.bookkeeping.calc.math;
+
+import org.junit.jupiter.api.Test;
+import se.swedsoft.bookkeeping.data.SSAccount;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link SSVATCodeSums}.
+ */
+class SSVATCodeSumsTest {
+
+    private static SSAccount account(int pNumber, String pVATCode) {
+        SSAccount iAccount = new SSAccount(pNumber);
+
+        iAccount.setVATCode(pVATCode);
+        return iAccount;
+    }
+
+    private final SSAccount iU1 = account(2611, "U1");
+    private final SSAccount iU1b = account(2612, "U1");
+    private final SSAccount iUVL = account(2614, "UVL");
+    private final SSAccount iI = account(2641, "I");
+    private final SSAccount iNone = account(1930, null);
+
+    private final Map<String, List<SSAccount>> iAccountsPerVATCode =
+            SSAccountMath.getAccountsPerVATCode(List.of(iU1, iU1b, iUVL, iI, iNone));
+
+    private final Map<SSAccount, BigDecimal> iSums = Map.of(
+            iU1, new BigDecimal("100.75"),
+            iU1b, new BigDecimal("50.50"),
+            iUVL, new BigDecimal("10.00"),
+            iNone, new BigDecimal("999.00"));
+
+    @Test
+    void accountsAreGroupedByVATCode() {
+        assertThat(iAccountsPerVATCode.get("U1")).containsExactly(iU1, iU1b);
+        assertThat(iAccountsPerVATCode.get(null)).containsExactly(iNone);
+    }
+
+    @Test
+    void sumAddsTheAccountsOfEveryCode() {
+        SSVATCodeSums iVATSums = new SSVATCodeSums(iAccountsPerVATCode, iSums, false);
+
+        assertThat(iVATSums.getSum("U1")).isEqualByComparingTo("151.25");
+        assertThat(iVATSums.getSum("U1", "UVL")).isEqualByComparingTo("161.25");
+        assertThat(iVATSums.getSum("I")).isEqualByComparingTo("0");
+        assertThat(iVATSums.getSum("MP1")).isEqualByComparingTo("0");
+    }
+
+    @Test
+    void sumMatchesTheScanOverAllAccounts() {
+        SSVATCodeSums iVATSums = new SSVATCodeSums(iAccountsPerVATCode, iSums, false);
+
+        assertThat(iVATSums.getSum("U1", "UVL", "I"))
+                .isEqualByComparingTo(SSAccountMath.getSumByVATCodeForAccounts(iSums, "U1", "UVL", "I"));
+    }
+
+    @Test
+    void roundDownRoundsEveryAccountBeforeItIsAdded() {
+        SSVATCodeSums iVATSums = new SSVATCodeSums(iAccountsPerVATCode, iSums, true);
+
+        assertThat(iVATSums.getSum("U1")).isEqualByComparingTo("150");
+    }
+
+    @Test
+    void negateChangesTheSign() {
+        SSVATCodeSums iVATSums = new SSVATCodeSums(iAccountsPerVATCode, iSums, false).negate();
+
+        assertThat(iVATSums.getSum("U1", "UVL")).isEqualByComparingTo("-161.25");
+    }
+}
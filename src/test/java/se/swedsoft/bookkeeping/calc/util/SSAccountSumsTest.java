@@ -0,0 +1,80 @@
+package se.swedsoft.bookkeeping.calc.util;
+
+import org.junit.jupiter.api.Test;
+import se.swedsoft.bookkeeping.data.SSAccount;
+
+import java.math.BigDecimal;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link SSAccountSums}.
+ */
+class SSAccountSumsTest {
+
+    @Test
+    void sumsWholeOreAsCents() {
+        SSAccountSums sums = new SSAccountSums();
+
+        sums.add(1930, new BigDecimal("100.50"));
+        sums.add(1930, new BigDecimal("-0.5"));
+        sums.subtract(1930, new BigDecimal("25"));
+
+        assertThat(sums.get(1930)).isEqualByComparingTo("75.00");
+        assertThat(sums.get(1931)).isNull();
+    }
+
+    @Test
+    void fractionsOfAnOreAreKeptExact() {
+        SSAccountSums sums = new SSAccountSums();
+
+        sums.add(2640, new BigDecimal("10.00"));
+        sums.add(2640, new BigDecimal("0.125"));
+        sums.add(2640, new BigDecimal("1.00"));
+
+        assertThat(sums.get(2640)).isEqualByComparingTo("11.125");
+    }
+
+    @Test
+    void overflowFallsBackToBigDecimal() {
+        SSAccountSums sums = new SSAccountSums();
+
+        sums.add(3010, Long.MAX_VALUE);
+        sums.add(3010, 1L);
+        sums.add(3010, new BigDecimal("0.01"));
+
+        assertThat(sums.get(3010))
+                .isEqualByComparingTo(BigDecimal.valueOf(Long.MAX_VALUE, 2).add(new BigDecimal("0.02")));
+    }
+
+    @Test
+    void largeAccountNumbersAreSummed() {
+        SSAccountSums sums = new SSAccountSums();
+
+        sums.add(SSAccountSums.MAX_INDEX + 5, new BigDecimal("3"));
+        sums.add(-1, new BigDecimal("4"));
+        sums.add(SSAccountSums.MAX_INDEX + 5, new BigDecimal("3"));
+
+        assertThat(sums.get(SSAccountSums.MAX_INDEX + 5)).isEqualByComparingTo("6");
+        assertThat(sums.get(-1)).isEqualByComparingTo("4");
+    }
+
+    @Test
+    void toMapReturnsTheAddedAccounts() {
+        SSAccountSums sums = new SSAccountSums();
+        SSAccount cash = new SSAccount(1910);
+        SSAccount bank = new SSAccount(50000);
+
+        sums.add(cash, new BigDecimal("12.00"));
+        sums.subtract(bank, new BigDecimal("8.00"));
+        sums.add(cash, null);
+
+        Map<SSAccount, BigDecimal> map = sums.toMap();
+
+        assertThat(map).hasSize(2);
+        assertThat(map.get(cash)).isEqualByComparingTo("12");
+        assertThat(map.get(bank)).isEqualByComparingTo("-8");
+        assertThat(sums.toMap(Map.of(1910, cash))).containsOnlyKeys(cash);
+    }
+}
@@ -2,7 +2,10 @@ package se.swedsoft.bookkeeping.data;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import se.swedsoft.bookkeeping.data.base.SSSaleRow;
+import se.swedsoft.bookkeeping.data.base.SSSaleSums;
 import se.swedsoft.bookkeeping.data.common.SSInvoiceType;
+import se.swedsoft.bookkeeping.data.common.SSTaxCode;
 import java.math.BigDecimal;
 import java.time.LocalDate;
 
@@ -313,4 +316,49 @@ class SSInvoiceTest {
 
         assertThat(invoice.equals("not an invoice")).isFalse();
     }
+
+    // ---- getSums ----
+
+    @Test
+    void sumsIncludeTaxAndRounding() {
+        invoice.getRows().add(row("100.40", 1, SSTaxCode.TAXRATE_1));
+        invoice.getRows().add(row("50.00", 2, SSTaxCode.TAXRATE_3));
+
+        SSSaleSums sums = invoice.getSums();
+
+        assertThat(sums.getNetSum()).isEqualByComparingTo("200.40");
+        assertThat(sums.getTaxSum().get(SSTaxCode.TAXRATE_1)).isEqualByComparingTo("25.10");
+        assertThat(sums.getTaxSum().get(SSTaxCode.TAXRATE_3)).isEqualByComparingTo("6.00");
+        assertThat(sums.getTotalSum()).isEqualByComparingTo("232");
+        assertThat(sums.getRounding()).isEqualByComparingTo("0.50");
+    }
+
+    @Test
+    void sumsAreKeptUntilTheSaleChanges() {
+        SSSaleRow row = row("100", 1, SSTaxCode.TAXRATE_1);
+        invoice.getRows().add(row);
+
+        SSSaleSums sums = invoice.getSums();
+        assertThat(invoice.getSums()).isSameAs(sums);
+
+        row.setQuantity(2);
+        assertThat(invoice.getSums().getNetSum()).isEqualByComparingTo("200");
+
+        invoice.getRows().add(row("10", 1, SSTaxCode.TAXRATE_1));
+        assertThat(invoice.getSums().getNetSum()).isEqualByComparingTo("210");
+
+        invoice.getRows().remove(0);
+        assertThat(invoice.getSums().getNetSum()).isEqualByComparingTo("10");
+
+        invoice.setTaxFree(true);
+        assertThat(invoice.getSums().getTotalSum()).isEqualByComparingTo("10");
+    }
+
+    private static SSSaleRow row(String unitPrice, int quantity, SSTaxCode taxCode) {
+        SSSaleRow row = new SSSaleRow();
+        row.setUnitprice(new BigDecimal(unitPrice));
+        row.setQuantity(quantity);
+        row.setTaxCode(taxCode);
+        return row;
+    }
 }
@@ -0,0 +1,134 @@
+package se.swedsoft.bookkeeping.data.system;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import se.swedsoft.bookkeeping.data.SSCustomer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Integration tests for {@link SSDBBatch}.
+ */
+@Tag("integration")
+class SSDBBatchTest {
+
+    @BeforeAll
+    static void setUpDatabase() throws Exception {
+        SSDBTestFixture.setupOnce();
+    }
+
+    @BeforeEach
+    void resetCaches() {
+        SSDBTestFixture.resetCaches();
+    }
+
+    @AfterEach
+    void checkBackgroundThreads() {
+        SSDBTestFixture.drainUncaughtExceptions();
+    }
+
+    @Test
+    void closedBatchIsCommittedAndReadAgain() {
+        SSDB db = SSDB.getInstance();
+
+        db.getCustomers();
+
+        SSDBBatch batch = db.beginBatch("test");
+
+        try (batch) {
+            for (int i = 0; i < 20; i++) {
+                db.addCustomer(customer("C-BATCH-" + i));
+            }
+        }
+
+        try {
+            assertThat(db.getBatch()).isNull();
+            assertThat(batch.isFailed()).isFalse();
+            assertThat(batch.getTime()).isPositive();
+            assertThat(db.getCustomers()).extracting(SSCustomer::getNumber)
+                    .contains("C-BATCH-0", "C-BATCH-19");
+            assertThat(db.getCustomers()).filteredOn(c -> "C-BATCH-0".equals(c.getNumber()))
+                    .hasSize(1);
+        } finally {
+            for (int i = 0; i < 20; i++) {
+                db.deleteCustomer(customer("C-BATCH-" + i));
+            }
+        }
+    }
+
+    @Test
+    void failedBatchIsRolledBack() {
+        SSDB db = SSDB.getInstance();
+
+        try (SSDBBatch batch = db.beginBatch("test")) {
+            db.addCustomer(customer("C-BATCH-FAIL"));
+            batch.setFailed();
+        }
+
+        assertThat(db.getCustomer("C-BATCH-FAIL")).isEmpty();
+    }
+
+    @Test
+    void writeOfAnotherThreadIsNotPartOfTheBatch() throws Exception {
+        SSDB db = SSDB.getInstance();
+
+        db.getCustomers();
+
+        try (SSDBBatch batch = db.beginBatch("test")) {
+            db.addCustomer(customer("C-BATCH-FAIL"));
+
+            Thread other = new Thread(() -> {
+                assertThat(db.getBatch()).isNull();
+                db.addCustomer(customer("C-BATCH-OTHER"));
+            });
+
+            other.start();
+            other.join();
+            batch.setFailed();
+        }
+
+        try {
+            assertThat(db.getCustomer("C-BATCH-FAIL")).isEmpty();
+            assertThat(db.getCustomer("C-BATCH-OTHER")).isPresent();
+            assertThat(db.getCustomers()).extracting(SSCustomer::getNumber)
+                    .contains("C-BATCH-OTHER")
+                    .doesNotContain("C-BATCH-FAIL");
+        } finally {
+            db.deleteCustomer(customer("C-BATCH-OTHER"));
+        }
+    }
+
+    @Test
+    void batchRemembersTheKeysAdded() {
+        try (SSDBBatch batch = SSDB.getInstance().beginBatch("test")) {
+            assertThat(batch.add("CUSTOMER", "C-BATCH-KEY")).isTrue();
+            assertThat(batch.add("CUSTOMER", "C-BATCH-KEY")).isFalse();
+            assertThat(batch.contains("CUSTOMER", "C-BATCH-KEY")).isTrue();
+            assertThat(batch.contains("SUPPLIER", "C-BATCH-KEY")).isFalse();
+        }
+    }
+
+    @Test
+    void nestedBatchJoinsTheOpenBatch() {
+        SSDB db = SSDB.getInstance();
+
+        try (SSDBBatch outer = db.beginBatch("outer")) {
+            try (SSDBBatch inner = db.beginBatch("inner")) {
+                assertThat(inner).isSameAs(outer);
+            }
+            assertThat(db.getBatch()).isSameAs(outer);
+        }
+        assertThat(db.getBatch()).isNull();
+    }
+
+    private static SSCustomer customer(String number) {
+        SSCustomer customer = new SSCustomer();
+
+        customer.setNumber(number);
+        customer.setName("Batch AB");
+        return customer;
+    }
+}
@@ -0,0 +1,187 @@
+package se.swedsoft.bookkeeping.data.system;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import se.swedsoft.bookkeeping.data.SSVoucher;
+import se.swedsoft.bookkeeping.data.SSVoucherRow;
+import se.swedsoft.bookkeeping.data.system.codec.SSEntityCodecs;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Startup load of the vouchers of a large company: the old per-page
+ * re-prepared query and per-object lookups against {@link SSDBBulkReader}.
+ *
+ * <p>Not run by surefire. Start it from the IDE through {@link #main(String[])}
+ * or with {@code mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=se.swedsoft.bookkeeping.data.system.SSDBBulkReadBenchmark}.</p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+public class SSDBBulkReadBenchmark {
+
+    private static final String PAGE_QUERY = "SELECT * FROM tbl_voucher WHERE yearid=? AND id>?";
+
+    @Param({ "20000", "200000" })
+    public int vouchers;
+
+    private Connection connection;
+
+    private SSDBConnection statements;
+
+    private List<SSVoucher> refresh;
+
+    @Setup
+    public void setUp() throws Exception {
+        Class.forName("org.hsqldb.jdbcDriver");
+        connection = DriverManager.getConnection("jdbc:hsqldb:mem:bokfri_bench_" + vouchers, "sa", "");
+        connection.setAutoCommit(false);
+        statements = new SSDBConnection(connection);
+
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("CREATE CACHED TABLE tbl_voucher(id INTEGER IDENTITY, number INTEGER,"
+                    + " voucher OBJECT, yearid INTEGER)");
+            statement.execute("CREATE INDEX idx_voucher_number ON tbl_voucher(number, yearid)");
+        }
+        refresh = new ArrayList<>();
+
+        try (PreparedStatement statement = connection.prepareStatement(
+                "INSERT INTO tbl_voucher VALUES(NULL,?,?,?)")) {
+            for (int i = 1; i <= vouchers; i++) {
+                SSVoucher voucher = voucher(i);
+
+                statement.setInt(1, i);
+                statement.setObject(2, SSEntityCodecs.encode(voucher));
+                statement.setInt(3, 1);
+                statement.executeUpdate();
+
+                if (i % 100 == 0) {
+                    refresh.add(voucher);
+                }
+            }
+        }
+        connection.commit();
+    }
+
+    @TearDown
+    public void tearDown() throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("SHUTDOWN");
+        }
+    }
+
+    @Benchmark
+    public List<SSVoucher> loadPreparedPerPage() throws SQLException {
+        List<SSVoucher> list = new LinkedList<>();
+        Integer max = -1;
+
+        while (true) {
+            PreparedStatement statement = connection.prepareStatement(PAGE_QUERY);
+
+            statement.setObject(1, 1);
+            statement.setObject(2, max);
+            statement.setMaxRows(1024);
+            ResultSet resultSet = statement.executeQuery();
+            int i = 0;
+
+            while (resultSet.next()) {
+                max = resultSet.getInt(1);
+                list.add(SSEntityCodecs.decode(resultSet.getObject(3), SSVoucher.class));
+                i++;
+            }
+            resultSet.close();
+            statement.close();
+            if (i != 1024) {
+                break;
+            }
+        }
+        return list;
+    }
+
+    @Benchmark
+    public List<SSVoucher> loadBulkReader() throws SQLException {
+        List<SSVoucher> list = new LinkedList<>();
+
+        SSDBBulkReader.forEach(statements, PAGE_QUERY + " ORDER BY id", 1,
+                resultSet -> SSEntityCodecs.decode(resultSet.getObject(3), SSVoucher.class), list::add);
+        return list;
+    }
+
+    @Benchmark
+    public List<SSVoucher> refreshPerObject() throws SQLException {
+        List<SSVoucher> list = new LinkedList<>();
+
+        for (SSVoucher voucher : refresh) {
+            PreparedStatement statement = connection.prepareStatement(
+                    "SELECT * FROM tbl_voucher WHERE number=? AND yearid=?");
+
+            statement.setObject(1, voucher.getNumber());
+            statement.setObject(2, 1);
+            ResultSet resultSet = statement.executeQuery();
+
+            if (resultSet.next()) {
+                list.add(SSEntityCodecs.decode(resultSet.getObject(3), SSVoucher.class));
+            }
+            statement.close();
+        }
+        return list;
+    }
+
+    @Benchmark
+    public List<SSVoucher> refreshInList() throws SQLException {
+        return SSDBBulkReader.readIn(statements,
+                "SELECT * FROM tbl_voucher WHERE number IN (%s) AND yearid=?", refresh, SSVoucher::getNumber, 1,
+                resultSet -> SSEntityCodecs.decode(resultSet.getObject(3), SSVoucher.class));
+    }
+
+    private static SSVoucher voucher(int number) {
+        SSVoucher voucher = new SSVoucher(number);
+
+        voucher.setLocalDate(LocalDate.of(2024, 1, 1).plusDays(number % 365));
+        voucher.setDescription("Voucher " + number);
+
+        for (int i = 0; i < 4; i++) {
+            SSVoucherRow row = new SSVoucherRow();
+
+            row.setAccountNr(1910 + i * 1000);
+            row.setDebet(i % 2 == 0 ? new BigDecimal("100.00") : null);
+            row.setCredit(i % 2 == 0 ? null : new BigDecimal("100.00"));
+            voucher.addVoucherRow(row);
+        }
+        return voucher;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(SSDBBulkReadBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,102 @@
+package se.swedsoft.bookkeeping.data.system;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Integration tests for {@link SSDBBulkReader} against a private in-memory
+ * HSQLDB table with more rows than one page and more keys than one IN list.
+ */
+@Tag("integration")
+class SSDBBulkReaderTest {
+
+    private static final int ROWS = SSDBBulkReader.PAGE_SIZE * 2 + 17;
+
+    private static Connection connection;
+
+    private static SSDBConnection statements;
+
+    @BeforeAll
+    static void createTable() throws Exception {
+        Class.forName("org.hsqldb.jdbcDriver");
+        connection = DriverManager.getConnection("jdbc:hsqldb:mem:bokfri_bulkreader", "sa", "");
+        statements = new SSDBConnection(connection);
+
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE tbl_item(id INTEGER IDENTITY, number VARCHAR, companyid INTEGER)");
+        }
+        try (PreparedStatement statement = connection.prepareStatement(
+                "INSERT INTO tbl_item VALUES(NULL,?,?)")) {
+            for (int i = 0; i < ROWS; i++) {
+                statement.setString(1, "N" + i);
+                statement.setInt(2, i % 2 == 0 ? 1 : 2);
+                statement.executeUpdate();
+            }
+        }
+    }
+
+    @AfterAll
+    static void dropTable() throws Exception {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("DROP TABLE tbl_item");
+        }
+        statements.close();
+    }
+
+    @Test
+    void forEachReadsEveryPageInIdOrder() throws Exception {
+        List<String> numbers = new ArrayList<>();
+
+        int count = SSDBBulkReader.forEach(statements,
+                "SELECT * FROM tbl_item WHERE companyid=? AND id>? ORDER BY id", 1,
+                rs -> rs.getString(2), numbers::add);
+
+        assertThat(count).isEqualTo((ROWS + 1) / 2);
+        assertThat(numbers).hasSize(count).startsWith("N0", "N2", "N4");
+        assertThat(numbers.get(numbers.size() - 1)).isEqualTo("N" + (ROWS % 2 == 0 ? ROWS - 2 : ROWS - 1));
+    }
+
+    @Test
+    void readInKeepsTheOrderOfTheRequestedObjects() throws Exception {
+        List<String> wanted = new ArrayList<>();
+
+        for (int i = ROWS - 1; i >= 0; i -= 3) {
+            wanted.add("N" + i);
+        }
+        wanted.add("missing");
+
+        List<String> found = SSDBBulkReader.readIn(statements,
+                "SELECT * FROM tbl_item WHERE number IN (%s) AND companyid=?", wanted, n -> n, 2,
+                rs -> rs.getString(2));
+
+        List<String> expected = new ArrayList<>();
+
+        for (String number : wanted) {
+            if (!"missing".equals(number) && Integer.parseInt(number.substring(1)) % 2 == 1) {
+                expected.add(number);
+            }
+        }
+        assertThat(wanted.size()).isGreaterThan(SSDBBulkReader.IN_SIZE);
+        assertThat(found).containsExactlyElementsOf(expected);
+    }
+
+    @Test
+    void readInOfNothingReturnsAnEmptyList() throws Exception {
+        List<String> found = SSDBBulkReader.readIn(statements,
+                "SELECT * FROM tbl_item WHERE number IN (%s) AND companyid=?", new ArrayList<String>(), n -> n, 1,
+                rs -> rs.getString(2));
+
+        assertThat(found).isEmpty();
+    }
+}
@@ -0,0 +1,168 @@
+package se.swedsoft.bookkeeping.data.system;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import se.swedsoft.bookkeeping.data.SSVoucher;
+import se.swedsoft.bookkeeping.data.SSVoucherRow;
+import se.swedsoft.bookkeeping.data.system.codec.SSEntityCodecs;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Writing the vouchers of a SIE import: the old path with a SELECT MAX(number),
+ * an insert per voucher and row and a commit per voucher, against numbering in
+ * memory and {@link SSDBBulkWriter} with one commit. The score is vouchers per second.
+ *
+ * <p>Not run by surefire. Start it from the IDE through {@link #main(String[])}
+ * or with {@code mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=se.swedsoft.bookkeeping.data.system.SSDBBulkWriteBenchmark}.</p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+public class SSDBBulkWriteBenchmark {
+
+    private static final int VOUCHERS = 10000;
+
+    private Connection connection;
+
+    private SSDBConnection statements;
+
+    private List<SSVoucher> vouchers;
+
+    @Setup
+    public void setUp() throws Exception {
+        Class.forName("org.hsqldb.jdbcDriver");
+        connection = DriverManager.getConnection("jdbc:hsqldb:mem:bokfri_bench_write", "sa", "");
+        connection.setAutoCommit(false);
+        statements = new SSDBConnection(connection);
+
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("CREATE CACHED TABLE tbl_voucher(id INTEGER IDENTITY, number INTEGER,"
+                    + " voucher OBJECT, yearid INTEGER)");
+            statement.execute("CREATE INDEX idx_voucher_number ON tbl_voucher(number, yearid)");
+            statement.execute("CREATE CACHED TABLE tbl_voucherrow(id INTEGER IDENTITY, yearid INTEGER,"
+                    + " vouchernumber INTEGER, rowindex INTEGER, voucherdate DATE, description VARCHAR,"
+                    + " accountnr INTEGER, projectnr VARCHAR, resultunitnr VARCHAR, debet DECIMAL,"
+                    + " credit DECIMAL, crossed BOOLEAN, added BOOLEAN)");
+            statement.execute("CREATE INDEX idx_voucherrow_voucher ON tbl_voucherrow(yearid, vouchernumber)");
+        }
+        vouchers = new ArrayList<>(VOUCHERS);
+
+        for (int i = 0; i < VOUCHERS; i++) {
+            vouchers.add(voucher(i));
+        }
+    }
+
+    @Setup(Level.Invocation)
+    public void truncate() throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("DELETE FROM tbl_voucher");
+            statement.execute("DELETE FROM tbl_voucherrow");
+        }
+        connection.commit();
+    }
+
+    @TearDown
+    public void tearDown() throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("SHUTDOWN");
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(VOUCHERS)
+    public void insertPerVoucher() throws SQLException {
+        for (SSVoucher voucher : vouchers) {
+            try (PreparedStatement statement = statements.prepare(
+                    "SELECT MAX(number) AS maxnum FROM tbl_voucher WHERE yearid=?")) {
+                statement.setObject(1, 1);
+
+                try (ResultSet resultSet = statement.executeQuery()) {
+                    voucher.setNumber(resultSet.next() ? resultSet.getInt(1) + 1 : 1);
+                }
+            }
+            try (PreparedStatement statement = statements.prepare(
+                    "INSERT INTO tbl_voucher VALUES(NULL,?,?,?)")) {
+                statement.setObject(1, voucher.getNumber());
+                statement.setObject(2, SSEntityCodecs.encode(voucher));
+                statement.setObject(3, 1);
+                statement.executeUpdate();
+            }
+            try (PreparedStatement statement = statements.prepare(
+                    "INSERT INTO tbl_voucherrow VALUES(NULL,?,?,?,?,?,?,?,?,?,?,?,?)")) {
+                int index = 0;
+
+                for (SSVoucherRow row : voucher.getRows()) {
+                    SSDBBulkWriter.setVoucherRow(statement, 1, voucher, index++, row);
+                    statement.executeUpdate();
+                }
+            }
+            connection.commit();
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(VOUCHERS)
+    public int insertBatched() throws SQLException {
+        int number = 0;
+
+        for (SSVoucher voucher : vouchers) {
+            voucher.setNumber(++number);
+        }
+        int rows = SSDBBulkWriter.insertVouchers(statements, vouchers, 1);
+
+        connection.commit();
+        return rows;
+    }
+
+    private static SSVoucher voucher(int number) {
+        SSVoucher voucher = new SSVoucher(number);
+
+        voucher.setLocalDate(LocalDate.of(2024, 1, 1).plusDays(number % 365));
+        voucher.setDescription("Voucher " + number);
+
+        for (int i = 0; i < 4; i++) {
+            SSVoucherRow row = new SSVoucherRow();
+
+            row.setAccountNr(1910 + i * 1000);
+            row.setDebet(i % 2 == 0 ? new BigDecimal("100.00") : null);
+            row.setCredit(i % 2 == 0 ? null : new BigDecimal("100.00"));
+            voucher.addVoucherRow(row);
+        }
+        return voucher;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(SSDBBulkWriteBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
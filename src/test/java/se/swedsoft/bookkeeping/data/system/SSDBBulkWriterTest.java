@@ -0,0 +1,109 @@
+package se.swedsoft.bookkeeping.data.system;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import se.swedsoft.bookkeeping.data.SSVoucher;
+import se.swedsoft.bookkeeping.data.SSVoucherRow;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Integration tests for {@link SSDBBulkWriter} against private in-memory
+ * HSQLDB tables, with more vouchers and rows than one JDBC batch.
+ */
+@Tag("integration")
+class SSDBBulkWriterTest {
+
+    private static final int VOUCHERS = SSDBBulkWriter.BATCH_SIZE + 17;
+
+    private static Connection connection;
+
+    private static SSDBConnection statements;
+
+    @BeforeAll
+    static void createTables() throws Exception {
+        Class.forName("org.hsqldb.jdbcDriver");
+        connection = DriverManager.getConnection("jdbc:hsqldb:mem:bokfri_bulkwriter", "sa", "");
+        connection.setAutoCommit(false);
+        statements = new SSDBConnection(connection);
+
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE tbl_voucher(id INTEGER IDENTITY, number INTEGER,"
+                    + " voucher OBJECT, yearid INTEGER)");
+            statement.execute("CREATE TABLE tbl_voucherrow(id INTEGER IDENTITY, yearid INTEGER,"
+                    + " vouchernumber INTEGER, rowindex INTEGER, voucherdate DATE, description VARCHAR,"
+                    + " accountnr INTEGER, projectnr VARCHAR, resultunitnr VARCHAR, debet DECIMAL,"
+                    + " credit DECIMAL, crossed BOOLEAN, added BOOLEAN)");
+        }
+    }
+
+    @AfterAll
+    static void dropTables() throws Exception {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("DROP TABLE tbl_voucher");
+            statement.execute("DROP TABLE tbl_voucherrow");
+        }
+        statements.close();
+    }
+
+    @Test
+    void insertVouchersWritesEveryVoucherAndRow() throws Exception {
+        List<SSVoucher> vouchers = new ArrayList<>();
+
+        for (int i = 1; i <= VOUCHERS; i++) {
+            vouchers.add(voucher(i));
+        }
+
+        int rows = SSDBBulkWriter.insertVouchers(statements, vouchers, 7);
+
+        connection.commit();
+
+        assertThat(rows).isEqualTo(VOUCHERS * 2);
+        assertThat(count("SELECT COUNT(*) FROM tbl_voucher WHERE yearid=7")).isEqualTo(VOUCHERS);
+        assertThat(count("SELECT COUNT(*) FROM tbl_voucherrow WHERE yearid=7")).isEqualTo(VOUCHERS * 2);
+        assertThat(count("SELECT MAX(number) FROM tbl_voucher WHERE yearid=7")).isEqualTo(VOUCHERS);
+        assertThat(count("SELECT SUM(debet) FROM tbl_voucherrow WHERE vouchernumber=3 AND yearid=7"))
+                .isEqualTo(100);
+        assertThat(count("SELECT MAX(rowindex) FROM tbl_voucherrow WHERE vouchernumber=3 AND yearid=7"))
+                .isEqualTo(1);
+    }
+
+    private static int count(String query) throws Exception {
+        try (Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery(query)) {
+            resultSet.next();
+            return resultSet.getInt(1);
+        }
+    }
+
+    private static SSVoucher voucher(int number) {
+        SSVoucher voucher = new SSVoucher(number);
+
+        voucher.setLocalDate(LocalDate.of(2024, 1, 1).plusDays(number % 365));
+        voucher.setDescription("Voucher " + number);
+
+        SSVoucherRow debet = new SSVoucherRow();
+
+        debet.setAccountNr(1910);
+        debet.setDebet(new BigDecimal("100.00"));
+        voucher.addVoucherRow(debet);
+
+        SSVoucherRow credit = new SSVoucherRow();
+
+        credit.setAccountNr(3010);
+        credit.setCredit(new BigDecimal("100.00"));
+        voucher.addVoucherRow(credit);
+        return voucher;
+    }
+}
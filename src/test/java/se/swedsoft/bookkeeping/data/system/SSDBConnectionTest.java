@@ -0,0 +1,99 @@
+package se.swedsoft.bookkeeping.data.system;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Integration tests for the prepared statement cache in {@link SSDBConnection}.
+ */
+@Tag("integration")
+class SSDBConnectionTest {
+
+    private static final String QUERY = "SELECT * FROM tbl_item WHERE id=?";
+
+    private SSDBConnection connection;
+
+    @BeforeEach
+    void open() throws Exception {
+        Class.forName("org.hsqldb.jdbcDriver");
+        connection = new SSDBConnection(
+                DriverManager.getConnection("jdbc:hsqldb:mem:bokfri_connection", "sa", ""));
+
+        try (Statement statement = connection.getConnection().createStatement()) {
+            statement.execute("CREATE TABLE tbl_item(id INTEGER, name VARCHAR)");
+            statement.execute("INSERT INTO tbl_item VALUES(1, 'one')");
+        }
+    }
+
+    @AfterEach
+    void close() throws Exception {
+        try (Statement statement = connection.getConnection().createStatement()) {
+            statement.execute("DROP TABLE tbl_item");
+        }
+        connection.close();
+    }
+
+    @Test
+    void closedStatementIsReused() throws Exception {
+        readName(1);
+        readName(1);
+        readName(1);
+
+        SSDBConnection.SSStatistics statistics = connection.getStatistics();
+
+        assertThat(statistics.getMisses()).isEqualTo(1);
+        assertThat(statistics.getHits()).isEqualTo(2);
+        assertThat(statistics.getCached()).isEqualTo(1);
+    }
+
+    @Test
+    void checkedOutStatementIsNotShared() throws Exception {
+        try (PreparedStatement first = connection.prepare(QUERY);
+                PreparedStatement second = connection.prepare(QUERY)) {
+            first.setInt(1, 1);
+            second.setInt(1, 2);
+
+            try (ResultSet resultSet = first.executeQuery()) {
+                assertThat(resultSet.next()).isTrue();
+            }
+            try (ResultSet resultSet = second.executeQuery()) {
+                assertThat(resultSet.next()).isFalse();
+            }
+        }
+        SSDBConnection.SSStatistics statistics = connection.getStatistics();
+
+        assertThat(statistics.getMisses()).isEqualTo(2);
+        assertThat(statistics.getCached()).isEqualTo(1);
+    }
+
+    @Test
+    void statementCannotBeUsedAfterClose() throws Exception {
+        PreparedStatement statement = connection.prepare(QUERY);
+
+        statement.close();
+
+        assertThat(statement.isClosed()).isTrue();
+        assertThatThrownBy(() -> statement.setInt(1, 1)).isInstanceOf(SQLException.class);
+    }
+
+    private String readName(int id) throws SQLException {
+        try (PreparedStatement statement = connection.prepare(QUERY)) {
+            statement.setInt(1, id);
+
+            try (ResultSet resultSet = statement.executeQuery()) {
+                return resultSet.next() ? resultSet.getString(2) : null;
+            }
+        }
+    }
+}
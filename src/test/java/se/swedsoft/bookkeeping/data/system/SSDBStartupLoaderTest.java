@@ -0,0 +1,73 @@
+package se.swedsoft.bookkeeping.data.system;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import se.swedsoft.bookkeeping.calc.math.SSInvoiceMath;
+import se.swedsoft.bookkeeping.calc.math.SSSupplierInvoiceMath;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Integration tests for {@link SSDBStartupLoader}.
+ */
+@Tag("integration")
+class SSDBStartupLoaderTest {
+
+    @BeforeAll
+    static void setUpDatabase() throws Exception {
+        SSDBTestFixture.setupOnce();
+    }
+
+    @BeforeEach
+    void resetCaches() {
+        SSDBTestFixture.resetCaches();
+    }
+
+    @AfterEach
+    void checkBackgroundThreads() {
+        SSDBTestFixture.drainUncaughtExceptions();
+    }
+
+    @Test
+    void sequentialLoadRunsEveryStep() {
+        List<String> progress = new ArrayList<>();
+
+        Map<String, Long> timings = new SSDBStartupLoader(SSDB.getInstance(), 1).run(progress::add);
+
+        assertThat(timings).containsKeys("Fakturor", "Kunder", "Verifikationer", "Fakturasaldon",
+                "Leverantörsfakturasaldon");
+        assertThat(progress).hasSize(timings.size());
+    }
+
+    @Test
+    void indexesAreBuiltAfterTheirRegisters() {
+        SSInvoiceMath.iSaldoMap = null;
+        SSSupplierInvoiceMath.iSaldoMap = null;
+
+        Map<String, Long> timings = new SSDBStartupLoader(SSDB.getInstance(), 4).run(null);
+        List<String> order = new ArrayList<>(timings.keySet());
+
+        assertThat(order.indexOf("Fakturasaldon")).isGreaterThan(order.indexOf("Fakturor"))
+                .isGreaterThan(order.indexOf("Inbetalningar"))
+                .isGreaterThan(order.indexOf("Kreditfakturor"));
+        assertThat(SSInvoiceMath.iSaldoMap).isNotNull();
+        assertThat(SSSupplierInvoiceMath.iSaldoMap).isNotNull();
+    }
+
+    @Test
+    void vouchersAreLoadedBeforeTheOtherRegisters() {
+        int vouchers = SSDB.getInstance().getVouchers().size();
+
+        Map<String, Long> timings = new SSDBStartupLoader(SSDB.getInstance(), 4).run(null);
+
+        assertThat(timings.keySet().iterator().next()).isEqualTo("Verifikationer");
+        assertThat(SSDB.getInstance().getVouchers()).hasSize(vouchers);
+    }
+}
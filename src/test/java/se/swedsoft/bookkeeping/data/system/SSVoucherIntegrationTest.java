@@ -6,6 +6,7 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Tag;
 import org.junit.jupiter.api.Test;
 import se.swedsoft.bookkeeping.data.SSAccount;
+import se.swedsoft.bookkeeping.data.SSNewAccountingYear;
 import se.swedsoft.bookkeeping.data.SSVoucher;
 import se.swedsoft.bookkeeping.data.SSVoucherRow;
 
@@ -200,6 +201,112 @@ class SSVoucherIntegrationTest {
         }
     }
 
+    // ---- tbl_voucherrow ----
+
+    @Test
+    void addedVoucherRowsAreIndexed() {
+        SSVoucher v = voucher(BASE_NUMBER + 40);
+        v.getRows().add(voucherRow(1000, new BigDecimal("250.00"), null));
+        v.getRows().add(voucherRow(2000, null, new BigDecimal("250.00")));
+        SSDB.getInstance().addVoucher(v, true);
+
+        try {
+            LocalDate today = v.getLocalDate();
+            List<SSVoucherRowEntry> entries = SSDB.getInstance().getVoucherRowEntries(
+                    SSDB.getInstance().getCurrentYear(), today, today);
+
+            assertThat(entries).filteredOn(e -> e.getVoucherNumber() == BASE_NUMBER + 40)
+                    .extracting(SSVoucherRowEntry::getAccountNr)
+                    .containsExactly(1000, 2000);
+        } finally {
+            SSDB.getInstance().deleteVoucher(v);
+        }
+    }
+
+    @Test
+    void deletedVoucherRowsAreRemovedFromIndex() {
+        SSVoucher v = voucher(BASE_NUMBER + 41);
+        v.getRows().add(voucherRow(1000, new BigDecimal("75.00"), null));
+        SSDB.getInstance().addVoucher(v, true);
+        SSDB.getInstance().deleteVoucher(v);
+
+        LocalDate today = v.getLocalDate();
+        List<SSVoucherRowEntry> entries = SSDB.getInstance().getVoucherRowEntries(
+                SSDB.getInstance().getCurrentYear(), today, today);
+
+        assertThat(entries).extracting(SSVoucherRowEntry::getVoucherNumber)
+                .doesNotContain(BASE_NUMBER + 41);
+    }
+
+    @Test
+    void sumsOfAllYearsCoverTheYearsOfTheCurrentCompany() {
+        SSVoucher v = voucher(BASE_NUMBER + 42);
+        v.getRows().add(voucherRow(1000, new BigDecimal("30.00"), null));
+        v.getRows().add(voucherRow(2000, null, new BigDecimal("30.00")));
+        SSDB.getInstance().addVoucher(v, true);
+
+        try {
+            BigDecimal yearSums = BigDecimal.ZERO;
+
+            for (SSNewAccountingYear year : SSDB.getInstance().getYears()) {
+                yearSums = yearSums.add(debet(SSDB.getInstance().getVoucherRowSums(year, null, null)));
+            }
+            assertThat(debet(SSDB.getInstance().getVoucherRowSums(null, null, null)))
+                    .isEqualByComparingTo(yearSums);
+        } finally {
+            SSDB.getInstance().deleteVoucher(v);
+        }
+    }
+
+    // ---- tbl_accountmonth ----
+
+    @Test
+    void monthSumsFollowAddedUpdatedAndDeletedVouchers() {
+        LocalDate march = LocalDate.of(2024, 3, 1);
+        LocalDate april = LocalDate.of(2024, 4, 1);
+        BigDecimal marchBefore = monthDebet(march, 1000);
+        BigDecimal aprilBefore = monthDebet(april, 1000);
+
+        SSVoucher v = voucher(BASE_NUMBER + 50);
+        v.setLocalDate(LocalDate.of(2024, 3, 15));
+        v.getRows().add(voucherRow(1000, new BigDecimal("120.00"), null));
+        v.getRows().add(voucherRow(2000, null, new BigDecimal("120.00")));
+        SSDB.getInstance().addVoucher(v, true);
+
+        try {
+            assertThat(monthDebet(march, 1000)).isEqualByComparingTo(marchBefore.add(new BigDecimal("120.00")));
+
+            SSDBTestFixture.resetCaches();
+            SSVoucher fetched = findVoucherByNumber(BASE_NUMBER + 50);
+            fetched.setLocalDate(LocalDate.of(2024, 4, 2));
+            SSDB.getInstance().updateVoucher(fetched);
+
+            assertThat(monthDebet(march, 1000)).isEqualByComparingTo(marchBefore);
+            assertThat(monthDebet(april, 1000)).isEqualByComparingTo(aprilBefore.add(new BigDecimal("120.00")));
+        } finally {
+            SSDB.getInstance().deleteVoucher(v);
+        }
+        assertThat(monthDebet(april, 1000)).isEqualByComparingTo(aprilBefore);
+    }
+
+    @Test
+    void monthSumsOfAFailedBatchAreReadButNotKept() {
+        LocalDate may = LocalDate.of(2024, 5, 1);
+        BigDecimal before = monthDebet(may, 1000);
+
+        try (SSDBBatch batch = SSDB.getInstance().beginBatch("test")) {
+            SSVoucher v = voucher(BASE_NUMBER + 51);
+            v.setLocalDate(LocalDate.of(2024, 5, 10));
+            v.getRows().add(voucherRow(1000, new BigDecimal("70.00"), null));
+            v.getRows().add(voucherRow(2000, null, new BigDecimal("70.00")));
+            SSDB.getInstance().addVoucher(v, true);
+
+            assertThat(monthDebet(may, 1000)).isEqualByComparingTo(before.add(new BigDecimal("70.00")));
+            batch.setFailed();
+        }
+        assertThat(monthDebet(may, 1000)).isEqualByComparingTo(before);
+    }
+
     // -------------------------------------------------------------------------
     // Helpers
     // -------------------------------------------------------------------------
@@ -210,6 +317,17 @@ class SSVoucherIntegrationTest {
         return v;
     }
 
+    private static BigDecimal monthDebet(LocalDate month, int accountNumber) {
+        return SSDB.getInstance().getAccountMonthSums(SSDB.getInstance().getCurrentYear()).stream()
+                .filter(s -> s.getDate().equals(month) && s.getAccountNr() == accountNumber)
+                .map(SSVoucherRowSum::getDebet)
+                .reduce(BigDecimal.ZERO, BigDecimal::add);
+    }
+
+    private static BigDecimal debet(List<SSVoucherRowSum> sums) {
+        return sums.stream().map(SSVoucherRowSum::getDebet).reduce(BigDecimal.ZERO, BigDecimal::add);
+    }
+
     private static SSVoucherRow voucherRow(int accountNumber,
             BigDecimal debet, BigDecimal credit) {
         SSAccount acc = new SSAccount();
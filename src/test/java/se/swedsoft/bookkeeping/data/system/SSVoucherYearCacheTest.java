@@ -0,0 +1,51 @@
+package se.swedsoft.bookkeeping.data.system;
+
+import org.junit.jupiter.api.Test;
+import se.swedsoft.bookkeeping.data.SSVoucher;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for {@link SSVoucherYearCache}.
+ */
+class SSVoucherYearCacheTest {
+
+    @Test
+    void leastRecentlyUsedYearIsEvicted() {
+        SSVoucherYearCache cache = new SSVoucherYearCache(2);
+        List<SSVoucher> first = new ArrayList<>();
+
+        cache.put(1, first);
+        cache.put(2, new ArrayList<>());
+        cache.get(1);
+        cache.put(3, new ArrayList<>());
+
+        assertThat(cache.size()).isEqualTo(2);
+        assertThat(cache.get(1)).isSameAs(first);
+        assertThat(cache.get(2)).isNull();
+        assertThat(cache.get(3)).isNotNull();
+    }
+
+    @Test
+    void lowMemoryDropsAllYears() {
+        SSVoucherYearCache cache = new SSVoucherYearCache(2);
+
+        cache.put(1, new ArrayList<>());
+        cache.put(2, new ArrayList<>());
+        cache.memoryUsageLow(90, 100);
+
+        assertThat(cache.size()).isZero();
+    }
+
+    @Test
+    void zeroYearsDisablesTheCache() {
+        SSVoucherYearCache cache = new SSVoucherYearCache(0);
+
+        cache.put(1, new ArrayList<>());
+
+        assertThat(cache.get(1)).isNull();
+    }
+}
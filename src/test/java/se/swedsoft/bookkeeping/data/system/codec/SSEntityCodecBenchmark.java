@@ -0,0 +1,105 @@
+package se.swedsoft.bookkeeping.data.system.codec;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import se.swedsoft.bookkeeping.data.SSVoucher;
+import se.swedsoft.bookkeeping.data.SSVoucherRow;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the voucher codec with the Java serialization it replaces.
+ *
+ * <p>Not run by surefire. Start it from the IDE through {@link #main(String[])}
+ * or with {@code mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=se.swedsoft.bookkeeping.data.system.codec.SSEntityCodecBenchmark}.</p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SSEntityCodecBenchmark {
+
+    @Param({ "4", "40" })
+    public int rows;
+
+    private SSVoucher voucher;
+
+    private byte[] encoded;
+
+    private byte[] serialized;
+
+    @Setup
+    public void setUp() throws IOException {
+        voucher = new SSVoucher(1);
+        voucher.setLocalDate(LocalDate.of(2024, 1, 31));
+        voucher.setDescription("Benchmark voucher");
+
+        for (int i = 0; i < rows; i++) {
+            SSVoucherRow row = new SSVoucherRow();
+            row.setAccountNr(3000 + i);
+            row.setDebet(i % 2 == 0 ? new BigDecimal("1250.00") : null);
+            row.setCredit(i % 2 == 0 ? null : new BigDecimal("1250.00"));
+            voucher.addVoucherRow(row);
+        }
+        encoded = SSEntityCodecs.encodeBytes(voucher);
+        serialized = serialize();
+    }
+
+    @Benchmark
+    public byte[] encodeCodec() {
+        return SSEntityCodecs.encodeBytes(voucher);
+    }
+
+    @Benchmark
+    public Object decodeCodec() {
+        return SSEntityCodecs.decodeBytes(encoded);
+    }
+
+    @Benchmark
+    public byte[] encodeSerialization() throws IOException {
+        return serialize();
+    }
+
+    @Benchmark
+    public Object decodeSerialization() throws IOException, ClassNotFoundException {
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(serialized))) {
+            return in.readObject();
+        }
+    }
+
+    private byte[] serialize() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(voucher);
+        }
+        return bytes.toByteArray();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(SSEntityCodecBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
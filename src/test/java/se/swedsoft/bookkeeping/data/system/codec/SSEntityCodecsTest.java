@@ -0,0 +1,274 @@
+package se.swedsoft.bookkeeping.data.system.codec;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import se.swedsoft.bookkeeping.data.SSAddress;
+import se.swedsoft.bookkeeping.data.SSCreditInvoice;
+import se.swedsoft.bookkeeping.data.SSInvoice;
+import se.swedsoft.bookkeeping.data.SSProduct;
+import se.swedsoft.bookkeeping.data.SSProductRow;
+import se.swedsoft.bookkeeping.data.SSVoucher;
+import se.swedsoft.bookkeeping.data.SSVoucherRow;
+import se.swedsoft.bookkeeping.data.base.SSSaleRow;
+import se.swedsoft.bookkeeping.data.common.SSDefaultAccount;
+import se.swedsoft.bookkeeping.data.common.SSInvoiceType;
+import se.swedsoft.bookkeeping.data.common.SSTaxCode;
+import se.swedsoft.bookkeeping.data.common.SSUnit;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Locale;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Tests for {@link SSEntityCodecs} and the entity codecs registered with it.
+ *
+ * Entities are built with constructors that do not need an open database, see
+ * {@code SSVoucherTest} and {@code SSInvoiceTest}.
+ */
+class SSEntityCodecsTest {
+
+    @AfterEach
+    void enableCodecs() {
+        SSEntityCodecs.setEnabled(true);
+    }
+
+    // ---- header / legacy passthrough ----
+
+    @Test
+    void encodeProducesTaggedBytesForRegisteredTypes() {
+        Object stored = SSEntityCodecs.encode(voucher(1));
+
+        assertThat(stored).isInstanceOf(byte[].class);
+        assertThat(SSEntityCodecs.isEncoded(stored)).isTrue();
+    }
+
+    @Test
+    void encodeReturnsEntityWhenCodecsAreDisabled() {
+        SSVoucher v = voucher(1);
+        SSEntityCodecs.setEnabled(false);
+
+        assertThat(SSEntityCodecs.encode(v)).isSameAs(v);
+    }
+
+    @Test
+    void encodeReturnsEntityWithoutCodecUnchanged() {
+        SSAddress address = new SSAddress();
+
+        assertThat(SSEntityCodecs.encode(address)).isSameAs(address);
+    }
+
+    @Test
+    void decodePassesLegacyObjectsThrough() {
+        SSVoucher v = voucher(7);
+
+        assertThat(SSEntityCodecs.decode(v, SSVoucher.class)).isSameAs(v);
+        assertThat(SSEntityCodecs.decode(null, SSVoucher.class)).isNull();
+    }
+
+    @Test
+    void plainByteArraysAreNotTreatedAsEncoded() {
+        assertThat(SSEntityCodecs.isEncoded(new byte[] { 1, 2, 3, 4 })).isFalse();
+        assertThat(SSEntityCodecs.isEncoded("voucher")).isFalse();
+    }
+
+    @Test
+    void newerSchemaVersionIsRejected() {
+        byte[] data = SSEntityCodecs.encodeBytes(voucher(1));
+        data[3] = 99;
+
+        assertThatThrownBy(() -> SSEntityCodecs.decodeBytes(data))
+                .isInstanceOf(SSCodecException.class)
+                .hasMessageContaining("version 99");
+    }
+
+    @Test
+    void unknownTypeIdIsRejected() {
+        byte[] data = SSEntityCodecs.encodeBytes(voucher(1));
+        data[2] = 120;
+
+        assertThatThrownBy(() -> SSEntityCodecs.decodeBytes(data))
+                .isInstanceOf(SSCodecException.class)
+                .hasMessageContaining("120");
+    }
+
+    @Test
+    void encodedVoucherIsSmallerThanJavaSerialization() throws Exception {
+        SSVoucher v = voucher(12);
+        for (int i = 0; i < 10; i++) {
+            v.addVoucherRow(row(3000 + i, "100.00", null));
+        }
+        java.io.ByteArrayOutputStream serialized = new java.io.ByteArrayOutputStream();
+        try (java.io.ObjectOutputStream out = new java.io.ObjectOutputStream(serialized)) {
+            out.writeObject(v);
+        }
+
+        assertThat(SSEntityCodecs.encodeBytes(v).length).isLessThan(serialized.size() / 2);
+    }
+
+    // ---- SSVoucher ----
+
+    @Test
+    void voucherRoundTrips() {
+        SSVoucher v = voucher(42);
+        v.setDescription("Kontorsmaterial");
+        SSVoucherRow debit = row(6110, "125.50", null);
+        debit.setProjectNr("P1");
+        debit.setResultUnitNr("R1");
+        debit.setLocalEditedDate(LocalDateTime.of(2024, 3, 1, 10, 15));
+        debit.setEditedSignature("AB");
+        debit.setCrossed(true);
+        v.addVoucherRow(debit);
+        v.addVoucherRow(row(1930, null, "125.50"));
+
+        SSVoucher decoded = roundTrip(v, SSVoucher.class);
+
+        assertThat(decoded.getNumber()).isEqualTo(42);
+        assertThat(decoded.getLocalDate()).isEqualTo(LocalDate.of(2024, 3, 1));
+        assertThat(decoded.getDescription()).isEqualTo("Kontorsmaterial");
+        assertThat(decoded.getRows()).hasSize(2);
+
+        SSVoucherRow first = decoded.getRows().get(0);
+        assertThat(first.getAccountNr()).isEqualTo(6110);
+        assertThat(first.getDebet()).isEqualByComparingTo("125.50");
+        assertThat(first.getCredit()).isNull();
+        assertThat(first.getProjectNr()).isEqualTo("P1");
+        assertThat(first.getResultUnitNr()).isEqualTo("R1");
+        assertThat(first.getLocalEditedDate()).isEqualTo(LocalDateTime.of(2024, 3, 1, 10, 15));
+        assertThat(first.getEditedSignature()).isEqualTo("AB");
+        assertThat(first.isCrossed()).isTrue();
+        assertThat(decoded.getRows().get(1).getCredit()).isEqualByComparingTo("125.50");
+    }
+
+    @Test
+    void mutuallyCorrectingVouchersRoundTrip() {
+        SSVoucher original = voucher(1);
+        SSVoucher correction = voucher(2);
+        original.setCorrectedBy(correction);
+        correction.setCorrects(original);
+
+        SSVoucher decoded = roundTrip(original, SSVoucher.class);
+
+        assertThat(decoded.getCorrectedBy().getNumber()).isEqualTo(2);
+        assertThat(decoded.getCorrectedBy().getCorrects()).isSameAs(decoded);
+    }
+
+    // ---- SSProduct ----
+
+    @Test
+    void productRoundTrips() {
+        SSProduct p = new SSProduct();
+        p.setNumber("ART-1");
+        p.setDescription("Skruv");
+        p.setDescription(Locale.ENGLISH, "Screw");
+        p.setSellingPrice(new BigDecimal("12.50"));
+        p.setPurchasePrice(new BigDecimal("4.25"));
+        p.setTaxCode(SSTaxCode.TAXRATE_2);
+        p.setUnit(new SSUnit("st", "Styck"));
+        p.setStockProduct(false);
+        p.setDefaultAccount(SSDefaultAccount.Sales, 3010);
+        SSProductRow parcelRow = new SSProductRow();
+        parcelRow.setProduct("ART-2");
+        parcelRow.setQuantity(3);
+        p.setParcelRows(new java.util.LinkedList<>(List.of(parcelRow)));
+
+        SSProduct decoded = roundTrip(p, SSProduct.class);
+
+        assertThat(decoded.getNumber()).isEqualTo("ART-1");
+        assertThat(decoded.getDescription()).isEqualTo("Skruv");
+        assertThat(decoded.getDescription(Locale.ENGLISH)).contains("Screw");
+        assertThat(decoded.getSellingPrice()).isEqualByComparingTo("12.50");
+        assertThat(decoded.getPurchasePrice()).isEqualByComparingTo("4.25");
+        assertThat(decoded.getTaxCode()).isEqualTo(SSTaxCode.TAXRATE_2);
+        assertThat(decoded.getUnit().getName()).isEqualTo("st");
+        assertThat(decoded.isStockProduct()).isFalse();
+        assertThat(decoded.getDefaultAccount(SSDefaultAccount.Sales)).isEqualTo(3010);
+        assertThat(decoded.getParcelRows()).singleElement()
+                .satisfies(r -> {
+                    assertThat(r.getProductNr()).isEqualTo("ART-2");
+                    assertThat(r.getQuantity()).isEqualTo(3);
+                });
+    }
+
+    // ---- SSInvoice / SSCreditInvoice ----
+
+    @Test
+    void invoiceRoundTripsWithRowsAndVoucher() {
+        SSInvoice inv = new SSInvoice();
+        inv.setNumber(1001);
+        inv.setType(SSInvoiceType.CASH);
+        inv.setCustomerNr("K1");
+        inv.setCustomerName("Kund AB");
+        inv.setLocalDate(LocalDate.of(2024, 5, 2));
+        inv.setLocalDueDate(LocalDate.of(2024, 6, 1));
+        inv.setCurrencyRate(new BigDecimal("11.25"));
+        inv.setOCRNumber("100126");
+        inv.setInvoiceAddress(new SSAddress("Kund AB", "Gatan 1", null, "12345", "Staden", "SE"));
+        SSSaleRow row = new SSSaleRow();
+        row.setProductNr("ART-1");
+        row.setQuantity(2);
+        row.setUnitprice(new BigDecimal("50.00"));
+        row.setTaxCode(SSTaxCode.TAXRATE_1);
+        inv.setRows(new java.util.LinkedList<>(List.of(row)));
+        SSVoucher v = voucher(5);
+        v.addVoucherRow(row(1510, "100.00", null));
+        inv.setVoucher(v);
+
+        SSInvoice decoded = roundTrip(inv, SSInvoice.class);
+
+        assertThat(decoded.getNumber()).isEqualTo(1001);
+        assertThat(decoded.getType()).isEqualTo(SSInvoiceType.CASH);
+        assertThat(decoded.getCustomerName()).isEqualTo("Kund AB");
+        assertThat(decoded.getLocalDueDate()).isEqualTo(LocalDate.of(2024, 6, 1));
+        assertThat(decoded.getCurrencyRate()).isEqualByComparingTo("11.25");
+        assertThat(decoded.getOCRNumber()).isEqualTo("100126");
+        assertThat(decoded.getInvoiceAddress().getCity()).isEqualTo("Staden");
+        assertThat(decoded.getRows()).singleElement()
+                .satisfies(r -> {
+                    assertThat(r.getProductNr()).isEqualTo("ART-1");
+                    assertThat(r.getQuantity()).isEqualTo(2);
+                    assertThat(r.getTaxCode()).isEqualTo(SSTaxCode.TAXRATE_1);
+                });
+        assertThat(decoded.getVoucher().getRows()).singleElement()
+                .satisfies(r -> assertThat(r.getAccountNr()).isEqualTo(1510));
+    }
+
+    @Test
+    void creditInvoiceKeepsCreditedNumber() {
+        SSCreditInvoice credit = new SSCreditInvoice();
+        credit.setNumber(7);
+        credit.setCreditingNr(1001);
+
+        Object stored = SSEntityCodecs.encode(credit);
+        Object decoded = SSEntityCodecs.decode(stored, SSInvoice.class);
+
+        assertThat(decoded).isExactlyInstanceOf(SSCreditInvoice.class);
+        assertThat(((SSCreditInvoice) decoded).getCreditingNr()).isEqualTo(1001);
+    }
+
+    // -------------------------------------------------------------------------
+    // Helpers
+    // -------------------------------------------------------------------------
+
+    private static <T> T roundTrip(T entity, Class<T> type) {
+        return SSEntityCodecs.decode(SSEntityCodecs.encode(entity), type);
+    }
+
+    private static SSVoucher voucher(int number) {
+        SSVoucher v = new SSVoucher(number);
+        v.setLocalDate(LocalDate.of(2024, 3, 1));
+        return v;
+    }
+
+    private static SSVoucherRow row(int account, String debet, String credit) {
+        SSVoucherRow r = new SSVoucherRow();
+        r.setAccountNr(account);
+        r.setDebet(debet == null ? null : new BigDecimal(debet));
+        r.setCredit(credit == null ? null : new BigDecimal(credit));
+        return r;
+    }
+}
@@ -0,0 +1,240 @@
+package se.swedsoft.bookkeeping.importexport.excel.util;
+
+import jxl.format.Colour;
+import jxl.write.WritableCellFormat;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.Iterator;
+import java.util.List;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+import java.util.zip.ZipOutputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Tests for the xlsx support of {@link SSExcelSheet} and {@link SSWritableExcelSheet},
+ * through {@link SSXLSXReader} and {@link SSXLSXWriter}.
+ */
+class SSXLSXTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void writtenRowsAreReadBack() throws Exception {
+        File file = tempDir.resolve("Verifikationer.xlsx").toFile();
+        WritableCellFormat header = new WritableCellFormat();
+
+        header.setBackground(Colour.GRAY_25);
+
+        try (SSWritableExcelSheet sheet = SSWritableExcelSheet.create(file, "Verifikationer")) {
+            SSWritableExcelRow columns = sheet.getRow(0);
+
+            columns.setString(1, "Beskrivning", header);
+            columns.setString(0, "Nummer", header);
+
+            for (int i = 1; i <= 1000; i++) {
+                SSWritableExcelRow row = sheet.getRow(i + 1);
+
+                row.setNumber(0, i);
+                row.setString(1, "Kaffe & kakor <" + i + ">");
+                row.setDate(2, LocalDate.of(2024, 1, 1));
+                row.setNumber(4, new BigDecimal("100.25"));
+            }
+        }
+
+        try (SSExcelSheet sheet = SSExcelSheet.open(file)) {
+            Iterator<SSExcelRow> rows = sheet.iterator();
+            SSExcelRow columns = rows.next();
+
+            assertThat(columns.getRow()).isZero();
+            assertThat(columns.getString(0)).isEqualTo("Nummer");
+            assertThat(columns.getString(1)).isEqualTo("Beskrivning");
+
+            SSExcelRow first = rows.next();
+
+            assertThat(first.getRow()).isEqualTo(2);
+            assertThat(first.getCells()).hasSize(5);
+            assertThat(first.getCells().get(0).getInteger()).isEqualTo(1);
+            assertThat(first.getString(1)).isEqualTo("Kaffe & kakor <1>");
+            assertThat(first.getCells().get(2).getLocalDate()).isEqualTo(LocalDate.of(2024, 1, 1));
+            assertThat(first.getString(3)).isEmpty();
+            assertThat(first.getCells().get(4).getDouble()).isEqualTo(100.25);
+            assertThat(first.getString(7)).isEmpty();
+
+            int count = 2;
+
+            while (rows.hasNext()) {
+                rows.next();
+                count++;
+            }
+            assertThat(count).isEqualTo(1001);
+        }
+    }
+
+    @Test
+    void cellStylesAreWritten() throws Exception {
+        File file = tempDir.resolve("Kunder.xlsx").toFile();
+        WritableCellFormat header = new WritableCellFormat();
+
+        header.setBackground(Colour.GRAY_25);
+
+        try (SSWritableExcelSheet sheet = SSWritableExcelSheet.create(file, "Kunder")) {
+            sheet.getRow(0).setString(0, "Kundnummer", header);
+            sheet.getRow(1).setString(0, "1");
+        }
+
+        try (ZipFile zip = new ZipFile(file)) {
+            String styles = read(zip, "xl/styles.xml");
+            String rows = read(zip, "xl/worksheets/sheet1.xml");
+
+            assertThat(styles).contains("<fgColor rgb=\"FFC0C0C0\"/>").contains("<cellXfs count=\"2\">");
+            assertThat(rows).contains("<c r=\"A1\" s=\"1\" t=\"inlineStr\">").contains("<c r=\"A2\" t=\"inlineStr\">");
+            assertThat(read(zip, "xl/workbook.xml")).contains("<sheet name=\"Kunder\"");
+        }
+    }
+
+    @Test
+    void rowsMustBeWrittenInOrder() throws Exception {
+        File file = tempDir.resolve("Produkter.xlsx").toFile();
+
+        try (SSWritableExcelSheet sheet = SSWritableExcelSheet.create(file, "Produkter")) {
+            sheet.getRow(0).setString(0, "Produktnummer");
+            sheet.getRow(2).setString(0, "P1");
+
+            assertThatThrownBy(() -> sheet.getRow(1)).isInstanceOf(IllegalStateException.class);
+
+            sheet.getRow(2).setString(1, "Kaffe");
+        }
+
+        try (SSExcelSheet sheet = SSExcelSheet.open(file)) {
+            List<SSExcelRow> rows = sheet.getRows();
+
+            assertThat(rows).hasSize(2);
+            assertThat(rows.get(1).getString(0)).isEqualTo("P1");
+            assertThat(rows.get(1).getString(1)).isEqualTo("Kaffe");
+        }
+    }
+
+    @Test
+    void rowsWrittenInAnyOrderWithGetRows() throws Exception {
+        File file = tempDir.resolve("Kontoplan.xlsx").toFile();
+
+        try (SSWritableExcelSheet sheet = SSWritableExcelSheet.create(file, "Kontoplan")) {
+            List<SSWritableExcelRow> rows = sheet.getRows(3);
+
+            rows.get(2).setString(0, "sista");
+            rows.get(0).setString(0, "första");
+            rows.get(1).getCells(2).get(1).setInteger(1910);
+        }
+
+        try (SSExcelSheet sheet = SSExcelSheet.open(file)) {
+            List<SSExcelRow> rows = sheet.getRows();
+
+            assertThat(rows).extracting(row -> row.getString(0)).containsExactly("första", "", "sista");
+            assertThat(rows.get(1).getCells().get(1).getInteger()).isEqualTo(1910);
+        }
+    }
+
+    @Test
+    void sharedStringsDatesAndMissingCellsAreRead() throws Exception {
+        File file = tempDir.resolve("Excel.xlsx").toFile();
+
+        try (ZipOutputStream zip = new ZipOutputStream(new FileOutputStream(file))) {
+            write(zip, "xl/workbook.xml", "<workbook xmlns=\"http://schemas.openxmlformats.org/spreadsheetml/2006/main\""
+                    + " xmlns:r=\"http://schemas.openxmlformats.org/officeDocument/2006/relationships\">"
+                    + "<sheets><sheet name=\"Blad1\" sheetId=\"1\" r:id=\"rId3\"/></sheets></workbook>");
+            write(zip, "xl/_rels/workbook.xml.rels", "<Relationships xmlns=\"http://schemas.openxmlformats.org/package/2006/relationships\">"
+                    + "<Relationship Id=\"rId3\" Type=\"worksheet\" Target=\"worksheets/blad.xml\"/></Relationships>");
+            write(zip, "xl/sharedStrings.xml", "<sst xmlns=\"http://schemas.openxmlformats.org/spreadsheetml/2006/main\">"
+                    + "<si><t>Datum</t></si>"
+                    + "<si><r><rPr><b/></rPr><t>Fet</t></r><r><t xml:space=\"preserve\"> text</t></r>"
+                    + "<rPh sb=\"0\" eb=\"1\"><t>x</t></rPh></si></sst>");
+            write(zip, "xl/styles.xml", "<styleSheet xmlns=\"http://schemas.openxmlformats.org/spreadsheetml/2006/main\">"
+                    + "<numFmts count=\"1\"><numFmt numFmtId=\"164\" formatCode=\"yyyy\\-mm\\-dd\"/></numFmts>"
+                    + "<cellStyleXfs count=\"1\"><xf numFmtId=\"14\"/></cellStyleXfs>"
+                    + "<cellXfs count=\"3\"><xf numFmtId=\"0\"/><xf numFmtId=\"164\"/><xf numFmtId=\"14\"/></cellXfs>"
+                    + "</styleSheet>");
+            write(zip, "xl/worksheets/blad.xml", "<worksheet xmlns=\"http://schemas.openxmlformats.org/spreadsheetml/2006/main\">"
+                    + "<sheetData>"
+                    + "<row r=\"1\"><c r=\"A1\" t=\"s\"><v>0</v></c><c r=\"C1\" t=\"s\"><v>1</v></c></row>"
+                    + "<row r=\"4\"><c r=\"A4\" s=\"1\"><v>45292</v></c><c r=\"B4\" s=\"2\"><v>45293.5</v></c>"
+                    + "<c r=\"C4\"><f>1+1</f><v>2</v></c><c r=\"D4\" t=\"b\"><v>1</v></c>"
+                    + "<c r=\"E4\" t=\"str\"><f>\"a\"</f><v>a</v></c><c r=\"F4\" s=\"0\"/></row>"
+                    + "</sheetData></worksheet>");
+        }
+
+        try (SSExcelSheet sheet = SSExcelSheet.open(file)) {
+            List<SSExcelRow> rows = sheet.getRows();
+
+            assertThat(rows).hasSize(2);
+            assertThat(rows.get(0).getCells()).extracting(SSExcelCell::getString).containsExactly("Datum", "", "Fet text");
+
+            SSExcelRow row = rows.get(1);
+
+            assertThat(row.getRow()).isEqualTo(3);
+            assertThat(row.getCells().get(0).getLocalDate()).isEqualTo(LocalDate.of(2024, 1, 1));
+            assertThat(row.getString(0)).isEqualTo("2024-01-01");
+            assertThat(row.getCells().get(1).getLocalDate()).isEqualTo(LocalDate.of(2024, 1, 2));
+            assertThat(row.getCells().get(2).getInteger()).isEqualTo(2);
+            assertThat(row.getString(3)).isEqualTo("true");
+            assertThat(row.getString(4)).isEqualTo("a");
+            assertThat(row.getString(5)).isEmpty();
+        }
+    }
+
+    @Test
+    void rowsOfAXLSXFileAreReadOnce() throws Exception {
+        File file = tempDir.resolve("Tom.xlsx").toFile();
+
+        try (SSWritableExcelSheet sheet = SSWritableExcelSheet.create(file, "Tom")) {
+            sheet.getRow(0).setString(0, "Nummer");
+        }
+
+        try (SSExcelSheet sheet = SSExcelSheet.open(file)) {
+            assertThat(sheet.getRows()).hasSize(1);
+            assertThatThrownBy(sheet::iterator).isInstanceOf(IllegalStateException.class);
+        }
+    }
+
+    @Test
+    void cellReferences() {
+        assertThat(SSXLSXWriter.getReference(0, 0)).isEqualTo("A1");
+        assertThat(SSXLSXWriter.getReference(25, 9)).isEqualTo("Z10");
+        assertThat(SSXLSXWriter.getReference(27, 11)).isEqualTo("AB12");
+        assertThat(SSXLSXWriter.getReference(701, 0)).isEqualTo("ZZ1");
+
+        assertThat(SSXLSXReader.getColumn("A1")).isZero();
+        assertThat(SSXLSXReader.getColumn("AB12")).isEqualTo(27);
+        assertThat(SSXLSXReader.getColumn("ZZ1")).isEqualTo(701);
+    }
+
+    @Test
+    void dateFormats() {
+        assertThat(SSXLSXReader.isDateFormat("yyyy-mm-dd")).isTrue();
+        assertThat(SSXLSXReader.isDateFormat("d/m/yy h:mm")).isTrue();
+        assertThat(SSXLSXReader.isDateFormat("#,##0.00 \"kr/dag\"")).isFalse();
+        assertThat(SSXLSXReader.isDateFormat("[Red]0.00")).isFalse();
+        assertThat(SSXLSXReader.isDateFormat(null)).isFalse();
+    }
+
+    private static void write(ZipOutputStream zip, String name, String contents) throws IOException {
+        zip.putNextEntry(new ZipEntry(name));
+        zip.write(contents.getBytes(StandardCharsets.UTF_8));
+        zip.closeEntry();
+    }
+
+    private static String read(ZipFile zip, String name) throws IOException {
+        return new String(zip.getInputStream(zip.getEntry(name)).readAllBytes(), StandardCharsets.UTF_8);
+    }
+}
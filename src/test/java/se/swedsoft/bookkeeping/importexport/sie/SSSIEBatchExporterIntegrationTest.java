@@ -0,0 +1,174 @@
+package se.swedsoft.bookkeeping.importexport.sie;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import se.swedsoft.bookkeeping.data.SSAccount;
+import se.swedsoft.bookkeeping.data.SSNewAccountingYear;
+import se.swedsoft.bookkeeping.data.SSNewCompany;
+import se.swedsoft.bookkeeping.data.SSVoucher;
+import se.swedsoft.bookkeeping.data.SSVoucherRow;
+import se.swedsoft.bookkeeping.data.system.SSDB;
+import se.swedsoft.bookkeeping.data.system.SSDBTestFixture;
+import se.swedsoft.bookkeeping.importexport.sie.util.SIEFile;
+import se.swedsoft.bookkeeping.importexport.sie.util.SIEType;
+
+import java.io.File;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Integration tests for {@link SSSIEBatchExporter}.
+ */
+@Tag("integration")
+class SSSIEBatchExporterIntegrationTest {
+
+    @TempDir
+    Path dir;
+
+    @BeforeAll
+    static void setUpDatabase() throws Exception {
+        SSDBTestFixture.setupOnce();
+    }
+
+    @BeforeEach
+    void resetCaches() {
+        SSDBTestFixture.resetCaches();
+    }
+
+    @AfterEach
+    void checkBackgroundThreads() {
+        SSDBTestFixture.drainUncaughtExceptions();
+    }
+
+    @Test
+    void eachCompanyIsExportedToItsOwnFiles() throws Exception {
+        SSDB db = SSDB.getInstance();
+        SSNewCompany company = db.getCurrentCompany();
+        SSNewAccountingYear year = db.getCurrentYear();
+
+        SSNewCompany other = new SSNewCompany();
+
+        other.setName("Exportbolaget AB");
+        db.addCompany(other);
+
+        SSNewAccountingYear otherYear = new SSNewAccountingYear();
+
+        otherYear.setLocalFrom(LocalDate.of(2030, 1, 1));
+        otherYear.setLocalTo(LocalDate.of(2030, 12, 31));
+        otherYear.setAccountPlan(year.getAccountPlan());
+
+        SSVoucher voucher = voucher(97_501, year.getLocalFrom());
+        SSVoucher otherVoucher = voucher(98_001, otherYear.getLocalFrom());
+
+        db.addVoucher(voucher, true);
+
+        db.setCurrentCompany(other);
+        db.addAccountingYear(otherYear);
+        otherYear = db.getYears().get(0);
+        db.setCurrentYear(otherYear);
+        db.addVoucher(otherVoucher, true);
+
+        db.setCurrentCompany(company);
+        db.setCurrentYear(year);
+
+        System.setProperty("bokfri.export.companies", "2");
+        try {
+            String mistyped = other.getId() + ":2042";
+            SSSIEBatchExporter exporter = new SSSIEBatchExporter(dir.toFile(), SIEType.SIE_4E);
+
+            Map<String, Long> timings = exporter.export(List.of(
+                    company.getId() + ":" + year.getLocalFrom().getYear(),
+                    String.valueOf(other.getId()),
+                    mistyped));
+
+            String fileName = SSSIEBatchExporter.getFileName(company, year);
+            String otherFileName = SSSIEBatchExporter.getFileName(other, otherYear);
+
+            assertThat(exporter.getErrors()).isEmpty();
+            assertThat(timings).containsOnlyKeys(fileName, otherFileName);
+            assertThat(exporter.getUnmatched()).containsExactly(mistyped);
+
+            List<String> lines = read(fileName);
+            List<String> otherLines = read(otherFileName);
+
+            assertThat(labelled(lines, "#FNAMN")).containsExactly("#FNAMN " + quoted(company.getName()));
+            assertThat(labelled(otherLines, "#FNAMN")).containsExactly("#FNAMN \"Exportbolaget AB\"");
+
+            assertThat(voucherNumbers(lines)).contains(97_501).doesNotContain(98_001);
+            assertThat(voucherNumbers(otherLines)).containsExactly(98_001);
+
+            assertThat(db.getCurrentCompany().getId()).isEqualTo(company.getId());
+            assertThat(db.getCurrentYear().getId()).isEqualTo(year.getId());
+        } finally {
+            System.clearProperty("bokfri.export.companies");
+
+            db.deleteVoucher(voucher);
+
+            db.setCurrentCompany(other);
+            db.setCurrentYear(otherYear);
+            db.deleteVoucher(otherVoucher);
+            db.deleteAccountingYear(otherYear);
+
+            db.setCurrentCompany(company);
+            db.setCurrentYear(year);
+            db.deleteCompany(other);
+        }
+    }
+
+    private List<String> read(String fileName) throws Exception {
+        File file = dir.resolve(fileName).toFile();
+
+        assertThat(file).exists();
+        return Files.readAllLines(file.toPath(), SIEFile.CHARSET);
+    }
+
+    private static List<String> labelled(List<String> lines, String label) {
+        return lines.stream()
+                .filter(line -> line.startsWith(label + " "))
+                .map(String::trim)
+                .collect(Collectors.toList());
+    }
+
+    private static List<Integer> voucherNumbers(List<String> lines) {
+        return labelled(lines, "#VER").stream()
+                .map(line -> Integer.valueOf(line.split(" ")[2]))
+                .collect(Collectors.toList());
+    }
+
+    private static String quoted(String value) {
+        return value.contains(" ") ? '"' + value + '"' : value;
+    }
+
+    private static SSVoucher voucher(int number, LocalDate date) {
+        SSVoucher voucher = new SSVoucher(number);
+
+        voucher.setLocalDate(date);
+        voucher.getRows().add(row(3010, null, new BigDecimal("40.00")));
+        voucher.getRows().add(row(1930, new BigDecimal("40.00"), null));
+        return voucher;
+    }
+
+    private static SSVoucherRow row(int accountNumber, BigDecimal debet, BigDecimal credit) {
+        SSAccount account = new SSAccount();
+
+        account.setNumber(accountNumber);
+
+        SSVoucherRow row = new SSVoucherRow();
+
+        row.setAccount(account);
+        row.setDebet(debet);
+        row.setCredit(credit);
+        return row;
+    }
+}
@@ -0,0 +1,61 @@
+package se.swedsoft.bookkeeping.importexport.sie;
+
+import org.junit.jupiter.api.Test;
+import se.swedsoft.bookkeeping.data.SSNewAccountingYear;
+import se.swedsoft.bookkeeping.data.SSNewCompany;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for the selection and file names of {@link SSSIEBatchExporter}.
+ */
+class SSSIEBatchExporterTest {
+
+    private final SSNewCompany company = company(3, "Bolaget i Åre AB");
+
+    private final SSNewAccountingYear year = year(2024);
+
+    @Test
+    void allSelectsEveryYear() {
+        assertThat(SSSIEBatchExporter.isSelected(company, year, List.of("all"))).isTrue();
+        assertThat(SSSIEBatchExporter.isSelected(company, year, List.of("ALL"))).isTrue();
+    }
+
+    @Test
+    void companyIdSelectsEveryYearOfTheCompany() {
+        assertThat(SSSIEBatchExporter.isSelected(company, year, List.of("7", "3"))).isTrue();
+        assertThat(SSSIEBatchExporter.isSelected(company, year, List.of("7"))).isFalse();
+    }
+
+    @Test
+    void companyAndYearSelectsOneYear() {
+        assertThat(SSSIEBatchExporter.isSelected(company, year, List.of("3:2024"))).isTrue();
+        assertThat(SSSIEBatchExporter.isSelected(company, year, List.of("3:2023"))).isFalse();
+        assertThat(SSSIEBatchExporter.isSelected(company, year, List.of("7:2024"))).isFalse();
+    }
+
+    @Test
+    void fileNameHasTheCompanyAndTheDatesOfTheYear() {
+        assertThat(SSSIEBatchExporter.getFileName(company, year))
+                .isEqualTo("Bolaget_i_Åre_AB_3_20240101-20241231.se");
+    }
+
+    private static SSNewCompany company(int id, String name) {
+        SSNewCompany company = new SSNewCompany();
+
+        company.setId(id);
+        company.setName(name);
+        return company;
+    }
+
+    private static SSNewAccountingYear year(int year) {
+        SSNewAccountingYear accountingYear = new SSNewAccountingYear();
+
+        accountingYear.setLocalFrom(LocalDate.of(year, 1, 1));
+        accountingYear.setLocalTo(LocalDate.of(year, 12, 31));
+        return accountingYear;
+    }
+}
@@ -0,0 +1,175 @@
+package se.swedsoft.bookkeeping.importexport.sie;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import se.swedsoft.bookkeeping.data.SSAccount;
+import se.swedsoft.bookkeeping.data.SSNewAccountingYear;
+import se.swedsoft.bookkeeping.data.SSVoucher;
+import se.swedsoft.bookkeeping.data.SSVoucherRow;
+import se.swedsoft.bookkeeping.data.system.SSDB;
+import se.swedsoft.bookkeeping.data.system.SSDBBatch;
+import se.swedsoft.bookkeeping.data.system.SSDBTestFixture;
+import se.swedsoft.bookkeeping.importexport.sie.util.SIEFile;
+import se.swedsoft.bookkeeping.importexport.sie.util.SIEType;
+
+import java.io.File;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Integration tests for {@link SSSIEExporter}.
+ */
+@Tag("integration")
+class SSSIEExporterTest {
+
+    @TempDir
+    Path dir;
+
+    @BeforeAll
+    static void setUpDatabase() throws Exception {
+        SSDBTestFixture.setupOnce();
+    }
+
+    @BeforeEach
+    void resetCaches() {
+        SSDBTestFixture.resetCaches();
+    }
+
+    @AfterEach
+    void checkBackgroundThreads() {
+        SSDBTestFixture.drainUncaughtExceptions();
+    }
+
+    @Test
+    void concurrentExportEqualsSequentialExport() throws Exception {
+        SSDB db = SSDB.getInstance();
+        SSNewAccountingYear current = db.getCurrentYear();
+        SSNewAccountingYear previous = null;
+
+        if (db.getPreviousYear().isEmpty()) {
+            previous = new SSNewAccountingYear();
+            previous.setLocalFrom(current.getLocalFrom().minusYears(1));
+            previous.setLocalTo(current.getLocalFrom().minusDays(1));
+            previous.setInBalance(new HashMap<>(Map.of(account(1930), new BigDecimal("100.00"))));
+            db.addAccountingYear(previous);
+        }
+
+        List<SSVoucher> vouchers = new ArrayList<>();
+
+        // More than one section of vouchers
+        for (int i = 0; i < 1100; i++) {
+            SSVoucher v = new SSVoucher(96_001 + i);
+
+            v.setLocalDate(current.getLocalFrom().plusDays(i % 300));
+            v.setDescription("Export " + i);
+            v.getRows().add(row(3010, null, new BigDecimal("10.00")));
+            v.getRows().add(row(1930, new BigDecimal("10.00"), null));
+            vouchers.add(v);
+        }
+        try (SSDBBatch batch = db.beginBatch("test")) {
+            db.addVouchers(vouchers);
+        }
+
+        try {
+            List<String> sequential = export(1);
+            List<String> concurrent = export(4);
+
+            assertThat(concurrent).isEqualTo(sequential);
+            assertThat(sequential).anyMatch(line -> line.startsWith("#IB -1"))
+                    .anyMatch(line -> line.startsWith("#UB 0"))
+                    .anyMatch(line -> line.startsWith("#RES 0"))
+                    .anyMatch(line -> line.startsWith("#PSALDO 0"))
+                    .anyMatch(line -> line.startsWith("#RAR -1"));
+
+            List<Integer> numbers = sequential.stream()
+                    .filter(line -> line.startsWith("#VER"))
+                    .map(line -> Integer.valueOf(line.split(" ")[2]))
+                    .collect(Collectors.toList());
+
+            assertThat(numbers).containsSubsequence(96_001, 97_000, 97_001, 97_100)
+                    .isEqualTo(db.getVouchers().stream().map(SSVoucher::getNumber).collect(Collectors.toList()));
+        } finally {
+            try (SSDBBatch batch = db.beginBatch("test")) {
+                for (SSVoucher v : vouchers) {
+                    db.deleteVoucher(v);
+                }
+            }
+            if (previous != null) {
+                for (SSNewAccountingYear year : db.getYears()) {
+                    if (previous.getLocalFrom().equals(year.getLocalFrom())) {
+                        db.deleteAccountingYear(year);
+                    }
+                }
+            }
+            System.clearProperty("bokfri.export.threads");
+        }
+    }
+
+    @Test
+    void failedSectionLeavesNoFile() throws Exception {
+        File file = dir.resolve("failed.se").toFile();
+        List<Callable<List<String>>> sections = new ArrayList<>();
+
+        for (int i = 0; i < 20; i++) {
+            String line = "#VER A " + i;
+
+            sections.add(() -> List.of(line));
+        }
+        sections.add(() -> {
+            throw new IllegalStateException("Section failed");
+        });
+
+        System.setProperty("bokfri.export.threads", "2");
+        try {
+            assertThatThrownBy(() -> SSSIEExporter.writeFile(file, sections))
+                    .isInstanceOf(IllegalStateException.class)
+                    .hasMessage("Section failed");
+        } finally {
+            System.clearProperty("bokfri.export.threads");
+        }
+
+        assertThat(file).doesNotExist();
+        try (Stream<Path> files = Files.list(dir)) {
+            assertThat(files).isEmpty();
+        }
+    }
+
+    private List<String> export(int threads) throws Exception {
+        File file = dir.resolve("export-" + threads + ".se").toFile();
+
+        System.setProperty("bokfri.export.threads", String.valueOf(threads));
+        new SSSIEExporter(SIEType.SIE_4E).exportSIE(file);
+        return Files.readAllLines(file.toPath(), SIEFile.CHARSET);
+    }
+
+    private static SSAccount account(int number) {
+        SSAccount account = new SSAccount();
+
+        account.setNumber(number);
+        return account;
+    }
+
+    private static SSVoucherRow row(int accountNumber, BigDecimal debet, BigDecimal credit) {
+        SSVoucherRow row = new SSVoucherRow();
+
+        row.setAccount(account(accountNumber));
+        row.setDebet(debet);
+        row.setCredit(credit);
+        return row;
+    }
+}
@@ -0,0 +1,108 @@
+package se.swedsoft.bookkeeping.importexport.sie.util;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link SIEBlockReader} and {@link SIEFile#replaceFirstLine}.
+ */
+class SIEBlockReaderTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void linesWithoutBlockAreOneEntryEach() throws IOException {
+        SIEBlockReader reader = reader("#FLAGGA 0", "#PROGRAM Bokfri 1.0", "#KONTO 1910 Kassa");
+
+        assertThat(reader.nextBlock()).containsExactly("#FLAGGA 0");
+        assertThat(reader.nextBlock()).containsExactly("#PROGRAM Bokfri 1.0");
+        assertThat(reader.nextBlock()).containsExactly("#KONTO 1910 Kassa");
+        assertThat(reader.nextBlock()).isNull();
+    }
+
+    @Test
+    void blockRowsBelongToTheLabelBeforeIt() throws IOException {
+        SIEBlockReader reader = reader(
+                "#VER A 1 20240101 \"Kaffe\"",
+                "{",
+                "   #TRANS 1910 {} -50.00",
+                "   #TRANS 5460 {} 50.00",
+                "}",
+                "#VER A 2 20240102",
+                "{",
+                "}");
+
+        assertThat(reader.nextBlock()).containsExactly(
+                "#VER A 1 20240101 \"Kaffe\"", "   #TRANS 1910 {} -50.00", "   #TRANS 5460 {} 50.00");
+        assertThat(reader.nextBlock()).containsExactly("#VER A 2 20240102");
+        assertThat(reader.nextBlock()).isNull();
+    }
+
+    @Test
+    void blankLinesAreSkipped() throws IOException {
+        SIEBlockReader reader = reader("", "#FLAGGA 0", "   ", "#VER A 1", "{", "#TRANS 1910 {} 1", "}", "");
+
+        assertThat(reader.nextBlock()).containsExactly("#FLAGGA 0");
+        assertThat(reader.nextBlock()).containsExactly("#VER A 1", "#TRANS 1910 {} 1");
+        assertThat(reader.nextBlock()).isNull();
+    }
+
+    @Test
+    void unclosedBlockEndsAtTheEndOfTheFile() throws IOException {
+        SIEBlockReader reader = reader("#VER A 1", "{", "#TRANS 1910 {} 1");
+
+        assertThat(reader.nextBlock()).containsExactly("#VER A 1", "#TRANS 1910 {} 1");
+        assertThat(reader.nextBlock()).isNull();
+    }
+
+    @Test
+    void blockCanBeReadWithSIEReader() throws IOException {
+        List<String> block = reader("#VER A 1 20240101", "{", "#TRANS 1910 {} -50.00", "}").nextBlock();
+        SIEReader reader = new SIEReader(block);
+
+        assertThat(reader.next()).isEqualTo("#VER");
+        assertThat(reader.hasNextLine()).isTrue();
+        assertThat(reader.nextLine()).isEqualTo("#TRANS 1910 {} -50.00");
+        assertThat(reader.hasNextLine()).isFalse();
+    }
+
+    @Test
+    void firstLineOfSameLengthIsReplacedInPlace() throws IOException {
+        File file = write("#FLAGGA 0", "#VER A 1", "{", "}");
+
+        SIEFile.replaceFirstLine(file, "#FLAGGA 1");
+
+        assertThat(SIEFile.readFile(file)).containsExactly("#FLAGGA 1", "#VER A 1", "{", "}");
+    }
+
+    @Test
+    void firstLineOfOtherLengthIsReplacedByCopy() throws IOException {
+        File file = write("#FLAGGA  0", "#KONTO 1910 \"Kassa\"");
+
+        SIEFile.replaceFirstLine(file, "#FLAGGA 1");
+
+        assertThat(SIEFile.readFile(file)).containsExactly("#FLAGGA 1", "#KONTO 1910 \"Kassa\"");
+        assertThat(tempDir.toFile().list()).containsExactly(file.getName());
+    }
+
+    private static SIEBlockReader reader(String... lines) {
+        return new SIEBlockReader(new StringReader(String.join("\n", lines) + "\n"));
+    }
+
+    private File write(String... lines) throws IOException {
+        File file = tempDir.resolve("test.se").toFile();
+
+        Files.write(file.toPath(), List.of(lines), SIEFile.CHARSET);
+        return file;
+    }
+}